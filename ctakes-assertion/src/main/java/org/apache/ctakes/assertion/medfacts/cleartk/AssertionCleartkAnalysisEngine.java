@@ -21,8 +21,7 @@ package org.apache.ctakes.assertion.medfacts.cleartk;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.ctakes.assertion.attributes.features.selection.FeatureSelection;
 import org.apache.ctakes.assertion.medfacts.cleartk.extractors.FedaFeatureFunction;
-import org.apache.ctakes.core.util.doc.DocIdUtil;
-import org.apache.ctakes.typesystem.type.constants.CONST;
+import org.apache.ctakes.core.cleartk.FeatureCache;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.EntityMention;
@@ -48,7 +47,6 @@ import org.cleartk.ml.feature.extractor.CoveredTextExtractor;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 import org.cleartk.ml.feature.extractor.TypePathExtractor;
 import org.cleartk.ml.feature.function.FeatureFunctionExtractor;
-import org.cleartk.ml.tksvmlight.TreeFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -144,6 +142,8 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
    protected Map<String, String> fileToDomain = new HashMap<>();
 
    protected String lastLabel;
+   // shared feature configuration for the current document
+   private SharedAssertionFeatures sharedAssertionFeatures;
 
 
    /* DEPRECATED: STW 2013/03/28.  Use DependencyUtility:getNominalHeadNode(jCas,annotation) instead */
@@ -168,6 +168,7 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
    protected List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> contextFeatureExtractors;
    protected List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> tokenContextFeatureExtractors;
    protected List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> tokenCleartkExtractors;
+   private CleartkExtractor<IdentifiedAnnotation, BaseToken> tokenContextExtractor;
    protected List<FeatureExtractor1<IdentifiedAnnotation>> entityFeatureExtractors;
    protected List<FeatureExtractor1<IdentifiedAnnotation>> entityTreeExtractors;
    protected CleartkExtractor<IdentifiedAnnotation, BaseToken> cuePhraseInWindowExtractor;
@@ -200,6 +201,7 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
    @SuppressWarnings( "deprecation" )
    public void initialize( UimaContext context ) throws ResourceInitializationException {
       super.initialize( context );
+      FeatureCache.addUser();
 
       // Re-process the "directory" string for domains that were used in the data
       if ( null != fileDomainMap ) {
@@ -264,6 +266,7 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
             );
 
       this.tokenCleartkExtractors.add( tokenExtraction1 );
+      tokenContextExtractor = tokenExtraction1;
 //    this.tokenCleartkExtractors.add(posExtraction1);
 
 //    this.contextFeatureExtractors.add(new CleartkExtractor(IdentifiedAnnotation.class,
@@ -311,53 +314,35 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
    @Override
    public void process( JCas jCas ) throws AnalysisEngineProcessException {
       LOGGER.info( "Processing ..." );
-      String documentId = DocIdUtil.getDocumentID( jCas );
-      String domainId = "";
-      String domainFeature = null;
+      processEngines( jCas, Collections.singletonList( this ) );
+   }
 
-      if ( this.featureFunctionExtractors.size() <= 0 ) {
-         this.ffDomainAdaptor = null;
+   /**
+    * Assigns attributes with one or more engines.
+    * Each entity is visited once: features shared by engines are extracted once and then every engine, in list order,
+    * adds its own features and classifies the entity.  As engines only read attributes of the entity itself, which
+    * preceding engines have already set, the result is the same as running the engines one after another.
+    *
+    * @param jCas    -
+    * @param engines initialized engines, in the order that they should classify
+    * @throws AnalysisEngineProcessException if an engine fails
+    */
+   static void processEngines( final JCas jCas, final List<? extends AssertionCleartkAnalysisEngine> engines )
+         throws AnalysisEngineProcessException {
+      for ( AssertionCleartkAnalysisEngine engine : engines ) {
+         engine.beginDocument( jCas );
       }
-
-      if ( documentId != null ) {
-         LOGGER.debug( "processing next doc: {}", documentId );
-         // set the domain to be FeatureFunction'ed into all extractors
-         if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-            domainId = fileToDomain.get( documentId );
-            // if domain is not found, no warning -- just considers general domain
-            ffDomainAdaptor.setDomain( domainId );
-         } else if ( !fileToDomain.isEmpty() ) {
-            domainFeature = fileToDomain.get( documentId );
-         }
-      } else {
-          LOGGER.debug( "processing next doc (doc id is null)" );
+      // Index of the first engine extracting the same shared features as each engine.
+      final List<SharedAssertionFeatures> engineSharedFeatures = new ArrayList<>( engines.size() );
+      for ( AssertionCleartkAnalysisEngine engine : engines ) {
+         engineSharedFeatures.add( engine.sharedAssertionFeatures );
       }
+      final int[] sharedSources = SharedAssertionFeatures.getSharedSources( engineSharedFeatures );
+      final List<List<Feature>> sharedFeatures = new ArrayList<>( Collections.nCopies( engines.size(), null ) );
 
-      this.lastLabel = "<BEGIN>";
+      final AssertionCleartkAnalysisEngine firstEngine = engines.get( 0 );
+      final JCas annotationView = firstEngine.getAnnotationView( jCas );
 
-//    // get gold standard relation instances during testing for error analysis
-//    if (! this.isTraining() && printErrors) {
-//      JCas goldView;
-//      try {
-//        goldView = jCas.getView("GoldView");
-//      } catch(CASException e) {
-//        throw new AnalysisEngineProcessException(e);
-//      }
-//      
-//      //categoryLookup = createCategoryLookup(goldView); 
-//    }
-
-      final JCas annotationView = getAnnotationView( jCas );
-
-//    Map<IdentifiedAnnotation, Collection<Sentence>> coveringSentenceMap = JCasUtil.indexCovering(annotationView, IdentifiedAnnotation.class, Sentence.class);
-//    Map<Sentence, Collection<BaseToken>> tokensCoveredInSentenceMap = JCasUtil.indexCovered(annotationView, Sentence.class, BaseToken.class);
-
-//    Map<IdentifiedAnnotation, Collection<Zone>> coveringZoneMap =
-//        JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Zone.class);
-//    Map<IdentifiedAnnotation, Collection<Sentence>> coveringSents =
-//        JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Sentence.class);
-
-//    List<Instance<String>> instances = new ArrayList<Instance<String>>();
       // generate a list of training instances for each sentence in the document
       // Use an indexed map.  This is faster than calling select and then selectCovering within a loop.
       final Map<Sentence, List<Annotation>> sentenceAnnotationMap
@@ -391,165 +376,81 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
                      identifiedAnnotation.getPolarity(),
                      identifiedAnnotation.getClass().getName() ) );
             }
-            Instance<String> instance = new Instance<>();
-
-            if ( domainFeature != null ) {
-               instance.add( new Feature( "Domain", domainFeature ) );
-            }
-//      // extract all features that require only the entity mention annotation
-//      instance.addAll(tokenFeatureExtractor.extract(jCas, entityMention));
-
-            // extract all features that require the token and sentence annotations
-
-            //Sentence sentence = sentenceList.iterator().next();
-      
-      /*
-      if (sentence != null)
-      {
-        for (ContextExtractor<IdentifiedAnnotation> extractor : this.contextFeatureExtractors) {
-          instance.addAll(extractor.extractWithin(annotationView, entityMention, sentence));
-        }
-      } else
-      {
-        // TODO extract context features for annotations that don't fall within a sentence
-        LOGGER.log(Level.WARN, "FIXME/TODO: generate context features for entities that don't fall within a sentence");
-      }
-      */
-      
-      /*
-      for (ContextExtractor<BaseToken> extractor : this.tokenContextFeatureExtractors) {
-          instance.addAll(extractor.extract(annotationView, entityMention));
-        }
-        */
-
-            // only use extract this version if not doing domain adaptation
-            if ( ffDomainAdaptor == null ) {
-               for ( CleartkExtractor<IdentifiedAnnotation, BaseToken> extractor : this.tokenCleartkExtractors ) {
-//    		  instance.addAll(extractor.extractWithin(annotationView, entityMention, sentence));
-//                  if ( coveringSent != null ) {
-                  instance.addAll( extractor
-                        .extractWithin( annotationView, identifiedAnnotation, coveringSent ) );
-//                  } else {
-//                     instance.addAll( extractor.extract( annotationView, identifiedAnnotation ) );
-//                  }
+            for ( int i = 0; i < engines.size(); i++ ) {
+               final AssertionCleartkAnalysisEngine engine = engines.get( i );
+               if ( sharedSources[ i ] == i ) {
+                  sharedFeatures.set( i, engine.sharedAssertionFeatures.extract( annotationView, identifiedAnnotation,
+                        coveringSent, cues, baseTokens ) );
                }
+               engine.classifyEntity( jCas, identifiedAnnotation, sharedFeatures.get( sharedSources[ i ] ) );
             }
+         }
+      }
+   }
 
-            int closest = Integer.MAX_VALUE;
-            AssertionCuePhraseAnnotation closestCue = null;
-            for ( AssertionCuePhraseAnnotation cue : cues ) {
-               // It is much faster to count between BaseTokens already isolated within the same sentence.
-               final int betweenCount = countBetween( cue, identifiedAnnotation, baseTokens );
-               if ( betweenCount < closest ) {
-                  closestCue = cue;
-                  closest = betweenCount;
-               }
-
-//          instance.addAll(cuePhraseInWindowExtractor.extractBetween(jCas, cue, entityOrEventMention));
-            }
-            if ( closestCue != null && closest < 21 ) {
-               instance.add( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) );
-//          instance.add(new Feature("ClosestCue_Phrase", closestCue.getCuePhrase()));
-               instance.add( new Feature( "ClosestCue_PhraseFamily", closestCue.getCuePhraseAssertionFamily() ) );
-               instance.add( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) );
-
-               // add hack-ey domain adaptation to these hacked-in features
-               if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) ) );
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_PhraseFamily", closestCue
-                              .getCuePhraseAssertionFamily() ) ) );
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) ) );
-               }
+   /**
+    * Sets the domain of the document and resets the label history.
+    *
+    * @param jCas -
+    */
+   private void beginDocument( final JCas jCas ) {
+      if ( this.featureFunctionExtractors.size() <= 0 ) {
+         this.ffDomainAdaptor = null;
+      }
+      sharedAssertionFeatures = new SharedAssertionFeatures( jCas, fileToDomain, ffDomainAdaptor,
+            tokenCleartkExtractors, tokenContextExtractor );
+      this.lastLabel = "<BEGIN>";
+   }
 
-            }
-//            }
-//      if (cuePhraseFeatures != null && !cuePhraseFeatures.isEmpty())
-//      {
-//        instance.addAll(cuePhraseFeatures);
-//      }
-
-
-            // 7/9/13 SRH trying to make it work just for anatomical site
-            int eemTypeId = identifiedAnnotation.getTypeID();
-            if ( eemTypeId == CONST.NE_TYPE_ID_ANATOMICAL_SITE ) {
-               // 7/9/13 srh modified per tmiller so it's binary but not numeric feature
-               //instance.add(new Feature("ENTITY_TYPE_" + entityOrEventMention.getTypeID()));
-               instance.add( new Feature( "ENTITY_TYPE_ANAT_SITE" ) );
-               // add hack-ey domain adaptation to these hacked-in features
-               if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-                  instance.addAll( ffDomainAdaptor.apply( new Feature( "ENTITY_TYPE_ANAT_SITE" ) ) );
-               }
-            }
-      /* This hurts recall more than it helps precision
-      else if (eemTypeId == CONST.NE_TYPE_ID_DRUG) {
-    	  // 7/10 adding drug
-    	  instance.add(new Feature("ENTITY_TYPE_DRUG"));
+   /**
+    * Adds the features particular to this engine to the shared features and classifies the entity,
+    * or writes the training instance.
+    *
+    * @param sharedFeatures features from {@link SharedAssertionFeatures#extract}, possibly shared with other engines.
+    *                       The list is not modified.
+    */
+   private void classifyEntity( final JCas jCas,
+                                final IdentifiedAnnotation identifiedAnnotation,
+                                final List<Feature> sharedFeatures ) throws AnalysisEngineProcessException {
+      Instance<String> instance = new Instance<>();
+      instance.addAll( sharedFeatures );
+
+      // only extract these features if not doing domain adaptation
+      if ( ffDomainAdaptor == null ) {
+         for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
+            instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+         }
       }
-      */
 
-            // only extract these features if not doing domain adaptation
-            if ( ffDomainAdaptor == null ) {
-               for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
-                  instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-               }
-            }
+      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
+         instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+      }
 
-            for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
-               instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-            }
+      List<Feature> feats = instance.getFeatures();
 
-//      List<Feature> zoneFeatures = extractZoneFeatures(coveringZoneMap, entityOrEventMention);
-//      if (zoneFeatures != null && !zoneFeatures.isEmpty())
-//      {
-//        instance.addAll(zoneFeatures);
-//      }
-
-            List<Feature> feats = instance.getFeatures();
-//      List<Feature> lcFeats = new ArrayList<Feature>();
-
-            for ( Feature feat : feats ) {
-               if ( feat instanceof TreeFeature ||
-                    (feat.getName() != null && (feat.getName().startsWith( "TreeFrag" ) ||
-                                                feat.getName().startsWith( "WORD" ) ||
-                                                feat.getName().startsWith( "NEG" ))) ) {
-                  continue;
-               }
-               if ( feat.getName() != null &&
-                    (feat.getName().contains( "_TreeFrag" ) || feat.getName().contains( "_WORD" ) ||
-                     feat.getName().contains( "_NEG" )) ) {
-                  continue;
-               }
-               if ( feat.getValue() instanceof String ) {
-                  feat.setValue( ((String)feat.getValue()).toLowerCase() );
-               }
-            }
+      SharedAssertionFeatures.lowerCaseValues( feats );
 
-            if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-               for ( FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors ) {
-                  // TODO: extend to the case where the extractors take a different argument besides entityOrEventMention
-                  instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-               }
-            }
+      if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
+         for ( FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors ) {
+            // TODO: extend to the case where the extractors take a different argument besides entityOrEventMention
+            instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+         }
+      }
 
 
-            // grab the output label
-            setClassLabel( identifiedAnnotation, instance );
+      // grab the output label
+      setClassLabel( identifiedAnnotation, instance );
 
-            if ( this.isTraining() ) {
-               // apply feature selection, if necessary
-               if ( this.featureSelection != null ) {
-                  feats = this.featureSelection.transform( feats );
-               }
+      if ( this.isTraining() ) {
+         // apply feature selection, if necessary
+         if ( this.featureSelection != null ) {
+            feats = this.featureSelection.transform( feats );
+         }
 
-               // ensures that the (possibly) transformed feats are used
-               if ( instance.getOutcome() != null ) {
-                  if ( coin.nextDouble() < this.portionOfDataToUse ) {
-                     this.dataWriter.write( new Instance<>( instance.getOutcome(), feats ) );
-                  }
-               }
+         // ensures that the (possibly) transformed feats are used
+         if ( instance.getOutcome() != null ) {
+            if ( coin.nextDouble() < this.portionOfDataToUse ) {
+               this.dataWriter.write( new Instance<>( instance.getOutcome(), feats ) );
             }
          }
       }
@@ -623,26 +524,6 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
    }
 
 
-   /**
-    * @param annotation1 -
-    * @param annotation2 -
-    * @param baseTokens  baseTokens within window
-    * @return number of basetokens that lie between annotation1 and annotation2
-    */
-   static private int countBetween( final Annotation annotation1,
-                                    final Annotation annotation2,
-                                    final Collection<BaseToken> baseTokens ) {
-      final int lowEnd = Math.min( annotation1.getEnd(), annotation2.getEnd() );
-      final int highBegin = Math.max( annotation1.getBegin(), annotation2.getBegin() );
-      int between = 0;
-      for ( BaseToken baseToken : baseTokens ) {
-         if ( lowEnd < baseToken.getBegin() && baseToken.getEnd() < highBegin ) {
-            between++;
-         }
-      }
-      return between;
-   }
-
   /*
   public static AnalysisEngineDescription getClassifierDescription(String modelFileName)
       throws ResourceInitializationException {
@@ -671,6 +552,7 @@ public abstract class AssertionCleartkAnalysisEngine extends CleartkAnnotator<St
    @Override
    public void collectionProcessComplete() throws AnalysisEngineProcessException {
       super.collectionProcessComplete();
+      FeatureCache.userComplete();
       if ( classifier instanceof AutoCloseable ) {
          try {
             ((AutoCloseable)classifier).close();
@@ -0,0 +1,283 @@
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.assertion.medfacts.cleartk.windowed.*;
+import org.apache.ctakes.core.cleartk.CompiledJarClassifierFactory;
+import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.UimaContextFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.NameValuePair;
+import org.cleartk.ml.CleartkAnnotator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assigns polarity, uncertainty, history, conditional, generic and subject with one pass over the entities.
+ * <p>
+ * The separate attribute engines each walk every sentence and entity and extract the token context and cue phrase
+ * features again.  This engine holds one instance of each attribute engine, configured exactly as by that engine's
+ * createAnnotatorDescription, and for each entity extracts the shared features once before every attribute engine
+ * adds its own features and classifies.  Attributes are assigned in the order of the default attribute sub-pipeline,
+ * so the results are identical to running the separate engines.
+ * <p>
+ * Set the model of an attribute to an empty value to skip that attribute.
+ * Liblinear attribute models are compiled for scoring by the {@link CompiledJarClassifierFactory} unless CompileModels is false.
+ * This engine is for classification; train attribute models with the separate engines.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+@PipeBitInfo(
+      name = "Fused Assertion Annotator (ClearTK)",
+      description = "Annotates polarity, uncertainty, history, conditional, generic and subject properties in one pass.",
+      dependencies = { PipeBitInfo.TypeProduct.SENTENCE, PipeBitInfo.TypeProduct.IDENTIFIED_ANNOTATION }
+)
+final public class FusedAssertionCleartkAnalysisEngine extends JCasAnnotator_ImplBase {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "FusedAssertionCleartkAnalysisEngine" );
+
+   public static final String PARAM_WINDOWED = "Windowed";
+   @ConfigurationParameter(
+         name = PARAM_WINDOWED,
+         mandatory = false,
+         description = "Use the windowed attribute engines.",
+         defaultValue = "false"
+   )
+   private boolean _windowed;
+
+   public static final String PARAM_COMPILE_MODELS = "CompileModels";
+   @ConfigurationParameter(
+         name = PARAM_COMPILE_MODELS,
+         mandatory = false,
+         description = "Compile liblinear attribute models for faster scoring.",
+         defaultValue = "true"
+   )
+   private boolean _compileModels;
+
+   public static final String PARAM_POLARITY_MODEL = "PolarityModel";
+   @ConfigurationParameter(
+         name = PARAM_POLARITY_MODEL,
+         mandatory = false,
+         description = "Polarity model jar.",
+         defaultValue = "/org/apache/ctakes/assertion/models/polarity/sharpi2b2mipacqnegex/model.jar"
+   )
+   private String _polarityModel;
+
+   public static final String PARAM_UNCERTAINTY_MODEL = "UncertaintyModel";
+   @ConfigurationParameter(
+         name = PARAM_UNCERTAINTY_MODEL,
+         mandatory = false,
+         description = "Uncertainty model jar.",
+         defaultValue = "/org/apache/ctakes/assertion/models/uncertainty/model.jar"
+   )
+   private String _uncertaintyModel;
+
+   public static final String PARAM_HISTORY_MODEL = "HistoryModel";
+   @ConfigurationParameter(
+         name = PARAM_HISTORY_MODEL,
+         mandatory = false,
+         description = "History of model jar.",
+         defaultValue = "/org/apache/ctakes/assertion/models/historyOf/model.jar"
+   )
+   private String _historyModel;
+
+   public static final String PARAM_CONDITIONAL_MODEL = "ConditionalModel";
+   @ConfigurationParameter(
+         name = PARAM_CONDITIONAL_MODEL,
+         mandatory = false,
+         description = "Conditional model jar.",
+         defaultValue = "/org/apache/ctakes/assertion/models/conditional/model.jar"
+   )
+   private String _conditionalModel;
+
+   public static final String PARAM_GENERIC_MODEL = "GenericModel";
+   @ConfigurationParameter(
+         name = PARAM_GENERIC_MODEL,
+         mandatory = false,
+         description = "Generic model jar.",
+         defaultValue = "/org/apache/ctakes/assertion/models/generic/model.jar"
+   )
+   private String _genericModel;
+
+   public static final String PARAM_SUBJECT_MODEL = "SubjectModel";
+   @ConfigurationParameter(
+         name = PARAM_SUBJECT_MODEL,
+         mandatory = false,
+         description = "Subject model jar.",
+         defaultValue = "/org/apache/ctakes/assertion/models/subject/model.jar"
+   )
+   private String _subjectModel;
+
+   private final List<AssertionCleartkAnalysisEngine> _engines = new ArrayList<>();
+   private final List<WindowedAssertionCleartkAnalysisEngine> _windowedEngines = new ArrayList<>();
+
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      for ( AnalysisEngineDescription description : getDescriptions() ) {
+         final CleartkAnnotator<String> engine = createEngine( description, _compileModels );
+         if ( engine instanceof WindowedAssertionCleartkAnalysisEngine ) {
+            _windowedEngines.add( (WindowedAssertionCleartkAnalysisEngine)engine );
+         } else {
+            _engines.add( (AssertionCleartkAnalysisEngine)engine );
+         }
+         LOGGER.info( "Assigning attributes with " + engine.getClass().getSimpleName() );
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      if ( !_engines.isEmpty() ) {
+         AssertionCleartkAnalysisEngine.processEngines( jCas, _engines );
+      }
+      if ( !_windowedEngines.isEmpty() ) {
+         WindowedAssertionCleartkAnalysisEngine.processEngines( jCas, _windowedEngines );
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      for ( CleartkAnnotator<String> engine : getEngines() ) {
+         engine.collectionProcessComplete();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void destroy() {
+      getEngines().forEach( CleartkAnnotator::destroy );
+      super.destroy();
+   }
+
+   private List<CleartkAnnotator<String>> getEngines() {
+      final List<CleartkAnnotator<String>> engines = new ArrayList<>( _engines );
+      engines.addAll( _windowedEngines );
+      return engines;
+   }
+
+   /**
+    * @return descriptions of the attribute engines, in the order of the attribute sub-pipeline
+    * @throws ResourceInitializationException -
+    */
+   private List<AnalysisEngineDescription> getDescriptions() throws ResourceInitializationException {
+      final List<AnalysisEngineDescription> descriptions = new ArrayList<>();
+      if ( _windowed ) {
+         if ( isUsed( _polarityModel ) ) {
+            descriptions.add( PolarityCleartkAnalysisEngineWindowed.createAnnotatorDescription( _polarityModel ) );
+         }
+         if ( isUsed( _uncertaintyModel ) ) {
+            descriptions.add( UncertaintyCleartkAnalysisEngineWindowed.createAnnotatorDescription( _uncertaintyModel ) );
+         }
+         if ( isUsed( _historyModel ) ) {
+            descriptions.add( HistoryCleartkAnalysisEngineWindowed.createAnnotatorDescription( _historyModel ) );
+         }
+         if ( isUsed( _conditionalModel ) ) {
+            descriptions.add( ConditionalCleartkAnalysisEngineWindowed.createAnnotatorDescription( _conditionalModel ) );
+         }
+         if ( isUsed( _genericModel ) ) {
+            descriptions.add( GenericCleartkAnalysisEngineWindowed.createAnnotatorDescription( _genericModel ) );
+         }
+         if ( isUsed( _subjectModel ) ) {
+            descriptions.add( SubjectCleartkAnalysisEngineWindowed.createAnnotatorDescription( _subjectModel ) );
+         }
+      } else {
+         if ( isUsed( _polarityModel ) ) {
+            descriptions.add( PolarityCleartkAnalysisEngine.createAnnotatorDescription( _polarityModel ) );
+         }
+         if ( isUsed( _uncertaintyModel ) ) {
+            descriptions.add( UncertaintyCleartkAnalysisEngine.createAnnotatorDescription( _uncertaintyModel ) );
+         }
+         if ( isUsed( _historyModel ) ) {
+            descriptions.add( HistoryCleartkAnalysisEngine.createAnnotatorDescription( _historyModel ) );
+         }
+         if ( isUsed( _conditionalModel ) ) {
+            descriptions.add( ConditionalCleartkAnalysisEngine.createAnnotatorDescription( _conditionalModel ) );
+         }
+         if ( isUsed( _genericModel ) ) {
+            descriptions.add( GenericCleartkAnalysisEngine.createAnnotatorDescription( _genericModel ) );
+         }
+         if ( isUsed( _subjectModel ) ) {
+            descriptions.add( SubjectCleartkAnalysisEngine.createAnnotatorDescription( _subjectModel ) );
+         }
+      }
+      if ( descriptions.isEmpty() ) {
+         throw new ResourceInitializationException( new IllegalArgumentException( "No attribute models specified." ) );
+      }
+      return descriptions;
+   }
+
+   static private boolean isUsed( final String model ) {
+      return model != null && !model.trim().isEmpty();
+   }
+
+   /**
+    * @param description   description of an attribute engine
+    * @param compileModels true to classify with the compiled classifier factory
+    * @return an instance of the engine, initialized with the parameters of the description
+    * @throws ResourceInitializationException if the engine could not be created or initialized
+    */
+   @SuppressWarnings( "unchecked" )
+   static private CleartkAnnotator<String> createEngine( final AnalysisEngineDescription description,
+                                                         final boolean compileModels )
+         throws ResourceInitializationException {
+      final NameValuePair[] settings = description.getAnalysisEngineMetaData()
+                                                  .getConfigurationParameterSettings()
+                                                  .getParameterSettings();
+      final List<Object> parameters = new ArrayList<>( settings.length * 2 + 2 );
+      for ( NameValuePair setting : settings ) {
+         if ( compileModels && setting.getName().equals( CleartkAnnotator.PARAM_CLASSIFIER_FACTORY_CLASS_NAME ) ) {
+            continue;
+         }
+         parameters.add( setting.getName() );
+         parameters.add( setting.getValue() );
+      }
+      if ( compileModels ) {
+         parameters.add( CleartkAnnotator.PARAM_CLASSIFIER_FACTORY_CLASS_NAME );
+         parameters.add( CompiledJarClassifierFactory.class.getName() );
+      }
+      final CleartkAnnotator<String> engine;
+      try {
+         engine = (CleartkAnnotator<String>)Class.forName( description.getAnnotatorImplementationName() )
+                                                 .getDeclaredConstructor()
+                                                 .newInstance();
+      } catch ( ReflectiveOperationException roE ) {
+         throw new ResourceInitializationException( roE );
+      }
+      engine.initialize( UimaContextFactory.createUimaContext( parameters.toArray() ) );
+      return engine;
+   }
+
+   public static AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription( FusedAssertionCleartkAnalysisEngine.class );
+   }
+
+   public static AnalysisEngineDescription createWindowedAnnotatorDescription()
+         throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription( FusedAssertionCleartkAnalysisEngine.class,
+            PARAM_WINDOWED, true );
+   }
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.assertion.medfacts.cleartk.extractors.FedaFeatureFunction;
+import org.apache.ctakes.core.cleartk.FeatureCache;
+import org.apache.ctakes.core.util.doc.DocIdUtil;
+import org.apache.ctakes.typesystem.type.constants.CONST;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.CleartkExtractor;
+import org.cleartk.ml.tksvmlight.TreeFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Features of an entity that do not depend upon the assertion attribute: domain, token context,
+ * closest cue phrase and anatomical site type.
+ * Used by {@link AssertionCleartkAnalysisEngine} and the windowed assertion engines,
+ * which extract them once per entity for all engines with the same configuration.
+ * An instance holds the configuration of one engine for one document.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class SharedAssertionFeatures {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "SharedAssertionFeatures" );
+
+   // The token context extractor is configured identically for every assertion attribute, so its features are cached
+   static private final String TOKEN_CONTEXT_KEY = "AssertionTokenContext";
+
+   private final Map<String, String> _fileToDomain;
+   private final FedaFeatureFunction _domainAdaptor;
+   private final List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> _tokenExtractors;
+   private final CleartkExtractor<IdentifiedAnnotation, BaseToken> _tokenContextExtractor;
+   // domain of the document, used as a feature when domain adaptation has no feature functions
+   private final String _domainFeature;
+
+   /**
+    * Sets the domain of the document for the domain adaptor.
+    *
+    * @param jCas                  -
+    * @param fileToDomain          map of document ids to domains, empty without domain adaptation
+    * @param domainAdaptor         domain adaptor, or null if feature functions are not used for domain adaptation
+    * @param tokenExtractors       token extractors of the engine
+    * @param tokenContextExtractor the standard token context extractor of the engine, if it has one
+    */
+   public SharedAssertionFeatures( final JCas jCas,
+                                   final Map<String, String> fileToDomain,
+                                   final FedaFeatureFunction domainAdaptor,
+                                   final List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> tokenExtractors,
+                                   final CleartkExtractor<IdentifiedAnnotation, BaseToken> tokenContextExtractor ) {
+      _fileToDomain = fileToDomain;
+      _domainAdaptor = domainAdaptor;
+      _tokenExtractors = tokenExtractors;
+      _tokenContextExtractor = tokenContextExtractor;
+      final String documentId = DocIdUtil.getDocumentID( jCas );
+      String domainFeature = null;
+      if ( documentId != null ) {
+         LOGGER.debug( "processing next doc: {}", documentId );
+         // set the domain to be FeatureFunction'ed into all extractors
+         if ( !fileToDomain.isEmpty() && domainAdaptor != null ) {
+            // if domain is not found, no warning -- just considers general domain
+            domainAdaptor.setDomain( fileToDomain.get( documentId ) );
+         } else if ( !fileToDomain.isEmpty() ) {
+            domainFeature = fileToDomain.get( documentId );
+         }
+      } else {
+         LOGGER.debug( "processing next doc (doc id is null)" );
+      }
+      _domainFeature = domainFeature;
+   }
+
+   /**
+    * Shared features depend upon domain adaptation and the token extractors.
+    * Without domain adaptation every engine uses either the same token context extractor or none.
+    *
+    * @return 1 if the shared features are those of the token context extractor, 0 if there are no token features,
+    * -1 if the shared features are particular to this engine
+    */
+   public int getConfiguration() {
+      if ( !_fileToDomain.isEmpty() ) {
+         return -1;
+      }
+      if ( _tokenExtractors.isEmpty() ) {
+         return 0;
+      }
+      return _tokenExtractors.size() == 1 && _tokenExtractors.get( 0 ) == _tokenContextExtractor ? 1 : -1;
+   }
+
+   /**
+    * @param sharedFeatures shared features of engines, in engine order
+    * @return for each engine, the index of the first engine that extracts the same shared features
+    */
+   static public int[] getSharedSources( final List<SharedAssertionFeatures> sharedFeatures ) {
+      final int[] sources = new int[ sharedFeatures.size() ];
+      for ( int i = 0; i < sources.length; i++ ) {
+         sources[ i ] = i;
+         final int config = sharedFeatures.get( i ).getConfiguration();
+         if ( config < 0 ) {
+            continue;
+         }
+         for ( int j = 0; j < i; j++ ) {
+            if ( sharedFeatures.get( j ).getConfiguration() == config ) {
+               sources[ i ] = j;
+               break;
+            }
+         }
+      }
+      return sources;
+   }
+
+   /**
+    * @param annotationView       view holding the entities
+    * @param identifiedAnnotation entity
+    * @param coveringSent         sentence covering the entity
+    * @param cues                 assertion cue phrases in the sentence
+    * @param baseTokens           base tokens in the sentence
+    * @return features of the entity that do not depend upon the attribute
+    * @throws AnalysisEngineProcessException if a token extractor fails
+    */
+   public List<Feature> extract( final JCas annotationView,
+                                 final IdentifiedAnnotation identifiedAnnotation,
+                                 final Sentence coveringSent,
+                                 final Collection<AssertionCuePhraseAnnotation> cues,
+                                 final Collection<BaseToken> baseTokens )
+         throws AnalysisEngineProcessException {
+      final List<Feature> features = new ArrayList<>();
+      if ( _domainFeature != null ) {
+         features.add( new Feature( "Domain", _domainFeature ) );
+      }
+
+      // only use extract this version if not doing domain adaptation
+      if ( _domainAdaptor == null ) {
+         for ( CleartkExtractor<IdentifiedAnnotation, BaseToken> extractor : _tokenExtractors ) {
+            if ( extractor == _tokenContextExtractor ) {
+               features.addAll( FeatureCache.getFeatures( annotationView, TOKEN_CONTEXT_KEY,
+                     () -> extractor.extractWithin( annotationView, identifiedAnnotation, coveringSent ),
+                     identifiedAnnotation, coveringSent ) );
+            } else {
+               features.addAll( extractor
+                     .extractWithin( annotationView, identifiedAnnotation, coveringSent ) );
+            }
+         }
+      }
+
+      int closest = Integer.MAX_VALUE;
+      AssertionCuePhraseAnnotation closestCue = null;
+      for ( AssertionCuePhraseAnnotation cue : cues ) {
+         // It is much faster to count between BaseTokens already isolated within the same sentence.
+         final int betweenCount = countBetween( cue, identifiedAnnotation, baseTokens );
+         if ( betweenCount < closest ) {
+            closestCue = cue;
+            closest = betweenCount;
+         }
+      }
+      if ( closestCue != null && closest < 21 ) {
+         features.add( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) );
+         features.add( new Feature( "ClosestCue_PhraseFamily", closestCue.getCuePhraseAssertionFamily() ) );
+         features.add( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) );
+
+         // add hack-ey domain adaptation to these hacked-in features
+         if ( !_fileToDomain.isEmpty() && _domainAdaptor != null ) {
+            features.addAll( _domainAdaptor
+                  .apply( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) ) );
+            features.addAll( _domainAdaptor
+                  .apply( new Feature( "ClosestCue_PhraseFamily", closestCue
+                        .getCuePhraseAssertionFamily() ) ) );
+            features.addAll( _domainAdaptor
+                  .apply( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) ) );
+         }
+      }
+
+      // 7/9/13 SRH trying to make it work just for anatomical site
+      int eemTypeId = identifiedAnnotation.getTypeID();
+      if ( eemTypeId == CONST.NE_TYPE_ID_ANATOMICAL_SITE ) {
+         // 7/9/13 srh modified per tmiller so it's binary but not numeric feature
+         features.add( new Feature( "ENTITY_TYPE_ANAT_SITE" ) );
+         // add hack-ey domain adaptation to these hacked-in features
+         if ( !_fileToDomain.isEmpty() && _domainAdaptor != null ) {
+            features.addAll( _domainAdaptor.apply( new Feature( "ENTITY_TYPE_ANAT_SITE" ) ) );
+         }
+      }
+      return features;
+   }
+
+   /**
+    * Lower cases the string values of features other than tree, word and negation features.
+    * Features may be shared by engines, so a feature with a changed value is replaced by a new feature
+    * instead of being modified.
+    *
+    * @param features features of an instance, modified in place
+    */
+   static public void lowerCaseValues( final List<Feature> features ) {
+      for ( int i = 0; i < features.size(); i++ ) {
+         final Feature feat = features.get( i );
+         if ( feat instanceof TreeFeature ||
+              (feat.getName() != null && (feat.getName().startsWith( "TreeFrag" ) ||
+                                          feat.getName().startsWith( "WORD" ) ||
+                                          feat.getName().startsWith( "NEG" ))) ) {
+            continue;
+         }
+         if ( feat.getName() != null &&
+              (feat.getName().contains( "_TreeFrag" ) || feat.getName().contains( "_WORD" ) ||
+               feat.getName().contains( "_NEG" )) ) {
+            continue;
+         }
+         if ( feat.getValue() instanceof String ) {
+            final String value = (String)feat.getValue();
+            final String lowerValue = value.toLowerCase();
+            if ( !lowerValue.equals( value ) ) {
+               features.set( i, new Feature( feat.getName(), lowerValue ) );
+            }
+         }
+      }
+   }
+
+   /**
+    * @param annotation1 -
+    * @param annotation2 -
+    * @param baseTokens  baseTokens within window
+    * @return number of basetokens that lie between annotation1 and annotation2
+    */
+   static private int countBetween( final Annotation annotation1,
+                                    final Annotation annotation2,
+                                    final Collection<BaseToken> baseTokens ) {
+      final int lowEnd = Math.min( annotation1.getEnd(), annotation2.getEnd() );
+      final int highBegin = Math.max( annotation1.getBegin(), annotation2.getBegin() );
+      int between = 0;
+      for ( BaseToken baseToken : baseTokens ) {
+         if ( lowEnd < baseToken.getBegin() && baseToken.getEnd() < highBegin ) {
+            between++;
+         }
+      }
+      return between;
+   }
+
+}
@@ -20,14 +20,14 @@ package org.apache.ctakes.assertion.medfacts.cleartk.windowed;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.ctakes.assertion.attributes.features.selection.FeatureSelection;
+import org.apache.ctakes.assertion.medfacts.cleartk.SharedAssertionFeatures;
 import org.apache.ctakes.assertion.medfacts.cleartk.extractors.FedaFeatureFunction;
 import org.apache.ctakes.assertion.medfacts.cleartk.windowed.context.AbstractWindowedContext;
 import org.apache.ctakes.assertion.medfacts.cleartk.windowed.context.FollowingContext;
 import org.apache.ctakes.assertion.medfacts.cleartk.windowed.context.LastCoveredContext;
 import org.apache.ctakes.assertion.medfacts.cleartk.windowed.context.PrecedingContext;
 import org.apache.ctakes.assertion.medfacts.cleartk.windowed.context.feature.extractor.AbstractWindowedFeatureExtractor1;
-import org.apache.ctakes.core.util.doc.DocIdUtil;
-import org.apache.ctakes.typesystem.type.constants.CONST;
+import org.apache.ctakes.core.cleartk.FeatureCache;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.EntityMention;
@@ -54,7 +54,6 @@ import org.cleartk.ml.feature.extractor.CleartkExtractor;
 import org.cleartk.ml.feature.extractor.CoveredTextExtractor;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 import org.cleartk.ml.feature.function.FeatureFunctionExtractor;
-import org.cleartk.ml.tksvmlight.TreeFeature;
 
 import java.io.File;
 import java.net.URI;
@@ -147,10 +146,15 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
    protected Map<String, String> fileToDomain = new HashMap<>();
 
    protected String lastLabel;
+   // domain of the current document, used as a feature when domain adaptation has no feature functions
+   // shared feature configuration for the current document
+   private SharedAssertionFeatures sharedAssertionFeatures;
 
    //   protected List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> contextFeatureExtractors;
 //   protected List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> tokenContextFeatureExtractors;
    protected List<CleartkExtractor<IdentifiedAnnotation, BaseToken>> tokenCleartkExtractors;
+   // The token context extractor is configured identically for every assertion attribute, so its features are cached
+   private CleartkExtractor<IdentifiedAnnotation, BaseToken> tokenContextExtractor;
    protected List<FeatureExtractor1<IdentifiedAnnotation>> entityFeatureExtractors;
    protected List<FeatureExtractor1<IdentifiedAnnotation>> entityTreeExtractors;
 //   protected CleartkExtractor<IdentifiedAnnotation, BaseToken> cuePhraseInWindowExtractor;
@@ -185,6 +189,7 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
    @SuppressWarnings( "deprecation" )
    public void initialize( UimaContext context ) throws ResourceInitializationException {
       super.initialize( context );
+      FeatureCache.addUser();
 
       // Re-process the "directory" string for domains that were used in the data
       if ( null != fileDomainMap ) {
@@ -266,6 +271,7 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
             );
 
       this.tokenCleartkExtractors.add( tokenExtraction1 );
+      tokenContextExtractor = tokenExtraction1;
       if ( !fileToDomain.isEmpty() ) {
          // set up FeatureFunction for all the laggard, non-Extractor features
          ffDomainAdaptor = new FedaFeatureFunction( new ArrayList<>( new HashSet<>( fileToDomain.values() ) ) );
@@ -273,34 +279,44 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
       entityTreeExtractors = new ArrayList<>();
    }
 
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      FeatureCache.userComplete();
+   }
+
    @SuppressWarnings("unchecked")
    @Override
    public void process( JCas jCas ) throws AnalysisEngineProcessException {
-      String documentId = DocIdUtil.getDocumentID( jCas );
-      String domainId = "";
-      String domainFeature = null;
+      processEngines( jCas, Collections.singletonList( this ) );
+   }
 
-      if ( this.featureFunctionExtractors.size() <= 0 ) {
-         this.ffDomainAdaptor = null;
+   /**
+    * Assigns attributes with one or more engines.
+    * Each entity is visited once: features shared by engines are extracted once and then every engine, in list order,
+    * adds its own features and classifies the entity.  As engines only read attributes of the entity itself, which
+    * preceding engines have already set, the result is the same as running the engines one after another.
+    *
+    * @param jCas    -
+    * @param engines initialized engines, in the order that they should classify
+    * @throws AnalysisEngineProcessException if an engine fails
+    */
+   static public void processEngines( final JCas jCas,
+                                      final List<? extends WindowedAssertionCleartkAnalysisEngine> engines )
+         throws AnalysisEngineProcessException {
+      for ( WindowedAssertionCleartkAnalysisEngine engine : engines ) {
+         engine.beginDocument( jCas );
       }
-
-      if ( documentId != null ) {
-         LOGGER.debug( "processing next doc: " + documentId );
-         // set the domain to be FeatureFunction'ed into all extractors
-         if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-            domainId = fileToDomain.get( documentId );
-            // if domain is not found, no warning -- just considers general domain
-            ffDomainAdaptor.setDomain( domainId );
-         } else if ( !fileToDomain.isEmpty() ) {
-            domainFeature = fileToDomain.get( documentId );
-         }
-      } else {
-         LOGGER.debug( "processing next doc (doc id is null)" );
+      // Index of the first engine extracting the same shared features as each engine.
+      final List<SharedAssertionFeatures> engineSharedFeatures = new ArrayList<>( engines.size() );
+      for ( WindowedAssertionCleartkAnalysisEngine engine : engines ) {
+         engineSharedFeatures.add( engine.sharedAssertionFeatures );
       }
+      final int[] sharedSources = SharedAssertionFeatures.getSharedSources( engineSharedFeatures );
+      final List<List<Feature>> sharedFeatures = new ArrayList<>( Collections.nCopies( engines.size(), null ) );
 
-      this.lastLabel = "<BEGIN>";
-
-      final JCas annotationView = getAnnotationView( jCas );
+      final WindowedAssertionCleartkAnalysisEngine firstEngine = engines.get( 0 );
+      final JCas annotationView = firstEngine.getAnnotationView( jCas );
 
       // generate a list of training instances for each sentence in the document
       // Use an indexed map.  This is faster than calling select and then selectCovering within a loop.
@@ -326,17 +342,8 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
       sentenceTreeMap.putAll( sentenceAnnotationMap );
       // History needs full list of sentences
       final List<Sentence> sentenceList = new ArrayList<>(sentenceTreeMap.keySet() );
-      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
-         if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
-//            ((AbstractWindowedFeatureExtractor1)extractor).setSentences( new ArrayList<>( sentenceTreeMap.keySet() ) );
-            ((AbstractWindowedFeatureExtractor1)extractor).setSentences( sentenceList );
-         }
-      }
-      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
-         if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
-//            ((AbstractWindowedFeatureExtractor1)extractor).setSentences( new ArrayList<>( sentenceTreeMap.keySet() ) );
-            ((AbstractWindowedFeatureExtractor1)extractor).setSentences( sentenceList );
-         }
+      for ( WindowedAssertionCleartkAnalysisEngine engine : engines ) {
+         engine.setSentences( sentenceList );
       }
 
       int sentenceIndex = -1;
@@ -345,7 +352,6 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
          final Sentence coveringSent = sortedEntry.getKey();
          final List<Annotation> coveredAnnotations = new ArrayList<>( sortedEntry.getValue() );
          coveredAnnotations.sort( Comparator.comparingInt( Annotation::getBegin ) );
-//         _windowedContexts.forEach( c -> c.setWindow( coveredAnnotations ) );
          // Sort Annotations into *Mention, assertion cues and BaseTokens in one loop.
          // Faster than calling JCasUtil methods for each which has to iterate through the full cas each time.
          entities.clear();
@@ -360,127 +366,119 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
                baseTokens.add( (BaseToken)annotation );
             }
          }
-         _windowedContexts.forEach( c -> c.setWindow( baseTokens ) );
+         for ( WindowedAssertionCleartkAnalysisEngine engine : engines ) {
+            engine._windowedContexts.forEach( c -> c.setWindow( baseTokens ) );
+         }
 
          for ( IdentifiedAnnotation identifiedAnnotation : entities ) {
             if ( identifiedAnnotation.getPolarity() == -1 ) {
-               LOGGER.debug( String.format( " - identified annotation: [%d-%d] polarity %d (%s)",
+               firstEngine.LOGGER.debug( String.format( " - identified annotation: [%d-%d] polarity %d (%s)",
                      identifiedAnnotation.getBegin(),
                      identifiedAnnotation.getEnd(),
                      identifiedAnnotation.getPolarity(),
                      identifiedAnnotation.getClass().getName() ) );
             }
-            Instance<String> instance = new Instance<>();
-
-            if ( domainFeature != null ) {
-               instance.add( new Feature( "Domain", domainFeature ) );
-            }
-            // only use extract this version if not doing domain adaptation
-            if ( ffDomainAdaptor == null ) {
-               for ( CleartkExtractor<IdentifiedAnnotation, BaseToken> extractor : this.tokenCleartkExtractors ) {
-                  instance.addAll( extractor
-                        .extractWithin( annotationView, identifiedAnnotation, coveringSent ) );
-               }
-            }
-
-            int closest = Integer.MAX_VALUE;
-            AssertionCuePhraseAnnotation closestCue = null;
-            for ( AssertionCuePhraseAnnotation cue : cues ) {
-               // It is much faster to count between BaseTokens already isolated within the same sentence.
-               final int betweenCount = countBetween( cue, identifiedAnnotation, baseTokens );
-               if ( betweenCount < closest ) {
-                  closestCue = cue;
-                  closest = betweenCount;
+            for ( int i = 0; i < engines.size(); i++ ) {
+               final WindowedAssertionCleartkAnalysisEngine engine = engines.get( i );
+               if ( sharedSources[ i ] == i ) {
+                  sharedFeatures.set( i, engine.sharedAssertionFeatures.extract( annotationView, identifiedAnnotation,
+                        coveringSent, cues, baseTokens ) );
                }
+               engine.classifyEntity( jCas, identifiedAnnotation, coveringSent, sentenceIndex, baseTokens,
+                     sharedFeatures.get( sharedSources[ i ] ) );
             }
-            if ( closestCue != null && closest < 21 ) {
-               instance.add( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) );
-               instance.add( new Feature( "ClosestCue_PhraseFamily", closestCue.getCuePhraseAssertionFamily() ) );
-               instance.add( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) );
-
-               // add hack-ey domain adaptation to these hacked-in features
-               if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) ) );
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_PhraseFamily", closestCue
-                              .getCuePhraseAssertionFamily() ) ) );
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) ) );
-               }
+         }
+      }
+   }
 
-            }
+   /**
+    * Sets the domain of the document and resets the label history.
+    *
+    * @param jCas -
+    */
+   private void beginDocument( final JCas jCas ) {
+      if ( this.featureFunctionExtractors.size() <= 0 ) {
+         this.ffDomainAdaptor = null;
+      }
+      sharedAssertionFeatures = new SharedAssertionFeatures( jCas, fileToDomain, ffDomainAdaptor,
+            tokenCleartkExtractors, tokenContextExtractor );
+      this.lastLabel = "<BEGIN>";
+   }
 
-            // 7/9/13 SRH trying to make it work just for anatomical site
-            int eemTypeId = identifiedAnnotation.getTypeID();
-            if ( eemTypeId == CONST.NE_TYPE_ID_ANATOMICAL_SITE ) {
-               // 7/9/13 srh modified per tmiller so it's binary but not numeric feature
-               instance.add( new Feature( "ENTITY_TYPE_ANAT_SITE" ) );
-               // add hack-ey domain adaptation to these hacked-in features
-               if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-                  instance.addAll( ffDomainAdaptor.apply( new Feature( "ENTITY_TYPE_ANAT_SITE" ) ) );
-               }
-            }
+   /**
+    * @param sentenceList all sentences of the document, sorted
+    */
+   private void setSentences( final List<Sentence> sentenceList ) {
+      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
+         if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
+            ((AbstractWindowedFeatureExtractor1)extractor).setSentences( sentenceList );
+         }
+      }
+      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
+         if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
+            ((AbstractWindowedFeatureExtractor1)extractor).setSentences( sentenceList );
+         }
+      }
+   }
 
-            // only extract these features if not doing domain adaptation
-            if ( ffDomainAdaptor == null ) {
-               for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
-                  if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
-                     ((AbstractWindowedFeatureExtractor1)extractor).setWindow( coveringSent, sentenceIndex, baseTokens );
-                  }
-                  instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-               }
+   /**
+    * Adds the features particular to this engine to the shared features and classifies the entity,
+    * or writes the training instance.
+    *
+    * @param sharedFeatures features from {@link SharedAssertionFeatures#extract}, possibly shared with other engines.
+    *                       The list is not modified.
+    */
+   private void classifyEntity( final JCas jCas,
+                                final IdentifiedAnnotation identifiedAnnotation,
+                                final Sentence coveringSent,
+                                final int sentenceIndex,
+                                final List<BaseToken> baseTokens,
+                                final List<Feature> sharedFeatures ) throws AnalysisEngineProcessException {
+      Instance<String> instance = new Instance<>();
+      instance.addAll( sharedFeatures );
+
+      // only extract these features if not doing domain adaptation
+      if ( ffDomainAdaptor == null ) {
+         for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
+            if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
+               ((AbstractWindowedFeatureExtractor1)extractor).setWindow( coveringSent, sentenceIndex, baseTokens );
             }
+            instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+         }
+      }
 
-            for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
-               if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
-                  ((AbstractWindowedFeatureExtractor1)extractor).setWindow( coveringSent, sentenceIndex, baseTokens );
-               }
-               instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-            }
+      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
+         if ( extractor instanceof AbstractWindowedFeatureExtractor1 ) {
+            ((AbstractWindowedFeatureExtractor1)extractor).setWindow( coveringSent, sentenceIndex, baseTokens );
+         }
+         instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+      }
 
-            List<Feature> feats = instance.getFeatures();
+      List<Feature> feats = instance.getFeatures();
 
-            for ( Feature feat : feats ) {
-               if ( feat instanceof TreeFeature ||
-                    (feat.getName() != null && (feat.getName().startsWith( "TreeFrag" ) ||
-                                                feat.getName().startsWith( "WORD" ) ||
-                                                feat.getName().startsWith( "NEG" ))) ) {
-                  continue;
-               }
-               if ( feat.getName() != null &&
-                    (feat.getName().contains( "_TreeFrag" ) || feat.getName().contains( "_WORD" ) ||
-                     feat.getName().contains( "_NEG" )) ) {
-                  continue;
-               }
-               if ( feat.getValue() instanceof String ) {
-                  feat.setValue( ((String)feat.getValue()).toLowerCase() );
-               }
-            }
+      SharedAssertionFeatures.lowerCaseValues( feats );
 
-            if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-               for ( FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors ) {
-                  // TODO: extend to the case where the extractors take a different argument besides entityOrEventMention
-                  instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-               }
-            }
+      if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
+         for ( FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors ) {
+            // TODO: extend to the case where the extractors take a different argument besides entityOrEventMention
+            instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+         }
+      }
 
 
-            // grab the output label
-            setClassLabel( identifiedAnnotation, instance );
+      // grab the output label
+      setClassLabel( identifiedAnnotation, instance );
 
-            if ( this.isTraining() ) {
-               // apply feature selection, if necessary
-               if ( this.featureSelection != null ) {
-                  feats = this.featureSelection.transform( feats );
-               }
+      if ( this.isTraining() ) {
+         // apply feature selection, if necessary
+         if ( this.featureSelection != null ) {
+            feats = this.featureSelection.transform( feats );
+         }
 
-               // ensures that the (possibly) transformed feats are used
-               if ( instance.getOutcome() != null ) {
-                  if ( coin.nextDouble() < this.portionOfDataToUse ) {
-                     this.dataWriter.write( new Instance<>( instance.getOutcome(), feats ) );
-                  }
-               }
+         // ensures that the (possibly) transformed feats are used
+         if ( instance.getOutcome() != null ) {
+            if ( coin.nextDouble() < this.portionOfDataToUse ) {
+               this.dataWriter.write( new Instance<>( instance.getOutcome(), feats ) );
             }
          }
       }
@@ -526,25 +524,4 @@ public abstract class WindowedAssertionCleartkAnalysisEngine extends
       return dir;
    }
 
-
-   /**
-    * @param annotation1 -
-    * @param annotation2 -
-    * @param baseTokens  baseTokens within window
-    * @return number of basetokens that lie between annotation1 and annotation2
-    */
-   static private int countBetween( final Annotation annotation1,
-                                    final Annotation annotation2,
-                                    final Collection<BaseToken> baseTokens ) {
-      final int lowEnd = Math.min( annotation1.getEnd(), annotation2.getEnd() );
-      final int highBegin = Math.max( annotation1.getBegin(), annotation2.getBegin() );
-      int between = 0;
-      for ( BaseToken baseToken : baseTokens ) {
-         if ( lowEnd < baseToken.getBegin() && baseToken.getEnd() < highBegin ) {
-            between++;
-         }
-      }
-      return between;
-   }
-
 }
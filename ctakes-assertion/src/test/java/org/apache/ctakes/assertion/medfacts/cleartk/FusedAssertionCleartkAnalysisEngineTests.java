@@ -0,0 +1,149 @@
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.assertion.medfacts.cleartk.windowed.*;
+import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Feature;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class FusedAssertionCleartkAnalysisEngineTests {
+
+   static private final String TEXT = "The patient denies chest pain.  History of diabetes in her mother.  "
+                                      + "If fever develops, call the clinic.  Possible pneumonia was seen in the left lung.  "
+                                      + "No evidence of fracture.";
+   static private final String[] ENTITIES = { "chest pain", "diabetes", "fever", "pneumonia", "left lung", "fracture" };
+   static private final String[] CUES = { "denies", "History", "If", "Possible", "No evidence" };
+   static private final Pattern WORD_PATTERN = Pattern.compile( "\\w+|[^\\w\\s]" );
+
+   @Test
+   public void testFusedMatchesSeparate() throws Exception {
+      final JCas separateCas = createCas();
+      SimplePipeline.runPipeline( separateCas,
+            PolarityCleartkAnalysisEngine.createAnnotatorDescription(),
+            UncertaintyCleartkAnalysisEngine.createAnnotatorDescription(),
+            HistoryCleartkAnalysisEngine.createAnnotatorDescription(),
+            ConditionalCleartkAnalysisEngine.createAnnotatorDescription(),
+            GenericCleartkAnalysisEngine.createAnnotatorDescription(),
+            SubjectCleartkAnalysisEngine.createAnnotatorDescription() );
+      final JCas fusedCas = createCas();
+      SimplePipeline.runPipeline( fusedCas, FusedAssertionCleartkAnalysisEngine.createAnnotatorDescription() );
+      assertEquals( describe( separateCas ), describe( fusedCas ) );
+   }
+
+   @Test
+   public void testFusedWindowedMatchesSeparate() throws Exception {
+      final JCas separateCas = createCas();
+      SimplePipeline.runPipeline( separateCas, new AnalysisEngineDescription[]{
+            PolarityCleartkAnalysisEngineWindowed.createAnnotatorDescription(),
+            UncertaintyCleartkAnalysisEngineWindowed.createAnnotatorDescription(),
+            HistoryCleartkAnalysisEngineWindowed.createAnnotatorDescription(),
+            ConditionalCleartkAnalysisEngineWindowed.createAnnotatorDescription(),
+            GenericCleartkAnalysisEngineWindowed.createAnnotatorDescription(),
+            SubjectCleartkAnalysisEngineWindowed.createAnnotatorDescription() } );
+      final JCas fusedCas = createCas();
+      SimplePipeline.runPipeline( fusedCas, FusedAssertionCleartkAnalysisEngine.createWindowedAnnotatorDescription() );
+      assertEquals( describe( separateCas ), describe( fusedCas ) );
+   }
+
+   @Test
+   public void testLowerCaseCopiesSharedFeatures() {
+      final Feature shared = new Feature( "ClosestCue_Word", "Denies" );
+      final Feature word = new Feature( "WORD_Token", "Pain" );
+      final List<Feature> features = new ArrayList<>( Arrays.asList( shared, word ) );
+      SharedAssertionFeatures.lowerCaseValues( features );
+      assertEquals( "denies", features.get( 0 ).getValue() );
+      assertNotSame( shared, features.get( 0 ) );
+      assertEquals( "Denies", shared.getValue() );
+      assertEquals( "Pain", features.get( 1 ).getValue() );
+   }
+
+   /**
+    * @return cas with sentences, tokens, a flat dependency tree, entities and assertion cues
+    */
+   static private JCas createCas() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( TEXT );
+      int sentenceBegin = 0;
+      for ( String sentenceText : TEXT.split( "(?<=\\.)\\s+" ) ) {
+         final int begin = TEXT.indexOf( sentenceText, sentenceBegin );
+         final int end = begin + sentenceText.length();
+         new Sentence( jCas, begin, end ).addToIndexes();
+         final ConllDependencyNode root = new ConllDependencyNode( jCas, begin, end );
+         root.setId( 0 );
+         root.addToIndexes();
+         final Matcher matcher = WORD_PATTERN.matcher( sentenceText );
+         int id = 1;
+         while ( matcher.find() ) {
+            final WordToken token = new WordToken( jCas, begin + matcher.start(), begin + matcher.end() );
+            token.setPartOfSpeech( "NN" );
+            token.addToIndexes();
+            final ConllDependencyNode node = new ConllDependencyNode( jCas, token.getBegin(), token.getEnd() );
+            node.setId( id );
+            node.setHead( root );
+            node.setDeprel( id == 1 ? "nsubj" : "dep" );
+            node.setForm( matcher.group() );
+            node.setLemma( matcher.group().toLowerCase() );
+            node.setPostag( "NN" );
+            node.setCpostag( "NN" );
+            node.addToIndexes();
+            id++;
+         }
+         sentenceBegin = end;
+      }
+      for ( String entity : ENTITIES ) {
+         final int begin = TEXT.indexOf( entity );
+         final EventMention mention = new EventMention( jCas, begin, begin + entity.length() );
+         // anatomical site or disorder
+         mention.setTypeID( entity.equals( "left lung" ) ? 6 : 2 );
+         mention.addToIndexes();
+      }
+      for ( String cue : CUES ) {
+         final int begin = TEXT.indexOf( cue );
+         final AssertionCuePhraseAnnotation annotation
+               = new AssertionCuePhraseAnnotation( jCas, begin, begin + cue.length() );
+         annotation.setCuePhraseCategory( "category" + cue );
+         annotation.setCuePhraseAssertionFamily( "family" );
+         annotation.addToIndexes();
+      }
+      return jCas;
+   }
+
+   static private String describe( final JCas jCas ) {
+      final StringBuilder sb = new StringBuilder();
+      for ( IdentifiedAnnotation annotation : JCasUtil.select( jCas, IdentifiedAnnotation.class ) ) {
+         sb.append( annotation.getCoveredText() )
+           .append( " polarity " ).append( annotation.getPolarity() )
+           .append( " uncertainty " ).append( annotation.getUncertainty() )
+           .append( " history " ).append( annotation.getHistoryOf() )
+           .append( " conditional " ).append( annotation.getConditional() )
+           .append( " generic " ).append( annotation.getGeneric() )
+           .append( " subject " ).append( annotation.getSubject() )
+           .append( '\n' );
+      }
+      return sb.toString();
+   }
+
+}
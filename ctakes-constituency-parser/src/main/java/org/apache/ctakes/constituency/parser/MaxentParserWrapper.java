@@ -53,6 +53,15 @@ public class MaxentParserWrapper implements ParserWrapper {
 	    this(in, -1);
     }
 
+	/**
+	 * @param model     parser model, which may be shared by multiple wrappers
+	 * @param maxTokens maximum number of tokens in a parsed sentence, -1 for no maximum
+	 */
+	public MaxentParserWrapper( final ParserModel model, final int maxTokens ) {
+		parser = new Parser( model, AbstractBottomUpParser.defaultBeamSize, AbstractBottomUpParser.defaultAdvancePercentage );
+		this.maxTokens = maxTokens;
+	}
+
 	public MaxentParserWrapper(InputStream is, int maxTokens){
 		try {
 			if (is!=null) {
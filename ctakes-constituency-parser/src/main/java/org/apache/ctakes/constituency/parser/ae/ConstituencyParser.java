@@ -18,8 +18,10 @@
  */
 package org.apache.ctakes.constituency.parser.ae;
 
+import opennlp.tools.parser.ParserModel;
 import org.apache.ctakes.constituency.parser.MaxentParserWrapper;
 import org.apache.ctakes.constituency.parser.ParserWrapper;
+import org.apache.ctakes.core.concurrent.SharedResourceCache;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.core.util.log.DotLogger;
@@ -35,6 +37,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 
 @PipeBitInfo(
@@ -62,6 +65,8 @@ public class ConstituencyParser extends JCasAnnotator_ImplBase {
 	
 	
 	private ParserWrapper parser = null;
+	// key of the model in the shared resource cache, set once the model has been acquired
+	private String _modelKey;
 	static private final Logger LOGGER = LoggerFactory.getLogger( "ConstituencyParser" );
 
 	@Override
@@ -69,7 +74,16 @@ public class ConstituencyParser extends JCasAnnotator_ImplBase {
 		LOGGER.info( "Initializing ..." );
 		super.initialize( aContext );
 		try ( DotLogger dotter = new DotLogger() ) {
-			parser = new MaxentParserWrapper( FileLocator.getAsStream( modelFilename ), this.maxTokens );
+			// The model is immutable and can be shared by multiple parsers, e.g. in a ThreadSafePool.
+			final String modelKey = "ParserModel:" + modelFilename;
+			final ParserModel model = SharedResourceCache.getInstance().acquireResource( modelKey,
+					() -> {
+						try ( InputStream is = FileLocator.getAsStream( modelFilename ) ) {
+							return new ParserModel( is );
+						}
+					} );
+			_modelKey = modelKey;
+			parser = new MaxentParserWrapper( model, this.maxTokens );
 		} catch ( IOException ioE ) {
 			LOGGER.error( "Error reading parser model file/directory: " + ioE.getMessage() );
 			throw new ResourceInitializationException( ioE );
@@ -77,6 +91,18 @@ public class ConstituencyParser extends JCasAnnotator_ImplBase {
 	}
 
 
+	/**
+	 * Releases the shared parser model.
+	 */
+	@Override
+	public void destroy() {
+		if ( _modelKey != null ) {
+			SharedResourceCache.getInstance().releaseResource( _modelKey );
+			_modelKey = null;
+		}
+		super.destroy();
+	}
+
 	@Override
 	public void process(JCas jcas) throws AnalysisEngineProcessException {
 		LOGGER.info( "Processing ..." );
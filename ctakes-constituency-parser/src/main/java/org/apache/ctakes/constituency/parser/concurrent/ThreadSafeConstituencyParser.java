@@ -1,7 +1,7 @@
 package org.apache.ctakes.constituency.parser.concurrent;
 
 import org.apache.ctakes.constituency.parser.ae.ConstituencyParser;
-import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
+import org.apache.ctakes.core.concurrent.ThreadSafePool;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
+ * A static pool holds parsers, one per pipeline thread and configuration, that share a single parser model.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -31,12 +32,17 @@ public class ThreadSafeConstituencyParser extends ConstituencyParser {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadSafeConstituencyParser" );
 
+   static private final ThreadSafePool<ConstituencyParser> POOL = new ThreadSafePool<>( ConstituencyParser::new );
+
+   // key of the delegate pool for the configuration of this annotator
+   private String _poolKey;
+
    /**
     * {@inheritDoc}
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      CpSingleton.getInstance().initialize( context );
+      _poolKey = POOL.addDelegate( context );
    }
 
    /**
@@ -44,7 +50,26 @@ public class ThreadSafeConstituencyParser extends ConstituencyParser {
     */
    @Override
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-      CpSingleton.getInstance().process( jCas );
+      POOL.process( _poolKey, jCas );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      POOL.collectionProcessComplete( _poolKey );
+   }
+
+   /**
+    * Destroys the delegate added by this annotator.
+    */
+   @Override
+   public void destroy() {
+      if ( _poolKey != null ) {
+         POOL.removeDelegate( _poolKey );
+         _poolKey = null;
+      }
    }
 
    public static AnalysisEngineDescription createAnnotatorDescription( final String modelPath )
@@ -59,43 +84,4 @@ public class ThreadSafeConstituencyParser extends ConstituencyParser {
       return AnalysisEngineFactory.createEngineDescription( ThreadSafeConstituencyParser.class );
    }
 
-
-   private enum CpSingleton implements ThreadSafeWrapper<ConstituencyParser> {
-      INSTANCE;
-
-      static public CpSingleton getInstance() {
-         return INSTANCE;
-      }
-
-      private final ConstituencyParser _delegate;
-      private boolean _initialized;
-
-      CpSingleton() {
-         _delegate = new ConstituencyParser();
-      }
-
-      final private Object LOCK = new Object();
-
-      @Override
-      public Object getLock() {
-         return LOCK;
-      }
-
-      @Override
-      public ConstituencyParser getDelegate() {
-         return _delegate;
-      }
-
-      @Override
-      public boolean isInitialized() {
-         return _initialized;
-      }
-
-      @Override
-      public void setInitialized( final boolean initialized ) {
-         _initialized = initialized;
-      }
-   }
-
-
 }
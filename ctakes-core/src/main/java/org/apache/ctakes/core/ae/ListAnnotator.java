@@ -3,7 +3,7 @@ package org.apache.ctakes.core.ae;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.core.util.Pair;
-import org.apache.ctakes.core.util.regex.RegexSpanFinder;
+import org.apache.ctakes.core.util.regex.MultiPatternMatcher;
 import org.apache.ctakes.typesystem.type.textspan.ListEntry;
 import org.apache.ctakes.typesystem.type.textspan.Paragraph;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
@@ -81,6 +81,8 @@ final public class ListAnnotator extends JCasAnnotator_ImplBase {
    }
 
    private final Collection<ListType> _listTypes = new HashSet<>();
+   // Finds the lists of all list types with one call
+   private final MultiPatternMatcher<ListType> _listMatcher = new MultiPatternMatcher<>();
 
 //   private final ExecutorService _executor = Executors.newSingleThreadExecutor();
 
@@ -106,6 +108,7 @@ final public class ListAnnotator extends JCasAnnotator_ImplBase {
       } catch ( IOException ioE ) {
          throw new ResourceInitializationException( ioE );
       }
+      _listTypes.forEach( t -> _listMatcher.addPattern( t, t.__listPattern ) );
 //      LOGGER.info( "Finished Parsing" );
    }
 
@@ -144,15 +147,11 @@ final public class ListAnnotator extends JCasAnnotator_ImplBase {
 
    private Map<Pair<Integer>, ListType> findListTypes( final String text ) {
       final Map<Pair<Integer>, ListType> listTypes = new HashMap<>();
-      for ( ListType listType : _listTypes ) {
-         if ( listType.__listPattern == null ) {
-            continue;
-         }
-         try ( RegexSpanFinder finder = new RegexSpanFinder( listType.__listPattern ) ) {
-            final List<Pair<Integer>> spans = finder.findSpans( text );
-            spans.forEach( s -> listTypes.put( s, listType ) );
+      _listMatcher.findMatches( text, ( t, m ) -> {
+         if ( m.end() > m.start() ) {
+            listTypes.put( new Pair<>( m.start(), m.end() ), t );
          }
-      }
+      } );
       return listTypes;
    }
 
@@ -3,7 +3,7 @@ package org.apache.ctakes.core.ae;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.core.util.Pair;
-import org.apache.ctakes.core.util.regex.RegexSpanFinder;
+import org.apache.ctakes.core.util.regex.MultiPatternMatcher;
 import org.apache.ctakes.typesystem.type.textspan.Paragraph;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.slf4j.Logger;
@@ -67,6 +67,8 @@ final public class ParagraphAnnotator extends JCasAnnotator_ImplBase {
    }
 
    private final Collection<ParagraphType> _paragraphTypes = new HashSet<>();
+   // Finds the separators of all paragraph types with one call
+   private final MultiPatternMatcher<ParagraphType> _separatorMatcher = new MultiPatternMatcher<>();
 
 
    /**
@@ -80,6 +82,7 @@ final public class ParagraphAnnotator extends JCasAnnotator_ImplBase {
          LOGGER.info( "No " + PARAGRAPH_TYPES_DESC );
          LOGGER.info( "Using default paragraph separator: two newlines" );
          parseBsvLine( DEFAULT_PARAGRAPH );
+         _paragraphTypes.forEach( t -> _separatorMatcher.addPattern( t, t.__separatorPattern ) );
          return;
       }
       LOGGER.info( "Parsing " + _paragraphTypesPath );
@@ -93,6 +96,7 @@ final public class ParagraphAnnotator extends JCasAnnotator_ImplBase {
       } catch ( IOException ioE ) {
          throw new ResourceInitializationException( ioE );
       }
+      _paragraphTypes.forEach( t -> _separatorMatcher.addPattern( t, t.__separatorPattern ) );
 //      LOGGER.info( "Finished Parsing" );
    }
 
@@ -113,28 +117,14 @@ final public class ParagraphAnnotator extends JCasAnnotator_ImplBase {
 
    private Collection<Pair<Integer>> findSeparators( final String docText ) {
       final Collection<Pair<Integer>> separators = new HashSet<>();
-      for ( ParagraphType paragraphType : _paragraphTypes ) {
-         if ( paragraphType.__separatorPattern == null ) {
-            continue;
+      _separatorMatcher.findMatches( docText, ( t, m ) -> {
+         if ( m.end() > m.start() ) {
+            separators.add( new Pair<>( m.start(), m.end() ) );
          }
-         separators.addAll( findSeparators( docText, paragraphType.__separatorPattern ) );
-      }
+      } );
       return separators;
    }
 
-   // package protected for unit tests
-   static Collection<Pair<Integer>> findSeparators( final String docText,
-                                                    final Pattern pattern ) {
-      // the start tag of this tag is the start of the current match
-      // the end tag of this tag is the end of the current match, exclusive
-      try ( RegexSpanFinder finder = new RegexSpanFinder( pattern ) ) {
-         return finder.findSpans( docText );
-      } catch ( IllegalArgumentException iaE ) {
-         LOGGER.error( iaE.getMessage() );
-      }
-      return Collections.emptyList();
-   }
-
 
    /**
     * All tags are treated equally as segment bounds, whether header or footer
@@ -3,8 +3,7 @@ package org.apache.ctakes.core.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.Pair;
-import org.apache.ctakes.core.util.regex.RegexSpanFinder;
-import org.apache.ctakes.core.util.regex.TimeoutMatcher;
+import org.apache.ctakes.core.util.regex.MultiPatternMatcher;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,10 +15,8 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * @author SPF , chip-nlp
@@ -96,6 +93,22 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
    static protected final SectionTag LINE_DIVIDER_TAG
          = new SectionTag( DIVIDER_LINE_NAME, DIVIDER_LINE_NAME, TagType.DIVIDER );
 
+   /**
+    * Key for a header, footer or divider pattern in the tag matcher
+    */
+   static private final class TagPattern {
+      private final String __typeName;
+      private final TagType __tagType;
+
+      private TagPattern( final String typeName, final TagType tagType ) {
+         __typeName = typeName;
+         __tagType = tagType;
+      }
+   }
+
+   // Finds all header, footer and divider tags with one call
+   private MultiPatternMatcher<TagPattern> _tagMatcher;
+
    /**
     * Normally I would put this in a singleton but I'm not sure that a singleton will work well with/as uima ae
     *
@@ -132,7 +145,26 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
             loadSections();
             _sectionsLoaded = true;
          }
+         _tagMatcher = createTagMatcher( _tagDividers );
+      }
+   }
+
+   /**
+    * @param tagDividers true if divider lines should be found
+    * @return a matcher for all header patterns, then all footer patterns, then the divider line pattern
+    */
+   static private MultiPatternMatcher<TagPattern> createTagMatcher( final boolean tagDividers ) {
+      final MultiPatternMatcher<TagPattern> tagMatcher = new MultiPatternMatcher<>();
+      for ( SectionType sectionType : _sectionTypes.values() ) {
+         tagMatcher.addPattern( new TagPattern( sectionType.__name, TagType.HEADER ), sectionType.__headerPattern );
+      }
+      for ( SectionType sectionType : _sectionTypes.values() ) {
+         tagMatcher.addPattern( new TagPattern( sectionType.__name, TagType.FOOTER ), sectionType.__footerPattern );
+      }
+      if ( tagDividers ) {
+         tagMatcher.addPattern( new TagPattern( DIVIDER_LINE_NAME, TagType.DIVIDER ), DIVIDER_LINE_PATTERN );
       }
+      return tagMatcher;
    }
 
    /**
@@ -146,17 +178,15 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
          return;
       }
       final String docText = jcas.getDocumentText();
-      final Map<Pair<Integer>, SectionTag> headerTags = findHeaderTags( docText );
+      final Map<Pair<Integer>, SectionTag> headerTags = new HashMap<>();
+      final Map<Pair<Integer>, SectionTag> footerTags = new HashMap<>();
+      final Map<Pair<Integer>, SectionTag> dividerLines = new HashMap<>();
+      _tagMatcher.findMatches( docText, ( p, m ) -> addSectionTag( p, m, headerTags, footerTags, dividerLines ) );
       if ( headerTags.isEmpty() ) {
          LOGGER.debug( "No section headers found" );
       }
       final Collection<Pair<Integer>> subsumedTags = getSubsumedBounds( headerTags.keySet() );
       headerTags.keySet().removeAll( subsumedTags );
-      final Map<Pair<Integer>, SectionTag> footerTags = findFooterTags( docText );
-      final Map<Pair<Integer>, SectionTag> dividerLines = new HashMap<>();
-      if ( _tagDividers ) {
-         dividerLines.putAll( findDividerLines( docText ) );
-      }
       createSegments( jcas, headerTags, footerTags, dividerLines );
 //      LOGGER.info( "Finished processing" );
    }
@@ -255,75 +285,41 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
    abstract protected void loadSections() throws ResourceInitializationException;
 
    /**
-    * find all section separator header tags
-    *
-    * @param docText -
-    * @return section tags mapped to index pairs
-    */
-   static private Map<Pair<Integer>, SectionTag> findHeaderTags( final String docText ) {
-      final Map<Pair<Integer>, SectionTag> headerTags = new HashMap<>();
-      for ( SectionType sectionType : _sectionTypes.values() ) {
-         if ( sectionType.__headerPattern == null ) {
-            continue;
-         }
-         headerTags
-               .putAll( findSectionTags( docText, sectionType.__name, sectionType.__headerPattern, TagType.HEADER ) );
-      }
-      return headerTags;
-   }
-
-   /**
-    * find all section separator footer tags
-    *
-    * @param docText -
-    * @return section tags mapped to index pairs
+    * @param tagPattern   key of the matched pattern
+    * @param tagMatcher   matcher positioned at a header, footer or divider line
+    * @param headerTags   filled with header tags mapped to index pairs
+    * @param footerTags   filled with footer tags mapped to index pairs
+    * @param dividerLines filled with divider line tags mapped to index pairs
     */
-   static private Map<Pair<Integer>, SectionTag> findFooterTags( final String docText ) {
-      final Map<Pair<Integer>, SectionTag> footerTags = new HashMap<>();
-      for ( SectionType sectionType : _sectionTypes.values() ) {
-         if ( sectionType.__footerPattern == null ) {
-            continue;
+   static private void addSectionTag( final TagPattern tagPattern,
+                                      final Matcher tagMatcher,
+                                      final Map<Pair<Integer>, SectionTag> headerTags,
+                                      final Map<Pair<Integer>, SectionTag> footerTags,
+                                      final Map<Pair<Integer>, SectionTag> dividerLines ) {
+      // the start tag of this tag is the start of the current match
+      // the end tag of this tag is the end of the current match, exclusive
+      final Pair<Integer> tagBounds = new Pair<>( tagMatcher.start(), tagMatcher.end() );
+      if ( tagPattern.__tagType == TagType.DIVIDER ) {
+         if ( tagBounds.getValue2() > tagBounds.getValue1() ) {
+            dividerLines.put( tagBounds, LINE_DIVIDER_TAG );
          }
-         footerTags
-               .putAll( findSectionTags( docText, sectionType.__name, sectionType.__footerPattern, TagType.FOOTER ) );
+         return;
       }
-      return footerTags;
-   }
-
-   /**
-    * @param docText    -
-    * @param typeName   section type name
-    * @param tagPattern regex pattern for section type
-    * @param tagType    header or footer
-    * @return section tags mapped to index pairs
-    */
-   static Map<Pair<Integer>, SectionTag> findSectionTags( final String docText,
-                                                          final String typeName,
-                                                          final Pattern tagPattern,
-                                                          final TagType tagType ) {
-      final Map<Pair<Integer>, SectionTag> sectionTags = new HashMap<>();
-      try ( TimeoutMatcher finder = new TimeoutMatcher( tagPattern, docText ) ) {
-         Matcher tagMatcher = finder.nextMatch();
-         while ( tagMatcher != null ) {
-            String name;
-            // the start tag of this tag is the start of the current match
-            // the end tag of this tag is the end of the current match, exclusive
-            final Pair<Integer> tagBounds = new Pair<>( tagMatcher.start(), tagMatcher.end() );
-            try {
-               name = tagMatcher.group( SECTION_NAME_EX );
-               if ( name == null || name.isEmpty() ) {
-                  name = typeName;
-               }
-            } catch ( IllegalArgumentException iaE ) {
-               name = typeName;
-            }
-            sectionTags.put( tagBounds, new SectionTag( name, typeName, tagType ) );
-            tagMatcher = finder.nextMatch();
+      String name;
+      try {
+         name = tagMatcher.group( SECTION_NAME_EX );
+         if ( name == null || name.isEmpty() ) {
+            name = tagPattern.__typeName;
          }
       } catch ( IllegalArgumentException iaE ) {
-         LOGGER.error( iaE.getMessage() );
+         name = tagPattern.__typeName;
+      }
+      final SectionTag sectionTag = new SectionTag( name, tagPattern.__typeName, tagPattern.__tagType );
+      if ( tagPattern.__tagType == TagType.HEADER ) {
+         headerTags.put( tagBounds, sectionTag );
+      } else {
+         footerTags.put( tagBounds, sectionTag );
       }
-      return sectionTags;
    }
 
    /**
@@ -434,22 +430,6 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
    }
 
 
-   /**
-    * Find line dividers
-    *
-    * @param docText -
-    * @return section tags mapped to index pairs
-    */
-   static private Map<Pair<Integer>, SectionTag> findDividerLines( final String docText ) {
-      final Function<Pair<Integer>, SectionTag> lineDividerTag = p -> LINE_DIVIDER_TAG;
-      try ( RegexSpanFinder finder = new RegexSpanFinder( DIVIDER_LINE_PATTERN ) ) {
-         return finder.findSpans( docText ).stream().collect( Collectors.toMap( Function.identity(), lineDividerTag ) );
-      } catch ( IllegalArgumentException iaE ) {
-         return Collections.emptyMap();
-      }
-   }
-
-
    /**
     * Sorts by first offset, longer bounds first:
     *   |=============|
@@ -24,6 +24,7 @@ import opennlp.tools.util.MarkableFileInputStreamFactory;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.TrainingParameters;
+import org.apache.ctakes.core.concurrent.SharedResourceCache;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.core.sentence.EndOfSentenceScannerImpl;
@@ -102,6 +103,9 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
 
 	private String NEWLINE = "\n";
 
+	// key of the model in the shared resource cache, set once the model has been acquired
+	private String _modelKey;
+
   // LOG4J logger based on class name
   static private final Logger LOGGER = LoggerFactory.getLogger( "SentenceDetector" );
 
@@ -109,9 +113,17 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
   public void initialize(UimaContext aContext)
 			throws ResourceInitializationException {
 		super.initialize(aContext);
-		try (InputStream is = FileLocator.getAsStream(sdModelPath)){
+		try {
 		  LOGGER.info("Sentence detector model file: " + sdModelPath);
-		  sdmodel = new SentenceModel(is);
+		  // The model is immutable and can be shared by multiple detectors, e.g. in a ThreadSafePool.
+		  final String modelKey = "SentenceModel:" + sdModelPath;
+		  sdmodel = SharedResourceCache.getInstance().acquireResource( modelKey,
+		        () -> {
+		           try ( InputStream is = FileLocator.getAsStream( sdModelPath ) ) {
+		              return new SentenceModel( is );
+		           }
+		        } );
+		  _modelKey = modelKey;
 		  EndOfSentenceScannerImpl eoss = new EndOfSentenceScannerImpl();
 		  DefaultSDContextGenerator cg = new DefaultSDContextGenerator(eoss.getEndOfSentenceCharacters());
 		  sentenceDetector = new SentenceDetectorCtakes(sdmodel.getMaxentModel(), cg, eoss);
@@ -126,6 +138,18 @@ public class SentenceDetector extends JCasAnnotator_ImplBase {
     }
 	}
 
+	/**
+	 * Releases the shared sentence model.
+	 */
+	@Override
+	public void destroy() {
+		if ( _modelKey != null ) {
+			SharedResourceCache.getInstance().releaseResource( _modelKey );
+			_modelKey = null;
+		}
+		super.destroy();
+	}
+
 	/**
 	 * Entry point for processing.
 	 */
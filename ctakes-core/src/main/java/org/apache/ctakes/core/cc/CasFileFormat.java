@@ -0,0 +1,125 @@
+package org.apache.ctakes.core.cc;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.SerialFormat;
+import org.apache.uima.cas.impl.XmiCasDeserializer;
+import org.apache.uima.cas.impl.XmiCasSerializer;
+import org.apache.uima.util.CasIOUtils;
+import org.xml.sax.SAXException;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File formats for a serialized CAS.
+ * XMI is the most portable, gzipped XMI is much smaller,
+ * and UIMA compressed binary (form 6, with the type system embedded) is both small and quick to read and write.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public enum CasFileFormat {
+   XMI( ".xmi" ),
+   XMI_GZ( ".xmi.gz" ),
+   BINARY( ".bcas" );
+
+   private final String _extension;
+
+   CasFileFormat( final String extension ) {
+      _extension = extension;
+   }
+
+   /**
+    * @return the file extension for the format, including the leading dot.
+    */
+   public String getExtension() {
+      return _extension;
+   }
+
+   /**
+    * @param cas          CAS to serialize
+    * @param outputStream stream to which the CAS is written.  It is not closed.
+    * @throws IOException if the CAS could not be serialized
+    */
+   public void write( final CAS cas, final OutputStream outputStream ) throws IOException {
+      switch ( this ) {
+         case XMI:
+            writeXmi( cas, outputStream );
+            break;
+         case XMI_GZ:
+            final GZIPOutputStream gzipStream = new GZIPOutputStream( outputStream, 65536 );
+            writeXmi( cas, gzipStream );
+            gzipStream.finish();
+            break;
+         case BINARY:
+            CasIOUtils.save( cas, outputStream, SerialFormat.COMPRESSED_FILTERED_TSI );
+            break;
+      }
+   }
+
+   /**
+    * @param inputStream stream from which the CAS is read.  It is not closed.
+    * @param cas         empty CAS to fill.  The binary format replaces anything already in the CAS.
+    * @throws IOException if the CAS could not be deserialized
+    */
+   public void read( final InputStream inputStream, final CAS cas ) throws IOException {
+      switch ( this ) {
+         case XMI:
+            readXmi( inputStream, cas );
+            break;
+         case XMI_GZ:
+            readXmi( new GZIPInputStream( inputStream, 65536 ), cas );
+            break;
+         case BINARY:
+            CasIOUtils.load( inputStream, cas );
+            break;
+      }
+   }
+
+   /**
+    * @param fileName name of a serialized CAS file
+    * @return the format with an extension matching the file name, or {@link #XMI} if none match
+    */
+   static public CasFileFormat getFormatForFile( final String fileName ) {
+      final String lowerName = fileName.toLowerCase();
+      if ( lowerName.endsWith( XMI_GZ._extension ) ) {
+         return XMI_GZ;
+      } else if ( lowerName.endsWith( BINARY._extension ) ) {
+         return BINARY;
+      }
+      return XMI;
+   }
+
+   /**
+    * @param name case-insensitive name of a format
+    * @return the format with the name, or {@link #XMI} if the name is null or empty
+    * @throws IllegalArgumentException if the name is not that of a format
+    */
+   static public CasFileFormat getFormat( final String name ) {
+      if ( name == null || name.trim().isEmpty() ) {
+         return XMI;
+      }
+      return CasFileFormat.valueOf( name.trim().toUpperCase() );
+   }
+
+   static private void writeXmi( final CAS cas, final OutputStream outputStream ) throws IOException {
+      final XmiCasSerializer casSerializer = new XmiCasSerializer( cas.getTypeSystem() );
+      final XMISerializer xmiSerializer = new XMISerializer( outputStream );
+      try {
+         casSerializer.serialize( cas, xmiSerializer.getContentHandler() );
+      } catch ( SAXException saxE ) {
+         throw new IOException( saxE );
+      }
+   }
+
+   static private void readXmi( final InputStream inputStream, final CAS cas ) throws IOException {
+      try {
+         XmiCasDeserializer.deserialize( inputStream, cas );
+      } catch ( SAXException saxE ) {
+         throw new IOException( saxE );
+      }
+   }
+
+}
@@ -4,18 +4,27 @@ import org.apache.ctakes.core.config.ConfigParameterConstants;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.CAS;
-import org.apache.uima.cas.impl.XmiCasSerializer;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
-import org.xml.sax.SAXException;
+import org.apache.uima.util.CasCopier;
+import org.apache.uima.util.CasCreationUtils;
+import org.apache.uima.util.TypeSystemUtil;
 
 import java.io.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Write xmi files in a directory tree mimicking that of the input files
+ * Write xmi files in a directory tree mimicking that of the input files.
+ * Files can instead be written as gzipped xmi or as UIMA compressed binary (form 6) with {@link #PARAM_OUTPUT_FORMAT}.
+ * With {@link #PARAM_WRITER_THREADS} above 0 each cas is copied to a snapshot cas on the pipeline thread,
+ * and the snapshot is serialized and written by a background thread.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -33,35 +42,164 @@ final public class FileTreeXmiWriter extends AbstractJCasFileWriter {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "FileTreeXmiWriter" );
 
+   static public final String PARAM_OUTPUT_FORMAT = "OutputFormat";
+   @ConfigurationParameter(
+         name = PARAM_OUTPUT_FORMAT,
+         description = "Format of written files: XMI, XMI_GZ for gzipped xmi, or BINARY for compressed binary cas.",
+         mandatory = false,
+         defaultValue = "XMI"
+   )
+   private String _outputFormatName;
+
+   static public final String PARAM_WRITER_THREADS = "WriterThreads";
+   @ConfigurationParameter(
+         name = PARAM_WRITER_THREADS,
+         description = "Number of background threads used to write files.  Default value is 0; write on the pipeline thread.",
+         mandatory = false,
+         defaultValue = "0"
+   )
+   private int _writerThreads;
+
+   private CasFileFormat _outputFormat;
+   private ExecutorService _writerPool;
+   // Empty snapshot cases.  Waiting for a free snapshot keeps the pipeline from getting too far ahead of the writers.
+   private BlockingQueue<CAS> _freeSnapshots;
+   private int _snapshotCount;
+   private final AtomicReference<IOException> _writeFailure = new AtomicReference<>();
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      try {
+         _outputFormat = CasFileFormat.getFormat( _outputFormatName );
+      } catch ( IllegalArgumentException iaE ) {
+         LOGGER.error( "Unknown output format {}", _outputFormatName );
+         throw new ResourceInitializationException( iaE );
+      }
+      if ( _writerThreads > 0 ) {
+         LOGGER.info( "Writing {} files with {} background threads.", _outputFormat, _writerThreads );
+         _writerPool = Executors.newFixedThreadPool( _writerThreads, r -> {
+            final Thread thread = new Thread( r, "FileTreeXmiWriter" );
+            thread.setDaemon( true );
+            return thread;
+         } );
+         _freeSnapshots = new LinkedBlockingQueue<>();
+      }
+   }
+
    /**
     * {@inheritDoc}
     */
    @Override
    public void writeFile( final JCas jCas, final String outputDir,
                           final String documentId, final String fileName ) throws IOException {
-      final File xmiFile = new File( outputDir, fileName + ".xmi" );
-      LOGGER.info( "Writing XMI to " + xmiFile.getPath() + " ..." );
+      final File casFile = new File( outputDir, fileName + _outputFormat.getExtension() );
+      if ( _writerPool == null ) {
+         LOGGER.info( "Writing {} to {} ...", _outputFormat, casFile.getPath() );
+         writeCas( jCas.getCas(), casFile, _outputFormat );
+         LOGGER.info( "Finished Writing" );
+         return;
+      }
+      throwWriteFailure();
+      final CAS snapshot = getFreeSnapshot( jCas.getCas() );
+      CasCopier.copyCas( jCas.getCas(), snapshot, true );
+      _writerPool.execute( () -> writeSnapshot( snapshot, casFile ) );
+   }
+
+   /**
+    * Waits for background writes to finish.
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      if ( _writerPool == null ) {
+         return;
+      }
+      _writerPool.shutdown();
       try {
-         writeXmi( jCas.getCas(), xmiFile );
-      } catch ( IOException | SAXException multE ) {
-         throw new IOException( multE );
+         if ( !_writerPool.awaitTermination( 1, TimeUnit.HOURS ) ) {
+            throw new AnalysisEngineProcessException( new IOException( "Timed out waiting for files to be written." ) );
+         }
+         throwWriteFailure();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new AnalysisEngineProcessException( intE );
+      } catch ( IOException ioE ) {
+         throw new AnalysisEngineProcessException( ioE );
+      }
+   }
+
+   /**
+    * @param sourceCas cas being written, used to create a snapshot cas with the same type system
+    * @return an empty snapshot cas, waiting if all snapshots are being written
+    * @throws IOException if a snapshot cas could not be created or the wait was interrupted
+    */
+   private CAS getFreeSnapshot( final CAS sourceCas ) throws IOException {
+      final CAS freeSnapshot = _freeSnapshots.poll();
+      if ( freeSnapshot != null ) {
+         return freeSnapshot;
+      }
+      if ( _snapshotCount < _writerThreads * 2 ) {
+         _snapshotCount++;
+         try {
+            return CasCreationUtils.createCas(
+                  TypeSystemUtil.typeSystem2TypeSystemDescription( sourceCas.getTypeSystem() ), null, null );
+         } catch ( ResourceInitializationException riE ) {
+            throw new IOException( riE );
+         }
+      }
+      try {
+         return _freeSnapshots.take();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new IOException( intE );
+      }
+   }
+
+   /**
+    * Writes a snapshot cas on a background thread, then frees the snapshot.
+    *
+    * @param snapshot snapshot cas
+    * @param file     output file
+    */
+   private void writeSnapshot( final CAS snapshot, final File file ) {
+      try {
+         LOGGER.info( "Writing {} to {} ...", _outputFormat, file.getPath() );
+         writeCas( snapshot, file, _outputFormat );
+      } catch ( IOException ioE ) {
+         LOGGER.error( "Could not write {} : {}", file.getPath(), ioE.getMessage() );
+         _writeFailure.compareAndSet( null, ioE );
+      } finally {
+         snapshot.reset();
+         _freeSnapshots.add( snapshot );
+      }
+   }
+
+   /**
+    * @throws IOException the first failure of a background write, if any
+    */
+   private void throwWriteFailure() throws IOException {
+      final IOException writeFailure = _writeFailure.get();
+      if ( writeFailure != null ) {
+         throw new IOException( "Background write failed", writeFailure );
       }
-      LOGGER.info( "Finished Writing" );
    }
 
    /**
-    * Serialize a CAS to a file in XMI format
+    * Serialize a CAS to a file
     *
-    * @param cas  CAS to serialize
-    * @param file output file
-    * @throws IOException  -
-    * @throws SAXException -
+    * @param cas    CAS to serialize
+    * @param file   output file
+    * @param format serialization format
+    * @throws IOException -
     */
-   static private void writeXmi( final CAS cas, final File file ) throws IOException, SAXException {
-      try ( OutputStream outputStream = new BufferedOutputStream( new FileOutputStream( file ) ) ) {
-         XmiCasSerializer casSerializer = new XmiCasSerializer( cas.getTypeSystem() );
-         XMISerializer xmiSerializer = new XMISerializer( outputStream );
-         casSerializer.serialize( cas, xmiSerializer.getContentHandler() );
+   static private void writeCas( final CAS cas, final File file, final CasFileFormat format ) throws IOException {
+      try ( OutputStream outputStream = new BufferedOutputStream( new FileOutputStream( file ), 65536 ) ) {
+         format.write( cas, outputStream );
       }
    }
 
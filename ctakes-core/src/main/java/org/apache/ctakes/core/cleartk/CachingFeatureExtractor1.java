@@ -0,0 +1,56 @@
+package org.apache.ctakes.core.cleartk;
+
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.CleartkExtractorException;
+import org.cleartk.ml.feature.extractor.FeatureExtractor1;
+
+import java.util.List;
+
+/**
+ * Feature extractor that answers from the {@link FeatureCache} and only runs its delegate on a miss.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class CachingFeatureExtractor1<T extends Annotation> implements FeatureExtractor1<T> {
+
+   private final String _key;
+   private final FeatureExtractor1<T> _delegate;
+
+   /**
+    * The delegate's class name is used as the cache key, so its features must not depend upon construction parameters.
+    *
+    * @param delegate extractor without configuration.
+    */
+   public CachingFeatureExtractor1( final FeatureExtractor1<T> delegate ) {
+      this( delegate.getClass().getName(), delegate );
+   }
+
+   /**
+    * @param key      identifies the delegate and its configuration.
+    * @param delegate extractor run on a cache miss.
+    */
+   public CachingFeatureExtractor1( final String key, final FeatureExtractor1<T> delegate ) {
+      _key = key;
+      _delegate = delegate;
+   }
+
+   /**
+    * @return the wrapped extractor.
+    */
+   public FeatureExtractor1<T> getDelegate() {
+      return _delegate;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public List<Feature> extract( final JCas view, final T focusAnnotation ) throws CleartkExtractorException {
+      return FeatureCache.getFeatures( view, _key, () -> _delegate.extract( view, focusAnnotation ), focusAnnotation );
+   }
+
+}
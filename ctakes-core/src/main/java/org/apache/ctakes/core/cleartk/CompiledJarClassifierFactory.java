@@ -0,0 +1,63 @@
+package org.apache.ctakes.core.cleartk;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.fit.factory.initializable.Initializable;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.ClassifierFactory;
+import org.cleartk.ml.jar.JarClassifierFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Loads a classifier from a model jar like the default cleartk factory,
+ * and compiles it to a {@link CompiledLinearClassifier} if it is a liblinear string outcome classifier.
+ * Other classifiers are returned as loaded.
+ * <p>
+ * Use it in a piper file by adding classifierFactoryClassName to a cleartk annotator:
+ * add LocationOfRelationExtractorAnnotator classifierJarPath=... classifierFactoryClassName=org.apache.ctakes.core.cleartk.CompiledJarClassifierFactory
+ * </p>
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class CompiledJarClassifierFactory<OUTCOME_TYPE> implements ClassifierFactory<OUTCOME_TYPE>,
+                                                                        Initializable {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "CompiledJarClassifierFactory" );
+
+   private final JarClassifierFactory<OUTCOME_TYPE> _jarFactory = new JarClassifierFactory<>();
+
+   public void setClassifierJarPath( final String classifierJarPath ) {
+      _jarFactory.setClassifierJarPath( classifierJarPath );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      _jarFactory.initialize( context );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Classifier<OUTCOME_TYPE> createClassifier() throws IOException {
+      final Classifier<OUTCOME_TYPE> classifier = _jarFactory.createClassifier();
+      final CompiledLinearClassifier compiled = CompiledLinearClassifier.compile( classifier );
+      if ( compiled == null ) {
+         return classifier;
+      }
+      LOGGER.info( "Compiled liblinear classifier with " + compiled.getFeatureIndex().size() + " features." );
+      // Only string outcome classifiers are compiled.
+      @SuppressWarnings( "unchecked" )
+      final Classifier<OUTCOME_TYPE> compiledClassifier = (Classifier<OUTCOME_TYPE>)(Classifier<?>)compiled;
+      return compiledClassifier;
+   }
+
+}
@@ -0,0 +1,269 @@
+package org.apache.ctakes.core.cleartk;
+
+import de.bwaldvogel.liblinear.Model;
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.CleartkProcessingException;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.encoder.CleartkEncoderException;
+import org.cleartk.ml.encoder.outcome.OutcomeEncoder;
+import org.cleartk.ml.liblinear.LibLinearStringOutcomeClassifier;
+import org.cleartk.ml.liblinear.encoder.FeatureNodeArrayEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cleartk liblinear string outcome classifier compiled for scoring.
+ * <p>
+ * The cleartk liblinear classifier encodes every instance by building the name of each feature,
+ * looking it up in a hash map of boxed indices, and collecting feature nodes in a tree map before liblinear scores them.
+ * This classifier takes the feature names and weights of the model when it is compiled,
+ * encodes features into a reusable {@link IndexedFeatures} buffer through a {@link FeatureIndex}
+ * and scores the buffer directly against the liblinear weight array.
+ * Extractors that know their feature indices can fill the buffer themselves and call {@link #classify(IndexedFeatures)}.
+ * </p>
+ * Outcomes and scores are the same as those of the cleartk classifier:
+ * features are encoded the same way and their weighted values are summed in the same order.
+ * Compiled classifiers are thread safe.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class CompiledLinearClassifier implements Classifier<String> {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "CompiledLinearClassifier" );
+
+   private final FeatureIndex _featureIndex;
+   private final int _biasIndex;
+   private final int _maxIndex;
+   private final double[] _weights;
+   private final int _weightCount;
+   private final List<String> _outcomes;
+   private final boolean _probability;
+   private final ThreadLocal<IndexedFeatures> _features;
+   private final ThreadLocal<double[]> _decisionValues;
+
+   private CompiledLinearClassifier( final FeatureIndex featureIndex, final int biasIndex, final Model model,
+                                     final List<String> outcomes ) {
+      _featureIndex = featureIndex;
+      _biasIndex = biasIndex;
+      _maxIndex = model.getBias() >= 0 ? model.getNrFeature() + 1 : model.getNrFeature();
+      _weights = model.getFeatureWeights();
+      _weightCount = _weights.length / _maxIndex;
+      _outcomes = outcomes;
+      _probability = model.isProbabilityModel();
+      _features = ThreadLocal.withInitial( this::createFeatures );
+      _decisionValues = ThreadLocal.withInitial( () -> new double[ Math.max( _weightCount, _outcomes.size() ) ] );
+   }
+
+   /**
+    * @param classifier a classifier loaded from a model jar.
+    * @return the compiled classifier, or null if the classifier is not a liblinear string outcome classifier
+    * that can be compiled.
+    */
+   static public CompiledLinearClassifier compile( final Classifier<?> classifier ) {
+      if ( !(classifier instanceof LibLinearStringOutcomeClassifier) ) {
+         return null;
+      }
+      try {
+         final Object featuresEncoder = getField( classifier, "featuresEncoder" );
+         if ( !(featuresEncoder instanceof FeatureNodeArrayEncoder) ) {
+            LOGGER.info( "Not compiling classifier with features encoder "
+                         + featuresEncoder.getClass().getName() );
+            return null;
+         }
+         if ( !(Boolean)getField( featuresEncoder, "isFinalized" ) ) {
+            LOGGER.info( "Not compiling classifier with a feature set that is not finalized." );
+            return null;
+         }
+         final Model model = (Model)getField( classifier, "model" );
+         if ( getField( model, "solverType" ).toString().contains( "SVR" ) ) {
+            LOGGER.info( "Not compiling regression model." );
+            return null;
+         }
+         @SuppressWarnings( "unchecked" )
+         final Map<String, Integer> stringToInt = (Map<String, Integer>)getField( featuresEncoder, "stringToInt" );
+         final int biasIndex = (Integer)getField( featuresEncoder, "biasIndex" );
+         @SuppressWarnings( "unchecked" )
+         final OutcomeEncoder<String, Integer> outcomeEncoder
+               = (OutcomeEncoder<String, Integer>)getField( classifier, "outcomeEncoder" );
+         final List<String> outcomes = new ArrayList<>( model.getNrClass() );
+         for ( int label : model.getLabels() ) {
+            outcomes.add( outcomeEncoder.decode( label ) );
+         }
+         // Features the model has no weights for are never scored.
+         final int maxIndex = model.getBias() >= 0 ? model.getNrFeature() + 1 : model.getNrFeature();
+         final Map<String, Integer> indices = new HashMap<>( stringToInt.size() );
+         for ( Map.Entry<String, Integer> entry : stringToInt.entrySet() ) {
+            if ( entry.getValue() <= maxIndex ) {
+               indices.put( entry.getKey(), entry.getValue() );
+            }
+         }
+         return new CompiledLinearClassifier( new FeatureIndex( indices ), biasIndex, model, outcomes );
+      } catch ( ReflectiveOperationException | RuntimeException | CleartkEncoderException multE ) {
+         LOGGER.warn( "Could not compile classifier: " + multE.getMessage() );
+         return null;
+      }
+   }
+
+   /**
+    * @return index of feature names, for extractors that add features to a buffer by index.
+    */
+   public FeatureIndex getFeatureIndex() {
+      return _featureIndex;
+   }
+
+   /**
+    * @return a new buffer sized for this classifier.
+    */
+   public IndexedFeatures createFeatures() {
+      return new IndexedFeatures( _maxIndex );
+   }
+
+   /**
+    * Clears the buffer and adds the bias feature of the model.
+    *
+    * @param features buffer created by this classifier.
+    */
+   public void beginInstance( final IndexedFeatures features ) {
+      features.clear();
+      features.set( _biasIndex, 1 );
+   }
+
+   /**
+    * Adds a feature to the buffer, encoded as the cleartk liblinear encoder does.  Unknown features are ignored.
+    *
+    * @param features buffer created by this classifier.
+    * @param name     feature name.
+    * @param value    feature value.  A number is the value of the named feature,
+    *                 anything else is part of the feature name and the value is 1.
+    */
+   public void add( final IndexedFeatures features, final String name, final Object value ) {
+      if ( value instanceof Number ) {
+         features.set( _featureIndex.getIndex( name ), ((Number)value).doubleValue() );
+      } else {
+         features.set( _featureIndex.getIndex( name, value.toString() ), 1 );
+      }
+   }
+
+   /**
+    * @param featureList features of an instance.
+    * @param features    buffer created by this classifier, cleared and filled with the features.
+    */
+   public void encode( final List<Feature> featureList, final IndexedFeatures features ) {
+      beginInstance( features );
+      for ( Feature feature : featureList ) {
+         add( features, feature.getName(), feature.getValue() );
+      }
+   }
+
+   /**
+    * @param features buffer with the features of an instance.
+    * @return the outcome of the instance.
+    */
+   public String classify( final IndexedFeatures features ) {
+      final double[] decisionValues = _decisionValues.get();
+      computeDecisionValues( features, decisionValues );
+      if ( _outcomes.size() == 2 ) {
+         return decisionValues[ 0 ] > 0 ? _outcomes.get( 0 ) : _outcomes.get( 1 );
+      }
+      int best = 0;
+      for ( int i = 1; i < _outcomes.size(); i++ ) {
+         if ( decisionValues[ i ] > decisionValues[ best ] ) {
+            best = i;
+         }
+      }
+      return _outcomes.get( best );
+   }
+
+   /**
+    * @param features buffer with the features of an instance.
+    * @return probability of each outcome for logistic regression models, otherwise the decision value of each outcome.
+    */
+   public Map<String, Double> score( final IndexedFeatures features ) {
+      final double[] values = _decisionValues.get();
+      computeDecisionValues( features, values );
+      final int outcomeCount = _outcomes.size();
+      if ( _probability ) {
+         final int probabilityCount = outcomeCount == 2 ? 1 : outcomeCount;
+         for ( int i = 0; i < probabilityCount; i++ ) {
+            values[ i ] = 1 / (1 + Math.exp( -values[ i ] ));
+         }
+         if ( outcomeCount == 2 ) {
+            values[ 1 ] = 1. - values[ 0 ];
+         } else {
+            double sum = 0;
+            for ( int i = 0; i < outcomeCount; i++ ) {
+               sum += values[ i ];
+            }
+            for ( int i = 0; i < outcomeCount; i++ ) {
+               values[ i ] = values[ i ] / sum;
+            }
+         }
+      }
+      if ( outcomeCount == 2 && values[ 1 ] == 0 ) {
+         values[ 1 ] = -values[ 0 ];
+      }
+      final Map<String, Double> scores = new HashMap<>( outcomeCount * 2 );
+      for ( int i = 0; i < outcomeCount; i++ ) {
+         scores.put( _outcomes.get( i ), values[ i ] );
+      }
+      return scores;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String classify( final List<Feature> featureList ) throws CleartkProcessingException {
+      final IndexedFeatures features = _features.get();
+      encode( featureList, features );
+      return classify( features );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Map<String, Double> score( final List<Feature> featureList ) throws CleartkProcessingException {
+      final IndexedFeatures features = _features.get();
+      encode( featureList, features );
+      return score( features );
+   }
+
+   private void computeDecisionValues( final IndexedFeatures features, final double[] decisionValues ) {
+      features.sort();
+      final int weightCount = _weightCount;
+      Arrays.fill( decisionValues, 0 );
+      final double[] weights = _weights;
+      for ( int f = 0; f < features.size(); f++ ) {
+         final int offset = (features.getIndex( f ) - 1) * weightCount;
+         final double value = features.getValue( f );
+         for ( int i = 0; i < weightCount; i++ ) {
+            decisionValues[ i ] += weights[ offset + i ] * value;
+         }
+      }
+   }
+
+   static private Object getField( final Object object, final String name ) throws ReflectiveOperationException {
+      Class<?> type = object.getClass();
+      while ( type != null ) {
+         try {
+            final Field field = type.getDeclaredField( name );
+            field.setAccessible( true );
+            return field.get( object );
+         } catch ( NoSuchFieldException nsfE ) {
+            type = type.getSuperclass();
+         }
+      }
+      throw new NoSuchFieldException( name );
+   }
+
+}
@@ -0,0 +1,232 @@
+package org.apache.ctakes.core.cleartk;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.TOP;
+import org.cleartk.ml.Feature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-cas memoization of extracted features, shared by every annotator in a pipeline.
+ * <p>
+ * Several cleartk annotators extract features for the same mention or pair of mentions with the same extractors.
+ * Features are cached by extractor key and the addresses of the annotations they were extracted for,
+ * so an extractor with a given key runs once per annotation per document however many annotators use it.
+ * </p>
+ * <p>
+ * The extractor key must identify the extractor's configuration, not its instance.
+ * Only cache extractors whose features depend on nothing that a later annotator in the pipeline can change.
+ * For instance token and dependency features are safe, features of attributes set by other annotators are not.
+ * Cached features are copied on every request, since callers commonly modify feature values.
+ * Lists holding subclasses of Feature, such as tree features, are not cached.
+ * </p>
+ * Entries for a cas are discarded when the cas is reset.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class FeatureCache {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "FeatureCache" );
+
+   private FeatureCache() {
+   }
+
+   /**
+    * Extraction of features that are not yet cached.
+    *
+    * @param <E> exception thrown by the extraction.
+    */
+   @FunctionalInterface
+   public interface Extraction<E extends Exception> {
+      List<Feature> extract() throws E;
+   }
+
+   // Cas views are pooled and reused, so they are weakly held rather than removed after processing.
+   static private final Map<CAS, CasFeatures> CAS_FEATURES = new WeakHashMap<>();
+   static private final Map<String, Statistics> STATISTICS = new ConcurrentHashMap<>();
+   static private final AtomicInteger USERS = new AtomicInteger();
+
+   /**
+    * @param jCas         ye olde ...
+    * @param extractorKey identifies the extractor and its configuration.
+    * @param extraction   extracts the features if they have not been cached.
+    * @param annotations  one or more annotations that the features are extracted for, in order.
+    * @param <E>          exception thrown by the extraction.
+    * @return a copy of the cached features for the annotations, extracting them if necessary.
+    * @throws E from the extraction.
+    */
+   static public <E extends Exception> List<Feature> getFeatures( final JCas jCas,
+                                                                  final String extractorKey,
+                                                                  final Extraction<E> extraction,
+                                                                  final TOP... annotations ) throws E {
+      final Statistics statistics = STATISTICS.computeIfAbsent( extractorKey, k -> new Statistics() );
+      final Map<FeatureKey, List<Feature>> cache = getCasFeatures( jCas )._features;
+      final FeatureKey key = new FeatureKey( extractorKey, annotations );
+      List<Feature> features = cache.get( key );
+      if ( features != null ) {
+         statistics._hits.increment();
+         return copy( features );
+      }
+      statistics._misses.increment();
+      features = extraction.extract();
+      if ( features == null || !isCopyable( features ) ) {
+         return features;
+      }
+      features = copy( features );
+      cache.put( key, features );
+      return copy( features );
+   }
+
+   /**
+    * Discard all cached features for the cas view.
+    *
+    * @param jCas ye olde ...
+    */
+   static public void invalidate( final JCas jCas ) {
+      synchronized ( CAS_FEATURES ) {
+         CAS_FEATURES.remove( jCas.getCas() );
+      }
+   }
+
+   /**
+    * @return cache statistics for each extractor key.
+    */
+   static public Map<String, Statistics> getStatistics() {
+      return Collections.unmodifiableMap( new TreeMap<>( STATISTICS ) );
+   }
+
+   /**
+    * Log the hit rate for each extractor key.
+    */
+   static public void logStatistics() {
+      for ( Map.Entry<String, Statistics> entry : getStatistics().entrySet() ) {
+         final Statistics statistics = entry.getValue();
+         LOGGER.info( String.format( "%s : %d hits, %d misses, hit rate %.3f",
+               entry.getKey(), statistics.getHits(), statistics.getMisses(), statistics.getHitRate() ) );
+      }
+   }
+
+   /**
+    * Registers an annotator that uses the cache.  It must call {@link #userComplete()} when its collection is complete.
+    */
+   static public void addUser() {
+      USERS.incrementAndGet();
+   }
+
+   /**
+    * Logs the cache statistics once, after the last registered annotator has completed its collection.
+    *
+    * @return true if this was the last user and the statistics were logged
+    */
+   static public boolean userComplete() {
+      if ( USERS.decrementAndGet() != 0 ) {
+         return false;
+      }
+      logStatistics();
+      return true;
+   }
+
+   static private CasFeatures getCasFeatures( final JCas jCas ) {
+      final int casResets = jCas.getCasImpl().getCasResets();
+      synchronized ( CAS_FEATURES ) {
+         final CasFeatures features = CAS_FEATURES.get( jCas.getCas() );
+         if ( features != null && features._casResets == casResets ) {
+            return features;
+         }
+         final CasFeatures newFeatures = new CasFeatures( casResets );
+         CAS_FEATURES.put( jCas.getCas(), newFeatures );
+         return newFeatures;
+      }
+   }
+
+   /**
+    * @return false if any feature is a subclass such as a tree feature, which can't be copied as a plain feature.
+    */
+   static private boolean isCopyable( final List<Feature> features ) {
+      for ( Feature feature : features ) {
+         if ( feature.getClass() != Feature.class ) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   static private List<Feature> copy( final List<Feature> features ) {
+      final List<Feature> copies = new ArrayList<>( features.size() );
+      for ( Feature feature : features ) {
+         copies.add( new Feature( feature.getName(), feature.getValue() ) );
+      }
+      return copies;
+   }
+
+   /**
+    * Hit and miss counts for one extractor key.
+    */
+   static public final class Statistics {
+      private final LongAdder _hits = new LongAdder();
+      private final LongAdder _misses = new LongAdder();
+
+      public long getHits() {
+         return _hits.sum();
+      }
+
+      public long getMisses() {
+         return _misses.sum();
+      }
+
+      /**
+       * @return fraction of requests answered from the cache, or 0 if there have been no requests.
+       */
+      public double getHitRate() {
+         final long hits = getHits();
+         final long total = hits + getMisses();
+         return total == 0 ? 0 : (double)hits / total;
+      }
+   }
+
+   static private final class CasFeatures {
+      private final int _casResets;
+      private final Map<FeatureKey, List<Feature>> _features = new ConcurrentHashMap<>();
+
+      private CasFeatures( final int casResets ) {
+         _casResets = casResets;
+      }
+   }
+
+   static private final class FeatureKey {
+      private final String _extractorKey;
+      private final int[] _ids;
+      private final int _hashCode;
+
+      private FeatureKey( final String extractorKey, final TOP... annotations ) {
+         _extractorKey = extractorKey;
+         _ids = new int[ annotations.length ];
+         for ( int i = 0; i < annotations.length; i++ ) {
+            _ids[ i ] = annotations[ i ] == null ? 0 : annotations[ i ]._id();
+         }
+         _hashCode = 31 * extractorKey.hashCode() + Arrays.hashCode( _ids );
+      }
+
+      @Override
+      public int hashCode() {
+         return _hashCode;
+      }
+
+      @Override
+      public boolean equals( final Object other ) {
+         return other instanceof FeatureKey
+                && _hashCode == ((FeatureKey)other)._hashCode
+                && _extractorKey.equals( ((FeatureKey)other)._extractorKey )
+                && Arrays.equals( _ids, ((FeatureKey)other)._ids );
+      }
+   }
+
+}
@@ -0,0 +1,135 @@
+package org.apache.ctakes.core.cleartk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only map of feature name to model feature index, built once when a model is loaded.
+ * <p>
+ * Names are kept in one open addressing table with their hash codes, so a lookup is a few array reads.
+ * A cleartk feature with a value that is not a number is encoded under the name "name_value".
+ * {@link #getIndex(String, String)} finds the index of such a feature without building the combined name.
+ * </p>
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class FeatureIndex {
+
+   static public final int NOT_FOUND = -1;
+
+   private final String[] _names;
+   private final int[] _hashes;
+   private final int[] _indices;
+   private final int _mask;
+   private final int _size;
+
+   /**
+    * @param indices map of feature name to feature index
+    */
+   public FeatureIndex( final Map<String, Integer> indices ) {
+      final int slots = Integer.highestOneBit( Math.max( 4, indices.size() * 2 ) - 1 ) << 1;
+      _names = new String[ slots ];
+      _hashes = new int[ slots ];
+      _indices = new int[ slots ];
+      _mask = slots - 1;
+      int size = 0;
+      for ( Map.Entry<String, Integer> entry : indices.entrySet() ) {
+         final String name = entry.getKey();
+         if ( name == null ) {
+            continue;
+         }
+         final int hash = name.hashCode();
+         int slot = spread( hash ) & _mask;
+         while ( _names[ slot ] != null ) {
+            slot = (slot + 1) & _mask;
+         }
+         _names[ slot ] = name;
+         _hashes[ slot ] = hash;
+         _indices[ slot ] = entry.getValue();
+         size++;
+      }
+      _size = size;
+   }
+
+   /**
+    * @param name feature name
+    * @return index of the feature, or {@link #NOT_FOUND}
+    */
+   public int getIndex( final String name ) {
+      if ( name == null ) {
+         return NOT_FOUND;
+      }
+      final int hash = name.hashCode();
+      int slot = spread( hash ) & _mask;
+      String candidate = _names[ slot ];
+      while ( candidate != null ) {
+         if ( _hashes[ slot ] == hash && candidate.equals( name ) ) {
+            return _indices[ slot ];
+         }
+         slot = (slot + 1) & _mask;
+         candidate = _names[ slot ];
+      }
+      return NOT_FOUND;
+   }
+
+   /**
+    * @param name  feature name
+    * @param value feature value
+    * @return index of the feature named name_value, or {@link #NOT_FOUND}
+    */
+   public int getIndex( final String name, final String value ) {
+      if ( name == null ) {
+         return getIndex( value );
+      }
+      // Same as the hash code of name + '_' + value.
+      int hash = 31 * name.hashCode() + '_';
+      final int valueLength = value.length();
+      for ( int i = 0; i < valueLength; i++ ) {
+         hash = 31 * hash + value.charAt( i );
+      }
+      final int nameLength = name.length();
+      final int length = nameLength + 1 + valueLength;
+      int slot = spread( hash ) & _mask;
+      String candidate = _names[ slot ];
+      while ( candidate != null ) {
+         if ( _hashes[ slot ] == hash
+              && candidate.length() == length
+              && candidate.charAt( nameLength ) == '_'
+              && candidate.startsWith( name )
+              && candidate.regionMatches( nameLength + 1, value, 0, valueLength ) ) {
+            return _indices[ slot ];
+         }
+         slot = (slot + 1) & _mask;
+         candidate = _names[ slot ];
+      }
+      return NOT_FOUND;
+   }
+
+   /**
+    * @return number of feature names in the index
+    */
+   public int size() {
+      return _size;
+   }
+
+   /**
+    * @return the feature names in the index, in no particular order
+    */
+   List<String> getNames() {
+      final List<String> names = new ArrayList<>( _size );
+      for ( String name : _names ) {
+         if ( name != null ) {
+            names.add( name );
+         }
+      }
+      return names;
+   }
+
+   static private int spread( final int hash ) {
+      return hash ^ (hash >>> 16);
+   }
+
+}
@@ -0,0 +1,106 @@
+package org.apache.ctakes.core.cleartk;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of (feature index, value) pairs for scoring with a {@link CompiledLinearClassifier}.
+ * <p>
+ * Setting an index that is already in the buffer replaces its value, as the cleartk liblinear encoder does.
+ * Indices above the maximum index of the model are ignored, as liblinear ignores them.
+ * Clearing the buffer only touches the indices that were set, so one buffer serves any number of instances.
+ * </p>
+ * Not thread safe.  Use one buffer per thread.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class IndexedFeatures {
+
+   private final int[] _positions;
+   private int[] _indices;
+   private double[] _values;
+   private double[] _sortValues;
+   private int _size;
+
+   /**
+    * @param maxIndex largest feature index of the model
+    */
+   public IndexedFeatures( final int maxIndex ) {
+      // Position + 1 of each feature index in the buffer, 0 for indices not in the buffer.
+      _positions = new int[ maxIndex + 1 ];
+      _indices = new int[ 64 ];
+      _values = new double[ 64 ];
+      _sortValues = new double[ 64 ];
+   }
+
+   public void clear() {
+      for ( int i = 0; i < _size; i++ ) {
+         _positions[ _indices[ i ] ] = 0;
+      }
+      _size = 0;
+   }
+
+   /**
+    * @param index feature index, indices less than 1 or greater than the maximum index are ignored.
+    * @param value feature value, replaces any value already set for the index.
+    */
+   public void set( final int index, final double value ) {
+      if ( index < 1 || index >= _positions.length ) {
+         return;
+      }
+      final int position = _positions[ index ];
+      if ( position > 0 ) {
+         _values[ position - 1 ] = value;
+         return;
+      }
+      if ( _size == _indices.length ) {
+         _indices = Arrays.copyOf( _indices, _size * 2 );
+         _values = Arrays.copyOf( _values, _size * 2 );
+         _sortValues = new double[ _size * 2 ];
+      }
+      _indices[ _size ] = index;
+      _values[ _size ] = value;
+      _size++;
+      _positions[ index ] = _size;
+   }
+
+   public int size() {
+      return _size;
+   }
+
+   /**
+    * @param i position in the buffer
+    * @return feature index at the position
+    */
+   public int getIndex( final int i ) {
+      return _indices[ i ];
+   }
+
+   /**
+    * @param i position in the buffer
+    * @return feature value at the position
+    */
+   public double getValue( final int i ) {
+      return _values[ i ];
+   }
+
+   /**
+    * Orders the pairs by feature index, the order in which liblinear sums the products of values and weights.
+    */
+   void sort() {
+      if ( _size < 2 ) {
+         return;
+      }
+      Arrays.sort( _indices, 0, _size );
+      for ( int i = 0; i < _size; i++ ) {
+         final int index = _indices[ i ];
+         _sortValues[ i ] = _values[ _positions[ index ] - 1 ];
+         _positions[ index ] = i + 1;
+      }
+      final double[] values = _values;
+      _values = _sortValues;
+      _sortValues = values;
+   }
+
+}
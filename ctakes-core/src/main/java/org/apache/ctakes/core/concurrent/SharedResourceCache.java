@@ -0,0 +1,104 @@
+package org.apache.ctakes.core.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds heavy immutable resources, such as models and dictionaries, so that they can be shared by
+ * multiple delegates in a {@link ThreadSafePool}.
+ * A resource is loaded once per key, no matter how many annotator instances acquire it,
+ * and is dropped when every annotator that acquired it has released it.
+ * The key must identify everything used to build the resource, e.g. the model path.
+ * Only resources that are safe for concurrent read access should be stored.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public enum SharedResourceCache {
+   INSTANCE;
+
+   static public SharedResourceCache getInstance() {
+      return INSTANCE;
+   }
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "SharedResourceCache" );
+
+   /**
+    * Loads a resource, possibly from a file or stream.
+    *
+    * @param <T> type of resource
+    */
+   @FunctionalInterface
+   public interface ResourceLoader<T> {
+      T load() throws IOException;
+   }
+
+   // guarded by itself
+   private final Map<String, SharedResource> _resources = new HashMap<>();
+
+   /**
+    * Each call must be matched by a call to {@link #releaseResource(String)}, usually in the annotator destroy().
+    *
+    * @param key    unique key for the resource, for instance the model path prefixed by the resource type
+    * @param loader loads the resource if it is not already held
+    * @param <T>    type of resource
+    * @return the shared resource for the key
+    * @throws IOException if the resource could not be loaded
+    */
+   @SuppressWarnings( "unchecked" )
+   public <T> T acquireResource( final String key, final ResourceLoader<T> loader ) throws IOException {
+      synchronized ( _resources ) {
+         final SharedResource held = _resources.get( key );
+         if ( held != null ) {
+            held._users++;
+            return (T)held._resource;
+         }
+         LOGGER.info( "Loading shared resource {}", key );
+         final T resource = loader.load();
+         _resources.put( key, new SharedResource( resource ) );
+         return resource;
+      }
+   }
+
+   /**
+    * @param key unique key for the resource.  The resource is dropped when its last user releases it.
+    */
+   public void releaseResource( final String key ) {
+      synchronized ( _resources ) {
+         final SharedResource held = _resources.get( key );
+         if ( held == null ) {
+            return;
+         }
+         held._users--;
+         if ( held._users <= 0 ) {
+            LOGGER.info( "Releasing shared resource {}", key );
+            _resources.remove( key );
+         }
+      }
+   }
+
+   /**
+    * @param key unique key for the resource
+    * @return true if the resource is currently held
+    */
+   public boolean isHeld( final String key ) {
+      synchronized ( _resources ) {
+         return _resources.containsKey( key );
+      }
+   }
+
+   static private final class SharedResource {
+      private final Object _resource;
+      private int _users = 1;
+
+      private SharedResource( final Object resource ) {
+         _resource = resource;
+      }
+   }
+
+}
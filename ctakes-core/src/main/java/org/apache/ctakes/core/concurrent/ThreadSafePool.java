@@ -0,0 +1,258 @@
+package org.apache.ctakes.core.concurrent;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Alternative to {@link ThreadSafeWrapper} that holds pools of delegates instead of a single locked delegate.
+ * <p>
+ * There is one pool for each annotator configuration, keyed by the configuration parameter values.
+ * Every replica of a wrapping annotator (one per pipeline thread) adds one initialized delegate to the pool for
+ * its configuration with {@link #addDelegate(UimaContext)} and removes one with {@link #removeDelegate(String)}
+ * when it is destroyed.  Pipelines with different configurations never share delegates.
+ * {@link #process(String, JCas)} borrows a delegate, runs it and returns it, so documents are processed concurrently
+ * while per-document state in each delegate stays confined to one thread.
+ * Heavy immutable resources such as models should be shared between delegates using {@link SharedResourceCache}.
+ * </p>
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class ThreadSafePool<AE extends JCasAnnotator_ImplBase> {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadSafePool" );
+
+   private final Supplier<AE> _delegateCreator;
+   private final Map<String, ConfiguredPool<AE>> _pools = new HashMap<>();
+
+   /**
+    * @param delegateCreator creates a new, uninitialized delegate
+    */
+   public ThreadSafePool( final Supplier<AE> delegateCreator ) {
+      _delegateCreator = delegateCreator;
+   }
+
+   /**
+    * Creates and initializes a new delegate and adds it to the pool for the configuration of the context.
+    * Called once by each replica of the wrapping annotator, so a pool grows to the pipeline thread count.
+    *
+    * @param context uima context of the wrapping annotator
+    * @return key of the pool for the configuration, used for all other calls by the wrapping annotator
+    * @throws ResourceInitializationException if the delegate could not be initialized
+    */
+   public String addDelegate( final UimaContext context ) throws ResourceInitializationException {
+      final String key = getConfigurationKey( context );
+      final AE delegate = _delegateCreator.get();
+      delegate.initialize( context );
+      synchronized ( _pools ) {
+         final ConfiguredPool<AE> pool = _pools.computeIfAbsent( key, k -> new ConfiguredPool<>() );
+         pool._delegateCount++;
+         pool._free.offer( delegate );
+      }
+      return key;
+   }
+
+   /**
+    * Destroys one delegate of the configuration, waiting for it to be free.
+    * The pool for the configuration is discarded when its last delegate is removed.
+    *
+    * @param key key of the pool for the configuration
+    */
+   public void removeDelegate( final String key ) {
+      final ConfiguredPool<AE> pool = getPool( key );
+      if ( pool == null ) {
+         return;
+      }
+      final AE delegate;
+      try {
+         delegate = pool._free.take();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         LOGGER.warn( "Interrupted while waiting to destroy a delegate." );
+         return;
+      }
+      try {
+         delegate.destroy();
+      } finally {
+         synchronized ( _pools ) {
+            pool._delegateCount--;
+            if ( pool._delegateCount == 0 ) {
+               _pools.remove( key );
+            }
+         }
+      }
+   }
+
+   /**
+    * Calls process on an available delegate of the configuration.
+    *
+    * @param key  key of the pool for the configuration
+    * @param jCas ye olde ...
+    * @throws AnalysisEngineProcessException if the delegate fails or the thread is interrupted while waiting
+    */
+   public void process( final String key, final JCas jCas ) throws AnalysisEngineProcessException {
+      final ConfiguredPool<AE> pool = getExistingPool( key );
+      final AE delegate = pool.borrow();
+      try {
+         delegate.process( jCas );
+      } finally {
+         pool._free.offer( delegate );
+      }
+   }
+
+   /**
+    * Each replica of the wrapping annotator makes this call once per batch.
+    * When the last replica makes the call, batchProcessComplete is called once on every delegate of the configuration.
+    *
+    * @param key key of the pool for the configuration
+    * @throws AnalysisEngineProcessException if a delegate fails or the thread is interrupted while waiting
+    */
+   public void batchProcessComplete( final String key ) throws AnalysisEngineProcessException {
+      final ConfiguredPool<AE> pool = getExistingPool( key );
+      final int delegateCount;
+      synchronized ( _pools ) {
+         pool._batchCompleteCalls++;
+         if ( pool._batchCompleteCalls < pool._delegateCount ) {
+            return;
+         }
+         pool._batchCompleteCalls = 0;
+         delegateCount = pool._delegateCount;
+      }
+      pool.callAll( delegateCount, AE::batchProcessComplete );
+   }
+
+   /**
+    * Each replica of the wrapping annotator makes this call once.
+    * When the last replica makes the call, collectionProcessComplete is called once on every delegate of the
+    * configuration, so per-delegate end of collection work such as flushing writers is done exactly once.
+    *
+    * @param key key of the pool for the configuration
+    * @throws AnalysisEngineProcessException if a delegate fails or the thread is interrupted while waiting
+    */
+   public void collectionProcessComplete( final String key ) throws AnalysisEngineProcessException {
+      final ConfiguredPool<AE> pool = getExistingPool( key );
+      final int delegateCount;
+      synchronized ( _pools ) {
+         pool._collectionCompleteCalls++;
+         if ( pool._collectionCompleteCalls < pool._delegateCount ) {
+            return;
+         }
+         pool._collectionCompleteCalls = 0;
+         delegateCount = pool._delegateCount;
+      }
+      pool.callAll( delegateCount, AE::collectionProcessComplete );
+   }
+
+   /**
+    * @param key key of the pool for a configuration
+    * @return number of delegates, free or borrowed, for the configuration
+    */
+   public int getDelegateCount( final String key ) {
+      final ConfiguredPool<AE> pool = getPool( key );
+      if ( pool == null ) {
+         return 0;
+      }
+      synchronized ( _pools ) {
+         return pool._delegateCount;
+      }
+   }
+
+   /**
+    * @param context uima context of an annotator
+    * @return text with the names and values of all configuration parameters, in name order
+    */
+   static public String getConfigurationKey( final UimaContext context ) {
+      final String[] names = context.getConfigParameterNames();
+      final Map<String, String> values = new TreeMap<>();
+      for ( String name : names ) {
+         final Object value = context.getConfigParameterValue( name );
+         values.put( name, value instanceof Object[] ? Arrays.deepToString( (Object[])value ) : String.valueOf( value ) );
+      }
+      return values.toString();
+   }
+
+   private ConfiguredPool<AE> getPool( final String key ) {
+      synchronized ( _pools ) {
+         return _pools.get( key );
+      }
+   }
+
+   private ConfiguredPool<AE> getExistingPool( final String key ) throws AnalysisEngineProcessException {
+      final ConfiguredPool<AE> pool = getPool( key );
+      if ( pool == null ) {
+         throw new AnalysisEngineProcessException(
+               new IllegalStateException( "No initialized delegate for configuration " + key ) );
+      }
+      return pool;
+   }
+
+
+   /**
+    * A completion call made on a delegate.
+    */
+   @FunctionalInterface
+   private interface DelegateCall<AE> {
+      void call( AE delegate ) throws AnalysisEngineProcessException;
+   }
+
+   /**
+    * Delegates for one configuration.
+    */
+   static private final class ConfiguredPool<AE> {
+      private final BlockingQueue<AE> _free = new LinkedBlockingQueue<>();
+      // guarded by the map of pools
+      private int _delegateCount;
+      private int _batchCompleteCalls;
+      private int _collectionCompleteCalls;
+
+      private AE borrow() throws AnalysisEngineProcessException {
+         try {
+            return _free.take();
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisEngineProcessException( intE );
+         }
+      }
+
+      /**
+       * Borrows every delegate, waiting for any that are still processing, makes the call on each and returns them.
+       * All delegates receive the call even if one fails, and the first failure is thrown.
+       */
+      private void callAll( final int delegateCount, final DelegateCall<AE> delegateCall )
+            throws AnalysisEngineProcessException {
+         final List<AE> delegates = new ArrayList<>( delegateCount );
+         AnalysisEngineProcessException failure = null;
+         try {
+            for ( int i = 0; i < delegateCount; i++ ) {
+               delegates.add( borrow() );
+            }
+            for ( AE delegate : delegates ) {
+               try {
+                  delegateCall.call( delegate );
+               } catch ( AnalysisEngineProcessException aeE ) {
+                  if ( failure == null ) {
+                     failure = aeE;
+                  }
+               }
+            }
+         } finally {
+            _free.addAll( delegates );
+         }
+         if ( failure != null ) {
+            throw failure;
+         }
+      }
+   }
+
+}
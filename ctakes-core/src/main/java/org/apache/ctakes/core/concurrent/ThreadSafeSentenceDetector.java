@@ -14,6 +14,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
+ * A static pool holds detectors, one per pipeline thread and configuration, that share a single sentence model.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -29,12 +30,17 @@ final public class ThreadSafeSentenceDetector extends SentenceDetector {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadedSentenceDetector" );
 
+   static private final ThreadSafePool<SentenceDetector> POOL = new ThreadSafePool<>( SentenceDetector::new );
+
+   // key of the delegate pool for the configuration of this annotator
+   private String _poolKey;
+
    /**
     * {@inheritDoc}
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      SdSingleton.getInstance().initialize( context );
+      _poolKey = POOL.addDelegate( context );
    }
 
    /**
@@ -42,52 +48,34 @@ final public class ThreadSafeSentenceDetector extends SentenceDetector {
     */
    @Override
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-      SdSingleton.getInstance().process( jCas );
+      POOL.process( _poolKey, jCas );
    }
 
    /**
-    * @return a sentence detector
-    * @throws ResourceInitializationException -
+    * {@inheritDoc}
     */
-   public static AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException {
-      return AnalysisEngineFactory.createEngineDescription( ThreadSafeSentenceDetector.class );
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      POOL.collectionProcessComplete( _poolKey );
    }
 
-   private enum SdSingleton implements ThreadSafeWrapper<SentenceDetector> {
-      INSTANCE;
-
-      static public SdSingleton getInstance() {
-         return INSTANCE;
-      }
-
-      private final SentenceDetector _delegate;
-      private boolean _initialized;
-
-      SdSingleton() {
-         _delegate = new SentenceDetector();
-      }
-
-      final private Object LOCK = new Object();
-
-      @Override
-      public Object getLock() {
-         return LOCK;
-      }
-
-      @Override
-      public SentenceDetector getDelegate() {
-         return _delegate;
-      }
-
-      @Override
-      public boolean isInitialized() {
-         return _initialized;
+   /**
+    * Destroys the delegate added by this annotator.
+    */
+   @Override
+   public void destroy() {
+      if ( _poolKey != null ) {
+         POOL.removeDelegate( _poolKey );
+         _poolKey = null;
       }
+   }
 
-      @Override
-      public void setInitialized( final boolean initialized ) {
-         _initialized = initialized;
-      }
+   /**
+    * @return a sentence detector
+    * @throws ResourceInitializationException -
+    */
+   public static AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription( ThreadSafeSentenceDetector.class );
    }
 
 }
@@ -41,6 +41,7 @@ import java.lang.reflect.Array;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -48,6 +49,11 @@ import java.util.stream.Collectors;
 /**
  * Abstract to read files in a tree starting in a root directory.
  * By default, filenames are sorted with {@link NumberedSuffixComparator}.
+ * <p>
+ * By default the whole tree is gathered during initialization and each file is read on the pipeline thread.
+ * With {@link #PARAM_PREFETCH_COUNT} above 0 the tree is instead walked lazily, in the same order,
+ * and the next documents are read on background threads.
+ * Patient and corpus note counts are gathered by a concurrent walk of the tree that only keeps counts.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -174,6 +180,32 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
    private boolean _stripQuotes = false;
 
 
+   /**
+    * Number of documents to read ahead of the pipeline on background threads.
+    * With a value above 0 the directory tree is walked lazily instead of being gathered during initialization,
+    * so memory use does not grow with the size of the corpus.
+    */
+   static public final String PARAM_PREFETCH_COUNT = "PrefetchCount";
+   @ConfigurationParameter(
+         name = PARAM_PREFETCH_COUNT,
+         description = "Number of documents to read ahead on background threads.  Above 0 the directory tree"
+                       + " is walked lazily.  Default value is 0; the whole tree is gathered at startup.",
+         mandatory = false
+   )
+   private int _prefetchCount = 0;
+
+   /**
+    * Number of background threads used to read documents when {@link #PARAM_PREFETCH_COUNT} is above 0.
+    */
+   static public final String PARAM_PREFETCH_THREADS = "PrefetchThreads";
+   @ConfigurationParameter(
+         name = PARAM_PREFETCH_THREADS,
+         description = "Number of background threads used to read ahead documents.  Default value is 2.",
+         mandatory = false
+   )
+   private int _prefetchThreads = 2;
+
+
    static protected final String UNKNOWN = "Unknown";
    //   For compatibility with sql db : Timestamp format must be yyyy-mm-dd hh:mm:ss[.fffffffff]
    static private final DateFormat DATE_FORMAT = new SimpleDateFormat( "yyyy-MM-dd hh:mm:ss" );
@@ -185,10 +217,20 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
    private Collection<String> _validExtensions;
    private List<File> _files;
    private Map<File, String> _filePatients;
-   final private Map<String, Integer> _patientDocCounts = new HashMap<>();
+   // Written by the counting thread when the tree is streamed.
+   final private Map<String, Integer> _patientDocCounts = new ConcurrentHashMap<>();
    private int _currentIndex;
    private Comparator<File> _fileComparator;
 
+   // Used when the tree is streamed instead of gathered during initialization.
+   private FileTreeWalker _fileTree;
+   private ExecutorService _prefetchExecutor;
+   private Deque<PrefetchedFile> _prefetchQueue;
+   private Future<Integer> _fileCount;
+   // Guards the wait for patient counts, set when the counting walk has ended.
+   final private Object _countLock = new Object();
+   private boolean _countComplete;
+
 
    public AbstractFileTreeReader() {
       setMetaData( createMetaData() );
@@ -212,6 +254,34 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     */
    abstract protected void readFile( final JCas jCas, final File file ) throws IOException;
 
+   /**
+    * Reads the document text of a file without a JCas so that it can be done ahead of time on a background thread.
+    * If this returns text then {@link #readFile(JCas, File)} must be equivalent to setting the document text.
+    *
+    * @param file file to be read
+    * @return document text, or null if the file can only be read by {@link #readFile(JCas, File)}
+    * @throws IOException should anything bad happen
+    */
+   protected String readDocumentText( final File file ) throws IOException {
+      return null;
+   }
+
+   /**
+    * @return true if this reader can walk the directory tree lazily.
+    * Readers that access {@link #getFiles()} directly should return false.
+    */
+   protected boolean isStreamable() {
+      return true;
+   }
+
+   /**
+    * @return true if {@link #readFile(JCas, File)} replaces the whole content of the jcas, e.g. by deserializing a
+    * cas, so the file must be read before the document metadata is populated.
+    */
+   protected boolean isReadBeforePopulate() {
+      return false;
+   }
+
    /**
     * @return Comparator to sort Files and Directories.  The default Comparator sorts by filename with {@link NumberedSuffixComparator}.
     */
@@ -224,7 +294,7 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
    }
 
    /**
-    * @return all files in the directory tree.
+    * @return all files in the directory tree, or null if the tree is walked lazily.
     */
    protected List<File> getFiles() {
       return _files;
@@ -257,6 +327,7 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     * @return the name of the Corpus for this run.  If none was specified it will be the name of the root directory.
     */
    protected String getCorpusName() {
+      awaitFileCount();
       if ( _patientDocCounts.isEmpty() ) {
          logNotInitialized();
          return "";
@@ -274,6 +345,7 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     * @return the number of patients in the collection.
     */
    protected int getPatientCount() {
+      awaitFileCount();
       if ( _patientDocCounts.isEmpty() ) {
          logNotInitialized();
          return 0;
@@ -288,6 +360,9 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     * @return the number of documents in the collection.
     */
    public int getNoteCount() {
+      if ( _fileCount != null ) {
+         return awaitFileCount();
+      }
       if ( _files == null ) {
          logNotInitialized();
          return 0;
@@ -302,6 +377,10 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     * @return the number of documents in the collection.
     */
    public int getNoteCount( final String patientId ) {
+      if ( _fileCount != null ) {
+         awaitPatientCount( patientId );
+         return _patientDocCounts.getOrDefault( patientId, 0 );
+      }
       if ( _patientDocCounts.isEmpty() ) {
          logNotInitialized();
          return 0;
@@ -400,12 +479,150 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
          }
          _filePatients = new HashMap<>();
          _fileComparator = createFileComparator();
+         if ( _prefetchCount > 0 ) {
+            if ( isStreamable() ) {
+               initializeStreaming();
+               return;
+            }
+            LOGGER.warn( "{} cannot walk the directory tree lazily, gathering all files.", getClass().getSimpleName() );
+         }
          _files = getDescendentFiles( _rootDir, _validExtensions, 0 );
       }
       _patientDocCounts.forEach( ( k, v ) -> PatientNoteStore.getInstance().setWantedDocCount( k, v ) );
       ProgressManager.getInstance().initializeProgress( _rootDirPath, _files.size() );
    }
 
+   /**
+    * Starts the lazy walk of the tree, the concurrent count of notes, and the prefetch of the first documents.
+    */
+   private void initializeStreaming() {
+      LOGGER.info( "Reading ahead {} documents with {} threads.", _prefetchCount, _prefetchThreads );
+      _fileTree = new FileTreeWalker( _rootDir, _validExtensions, _fileComparator, _patientLevel );
+      _prefetchExecutor = Executors.newFixedThreadPool( Math.max( 1, _prefetchThreads ),
+            createDaemonFactory( "FileTreePrefetch" ) );
+      _prefetchQueue = new ArrayDeque<>( _prefetchCount );
+      final FutureTask<Integer> countTask = new FutureTask<>( this::countFiles );
+      createDaemonFactory( "FileTreeCount" ).newThread( countTask ).start();
+      _fileCount = countTask;
+      fillPrefetchQueue();
+   }
+
+   /**
+    * Walks the whole tree keeping only note counts per patient.
+    * Runs concurrently with the document prefetch.
+    * The walk has the same order as the prefetch, so the count for a patient is registered as soon as the walk
+    * leaves the patient, usually well before the first document of the patient is emitted.
+    *
+    * @return the number of files in the tree
+    */
+   private int countFiles() {
+      try {
+         final FileTreeWalker fileTree
+               = new FileTreeWalker( _rootDir, _validExtensions, _fileComparator, _patientLevel );
+         final Map<String, Integer> patientDocCounts = new HashMap<>();
+         String previousPatientId = null;
+         int fileCount = 0;
+         while ( fileTree.hasNext() ) {
+            fileTree.next();
+            fileCount++;
+            final String patientId = fileTree.getPatientId();
+            if ( previousPatientId != null && !previousPatientId.equals( patientId ) ) {
+               registerPatientCount( previousPatientId, patientDocCounts.get( previousPatientId ) );
+            }
+            if ( patientId.equals( SourceMetadataUtil.UNKNOWN_PATIENT ) ) {
+               previousPatientId = null;
+               continue;
+            }
+            patientDocCounts.merge( patientId, 1, Integer::sum );
+            previousPatientId = patientId;
+         }
+         if ( previousPatientId != null ) {
+            registerPatientCount( previousPatientId, patientDocCounts.get( previousPatientId ) );
+         }
+         ProgressManager.getInstance().initializeProgress( _rootDirPath, fileCount );
+         LOGGER.info( "Counted {} files for {} patients.", fileCount, patientDocCounts.size() );
+         return fileCount;
+      } finally {
+         synchronized ( _countLock ) {
+            _countComplete = true;
+            _countLock.notifyAll();
+         }
+      }
+   }
+
+   /**
+    * Sets the note count of a patient and wakes any wait for it.
+    *
+    * @param patientId -
+    * @param count     number of notes for the patient
+    */
+   private void registerPatientCount( final String patientId, final int count ) {
+      _patientDocCounts.put( patientId, count );
+      PatientNoteStore.getInstance().setWantedDocCount( patientId, count );
+      synchronized ( _countLock ) {
+         _countLock.notifyAll();
+      }
+   }
+
+   /**
+    * Waits until the note count of a patient in a lazily walked tree has been registered.
+    *
+    * @param patientId -
+    */
+   private void awaitPatientCount( final String patientId ) {
+      if ( _fileCount == null || patientId.equals( SourceMetadataUtil.UNKNOWN_PATIENT ) ) {
+         return;
+      }
+      synchronized ( _countLock ) {
+         while ( !_countComplete && !_patientDocCounts.containsKey( patientId ) ) {
+            try {
+               _countLock.wait();
+            } catch ( InterruptedException intE ) {
+               Thread.currentThread().interrupt();
+               return;
+            }
+         }
+      }
+   }
+
+   /**
+    * Waits for the count of notes in a lazily walked tree.
+    *
+    * @return the number of files in the tree, or 0 if the tree is not walked lazily or could not be counted.
+    */
+   private int awaitFileCount() {
+      if ( _fileCount == null ) {
+         return 0;
+      }
+      try {
+         return _fileCount.get();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+      } catch ( ExecutionException exE ) {
+         LOGGER.error( "Could not count files in {} : {}", _rootDirPath, exE.getMessage() );
+      }
+      return 0;
+   }
+
+   /**
+    * Walks the tree until the prefetch queue is full, submitting each file to be read on a background thread.
+    */
+   private void fillPrefetchQueue() {
+      while ( _prefetchQueue.size() < _prefetchCount && _fileTree.hasNext() ) {
+         final File file = _fileTree.next();
+         _filePatients.put( file, _fileTree.getPatientId() );
+         _prefetchQueue.add( new PrefetchedFile( file, _prefetchExecutor.submit( () -> readDocumentText( file ) ) ) );
+      }
+   }
+
+   static private ThreadFactory createDaemonFactory( final String name ) {
+      return r -> {
+         final Thread thread = new Thread( r, name );
+         thread.setDaemon( true );
+         return thread;
+      };
+   }
+
    /**
     * @param explicitExtensions array of file extensions as specified in the uima parameters
     * @return a collection of dot-prefixed extensions or none if {@code explicitExtensions} is null or empty
@@ -644,14 +861,16 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
       if ( _currentIndex == 0 && _writeBanner ) {
          BannerWriter.writeProcess();
       }
-      final boolean hasNext = _currentIndex < _files.size();
+      final boolean hasNext = _prefetchQueue != null
+                              ? !_prefetchQueue.isEmpty()
+                              : _currentIndex < _files.size();
       if ( !hasNext ) {
          ProgressManager.getInstance()
                         .updatePatientId( ProgressManager.PROGRESS_COMPLETE );
          ProgressManager.getInstance()
                         .updateDocId( ProgressManager.PROGRESS_COMPLETE );
          ProgressManager.getInstance()
-                        .updateProgress( _files.size() );
+                        .updateProgress( getNoteCount() );
          if ( _writeBanner ) {
             BannerWriter.writeFinished();
          }
@@ -664,7 +883,14 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     */
    @Override
    public void getNext( final JCas jcas ) throws IOException, CollectionException {
+      if ( _prefetchQueue != null ) {
+         getNextPrefetched( jcas );
+         return;
+      }
       final File file = _files.get( _currentIndex );
+      if ( isReadBeforePopulate() ) {
+         readFile( jcas, file );
+      }
       // Add document metadata based upon file path
       getJCasBuilder( file ).populate( jcas );
       ProgressManager.getInstance()
@@ -674,7 +900,46 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
       ProgressManager.getInstance()
                      .updateProgress( _currentIndex );
       _currentIndex++;
-      readFile( jcas, file );
+      if ( !isReadBeforePopulate() ) {
+         readFile( jcas, file );
+      }
+   }
+
+
+   /**
+    * Populates the jcas with the next document in the prefetch queue, then refills the queue.
+    *
+    * @param jcas unpopulated jcas
+    * @throws IOException         if the file could not be read
+    * @throws CollectionException if there are no more files
+    */
+   private void getNextPrefetched( final JCas jcas ) throws IOException, CollectionException {
+      final PrefetchedFile prefetched = _prefetchQueue.poll();
+      if ( prefetched == null ) {
+         throw new CollectionException( new NoSuchElementException( "No more files in " + _rootDirPath ) );
+      }
+      final File file = prefetched._file;
+      // The wanted count of the patient must be known before the first document of the patient is emitted.
+      awaitPatientCount( getPatientId( file ) );
+      final String docText = prefetched.getDocumentText();
+      if ( docText == null && isReadBeforePopulate() ) {
+         readFile( jcas, file );
+      }
+      getJCasBuilder( file ).populate( jcas );
+      ProgressManager.getInstance()
+                     .updatePatientId( SourceMetadataUtil.getPatientIdentifier( jcas ) );
+      ProgressManager.getInstance()
+                     .updateDocId( DocIdUtil.getDocumentID( jcas ) );
+      ProgressManager.getInstance()
+                     .updateProgress( _currentIndex );
+      _currentIndex++;
+      _filePatients.remove( file );
+      if ( docText != null ) {
+         jcas.setDocumentText( docText );
+      } else if ( !isReadBeforePopulate() ) {
+         readFile( jcas, file );
+      }
+      fillPrefetchQueue();
    }
 
 
@@ -684,11 +949,55 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
    @Override
    public Progress[] getProgress() {
       return new Progress[]{
-            new ProgressImpl( _currentIndex, _files.size(), Progress.ENTITIES )
+            new ProgressImpl( _currentIndex, getNoteCount(), Progress.ENTITIES )
       };
    }
 
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() throws IOException {
+      if ( _prefetchExecutor != null ) {
+         _prefetchExecutor.shutdownNow();
+      }
+      super.close();
+   }
+
+
+   /**
+    * A file in the tree and its document text, which may still be being read.
+    */
+   static private final class PrefetchedFile {
+      private final File _file;
+      private final Future<String> _docText;
+
+      private PrefetchedFile( final File file, final Future<String> docText ) {
+         _file = file;
+         _docText = docText;
+      }
+
+      /**
+       * @return the document text, or null if the file can only be read into a jcas
+       * @throws IOException if the file could not be read or the read was interrupted
+       */
+      private String getDocumentText() throws IOException {
+         try {
+            return _docText.get();
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+            throw new IOException( intE );
+         } catch ( ExecutionException exE ) {
+            if ( exE.getCause() instanceof IOException ) {
+               throw (IOException)exE.getCause();
+            }
+            throw new IOException( exE.getCause() );
+         }
+      }
+   }
+
+
    /**
     * @return Resource metadata for an abstract reader.  This exists to make uima automation factories happy.
     */
@@ -0,0 +1,49 @@
+package org.apache.ctakes.core.cr;
+
+import org.apache.ctakes.core.cc.CasFileFormat;
+import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.uima.jcas.JCas;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Reads cas files written by {@link org.apache.ctakes.core.cc.FileTreeXmiWriter} in any {@link CasFileFormat}.
+ * The format of each file is determined by its extension: .xmi, .xmi.gz or .bcas
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+@PipeBitInfo(
+      name = "CAS Tree Reader",
+      description = "Reads document texts and annotations from XMI, gzipped XMI or compressed binary CAS files in a directory tree.",
+      role = PipeBitInfo.Role.READER,
+      products = { PipeBitInfo.TypeProduct.DOCUMENT_ID }
+)
+final public class CasTreeReader extends AbstractFileTreeReader {
+
+   /**
+    * {@inheritDoc}
+    * The cas is deserialized into the empty jcas, then the document metadata for the file is added.
+    */
+   @Override
+   protected boolean isReadBeforePopulate() {
+      return true;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   protected void readFile( final JCas jCas, final File file ) throws IOException {
+      try ( InputStream inputStream = new BufferedInputStream( new FileInputStream( file ), 65536 ) ) {
+         CasFileFormat.getFormatForFile( file.getName() ).read( inputStream, jCas.getCas() );
+      }
+   }
+
+}
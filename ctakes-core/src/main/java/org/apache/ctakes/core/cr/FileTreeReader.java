@@ -44,10 +44,17 @@ final public class FileTreeReader extends AbstractFileTreeReader {
     * @throws IOException should anything bad happen
     */
    protected void readFile( final JCas jCas, final File file ) throws IOException {
+      jCas.setDocumentText( readDocumentText( file ) );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   protected String readDocumentText( final File file ) throws IOException {
       String docText = readFile( file );
       docText = handleQuotedDoc( docText );
-      docText = handleTextEol( docText );
-      jCas.setDocumentText( docText );
+      return handleTextEol( docText );
    }
 
 
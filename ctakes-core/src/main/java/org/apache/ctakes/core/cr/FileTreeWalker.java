@@ -0,0 +1,147 @@
+package org.apache.ctakes.core.cr;
+
+import org.apache.ctakes.core.util.doc.SourceMetadataUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Lazily walks a directory tree in the same order used by {@link AbstractFileTreeReader}:
+ * the sorted files in a directory, then the sorted subdirectories, depth first.
+ * Only the listings of the directories on the current path are held in memory.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final class FileTreeWalker implements Iterator<File> {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "FileTreeWalker" );
+
+   private final Collection<String> _validExtensions;
+   private final Comparator<File> _fileComparator;
+   private final int _patientLevel;
+   // Directories on the current path, the root directory first.
+   private final List<DirectoryListing> _listings = new ArrayList<>();
+
+   private File _nextFile;
+   private String _nextPatientId;
+   private String _patientId = SourceMetadataUtil.UNKNOWN_PATIENT;
+
+   /**
+    * @param rootDir         root directory of the tree
+    * @param validExtensions collection of valid extensions or empty collection if all extensions are valid
+    * @param fileComparator  sorts the files and subdirectories within a directory
+    * @param patientLevel    directory level beneath the root directory at which patient identifiers exist
+    */
+   FileTreeWalker( final File rootDir,
+                   final Collection<String> validExtensions,
+                   final Comparator<File> fileComparator,
+                   final int patientLevel ) {
+      _validExtensions = validExtensions;
+      _fileComparator = fileComparator;
+      _patientLevel = patientLevel;
+      _listings.add( listDirectory( rootDir, 0 ) );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean hasNext() {
+      if ( _nextFile == null ) {
+         advance();
+      }
+      return _nextFile != null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public File next() {
+      if ( !hasNext() ) {
+         throw new NoSuchElementException();
+      }
+      final File file = _nextFile;
+      _patientId = _nextPatientId;
+      _nextFile = null;
+      return file;
+   }
+
+   /**
+    * @return the patient id for the file last returned by {@link #next()}.
+    * This is the name of the directory at the patient level, or unknown for files above the patient level.
+    */
+   String getPatientId() {
+      return _patientId;
+   }
+
+   private void advance() {
+      while ( !_listings.isEmpty() ) {
+         final DirectoryListing listing = _listings.get( _listings.size() - 1 );
+         if ( listing._files.hasNext() ) {
+            _nextFile = listing._files.next();
+            _nextPatientId = listing._level >= _patientLevel
+                             ? _listings.get( _patientLevel )._directory.getName()
+                             : SourceMetadataUtil.UNKNOWN_PATIENT;
+            return;
+         }
+         if ( listing._childDirs.hasNext() ) {
+            _listings.add( listDirectory( listing._childDirs.next(), listing._level + 1 ) );
+            continue;
+         }
+         _listings.remove( _listings.size() - 1 );
+      }
+   }
+
+   /**
+    * @param directory -
+    * @param level     directory level beneath the root directory
+    * @return sorted valid files and sorted subdirectories in the directory
+    */
+   private DirectoryListing listDirectory( final File directory, final int level ) {
+      final List<File> childDirs = new ArrayList<>();
+      final List<File> files = new ArrayList<>();
+      try ( DirectoryStream<Path> children = Files.newDirectoryStream( directory.toPath() ) ) {
+         for ( Path childPath : children ) {
+            final File child = childPath.toFile();
+            if ( Files.isDirectory( childPath ) ) {
+               childDirs.add( child );
+               continue;
+            }
+            if ( AbstractFileTreeReader.isExtensionValid( child, _validExtensions ) && !child.isHidden() ) {
+               files.add( child );
+            }
+         }
+      } catch ( IOException ioE ) {
+         LOGGER.warn( "Could not list directory {} : {}", directory.getPath(), ioE.getMessage() );
+      }
+      childDirs.sort( _fileComparator );
+      files.sort( _fileComparator );
+      return new DirectoryListing( directory, level, files, childDirs );
+   }
+
+
+   static private final class DirectoryListing {
+      private final File _directory;
+      private final int _level;
+      private final Iterator<File> _files;
+      private final Iterator<File> _childDirs;
+
+      private DirectoryListing( final File directory, final int level,
+                                final List<File> files, final List<File> childDirs ) {
+         _directory = directory;
+         _level = level;
+         _files = files.iterator();
+         _childDirs = childDirs.iterator();
+      }
+   }
+
+}
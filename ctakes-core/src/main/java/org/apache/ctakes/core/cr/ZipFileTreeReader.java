@@ -230,6 +230,15 @@ public class ZipFileTreeReader extends AbstractFileTreeReader {
    }
 
 
+   /**
+    * Zip files are indexed by position in the full file list.
+    * {@inheritDoc}
+    */
+   @Override
+   protected boolean isStreamable() {
+      return false;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -100,6 +100,7 @@ abstract public class AbstractPatientConsumer extends JCasAnnotator_ImplBase imp
          final String patientName = SourceMetadataUtil.getPatientIdentifier( patientCas );
          _logger.info( _action + " for patient " + patientName + " ..." );
          processPatientCas( patientCas );
+         PatientNoteStore.getInstance().releasePatient( patientName );
       }
    }
 
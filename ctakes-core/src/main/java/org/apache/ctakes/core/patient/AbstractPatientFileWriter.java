@@ -56,6 +56,9 @@ abstract public class AbstractPatientFileWriter
     */
    @Override
    protected void writeComplete( final Collection<JCas> data ) {
+      for ( JCas patientCas : _patientCases ) {
+         PatientNoteStore.getInstance().releasePatient( PatientNoteStore.getDefaultPatientId( patientCas ) );
+      }
       _patientCases.clear();
    }
 
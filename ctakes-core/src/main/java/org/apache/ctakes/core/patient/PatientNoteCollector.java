@@ -3,9 +3,14 @@ package org.apache.ctakes.core.patient;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import java.io.File;
 
 /**
  * Sends document cas to the {@link PatientNoteStore} to be cached
@@ -24,6 +29,39 @@ final public class PatientNoteCollector extends JCasAnnotator_ImplBase {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "PatientNoteCollector" );
 
+   static public final String PARAM_MEMORY_BUDGET = "PatientMemoryMb";
+   @ConfigurationParameter(
+         name = PARAM_MEMORY_BUDGET,
+         description = "Megabytes of memory for cached patients before the least recently used are spilled to disk."
+                       + "  Default value is 0; no limit.",
+         mandatory = false,
+         defaultValue = "0"
+   )
+   private int _memoryBudgetMb;
+
+   static public final String PARAM_SPILL_DIR = "PatientSpillDir";
+   @ConfigurationParameter(
+         name = PARAM_SPILL_DIR,
+         description = "Directory for spilled patient files.  Default is a temporary directory.",
+         mandatory = false
+   )
+   private String _spillDir;
+
+   /**
+    * Sets the memory budget and spill directory of the {@link PatientNoteStore}.
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      if ( _spillDir != null && !_spillDir.trim().isEmpty() ) {
+         PatientNoteStore.getInstance().setSpillDirectory( new File( _spillDir.trim() ) );
+      }
+      if ( _memoryBudgetMb > 0 ) {
+         LOGGER.info( "Spilling cached patients to disk beyond " + _memoryBudgetMb + " MB." );
+         PatientNoteStore.getInstance().setMemoryBudget( _memoryBudgetMb * 1024L * 1024L );
+      }
+   }
 
    /**
     * Adds the primary view of this cas to a cache of views for patients.
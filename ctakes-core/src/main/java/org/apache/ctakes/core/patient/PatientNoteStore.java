@@ -2,6 +2,7 @@ package org.apache.ctakes.core.patient;
 
 
 import org.apache.ctakes.core.ae.NamedEngine;
+import org.apache.ctakes.core.cc.CasFileFormat;
 import org.apache.ctakes.core.util.doc.DocIdUtil;
 import org.apache.ctakes.core.util.doc.SourceMetadataUtil;
 import org.apache.ctakes.typesystem.type.structured.DocumentIdPrefix;
@@ -12,15 +13,29 @@ import org.apache.uima.UIMAException;
 import org.apache.uima.cas.CASException;
 import org.apache.uima.cas.CASRuntimeException;
 import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.util.CasCopier;
 
 import javax.annotation.concurrent.Immutable;
+import java.io.*;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
- * Cache for multi-document patient cas objects
+ * Cache for multi-document patient cas objects.
+ * <p>
+ * Each patient is guarded by its own lock, so documents for different patients can be stored and popped concurrently.
+ * When a memory budget is set, the least recently used patient cas objects are spilled to
+ * compressed binary cas files and restored when they are next used.
+ * A patient cas that has been handed out by one of the get or pop methods is never spilled,
+ * as the caller may still be reading or changing it.
+ * </p>
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -38,26 +53,83 @@ public enum PatientNoteStore {
 
    static private final String GENERIC_PATIENT = "Generic";
 
+   // Rough heap use of a stored view, used to decide when to spill patients
+   static private final int BYTES_PER_CHAR = 2;
+   static private final int BYTES_PER_FS = 96;
+   // Spilled patient cas objects kept for reuse.  Creating a cas with the full type system is expensive.
+   static private final int MAX_SPARE_CASES = 4;
+
    // Collection of annotation engines (by some id) that consume patients
    private final Collection<String> _registeredEngines;
    // Map of Patient Name (id) to registered engines that have already consumed the patient
    private final Map<String, Collection<String>> _enginesRun;
-   // Map of patient id to patient jcas
-   private final Map<String, JCas> _patientMap;
-   // Map of Patient Name (id) to ViewInfo objects - metadata for jCas views
-   private final Map<String, Collection<ViewInfo>> _patientViewInfos;
+   // Map of patient id to patient cas, views and spill state
+   private final Map<String, PatientEntry> _patients;
    // Map of Patient Name (id) to document count for that patient.  Required to remove cached patient after last pop()
    private final Map<String, Integer> _wantedDocCounts;
 
+   private final Deque<JCas> _spareCases;
+   private final AtomicLong _residentBytes;
+   private final AtomicLong _useClock;
+   private final AtomicInteger _spillCount;
+   private volatile long _memoryBudget;
+   private volatile File _spillDir;
+
    /**
     * private
     */
    PatientNoteStore() {
-      _registeredEngines = new HashSet<>();
-      _enginesRun = new HashMap<>();
-      _patientMap = new HashMap<>();
-      _patientViewInfos = new HashMap<>();
-      _wantedDocCounts = new HashMap<>();
+      _registeredEngines = ConcurrentHashMap.newKeySet();
+      _enginesRun = new ConcurrentHashMap<>();
+      _patients = new ConcurrentHashMap<>();
+      _wantedDocCounts = new ConcurrentHashMap<>();
+      _spareCases = new ArrayDeque<>();
+      _residentBytes = new AtomicLong();
+      _useClock = new AtomicLong();
+      _spillCount = new AtomicInteger();
+   }
+
+   /////////////////    Memory budget   ///////////////
+
+   /**
+    * @param memoryBudget approximate number of bytes that patient cas objects may occupy in memory
+    *                     before the least recently used are spilled to disk.  0 or less for no limit.
+    */
+   public void setMemoryBudget( final long memoryBudget ) {
+      _memoryBudget = memoryBudget;
+      spillPatients( null );
+   }
+
+   /**
+    * @return approximate number of bytes that patient cas objects may occupy in memory, 0 or less for no limit.
+    */
+   public long getMemoryBudget() {
+      return _memoryBudget;
+   }
+
+   /**
+    * @param spillDir directory for spilled patient cas files.  If null a temporary directory is used.
+    */
+   public void setSpillDirectory( final File spillDir ) {
+      _spillDir = spillDir;
+   }
+
+   /**
+    * @return approximate number of bytes occupied by patient cas objects that are in memory.
+    */
+   public long getResidentBytes() {
+      return _residentBytes.get();
+   }
+
+   /**
+    * @return identifiers of patients whose cas is currently spilled to disk.
+    */
+   public Collection<String> getSpilledPatientIds() {
+      return _patients.values().stream()
+                      .filter( e -> e._spillFile != null )
+                      .map( e -> e._patientId )
+                      .sorted()
+                      .collect( Collectors.toList() );
    }
 
    /////////////////    Get available patient, document, view names   ///////////////
@@ -65,7 +137,7 @@ public enum PatientNoteStore {
    /**
     * @param engineName name of engine that consumes patients
     */
-   synchronized public void registerEngine( final String engineName ) {
+   public void registerEngine( final String engineName ) {
       if ( !_registeredEngines.add( engineName ) ) {
          throw new IllegalArgumentException( engineName
                                              + " already Registered!  To add an engine twice, please use the parameter "
@@ -79,7 +151,7 @@ public enum PatientNoteStore {
     *
     * @param namedEngine engine that consumes patients
     */
-   synchronized public void registerEngine( final NamedEngine namedEngine ) {
+   public void registerEngine( final NamedEngine namedEngine ) {
       registerEngine( namedEngine.getEngineName() );
    }
 
@@ -88,8 +160,8 @@ public enum PatientNoteStore {
     * @return identifiers for all stored patients
     */
    @Deprecated
-   synchronized public Collection<String> getStoredPatientIds() {
-      return _patientMap.keySet().stream()
+   public Collection<String> getStoredPatientIds() {
+      return _patients.keySet().stream()
                         .sorted()
                         .collect( Collectors.toList() );
    }
@@ -98,7 +170,7 @@ public enum PatientNoteStore {
     * @param patientId -
     * @return identifiers for all stored documents for the given patient
     */
-   synchronized public Collection<String> getStoredDocIds( final String patientId ) {
+   public Collection<String> getStoredDocIds( final String patientId ) {
       return getViewInfos( patientId ).stream()
             .map( ViewInfo::getDocId )
             .sorted()
@@ -111,7 +183,7 @@ public enum PatientNoteStore {
     * @param docId     -
     * @return names for all stored views for the given patient and document
     */
-   synchronized public Collection<String> getStoredViewNames( final String patientId, final String docId ) {
+   public Collection<String> getStoredViewNames( final String patientId, final String docId ) {
       return getViewInfos( patientId ).stream()
             .filter( vi -> vi.getDocId().equals( docId ) )
             .map( ViewInfo::getViewName )
@@ -124,7 +196,7 @@ public enum PatientNoteStore {
    /**
     * @return all completed patient identifiers in the cache
     */
-   synchronized public Collection<String> getCompletedPatientIds() {
+   public Collection<String> getCompletedPatientIds() {
       return getStoredPatientIds().stream()
             .filter( pid -> getWantedDocCount( pid ) == getStoredDocCount( pid ) )
             .sorted()
@@ -135,7 +207,7 @@ public enum PatientNoteStore {
     * @param patientId -
     * @return number of documents for the patient that have been completed and stored in the cache
     */
-   synchronized public int getStoredDocCount( final String patientId ) {
+   public int getStoredDocCount( final String patientId ) {
       return getStoredDocIds( patientId ).size();
    }
 
@@ -144,7 +216,7 @@ public enum PatientNoteStore {
     * @param patientId -
     * @return number of documents that exist for the patient or -1 if unknown
     */
-   synchronized public int getWantedDocCount( final String patientId ) {
+   public int getWantedDocCount( final String patientId ) {
       return _wantedDocCounts.getOrDefault( patientId, -1 );
    }
 
@@ -153,7 +225,7 @@ public enum PatientNoteStore {
     * @param patientId -
     * @param count number of documents that exist for the patient
     */
-   synchronized public void setWantedDocCount( final String patientId, final int count ) {
+   public void setWantedDocCount( final String patientId, final int count ) {
       _wantedDocCounts.put( patientId, count );
    }
 
@@ -188,8 +260,8 @@ public enum PatientNoteStore {
     * Store all views in the source cas.  Patient Id and Document Id will be determined from the source cas.
     * @param sourceCas source (document) cas
     */
-   synchronized public void storeAllViews( final JCas sourceCas ) {
-      PatientViewUtil.getAllViewNames( sourceCas ).forEach( n -> storeView( n, sourceCas ) );
+   public void storeAllViews( final JCas sourceCas ) {
+      storeAllViews( getDefaultPatientId( sourceCas ), getDefaultDocumentId( sourceCas ), sourceCas );
    }
 
    /**
@@ -198,8 +270,15 @@ public enum PatientNoteStore {
     * @param docId -
     * @param sourceCas source (document) cas
     */
-   synchronized public void storeAllViews( final String patientId, final String docId, final JCas sourceCas ) {
-      PatientViewUtil.getAllViewNames( sourceCas ).forEach( n -> storeView( patientId, docId, n, sourceCas ) );
+   public void storeAllViews( final String patientId, final String docId, final JCas sourceCas ) {
+      final PatientEntry entry = lockEntry( patientId, true );
+      try {
+         PatientViewUtil.getAllViewNames( sourceCas )
+                        .forEach( n -> storeView( entry, docId, n, n, sourceCas ) );
+      } finally {
+         entry._lock.unlock();
+      }
+      spillPatients( entry );
    }
 
    /**
@@ -207,7 +286,7 @@ public enum PatientNoteStore {
     * @param storeViewName the name to use to store the primary view
     * @param sourceCas source (document) cas
     */
-   synchronized public void storePrimaryAsView( final String storeViewName, final JCas sourceCas ) {
+   public void storePrimaryAsView( final String storeViewName, final JCas sourceCas ) {
       storePrimaryAsView( getDefaultPatientId( sourceCas ), getDefaultDocumentId( sourceCas ),
             storeViewName, sourceCas );
    }
@@ -219,8 +298,8 @@ public enum PatientNoteStore {
     * @param storeViewName the name to use to store the primary view
     * @param sourceCas source (document) cas
     */
-   synchronized public void storePrimaryAsView( final String patientId, final String docId, final String storeViewName,
-                                                final JCas sourceCas ) {
+   public void storePrimaryAsView( final String patientId, final String docId, final String storeViewName,
+                                   final JCas sourceCas ) {
       storeView( patientId, docId, storeViewName, PatientViewUtil.DEFAULT_VIEW, sourceCas );
    }
 
@@ -230,7 +309,7 @@ public enum PatientNoteStore {
     * @param sourceViewName the name of the view in the source cas
     * @param sourceCas      source (document) cas
     */
-   synchronized public void storeView( final String sourceViewName, final JCas sourceCas ) {
+   public void storeView( final String sourceViewName, final JCas sourceCas ) {
       storeView( getDefaultPatientId( sourceCas ), getDefaultDocumentId( sourceCas ),
             sourceViewName, sourceViewName, sourceCas );
    }
@@ -243,7 +322,7 @@ public enum PatientNoteStore {
     * @param sourceViewName the name of the view in the source cas
     * @param sourceCas      source (document) cas
     */
-   synchronized public void storeView( final String patientId, final String docId, final String sourceViewName, final JCas sourceCas ) {
+   public void storeView( final String patientId, final String docId, final String sourceViewName, final JCas sourceCas ) {
       storeView( patientId, docId, sourceViewName, sourceViewName, sourceCas );
    }
 
@@ -256,34 +335,49 @@ public enum PatientNoteStore {
     * @param sourceViewName the name of the view in the source cas
     * @param sourceCas      source (document) cas
     */
-   synchronized public void storeView( final String patientId, final String docId, final String storeViewName,
-                                       final String sourceViewName, final JCas sourceCas ) {
-      if ( getStoredViewNames( patientId, docId ).contains( storeViewName ) ) {
+   public void storeView( final String patientId, final String docId, final String storeViewName,
+                          final String sourceViewName, final JCas sourceCas ) {
+      final PatientEntry entry = lockEntry( patientId, true );
+      try {
+         storeView( entry, docId, storeViewName, sourceViewName, sourceCas );
+      } finally {
+         entry._lock.unlock();
+      }
+      spillPatients( entry );
+   }
+
+   /**
+    * Copy a view into the patient cas.  The caller must hold the patient lock.
+    */
+   private void storeView( final PatientEntry entry, final String docId, final String storeViewName,
+                           final String sourceViewName, final JCas sourceCas ) {
+      final String patientId = entry._patientId;
+      final ViewInfo viewInfo = new ViewInfo( patientId, docId, storeViewName );
+      if ( entry._viewInfos.contains( viewInfo ) ) {
          LOGGER.warn( "View already stored as " + patientId + " " + docId + " " + storeViewName );
          LOGGER.warn( "Previously stored view will be replaced." );
       }
-      // don't use putIfAbsent or computeIfAbsent to better handle exceptions and lazy instantiation
-      JCas patientCas = _patientMap.get( patientId );
+      final JCas patientCas = getPatientCas( entry );
       if ( patientCas == null ) {
-         try {
-            patientCas = JCasFactory.createJCas();
-            setPatientId( patientCas, patientId );
-            _patientMap.put( patientId, patientCas );
-         } catch ( UIMAException uE ) {
-            LOGGER.error( uE.getMessage() );
-            return;
+         if ( entry._viewInfos.isEmpty() ) {
+            removeEntry( entry );
          }
+         return;
       }
       // Cache view into patient using encoded view name
       LOGGER.info( "Caching view for " + patientId + " " + docId + " " + sourceViewName
             + (sourceViewName.equals( storeViewName ) ? "" : " as " + storeViewName) + " ..." );
-      final ViewInfo viewInfo = new ViewInfo( patientId, docId, storeViewName );
       try {
          final JCas sourceView = sourceCas.getView( sourceViewName );
          final CasCopier copier = new CasCopier( sourceCas.getCas(), patientCas.getCas() );
          copier.copyCasView( sourceView.getCas(), viewInfo.getViewCode(), true );
-         _patientViewInfos.putIfAbsent( patientId, new ArrayList<>() );
-         _patientViewInfos.get( patientId ).add( viewInfo );
+         entry._viewInfos.add( viewInfo );
+         final long viewBytes = estimateBytes( sourceView );
+         // A replaced view no longer counts toward the patient size.
+         final Long replacedBytes = entry._viewBytes.put( viewInfo, viewBytes );
+         final long addedBytes = replacedBytes == null ? viewBytes : viewBytes - replacedBytes;
+         entry._bytes += addedBytes;
+         _residentBytes.addAndGet( addedBytes );
       } catch ( CASException | CASRuntimeException casE ) {
          LOGGER.error( casE.getMessage() );
       }
@@ -311,10 +405,9 @@ public enum PatientNoteStore {
     * @param viewName -
     * @return Stored view for the parameters
     */
-   synchronized public JCas getStoredView( final String patientId, final String docId, final String viewName ) {
-      final JCas patientCas = _patientMap.get( patientId );
+   public JCas getStoredView( final String patientId, final String docId, final String viewName ) {
+      final JCas patientCas = getHandedOutCas( patientId );
       if ( patientCas == null ) {
-         LOGGER.warn( "No patient with id " + patientId );
          return null;
       }
       final ViewInfo viewInfo = new ViewInfo( patientId, docId, viewName );
@@ -331,18 +424,17 @@ public enum PatientNoteStore {
     * @param docId     -
     * @return Map of ViewNames to Views
     */
-   synchronized public Map<String, JCas> getStoredViews( final String patientId, final String docId ) {
-      final JCas patientCas = _patientMap.get( patientId );
+   public Map<String, JCas> getStoredViews( final String patientId, final String docId ) {
+      final JCas patientCas = getHandedOutCas( patientId );
       if ( patientCas == null ) {
-         LOGGER.warn( "No patient with id " + patientId );
          return null;
       }
       final Collection<String> viewNames = getStoredViewNames( patientId, docId );
       final Map<String, JCas> viewMap = new HashMap<>();
       try {
          for ( String viewName : viewNames ) {
-            final ViewInfo viewInfo = new ViewInfo( viewName );
-            viewMap.put( viewInfo.getViewName(), patientCas.getView( viewName ) );
+            final ViewInfo viewInfo = new ViewInfo( patientId, docId, viewName );
+            viewMap.put( viewName, patientCas.getView( viewInfo.getViewCode() ) );
          }
       } catch ( CASException casE ) {
          LOGGER.error( casE.getMessage() );
@@ -354,7 +446,7 @@ public enum PatientNoteStore {
     * @param patientId -
     * @return Map of docIds to Map of ViewNames to Views
     */
-   synchronized public Map<String, Map<String, JCas>> getStoredViews( final String patientId ) {
+   public Map<String, Map<String, JCas>> getStoredViews( final String patientId ) {
       final Map<String, Map<String, JCas>> viewMap = new HashMap<>();
       final Collection<String> docIds = getStoredDocIds( patientId );
       for ( String docId : docIds ) {
@@ -380,15 +472,23 @@ public enum PatientNoteStore {
     * Use popPatientCas instead to automate cleanup
     * @param patientId -
     */
-   synchronized public JCas getFullPatientCas( final String patientId ) {
-      return _patientMap.get( patientId );
+   public JCas getFullPatientCas( final String patientId ) {
+      final PatientEntry entry = lockEntry( patientId, false );
+      if ( entry == null ) {
+         return null;
+      }
+      try {
+         return handOut( entry );
+      } finally {
+         entry._lock.unlock();
+      }
    }
 
    /**
     * @param engineName engine requesting a completed patient jcas
     * @return a patient jcas or null if none is available for the given engine
     */
-   synchronized public JCas popPatientCas( final String engineName ) {
+   public JCas popPatientCas( final String engineName ) {
       if ( !_registeredEngines.contains( engineName ) ) {
          throw new IllegalArgumentException( "Engine not registered to use patients " + engineName );
       }
@@ -406,7 +506,7 @@ public enum PatientNoteStore {
     * @param engineName engine requesting a completed patient jcas
     * @return a patient jcas or null if none is available for the given engine
     */
-   synchronized public Collection<JCas> popPatientCases( final String engineName ) {
+   public Collection<JCas> popPatientCases( final String engineName ) {
       if ( !_registeredEngines.contains( engineName ) ) {
          throw new IllegalArgumentException( "Engine not registered to use patients " + engineName );
       }
@@ -422,45 +522,329 @@ public enum PatientNoteStore {
     * @param engineName engine requesting a completed patient jcas
     * @return the patient jcas for the patient id or null if it isn't available for the given engine
     */
-   synchronized public JCas popPatientCas( final String patientId, final String engineName ) {
+   public JCas popPatientCas( final String patientId, final String engineName ) {
       if ( !_registeredEngines.contains( engineName ) ) {
          throw new IllegalArgumentException( "Engine not registered to use patients " + engineName );
       }
-      final Collection<String> enginesRun = _enginesRun.computeIfAbsent( patientId, n -> new HashSet<>() );
-      final boolean newRun = enginesRun.add( engineName );
-      if ( !newRun ) {
+      final Collection<String> enginesRun
+            = _enginesRun.computeIfAbsent( patientId, n -> ConcurrentHashMap.newKeySet() );
+      if ( !enginesRun.add( engineName ) ) {
          return null;
       }
-      final JCas patientCas = _patientMap.get( patientId );
-      if ( enginesRun.size() == _registeredEngines.size() ) {
-         removePatient( patientId );
+      final PatientEntry entry = lockEntry( patientId, false );
+      if ( entry == null ) {
+         return null;
+      }
+      try {
+         final JCas patientCas = handOut( entry );
+         if ( enginesRun.size() == _registeredEngines.size() ) {
+            removeEntry( entry );
+         }
+         return patientCas;
+      } finally {
+         entry._lock.unlock();
       }
-      return patientCas;
    }
 
 
    /**
     * @param patientId identifier of patient to remove from cache
     */
-   synchronized public void removePatient( final String patientId ) {
-      _patientMap.remove( patientId );
-      _patientViewInfos.remove( patientId );
+   public void removePatient( final String patientId ) {
+      final PatientEntry entry = lockEntry( patientId, false );
+      if ( entry != null ) {
+         try {
+            removeEntry( entry );
+         } finally {
+            entry._lock.unlock();
+         }
+      }
       _wantedDocCounts.remove( patientId );
    }
 
+   /**
+    * Patient cases and views that are handed out are pinned in memory, as the caller may keep using them.
+    * Release the patient once it is no longer used so that it may be spilled to disk.
+    *
+    * @param patientId identifier of a patient whose cas or views were handed out
+    */
+   public void releasePatient( final String patientId ) {
+      final PatientEntry entry = lockEntry( patientId, false );
+      if ( entry == null ) {
+         return;
+      }
+      try {
+         entry._pinned = false;
+      } finally {
+         entry._lock.unlock();
+      }
+      spillPatients( null );
+   }
+
+   /////////////////    Patient locking, spilling and restoring   ///////////////
+
+   /**
+    * @param patientId -
+    * @param create    true to create an entry for a patient that is not stored
+    * @return the locked entry for the patient, or null if create is false and the patient is not stored.
+    */
+   private PatientEntry lockEntry( final String patientId, final boolean create ) {
+      while ( true ) {
+         final PatientEntry entry = create
+                                    ? _patients.computeIfAbsent( patientId, PatientEntry::new )
+                                    : _patients.get( patientId );
+         if ( entry == null ) {
+            return null;
+         }
+         entry._lock.lock();
+         if ( !entry._removed ) {
+            entry._lastUse = _useClock.incrementAndGet();
+            return entry;
+         }
+         // Removed by another thread while waiting for the lock
+         entry._lock.unlock();
+      }
+   }
+
+   /**
+    * The caller must hold the patient lock.
+    */
+   private void removeEntry( final PatientEntry entry ) {
+      entry._removed = true;
+      _patients.remove( entry._patientId, entry );
+      if ( entry._jcas != null ) {
+         _residentBytes.addAndGet( -entry._bytes );
+         entry._jcas = null;
+      }
+      deleteSpillFile( entry );
+   }
+
+   /**
+    * Pins the patient cas in memory until {@link #releasePatient(String)}, as the caller may keep using it.
+    * The caller must hold the patient lock.
+    *
+    * @return the patient cas, restored from disk if it had been spilled.
+    */
+   private JCas handOut( final PatientEntry entry ) {
+      if ( entry._jcas == null && entry._spillFile == null ) {
+         return null;
+      }
+      final JCas patientCas = getPatientCas( entry );
+      entry._pinned = patientCas != null;
+      return patientCas;
+   }
+
+   /**
+    * @return the pinned patient cas, or null if the patient is not stored.
+    */
+   private JCas getHandedOutCas( final String patientId ) {
+      final PatientEntry entry = lockEntry( patientId, false );
+      if ( entry == null ) {
+         LOGGER.warn( "No patient with id " + patientId );
+         return null;
+      }
+      try {
+         return handOut( entry );
+      } finally {
+         entry._lock.unlock();
+      }
+   }
+
+   /**
+    * The caller must hold the patient lock.
+    *
+    * @return the patient cas, created or restored from disk as needed.  Null if it could not be created.
+    */
+   private JCas getPatientCas( final PatientEntry entry ) {
+      if ( entry._jcas != null ) {
+         return entry._jcas;
+      }
+      final JCas patientCas = takeSpareCas();
+      if ( patientCas == null ) {
+         return null;
+      }
+      if ( entry._spillFile == null ) {
+         setPatientId( patientCas, entry._patientId );
+      } else {
+         try ( InputStream inputStream
+                     = new BufferedInputStream( new FileInputStream( entry._spillFile ), 65536 ) ) {
+            CasFileFormat.BINARY.read( inputStream, patientCas.getCas() );
+         } catch ( IOException ioE ) {
+            LOGGER.error( "Could not restore patient " + entry._patientId + " from "
+                          + entry._spillFile.getPath() + " : " + ioE.getMessage() );
+            return null;
+         }
+         LOGGER.debug( "Restored patient {} from {}", entry._patientId, entry._spillFile.getPath() );
+         deleteSpillFile( entry );
+      }
+      entry._jcas = patientCas;
+      _residentBytes.addAndGet( entry._bytes );
+      return patientCas;
+   }
+
+   /**
+    * Spill the least recently used patients until the resident patients fit within the memory budget.
+    *
+    * @param keepEntry the patient that was just used, which is kept in memory.  May be null.
+    */
+   private void spillPatients( final PatientEntry keepEntry ) {
+      final long memoryBudget = _memoryBudget;
+      if ( memoryBudget <= 0 || _residentBytes.get() <= memoryBudget ) {
+         return;
+      }
+      final List<PatientEntry> candidates = _patients.values().stream()
+                                                     .filter( e -> e != keepEntry )
+                                                     .filter( e -> e._jcas != null && !e._pinned )
+                                                     .sorted( Comparator.comparingLong( e -> e._lastUse ) )
+                                                     .collect( Collectors.toList() );
+      for ( PatientEntry entry : candidates ) {
+         if ( _residentBytes.get() <= memoryBudget ) {
+            return;
+         }
+         // Never wait on a patient lock here: the patient is in use, so it is not a good candidate anyway.
+         if ( !entry._lock.tryLock() ) {
+            continue;
+         }
+         try {
+            if ( !entry._removed && entry._jcas != null && !entry._pinned ) {
+               spillPatient( entry );
+            }
+         } finally {
+            entry._lock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Write the patient cas to disk and release it.  The caller must hold the patient lock.
+    */
+   private void spillPatient( final PatientEntry entry ) {
+      final File spillFile;
+      try {
+         spillFile = new File( getSpillDirectory(),
+               "patient_" + _spillCount.incrementAndGet() + CasFileFormat.BINARY.getExtension() );
+         try ( OutputStream outputStream = new BufferedOutputStream( new FileOutputStream( spillFile ), 65536 ) ) {
+            CasFileFormat.BINARY.write( entry._jcas.getCas(), outputStream );
+         }
+      } catch ( IOException ioE ) {
+         LOGGER.warn( "Could not spill patient " + entry._patientId + " : " + ioE.getMessage() );
+         return;
+      }
+      spillFile.deleteOnExit();
+      LOGGER.debug( "Spilled patient {} to {}", entry._patientId, spillFile.getPath() );
+      entry._spillFile = spillFile;
+      returnSpareCas( entry._jcas );
+      entry._jcas = null;
+      _residentBytes.addAndGet( -entry._bytes );
+   }
+
+   private File getSpillDirectory() throws IOException {
+      File spillDir = _spillDir;
+      if ( spillDir == null ) {
+         synchronized ( this ) {
+            if ( _spillDir == null ) {
+               _spillDir = Files.createTempDirectory( "ctakes_patients" ).toFile();
+               _spillDir.deleteOnExit();
+            }
+            spillDir = _spillDir;
+         }
+      }
+      if ( !spillDir.isDirectory() && !spillDir.mkdirs() ) {
+         throw new IOException( "Could not create spill directory " + spillDir.getPath() );
+      }
+      return spillDir;
+   }
+
+   static private void deleteSpillFile( final PatientEntry entry ) {
+      if ( entry._spillFile == null ) {
+         return;
+      }
+      try {
+         Files.deleteIfExists( entry._spillFile.toPath() );
+      } catch ( IOException ioE ) {
+         LOGGER.warn( "Could not delete " + entry._spillFile.getPath() + " : " + ioE.getMessage() );
+      }
+      entry._spillFile = null;
+   }
+
+   /**
+    * @return an empty cas, reused from a spilled patient if possible.  Null if a cas could not be created.
+    */
+   private JCas takeSpareCas() {
+      synchronized ( _spareCases ) {
+         if ( !_spareCases.isEmpty() ) {
+            return _spareCases.pop();
+         }
+      }
+      try {
+         return JCasFactory.createJCas();
+      } catch ( UIMAException uE ) {
+         LOGGER.error( uE.getMessage() );
+      }
+      return null;
+   }
+
+   /**
+    * @param jCas a cas that was never handed out of the store
+    */
+   private void returnSpareCas( final JCas jCas ) {
+      synchronized ( _spareCases ) {
+         if ( _spareCases.size() < MAX_SPARE_CASES ) {
+            jCas.reset();
+            _spareCases.push( jCas );
+         }
+      }
+   }
+
+   /**
+    * @param view a stored view
+    * @return rough number of bytes used by the view
+    */
+   static private long estimateBytes( final JCas view ) {
+      final String text = view.getDocumentText();
+      final long textBytes = text == null ? 0 : (long)text.length() * BYTES_PER_CHAR;
+      return textBytes + (long)JCasUtil.selectAll( view ).size() * BYTES_PER_FS;
+   }
+
    /////////////////    Encoding for cached patient view names   ///////////////
 
    /**
     * @param patientId -
     * @return all encoded
     */
-   synchronized private Collection<ViewInfo> getViewInfos( final String patientId ) {
-      final Collection<ViewInfo> viewInfos = _patientViewInfos.get( patientId );
-      if ( viewInfos == null ) {
+   private Collection<ViewInfo> getViewInfos( final String patientId ) {
+      final PatientEntry entry = lockEntry( patientId, false );
+      if ( entry == null ) {
          LOGGER.debug( "No patient with id " + patientId );
          return Collections.emptyList();
       }
-      return viewInfos;
+      try {
+         return new ArrayList<>( entry._viewInfos );
+      } finally {
+         entry._lock.unlock();
+      }
+   }
+
+   /**
+    * Patient cas and bookkeeping.  Fields other than the lock are only accessed while holding the lock,
+    * except for unlocked reads of the volatile fields when choosing patients to spill.
+    */
+   static private final class PatientEntry {
+      private final String _patientId;
+      private final ReentrantLock _lock = new ReentrantLock();
+      // Metadata for the views of the patient jCas
+      private final Collection<ViewInfo> _viewInfos = new LinkedHashSet<>();
+      private final Map<ViewInfo, Long> _viewBytes = new HashMap<>();
+      private volatile JCas _jcas;
+      private volatile File _spillFile;
+      private volatile long _lastUse;
+      private volatile boolean _pinned;
+      private boolean _removed;
+      private long _bytes;
+
+      private PatientEntry( final String patientId ) {
+         _patientId = patientId;
+      }
    }
 
    /**
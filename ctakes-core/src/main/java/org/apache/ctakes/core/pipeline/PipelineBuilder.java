@@ -430,6 +430,7 @@ final public class PipelineBuilder {
     * Run the pipeline on the given text.
     * Use of this method is order-specific.
     * This method will call {@link #build()} if the pipeline has not already been initialized.
+    * Every call instantiates and initializes the full pipeline.  To process many texts use {@link #createEngine()}.
     *
     * @param text text upon which to run this pipeline
     * @return this PipelineBuilder
@@ -460,6 +461,22 @@ final public class PipelineBuilder {
       return this;
    }
 
+   /**
+    * Create a long-lived engine that can be used to process many documents without rebuilding the pipeline.
+    * The engine can process as many documents simultaneously as the {@link #threads(int)} count.
+    * Unlike {@link #run(String)}, annotators are instantiated and initialized only once.
+    * This method will call {@link #build()} if the pipeline has not already been initialized.
+    *
+    * @return a new pipeline engine.  The caller should close the engine when it is no longer needed.
+    * @throws IOException   if the pipeline could not be built
+    * @throws UIMAException if the pipeline could not be built
+    */
+   public PipelineEngine createEngine() throws IOException, UIMAException {
+      ignoreReader();
+      build();
+      return new PipelineEngine( _analysisEngineDesc, _threadCount );
+   }
+
    private void ignoreReader() {
       if ( !_ignoreReader && _readerDesc != null ) {
          LOGGER.warn( "Running text directly, ignoring Collection Reader {}", _readerDesc.getClass().getSimpleName() );
@@ -0,0 +1,194 @@
+package org.apache.ctakes.core.pipeline;
+
+
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.CASRuntimeException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.util.JCasPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A long-lived, reusable handle on a built pipeline.
+ * <p>
+ * The analysis engine, including all dictionaries and models, is instantiated and initialized once.
+ * Every document is processed in a JCas borrowed from a pool, so embedding cTAKES in a service costs
+ * the time to process a note instead of the time to initialize a pipeline.
+ * </p>
+ * The engine can process as many documents simultaneously as the thread count of the {@link PipelineBuilder}
+ * that created it.
+ * Call {@link #close()} when the engine is no longer needed so that annotators can release resources.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class PipelineEngine implements AutoCloseable {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "PipelineEngine" );
+
+   /**
+    * Handles a processed JCas before it is returned to the pool.
+    *
+    * @param <T> type of result produced from the jcas
+    */
+   @FunctionalInterface
+   public interface JCasHandler<T> {
+      T handle( JCas jCas ) throws AnalysisEngineProcessException;
+   }
+
+   private final AnalysisEngine _engine;
+   private final JCasPool _pool;
+   private final int _size;
+   private final ExecutorService _batchExecutor;
+
+   /**
+    * @param description pipeline description
+    * @param size        number of documents that can be processed simultaneously
+    * @throws ResourceInitializationException if the engine or pool could not be created
+    */
+   PipelineEngine( final AnalysisEngineDescription description, final int size )
+         throws ResourceInitializationException {
+      _size = Math.max( 1, size );
+      // produceAnalysisEngine with a max simultaneous request count creates a thread safe multiprocessing engine.
+      _engine = UIMAFramework.produceAnalysisEngine( description, _size, 0 );
+      _pool = new JCasPool( _size, _engine );
+      _batchExecutor = _size > 1 ? Executors.newFixedThreadPool( _size ) : null;
+      LOGGER.info( "Pipeline Engine created for {} simultaneous documents.", _size );
+   }
+
+   /**
+    * @return the number of documents that can be processed simultaneously.
+    */
+   public int getSize() {
+      return _size;
+   }
+
+   /**
+    * Run the pipeline on the given text.  Results are only available through pipeline components such as writers.
+    *
+    * @param text text upon which to run the pipeline
+    * @throws AnalysisEngineProcessException if the text could not be processed
+    */
+   public void process( final String text ) throws AnalysisEngineProcessException {
+      process( text, jCas -> null );
+   }
+
+   /**
+    * Run the pipeline on the given text and handle the processed jcas before it is returned to the pool.
+    *
+    * @param text    text upon which to run the pipeline
+    * @param handler handles the processed jcas.  The jcas must not be used after the handler returns.
+    * @param <T>     type of result produced by the handler
+    * @return result produced by the handler
+    * @throws AnalysisEngineProcessException if the text could not be processed
+    */
+   public <T> T process( final String text, final JCasHandler<T> handler ) throws AnalysisEngineProcessException {
+      final JCas jCas = _pool.getJCas( 0 );
+      if ( jCas == null ) {
+         throw new AnalysisEngineProcessException( new Throwable( "Could not acquire JCas from pool." ) );
+      }
+      try {
+         jCas.reset();
+         jCas.setDocumentText( text );
+         _engine.process( jCas );
+         return handler.handle( jCas );
+      } catch ( CASRuntimeException casRE ) {
+         LOGGER.error( "Error processing text." );
+         throw new AnalysisEngineProcessException( casRE );
+      } finally {
+         _pool.releaseJCas( jCas );
+      }
+   }
+
+   /**
+    * Run the pipeline on each of the given texts.  Results are only available through pipeline components.
+    *
+    * @param texts texts upon which to run the pipeline
+    * @throws AnalysisEngineProcessException if any text could not be processed
+    */
+   public void process( final List<String> texts ) throws AnalysisEngineProcessException {
+      process( texts, jCas -> null );
+   }
+
+   /**
+    * Run the pipeline on each of the given texts, simultaneously if the engine size is greater than 1.
+    *
+    * @param texts   texts upon which to run the pipeline
+    * @param handler handles each processed jcas.  Must be thread safe if the engine size is greater than 1.
+    * @param <T>     type of result produced by the handler
+    * @return results produced by the handler, in the order of the given texts
+    * @throws AnalysisEngineProcessException if any text could not be processed
+    */
+   public <T> List<T> process( final List<String> texts, final JCasHandler<T> handler )
+         throws AnalysisEngineProcessException {
+      if ( texts.isEmpty() ) {
+         return Collections.emptyList();
+      }
+      final List<T> results = new ArrayList<>( texts.size() );
+      if ( _batchExecutor == null || texts.size() == 1 ) {
+         for ( String text : texts ) {
+            results.add( process( text, handler ) );
+         }
+         return results;
+      }
+      final List<Future<T>> futures = new ArrayList<>( texts.size() );
+      for ( String text : texts ) {
+         futures.add( _batchExecutor.submit( () -> process( text, handler ) ) );
+      }
+      try {
+         for ( Future<T> future : futures ) {
+            results.add( future.get() );
+         }
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         futures.forEach( f -> f.cancel( true ) );
+         throw new AnalysisEngineProcessException( intE );
+      } catch ( ExecutionException execE ) {
+         futures.forEach( f -> f.cancel( true ) );
+         final Throwable cause = execE.getCause();
+         if ( cause instanceof AnalysisEngineProcessException ) {
+            throw (AnalysisEngineProcessException)cause;
+         }
+         throw new AnalysisEngineProcessException( cause );
+      }
+      return results;
+   }
+
+   /**
+    * Calls collectionProcessComplete on the pipeline, allowing components such as writers to finish.
+    *
+    * @throws AnalysisEngineProcessException if a component could not complete
+    */
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      _engine.collectionProcessComplete();
+   }
+
+   /**
+    * Completes the collection and destroys the engine.
+    */
+   @Override
+   public void close() throws AnalysisEngineProcessException {
+      if ( _batchExecutor != null ) {
+         _batchExecutor.shutdown();
+      }
+      try {
+         _engine.collectionProcessComplete();
+      } finally {
+         _engine.destroy();
+      }
+   }
+
+}
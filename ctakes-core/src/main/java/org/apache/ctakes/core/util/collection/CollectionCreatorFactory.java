@@ -29,6 +29,23 @@ final public class CollectionCreatorFactory {
       };
    }
 
+   /**
+    * @return creator of sets that store long values without boxing
+    */
+   static public CollectionCreator<Long, Set<Long>> createLongSetCreator() {
+      return new CollectionCreator<Long, Set<Long>>() {
+         @Override
+         public Set<Long> createCollection() {
+            return new LongHashSet();
+         }
+
+         @Override
+         public Set<Long> createCollection( final int size ) {
+            return new LongHashSet( size );
+         }
+      };
+   }
+
    static public <V> CollectionCreator<V, List<V>> createListCreator() {
       return new CollectionCreator<V, List<V>>() {
          @Override
@@ -0,0 +1,272 @@
+package org.apache.ctakes.core.util.collection;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive longs, such as cui codes, stored in an open addressing table.
+ * <p>
+ * Longs are stored without boxing, so a set of codes costs 8 bytes per slot instead of a node and a Long per value.
+ * The primitive methods {@link #add(long)}, {@link #contains(long)} and {@link #forEachLong(LongConsumer)}
+ * should be used on hot paths.  The {@link java.util.Set} methods box values and exist for compatibility
+ * with code that expects a {@code Collection<Long>}.
+ * </p>
+ * Not thread safe.  The iterator does not support removal.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class LongHashSet extends AbstractSet<Long> {
+
+   static private final int DEFAULT_CAPACITY = 16;
+   // Zero is used to mark free slots, so it is tracked separately.
+   static private final long FREE = 0L;
+
+   private long[] _keys;
+   private boolean _hasZero;
+   private int _size;
+   private int _mask;
+   private int _resizeAt;
+
+   public LongHashSet() {
+      this( DEFAULT_CAPACITY );
+   }
+
+   /**
+    * @param expectedSize number of values expected in the set
+    */
+   public LongHashSet( final int expectedSize ) {
+      allocate( tableSize( expectedSize ) );
+   }
+
+   /**
+    * @param value -
+    * @return true if the value was added, false if it was already in the set
+    */
+   public boolean add( final long value ) {
+      if ( value == FREE ) {
+         if ( _hasZero ) {
+            return false;
+         }
+         _hasZero = true;
+         _size++;
+         return true;
+      }
+      int slot = LongHashing.slot( value, _mask );
+      while ( _keys[ slot ] != FREE ) {
+         if ( _keys[ slot ] == value ) {
+            return false;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      _keys[ slot ] = value;
+      _size++;
+      if ( _size >= _resizeAt ) {
+         rehash( _keys.length * 2 );
+      }
+      return true;
+   }
+
+   /**
+    * @param value -
+    * @return true if the set contains the value
+    */
+   public boolean contains( final long value ) {
+      if ( value == FREE ) {
+         return _hasZero;
+      }
+      int slot = LongHashing.slot( value, _mask );
+      while ( _keys[ slot ] != FREE ) {
+         if ( _keys[ slot ] == value ) {
+            return true;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      return false;
+   }
+
+   /**
+    * @param value -
+    * @return true if the value was removed
+    */
+   public boolean remove( final long value ) {
+      if ( value == FREE ) {
+         if ( !_hasZero ) {
+            return false;
+         }
+         _hasZero = false;
+         _size--;
+         return true;
+      }
+      int slot = LongHashing.slot( value, _mask );
+      while ( _keys[ slot ] != FREE ) {
+         if ( _keys[ slot ] == value ) {
+            shiftKeys( slot );
+            _size--;
+            return true;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      return false;
+   }
+
+   /**
+    * @param consumer accepts every value in the set, without boxing
+    */
+   public void forEachLong( final LongConsumer consumer ) {
+      if ( _hasZero ) {
+         consumer.accept( FREE );
+      }
+      for ( long key : _keys ) {
+         if ( key != FREE ) {
+            consumer.accept( key );
+         }
+      }
+   }
+
+   /**
+    * @return array of all values in the set
+    */
+   public long[] toLongArray() {
+      final long[] values = new long[ _size ];
+      int index = 0;
+      if ( _hasZero ) {
+         values[ index++ ] = FREE;
+      }
+      for ( long key : _keys ) {
+         if ( key != FREE ) {
+            values[ index++ ] = key;
+         }
+      }
+      return values;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean add( final Long value ) {
+      return add( value.longValue() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean contains( final Object value ) {
+      return value instanceof Long && contains( ((Long)value).longValue() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean remove( final Object value ) {
+      return value instanceof Long && remove( ((Long)value).longValue() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int size() {
+      return _size;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void clear() {
+      Arrays.fill( _keys, FREE );
+      _hasZero = false;
+      _size = 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Iterator<Long> iterator() {
+      return new Iterator<Long>() {
+         private boolean _zeroDone = !_hasZero;
+         private int _slot = nextSlot( 0 );
+
+         private int nextSlot( final int from ) {
+            int slot = from;
+            while ( slot < _keys.length && _keys[ slot ] == FREE ) {
+               slot++;
+            }
+            return slot;
+         }
+
+         @Override
+         public boolean hasNext() {
+            return !_zeroDone || _slot < _keys.length;
+         }
+
+         @Override
+         public Long next() {
+            if ( !_zeroDone ) {
+               _zeroDone = true;
+               return FREE;
+            }
+            if ( _slot >= _keys.length ) {
+               throw new NoSuchElementException();
+            }
+            final long key = _keys[ _slot ];
+            _slot = nextSlot( _slot + 1 );
+            return key;
+         }
+      };
+   }
+
+   private void allocate( final int capacity ) {
+      _keys = new long[ capacity ];
+      _mask = capacity - 1;
+      _resizeAt = LongHashing.resizeAt( capacity );
+   }
+
+   private void rehash( final int capacity ) {
+      final long[] oldKeys = _keys;
+      allocate( capacity );
+      for ( long key : oldKeys ) {
+         if ( key != FREE ) {
+            int slot = LongHashing.slot( key, _mask );
+            while ( _keys[ slot ] != FREE ) {
+               slot = (slot + 1) & _mask;
+            }
+            _keys[ slot ] = key;
+         }
+      }
+   }
+
+   /**
+    * Backward shift deletion keeps linear probe chains intact without tombstones.
+    *
+    * @param emptied slot of the removed key
+    */
+   private void shiftKeys( final int emptied ) {
+      int free = emptied;
+      int slot = (free + 1) & _mask;
+      while ( _keys[ slot ] != FREE ) {
+         final int home = LongHashing.slot( _keys[ slot ], _mask );
+         if ( ((slot - home) & _mask) >= ((slot - free) & _mask) ) {
+            _keys[ free ] = _keys[ slot ];
+            free = slot;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      _keys[ free ] = FREE;
+   }
+
+   static int tableSize( final int expectedSize ) {
+      final int needed = Math.max( DEFAULT_CAPACITY / 2, (int)Math.ceil( expectedSize / 0.75 ) + 1 );
+      return Integer.highestOneBit( needed - 1 ) << 1;
+   }
+
+}
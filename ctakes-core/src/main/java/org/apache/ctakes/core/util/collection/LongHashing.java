@@ -0,0 +1,36 @@
+package org.apache.ctakes.core.util.collection;
+
+/**
+ * Hashing shared by the primitive long collections.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final class LongHashing {
+
+   private LongHashing() {
+   }
+
+   /**
+    * Cui codes are dense and sequential, so the bits are mixed before masking to avoid long probe runs.
+    *
+    * @param value long value
+    * @param mask  table size - 1
+    * @return home slot for the value
+    */
+   static int slot( final long value, final int mask ) {
+      long hash = value * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 32;
+      return (int)hash & mask;
+   }
+
+   /**
+    * @param capacity table size
+    * @return size at which the table should grow, a load factor of 0.75
+    */
+   static int resizeAt( final int capacity ) {
+      return capacity - (capacity >>> 2);
+   }
+
+}
@@ -0,0 +1,277 @@
+package org.apache.ctakes.core.util.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map with primitive long keys, such as cui codes, stored in an open addressing table.
+ * <p>
+ * The primitive methods {@link #get(long)}, {@link #put(long, Object)}, {@link #containsKey(long)}
+ * and {@link #forEachEntry(LongEntryConsumer)} do not box keys and should be used on hot paths.
+ * The {@link java.util.Map} methods exist for compatibility with code that expects a {@code Map<Long, V>}.
+ * </p>
+ * Not thread safe.  Null values are not permitted.  Entry set iterators do not support removal.
+ *
+ * @param <V> value type
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class LongKeyMap<V> extends AbstractMap<Long, V> {
+
+   /**
+    * Accepts a primitive key and its value.
+    *
+    * @param <V> value type
+    */
+   @FunctionalInterface
+   public interface LongEntryConsumer<V> {
+      void accept( long key, V value );
+   }
+
+   // A null value marks a free slot, so any key including zero can be stored.
+   private long[] _keys;
+   private Object[] _values;
+   private int _size;
+   private int _mask;
+   private int _resizeAt;
+
+   public LongKeyMap() {
+      this( 16 );
+   }
+
+   /**
+    * @param expectedSize number of entries expected in the map
+    */
+   public LongKeyMap( final int expectedSize ) {
+      allocate( LongHashSet.tableSize( expectedSize ) );
+   }
+
+   /**
+    * @param key -
+    * @return value for the key or null if the key is not in the map
+    */
+   @SuppressWarnings( "unchecked" )
+   public V get( final long key ) {
+      final int slot = findSlot( key );
+      return slot < 0 ? null : (V)_values[ slot ];
+   }
+
+   /**
+    * @param key -
+    * @return true if the key is in the map
+    */
+   public boolean containsKey( final long key ) {
+      return findSlot( key ) >= 0;
+   }
+
+   /**
+    * @param key   -
+    * @param value non-null value
+    * @return the previous value for the key or null if there was none
+    */
+   @SuppressWarnings( "unchecked" )
+   public V put( final long key, final V value ) {
+      if ( value == null ) {
+         throw new NullPointerException( "LongKeyMap does not permit null values" );
+      }
+      int slot = LongHashing.slot( key, _mask );
+      while ( _values[ slot ] != null ) {
+         if ( _keys[ slot ] == key ) {
+            final V previous = (V)_values[ slot ];
+            _values[ slot ] = value;
+            return previous;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      _keys[ slot ] = key;
+      _values[ slot ] = value;
+      _size++;
+      if ( _size >= _resizeAt ) {
+         rehash( _keys.length * 2 );
+      }
+      return null;
+   }
+
+   /**
+    * @param key -
+    * @return the removed value or null if the key was not in the map
+    */
+   @SuppressWarnings( "unchecked" )
+   public V remove( final long key ) {
+      final int slot = findSlot( key );
+      if ( slot < 0 ) {
+         return null;
+      }
+      final V previous = (V)_values[ slot ];
+      shiftEntries( slot );
+      _size--;
+      return previous;
+   }
+
+   /**
+    * @param consumer accepts every key and value in the map, without boxing keys
+    */
+   @SuppressWarnings( "unchecked" )
+   public void forEachEntry( final LongEntryConsumer<V> consumer ) {
+      for ( int i = 0; i < _keys.length; i++ ) {
+         if ( _values[ i ] != null ) {
+            consumer.accept( _keys[ i ], (V)_values[ i ] );
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public V get( final Object key ) {
+      return key instanceof Long ? get( ((Long)key).longValue() ) : null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean containsKey( final Object key ) {
+      return key instanceof Long && containsKey( ((Long)key).longValue() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public V put( final Long key, final V value ) {
+      return put( key.longValue(), value );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public V remove( final Object key ) {
+      return key instanceof Long ? remove( ((Long)key).longValue() ) : null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int size() {
+      return _size;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void clear() {
+      Arrays.fill( _values, null );
+      _size = 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Set<Map.Entry<Long, V>> entrySet() {
+      return new AbstractSet<Map.Entry<Long, V>>() {
+         @Override
+         public Iterator<Map.Entry<Long, V>> iterator() {
+            return new Iterator<Map.Entry<Long, V>>() {
+               private int _slot = nextSlot( 0 );
+
+               private int nextSlot( final int from ) {
+                  int slot = from;
+                  while ( slot < _values.length && _values[ slot ] == null ) {
+                     slot++;
+                  }
+                  return slot;
+               }
+
+               @Override
+               public boolean hasNext() {
+                  return _slot < _values.length;
+               }
+
+               @Override
+               @SuppressWarnings( "unchecked" )
+               public Map.Entry<Long, V> next() {
+                  if ( _slot >= _values.length ) {
+                     throw new NoSuchElementException();
+                  }
+                  final Map.Entry<Long, V> entry
+                        = new SimpleImmutableEntry<>( _keys[ _slot ], (V)_values[ _slot ] );
+                  _slot = nextSlot( _slot + 1 );
+                  return entry;
+               }
+            };
+         }
+
+         @Override
+         public int size() {
+            return _size;
+         }
+      };
+   }
+
+   private int findSlot( final long key ) {
+      int slot = LongHashing.slot( key, _mask );
+      while ( _values[ slot ] != null ) {
+         if ( _keys[ slot ] == key ) {
+            return slot;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      return -1;
+   }
+
+   private void allocate( final int capacity ) {
+      _keys = new long[ capacity ];
+      _values = new Object[ capacity ];
+      _mask = capacity - 1;
+      _resizeAt = LongHashing.resizeAt( capacity );
+   }
+
+   private void rehash( final int capacity ) {
+      final long[] oldKeys = _keys;
+      final Object[] oldValues = _values;
+      allocate( capacity );
+      for ( int i = 0; i < oldKeys.length; i++ ) {
+         if ( oldValues[ i ] != null ) {
+            int slot = LongHashing.slot( oldKeys[ i ], _mask );
+            while ( _values[ slot ] != null ) {
+               slot = (slot + 1) & _mask;
+            }
+            _keys[ slot ] = oldKeys[ i ];
+            _values[ slot ] = oldValues[ i ];
+         }
+      }
+   }
+
+   /**
+    * Backward shift deletion keeps linear probe chains intact without tombstones.
+    *
+    * @param emptied slot of the removed entry
+    */
+   private void shiftEntries( final int emptied ) {
+      int free = emptied;
+      int slot = (free + 1) & _mask;
+      while ( _values[ slot ] != null ) {
+         final int home = LongHashing.slot( _keys[ slot ], _mask );
+         if ( ((slot - home) & _mask) >= ((slot - free) & _mask) ) {
+            _keys[ free ] = _keys[ slot ];
+            _values[ free ] = _values[ slot ];
+            free = slot;
+         }
+         slot = (slot + 1) & _mask;
+      }
+      _values[ free ] = null;
+   }
+
+}
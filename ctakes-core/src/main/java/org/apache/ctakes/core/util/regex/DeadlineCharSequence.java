@@ -0,0 +1,80 @@
+package org.apache.ctakes.core.util.regex;
+
+/**
+ * A representation of text that aborts a regex match on the calling thread once a deadline has passed.
+ * {@link java.util.regex.Matcher} reads text through charAt(..), so checking the clock there bounds
+ * runaway backtracking without handing the match to another thread.
+ * The clock is only read every few thousand characters.
+ * Not thread safe: use one instance per match.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class DeadlineCharSequence implements CharSequence {
+
+   // Must be a power of 2
+   static private final int CHECK_INTERVAL = 4096;
+
+   private final CharSequence _delegate;
+   private final long _timeoutMillis;
+   private long _deadlineNanos;
+   private int _reads;
+
+   /**
+    * @param delegate      text to wrap
+    * @param timeoutMillis milliseconds from now at which a match should abort
+    */
+   public DeadlineCharSequence( final CharSequence delegate, final long timeoutMillis ) {
+      _delegate = delegate;
+      _timeoutMillis = timeoutMillis;
+      restartDeadline();
+   }
+
+   /**
+    * Resets the deadline to the timeout from now.
+    */
+   public void restartDeadline() {
+      _deadlineNanos = System.nanoTime() + _timeoutMillis * 1000000L;
+   }
+
+   /**
+    * {@inheritDoc}
+    *
+    * @throws RegexTimeoutException if the deadline has passed
+    */
+   @Override
+   public char charAt( final int index ) {
+      if ( (++_reads & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - _deadlineNanos > 0 ) {
+         throw new RegexTimeoutException( _timeoutMillis );
+      }
+      return _delegate.charAt( index );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int length() {
+      return _delegate.length();
+   }
+
+   /**
+    * {@inheritDoc}
+    *
+    * @return the subsequence of the wrapped text, without a deadline.  Matchers only use this for groups.
+    */
+   @Override
+   public CharSequence subSequence( final int start, final int end ) {
+      return _delegate.subSequence( start, end );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString() {
+      return _delegate.toString();
+   }
+
+}
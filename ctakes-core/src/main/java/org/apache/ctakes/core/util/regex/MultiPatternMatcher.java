@@ -0,0 +1,120 @@
+package org.apache.ctakes.core.util.regex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the matches of a set of keyed patterns in a text with one call on the calling thread.
+ * Runaway matches are bounded by a {@link DeadlineCharSequence} instead of a thread per pattern.
+ * The deadline restarts after each match, so the timeout applies to each find as with {@link TimeoutMatcher}.
+ * If a pattern times out its earlier matches are kept and the remaining patterns are still matched.
+ * <p>
+ * java.util.regex has no multi-pattern automaton, and joining patterns in one alternation would change
+ * which overlapping matches are found, so each pattern still scans the text.
+ * The patterns share one wrapped text and no threads are created.
+ * Once built, an instance is safe to share between threads.
+ * </p>
+ *
+ * @param <K> key for a pattern, such as a section type
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class MultiPatternMatcher<K> {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "MultiPatternMatcher" );
+
+   static private final int DEFAULT_TIMEOUT_MILLIS = 1000;
+   static private final int MIN_TIMEOUT_MILLIS = 100;
+   static private final int MAX_TIMEOUT_MILLIS = 10000;
+
+   /**
+    * Handles a match of a keyed pattern.
+    *
+    * @param <K> key for a pattern
+    */
+   @FunctionalInterface
+   public interface MatchHandler<K> {
+      /**
+       * @param key     key of the matching pattern
+       * @param matcher matcher positioned at the match.  It is only valid during the call.
+       */
+      void handle( K key, Matcher matcher );
+   }
+
+   private final List<K> _keys = new ArrayList<>();
+   private final List<Pattern> _patterns = new ArrayList<>();
+   private final int _timeoutMillis;
+
+   /**
+    * Uses the default timeout of 1000 milliseconds
+    */
+   public MultiPatternMatcher() {
+      this( DEFAULT_TIMEOUT_MILLIS );
+   }
+
+   /**
+    * @param timeoutMillis milliseconds at which a find should abort, between 100 and 10000
+    * @throws IllegalArgumentException if the timeout is out of bounds
+    */
+   public MultiPatternMatcher( final int timeoutMillis ) throws IllegalArgumentException {
+      if ( timeoutMillis < MIN_TIMEOUT_MILLIS || timeoutMillis > MAX_TIMEOUT_MILLIS ) {
+         throw new IllegalArgumentException( "Timeout must be between "
+                                             + MIN_TIMEOUT_MILLIS + " and " + MAX_TIMEOUT_MILLIS );
+      }
+      _timeoutMillis = timeoutMillis;
+   }
+
+   /**
+    * @param key     key for the pattern
+    * @param pattern pattern to match.  Ignored if null.
+    * @return this matcher
+    */
+   public MultiPatternMatcher<K> addPattern( final K key, final Pattern pattern ) {
+      if ( pattern != null ) {
+         _keys.add( key );
+         _patterns.add( pattern );
+      }
+      return this;
+   }
+
+   /**
+    * @return number of patterns
+    */
+   public int getPatternCount() {
+      return _patterns.size();
+   }
+
+   /**
+    * Passes every match of every pattern to the handler, pattern by pattern in the order that they were added.
+    *
+    * @param text    text in which to find matches
+    * @param handler handler for each match
+    */
+   public void findMatches( final CharSequence text, final MatchHandler<K> handler ) {
+      if ( text == null || text.length() == 0 ) {
+         return;
+      }
+      final DeadlineCharSequence deadlineText = new DeadlineCharSequence( text, _timeoutMillis );
+      for ( int i = 0; i < _patterns.size(); i++ ) {
+         final Pattern pattern = _patterns.get( i );
+         final K key = _keys.get( i );
+         final Matcher matcher = pattern.matcher( deadlineText );
+         deadlineText.restartDeadline();
+         try {
+            while ( matcher.find() ) {
+               handler.handle( key, matcher );
+               deadlineText.restartDeadline();
+            }
+         } catch ( RegexTimeoutException rtE ) {
+            LOGGER.error( "Timed out while detecting " + pattern );
+         }
+      }
+   }
+
+}
@@ -9,14 +9,13 @@ import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * Class that can / should be used to find text spans using regular expressions.
- * It runs Matcher find {@link Matcher#find()} in a separate thread so that it may be interrupted at a set timeout.
+ * It runs Matcher find {@link Matcher#find()} on a {@link DeadlineCharSequence} so that it aborts at a set timeout.
  * This prevents infinite loop problems that can be caused by poorly-built expressions or unexpected text contents.
  * The timeout can be specified in milliseconds between 100 and 10,000.  Large timeouts are unadvised.  If a large
  * amount of text needs to be parsed then it is better to split up the text logically and use smaller timeouts.
@@ -43,7 +42,6 @@ final public class RegexSpanFinder implements Closeable {
    static private final int MIN_TIMEOUT_MILLIS = 100;
    static private final int MAX_TIMEOUT_MILLIS = 10000;
 
-   private final ExecutorService _executor;
    private final Pattern _pattern;
    private final int _timeoutMillis;
 
@@ -105,77 +103,42 @@ final public class RegexSpanFinder implements Closeable {
       }
       _pattern = pattern;
       _timeoutMillis = timeoutMillis;
-      _executor = Executors.newSingleThreadExecutor();
    }
 
 
    /**
     * @param text text in which a find should be conducted
-    * @return List of Integer Pairs representing text span begin and end offsets
+    * @return List of Integer Pairs representing text span begin and end offsets,
+    * or an empty list if the find timed out
     */
    public List<Pair<Integer>> findSpans( final String text ) {
       if ( text == null || text.isEmpty() ) {
          return Collections.emptyList();
       }
-      final ThreadString threadText = new ThreadString( text );
-      final Callable<List<Pair<Integer>>> callable = new RegexCallable( threadText, _pattern );
-      final Future<List<Pair<Integer>>> future = _executor.submit( callable );
+      final CharSequence deadlineText = new DeadlineCharSequence( text, _timeoutMillis );
+      final List<Pair<Integer>> listBounds = new ArrayList<>();
+      final Matcher matcher = _pattern.matcher( deadlineText );
       try {
-         return future.get( _timeoutMillis, TimeUnit.MILLISECONDS );
-      } catch ( InterruptedException | ExecutionException | TimeoutException multE ) {
-         LOGGER.debug( "Timeout for " + _pattern );
-         if ( !future.cancel( true ) ) {
-            LOGGER.error( "Timed out but could not be cancelled while detecting " + _pattern );
+         while ( matcher.find() ) {
+            final Pair<Integer> bounds = new Pair<>( matcher.start(), matcher.end() );
+            if ( bounds.getValue1() >= 0 && bounds.getValue2() > bounds.getValue1() &&
+                 bounds.getValue2() <= text.length() ) {
+               listBounds.add( bounds );
+            }
          }
+      } catch ( RegexTimeoutException rtE ) {
+         LOGGER.error( "Timed out while detecting " + _pattern );
+         return Collections.emptyList();
       }
-      if ( future.isCancelled() ) {
-         LOGGER.error( "Cancelled while detecting " + _pattern );
-      } else if ( !future.isDone() ) {
-         LOGGER.error( "Not cancelled but didn't complete while detecting " + _pattern );
-      }
-      return Collections.emptyList();
+      return listBounds;
    }
 
    /**
-    * shut down the executor
+    * Nothing to close.  Finds run on the calling thread.
     * {@inheritDoc}
     */
    @Override
    public void close() {
-      _executor.shutdownNow();
-   }
-
-
-   /**
-    * Simple Callable that runs a {@link Matcher} on text to find text span begin and end offsets
-    */
-   static private final class RegexCallable implements Callable<List<Pair<Integer>>> {
-      final private CharSequence __text;
-      final private Pattern __pattern;
-
-      private RegexCallable( final CharSequence text, final Pattern pattern ) {
-         __text = text;
-         __pattern = pattern;
-      }
-
-      /**
-       * {@inheritDoc}
-       *
-       * @return text span begin and end offsets
-       */
-      @Override
-      public List<Pair<Integer>> call() {
-         final List<Pair<Integer>> listBounds = new ArrayList<>();
-         final Matcher matcher = __pattern.matcher( __text );
-         while ( matcher.find() && !Thread.currentThread().isInterrupted() ) {
-            final Pair<Integer> bounds = new Pair<>( matcher.start(), matcher.end() );
-            if ( bounds.getValue1() >= 0 && bounds.getValue2() > bounds.getValue1() &&
-                 bounds.getValue2() <= __text.length() ) {
-               listBounds.add( bounds );
-            }
-         }
-         return listBounds;
-      }
    }
 
 }
@@ -0,0 +1,16 @@
+package org.apache.ctakes.core.util.regex;
+
+/**
+ * Thrown by a {@link DeadlineCharSequence} when a regex match runs past its deadline.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class RegexTimeoutException extends RuntimeException {
+
+   public RegexTimeoutException( final long timeoutMillis ) {
+      super( "Regex match exceeded " + timeoutMillis + " milliseconds" );
+   }
+
+}
@@ -0,0 +1,133 @@
+package org.apache.ctakes.core.util.textspan;
+
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable span index over the annotations of a single type, kept in cas annotation index order.
+ * Begins and ends are copied when the index is built so that lookups are binary searches over primitive arrays.
+ * <p>
+ * Covered lookups cost O(log n + k) where k is the number of annotations beginning within the span.
+ * Covering lookups walk back from the span begin and stop as soon as no earlier annotation can reach the span end,
+ * which for non-overlapping types such as sentences is O(log n).
+ * </p>
+ * As with uimafit selections, each lookup returns a new modifiable list.
+ * Obtain instances through {@link SpanIndexService}, which rebuilds them after the cas changes.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class SpanIndex<T extends Annotation> {
+
+   private final T[] _annotations;
+   private final int[] _begins;
+   private final int[] _ends;
+   // _maxEnds[ i ] is the greatest end of annotations 0 through i
+   private final int[] _maxEnds;
+
+   /**
+    * @param annotations annotations in cas annotation index order, that is by begin and then by reverse end.
+    */
+   SpanIndex( final T[] annotations ) {
+      _annotations = annotations;
+      _begins = new int[ annotations.length ];
+      _ends = new int[ annotations.length ];
+      _maxEnds = new int[ annotations.length ];
+      int maxEnd = Integer.MIN_VALUE;
+      for ( int i = 0; i < annotations.length; i++ ) {
+         _begins[ i ] = annotations[ i ].getBegin();
+         _ends[ i ] = annotations[ i ].getEnd();
+         maxEnd = Math.max( maxEnd, _ends[ i ] );
+         _maxEnds[ i ] = maxEnd;
+      }
+   }
+
+   /**
+    * @return number of indexed annotations.
+    */
+   public int size() {
+      return _annotations.length;
+   }
+
+   /**
+    * @return all indexed annotations in index order.
+    */
+   public List<T> getAll() {
+      return Collections.unmodifiableList( Arrays.asList( _annotations ) );
+   }
+
+   /**
+    * @param covering some annotation.
+    * @return annotations within the span of the covering annotation, excluding the covering annotation itself.
+    */
+   public List<T> getCovered( final Annotation covering ) {
+      return getCovered( covering.getBegin(), covering.getEnd(), covering );
+   }
+
+   /**
+    * @param begin span begin.
+    * @param end   span end.
+    * @return annotations with begin &gt;= the span begin and end &lt;= the span end, in index order.
+    */
+   public List<T> getCovered( final int begin, final int end ) {
+      return getCovered( begin, end, null );
+   }
+
+   /**
+    * @param covered some annotation.
+    * @return annotations whose spans contain the span of the covered annotation.
+    * As with uimafit, an indexed annotation is included in its own covering annotations.
+    */
+   public List<T> getCovering( final Annotation covered ) {
+      return getCovering( covered.getBegin(), covered.getEnd() );
+   }
+
+   /**
+    * @param begin span begin.
+    * @param end   span end.
+    * @return annotations with begin &lt;= the span begin and end &gt;= the span end, in index order.
+    */
+   public List<T> getCovering( final int begin, final int end ) {
+      final List<T> covering = new ArrayList<>();
+      for ( int i = firstBeginAtOrAfter( begin + 1 ) - 1; i >= 0 && _maxEnds[ i ] >= end; i-- ) {
+         if ( _ends[ i ] >= end ) {
+            covering.add( _annotations[ i ] );
+         }
+      }
+      Collections.reverse( covering );
+      return covering;
+   }
+
+   private List<T> getCovered( final int begin, final int end, final Annotation skip ) {
+      final List<T> covered = new ArrayList<>();
+      for ( int i = firstBeginAtOrAfter( begin ); i < _begins.length && _begins[ i ] <= end; i++ ) {
+         if ( _ends[ i ] <= end && _annotations[ i ] != skip ) {
+            covered.add( _annotations[ i ] );
+         }
+      }
+      return covered;
+   }
+
+   /**
+    * @return index of the first annotation with a begin at or after the given offset, or size if there is none.
+    */
+   private int firstBeginAtOrAfter( final int offset ) {
+      int low = 0;
+      int high = _begins.length;
+      while ( low < high ) {
+         final int mid = (low + high) >>> 1;
+         if ( _begins[ mid ] < offset ) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+}
@@ -0,0 +1,177 @@
+package org.apache.ctakes.core.util.textspan;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.Sofa;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Shares {@link SpanIndex}es between annotators that process the same cas.
+ * <p>
+ * Relation annotators select the annotations covered by each sentence, once per type per sentence per annotator.
+ * Each of those selections walks the cas index.  This service builds one index per cas view and type on first use
+ * and answers later covered and covering selections with binary searches.
+ * </p>
+ * <p>
+ * Indexes are kept for the cas most recently used on each thread, which is how pipelines pass a cas through their
+ * annotators.  They are dropped when the thread uses another cas or the cas is reset, so at most one cas is held
+ * per thread and no lock is needed.  A cas reset is detected by the new sofa that uima creates for each document.
+ * {@link #clear()} drops the indexes immediately.
+ * </p>
+ * An index is rebuilt when the number of indexed annotations of its type and subtypes has changed.
+ * Annotators that remove annotations and add others of the same type, or that change the begin or end of
+ * annotations that are already indexed, should call {@link #invalidate(JCas)} afterward.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class SpanIndexService {
+
+   private SpanIndexService() {
+   }
+
+   static private final ThreadLocal<CasSpanIndexes> THREAD_INDEXES = new ThreadLocal<>();
+
+   /**
+    * @param jCas ye olde ...
+    * @param type annotation class.
+    * @param <T>  annotation type.
+    * @return span index over all annotations of the type and its subtypes in the view.
+    */
+   static public <T extends Annotation> SpanIndex<T> getIndex( final JCas jCas, final Class<T> type ) {
+      return getViewIndex( jCas, type );
+   }
+
+   /**
+    * Equivalent to {@link JCasUtil#selectCovered(JCas, Class, Annotation)}.
+    *
+    * @param jCas     ye olde ...
+    * @param type     annotation class.
+    * @param covering some annotation.
+    * @param <T>      annotation type.
+    * @return annotations of the type within the covering annotation, in index order.
+    */
+   static public <T extends Annotation> List<T> selectCovered( final JCas jCas,
+                                                               final Class<T> type,
+                                                               final Annotation covering ) {
+      return getIndex( jCas, type ).getCovered( covering );
+   }
+
+   /**
+    * Equivalent to {@link JCasUtil#selectCovering(JCas, Class, Annotation)}.
+    *
+    * @param jCas    ye olde ...
+    * @param type    annotation class.
+    * @param covered some annotation.
+    * @param <T>     annotation type.
+    * @return annotations of the type containing the covered annotation, in index order.
+    */
+   static public <T extends Annotation> List<T> selectCovering( final JCas jCas,
+                                                                final Class<T> type,
+                                                                final Annotation covered ) {
+      return getIndex( jCas, type ).getCovering( covered );
+   }
+
+   /**
+    * Discard all indexes for the cas view.
+    *
+    * @param jCas ye olde ...
+    */
+   static public void invalidate( final JCas jCas ) {
+      final CasSpanIndexes indexes = THREAD_INDEXES.get();
+      if ( indexes != null && indexes._initialView == getInitialView( jCas ) ) {
+         indexes._viewIndexes.remove( jCas.getCas() );
+      }
+   }
+
+   /**
+    * Discard all indexes held for the calling thread.
+    */
+   static public void clear() {
+      THREAD_INDEXES.remove();
+   }
+
+   static private CAS getInitialView( final JCas jCas ) {
+      return jCas.getCas().getView( CAS.NAME_DEFAULT_SOFA );
+   }
+
+   /**
+    * @return indexes for the view, or null if the view has no sofa and nothing can be cached for it.
+    */
+   static private Map<Class<?>, ValidatedIndex<?>> getViewIndexes( final JCas jCas ) {
+      final Sofa sofa = jCas.getSofa();
+      if ( sofa == null ) {
+         return null;
+      }
+      final CAS initialView = getInitialView( jCas );
+      CasSpanIndexes indexes = THREAD_INDEXES.get();
+      if ( indexes == null || indexes._initialView != initialView ) {
+         indexes = new CasSpanIndexes( initialView );
+         THREAD_INDEXES.set( indexes );
+      }
+      ViewIndexes viewIndexes = indexes._viewIndexes.get( jCas.getCas() );
+      if ( viewIndexes != null && viewIndexes._sofa != sofa ) {
+         // The cas has been reset, which resets all of its views.
+         indexes._viewIndexes.clear();
+         viewIndexes = null;
+      }
+      if ( viewIndexes == null ) {
+         viewIndexes = new ViewIndexes( sofa );
+         indexes._viewIndexes.put( jCas.getCas(), viewIndexes );
+      }
+      return viewIndexes._typeIndexes;
+   }
+
+   @SuppressWarnings( "unchecked" )
+   static private <T extends Annotation> SpanIndex<T> getViewIndex( final JCas jCas, final Class<T> type ) {
+      final Map<Class<?>, ValidatedIndex<?>> viewIndexes = getViewIndexes( jCas );
+      final int size = jCas.getAnnotationIndex( type ).size();
+      if ( viewIndexes != null ) {
+         final ValidatedIndex<T> validated = (ValidatedIndex<T>)viewIndexes.get( type );
+         if ( validated != null && validated._size == size ) {
+            return validated._index;
+         }
+      }
+      final Collection<T> annotations = JCasUtil.select( jCas, type );
+      final T[] array = annotations.toArray( (T[])Array.newInstance( type, annotations.size() ) );
+      final SpanIndex<T> index = new SpanIndex<>( array );
+      if ( viewIndexes != null ) {
+         viewIndexes.put( type, new ValidatedIndex<>( array.length, index ) );
+      }
+      return index;
+   }
+
+   static private final class CasSpanIndexes {
+      private final CAS _initialView;
+      private final Map<CAS, ViewIndexes> _viewIndexes = new HashMap<>();
+
+      private CasSpanIndexes( final CAS initialView ) {
+         _initialView = initialView;
+      }
+   }
+
+   static private final class ViewIndexes {
+      private final Sofa _sofa;
+      private final Map<Class<?>, ValidatedIndex<?>> _typeIndexes = new HashMap<>();
+
+      private ViewIndexes( final Sofa sofa ) {
+         _sofa = sofa;
+      }
+   }
+
+   static private final class ValidatedIndex<T extends Annotation> {
+      private final int _size;
+      private final SpanIndex<T> _index;
+
+      private ValidatedIndex( final int size, final SpanIndex<T> index ) {
+         _size = size;
+         _index = index;
+      }
+   }
+
+}
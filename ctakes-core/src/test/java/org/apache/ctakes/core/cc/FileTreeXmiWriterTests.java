@@ -0,0 +1,124 @@
+package org.apache.ctakes.core.cc;
+
+import org.apache.ctakes.core.config.ConfigParameterConstants;
+import org.apache.ctakes.core.cr.CasTreeReader;
+import org.apache.ctakes.core.util.doc.DocIdUtil;
+import org.apache.ctakes.typesystem.type.structured.DocumentID;
+import org.apache.ctakes.typesystem.type.structured.DocumentPath;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.CollectionReaderFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class FileTreeXmiWriterTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final int DOC_COUNT = 12;
+
+   @Test
+   public void testXmi() throws Exception {
+      assertRoundTrip( CasFileFormat.XMI, 0 );
+   }
+
+   @Test
+   public void testGzipXmi() throws Exception {
+      assertRoundTrip( CasFileFormat.XMI_GZ, 0 );
+   }
+
+   @Test
+   public void testBinary() throws Exception {
+      assertRoundTrip( CasFileFormat.BINARY, 0 );
+   }
+
+   @Test
+   public void testBackgroundWriters() throws Exception {
+      assertRoundTrip( CasFileFormat.XMI, 3 );
+      assertRoundTrip( CasFileFormat.BINARY, 2 );
+   }
+
+   @Test
+   public void testFormatForFile() {
+      assertEquals( CasFileFormat.XMI, CasFileFormat.getFormatForFile( "note.txt.xmi" ) );
+      assertEquals( CasFileFormat.XMI_GZ, CasFileFormat.getFormatForFile( "note.txt.xmi.gz" ) );
+      assertEquals( CasFileFormat.BINARY, CasFileFormat.getFormatForFile( "note.txt.bcas" ) );
+      assertEquals( CasFileFormat.XMI_GZ, CasFileFormat.getFormat( "xmi_gz" ) );
+   }
+
+   private void assertRoundTrip( final CasFileFormat format, final int writerThreads ) throws Exception {
+      final File outputDir = _folder.newFolder();
+      final AnalysisEngine writer = AnalysisEngineFactory.createEngine( FileTreeXmiWriter.class,
+            ConfigParameterConstants.PARAM_OUTPUTDIR, outputDir.getPath(),
+            FileTreeXmiWriter.PARAM_OUTPUT_FORMAT, format.name(),
+            FileTreeXmiWriter.PARAM_WRITER_THREADS, writerThreads );
+      final JCas jcas = JCasFactory.createJCas();
+      final List<String> written = new ArrayList<>();
+      for ( int i = 0; i < DOC_COUNT; i++ ) {
+         jcas.reset();
+         final String text = "Document " + i + " has one sentence.  And another sentence " + i + ".";
+         jcas.setDocumentText( text );
+         final DocumentID documentId = new DocumentID( jcas );
+         documentId.setDocumentID( "doc" + i );
+         documentId.addToIndexes();
+         new Sentence( jcas, 0, text.indexOf( '.' ) + 1 ).addToIndexes();
+         new Sentence( jcas, text.indexOf( "And" ), text.length() ).addToIndexes();
+         writer.process( jcas );
+         written.add( describe( jcas ) );
+      }
+      writer.collectionProcessComplete();
+      writer.destroy();
+      final File[] files = outputDir.listFiles();
+      assertEquals( DOC_COUNT, files.length );
+      for ( File file : files ) {
+         assertTrue( file.getName() + " should end with " + format.getExtension(),
+               file.getName().endsWith( format.getExtension() ) );
+      }
+      final CollectionReader reader = CollectionReaderFactory.createReader( CasTreeReader.class,
+            ConfigParameterConstants.PARAM_INPUTDIR, outputDir.getPath() );
+      final List<String> read = new ArrayList<>();
+      while ( reader.hasNext() ) {
+         jcas.reset();
+         reader.getNext( jcas.getCas() );
+         read.add( describe( jcas ) );
+         // Metadata added by the reader must survive the deserialization of the cas.
+         final Collection<DocumentPath> documentPaths = JCasUtil.select( jcas, DocumentPath.class );
+         assertEquals( 1, documentPaths.size() );
+         assertTrue( new File( documentPaths.iterator().next().getDocumentPath() ).isFile() );
+      }
+      reader.close();
+      written.sort( String::compareTo );
+      read.sort( String::compareTo );
+      assertEquals( written, read );
+   }
+
+   static private String describe( final JCas jcas ) {
+      final StringBuilder sb = new StringBuilder( DocIdUtil.getDocumentID( jcas ) );
+      sb.append( ' ' ).append( jcas.getDocumentText() );
+      for ( Sentence sentence : JCasUtil.select( jcas, Sentence.class ) ) {
+         sb.append( " [" ).append( sentence.getCoveredText() ).append( ']' );
+      }
+      return sb.toString();
+   }
+
+}
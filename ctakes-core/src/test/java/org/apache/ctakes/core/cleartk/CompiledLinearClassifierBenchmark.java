@@ -0,0 +1,145 @@
+package org.apache.ctakes.core.cleartk;
+
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.CleartkProcessingException;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.jar.JarClassifierFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classification with the shipped polarity and location_of liblinear models,
+ * by the cleartk classifier and by the compiled classifier from cleartk features and from feature indices.
+ * <p>
+ * Instances are built from random feature names of the model, split into name and value as cleartk extractors
+ * produce them, with a share of features that are not in the model.
+ * </p>
+ * Run with: mvn test-compile, then java -cp target/test-classes:target/classes:[test classpath]:[ctakes resources]
+ * org.apache.ctakes.core.cleartk.CompiledLinearClassifierBenchmark
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgs = { "-Xmx2g" } )
+@State( Scope.Benchmark )
+public class CompiledLinearClassifierBenchmark {
+
+   static private final int INSTANCE_COUNT = 1000;
+
+   @Param( { "/org/apache/ctakes/assertion/models/polarity/sharpi2b2mipacqnegex/model.jar",
+             "/org/apache/ctakes/relation/extractor/models/location_of/model.jar" } )
+   public String model;
+
+   @Param( { "100" } )
+   public int featureCount;
+
+   private Classifier<String> _classifier;
+   private CompiledLinearClassifier _compiled;
+   private IndexedFeatures _features;
+   private List<List<Feature>> _instances;
+   private int[][] _instanceIndices;
+   private double[][] _instanceValues;
+
+   @Setup
+   public void setup() throws IOException, CleartkProcessingException {
+      final JarClassifierFactory<String> factory = new JarClassifierFactory<>();
+      factory.setClassifierJarPath( model );
+      _classifier = factory.createClassifier();
+      _compiled = CompiledLinearClassifier.compile( _classifier );
+      if ( _compiled == null ) {
+         throw new IllegalStateException( model + " is not a liblinear model." );
+      }
+      _features = _compiled.createFeatures();
+      final List<String> names = _compiled.getFeatureIndex().getNames();
+      Collections.sort( names );
+      final Random random = new Random( 42 );
+      _instances = new ArrayList<>( INSTANCE_COUNT );
+      _instanceIndices = new int[ INSTANCE_COUNT ][];
+      _instanceValues = new double[ INSTANCE_COUNT ][];
+      for ( int i = 0; i < INSTANCE_COUNT; i++ ) {
+         final List<Feature> instance = new ArrayList<>( featureCount );
+         for ( int f = 0; f < featureCount; f++ ) {
+            if ( random.nextInt( 5 ) == 0 ) {
+               instance.add( new Feature( "Unseen", "value" + random.nextInt( 100000 ) ) );
+               continue;
+            }
+            final String name = names.get( random.nextInt( names.size() ) );
+            final int split = name.lastIndexOf( '_' );
+            if ( split > 0 ) {
+               // Values are new strings, as they would be when extracted from a document.
+               instance.add( new Feature( name.substring( 0, split ), new String( name.substring( split + 1 ) ) ) );
+            } else {
+               instance.add( new Feature( name, random.nextDouble() ) );
+            }
+         }
+         _instances.add( instance );
+         _compiled.encode( instance, _features );
+         _instanceIndices[ i ] = new int[ _features.size() ];
+         _instanceValues[ i ] = new double[ _features.size() ];
+         for ( int f = 0; f < _features.size(); f++ ) {
+            _instanceIndices[ i ][ f ] = _features.getIndex( f );
+            _instanceValues[ i ][ f ] = _features.getValue( f );
+         }
+         if ( !_classifier.classify( instance ).equals( _compiled.classify( instance ) ) ) {
+            throw new IllegalStateException( "Compiled classifier outcome differs for instance " + i );
+         }
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation( INSTANCE_COUNT )
+   public void cleartkClassify( final Blackhole blackhole ) throws CleartkProcessingException {
+      for ( List<Feature> instance : _instances ) {
+         blackhole.consume( _classifier.classify( instance ) );
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation( INSTANCE_COUNT )
+   public void compiledClassify( final Blackhole blackhole ) throws CleartkProcessingException {
+      for ( List<Feature> instance : _instances ) {
+         blackhole.consume( _compiled.classify( instance ) );
+      }
+   }
+
+   /**
+    * Features added to the buffer by index, as by extractors that look up their feature indices once.
+    */
+   @Benchmark
+   @OperationsPerInvocation( INSTANCE_COUNT )
+   public void compiledIndexedClassify( final Blackhole blackhole ) {
+      for ( int i = 0; i < INSTANCE_COUNT; i++ ) {
+         final int[] indices = _instanceIndices[ i ];
+         final double[] values = _instanceValues[ i ];
+         _features.clear();
+         for ( int f = 0; f < indices.length; f++ ) {
+            _features.set( indices[ f ], values[ f ] );
+         }
+         blackhole.consume( _compiled.classify( _features ) );
+      }
+   }
+
+   static public void main( final String... args ) throws RunnerException {
+      final Options options = new OptionsBuilder()
+            .include( CompiledLinearClassifierBenchmark.class.getSimpleName() )
+            .build();
+      new Runner( options ).run();
+   }
+
+}
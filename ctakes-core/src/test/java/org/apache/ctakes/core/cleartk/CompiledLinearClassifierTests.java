@@ -0,0 +1,119 @@
+package org.apache.ctakes.core.cleartk;
+
+import de.bwaldvogel.liblinear.Model;
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.encoder.outcome.StringToIntegerOutcomeEncoder;
+import org.cleartk.ml.liblinear.LibLinearStringOutcomeClassifier;
+import org.cleartk.ml.liblinear.encoder.FeatureNodeArrayEncoder;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class CompiledLinearClassifierTests {
+
+   // Encoded as indices 2 through 5, after the bias at index 1.
+   static private final List<Feature> TRAINING_FEATURES = Arrays.asList(
+         new Feature( "Word", "cough" ),
+         new Feature( "Word", "fever" ),
+         new Feature( "Count", 1 ),
+         new Feature( "Prefix", "no" ) );
+
+   static private final List<List<Feature>> INSTANCES = Arrays.asList(
+         Collections.emptyList(),
+         Arrays.asList( new Feature( "Word", "cough" ), new Feature( "Count", 3 ) ),
+         Arrays.asList( new Feature( "Prefix", "no" ), new Feature( "Word", "fever" ) ),
+         Arrays.asList( new Feature( "Word", "unknown" ), new Feature( "Count", -2.5 ) ),
+         // A repeated feature keeps the last value.
+         Arrays.asList( new Feature( "Count", 4 ), new Feature( "Word", "fever" ), new Feature( "Count", 0.5 ) ) );
+
+   @Test
+   public void testMultiClassProbability() throws Exception {
+      final Classifier<String> classifier = createClassifier( "solver_type L2R_LR\n"
+                                                              + "nr_class 3\n"
+                                                              + "label 1 2 3\n"
+                                                              + "nr_feature 5\n"
+                                                              + "bias -1\n"
+                                                              + "w\n"
+                                                              + "0.1 0.2 -0.3 \n"
+                                                              + "1.5 -0.5 0.25 \n"
+                                                              + "-0.75 2.0 0.5 \n"
+                                                              + "0.3 0.1 -0.2 \n"
+                                                              + "-1.0 0.0 1.25 \n" );
+      assertSame( classifier );
+   }
+
+   @Test
+   public void testTwoClassDecisionValues() throws Exception {
+      final Classifier<String> classifier = createClassifier( "solver_type L2R_L2LOSS_SVC_DUAL\n"
+                                                              + "nr_class 2\n"
+                                                              + "label 2 1\n"
+                                                              + "nr_feature 5\n"
+                                                              + "bias -1\n"
+                                                              + "w\n"
+                                                              + "-0.2 \n"
+                                                              + "0.9 \n"
+                                                              + "-0.4 \n"
+                                                              + "0.15 \n"
+                                                              + "-1.1 \n" );
+      assertSame( classifier );
+   }
+
+   @Test
+   public void testFeatureIndex() throws Exception {
+      final Classifier<String> classifier = createClassifier( "solver_type L2R_LR\n"
+                                                              + "nr_class 2\n"
+                                                              + "label 1 2\n"
+                                                              + "nr_feature 4\n"
+                                                              + "bias -1\n"
+                                                              + "w\n"
+                                                              + "0.1 \n0.2 \n0.3 \n0.4 \n" );
+      final CompiledLinearClassifier compiled = CompiledLinearClassifier.compile( classifier );
+      assertNotNull( compiled );
+      final FeatureIndex index = compiled.getFeatureIndex();
+      assertEquals( 2, index.getIndex( "Word", "cough" ) );
+      assertEquals( 3, index.getIndex( "Word_fever" ) );
+      assertEquals( 4, index.getIndex( "Count" ) );
+      assertEquals( FeatureIndex.NOT_FOUND, index.getIndex( "Word", "cou" ) );
+      // Prefix_no has no weight in the model.
+      assertEquals( FeatureIndex.NOT_FOUND, index.getIndex( "Prefix", "no" ) );
+   }
+
+   static private void assertSame( final Classifier<String> classifier ) throws Exception {
+      final CompiledLinearClassifier compiled = CompiledLinearClassifier.compile( classifier );
+      assertNotNull( compiled );
+      for ( List<Feature> instance : INSTANCES ) {
+         assertEquals( classifier.classify( instance ), compiled.classify( instance ) );
+         final Map<String, Double> expected = classifier.score( instance );
+         final Map<String, Double> actual = compiled.score( instance );
+         assertEquals( expected.keySet(), actual.keySet() );
+         for ( Map.Entry<String, Double> entry : expected.entrySet() ) {
+            assertEquals( entry.getValue(), actual.get( entry.getKey() ), 0 );
+         }
+      }
+   }
+
+   static private Classifier<String> createClassifier( final String model ) throws Exception {
+      final FeatureNodeArrayEncoder featuresEncoder = new FeatureNodeArrayEncoder();
+      featuresEncoder.encodeAll( TRAINING_FEATURES );
+      featuresEncoder.finalizeFeatureSet( null );
+      final StringToIntegerOutcomeEncoder outcomeEncoder = new StringToIntegerOutcomeEncoder();
+      outcomeEncoder.encode( "negated" );
+      outcomeEncoder.encode( "affirmed" );
+      outcomeEncoder.encode( "uncertain" );
+      return new LibLinearStringOutcomeClassifier( featuresEncoder, outcomeEncoder,
+            Model.load( new StringReader( model ) ) );
+   }
+
+}
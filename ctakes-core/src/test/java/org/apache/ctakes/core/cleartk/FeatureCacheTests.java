@@ -0,0 +1,69 @@
+package org.apache.ctakes.core.cleartk;
+
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.feature.extractor.FeatureExtractor1;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class FeatureCacheTests {
+
+   @Test
+   public void testSharedAcrossExtractorInstances() throws Exception {
+      final AtomicInteger extractions = new AtomicInteger();
+      final FeatureExtractor1<BaseToken> counting = ( view, token ) -> {
+         extractions.incrementAndGet();
+         return Collections.singletonList( new Feature( "Text", token.getCoveredText() ) );
+      };
+      final String key = "FeatureCacheTests.shared";
+      final CachingFeatureExtractor1<BaseToken> first = new CachingFeatureExtractor1<>( key, counting );
+      final CachingFeatureExtractor1<BaseToken> second = new CachingFeatureExtractor1<>( key, counting );
+      final JCas jcas = JCasFactory.createJCas();
+      jcas.setDocumentText( "Two tokens" );
+      final BaseToken two = new BaseToken( jcas, 0, 3 );
+      two.addToIndexes();
+      final BaseToken tokens = new BaseToken( jcas, 4, 10 );
+      tokens.addToIndexes();
+
+      final List<Feature> features = first.extract( jcas, two );
+      features.get( 0 ).setValue( "changed by caller" );
+      assertEquals( "Two", second.extract( jcas, two ).get( 0 ).getValue() );
+      assertEquals( "tokens", second.extract( jcas, tokens ).get( 0 ).getValue() );
+      first.extract( jcas, tokens );
+      assertEquals( 2, extractions.get() );
+      final FeatureCache.Statistics statistics = FeatureCache.getStatistics().get( key );
+      assertEquals( 2, statistics.getHits() );
+      assertEquals( 2, statistics.getMisses() );
+      assertEquals( 0.5, statistics.getHitRate(), 0.0001 );
+
+      jcas.reset();
+      jcas.setDocumentText( "Two tokens" );
+      final BaseToken again = new BaseToken( jcas, 0, 3 );
+      again.addToIndexes();
+      first.extract( jcas, again );
+      assertEquals( 3, extractions.get() );
+   }
+
+   @Test
+   public void testStatisticsLoggedOnce() {
+      FeatureCache.addUser();
+      FeatureCache.addUser();
+      assertFalse( FeatureCache.userComplete() );
+      assertTrue( FeatureCache.userComplete() );
+   }
+
+}
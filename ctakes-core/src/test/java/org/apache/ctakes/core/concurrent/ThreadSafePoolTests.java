@@ -0,0 +1,226 @@
+package org.apache.ctakes.core.concurrent;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.factory.UimaContextFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class ThreadSafePoolTests {
+
+   static private final int THREADS = 4;
+   static private final int DOCUMENTS = 200;
+
+   @Test
+   public void testBorrowUnderContention() throws Exception {
+      final Collection<CountingAnnotator> created = new ArrayList<>();
+      final ThreadSafePool<CountingAnnotator> pool = new ThreadSafePool<>( () -> {
+         final CountingAnnotator annotator = new CountingAnnotator();
+         synchronized ( created ) {
+            created.add( annotator );
+         }
+         return annotator;
+      } );
+      final UimaContext context = createContext( "A" );
+      String key = null;
+      for ( int i = 0; i < THREADS; i++ ) {
+         key = pool.addDelegate( context );
+      }
+      assertEquals( THREADS, pool.getDelegateCount( key ) );
+      final String poolKey = key;
+      final ExecutorService executor = Executors.newFixedThreadPool( THREADS * 2 );
+      try {
+         final List<Future<?>> futures = new ArrayList<>();
+         for ( int i = 0; i < DOCUMENTS; i++ ) {
+            futures.add( executor.submit( () -> {
+               final JCas jCas = JCasFactory.createJCas();
+               pool.process( poolKey, jCas );
+               return null;
+            } ) );
+         }
+         for ( Future<?> future : futures ) {
+            future.get();
+         }
+      } finally {
+         executor.shutdown();
+      }
+      assertEquals( THREADS, created.size() );
+      int processed = 0;
+      for ( CountingAnnotator annotator : created ) {
+         assertFalse( "Delegate was used by two threads at once", annotator._overlap.get() );
+         processed += annotator._processed.get();
+      }
+      assertEquals( DOCUMENTS, processed );
+      // every delegate was returned, so all of them can be removed without waiting.
+      for ( int i = 0; i < THREADS; i++ ) {
+         pool.removeDelegate( poolKey );
+      }
+      assertEquals( 0, pool.getDelegateCount( poolKey ) );
+      for ( CountingAnnotator annotator : created ) {
+         assertTrue( annotator._destroyed );
+      }
+   }
+
+   @Test
+   public void testConfigurationIsolation() throws Exception {
+      final ThreadSafePool<CountingAnnotator> pool = new ThreadSafePool<>( CountingAnnotator::new );
+      final String keyA = pool.addDelegate( createContext( "A" ) );
+      final String keyB = pool.addDelegate( createContext( "B" ) );
+      final String keyA2 = pool.addDelegate( createContext( "A" ) );
+      assertNotEquals( keyA, keyB );
+      assertEquals( keyA, keyA2 );
+      assertEquals( 2, pool.getDelegateCount( keyA ) );
+      assertEquals( 1, pool.getDelegateCount( keyB ) );
+
+      final JCas jCas = JCasFactory.createJCas();
+      pool.process( keyA, jCas );
+      assertEquals( "A", jCas.getDocumentText() );
+      jCas.reset();
+      pool.process( keyB, jCas );
+      assertEquals( "B", jCas.getDocumentText() );
+
+      pool.removeDelegate( keyB );
+      assertEquals( 0, pool.getDelegateCount( keyB ) );
+      assertEquals( 2, pool.getDelegateCount( keyA ) );
+      jCas.reset();
+      pool.process( keyA, jCas );
+      assertEquals( "A", jCas.getDocumentText() );
+   }
+
+   @Test
+   public void testCompletionCallsEveryDelegateOnce() throws Exception {
+      final Collection<CountingAnnotator> created = new ArrayList<>();
+      final ThreadSafePool<CountingAnnotator> pool = new ThreadSafePool<>( () -> {
+         final CountingAnnotator annotator = new CountingAnnotator();
+         created.add( annotator );
+         return annotator;
+      } );
+      final UimaContext context = createContext( "A" );
+      String key = null;
+      for ( int i = 0; i < THREADS; i++ ) {
+         key = pool.addDelegate( context );
+      }
+      for ( int i = 0; i < THREADS - 1; i++ ) {
+         pool.batchProcessComplete( key );
+         pool.collectionProcessComplete( key );
+      }
+      for ( CountingAnnotator annotator : created ) {
+         assertEquals( 0, annotator._batchCompleted.get() );
+         assertEquals( 0, annotator._collectionCompleted.get() );
+      }
+      pool.batchProcessComplete( key );
+      pool.collectionProcessComplete( key );
+      for ( CountingAnnotator annotator : created ) {
+         assertEquals( 1, annotator._batchCompleted.get() );
+         assertEquals( 1, annotator._collectionCompleted.get() );
+      }
+      // A second batch is delivered once more to every delegate.
+      for ( int i = 0; i < THREADS; i++ ) {
+         pool.batchProcessComplete( key );
+      }
+      for ( CountingAnnotator annotator : created ) {
+         assertEquals( 2, annotator._batchCompleted.get() );
+         assertEquals( 1, annotator._collectionCompleted.get() );
+      }
+   }
+
+   @Test
+   public void testSharedResourceRelease() throws Exception {
+      final SharedResourceCache cache = SharedResourceCache.getInstance();
+      final String key = "ThreadSafePoolTests:resource";
+      final AtomicInteger loads = new AtomicInteger();
+      final Object first = cache.acquireResource( key, () -> {
+         loads.incrementAndGet();
+         return new Object();
+      } );
+      final Object second = cache.acquireResource( key, () -> {
+         loads.incrementAndGet();
+         return new Object();
+      } );
+      assertSame( first, second );
+      assertEquals( 1, loads.get() );
+      cache.releaseResource( key );
+      assertTrue( cache.isHeld( key ) );
+      cache.releaseResource( key );
+      assertFalse( cache.isHeld( key ) );
+      final Object third = cache.acquireResource( key, () -> {
+         loads.incrementAndGet();
+         return new Object();
+      } );
+      assertNotSame( first, third );
+      assertEquals( 2, loads.get() );
+      cache.releaseResource( key );
+   }
+
+   static private UimaContext createContext( final String name ) throws Exception {
+      return UimaContextFactory.createUimaContext( CountingAnnotator.PARAM_NAME, name );
+   }
+
+
+   /**
+    * Records overlapping use and sets the document text to its configured name.
+    */
+   static public final class CountingAnnotator extends JCasAnnotator_ImplBase {
+      static public final String PARAM_NAME = "Name";
+      @ConfigurationParameter( name = PARAM_NAME )
+      private String _name;
+
+      private final AtomicBoolean _busy = new AtomicBoolean();
+      private final AtomicBoolean _overlap = new AtomicBoolean();
+      private final AtomicInteger _processed = new AtomicInteger();
+      private final AtomicInteger _batchCompleted = new AtomicInteger();
+      private final AtomicInteger _collectionCompleted = new AtomicInteger();
+      private volatile boolean _destroyed;
+
+      @Override
+      public void process( final JCas jCas ) {
+         if ( !_busy.compareAndSet( false, true ) ) {
+            _overlap.set( true );
+            return;
+         }
+         try {
+            Thread.sleep( 1 );
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+         }
+         jCas.setDocumentText( _name );
+         _processed.incrementAndGet();
+         _busy.set( false );
+      }
+
+      @Override
+      public void batchProcessComplete() {
+         _batchCompleted.incrementAndGet();
+      }
+
+      @Override
+      public void collectionProcessComplete() {
+         _collectionCompleted.incrementAndGet();
+      }
+
+      @Override
+      public void destroy() {
+         _destroyed = true;
+         super.destroy();
+      }
+   }
+
+}
@@ -0,0 +1,120 @@
+package org.apache.ctakes.core.cr;
+
+import org.apache.ctakes.core.config.ConfigParameterConstants;
+import org.apache.ctakes.core.patient.PatientNoteStore;
+import org.apache.ctakes.core.util.doc.DocIdUtil;
+import org.apache.ctakes.core.util.doc.SourceMetadataUtil;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.CollectionReaderFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class StreamingFileTreeReaderTests {
+
+   @ClassRule
+   static public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final String[] NOTES = {
+         "readme.txt",
+         "patientB/note_10.txt",
+         "patientB/note_2.txt",
+         "patientB/visit/note_1.txt",
+         "patientA/note_1.txt",
+         "patientA/note_3.txt",
+         "patientA/ignored.bin",
+         "patientC/early/note_5.txt",
+         "patientC/late/note_4.txt" };
+
+   static private File _rootDir;
+
+   @BeforeClass
+   static public void createTree() throws Exception {
+      _rootDir = _folder.newFolder( "corpus" );
+      for ( String note : NOTES ) {
+         final File file = new File( _rootDir, note );
+         file.getParentFile().mkdirs();
+         Files.write( file.toPath(), ("Text of " + note).getBytes( StandardCharsets.UTF_8 ) );
+      }
+   }
+
+   @Test
+   public void testStreamingMatchesEager() throws Exception {
+      final List<String> eagerDocs = readDocs( 0 );
+      assertEquals( "Eager reader should read all txt files", 8, eagerDocs.size() );
+      assertEquals( "Prefetch of 1 should read the same documents in the same order", eagerDocs, readDocs( 1 ) );
+      assertEquals( "Prefetch of 3 should read the same documents in the same order", eagerDocs, readDocs( 3 ) );
+      assertEquals( "Prefetch beyond the corpus size should read the same documents", eagerDocs, readDocs( 20 ) );
+   }
+
+   @Test
+   public void testPatientCountsBeforeFirstDocument() throws Exception {
+      final File rootDir = _folder.newFolder( "counted" );
+      final Map<String, Integer> expectedCounts = new HashMap<>();
+      for ( int i = 0; i < 20; i++ ) {
+         final String patientId = "countedPatient" + i;
+         expectedCounts.put( patientId, i % 4 + 1 );
+         for ( int j = 0; j <= i % 4; j++ ) {
+            final File file = new File( rootDir, patientId + "/note_" + j + ".txt" );
+            file.getParentFile().mkdirs();
+            Files.write( file.toPath(), ("Note " + j).getBytes( StandardCharsets.UTF_8 ) );
+         }
+      }
+      final CollectionReader reader = CollectionReaderFactory.createReader( FileTreeReader.class,
+            ConfigParameterConstants.PARAM_INPUTDIR, rootDir.getPath(),
+            AbstractFileTreeReader.PARAM_EXTENSIONS, new String[]{ "txt" },
+            AbstractFileTreeReader.PARAM_PREFETCH_COUNT, 2 );
+      final JCas jcas = JCasFactory.createJCas();
+      int docCount = 0;
+      while ( reader.hasNext() ) {
+         jcas.reset();
+         reader.getNext( jcas.getCas() );
+         final String patientId = SourceMetadataUtil.getPatientIdentifier( jcas );
+         assertEquals( "Wanted count of " + patientId + " should be set before its documents are emitted",
+               expectedCounts.get( patientId ).intValue(),
+               PatientNoteStore.getInstance().getWantedDocCount( patientId ) );
+         docCount++;
+      }
+      reader.close();
+      assertEquals( 50, docCount );
+   }
+
+   static private List<String> readDocs( final int prefetchCount ) throws Exception {
+      final CollectionReader reader = CollectionReaderFactory.createReader( FileTreeReader.class,
+            ConfigParameterConstants.PARAM_INPUTDIR, _rootDir.getPath(),
+            AbstractFileTreeReader.PARAM_EXTENSIONS, new String[]{ "txt" },
+            AbstractFileTreeReader.PARAM_PREFETCH_COUNT, prefetchCount );
+      final AbstractFileTreeReader treeReader = (AbstractFileTreeReader)reader;
+      final JCas jcas = JCasFactory.createJCas();
+      final List<String> docs = new ArrayList<>();
+      while ( reader.hasNext() ) {
+         jcas.reset();
+         reader.getNext( jcas.getCas() );
+         final String patientId = SourceMetadataUtil.getPatientIdentifier( jcas );
+         docs.add( patientId + " " + treeReader.getNoteCount( patientId ) + " "
+                   + DocIdUtil.getDocumentID( jcas ) + " " + treeReader.getNoteCount() + " "
+                   + jcas.getDocumentText().trim() );
+      }
+      reader.close();
+      return docs;
+   }
+
+}
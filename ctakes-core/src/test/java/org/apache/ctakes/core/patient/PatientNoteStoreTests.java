@@ -0,0 +1,150 @@
+package org.apache.ctakes.core.patient;
+
+import org.apache.ctakes.typesystem.type.structured.DocumentIdPrefix;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class PatientNoteStoreTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final String[] PATIENTS = { "spillA", "spillB", "spillC", "spillD" };
+   static private final int NOTES_PER_PATIENT = 3;
+
+   private final PatientNoteStore _store = PatientNoteStore.getInstance();
+
+   @After
+   public void clearStore() {
+      _store.setMemoryBudget( 0 );
+      Arrays.stream( PATIENTS ).forEach( _store::removePatient );
+   }
+
+   @Test
+   public void testSpillAndRestore() throws Exception {
+      final File spillDir = _folder.newFolder();
+      _store.setSpillDirectory( spillDir );
+      _store.setMemoryBudget( 1 );
+      final JCas docCas = JCasFactory.createJCas();
+      // Interleave patients so that each patient is spilled and restored while its notes are stored
+      for ( int i = 0; i < NOTES_PER_PATIENT; i++ ) {
+         for ( String patientId : PATIENTS ) {
+            storeNote( docCas, patientId, i );
+         }
+      }
+      assertEquals( "All but the last used patient should be spilled",
+            Arrays.asList( "spillA", "spillB", "spillC" ), _store.getSpilledPatientIds() );
+      assertEquals( 3, Objects.requireNonNull( spillDir.listFiles() ).length );
+      assertPatients( "SpillTestEngine" );
+      assertTrue( _store.getSpilledPatientIds().isEmpty() );
+      assertEquals( "Spill files should be deleted", 0, Objects.requireNonNull( spillDir.listFiles() ).length );
+   }
+
+   @Test
+   public void testConcurrentPatients() throws Exception {
+      _store.setSpillDirectory( _folder.newFolder() );
+      _store.setMemoryBudget( 2000 );
+      final ExecutorService executor = Executors.newFixedThreadPool( PATIENTS.length );
+      final List<Future<?>> futures = new ArrayList<>();
+      for ( String patientId : PATIENTS ) {
+         futures.add( executor.submit( () -> {
+            final JCas docCas = JCasFactory.createJCas();
+            for ( int i = 0; i < NOTES_PER_PATIENT; i++ ) {
+               storeNote( docCas, patientId, i );
+            }
+            return null;
+         } ) );
+      }
+      for ( Future<?> future : futures ) {
+         future.get();
+      }
+      executor.shutdown();
+      assertPatients( "ConcurrentTestEngine" );
+   }
+
+   @Test
+   public void testReplacedViewIsNotCountedTwice() throws Exception {
+      final JCas docCas = JCasFactory.createJCas();
+      storeNote( docCas, "spillA", 0 );
+      final long noteBytes = _store.getResidentBytes();
+      // A view without text can be copied over a stored view of the same name.
+      final JCas extraView = docCas.createView( "Extra" );
+      new DocumentIdPrefix( extraView ).addToIndexes();
+      _store.storeView( "spillA", "note0", "Extra", docCas );
+      final long extraBytes = _store.getResidentBytes() - noteBytes;
+      assertTrue( extraBytes > 0 );
+      new DocumentIdPrefix( extraView ).addToIndexes();
+      _store.storeView( "spillA", "note0", "Extra", docCas );
+      assertEquals( noteBytes + 2 * extraBytes, _store.getResidentBytes() );
+   }
+
+   @Test
+   public void testReleasedPatientIsSpilled() throws Exception {
+      _store.setSpillDirectory( _folder.newFolder() );
+      _store.setMemoryBudget( 1 );
+      final JCas docCas = JCasFactory.createJCas();
+      storeNote( docCas, "spillA", 0 );
+      assertNotNull( _store.getFullPatientCas( "spillA" ) );
+      storeNote( docCas, "spillB", 0 );
+      assertTrue( "A handed out patient should not be spilled", _store.getSpilledPatientIds().isEmpty() );
+      _store.releasePatient( "spillA" );
+      assertTrue( _store.getSpilledPatientIds().contains( "spillA" ) );
+   }
+
+   private void assertPatients( final String engineName ) {
+      Arrays.stream( PATIENTS ).forEach( p -> _store.setWantedDocCount( p, NOTES_PER_PATIENT ) );
+      _store.registerEngine( engineName );
+      final Collection<JCas> patientCases = _store.popPatientCases( engineName );
+      assertEquals( PATIENTS.length, patientCases.size() );
+      final Collection<String> popped = new HashSet<>();
+      for ( JCas patientCas : patientCases ) {
+         final String patientId = PatientNoteStore.getDefaultPatientId( patientCas );
+         popped.add( patientId );
+         for ( int i = 0; i < NOTES_PER_PATIENT; i++ ) {
+            final String viewName = PatientNoteStore.getInternalViewname( patientId, "note" + i,
+                  PatientViewUtil.DEFAULT_VIEW );
+            final JCas view = PatientViewUtil.getAllViews( patientCas ).stream()
+                                             .filter( v -> v.getViewName().equals( viewName ) )
+                                             .findFirst()
+                                             .orElseThrow( () -> new AssertionError( "Missing " + viewName ) );
+            assertEquals( createText( patientId, i ), view.getDocumentText() );
+            assertEquals( 1, JCasUtil.select( view, Sentence.class ).size() );
+         }
+      }
+      assertEquals( new HashSet<>( Arrays.asList( PATIENTS ) ), popped );
+      assertTrue( "Popped patients should be removed", _store.getCompletedPatientIds().isEmpty() );
+      assertEquals( 0, _store.getResidentBytes() );
+   }
+
+   private void storeNote( final JCas docCas, final String patientId, final int noteIndex ) {
+      docCas.reset();
+      final String text = createText( patientId, noteIndex );
+      docCas.setDocumentText( text );
+      new Sentence( docCas, 0, text.length() ).addToIndexes();
+      _store.storeAllViews( patientId, "note" + noteIndex, docCas );
+   }
+
+   static private String createText( final String patientId, final int noteIndex ) {
+      return "Note " + noteIndex + " for patient " + patientId + " is stored.";
+   }
+
+}
@@ -0,0 +1,46 @@
+package org.apache.ctakes.core.pipeline;
+
+import org.apache.ctakes.core.ae.SimpleSegmentAnnotator;
+import org.apache.ctakes.typesystem.type.textspan.Segment;
+import org.apache.uima.fit.util.JCasUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class PipelineEngineTests {
+
+   static private final List<String> TEXTS = Arrays.asList(
+         "Patient suffers from a shattered tibia.",
+         "Recommend bed rest, aspirin, and ice.",
+         "No known allergies." );
+
+   @Test
+   public void testProcess() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder().add( SimpleSegmentAnnotator.class );
+      try ( PipelineEngine engine = builder.createEngine() ) {
+         for ( String text : TEXTS ) {
+            final int segmentEnd = engine.process( text,
+                  jCas -> JCasUtil.selectSingle( jCas, Segment.class ).getEnd() );
+            assertEquals( text.length(), segmentEnd );
+         }
+      }
+   }
+
+   @Test
+   public void testProcessBatch() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder().add( SimpleSegmentAnnotator.class ).threads( 2 );
+      try ( PipelineEngine engine = builder.createEngine() ) {
+         final List<String> results = engine.process( TEXTS, jCas -> jCas.getDocumentText() );
+         assertEquals( TEXTS, results );
+      }
+   }
+
+}
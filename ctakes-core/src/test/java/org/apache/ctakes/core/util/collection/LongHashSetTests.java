@@ -0,0 +1,59 @@
+package org.apache.ctakes.core.util.collection;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class LongHashSetTests {
+
+   @Test
+   public void testAddContains() {
+      final LongHashSet set = new LongHashSet( 2 );
+      assertTrue( set.add( 27051L ) );
+      assertFalse( set.add( 27051L ) );
+      assertTrue( set.add( 0L ) );
+      assertFalse( set.add( Long.valueOf( 0L ) ) );
+      assertTrue( set.contains( 27051L ) );
+      assertTrue( set.contains( Long.valueOf( 0L ) ) );
+      assertFalse( set.contains( 18787L ) );
+      assertFalse( set.contains( "27051" ) );
+      assertEquals( 2, set.size() );
+      final long[] values = set.toLongArray();
+      Arrays.sort( values );
+      assertArrayEquals( new long[]{ 0L, 27051L }, values );
+      assertEquals( new HashSet<>( Arrays.asList( 0L, 27051L ) ), set );
+   }
+
+   @Test
+   public void testMatchesHashSet() {
+      final Random random = new Random( 17 );
+      final LongHashSet set = new LongHashSet();
+      final Set<Long> expected = new HashSet<>();
+      for ( int i = 0; i < 20000; i++ ) {
+         final long value = random.nextInt( 5000 );
+         if ( random.nextInt( 3 ) == 0 ) {
+            assertEquals( expected.remove( value ), set.remove( value ) );
+         } else {
+            assertEquals( expected.add( value ), set.add( value ) );
+         }
+      }
+      assertEquals( expected.size(), set.size() );
+      assertEquals( expected, set );
+      final Set<Long> iterated = new HashSet<>();
+      set.forEachLong( iterated::add );
+      assertEquals( expected, iterated );
+      set.clear();
+      assertTrue( set.isEmpty() );
+   }
+
+}
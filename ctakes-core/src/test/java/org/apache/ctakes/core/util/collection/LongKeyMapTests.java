@@ -0,0 +1,57 @@
+package org.apache.ctakes.core.util.collection;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class LongKeyMapTests {
+
+   @Test
+   public void testPutGet() {
+      final LongKeyMap<String> map = new LongKeyMap<>( 1 );
+      assertNull( map.put( 27051L, "C0027051" ) );
+      assertEquals( "C0027051", map.put( 27051L, "Myocardial Infarction" ) );
+      assertNull( map.put( 0L, "zero" ) );
+      assertEquals( "Myocardial Infarction", map.get( 27051L ) );
+      assertEquals( "zero", map.get( Long.valueOf( 0L ) ) );
+      assertNull( map.get( 18787L ) );
+      assertNull( map.get( "27051" ) );
+      assertTrue( map.containsKey( 0L ) );
+      assertEquals( 2, map.size() );
+   }
+
+   @Test( expected = NullPointerException.class )
+   public void testNullValue() {
+      new LongKeyMap<String>().put( 1L, null );
+   }
+
+   @Test
+   public void testMatchesHashMap() {
+      final Random random = new Random( 17 );
+      final LongKeyMap<Integer> map = new LongKeyMap<>();
+      final Map<Long, Integer> expected = new HashMap<>();
+      for ( int i = 0; i < 20000; i++ ) {
+         final long key = random.nextInt( 5000 );
+         if ( random.nextInt( 3 ) == 0 ) {
+            assertEquals( expected.remove( key ), map.remove( key ) );
+         } else {
+            assertEquals( expected.put( key, i ), map.put( key, Integer.valueOf( i ) ) );
+         }
+      }
+      assertEquals( expected, map );
+      assertEquals( expected, new HashMap<>( map ) );
+      final Map<Long, Integer> iterated = new HashMap<>();
+      map.forEachEntry( iterated::put );
+      assertEquals( expected, iterated );
+   }
+
+}
@@ -0,0 +1,68 @@
+package org.apache.ctakes.core.util.regex;
+
+import org.apache.ctakes.core.util.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class MultiPatternMatcherTests {
+
+   static private final String TEXT = "HISTORY:\nNone.\nMEDICATIONS:\n1. aspirin\n2. tylenol\n----\nEnd";
+
+   // Catastrophic backtracking on a long run of 'a' without a 'b'
+   static private final Pattern RUNAWAY = Pattern.compile( "(a|aa)+b" );
+
+   @Test
+   public void testKeyedMatches() {
+      final MultiPatternMatcher<String> matcher = new MultiPatternMatcher<String>()
+            .addPattern( "header", Pattern.compile( "^(?<SECTION>[A-Z]+):", Pattern.MULTILINE ) )
+            .addPattern( "none", null )
+            .addPattern( "item", Pattern.compile( "^\\d\\. ", Pattern.MULTILINE ) );
+      assertEquals( 2, matcher.getPatternCount() );
+      final List<String> found = new ArrayList<>();
+      matcher.findMatches( TEXT, ( k, m ) -> found.add( k + " " + m.start() + " " + m.group() ) );
+      assertEquals( Arrays.asList( "header 0 HISTORY:", "header 15 MEDICATIONS:", "item 28 1. ", "item 39 2. " ),
+            found );
+   }
+
+   @Test
+   public void testTimeoutOnCallingThread() {
+      final String runawayText = String.join( "", Collections.nCopies( 64, "a" ) );
+      final MultiPatternMatcher<String> matcher = new MultiPatternMatcher<String>( 100 )
+            .addPattern( "runaway", RUNAWAY )
+            .addPattern( "letter", Pattern.compile( "a{32}" ) );
+      final List<String> found = new ArrayList<>();
+      final Thread callingThread = Thread.currentThread();
+      final long start = System.currentTimeMillis();
+      matcher.findMatches( runawayText, ( k, m ) -> {
+         assertEquals( callingThread, Thread.currentThread() );
+         found.add( k );
+      } );
+      assertTrue( "Runaway match should be aborted", System.currentTimeMillis() - start < 5000 );
+      assertEquals( "Patterns after a timeout should still match", Arrays.asList( "letter", "letter" ), found );
+   }
+
+   @Test
+   public void testSpanFinderTimeout() {
+      final String runawayText = String.join( "", Collections.nCopies( 64, "a" ) );
+      try ( RegexSpanFinder finder = new RegexSpanFinder( RUNAWAY, 100 ) ) {
+         assertTrue( finder.findSpans( runawayText ).isEmpty() );
+      }
+      try ( RegexSpanFinder finder = new RegexSpanFinder( "\\d\\. " ) ) {
+         assertEquals( Arrays.asList( new Pair<>( 28, 31 ), new Pair<>( 39, 42 ) ), finder.findSpans( TEXT ) );
+      }
+   }
+
+}
@@ -0,0 +1,166 @@
+package org.apache.ctakes.core.util.textspan;
+
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class SpanIndexServiceTests {
+
+   @Test
+   public void testMatchesJCasUtil() throws Exception {
+      final JCas jcas = createJCas( 200 );
+      for ( Sentence sentence : JCasUtil.select( jcas, Sentence.class ) ) {
+         assertEquals( JCasUtil.selectCovered( jcas, BaseToken.class, sentence ),
+               SpanIndexService.selectCovered( jcas, BaseToken.class, sentence ) );
+         assertEquals( JCasUtil.selectCovered( jcas, Sentence.class, sentence ),
+               SpanIndexService.selectCovered( jcas, Sentence.class, sentence ) );
+      }
+      for ( BaseToken token : JCasUtil.select( jcas, BaseToken.class ) ) {
+         assertEquals( JCasUtil.selectCovering( jcas, Sentence.class, token ),
+               SpanIndexService.selectCovering( jcas, Sentence.class, token ) );
+         assertEquals( JCasUtil.selectCovering( jcas, BaseToken.class, token ),
+               SpanIndexService.selectCovering( jcas, BaseToken.class, token ) );
+      }
+   }
+
+   @Test
+   public void testInvalidation() throws Exception {
+      final JCas jcas = createJCas( 20 );
+      final SpanIndex<Sentence> index = SpanIndexService.getIndex( jcas, Sentence.class );
+      assertSame( index, SpanIndexService.getIndex( jcas, Sentence.class ) );
+      new Sentence( jcas, 0, 5 ).addToIndexes();
+      final SpanIndex<Sentence> added = SpanIndexService.getIndex( jcas, Sentence.class );
+      assertEquals( index.size() + 1, added.size() );
+      jcas.reset();
+      jcas.setDocumentText( "Short." );
+      new Sentence( jcas, 0, 6 ).addToIndexes();
+      assertEquals( 1, SpanIndexService.getIndex( jcas, Sentence.class ).size() );
+   }
+
+   @Test
+   public void testResetSameSize() throws Exception {
+      final JCas jcas = createJCas( 20 );
+      final SpanIndex<Sentence> index = SpanIndexService.getIndex( jcas, Sentence.class );
+      jcas.reset();
+      jcas.setDocumentText( new String( new char[ 40 ] ).replace( '\0', ' ' ) );
+      for ( int i = 0; i < index.size(); i++ ) {
+         new Sentence( jcas, i, i + 1 ).addToIndexes();
+      }
+      final SpanIndex<Sentence> reset = SpanIndexService.getIndex( jcas, Sentence.class );
+      assertNotSame( index, reset );
+      assertEquals( new ArrayList<>( JCasUtil.select( jcas, Sentence.class ) ),
+            SpanIndexService.selectCovered( jcas, Sentence.class, new Sentence( jcas, 0, 40 ) ) );
+   }
+
+   @Test
+   public void testReplaceSameSize() throws Exception {
+      final JCas jcas = createJCas( 20 );
+      final SpanIndex<Sentence> index = SpanIndexService.getIndex( jcas, Sentence.class );
+      final Sentence removed = JCasUtil.select( jcas, Sentence.class ).iterator().next();
+      removed.removeFromIndexes();
+      final Sentence added = new Sentence( jcas, 3, 7 );
+      added.addToIndexes();
+      SpanIndexService.invalidate( jcas );
+      final SpanIndex<Sentence> replaced = SpanIndexService.getIndex( jcas, Sentence.class );
+      assertNotSame( index, replaced );
+      assertEquals( index.size(), replaced.size() );
+      assertEquals( JCasUtil.selectCovering( jcas, Sentence.class, added ),
+            SpanIndexService.selectCovering( jcas, Sentence.class, added ) );
+   }
+
+   @Test
+   public void testRemoveAllAndRefill() throws Exception {
+      final JCas jcas = createJCas( 20 );
+      final SpanIndex<Sentence> index = SpanIndexService.getIndex( jcas, Sentence.class );
+      final int size = index.size();
+      jcas.removeAllIncludingSubtypes( Sentence.type );
+      for ( int i = 0; i < size; i++ ) {
+         new Sentence( jcas, i, i + 1 ).addToIndexes();
+      }
+      SpanIndexService.invalidate( jcas );
+      final Sentence first = new Sentence( jcas, 0, 1 );
+      assertEquals( JCasUtil.selectCovered( jcas, Sentence.class, 0, size + 1 ),
+            SpanIndexService.selectCovered( jcas, Sentence.class, new Sentence( jcas, 0, size + 1 ) ) );
+      assertEquals( JCasUtil.selectCovering( jcas, Sentence.class, first ),
+            SpanIndexService.selectCovering( jcas, Sentence.class, first ) );
+   }
+
+   @Test
+   public void testSubtypeChange() throws Exception {
+      final JCas jcas = createJCas( 20 );
+      final SpanIndex<BaseToken> index = SpanIndexService.getIndex( jcas, BaseToken.class );
+      final BaseToken removed = JCasUtil.select( jcas, BaseToken.class ).iterator().next();
+      removed.removeFromIndexes();
+      new WordToken( jcas, 2, 4 ).addToIndexes();
+      SpanIndexService.invalidate( jcas );
+      final SpanIndex<BaseToken> changed = SpanIndexService.getIndex( jcas, BaseToken.class );
+      assertNotSame( index, changed );
+      assertEquals( new ArrayList<>( JCasUtil.select( jcas, BaseToken.class ) ),
+            SpanIndexService.selectCovered( jcas, BaseToken.class, new Sentence( jcas, 0, 200 ) ) );
+   }
+
+   @Test
+   public void testThreads() throws Exception {
+      final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+      try {
+         final List<Future<Boolean>> futures = new ArrayList<>();
+         for ( int i = 0; i < 16; i++ ) {
+            final int count = 20 + i;
+            futures.add( executor.submit( () -> {
+               final JCas jcas = createJCas( count );
+               for ( Sentence sentence : JCasUtil.select( jcas, Sentence.class ) ) {
+                  if ( !JCasUtil.selectCovered( jcas, BaseToken.class, sentence )
+                                .equals( SpanIndexService.selectCovered( jcas, BaseToken.class, sentence ) ) ) {
+                     return false;
+                  }
+               }
+               SpanIndexService.clear();
+               return true;
+            } ) );
+         }
+         for ( Future<Boolean> future : futures ) {
+            assertEquals( true, future.get() );
+         }
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Random overlapping sentences and tokens, including zero width tokens, over a document of spaces.
+    */
+   static private JCas createJCas( final int count ) throws Exception {
+      final Random random = new Random( 7 );
+      final int length = count * 10;
+      final JCas jcas = JCasFactory.createJCas();
+      jcas.setDocumentText( new String( new char[ length ] ).replace( '\0', ' ' ) );
+      for ( int i = 0; i < count; i++ ) {
+         final int sentenceBegin = random.nextInt( length );
+         new Sentence( jcas, sentenceBegin, Math.min( length, sentenceBegin + random.nextInt( 60 ) ) ).addToIndexes();
+         final int tokenBegin = random.nextInt( length );
+         new BaseToken( jcas, tokenBegin, Math.min( length, tokenBegin + random.nextInt( 8 ) ) ).addToIndexes();
+      }
+      return jcas;
+   }
+
+}
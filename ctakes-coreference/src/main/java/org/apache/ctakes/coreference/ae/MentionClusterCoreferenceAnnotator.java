@@ -8,6 +8,8 @@ import org.apache.ctakes.core.util.log.DotLogger;
 import org.apache.ctakes.coreference.ae.features.cluster.*;
 import org.apache.ctakes.coreference.ae.pairing.cluster.*;
 import org.apache.ctakes.coreference.util.ClusterMentionFetcher;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.coreference.util.MarkableCacheRelationExtractor;
 import org.apache.ctakes.coreference.util.MarkableUtilities;
 import org.apache.ctakes.coreference.util.ThymeCasOrderer;
@@ -133,6 +135,7 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
   private List<RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation>> relationExtractors = this.getFeatureExtractors();
   private List<FeatureExtractor1<Markable>> mentionExtractors = this.getMentionExtractors();
   private List<ClusterMentionPairer_ImplBase> pairExtractors = this.getPairExtractors();
+  private ClusterStates clusterStates = null;
 
 //  private Set<String> markableStrings = null;
 
@@ -219,10 +222,11 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
     return pairs;
   }
 
-  private void resetPairers(JCas jcas, Map<Markable,ConllDependencyNode> cache){
+  private void resetPairers(JCas jcas, Map<Markable,ConllDependencyNode> cache, ClusterStates states){
     for(ClusterMentionPairer_ImplBase pairer : this.pairExtractors){
       pairer.reset(jcas);
       pairer.setCache(cache);
+      pairer.setClusterStates(states);
     }
   }
 
@@ -300,7 +304,14 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
         ((MarkableCacheRelationExtractor)featEx).setCache(depHeadMap);
       }
     }
-    this.resetPairers( jCas, depHeadMap );
+    // cluster aggregates are kept up to date as mentions are added, so features do not walk every cluster per pair
+    clusterStates = new ClusterStates(jCas, depHeadMap);
+    for(RelationFeaturesExtractor featEx : this.relationExtractors){
+      if(featEx instanceof ClusterStateRelationExtractor){
+        ((ClusterStateRelationExtractor)featEx).setClusterStates(clusterStates);
+      }
+    }
+    this.resetPairers( jCas, depHeadMap, clusterStates );
 
     final Map<Segment, List<Markable>> segmentMarkables = JCasUtil.indexCovered( jCas, Segment.class, Markable.class );
     for ( Segment segment : JCasUtil.select(jCas, Segment.class) ) {
@@ -311,10 +322,15 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
         double maxScore = 0.0;
         CollectionTextRelation maxCluster = null;
         String mentionView = mention.getView().getViewName();
+        // mention features do not depend on the cluster
+        List<Feature> mentionFeatures = new ArrayList<>();
+        for ( FeatureExtractor1<Markable> extractor : this.mentionExtractors ) {
+          mentionFeatures.addAll( extractor.extract( jCas, mention ) );
+        }
 
         for ( CollectionTextRelationIdentifiedAnnotationPair pair : this.getCandidateRelationArgumentPairs( jCas, mention, prevCas ) ) {
           CollectionTextRelation cluster = pair.getCluster();
-          Markable firstElement = JCasUtil.select(cluster.getMembers(), Markable.class).iterator().next();
+          IdentifiedAnnotation firstElement = clusterStates.getState(cluster).getFirst();
           String clusterHeadView = firstElement.getView().getViewName();
 //          System.out.println( "   MCCA Pair Cluster: " + pair.getCluster().getCategory() );
 //          System.out.println("MCCA Cluster head: " + firstElement.getCoveredText() + " :" + firstElement.getBegin() + "," + firstElement.getEnd());
@@ -330,9 +346,7 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
             }
           }
 
-          for ( FeatureExtractor1<Markable> extractor : this.mentionExtractors ) {
-            features.addAll( extractor.extract( jCas, mention ) );
-          }
+          features.addAll( mentionFeatures );
 
           // here is where feature conjunctions can go (dupFeatures)
           List<Feature> dupFeatures = new ArrayList<>();
@@ -421,9 +435,11 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
           chain.addToIndexes();
           list.addToIndexes();
           list.getTail().addToIndexes();
+          clusterStates.addCluster( chain );
         }
       }
     }
+    clusterStates = null;
     createEventClusters( jCas );
   }
 
@@ -496,6 +512,9 @@ public class MentionClusterCoreferenceAnnotator extends CleartkAnnotator<String>
 //    RelationArgument arg = new RelationArgument(jCas);
 //    arg.setArgument(mention);
     ListFactory.append(jCas, cluster.getMembers(), mention);
+    if(clusterStates != null){
+      clusterStates.addMember(cluster, mention);
+    }
   }
 
   /**
@@ -3,8 +3,11 @@ package org.apache.ctakes.coreference.ae;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.ListFactory;
 import org.apache.ctakes.coreference.ae.features.cluster.*;
+import org.apache.ctakes.coreference.ae.pairing.cluster.*;
 import org.apache.ctakes.coreference.util.ClusterMentionFetcher;
-import org.apache.ctakes.coreference.util.ClusterUtils;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
+import org.apache.ctakes.coreference.util.MarkableCacheRelationExtractor;
 import org.apache.ctakes.dependency.parser.util.DependencyUtility;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.relationextractor.eval.RelationExtractorEvaluation.HashableArguments;
@@ -12,14 +15,9 @@ import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelationIdentifiedAnnotationRelation;
 import org.apache.ctakes.typesystem.type.relation.CoreferenceRelation;
 import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
-import org.apache.ctakes.typesystem.type.textsem.AnatomicalSiteMention;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.Markable;
-import org.apache.ctakes.typesystem.type.textsem.MedicationEventMention;
-import org.apache.ctakes.typesystem.type.textspan.Paragraph;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
-import org.apache.ctakes.typesystem.type.textspan.Sentence;
-import org.slf4j.LoggerFactory;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
@@ -28,7 +26,6 @@ import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.cas.EmptyFSList;
 import org.apache.uima.jcas.cas.NonEmptyFSList;
-import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.cleartk.ml.CleartkAnnotator;
 import org.cleartk.ml.CleartkProcessingException;
@@ -68,6 +65,13 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
       description = "probability that a negative example should be retained for training")
   protected double probabilityOfKeepingANegativeExample = 0.5;
 
+  public static final String PARAM_MAX_CANDIDATE_CLUSTERS = "MaxCandidateClusters";
+  @ConfigurationParameter(
+      name = PARAM_MAX_CANDIDATE_CLUSTERS,
+      mandatory = false,
+      description = "only clusters with fewer than this many more recently mentioned clusters are candidates for a mention, 0 for all clusters")
+  protected int maxCandidateClusters = 0;
+
   protected Random coin = new Random(0);
 
   boolean greedyFirst = true;
@@ -102,11 +106,11 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
 
   private List<RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation>> relationExtractors = this.getFeatureExtractors();
   private List<FeatureExtractor1<Markable>> mentionExtractors = this.getMentionExtractors();
+  private List<ClusterMentionPairer_ImplBase> pairExtractors = this.getPairExtractors();
   
-  private Set<String> markableStrings = null;
   private Map<ConllDependencyNode,List<IdentifiedAnnotation>> nodeEntMap = null;
-  private Map<String,Set<Markable>> headWordMarkables = null;
   private Map<HashableArguments,Double> pairScores = null;
+  private ClusterStates clusterStates = null;
   
   protected List<RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation>> getFeatureExtractors() {
     List<RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation>> extractors = new ArrayList<>();
@@ -149,199 +153,62 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
     return extractors;
   }
   
+  protected List<ClusterMentionPairer_ImplBase> getPairExtractors(){
+    List<ClusterMentionPairer_ImplBase> pairers = new ArrayList<>();
+    int sentDist = 5;
+    pairers.add(new SentenceDistancePairer(sentDist));
+    pairers.add(new SectionHeaderPairer(sentDist));
+    pairers.add(new ClusterPairer(Integer.MAX_VALUE));
+    pairers.add(new HeadwordPairer());
+    return pairers;
+  }
+
   protected Iterable<CollectionTextRelationIdentifiedAnnotationPair> getCandidateRelationArgumentPairs(
       JCas jcas,
-      IdentifiedAnnotation mention){
-    int sentDist = 5;
+      Markable mention){
     // using linked hash set ensures no duplicates:
     LinkedHashSet<CollectionTextRelationIdentifiedAnnotationPair> pairs = new LinkedHashSet<>();
-    pairs.addAll(getSentenceDistancePairs(jcas, mention, sentDist));
-    pairs.addAll(getSectionHeaderPairs(jcas, mention, sentDist));
-    pairs.addAll(getClusterPairs(jcas, mention, Integer.MAX_VALUE));
-    pairs.addAll(getHeadwordMatchPairs(jcas, mention, sentDist));
-    
-    return pairs;
-  }
-  
-  /*
-   * getExactStringMatchPairs()
-   * For mentions that have the exact string repeated elsewhere in the document we want to
-   * allow matching across any distance. We don't use the sentence distance parameter here.
-   * We make use of a global variable markableStrings that is a HashSet containig all the markable
-   * strings from this document.
-   */
-  private List<CollectionTextRelationIdentifiedAnnotationPair> getExactStringMatchPairs(
-      JCas jcas, IdentifiedAnnotation mention, int sentDist) {
-    List<CollectionTextRelationIdentifiedAnnotationPair> pairs = new ArrayList<>();
-    
-    if(markableStrings.contains(mention.getCoveredText().toLowerCase())){
-      for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
-        Annotation mostRecent = ClusterUtils.getMostRecent((NonEmptyFSList)cluster.getMembers(), mention);
-        if(mostRecent == null) continue;
-
-        for(Markable m : JCasUtil.select(cluster.getMembers(), Markable.class)){
-          if(m == mostRecent) break;
-          // see if any of the members of the cluster have the exact same string as this 
-          if(m.getCoveredText().toLowerCase().equals(mention.getCoveredText().toLowerCase())){
-            pairs.add(new CollectionTextRelationIdentifiedAnnotationPair(cluster, mention));
-            break;
-          }
-        }
-      }
+    for(ClusterMentionPairer_ImplBase pairer : this.pairExtractors){
+      pairs.addAll(pairer.getPairs(jcas, mention));
     }
-    return pairs;
-  }
-  
-  /*
-   * getClusterPairs()
-   * In this method we allow to link to clusters containing more than one mention even if they
-   * are beyond a sentence distance. First we check whether the most recent mention in the cluster
-   * is within the specified sentence distance (presumably longer than the sentence distance passed into
-   * the method that constrains by distance). The wrinkle is that during training many clusters will have multiple
-   * members but only one before the focus mention. So we need to count the members of a cluster until we 
-   * get to the most recent one in the cluster. If that value is > 1 then we allow the pairing.
-   */
-  private List<CollectionTextRelationIdentifiedAnnotationPair> getClusterPairs(
-      JCas jcas, IdentifiedAnnotation mention, int sentDist) {
-    List<CollectionTextRelationIdentifiedAnnotationPair> pairs = new ArrayList<>();
-    for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
-      NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
-      Annotation first = (Annotation) members.getHead();
-      if(first == null || mention.getBegin() <= first.getEnd()){
-        continue;
-      }
-
-      IdentifiedAnnotation mostRecent = (IdentifiedAnnotation) ClusterUtils.getMostRecent((NonEmptyFSList)cluster.getMembers(), mention);
-      if(mostRecent == null || EventCoreferenceAnnotator.sentDist(jcas, mostRecent, mention) > sentDist){
-        continue;
-      }
-      int numMembers=0;
-      for(Markable m : JCasUtil.select(cluster.getMembers(), Markable.class)){
-        numMembers++;
-        if(m == mostRecent) break;
-      }
-      if(numMembers > 1){
-        pairs.add(new CollectionTextRelationIdentifiedAnnotationPair(cluster, mention));
-      }
+    if(maxCandidateClusters > 0){
+      // pruning window: skip clusters that are too far down the stack of recently mentioned clusters
+      pairs.removeIf(pair -> clusterStates.getStackPosition(pair.getCluster(), mention, true) >= maxCandidateClusters);
     }
-    
     return pairs;
   }
 
-  /*
-   * Here we want to add only things that are nearby. First we check the semantic types
-   * of the cluster we're comparing against. If any member is an Anatomical Site or Medication,
-   * we add the cluster no matter what. Otherwise we check how many sentences are in between
-   * the mention and the latest element of the cluster.
-   */
-  protected List<CollectionTextRelationIdentifiedAnnotationPair> getSentenceDistancePairs(JCas jcas, IdentifiedAnnotation mention, int sentDist){
-    List<CollectionTextRelationIdentifiedAnnotationPair> pairs = new ArrayList<>();
-    Set<String> bestAnaTypes = getBestEnt(jcas, (Markable) mention);
-    
-    for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
-      NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
-      Annotation first = (Annotation) members.getHead();
-      if(first == null || mention.getBegin() <= first.getEnd()) continue;
-      
-      // check for distance if they are not anatomical site or medication
-      if(!(bestAnaTypes.contains(AnatomicalSiteMention.class.getSimpleName()) ||
-          bestAnaTypes.contains(MedicationEventMention.class.getSimpleName()))){
-
-        IdentifiedAnnotation mostRecent = (IdentifiedAnnotation) ClusterUtils.getMostRecent(members, mention);
-        if(mostRecent == null || EventCoreferenceAnnotator.sentDist(jcas, mostRecent, mention) > sentDist) continue;
-      }
+  @Override
+  public void process(JCas jCas) throws AnalysisEngineProcessException {
+    // lookup from pair of annotations to binary text relation
+    // note: assumes that there will be at most one relation per pair
+    nodeEntMap = JCasUtil.indexCovering(jCas, ConllDependencyNode.class, IdentifiedAnnotation.class);
+//    pairScores = getMarkablePairScores(jCas);
 
-      // check for types of cluster
-      Set<String> bestClusterTypes = getBestEnt(jcas, cluster);
-      if(bestAnaTypes.size() > 0 && bestClusterTypes.size() > 0){
-        boolean overlap = false;
-        for(String semType : bestAnaTypes){
-          if(bestClusterTypes.contains(semType)){
-            overlap = true;
-          }
-        }
-        // they both correspond to named entities but no overlap in which category of named entity.
-        if(!overlap){
-          continue;
-        }
-      }
-      pairs.add(new CollectionTextRelationIdentifiedAnnotationPair(cluster, mention));      
+    Map<Markable,ConllDependencyNode> depHeadMap = new HashMap<>();
+    for(Markable m : JCasUtil.select(jCas, Markable.class)){
+      depHeadMap.put(m, DependencyUtility.getNominalHeadNode(jCas, m));
     }
-    return pairs;
-  }
-
-  /*
-   * getSectionHeaderPairs()
-   * Here we want to add clusters where one of the members is on a line all by itself (a section header)
-   * To do this we leverage the annotatino of Paragraphs, roughly the areas between newlines. If such a 
-   * span only contains one sentence then we consider it a "header" (or also as important a list item).
-   * If it is a header we add it. Here we use sentDist to not bother adding things that will be added by
-   * the "sentence distance" method.
-   */
-  protected List<CollectionTextRelationIdentifiedAnnotationPair> getSectionHeaderPairs(JCas jcas, IdentifiedAnnotation mention, int sentDist){
-    List<CollectionTextRelationIdentifiedAnnotationPair> pairs = new ArrayList<>();
-    for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
-      NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
-      Annotation first = (Annotation) members.getHead();
-      if(first == null || mention.getBegin() <= first.getEnd()){
-        continue;
+    // cluster aggregates are kept up to date as mentions are added, so features do not walk every cluster per pair
+    clusterStates = new ClusterStates(jCas, depHeadMap);
+    for(RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation> featEx : this.relationExtractors){
+      if(featEx instanceof MarkableCacheRelationExtractor){
+        ((MarkableCacheRelationExtractor)featEx).setCache(depHeadMap);
       }
-
-      // first check if it is sentence distance range -- if so we can ignore because it will be include by other pair generator
-      IdentifiedAnnotation mostRecent = (IdentifiedAnnotation) ClusterUtils.getMostRecent(members, mention);
-      if(mostRecent == null || EventCoreferenceAnnotator.sentDist(jcas, mostRecent, mention) <= sentDist){
-        continue;
+      if(featEx instanceof ClusterStateRelationExtractor){
+        ((ClusterStateRelationExtractor)featEx).setClusterStates(clusterStates);
       }
-      
-      // now check if any of the mentions are in a section header
-      List<Paragraph> pars = JCasUtil.selectCovered(jcas, Paragraph.class, 0, mention.getBegin());
-      for(int j = 0; j < pars.size(); j++){
-        boolean match = false;
-        Paragraph par = pars.get(j); // pars.get(pars.size()-j-1);
-        List<Sentence> coveredSents = JCasUtil.selectCovered(jcas, Sentence.class, par);
-        if(coveredSents != null && coveredSents.size() == 1){
-          // this is sentences that are the same span as paragraphs -- how we model section headers
-          // see if any of the cluster mentions are in the section header
-          for(Markable m : JCasUtil.select(members, Markable.class)){
-            if(dominates(par, m)){
-              pairs.add(new CollectionTextRelationIdentifiedAnnotationPair(cluster, mention));
-              match = true;
-              break;
-            }
-          }
-        }
-        if(match) break;
+    }
+    for(FeatureExtractor1<Markable> featEx : this.mentionExtractors){
+      if(featEx instanceof MarkableCacheRelationExtractor){
+        ((MarkableCacheRelationExtractor)featEx).setCache(depHeadMap);
       }
     }
-    return pairs;
-  }
-  
-  protected List<CollectionTextRelationIdentifiedAnnotationPair> getHeadwordMatchPairs(JCas jcas, IdentifiedAnnotation mention, int sentDist){
-    List<CollectionTextRelationIdentifiedAnnotationPair> pairs = new ArrayList<>();
-
-    ConllDependencyNode headNode = DependencyUtility.getNominalHeadNode(jcas, mention);
-    if(headNode == null){
-      LoggerFactory.getLogger(MentionClusterRankingCoreferenceAnnotator.class).warn("There is a markable with no dependency node covering it.");
-      return pairs;
+    for(ClusterMentionPairer_ImplBase pairer : this.pairExtractors){
+      pairer.reset(jCas);
+      pairer.setCache(depHeadMap);
+      pairer.setClusterStates(clusterStates);
     }
-    String head = headNode.getCoveredText().toLowerCase();
-    if(headWordMarkables.containsKey(head)){
-      final Set<Markable> headSet = headWordMarkables.get( head );
-
-      ClusterMentionFetcher.populatePairs( jcas, mention, headSet, pairs );
-    }
-    
-    return pairs;
-  }
-  
-  @Override
-  public void process(JCas jCas) throws AnalysisEngineProcessException {
-    // lookup from pair of annotations to binary text relation
-    // note: assumes that there will be at most one relation per pair
-    markableStrings = new HashSet<>();
-    nodeEntMap = JCasUtil.indexCovering(jCas, ConllDependencyNode.class, IdentifiedAnnotation.class);
-    headWordMarkables = new HashMap<>();
-//    pairScores = getMarkablePairScores(jCas);
     
     Map<CollectionTextRelationIdentifiedAnnotationPair, CollectionTextRelationIdentifiedAnnotationRelation> relationLookup;
     if (this.isTraining()) {
@@ -355,7 +222,7 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
 //      for(Markable mention : JCasUtil.selectCovered(jCas, Markable.class, segment)){
     for ( Collection<Markable> markables : segmentMarkables.values() ) {
       for ( Markable mention : markables ) {
-        ConllDependencyNode headNode = DependencyUtility.getNominalHeadNode(jCas, mention);
+        ConllDependencyNode headNode = depHeadMap.get(mention);
         String mentionText = mention.getCoveredText().toLowerCase();
         boolean singleton = true;
         double maxScore = Double.NEGATIVE_INFINITY;
@@ -440,16 +307,6 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
           }
         }
         
-        markableStrings.add(mention.getCoveredText().toLowerCase());
-        
-        if(headNode != null){
-          String head = headNode.getCoveredText().toLowerCase();
-          if(!headWordMarkables.containsKey(head)){
-            headWordMarkables.put(head, new HashSet<Markable>());
-          }
-          headWordMarkables.get(head).add(mention);
-        }
-        
         if(this.isTraining()){
           // write a dummy link with only mention features:
           QidInstance<Double> inst = new QidInstance<>();
@@ -478,6 +335,7 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
             chain.addToIndexes();
             list.addToIndexes();
             list.getTail().addToIndexes();
+            clusterStates.addCluster(chain);
           }else{
             createRelation(jCas, maxCluster, mention, CLUSTER_RELATION_CATEGORY);
           }
@@ -486,6 +344,7 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
       }
     }
     
+    clusterStates = null;
     removeSingletonClusters(jCas);
   }
   
@@ -555,6 +414,9 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
 //    RelationArgument arg = new RelationArgument(jCas);
 //    arg.setArgument(mention);
     ListFactory.append(jCas, cluster.getMembers(), mention);    
+    if(clusterStates != null){
+      clusterStates.addMember(cluster, mention);
+    }
   }
 
 
@@ -572,10 +434,6 @@ public class MentionClusterRankingCoreferenceAnnotator extends CleartkAnnotator<
     }
   }
   
-  private static final boolean dominates(Annotation arg1, Annotation arg2) {
-    return (arg1.getBegin() <= arg2.getBegin() && arg1.getEnd() >= arg2.getEnd());
-  }
-
   public Set<String> getBestEnt(JCas jcas, CollectionTextRelation cluster){
     Set<String> semTypes = new HashSet<>();
     for(Markable member : JCasUtil.select(cluster.getMembers(), Markable.class)){
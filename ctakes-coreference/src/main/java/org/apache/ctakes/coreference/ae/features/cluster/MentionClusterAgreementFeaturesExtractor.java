@@ -1,6 +1,9 @@
 package org.apache.ctakes.coreference.ae.features.cluster;
 
 import org.apache.ctakes.core.util.ListIterable;
+import org.apache.ctakes.coreference.util.ClusterState;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.coreference.util.MarkableCacheRelationExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
@@ -19,9 +22,10 @@ import java.util.Map;
 
 import static org.apache.ctakes.coreference.ae.features.TokenFeatureExtractor.*;
 
-public class MentionClusterAgreementFeaturesExtractor implements RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation>, FeatureExtractor1<Markable>, MarkableCacheRelationExtractor {
+public class MentionClusterAgreementFeaturesExtractor implements RelationFeaturesExtractor<CollectionTextRelation,IdentifiedAnnotation>, FeatureExtractor1<Markable>, MarkableCacheRelationExtractor, ClusterStateRelationExtractor {
 
   private Map<Markable, ConllDependencyNode> cache = null;
+  private ClusterStates states = null;
 
   public List<Feature> extract(JCas jCas, CollectionTextRelation cluster,
       IdentifiedAnnotation mention) throws AnalysisEngineProcessException {
@@ -40,6 +44,29 @@ public class MentionClusterAgreementFeaturesExtractor implements RelationFeature
     boolean matchDef = false;
     boolean matchGender = false;
     boolean matchNumber = false;
+
+    if(states != null){
+      ClusterState state = states.getState(cluster);
+      if(state.endsBefore(mention)){
+        matchDem = state.hasDemonstrative(isDem);
+        matchDef = state.hasDefinite(isDef);
+        matchGender = state.hasGender(gender);
+        matchNumber = state.hasSingular(singular);
+      }else{
+        for(ClusterState.Member member : state.getMembers()){
+          if(mention.getBegin() < member.end) continue;
+          matchDem |= member.demonstrative == isDem;
+          matchDef |= member.definite == isDef;
+          matchGender |= member.gender.equals(gender);
+          matchNumber |= member.singular == singular;
+        }
+      }
+      features.add(new Feature("MC_AGREE_DEM", matchDem));
+      features.add(new Feature("MC_AGREE_DEF", matchDef));
+      features.add(new Feature("MC_AGREE_GEN", matchGender));
+      features.add(new Feature("MC_AGREE_NUM", matchNumber));
+      return features;
+    }
     
     for(IdentifiedAnnotation member : new ListIterable<IdentifiedAnnotation>(cluster.getMembers())){
       if(member == null){
@@ -101,5 +128,10 @@ public class MentionClusterAgreementFeaturesExtractor implements RelationFeature
     this.cache = cache;
   }
 
+  @Override
+  public void setClusterStates(ClusterStates states) {
+    this.states = states;
+  }
+
 
 }
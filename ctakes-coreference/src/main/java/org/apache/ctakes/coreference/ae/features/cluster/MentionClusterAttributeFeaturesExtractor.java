@@ -1,5 +1,8 @@
 package org.apache.ctakes.coreference.ae.features.cluster;
 
+import org.apache.ctakes.coreference.util.ClusterState;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.relation.LocationOfTextRelation;
@@ -18,7 +21,10 @@ import java.util.List;
 import static org.apache.ctakes.coreference.ae.features.TokenFeatureExtractor.*;
 
 public class MentionClusterAttributeFeaturesExtractor implements
-    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable> {
+    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable>,
+    ClusterStateRelationExtractor {
+
+  private ClusterStates states = null;
 
   @Override
   public List<Feature> extract(JCas jCas, CollectionTextRelation cluster,
@@ -39,6 +45,28 @@ public class MentionClusterAttributeFeaturesExtractor implements
 //    boolean matchGen = true;
 //    boolean matchSubj = true;
 //    boolean matchHist = true;
+
+    if(states != null){
+      ClusterState state = states.getState(cluster);
+      if(state.beginsBefore(mention)){
+        matchNeg = !state.hasNegated(!mentionNegated);
+        matchUnc = !state.hasUncertain(!mentionUnc);
+        clusterTimex = state.hasTimex();
+      }else{
+        for(ClusterState.Member member : state.getMembers()){
+          if(member.begin > mention.getEnd()){
+            break;
+          }
+          matchNeg &= mentionNegated == member.negated;
+          matchUnc &= mentionUnc == member.uncertain;
+          clusterTimex |= member.timex;
+        }
+      }
+      features.add(new Feature("MC_AGREE_NEG", matchNeg));
+      features.add(new Feature("MC_AGREE_UNC", matchUnc));
+      features.add(new Feature("MC_AGREE_TIMEX", clusterTimex == mentionTimex));
+      return features;
+    }
     
     for(Markable member : JCasUtil.select(cluster.getMembers(), Markable.class)){
       if(member.getBegin() > mention.getEnd()){
@@ -160,4 +188,9 @@ public class MentionClusterAttributeFeaturesExtractor implements
     }
     return rel;
   }
+
+  @Override
+  public void setClusterStates(ClusterStates states) {
+    this.states = states;
+  }
 }
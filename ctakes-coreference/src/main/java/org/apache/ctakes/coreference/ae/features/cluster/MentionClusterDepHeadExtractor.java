@@ -2,6 +2,9 @@ package org.apache.ctakes.coreference.ae.features.cluster;
 
 import org.apache.ctakes.core.util.ListIterable;
 import org.apache.ctakes.coreference.ae.features.StringMatchingFeatureExtractor;
+import org.apache.ctakes.coreference.util.ClusterState;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.coreference.util.MarkableCacheRelationExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
@@ -18,9 +21,10 @@ import java.util.*;
 
 public class MentionClusterDepHeadExtractor implements
     RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable>,
-        MarkableCacheRelationExtractor{
+        MarkableCacheRelationExtractor, ClusterStateRelationExtractor{
 
   Map<Markable,ConllDependencyNode> cache = null;
+  private ClusterStates states = null;
 
   @Override
   public List<Feature> extract(JCas jCas, CollectionTextRelation cluster,
@@ -32,6 +36,30 @@ public class MentionClusterDepHeadExtractor implements
     }
 
     ConllDependencyNode mentionHead = cache.get(mention);
+
+    if(states != null){
+      if(mentionHead != null && !StringMatchingFeatureExtractor.isPronoun(mention)){
+        String headWord = mentionHead.getCoveredText().toLowerCase();
+        ClusterState state = states.getState(cluster);
+        boolean match = false;
+        if(state.beginsBefore(mention)){
+          match = state.getHeadWords().contains(headWord);
+        }else{
+          for(ClusterState.Member member : state.getMembers()){
+            if(member.begin > mention.getEnd()) break;
+            if(headWord.equals(member.headWord)){
+              match = true;
+              break;
+            }
+          }
+        }
+        if(match){
+          feats.add(new Feature("ClusterHeadMatchesMentionHead", true));
+        }
+      }
+      return feats;
+    }
+
     Set<String> memberHeads = new HashSet<>();
     Set<String> memberPaths = new HashSet<>();
     
@@ -84,4 +112,9 @@ public class MentionClusterDepHeadExtractor implements
   public void setCache(Map<Markable, ConllDependencyNode> cache) {
     this.cache = cache;
   }
+
+  @Override
+  public void setClusterStates(ClusterStates states) {
+    this.states = states;
+  }
 }
@@ -1,6 +1,9 @@
 package org.apache.ctakes.coreference.ae.features.cluster;
 
 import org.apache.ctakes.core.util.ListIterable;
+import org.apache.ctakes.coreference.util.ClusterState;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -15,7 +18,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class MentionClusterSalienceFeaturesExtractor implements
-    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable> {
+    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable>,
+    ClusterStateRelationExtractor {
+
+  private ClusterStates states = null;
 
   @Override
   public List<Feature> extract(JCas jCas, CollectionTextRelation cluster,
@@ -23,6 +29,24 @@ public class MentionClusterSalienceFeaturesExtractor implements
     List<Feature> feats = new ArrayList<>();
     
     double maxSalience = 0.0;
+    if(states != null){
+      ClusterState state = states.getState(cluster);
+      if(state.endsBefore(mention)){
+        maxSalience = state.getMaxSalience();
+      }else{
+        for(ClusterState.Member member : state.getMembers()){
+          if(mention.getBegin() < member.end){
+            break;
+          }
+          if(member.salience > maxSalience){
+            maxSalience = member.salience;
+          }
+        }
+      }
+      feats.add(new Feature("MC_MAX_SALIENCE", maxSalience));
+      return feats;
+    }
+
     for(Markable member : new ListIterable<Markable>(cluster.getMembers())){
       if(mention.getBegin() < member.getEnd()){
         // during training this might happen -- see a member of a cluster that
@@ -47,4 +71,8 @@ public class MentionClusterSalienceFeaturesExtractor implements
     return feats;
   }
 
+  @Override
+  public void setClusterStates(ClusterStates states) {
+    this.states = states;
+  }
 }
@@ -1,6 +1,9 @@
 package org.apache.ctakes.coreference.ae.features.cluster;
 
 import org.apache.ctakes.core.util.ListIterable;
+import org.apache.ctakes.coreference.util.ClusterState;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -20,12 +23,27 @@ import java.util.List;
 import java.util.Set;
 
 public class MentionClusterSectionFeaturesExtractor implements
-    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable> {
+    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, FeatureExtractor1<Markable>,
+    ClusterStateRelationExtractor {
+
+  private ClusterStates states = null;
 
   @Override
   public List<Feature> extract(JCas jcas, CollectionTextRelation cluster,
       IdentifiedAnnotation mention) throws AnalysisEngineProcessException {
     List<Feature> feats = new ArrayList<>();
+
+    if(states != null){
+      // header paragraphs of the members are found once, when they are added to the cluster
+      ClusterState state = states.getState(cluster);
+      int firstHeader = state.getFirstHeaderParagraph();
+      boolean anteHeader = firstHeader >= 0 && firstHeader < states.getParagraphsBefore(mention);
+      feats.add(new Feature("AnteInHeader", anteHeader));
+      if(anteHeader && state.hasHeaderParagraph(states.getParagraphIndex(mention)-1)){
+        feats.add(new Feature("AnteHeaderHeadsAna", true));
+      }
+      return feats;
+    }
     
     Set<Integer> parsWithAnteHeader = new HashSet<>();
     
@@ -99,4 +117,8 @@ public class MentionClusterSectionFeaturesExtractor implements
     return feats;
   }
 
+  @Override
+  public void setClusterStates(ClusterStates states) {
+    this.states = states;
+  }
 }
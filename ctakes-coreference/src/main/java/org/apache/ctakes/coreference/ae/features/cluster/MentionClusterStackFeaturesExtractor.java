@@ -1,5 +1,7 @@
 package org.apache.ctakes.coreference.ae.features.cluster;
 
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
 import org.apache.ctakes.coreference.util.ClusterUtils;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
@@ -15,7 +17,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class MentionClusterStackFeaturesExtractor implements
-    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation> {
+    RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>, ClusterStateRelationExtractor {
+
+  private ClusterStates states = null;
 
   @Override
   public List<Feature> extract(JCas jCas, CollectionTextRelation cluster,
@@ -25,7 +29,19 @@ public class MentionClusterStackFeaturesExtractor implements
     // This feature didn't work.
 //    feats.add(new Feature("ClusterSize_" + size, true));
 //    feats.add(new Feature("ClusterSize", size));
-    
+
+    if(states != null){
+      // the stack of most recent members is sorted once per mention
+      int numIntervening = states.getStackPosition(cluster, mention, true);
+      if(numIntervening < 0){
+        return feats;
+      }
+      int numNonSingletonIntervening = states.getStackPosition(cluster, mention, false);
+      feats.add(new Feature("ClusterStackPositionInclSingleton", 1 + Math.log10(numIntervening+1)));
+      feats.add(new Feature("ClusterStackPosition", 1 + Math.log10(numNonSingletonIntervening+1)));
+      return feats;
+    }
+
     NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
     Annotation mostRecent = ClusterUtils.getMostRecent(members, mention);
     if(mostRecent == null){
@@ -58,4 +74,8 @@ public class MentionClusterStackFeaturesExtractor implements
     return feats;
   }
 
+  @Override
+  public void setClusterStates(ClusterStates states) {
+    this.states = states;
+  }
 }
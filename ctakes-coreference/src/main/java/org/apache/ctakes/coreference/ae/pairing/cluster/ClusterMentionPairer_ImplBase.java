@@ -1,7 +1,11 @@
 package org.apache.ctakes.coreference.ae.pairing.cluster;
 
 //import org.apache.ctakes.coreference.ae.MentionClusterCoreferenceAnnotator.CollectionTextRelationIdentifiedAnnotationPair;
+import org.apache.ctakes.coreference.ae.EventCoreferenceAnnotator;
 import org.apache.ctakes.coreference.ae.pairing.AnnotationPairer;
+import org.apache.ctakes.coreference.util.ClusterStateRelationExtractor;
+import org.apache.ctakes.coreference.util.ClusterStates;
+import org.apache.ctakes.coreference.util.ClusterUtils;
 import org.apache.ctakes.coreference.util.MarkableCacheRelationExtractor;
 import org.apache.ctakes.dependency.parser.util.DependencyUtility;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
@@ -10,6 +14,7 @@ import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.Markable;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.NonEmptyFSList;
 import org.apache.uima.jcas.tcas.Annotation;
 
 import java.util.*;
@@ -18,17 +23,52 @@ import static org.apache.ctakes.coreference.util.ClusterMentionFetcher.Collectio
 
 //import org.apache.ctakes.dependency.parser.util.DependencyUtility;
 
-public abstract class ClusterMentionPairer_ImplBase implements AnnotationPairer<Markable, CollectionTextRelationIdentifiedAnnotationPair>, MarkableCacheRelationExtractor {
+public abstract class ClusterMentionPairer_ImplBase implements AnnotationPairer<Markable, CollectionTextRelationIdentifiedAnnotationPair>, MarkableCacheRelationExtractor, ClusterStateRelationExtractor {
   public abstract List<CollectionTextRelationIdentifiedAnnotationPair> getPairs(JCas jcas, Markable m);
   private Map<ConllDependencyNode,List<IdentifiedAnnotation>> nodeEntMap = null;
   private Map<Markable,ConllDependencyNode> cache = null;
+  private ClusterStates clusterStates = null;
 
   @Override
   public void reset(JCas jcas){
     nodeEntMap = JCasUtil.indexCovering(jcas, ConllDependencyNode.class, IdentifiedAnnotation.class);
+    clusterStates = null;
   }
-  
+
+  /**
+   * @return the first member of the cluster
+   */
+  protected Annotation getFirst(CollectionTextRelation cluster){
+    if(clusterStates != null){
+      return clusterStates.getState(cluster).getFirst();
+    }
+    return (Annotation) ((NonEmptyFSList)cluster.getMembers()).getHead();
+  }
+
+  /**
+   * @return the most recent member of the cluster before the mention, see {@link ClusterUtils#getMostRecent}
+   */
+  protected IdentifiedAnnotation getMostRecent(CollectionTextRelation cluster, Annotation mention){
+    if(clusterStates != null){
+      return (IdentifiedAnnotation) clusterStates.getState(cluster).getMostRecent(mention);
+    }
+    return (IdentifiedAnnotation) ClusterUtils.getMostRecent((NonEmptyFSList)cluster.getMembers(), mention);
+  }
+
+  /**
+   * @return the number of sentences from the beginning of arg1 to the end of arg2
+   */
+  protected int getSentenceDistance(JCas jcas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2){
+    if(clusterStates != null){
+      return clusterStates.getSentenceDistance(arg1, arg2);
+    }
+    return EventCoreferenceAnnotator.sentDist(jcas, arg1, arg2);
+  }
+
   public Set<String> getBestEnt(JCas jcas, CollectionTextRelation cluster){
+    if(clusterStates != null){
+      return clusterStates.getState(cluster).getSemanticTypes();
+    }
     Set<String> semTypes = new HashSet<>();
     for(Markable member : JCasUtil.select(cluster.getMembers(), Markable.class)){
       semTypes.addAll(getBestEnt(jcas, member));
@@ -37,6 +77,9 @@ public abstract class ClusterMentionPairer_ImplBase implements AnnotationPairer<
   }
 
   public Set<String> getBestEnt(JCas jcas, Markable markable){
+    if(clusterStates != null){
+      return clusterStates.getBestEnt(markable);
+    }
     Set<String> bestEnts = new HashSet<>();
     IdentifiedAnnotation bestEnt = null;
     Set<IdentifiedAnnotation> otherBestEnts = new HashSet<>();
@@ -80,4 +123,16 @@ public abstract class ClusterMentionPairer_ImplBase implements AnnotationPairer<
   public void setCache(Map<Markable,ConllDependencyNode> cache){
     this.cache = cache;
   }
+
+  /**
+   * Set after {@link #reset(JCas)} to pair with running cluster aggregates instead of cluster member lists.
+   */
+  @Override
+  public void setClusterStates(ClusterStates states){
+    this.clusterStates = states;
+  }
+
+  protected ClusterStates getClusterStates(){
+    return clusterStates;
+  }
 }
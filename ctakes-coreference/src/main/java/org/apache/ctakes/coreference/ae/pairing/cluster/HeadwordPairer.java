@@ -3,11 +3,14 @@ package org.apache.ctakes.coreference.ae.pairing.cluster;
 import org.apache.ctakes.coreference.ae.MentionClusterCoreferenceAnnotator;
 import org.apache.ctakes.coreference.util.ClusterMentionFetcher;
 import org.apache.ctakes.dependency.parser.util.DependencyUtility;
+import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
 import org.apache.ctakes.typesystem.type.textsem.Markable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
 
 import java.util.*;
 
@@ -36,7 +39,16 @@ public class HeadwordPairer extends ClusterMentionPairer_ImplBase {
     String head = headNode.getCoveredText().toLowerCase();
     if(headWordMarkables.containsKey(head)){
        final Set<Markable> headSet = headWordMarkables.get( head );
-       ClusterMentionFetcher.populatePairs( jcas, mention, headSet, pairs );
+       if ( getClusterStates() != null ) {
+          for ( CollectionTextRelation cluster : JCasUtil.select( jcas, CollectionTextRelation.class ) ) {
+             final Annotation mostRecent = getMostRecent( cluster, mention );
+             if ( mostRecent != null && headSet.contains( mostRecent ) ) {
+                pairs.add( new CollectionTextRelationIdentifiedAnnotationPair( cluster, mention ) );
+             }
+          }
+       } else {
+          ClusterMentionFetcher.populatePairs( jcas, mention, headSet, pairs );
+       }
     } else {
       headWordMarkables.put(head, new HashSet<Markable>());
     }
@@ -1,7 +1,5 @@
 package org.apache.ctakes.coreference.ae.pairing.cluster;
 
-import org.apache.ctakes.coreference.ae.EventCoreferenceAnnotator;
-import org.apache.ctakes.coreference.util.ClusterUtils;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.ctakes.typesystem.type.textsem.Markable;
@@ -40,17 +38,25 @@ public class SectionHeaderPairer extends ClusterMentionPairer_ImplBase {
   public List<CollectionTextRelationIdentifiedAnnotationPair> getPairs(JCas jcas, Markable mention) {
     List<CollectionTextRelationIdentifiedAnnotationPair> pairs = new ArrayList<>();
     for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
-      NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
-      Annotation first = (Annotation) members.getHead();
+      Annotation first = getFirst(cluster);
       if(first == null || mention.getBegin() <= first.getEnd()){
         continue;
       }
 
       // first check if it is sentence distance range -- if so we can ignore because it will be include by other pair generator
-      IdentifiedAnnotation mostRecent = (IdentifiedAnnotation) ClusterUtils.getMostRecent(members, mention);
-      if(mostRecent == null || EventCoreferenceAnnotator.sentDist(jcas, mostRecent, mention) <= sentDist){
+      IdentifiedAnnotation mostRecent = getMostRecent(cluster, mention);
+      if(mostRecent == null || getSentenceDistance(jcas, mostRecent, mention) <= sentDist){
+        continue;
+      }
+
+      if(getClusterStates() != null){
+        // header paragraphs of the members are found once, when they are added to the cluster
+        if(getClusterStates().getState(cluster).getMinHeaderEnd() <= mention.getBegin()){
+          pairs.add(new CollectionTextRelationIdentifiedAnnotationPair(cluster, mention));
+        }
         continue;
       }
+      NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
 
       // now check if any of the mentions are in a section header
       List<Paragraph> pars = JCasUtil.selectCovered(jcas, Paragraph.class, 0, mention.getBegin());
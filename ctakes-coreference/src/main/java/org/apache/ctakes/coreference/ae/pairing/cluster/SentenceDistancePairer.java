@@ -1,7 +1,5 @@
 package org.apache.ctakes.coreference.ae.pairing.cluster;
 
-import org.apache.ctakes.coreference.ae.EventCoreferenceAnnotator;
-import org.apache.ctakes.coreference.util.ClusterUtils;
 import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
 import org.apache.ctakes.typesystem.type.textsem.AnatomicalSiteMention;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -9,7 +7,6 @@ import org.apache.ctakes.typesystem.type.textsem.Markable;
 import org.apache.ctakes.typesystem.type.textsem.MedicationEventMention;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
-import org.apache.uima.jcas.cas.NonEmptyFSList;
 import org.apache.uima.jcas.tcas.Annotation;
 
 import java.util.ArrayList;
@@ -39,16 +36,15 @@ public class SentenceDistancePairer extends ClusterMentionPairer_ImplBase {
     Set<String> bestAnaTypes = getBestEnt(jcas, (Markable) mention);
     
     for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
-      NonEmptyFSList members = ((NonEmptyFSList)cluster.getMembers());
-      Annotation first = (Annotation) members.getHead();
+      Annotation first = getFirst(cluster);
       if(first == null || mention.getBegin() <= first.getEnd()) continue;
       
       // check for distance if they are not anatomical site or medication
       if(!(bestAnaTypes.contains(AnatomicalSiteMention.class.getSimpleName()) ||
           bestAnaTypes.contains(MedicationEventMention.class.getSimpleName()))){
   
-        IdentifiedAnnotation mostRecent = (IdentifiedAnnotation) ClusterUtils.getMostRecent(members, mention);
-        if(mostRecent == null || EventCoreferenceAnnotator.sentDist(jcas, mostRecent, mention) > this.sentDistance) continue;
+        IdentifiedAnnotation mostRecent = getMostRecent(cluster, mention);
+        if(mostRecent == null || getSentenceDistance(jcas, mostRecent, mention) > this.sentDistance) continue;
       }
   
       // check for types of cluster
@@ -0,0 +1,244 @@
+package org.apache.ctakes.coreference.util;
+
+import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.uima.jcas.cas.NonEmptyFSList;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.util.*;
+
+/**
+ * Running aggregates of one coreference cluster, kept in step with the cluster member list by {@link ClusterStates}.
+ * Member attributes are computed once when the member is added.  The aggregates cover all members, so they can
+ * answer a feature for a mention when every member precedes the mention -- always the case during decoding.
+ * During training a gold cluster can have members after the mention; extractors then scan the member records.
+ */
+public class ClusterState {
+
+  private final CollectionTextRelation cluster;
+  private final List<Member> members = new ArrayList<>();
+
+  private int maxBegin = Integer.MIN_VALUE;
+  private int maxEnd = Integer.MIN_VALUE;
+  private double maxSalience = 0.0;
+  private final Set<String> headWords = new LinkedHashSet<>();
+  private final Set<String> semTypes = new HashSet<>();
+  // indexed by attribute value: [0] some member has the value false, [1] some member has the value true
+  private final boolean[] demonstrative = new boolean[2];
+  private final boolean[] definite = new boolean[2];
+  private final boolean[] singular = new boolean[2];
+  private final boolean[] negated = new boolean[2];
+  private final boolean[] uncertain = new boolean[2];
+  private final Set<String> genders = new HashSet<>();
+  private boolean timex = false;
+  private final BitSet headerParagraphs = new BitSet();
+  private int minHeaderEnd = Integer.MAX_VALUE;
+
+  ClusterState(CollectionTextRelation cluster){
+    this.cluster = cluster;
+  }
+
+  void add(Member member){
+    members.add(member);
+    maxBegin = Math.max(maxBegin, member.begin);
+    maxEnd = Math.max(maxEnd, member.end);
+    if(member.salience > maxSalience){
+      maxSalience = member.salience;
+    }
+    if(member.headWord != null){
+      headWords.add(member.headWord);
+    }
+    semTypes.addAll(member.semTypes);
+    demonstrative[index(member.demonstrative)] = true;
+    definite[index(member.definite)] = true;
+    singular[index(member.singular)] = true;
+    negated[index(member.negated)] = true;
+    uncertain[index(member.uncertain)] = true;
+    genders.add(member.gender);
+    timex |= member.timex;
+    for(int i = member.headerParagraphs.nextSetBit(0); i >= 0; i = member.headerParagraphs.nextSetBit(i+1)){
+      headerParagraphs.set(i);
+    }
+    minHeaderEnd = Math.min(minHeaderEnd, member.minHeaderEnd);
+  }
+
+  public CollectionTextRelation getCluster(){
+    return cluster;
+  }
+
+  public List<Member> getMembers(){
+    return Collections.unmodifiableList(members);
+  }
+
+  public int size(){
+    return members.size();
+  }
+
+  public IdentifiedAnnotation getFirst(){
+    return members.isEmpty() ? null : members.get(0).markable;
+  }
+
+  /**
+   * @return end of the last member in the member list, or Integer.MIN_VALUE if the cluster has no members
+   */
+  public int getLastEnd(){
+    return members.isEmpty() ? Integer.MIN_VALUE : members.get(members.size()-1).end;
+  }
+
+  public int getMaxEnd(){
+    return maxEnd;
+  }
+
+  /**
+   * Same as {@link ClusterUtils#getMostRecent(NonEmptyFSList, Annotation)} on the cluster members.
+   */
+  public Annotation getMostRecent(Annotation focus){
+    if(members.isEmpty()){
+      return null;
+    }
+    if(maxEnd < focus.getEnd()){
+      return members.get(members.size()-1).markable;
+    }
+    return ClusterUtils.getMostRecent((NonEmptyFSList) cluster.getMembers(), focus);
+  }
+
+  /**
+   * @return position of the first member that is the given annotation, or -1
+   */
+  public int indexOf(Annotation annotation){
+    for(int i = 0; i < members.size(); i++){
+      if(members.get(i).markable == annotation){
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return true if every member ends at or before the mention begins, so the aggregates
+   * hold for members tested with <code>mention.getBegin() &lt; member.getEnd()</code>
+   */
+  public boolean endsBefore(IdentifiedAnnotation mention){
+    return maxEnd <= mention.getBegin();
+  }
+
+  /**
+   * @return true if no member begins after the mention ends, so the aggregates
+   * hold for members tested with <code>member.getBegin() &gt; mention.getEnd()</code>
+   */
+  public boolean beginsBefore(IdentifiedAnnotation mention){
+    return maxBegin <= mention.getEnd();
+  }
+
+  public double getMaxSalience(){
+    return maxSalience;
+  }
+
+  /**
+   * @return distinct lower cased head words of the members, in member order
+   */
+  public Set<String> getHeadWords(){
+    return Collections.unmodifiableSet(headWords);
+  }
+
+  /**
+   * @return union of the best entity types of the members
+   */
+  public Set<String> getSemanticTypes(){
+    return Collections.unmodifiableSet(semTypes);
+  }
+
+  public boolean hasDemonstrative(boolean value){
+    return demonstrative[index(value)];
+  }
+
+  public boolean hasDefinite(boolean value){
+    return definite[index(value)];
+  }
+
+  public boolean hasSingular(boolean value){
+    return singular[index(value)];
+  }
+
+  public boolean hasNegated(boolean value){
+    return negated[index(value)];
+  }
+
+  public boolean hasUncertain(boolean value){
+    return uncertain[index(value)];
+  }
+
+  public boolean hasGender(String gender){
+    return genders.contains(gender);
+  }
+
+  public boolean hasTimex(){
+    return timex;
+  }
+
+  /**
+   * @return true if the single sentence paragraph (header) at the index contains a member
+   */
+  public boolean hasHeaderParagraph(int index){
+    return index >= 0 && headerParagraphs.get(index);
+  }
+
+  /**
+   * @return index of the first header paragraph that contains a member, or -1
+   */
+  public int getFirstHeaderParagraph(){
+    return headerParagraphs.nextSetBit(0);
+  }
+
+  /**
+   * @return smallest end offset of a header paragraph containing a member
+   */
+  public int getMinHeaderEnd(){
+    return minHeaderEnd;
+  }
+
+  private static int index(boolean value){
+    return value ? 1 : 0;
+  }
+
+  /**
+   * Attributes of a cluster member, computed once.
+   */
+  public static class Member {
+    public final IdentifiedAnnotation markable;
+    public final int begin;
+    public final int end;
+    public final double salience;
+    public final String headWord;
+    public final Set<String> semTypes;
+    public final boolean demonstrative;
+    public final boolean definite;
+    public final String gender;
+    public final boolean singular;
+    public final boolean negated;
+    public final boolean uncertain;
+    public final boolean timex;
+    final BitSet headerParagraphs;
+    final int minHeaderEnd;
+
+    Member(IdentifiedAnnotation markable, String headWord, Set<String> semTypes, boolean demonstrative, boolean definite,
+           String gender, boolean singular, boolean negated, boolean uncertain, boolean timex,
+           BitSet headerParagraphs, int minHeaderEnd){
+      this.markable = markable;
+      this.begin = markable.getBegin();
+      this.end = markable.getEnd();
+      this.salience = markable.getConfidence();
+      this.headWord = headWord;
+      this.semTypes = semTypes;
+      this.demonstrative = demonstrative;
+      this.definite = definite;
+      this.gender = gender;
+      this.singular = singular;
+      this.negated = negated;
+      this.uncertain = uncertain;
+      this.timex = timex;
+      this.headerParagraphs = headerParagraphs;
+      this.minHeaderEnd = minHeaderEnd;
+    }
+  }
+}
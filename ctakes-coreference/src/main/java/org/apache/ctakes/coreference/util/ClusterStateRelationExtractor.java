@@ -0,0 +1,10 @@
+package org.apache.ctakes.coreference.util;
+
+/**
+ * Implemented by cluster feature extractors and pairers that can read running cluster aggregates
+ * instead of walking the member list of every candidate cluster.
+ * Without a call to setClusterStates() they compute their features from the cluster members.
+ */
+public interface ClusterStateRelationExtractor {
+    public void setClusterStates(ClusterStates states);
+}
@@ -0,0 +1,398 @@
+package org.apache.ctakes.coreference.util;
+
+import org.apache.ctakes.core.util.ListIterable;
+import org.apache.ctakes.coreference.ae.EventCoreferenceAnnotator;
+import org.apache.ctakes.dependency.parser.util.DependencyUtility;
+import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
+import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.Markable;
+import org.apache.ctakes.typesystem.type.textsem.TimeMention;
+import org.apache.ctakes.typesystem.type.textspan.Paragraph;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import java.util.*;
+
+import static org.apache.ctakes.coreference.ae.features.TokenFeatureExtractor.*;
+
+/**
+ * Incremental cluster model for mention-cluster coreference on one document.
+ * <p>
+ * Cluster features and candidate pairing used to walk the member list of every cluster in the cas for every
+ * mention-cluster pair, recomputing member attributes, sentence counts and section headers each time.
+ * This keeps a {@link ClusterState} per cluster with member attributes computed once and running aggregates,
+ * and document level lookups for sentences, paragraphs and the cluster stack.
+ * The annotator that owns the clusters must call {@link #addMember} after it appends a mention to a cluster
+ * and {@link #addCluster} after it creates a cluster.
+ * </p>
+ */
+public class ClusterStates {
+
+  private final JCas jcas;
+  private final Map<Markable, ConllDependencyNode> cache;
+  private final Map<CollectionTextRelation, ClusterState> states = new IdentityHashMap<>();
+  private final Map<IdentifiedAnnotation, Set<String>> bestEnts = new IdentityHashMap<>();
+  private Map<ConllDependencyNode, List<IdentifiedAnnotation>> nodeEntMap = null;
+
+  // sentences in index order; sentence ends are usually in the same order, which allows binary search
+  private final int[] sentBegins;
+  private final int[] sentEnds;
+  private final boolean sentEndsSorted;
+
+  // paragraphs in index order, with the largest end of any paragraph up to each index
+  private final int[] parBegins;
+  private final int[] parEnds;
+  private final int[] parMaxEnds;
+  private final BitSet headerPars = new BitSet();
+
+  // cluster stack kept up to date as clusters are created and grow: the sorted ends of the last member of
+  // every cluster, and of every cluster with more than one member.  It is the stack for any mention
+  // that ends after every cluster member, which is the case while the clusters are being decoded.
+  private boolean stackTracked = false;
+  private final SortedEnds lastEnds = new SortedEnds();
+  private final SortedEnds nonSingletonLastEnds = new SortedEnds();
+  private int maxMemberEnd = Integer.MIN_VALUE;
+
+  // cluster stack for the current mention when a cluster has members after it, e.g. gold clusters in training
+  private IdentifiedAnnotation stackMention = null;
+  private int[] stackEnds = null;
+  private int[] nonSingletonStackEnds = null;
+
+  public ClusterStates(JCas jcas, Map<Markable, ConllDependencyNode> cache){
+    this.jcas = jcas;
+    this.cache = cache;
+
+    List<Sentence> sents = new ArrayList<>(JCasUtil.select(jcas, Sentence.class));
+    sentBegins = new int[sents.size()];
+    sentEnds = new int[sents.size()];
+    boolean sorted = true;
+    for(int i = 0; i < sents.size(); i++){
+      sentBegins[i] = sents.get(i).getBegin();
+      sentEnds[i] = sents.get(i).getEnd();
+      if(i > 0 && sentEnds[i] < sentEnds[i-1]){
+        sorted = false;
+      }
+    }
+    sentEndsSorted = sorted;
+
+    List<Paragraph> pars = new ArrayList<>(JCasUtil.select(jcas, Paragraph.class));
+    parBegins = new int[pars.size()];
+    parEnds = new int[pars.size()];
+    parMaxEnds = new int[pars.size()];
+    for(int i = 0; i < pars.size(); i++){
+      Paragraph par = pars.get(i);
+      parBegins[i] = par.getBegin();
+      parEnds[i] = par.getEnd();
+      parMaxEnds[i] = i == 0 ? parEnds[i] : Math.max(parMaxEnds[i-1], parEnds[i]);
+      // paragraphs that are a single sentence are how we model section headers
+      if(JCasUtil.selectCovered(Sentence.class, par).size() == 1){
+        headerPars.set(i);
+      }
+    }
+  }
+
+  public Map<Markable, ConllDependencyNode> getCache(){
+    return cache;
+  }
+
+  /**
+   * @return the state of the cluster, built from its member list the first time it is requested
+   */
+  public ClusterState getState(CollectionTextRelation cluster){
+    ClusterState state = states.get(cluster);
+    if(state == null){
+      state = new ClusterState(cluster);
+      for(IdentifiedAnnotation member : new ListIterable<IdentifiedAnnotation>(cluster.getMembers())){
+        if(member != null){
+          state.add(createMember(member));
+        }
+      }
+      states.put(cluster, state);
+    }
+    return state;
+  }
+
+  /**
+   * Call after creating a new cluster.
+   */
+  public void addCluster(CollectionTextRelation cluster){
+    states.remove(cluster);
+    stackMention = null;
+    if(stackTracked){
+      trackCluster(getState(cluster));
+    }
+  }
+
+  /**
+   * Call after appending a mention to the member list of a cluster.
+   */
+  public void addMember(CollectionTextRelation cluster, IdentifiedAnnotation mention){
+    ClusterState state = states.get(cluster);
+    if(state != null){
+      if(stackTracked){
+        untrackCluster(state);
+      }
+      state.add(createMember(mention));
+      if(stackTracked){
+        trackCluster(state);
+      }
+    }else{
+      // a cluster that was never reported with addCluster, rebuild the stack when it is next needed
+      stackTracked = false;
+    }
+    stackMention = null;
+  }
+
+  /**
+   * @return lower cased head word of the markable, or null if it has no dependency head
+   */
+  public String getHeadWord(IdentifiedAnnotation markable){
+    ConllDependencyNode head = cache.containsKey(markable) ? cache.get(markable) : DependencyUtility.getNominalHeadNode(jcas, markable);
+    return head != null ? head.getCoveredText().toLowerCase() : null;
+  }
+
+  /**
+   * Same as {@link EventCoreferenceAnnotator#sentDist(JCas, IdentifiedAnnotation, IdentifiedAnnotation)}:
+   * the number of sentences from the beginning of the first argument to the end of the second.
+   */
+  public int getSentenceDistance(IdentifiedAnnotation arg1, IdentifiedAnnotation arg2){
+    if(!sentEndsSorted || arg1.getBegin() > arg2.getEnd()){
+      return EventCoreferenceAnnotator.sentDist(jcas, arg1, arg2);
+    }
+    int first = firstAtLeast(sentBegins, arg1.getBegin());
+    int last = firstAtLeast(sentEnds, arg2.getEnd() + 1) - 1;
+    return Math.max(0, last - first + 1);
+  }
+
+  /**
+   * @return the number of paragraphs that begin at or before the end of the mention
+   */
+  public int getParagraphsBefore(IdentifiedAnnotation mention){
+    return firstAtLeast(parBegins, mention.getEnd() + 1);
+  }
+
+  /**
+   * @return index of the last paragraph that contains the mention, or -1
+   */
+  public int getParagraphIndex(IdentifiedAnnotation mention){
+    for(int i = firstAtLeast(parBegins, mention.getBegin() + 1) - 1; i >= 0 && parMaxEnds[i] >= mention.getEnd(); i--){
+      if(parEnds[i] >= mention.getEnd()){
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * How far down the cluster is on the stack: the number of other clusters in the cas with a member
+   * before the mention that is more recent than the most recent member of this cluster.
+   *
+   * @param includeSingletons false to count only other clusters with more than one member
+   * @return the number of intervening clusters, or -1 if the cluster has no member before the mention
+   */
+  public int getStackPosition(CollectionTextRelation cluster, IdentifiedAnnotation mention, boolean includeSingletons){
+    Annotation mostRecent = getState(cluster).getMostRecent(mention);
+    if(mostRecent == null){
+      return -1;
+    }
+    if(!stackTracked){
+      trackStack();
+    }
+    if(maxMemberEnd < mention.getEnd()){
+      // the most recent member of every cluster is its last member
+      return (includeSingletons ? lastEnds : nonSingletonLastEnds).countAbove(mostRecent.getEnd());
+    }
+    if(stackMention != mention){
+      buildStack(mention);
+    }
+    int[] ends = includeSingletons ? stackEnds : nonSingletonStackEnds;
+    return ends.length - firstAtLeast(ends, mostRecent.getEnd() + 1);
+  }
+
+  private void trackStack(){
+    lastEnds.clear();
+    nonSingletonLastEnds.clear();
+    maxMemberEnd = Integer.MIN_VALUE;
+    for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
+      trackCluster(getState(cluster));
+    }
+    stackTracked = true;
+  }
+
+  private void trackCluster(ClusterState state){
+    if(state.size() == 0){
+      return;
+    }
+    lastEnds.add(state.getLastEnd());
+    if(state.size() > 1){
+      nonSingletonLastEnds.add(state.getLastEnd());
+    }
+    maxMemberEnd = Math.max(maxMemberEnd, state.getMaxEnd());
+  }
+
+  private void untrackCluster(ClusterState state){
+    if(state.size() == 0){
+      return;
+    }
+    lastEnds.remove(state.getLastEnd());
+    if(state.size() > 1){
+      nonSingletonLastEnds.remove(state.getLastEnd());
+    }
+  }
+
+  private void buildStack(IdentifiedAnnotation mention){
+    List<Integer> ends = new ArrayList<>();
+    List<Integer> nonSingletonEnds = new ArrayList<>();
+    for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
+      ClusterState state = getState(cluster);
+      Annotation mostRecent = state.getMostRecent(mention);
+      if(mostRecent != null){
+        ends.add(mostRecent.getEnd());
+        if(state.size() > 1){
+          nonSingletonEnds.add(mostRecent.getEnd());
+        }
+      }
+    }
+    stackEnds = toSortedArray(ends);
+    nonSingletonStackEnds = toSortedArray(nonSingletonEnds);
+    stackMention = mention;
+  }
+
+  /**
+   * @return the types of the longest umls entities with the same dependency head as the markable
+   */
+  public Set<String> getBestEnt(IdentifiedAnnotation markable){
+    Set<String> types = bestEnts.get(markable);
+    if(types == null){
+      types = findBestEnt(markable);
+      bestEnts.put(markable, types);
+    }
+    return types;
+  }
+
+  private Set<String> findBestEnt(IdentifiedAnnotation markable){
+    ConllDependencyNode head = cache.get(markable);
+    if(head == null){
+      return Collections.emptySet();
+    }
+    if(nodeEntMap == null){
+      nodeEntMap = JCasUtil.indexCovering(jcas, ConllDependencyNode.class, IdentifiedAnnotation.class);
+    }
+    Set<String> types = new HashSet<>();
+    IdentifiedAnnotation bestEnt = null;
+    Set<IdentifiedAnnotation> otherBestEnts = new HashSet<>();
+    for(IdentifiedAnnotation ent : nodeEntMap.get(head)){
+      if(ent.getOntologyConceptArr() == null) continue; // skip non-umls entities.
+      ConllDependencyNode entHead = DependencyUtility.getNominalHeadNode(jcas, ent);
+      if(entHead == head){
+        if(bestEnt == null){
+          bestEnt = ent;
+        }else if((ent.getEnd()-ent.getBegin()) > (bestEnt.getEnd() - bestEnt.getBegin())){
+          bestEnt = ent;
+          otherBestEnts = new HashSet<>();
+        }else if((ent.getEnd()-ent.getBegin()) == (bestEnt.getEnd() - bestEnt.getBegin())){
+          otherBestEnts.add(ent);
+        }
+      }
+    }
+    if(bestEnt != null){
+      types.add(bestEnt.getClass().getSimpleName());
+      for(IdentifiedAnnotation other : otherBestEnts){
+        types.add(other.getClass().getSimpleName());
+      }
+    }
+    return types;
+  }
+
+  private ClusterState.Member createMember(IdentifiedAnnotation markable){
+    String text = markable.getCoveredText().toLowerCase();
+    BitSet memberHeaders = new BitSet();
+    int minHeaderEnd = Integer.MAX_VALUE;
+    for(int i = firstAtLeast(parBegins, markable.getBegin() + 1) - 1; i >= 0 && parMaxEnds[i] >= markable.getEnd(); i--){
+      if(headerPars.get(i) && parEnds[i] >= markable.getEnd()){
+        memberHeaders.set(i);
+        minHeaderEnd = Math.min(minHeaderEnd, parEnds[i]);
+      }
+    }
+    ConllDependencyNode head = cache.get(markable);
+    return new ClusterState.Member(markable,
+        head != null ? head.getCoveredText().toLowerCase() : null,
+        getBestEnt(markable),
+        isDemonstrative(text),
+        isDefinite(text),
+        getGender(text),
+        numberSingular(jcas, markable, text, head),
+        isNegated(markable),
+        isUncertain(markable),
+        JCasUtil.selectCovered(TimeMention.class, markable).size() > 0,
+        memberHeaders,
+        minHeaderEnd);
+  }
+
+  private static int[] toSortedArray(List<Integer> values){
+    int[] array = new int[values.size()];
+    for(int i = 0; i < array.length; i++){
+      array[i] = values.get(i);
+    }
+    Arrays.sort(array);
+    return array;
+  }
+
+  /**
+   * Sorted multiset of member ends.  Clusters are few next to mentions, so inserts shift the array.
+   */
+  private static class SortedEnds {
+    private int[] ends = new int[16];
+    private int size = 0;
+
+    void add(int end){
+      if(size == ends.length){
+        ends = Arrays.copyOf(ends, size * 2);
+      }
+      int index = firstAtLeast(ends, size, end);
+      System.arraycopy(ends, index, ends, index + 1, size - index);
+      ends[index] = end;
+      size++;
+    }
+
+    void remove(int end){
+      int index = firstAtLeast(ends, size, end);
+      if(index < size && ends[index] == end){
+        System.arraycopy(ends, index + 1, ends, index, size - index - 1);
+        size--;
+      }
+    }
+
+    int countAbove(int end){
+      return size - firstAtLeast(ends, size, end + 1);
+    }
+
+    void clear(){
+      size = 0;
+    }
+  }
+
+  /**
+   * @return the first index in the sorted array with a value of at least the key, or the array length
+   */
+  private static int firstAtLeast(int[] sorted, int key){
+    return firstAtLeast(sorted, sorted.length, key);
+  }
+
+  private static int firstAtLeast(int[] sorted, int length, int key){
+    int low = 0;
+    int high = length;
+    while(low < high){
+      int mid = (low + high) >>> 1;
+      if(sorted[mid] < key){
+        low = mid + 1;
+      }else{
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.coreference.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.ctakes.core.util.ListFactory;
+import org.apache.ctakes.coreference.ae.EventCoreferenceAnnotator;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterAgreementFeaturesExtractor;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterAttributeFeaturesExtractor;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterDepHeadExtractor;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterDistSemExtractor;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterSalienceFeaturesExtractor;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterSectionFeaturesExtractor;
+import org.apache.ctakes.coreference.ae.features.cluster.MentionClusterStackFeaturesExtractor;
+import org.apache.ctakes.coreference.ae.pairing.cluster.ClusterMentionPairer_ImplBase;
+import org.apache.ctakes.coreference.ae.pairing.cluster.ClusterPairer;
+import org.apache.ctakes.coreference.ae.pairing.cluster.HeadwordPairer;
+import org.apache.ctakes.coreference.ae.pairing.cluster.SectionHeaderPairer;
+import org.apache.ctakes.coreference.ae.pairing.cluster.SentenceDistancePairer;
+import org.apache.ctakes.dependency.parser.util.DependencyUtility;
+import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
+import org.apache.ctakes.typesystem.type.refsem.OntologyConcept;
+import org.apache.ctakes.typesystem.type.refsem.UmlsConcept;
+import org.apache.ctakes.typesystem.type.relation.CollectionTextRelation;
+import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
+import org.apache.ctakes.typesystem.type.textsem.AnatomicalSiteMention;
+import org.apache.ctakes.typesystem.type.textsem.DiseaseDisorderMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.Markable;
+import org.apache.ctakes.typesystem.type.textsem.MedicationEventMention;
+import org.apache.ctakes.typesystem.type.textsem.SignSymptomMention;
+import org.apache.ctakes.typesystem.type.textsem.TimeMention;
+import org.apache.ctakes.typesystem.type.textspan.Paragraph;
+import org.apache.ctakes.typesystem.type.textspan.Segment;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.cas.FSList;
+import org.cleartk.ml.Feature;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Cluster features and candidate pairs computed with {@link ClusterStates} must be the same as those computed
+ * by walking the cluster member lists.  Gold clusters, which have members after the mention, exercise the scans
+ * over member records; clusters built one mention at a time exercise the running aggregates and the cluster stack.
+ */
+public class ClusterStatesTest {
+
+  private static final String[] VOCAB = {"the", "this", "pain", "pains", "he", "she", "aspirin", "fever", "it",
+      "those", "chest", "mr.", "biopsy", "tumor", "mass"};
+  private static final String[] POS = {"NN", "NNS", "PRP", "NNP", "JJ"};
+  private static final int DOCUMENTS = 12;
+
+  private static File vectorFile;
+
+  @BeforeClass
+  public static void writeVectors() throws Exception {
+    vectorFile = File.createTempFile("clusterStatesVectors", ".txt");
+    try(PrintWriter writer = new PrintWriter(vectorFile)){
+      writer.println(VOCAB.length + " 3");
+      Random random = new Random(1);
+      for(String word : VOCAB){
+        writer.println(word + " " + random.nextDouble() + " " + random.nextDouble() + " " + random.nextDouble());
+      }
+    }
+  }
+
+  @AfterClass
+  public static void deleteVectors(){
+    vectorFile.delete();
+  }
+
+  @Test
+  public void testGoldClustersMatchMemberScan() throws Exception {
+    for(int seed = 0; seed < DOCUMENTS; seed++){
+      Random random = new Random(seed);
+      JCas jcas = createDocument(random);
+      List<Markable> markables = new ArrayList<>(JCasUtil.select(jcas, Markable.class));
+      List<List<Markable>> clusters = new ArrayList<>();
+      for(Markable markable : markables){
+        if(clusters.isEmpty() || random.nextInt(3) == 0){
+          clusters.add(new ArrayList<>());
+        }
+        clusters.get(random.nextInt(clusters.size())).add(markable);
+      }
+      clusters.removeIf(List::isEmpty);
+      for(List<Markable> members : clusters){
+        CollectionTextRelation cluster = new CollectionTextRelation(jcas);
+        cluster.setMembers(FSList.create(jcas, members.toArray(new Markable[0])));
+        cluster.addToIndexes();
+      }
+      Map<Markable, ConllDependencyNode> cache = createCache(jcas);
+      ClusterStates states = new ClusterStates(jcas, cache);
+      for(int i = 0; i < 200; i++){
+        Markable arg1 = markables.get(random.nextInt(markables.size()));
+        Markable arg2 = markables.get(random.nextInt(markables.size()));
+        if(arg1.getBegin() > arg2.getEnd()){
+          Markable swap = arg1;
+          arg1 = arg2;
+          arg2 = swap;
+        }
+        assertEquals(EventCoreferenceAnnotator.sentDist(jcas, arg1, arg2), states.getSentenceDistance(arg1, arg2));
+      }
+      List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> scanExtractors = createExtractors();
+      List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> stateExtractors = createExtractors();
+      List<ClusterMentionPairer_ImplBase> scanPairers = createPairers();
+      List<ClusterMentionPairer_ImplBase> statePairers = createPairers();
+      setup(jcas, scanExtractors, scanPairers, cache, null);
+      setup(jcas, stateExtractors, statePairers, cache, states);
+      Map<CollectionTextRelation, Integer> ids = getClusterIds(jcas);
+      for(Markable markable : markables){
+        assertEquals(describePairs(scanPairers, jcas, markable, ids), describePairs(statePairers, jcas, markable, ids));
+        for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
+          assertEquals(describeFeatures(scanExtractors, jcas, cluster, markable),
+              describeFeatures(stateExtractors, jcas, cluster, markable));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDecodedClustersMatchMemberScan() throws Exception {
+    for(int seed = 0; seed < DOCUMENTS; seed++){
+      Random random = new Random(seed + 1000);
+      JCas jcas = createDocument(random);
+      List<Markable> markables = new ArrayList<>(JCasUtil.select(jcas, Markable.class));
+      Map<Markable, ConllDependencyNode> cache = createCache(jcas);
+      ClusterStates states = new ClusterStates(jcas, cache);
+      List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> scanExtractors = createExtractors();
+      List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> stateExtractors = createExtractors();
+      List<ClusterMentionPairer_ImplBase> scanPairers = createPairers();
+      List<ClusterMentionPairer_ImplBase> statePairers = createPairers();
+      setup(jcas, scanExtractors, scanPairers, cache, null);
+      setup(jcas, stateExtractors, statePairers, cache, states);
+      for(Markable markable : markables){
+        Map<CollectionTextRelation, Integer> ids = getClusterIds(jcas);
+        assertEquals(describePairs(scanPairers, jcas, markable, ids), describePairs(statePairers, jcas, markable, ids));
+        List<CollectionTextRelation> clusters = new ArrayList<>(JCasUtil.select(jcas, CollectionTextRelation.class));
+        for(CollectionTextRelation cluster : clusters){
+          assertEquals(describeFeatures(scanExtractors, jcas, cluster, markable),
+              describeFeatures(stateExtractors, jcas, cluster, markable));
+        }
+        if(clusters.isEmpty() || random.nextInt(3) == 0){
+          CollectionTextRelation chain = new CollectionTextRelation(jcas);
+          chain.setMembers(FSList.create(jcas, new Markable[]{ markable }));
+          chain.addToIndexes();
+          states.addCluster(chain);
+        }else{
+          CollectionTextRelation cluster = clusters.get(random.nextInt(clusters.size()));
+          ListFactory.append(jcas, cluster.getMembers(), markable);
+          states.addMember(cluster, markable);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return document of random sentences, paragraphs, dependency trees, umls entities, times and markables
+   */
+  private static JCas createDocument(Random random) throws Exception {
+    StringBuilder text = new StringBuilder();
+    List<int[]> sentences = new ArrayList<>();
+    List<List<int[]>> words = new ArrayList<>();
+    int sentenceCount = 20 + random.nextInt(40);
+    for(int s = 0; s < sentenceCount; s++){
+      int begin = text.length();
+      int wordCount = 1 + random.nextInt(6);
+      List<int[]> sentenceWords = new ArrayList<>();
+      for(int w = 0; w < wordCount; w++){
+        if(w > 0){
+          text.append(' ');
+        }
+        int wordBegin = text.length();
+        text.append(VOCAB[random.nextInt(VOCAB.length)]);
+        sentenceWords.add(new int[]{wordBegin, text.length()});
+      }
+      sentences.add(new int[]{begin, text.length()});
+      words.add(sentenceWords);
+      text.append(random.nextInt(3) == 0 ? "\n" : " ");
+    }
+    JCas jcas = JCasFactory.createJCas();
+    jcas.setDocumentText(text.toString());
+    new Segment(jcas, 0, text.length()).addToIndexes();
+    // paragraphs of one to three sentences, those with one sentence are section headers
+    for(int s = 0; s < sentenceCount;){
+      int next = Math.min(sentenceCount, s + 1 + (random.nextBoolean() ? 0 : random.nextInt(3)));
+      new Paragraph(jcas, sentences.get(s)[0], sentences.get(next-1)[1]).addToIndexes();
+      s = next;
+    }
+    for(int s = 0; s < sentenceCount; s++){
+      new Sentence(jcas, sentences.get(s)[0], sentences.get(s)[1]).addToIndexes();
+      ConllDependencyNode root = new ConllDependencyNode(jcas, sentences.get(s)[0], sentences.get(s)[1]);
+      root.setId(0);
+      root.addToIndexes();
+      List<int[]> sentenceWords = words.get(s);
+      List<ConllDependencyNode> nodes = new ArrayList<>();
+      for(int w = 0; w < sentenceWords.size(); w++){
+        ConllDependencyNode node = new ConllDependencyNode(jcas, sentenceWords.get(w)[0], sentenceWords.get(w)[1]);
+        node.setId(w+1);
+        node.setPostag(POS[random.nextInt(POS.length)]);
+        node.setDeprel("dep");
+        nodes.add(node);
+      }
+      int headIndex = random.nextInt(nodes.size());
+      for(int w = 0; w < nodes.size(); w++){
+        nodes.get(w).setHead(w == headIndex ? root : nodes.get(headIndex));
+        nodes.get(w).addToIndexes();
+      }
+      for(int w = 0; w < sentenceWords.size(); w++){
+        if(random.nextInt(4) == 0){
+          int end = Math.min(sentenceWords.size()-1, w + random.nextInt(2));
+          IdentifiedAnnotation entity;
+          switch(random.nextInt(4)){
+            case 0: entity = new DiseaseDisorderMention(jcas); break;
+            case 1: entity = new AnatomicalSiteMention(jcas); break;
+            case 2: entity = new MedicationEventMention(jcas); break;
+            default: entity = new SignSymptomMention(jcas);
+          }
+          entity.setBegin(sentenceWords.get(w)[0]);
+          entity.setEnd(sentenceWords.get(end)[1]);
+          UmlsConcept concept = new UmlsConcept(jcas);
+          concept.setCui("C" + random.nextInt(5));
+          concept.setTui("T" + random.nextInt(3));
+          FSArray<OntologyConcept> concepts = new FSArray<>(jcas, 1);
+          concepts.set(0, concept);
+          entity.setOntologyConceptArr(concepts);
+          entity.addToIndexes();
+        }
+        if(random.nextInt(8) == 0){
+          new TimeMention(jcas, sentenceWords.get(w)[0], sentenceWords.get(w)[1]).addToIndexes();
+        }
+      }
+      for(int w = 0; w < sentenceWords.size(); w++){
+        if(random.nextInt(2) == 0){
+          int end = Math.min(sentenceWords.size()-1, w + random.nextInt(3));
+          Markable markable = new Markable(jcas, sentenceWords.get(w)[0], sentenceWords.get(end)[1]);
+          markable.setConfidence(random.nextFloat());
+          markable.setPolarity(random.nextInt(3) == 0 ? -1 : 1);
+          markable.setUncertainty(random.nextInt(3) == 0 ? 1 : 0);
+          markable.addToIndexes();
+        }
+      }
+    }
+    return jcas;
+  }
+
+  private static Map<Markable, ConllDependencyNode> createCache(JCas jcas){
+    Map<Markable, ConllDependencyNode> cache = new HashMap<>();
+    for(Markable markable : JCasUtil.select(jcas, Markable.class)){
+      cache.put(markable, DependencyUtility.getNominalHeadNode(jcas, markable));
+    }
+    return cache;
+  }
+
+  private static List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> createExtractors() throws Exception {
+    return Arrays.asList(new MentionClusterAgreementFeaturesExtractor(),
+        new MentionClusterSectionFeaturesExtractor(),
+        new MentionClusterDepHeadExtractor(),
+        new MentionClusterStackFeaturesExtractor(),
+        new MentionClusterSalienceFeaturesExtractor(),
+        new MentionClusterAttributeFeaturesExtractor(),
+        new MentionClusterDistSemExtractor(vectorFile.getPath()));
+  }
+
+  private static List<ClusterMentionPairer_ImplBase> createPairers(){
+    return Arrays.asList(new SentenceDistancePairer(2), new SectionHeaderPairer(2), new ClusterPairer(3),
+        new HeadwordPairer());
+  }
+
+  private static void setup(JCas jcas,
+                            List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> extractors,
+                            List<ClusterMentionPairer_ImplBase> pairers,
+                            Map<Markable, ConllDependencyNode> cache,
+                            ClusterStates states){
+    for(RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation> extractor : extractors){
+      if(extractor instanceof MarkableCacheRelationExtractor){
+        ((MarkableCacheRelationExtractor)extractor).setCache(cache);
+      }
+      if(states != null && extractor instanceof ClusterStateRelationExtractor){
+        ((ClusterStateRelationExtractor)extractor).setClusterStates(states);
+      }
+    }
+    for(ClusterMentionPairer_ImplBase pairer : pairers){
+      pairer.reset(jcas);
+      pairer.setCache(cache);
+      if(states != null){
+        pairer.setClusterStates(states);
+      }
+    }
+  }
+
+  private static String describeFeatures(List<RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation>> extractors,
+                                         JCas jcas, CollectionTextRelation cluster, Markable markable) throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for(RelationFeaturesExtractor<CollectionTextRelation, IdentifiedAnnotation> extractor : extractors){
+      for(Feature feature : extractor.extract(jcas, cluster, markable)){
+        sb.append(feature.getName()).append('=').append(feature.getValue()).append(';');
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String describePairs(List<ClusterMentionPairer_ImplBase> pairers, JCas jcas, Markable markable,
+                                      Map<CollectionTextRelation, Integer> ids){
+    StringBuilder sb = new StringBuilder();
+    for(ClusterMentionPairer_ImplBase pairer : pairers){
+      sb.append(pairer.getClass().getSimpleName()).append(':');
+      for(ClusterMentionFetcher.CollectionTextRelationIdentifiedAnnotationPair pair : pairer.getPairs(jcas, markable)){
+        sb.append(ids.get(pair.getCluster())).append(',');
+      }
+    }
+    return sb.toString();
+  }
+
+  private static Map<CollectionTextRelation, Integer> getClusterIds(JCas jcas){
+    Map<CollectionTextRelation, Integer> ids = new IdentityHashMap<>();
+    for(CollectionTextRelation cluster : JCasUtil.select(jcas, CollectionTextRelation.class)){
+      ids.put(cluster, ids.size());
+    }
+    return ids;
+  }
+}
@@ -1,6 +1,6 @@
 package org.apache.ctakes.dependency.parser.concurrent;
 
-import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
+import org.apache.ctakes.core.concurrent.ThreadSafePool;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.dependency.parser.ae.ClearNLPDependencyParserAE;
 import org.slf4j.Logger;
@@ -16,8 +16,9 @@ import org.apache.uima.resource.ResourceInitializationException;
 
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
- * Made a singleton mostly for model memory.
- * ClearNLPDependencyParserAE is almost thread safe ... the shared models are not immutable.
+ * A static pool holds parsers, one per pipeline thread and configuration.
+ * The parser and lemmatizer models are external shared resources, so the pooled parsers do not hold copies of them.
+ * ClearNLPDependencyParserAE is almost thread safe ... the shared models are not immutable, so parsing is still locked.
  * {@inheritDoc}
  *
  * @author SPF , chip-nlp
@@ -43,12 +44,18 @@ final public class ThreadSafeClearNlpDepParser extends ClearNLPDependencyParserA
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadSafeClearNlpSemRoleLabeler" );
 
+   static private final ThreadSafePool<ClearNLPDependencyParserAE> POOL
+         = new ThreadSafePool<>( ClearNLPDependencyParserAE::new );
+
+   // key of the delegate pool for the configuration of this annotator
+   private String _poolKey;
+
    /**
     * {@inheritDoc}
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      DepSingleton.getInstance().initialize( context );
+      _poolKey = POOL.addDelegate( context );
    }
 
    /**
@@ -56,7 +63,26 @@ final public class ThreadSafeClearNlpDepParser extends ClearNLPDependencyParserA
     */
    @Override
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-      DepSingleton.getInstance().process( jCas );
+      POOL.process( _poolKey, jCas );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      POOL.collectionProcessComplete( _poolKey );
+   }
+
+   /**
+    * Destroys the delegate added by this annotator.
+    */
+   @Override
+   public void destroy() {
+      if ( _poolKey != null ) {
+         POOL.removeDelegate( _poolKey );
+         _poolKey = null;
+      }
    }
 
    // If someone calls this, they want the default model, lazy initialization of the external resources:
@@ -71,41 +97,4 @@ final public class ThreadSafeClearNlpDepParser extends ClearNLPDependencyParserA
             ThreadSafeClearNlpDepParser.class, DEP_MODEL_KEY, parserDesc, LEM_MODEL_KEY, lemmaDesc );
    }
 
-   private enum DepSingleton implements ThreadSafeWrapper<ClearNLPDependencyParserAE> {
-      INSTANCE;
-
-      static public DepSingleton getInstance() {
-         return INSTANCE;
-      }
-
-      private final ClearNLPDependencyParserAE _delegate;
-      private boolean _initialized;
-
-      DepSingleton() {
-         _delegate = new ClearNLPDependencyParserAE();
-      }
-
-      final private Object LOCK = new Object();
-
-      @Override
-      public Object getLock() {
-         return LOCK;
-      }
-
-      @Override
-      public ClearNLPDependencyParserAE getDelegate() {
-         return _delegate;
-      }
-
-      @Override
-      public boolean isInitialized() {
-         return _initialized;
-      }
-
-      @Override
-      public void setInitialized( final boolean initialized ) {
-         _initialized = initialized;
-      }
-   }
-
 }
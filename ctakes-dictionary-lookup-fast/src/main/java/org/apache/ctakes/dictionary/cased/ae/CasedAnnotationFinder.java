@@ -14,6 +14,7 @@ import org.apache.ctakes.dictionary.cased.encoder.*;
 import org.apache.ctakes.dictionary.cased.lookup.DiscoveredTerm;
 import org.apache.ctakes.dictionary.cased.lookup.LookupEngine;
 import org.apache.ctakes.dictionary.cased.lookup.LookupToken;
+import org.apache.ctakes.dictionary.cased.lookup.TrieLookupEngine;
 import org.apache.ctakes.dictionary.lookup2.ae.JCasTermAnnotator;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
@@ -31,6 +32,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.function.Function;
@@ -129,6 +131,12 @@ final public class CasedAnnotationFinder extends JCasAnnotator_ImplBase {
    private int _totalSkipMax = 4;
 
 
+   @ConfigurationParameter( name = "lookupEngine", mandatory = false,
+         description = "Lookup engine to use.  Standard or Trie.  Trie compiles dictionaries into an automaton.",
+         defaultValue = "Standard" )
+   private String _lookupEngineName = "Standard";
+
+
    @ConfigurationParameter( name = "subsume", mandatory = false,
          description = "Subsume contained terms of the same semantic group.", defaultValue = "yes" )
    private String _subsume = "yes";
@@ -153,6 +161,8 @@ final public class CasedAnnotationFinder extends JCasAnnotator_ImplBase {
 
    private AnnotationCreator _annotationCreator;
 
+   private LookupEngine _lookupEngine;
+
    final private Collection<String> _lookupPos = new HashSet<>();
 
    final private Map<SemanticTui, SemanticGroup> _semanticReassignment = new HashMap<>();
@@ -173,6 +183,11 @@ final public class CasedAnnotationFinder extends JCasAnnotator_ImplBase {
          _annotationCreator = new NonSubsumingAnnotationCreator();
       }
 
+      if ( _lookupEngineName.equalsIgnoreCase( "Trie" ) ) {
+         _lookupEngine = new TrieLookupEngine();
+      } else {
+         _lookupEngine = new LookupEngine();
+      }
       setupDictionaries( context );
       setupEncoders( context );
       setupPos();
@@ -219,10 +234,13 @@ final public class CasedAnnotationFinder extends JCasAnnotator_ImplBase {
             case BsvListDictionary
                   .DICTIONARY_TYPE:
                return new BsvListDictionary( name, context );
+            case MappedDictionary
+                  .DICTIONARY_TYPE:
+               return new MappedDictionary( name, context );
             default:
                LOGGER.error( "Unknown Dictionary type " + type + " specified for " + name );
          }
-      } catch ( SQLException multE ) {
+      } catch ( SQLException | IOException multE ) {
          LOGGER.error( multE.getMessage() );
       }
       return null;
@@ -425,7 +443,7 @@ final public class CasedAnnotationFinder extends JCasAnnotator_ImplBase {
 
 
    private LookupEngine getLookupEngine() {
-      return new LookupEngine();
+      return _lookupEngine;
    }
 
 
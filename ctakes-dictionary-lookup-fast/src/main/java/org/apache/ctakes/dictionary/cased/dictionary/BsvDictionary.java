@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 
 /**
@@ -24,13 +25,13 @@ import java.util.Map;
  * @version %I%
  * @since 8/13/2020
  */
-final public class BsvDictionary implements CasedDictionary {
+final public class BsvDictionary implements CompilableDictionary {
 
    static public final String DICTIONARY_TYPE = "BSV";
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "BsvDictionary" );
 
-   final private CasedDictionary _delegateDictionary;
+   final private InMemoryDictionary _delegateDictionary;
 
    /**
     * @param name        unique name for dictionary
@@ -69,6 +70,22 @@ final public class BsvDictionary implements CasedDictionary {
       return _delegateDictionary.getCandidateTerms( lookupToken );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void forEachCandidateTerm( final Consumer<CandidateTerm> consumer ) {
+      _delegateDictionary.forEachCandidateTerm( consumer );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean isFirstTableLookup() {
+      return _delegateDictionary.isFirstTableLookup();
+   }
+
    /**
     * Create a collection of {@link TokenizedTerm} Objects
     * by parsing a bsv file.  The file can be in one of two columnar formats:
@@ -79,7 +96,7 @@ final public class BsvDictionary implements CasedDictionary {
     * @param bsvFilePath path to file containing term rows and bsv columns
     * @return collection of all valid terms read from the bsv file
     */
-   static private Collection<TokenizedTerm> parseBsvFile( final String bsvFilePath ) {
+   static public Collection<TokenizedTerm> parseBsvFile( final String bsvFilePath ) {
       try {
          return BsvFileParser.parseBsvFile( bsvFilePath, new TokenizedTermCreator() );
       } catch ( IOException ioE ) {
@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.apache.uima.UimaContext;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 
 /**
@@ -19,13 +20,13 @@ import java.util.*;
  * @version %I%
  * @since 8/13/2020
  */
-final public class BsvListDictionary implements CasedDictionary {
+final public class BsvListDictionary implements CompilableDictionary {
 
    static public final String DICTIONARY_TYPE = "BSV_LIST";
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "BsvListDictionary" );
 
-   final private CasedDictionary _delegateDictionary;
+   final private InMemoryDictionary _delegateDictionary;
 
    /**
     * @param name        unique name for dictionary
@@ -65,6 +66,22 @@ final public class BsvListDictionary implements CasedDictionary {
       return _delegateDictionary.getCandidateTerms( lookupToken );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void forEachCandidateTerm( final Consumer<CandidateTerm> consumer ) {
+      _delegateDictionary.forEachCandidateTerm( consumer );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean isFirstTableLookup() {
+      return _delegateDictionary.isFirstTableLookup();
+   }
+
    /**
     * Create a collection of {@link TokenizedTerm} Objects
     * by parsing a bsv file.  The file can be in one of two columnar formats:
@@ -0,0 +1,35 @@
+package org.apache.ctakes.dictionary.cased.dictionary;
+
+import org.apache.ctakes.dictionary.cased.lookup.CandidateTerm;
+
+import java.util.function.Consumer;
+
+/**
+ * A dictionary that can list all of its terms, so that they can be compiled into another structure
+ * such as the automaton used by {@link org.apache.ctakes.dictionary.cased.lookup.TrieLookupEngine}.
+ * <p>
+ * Terms are stored in uppercase, mixed case and lowercase tables according to the case of the term.
+ * Like {@link JdbcDictionary}, most dictionaries return candidates from every table that matches the case
+ * of a lookup token.  Some, like {@link InMemoryDictionary}, only return candidates from the first such table
+ * that contains the lookup token.
+ * </p>
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public interface CompilableDictionary extends CasedDictionary {
+
+   /**
+    * @param consumer accepts every term in the dictionary
+    */
+   void forEachCandidateTerm( Consumer<CandidateTerm> consumer );
+
+   /**
+    * @return true if only the first table (uppercase, mixed case, lowercase) with a hit for a lookup token is used.
+    */
+   default boolean isFirstTableLookup() {
+      return false;
+   }
+
+}
@@ -6,13 +6,14 @@ import org.apache.ctakes.dictionary.cased.lookup.LookupToken;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author SPF , chip-nlp
  * @version %I%
  * @since 8/13/2020
  */
-final public class InMemoryDictionary implements CasedDictionary {
+final public class InMemoryDictionary implements CompilableDictionary {
 
    private final String _name;
 
@@ -67,4 +68,22 @@ final public class InMemoryDictionary implements CasedDictionary {
    }
 
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void forEachCandidateTerm( final Consumer<CandidateTerm> consumer ) {
+      _upperTermMap.values().forEach( c -> c.forEach( consumer ) );
+      _mixedTermMap.values().forEach( c -> c.forEach( consumer ) );
+      _lowerTermMap.values().forEach( c -> c.forEach( consumer ) );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean isFirstTableLookup() {
+      return true;
+   }
+
 }
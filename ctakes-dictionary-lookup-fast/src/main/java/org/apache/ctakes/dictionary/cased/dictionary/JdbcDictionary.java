@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.UimaContext;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -15,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.apache.ctakes.dictionary.cased.table.column.Synonym.*;
 import static org.apache.ctakes.dictionary.cased.util.jdbc.JdbcUtil.*;
@@ -25,10 +27,13 @@ import static org.apache.ctakes.dictionary.cased.util.jdbc.JdbcUtil.*;
  * @version %I%
  * @since 8/14/2020
  */
-final public class JdbcDictionary implements CasedDictionary {
+final public class JdbcDictionary implements CompilableDictionary {
 
    static public final String DICTIONARY_TYPE = "JDBC";
 
+   // rows per fetch when streaming whole tables
+   static private final int STREAM_FETCH_SIZE = 1000;
+
    static private final Logger LOGGER = LoggerFactory.getLogger( "JdbcDictionary" );
 
    static private final String snomed_rxnorm_2020aa_url
@@ -44,6 +49,10 @@ final public class JdbcDictionary implements CasedDictionary {
    private final PreparedStatement _selectMixedCall;
    private final PreparedStatement _selectLowerCall;
 
+   private final String _upperName;
+   private final String _mixedName;
+   private final String _lowerName;
+
 
    /**
     * @param name        unique name for dictionary
@@ -79,6 +88,9 @@ final public class JdbcDictionary implements CasedDictionary {
                           final String jdbcUser,
                           final String jdbcPass ) throws SQLException {
       _name = name;
+      _upperName = upperName;
+      _mixedName = mixedName;
+      _lowerName = lowerName;
       _selectUpperCall = JdbcUtil.createPreparedStatement( name,
             jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, upperName, INDEX_WORD.name() );
       LOGGER.info( "Connected to " + name + " table " + upperName );
@@ -233,5 +245,49 @@ final public class JdbcDictionary implements CasedDictionary {
       return candidateTerms;
    }
 
+   /**
+    * Reads every row of the uppercase, mixed case and lowercase tables.
+    * {@inheritDoc}
+    */
+   @Override
+   public void forEachCandidateTerm( final Consumer<CandidateTerm> consumer ) {
+      try {
+         forEachCandidateTerm( _selectUpperCall.getConnection(), _upperName, true, false, consumer );
+         forEachCandidateTerm( _selectMixedCall.getConnection(), _mixedName, false, false, consumer );
+         forEachCandidateTerm( _selectLowerCall.getConnection(), _lowerName, false, true, consumer );
+      } catch ( SQLException e ) {
+         LOGGER.error( e.getMessage() );
+      }
+   }
+
+   /**
+    * Streams the rows of a table to the consumer.
+    * The statement is forward only and read only with a fetch size so that drivers that support cursors
+    * hold only a block of rows at a time instead of building the whole table in memory.
+    */
+   static private void forEachCandidateTerm( final Connection connection,
+                                             final String tableName,
+                                             final boolean lookupAllUpper,
+                                             final boolean lookupAllLower,
+                                             final Consumer<CandidateTerm> consumer ) throws SQLException {
+      try ( PreparedStatement statement = connection.prepareStatement( "SELECT * FROM " + tableName,
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY ) ) {
+         statement.setFetchSize( STREAM_FETCH_SIZE );
+         try ( ResultSet resultSet = statement.executeQuery() ) {
+            while ( resultSet.next() ) {
+               consumer.accept( new CandidateTerm(
+                     resultSet.getLong( CUI.getColumn() ),
+                     resultSet.getString( PREFIX.getColumn() ),
+                     resultSet.getString( INDEX_WORD.getColumn() ),
+                     resultSet.getString( SUFFIX.getColumn() ),
+                     lookupAllUpper,
+                     lookupAllLower,
+                     resultSet.getInt( RANK.getColumn() ),
+                     resultSet.getInt( INSTANCES.getColumn() ) ) );
+            }
+         }
+      }
+   }
+
 
 }
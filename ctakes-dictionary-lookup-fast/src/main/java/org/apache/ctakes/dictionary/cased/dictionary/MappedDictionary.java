@@ -0,0 +1,118 @@
+package org.apache.ctakes.dictionary.cased.dictionary;
+
+
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.dictionary.cased.lookup.CandidateTerm;
+import org.apache.ctakes.dictionary.cased.lookup.LookupToken;
+import org.apache.ctakes.dictionary.cased.util.mapped.MappedTermFile;
+import org.apache.ctakes.utils.env.EnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.uima.UimaContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.function.Consumer;
+
+
+/**
+ * Dictionary backed by a memory-mapped {@link MappedTermFile}.
+ * The file is compiled from a bsv or jdbc dictionary by
+ * {@link org.apache.ctakes.dictionary.lookup2.util.tool.MappedDictionaryCompiler}.
+ * Startup is nearly instant, the dictionary does not occupy heap, and lookups do not contend on a database connection.
+ * Table 0 holds uppercase terms, table 1 mixed case terms and table 2 lowercase terms.
+ * Records hold the prefix, suffix, rank and instances of each term.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class MappedDictionary implements CompilableDictionary {
+
+   static public final String DICTIONARY_TYPE = "MAPPED";
+
+   static public final int UPPER_TABLE = 0;
+   static public final int MIXED_TABLE = 1;
+   static public final int LOWER_TABLE = 2;
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "MappedDictionary" );
+
+   private final String _name;
+   private final MappedTermFile _termFile;
+
+   /**
+    * @param name        unique name for dictionary
+    * @param uimaContext -
+    * @throws IOException if the mapped file could not be read
+    */
+   public MappedDictionary( final String name, final UimaContext uimaContext ) throws IOException {
+      this( name, EnvironmentVariable.getEnv( name + "_file", uimaContext ) );
+   }
+
+   /**
+    * @param name       unique name for dictionary
+    * @param mappedPath path to mapped dictionary file
+    * @throws IOException if the mapped file could not be read
+    */
+   public MappedDictionary( final String name, final String mappedPath ) throws IOException {
+      _name = name;
+      final File file = FileLocator.getFile( mappedPath );
+      _termFile = new MappedTermFile( file );
+      LOGGER.info( "Mapped " + name + " dictionary file " + file.getPath() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String getName() {
+      return _name;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Collection<CandidateTerm> getCandidateTerms( final LookupToken lookupToken ) {
+      final Collection<CandidateTerm> candidates = new HashSet<>();
+      if ( lookupToken.isAllUpperCase() ) {
+         addCandidateTerms( UPPER_TABLE, lookupToken.getText(), true, false, candidates );
+      }
+      if ( !lookupToken.isAllLowerCase() ) {
+         addCandidateTerms( MIXED_TABLE, lookupToken.getText(), false, false, candidates );
+      }
+      addCandidateTerms( LOWER_TABLE, lookupToken.getLowerText(), false, true, candidates );
+      return candidates;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void forEachCandidateTerm( final Consumer<CandidateTerm> consumer ) {
+      forEachCandidateTerm( UPPER_TABLE, true, false, consumer );
+      forEachCandidateTerm( MIXED_TABLE, false, false, consumer );
+      forEachCandidateTerm( LOWER_TABLE, false, true, consumer );
+   }
+
+   private void forEachCandidateTerm( final int table,
+                                      final boolean lookupAllUpper, final boolean lookupAllLower,
+                                      final Consumer<CandidateTerm> consumer ) {
+      _termFile.forEachRecord( table,
+            ( rareWord, cui, prefix, suffix, rank, instances )
+                  -> consumer.accept( new CandidateTerm( cui, prefix, rareWord, suffix,
+                  lookupAllUpper, lookupAllLower, rank, instances ) ) );
+   }
+
+   private void addCandidateTerms( final int table, final String text,
+                                   final boolean lookupAllUpper, final boolean lookupAllLower,
+                                   final Collection<CandidateTerm> candidates ) {
+      _termFile.findRecords( table, text,
+            ( cui, prefix, suffix, rank, instances )
+                  -> candidates.add( new CandidateTerm( cui, prefix, text, suffix,
+                  lookupAllUpper, lookupAllLower, rank, instances ) ) );
+   }
+
+}
@@ -25,10 +25,10 @@ public class LookupEngine {
     * @param lookupTokens -
     * @return map of text spans to terms discovered at those text spans.
     */
-   public final Map<Pair<Integer>, Collection<DiscoveredTerm>> findTerms( final CasedDictionary dictionary,
-                                                                          final List<LookupToken> lookupTokens,
-                                                                          final int consecutiveSkipMax,
-                                                                          final int totalSkipMax ) {
+   public Map<Pair<Integer>, Collection<DiscoveredTerm>> findTerms( final CasedDictionary dictionary,
+                                                                    final List<LookupToken> lookupTokens,
+                                                                    final int consecutiveSkipMax,
+                                                                    final int totalSkipMax ) {
       final Map<Pair<Integer>, Collection<DiscoveredTerm>> discoveredTermMap = new HashMap<>();
       int lookupTokenIndex = -1;
       Collection<CandidateTerm> candidateTerms;
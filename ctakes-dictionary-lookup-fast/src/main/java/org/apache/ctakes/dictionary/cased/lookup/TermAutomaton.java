@@ -0,0 +1,221 @@
+package org.apache.ctakes.dictionary.cased.lookup;
+
+
+import org.apache.ctakes.core.util.Pair;
+import org.apache.ctakes.dictionary.cased.dictionary.CompilableDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over lowercase tokens, compiled from all terms in a {@link CompilableDictionary}.
+ * <p>
+ * Every term in a window of tokens is found in one pass over the tokens, without per-candidate
+ * prefix and suffix comparisons.  Each state of the automaton is a lowercase token sequence.
+ * Terms are kept at the state of their full token sequence and case rules are only checked for complete matches.
+ * The results are those of {@link LookupEngine} for the same dictionary.
+ * </p>
+ * A compiled automaton is immutable and can be used by multiple threads.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class TermAutomaton {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "TermAutomaton" );
+
+   static private final class State {
+      private Map<String, State> __children;
+      private State __failure;
+      // nearest state in the failure chain that holds terms
+      private State __output;
+      private CandidateTerm[] __terms;
+      private final int __depth;
+
+      private State( final int depth ) {
+         __depth = depth;
+      }
+
+      private State getChild( final String token ) {
+         return __children == null ? null : __children.get( token );
+      }
+
+      private State getOrCreateChild( final String token ) {
+         if ( __children == null ) {
+            __children = new HashMap<>( 2 );
+         }
+         return __children.computeIfAbsent( token, t -> new State( __depth + 1 ) );
+      }
+
+      private void addTerm( final CandidateTerm term ) {
+         if ( __terms == null ) {
+            __terms = new CandidateTerm[]{ term };
+         } else {
+            __terms = Arrays.copyOf( __terms, __terms.length + 1 );
+            __terms[ __terms.length - 1 ] = term;
+         }
+      }
+   }
+
+   private final State _root = new State( 0 );
+   private final boolean _firstTableLookup;
+   // Index words of uppercase and mixed case terms, used for dictionaries with first table lookup.
+   private final Set<String> _upperIndexWords = new HashSet<>();
+   private final Set<String> _mixedIndexWords = new HashSet<>();
+   private int _termCount;
+
+   /**
+    * @param dictionary dictionary with terms to compile
+    */
+   public TermAutomaton( final CompilableDictionary dictionary ) {
+      LOGGER.info( "Compiling Term Automaton for " + dictionary.getName() + " ..." );
+      _firstTableLookup = dictionary.isFirstTableLookup();
+      final Map<String, String> tokenPool = new HashMap<>();
+      dictionary.forEachCandidateTerm( t -> addTerm( t, tokenPool ) );
+      createFailureLinks();
+      LOGGER.info( "Compiled " + _termCount + " terms for " + dictionary.getName() );
+   }
+
+   private void addTerm( final CandidateTerm term, final Map<String, String> tokenPool ) {
+      State state = _root;
+      for ( String token : term.getTokens() ) {
+         final String lower = token.toLowerCase();
+         state = state.getOrCreateChild( tokenPool.computeIfAbsent( lower, l -> l ) );
+      }
+      state.addTerm( term );
+      if ( _firstTableLookup ) {
+         final String indexWord = term.getTokens()[ term.getRareWordIndex() ];
+         if ( term.isAllUpperCase() ) {
+            _upperIndexWords.add( indexWord );
+         } else if ( !term.isAllLowerCase() ) {
+            _mixedIndexWords.add( indexWord );
+         }
+      }
+      _termCount++;
+   }
+
+   private void createFailureLinks() {
+      final Deque<State> queue = new ArrayDeque<>();
+      if ( _root.__children != null ) {
+         for ( State child : _root.__children.values() ) {
+            child.__failure = _root;
+            queue.add( child );
+         }
+      }
+      while ( !queue.isEmpty() ) {
+         final State state = queue.poll();
+         if ( state.__children == null ) {
+            continue;
+         }
+         for ( Map.Entry<String, State> entry : state.__children.entrySet() ) {
+            final State child = entry.getValue();
+            State failure = state.__failure;
+            while ( failure != _root && failure.getChild( entry.getKey() ) == null ) {
+               failure = failure.__failure;
+            }
+            final State next = failure.getChild( entry.getKey() );
+            child.__failure = next == null ? _root : next;
+            child.__output = child.__failure.__terms != null ? child.__failure : child.__failure.__output;
+            queue.add( child );
+         }
+      }
+   }
+
+   /**
+    * @return number of compiled terms
+    */
+   public int getTermCount() {
+      return _termCount;
+   }
+
+   /**
+    * @param lookupTokens tokens in a window, such as a sentence
+    * @return map of text spans to terms discovered at those text spans.
+    */
+   public Map<Pair<Integer>, Collection<DiscoveredTerm>> findTerms( final List<LookupToken> lookupTokens ) {
+      final Map<Pair<Integer>, Collection<DiscoveredTerm>> discoveredTermMap = new HashMap<>();
+      State state = _root;
+      for ( int end = 0; end < lookupTokens.size(); end++ ) {
+         final String lower = lookupTokens.get( end ).getLowerText();
+         State next = state.getChild( lower );
+         while ( next == null && state != _root ) {
+            state = state.__failure;
+            next = state.getChild( lower );
+         }
+         state = next == null ? _root : next;
+         State output = state.__terms != null ? state : state.__output;
+         while ( output != null ) {
+            final int begin = end - output.__depth + 1;
+            for ( CandidateTerm term : output.__terms ) {
+               if ( isMatch( term, lookupTokens, begin ) ) {
+                  final Pair<Integer> span = begin == end
+                                             ? lookupTokens.get( begin ).getTextSpan()
+                                             : new Pair<>( lookupTokens.get( begin ).getBegin(),
+                                                   lookupTokens.get( end ).getEnd() );
+                  discoveredTermMap.computeIfAbsent( span, s -> new HashSet<>() )
+                                   .add( new DiscoveredTerm( term ) );
+               }
+            }
+            output = output.__output;
+         }
+      }
+      return discoveredTermMap;
+   }
+
+   /**
+    * The lowercase tokens of the term are known to match.  Check the index word and case rules.
+    *
+    * @param term         term whose lowercase tokens match the tokens beginning at the given index
+    * @param lookupTokens tokens in a window
+    * @param begin        index of the first token of the term
+    * @return true if the term would be found by {@link LookupEngine}
+    */
+   private boolean isMatch( final CandidateTerm term, final List<LookupToken> lookupTokens, final int begin ) {
+      final LookupToken indexToken = lookupTokens.get( begin + term.getRareWordIndex() );
+      if ( !indexToken.isValidIndexToken() || !isLookupTable( term, indexToken ) ) {
+         return false;
+      }
+      if ( term.isAllLowerCase() ) {
+         return true;
+      }
+      final String[] tokens = term.getTokens();
+      for ( int i = 0; i < tokens.length; i++ ) {
+         final LookupToken lookupToken = lookupTokens.get( begin + i );
+         if ( term.isAllUpperCase() && !lookupToken.isAllUpperCase() ) {
+            return false;
+         }
+         if ( !tokens[ i ].equals( lookupToken.getText() ) ) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * @param term       candidate term
+    * @param indexToken token at the term's index word
+    * @return true if the dictionary would return the term's table for the index token
+    */
+   private boolean isLookupTable( final CandidateTerm term, final LookupToken indexToken ) {
+      if ( term.isAllUpperCase() ) {
+         return indexToken.isAllUpperCase();
+      }
+      if ( !term.isAllLowerCase() ) {
+         if ( indexToken.isAllLowerCase() ) {
+            return false;
+         }
+         // A first table dictionary never checks the mixed table for an uppercase token.
+         return !_firstTableLookup || !indexToken.isAllUpperCase();
+      }
+      if ( !_firstTableLookup ) {
+         return true;
+      }
+      if ( indexToken.isAllUpperCase() ) {
+         return !_upperIndexWords.contains( indexToken.getText() );
+      }
+      return indexToken.isAllLowerCase() || !_mixedIndexWords.contains( indexToken.getText() );
+   }
+
+}
@@ -0,0 +1,57 @@
+package org.apache.ctakes.dictionary.cased.lookup;
+
+
+import org.apache.ctakes.core.util.Pair;
+import org.apache.ctakes.dictionary.cased.dictionary.CasedDictionary;
+import org.apache.ctakes.dictionary.cased.dictionary.CompilableDictionary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup engine that finds all terms in a window with one pass of a {@link TermAutomaton}.
+ * The automaton for each dictionary is compiled the first time that the engine uses the dictionary
+ * and is held by the engine, so it is released with the engine.
+ * Dictionaries that cannot list their terms are handled by the standard {@link LookupEngine}.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class TrieLookupEngine extends LookupEngine {
+
+   private final Map<CasedDictionary, TermAutomaton> _automata = new ConcurrentHashMap<>();
+
+   /**
+    * Given a dictionary and tokens, find all discovered terms
+    * {@inheritDoc}
+    */
+   @Override
+   public Map<Pair<Integer>, Collection<DiscoveredTerm>> findTerms( final CasedDictionary dictionary,
+                                                                    final List<LookupToken> lookupTokens,
+                                                                    final int consecutiveSkipMax,
+                                                                    final int totalSkipMax ) {
+      if ( !(dictionary instanceof CompilableDictionary) ) {
+         return super.findTerms( dictionary, lookupTokens, consecutiveSkipMax, totalSkipMax );
+      }
+      return getAutomaton( (CompilableDictionary)dictionary ).findTerms( lookupTokens );
+   }
+
+   /**
+    * @param dictionary -
+    * @return the compiled automaton for the dictionary
+    */
+   public TermAutomaton getAutomaton( final CompilableDictionary dictionary ) {
+      final TermAutomaton automaton = _automata.get( dictionary );
+      if ( automaton != null ) {
+         return automaton;
+      }
+      // Compile outside of the map so that a long compile does not block other map access.
+      final TermAutomaton compiled = new TermAutomaton( dictionary );
+      final TermAutomaton existing = _automata.putIfAbsent( dictionary, compiled );
+      return existing != null ? existing : compiled;
+   }
+
+}
@@ -0,0 +1,219 @@
+package org.apache.ctakes.dictionary.cased.util.mapped;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only dictionary file that is memory-mapped instead of loaded onto the heap.
+ * <p>
+ * The file holds one or more tables of terms indexed by a key word, usually the rare word of each term.
+ * Keys are sorted and every string is stored once, so a lookup is a binary search over the mapped file.
+ * Objects are only created for the terms that are found.
+ * Because the file is mapped read-only, multiple dictionaries and multiple jvms on a host share the same pages.
+ * </p>
+ * Layout, with all numbers big-endian and all offsets absolute:
+ * <pre>
+ * header  : int magic, int version, int tableCount
+ * tables  : tableCount x ( int keyCount, int keyIndexOffset, int recordOffset )
+ * strings : int byteCount, utf-8 bytes
+ * keys    : keyCount x ( int keyStringOffset, int firstRecord, int recordCount )
+ * records : long cui, int textAOffset, int textBOffset, int valueA, int valueB
+ * </pre>
+ * Files are created with {@link MappedTermFileWriter}.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class MappedTermFile {
+
+   static final int MAGIC = 0x4354444D;
+   static final int VERSION = 1;
+   static final int HEADER_SIZE = 12;
+   static final int TABLE_SIZE = 12;
+   static final int KEY_SIZE = 12;
+   static final int RECORD_SIZE = 24;
+
+   /**
+    * Handles a single term record found for a key.
+    */
+   @FunctionalInterface
+   public interface RecordHandler {
+      void handle( long cui, String textA, String textB, int valueA, int valueB );
+   }
+
+   /**
+    * Handles a single term record and its key.
+    */
+   @FunctionalInterface
+   public interface KeyedRecordHandler {
+      void handle( String key, long cui, String textA, String textB, int valueA, int valueB );
+   }
+
+   // Only absolute get methods are used, which do not change buffer state and are safe for concurrent readers.
+   private final ByteBuffer _buffer;
+   private final int _tableCount;
+
+   /**
+    * @param file mapped dictionary file created by {@link MappedTermFileWriter}
+    * @throws IOException if the file cannot be mapped or is not a mapped dictionary file
+    */
+   public MappedTermFile( final File file ) throws IOException {
+      try ( RandomAccessFile randomAccess = new RandomAccessFile( file, "r" );
+            FileChannel channel = randomAccess.getChannel() ) {
+         if ( channel.size() > Integer.MAX_VALUE ) {
+            throw new IOException( "Mapped dictionary file " + file.getPath() + " is larger than 2GB" );
+         }
+         // The mapping remains valid after the channel is closed.
+         _buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+      }
+      if ( _buffer.capacity() < HEADER_SIZE || _buffer.getInt( 0 ) != MAGIC ) {
+         throw new IOException( file.getPath() + " is not a mapped dictionary file" );
+      }
+      if ( _buffer.getInt( 4 ) != VERSION ) {
+         throw new IOException( "Unsupported mapped dictionary version " + _buffer.getInt( 4 )
+                                + " in " + file.getPath() );
+      }
+      _tableCount = _buffer.getInt( 8 );
+   }
+
+   /**
+    * @return number of tables in the file
+    */
+   public int getTableCount() {
+      return _tableCount;
+   }
+
+   /**
+    * @param table index of table
+    * @return number of keys in the table
+    */
+   public int getKeyCount( final int table ) {
+      return _buffer.getInt( HEADER_SIZE + table * TABLE_SIZE );
+   }
+
+   /**
+    * @param table   index of table
+    * @param key     key word, usually a rare word
+    * @param handler handles each record for the key
+    * @return number of records found for the key
+    */
+   public int findRecords( final int table, final String key, final RecordHandler handler ) {
+      if ( table < 0 || table >= _tableCount ) {
+         return 0;
+      }
+      final int tableStart = HEADER_SIZE + table * TABLE_SIZE;
+      final int keyCount = _buffer.getInt( tableStart );
+      final int keyIndexOffset = _buffer.getInt( tableStart + 4 );
+      final int recordOffset = _buffer.getInt( tableStart + 8 );
+      final byte[] keyBytes = key.getBytes( StandardCharsets.UTF_8 );
+      int low = 0;
+      int high = keyCount - 1;
+      while ( low <= high ) {
+         final int middle = (low + high) >>> 1;
+         final int keyStart = keyIndexOffset + middle * KEY_SIZE;
+         final int compare = compareString( _buffer.getInt( keyStart ), keyBytes );
+         if ( compare < 0 ) {
+            low = middle + 1;
+         } else if ( compare > 0 ) {
+            high = middle - 1;
+         } else {
+            final int firstRecord = _buffer.getInt( keyStart + 4 );
+            final int recordCount = _buffer.getInt( keyStart + 8 );
+            for ( int i = 0; i < recordCount; i++ ) {
+               final int recordStart = recordOffset + (firstRecord + i) * RECORD_SIZE;
+               handler.handle( _buffer.getLong( recordStart ),
+                     getString( _buffer.getInt( recordStart + 8 ) ),
+                     getString( _buffer.getInt( recordStart + 12 ) ),
+                     _buffer.getInt( recordStart + 16 ),
+                     _buffer.getInt( recordStart + 20 ) );
+            }
+            return recordCount;
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * @param table   index of table
+    * @param handler handles every record in the table, in key order
+    */
+   public void forEachRecord( final int table, final KeyedRecordHandler handler ) {
+      if ( table < 0 || table >= _tableCount ) {
+         return;
+      }
+      final int tableStart = HEADER_SIZE + table * TABLE_SIZE;
+      final int keyCount = _buffer.getInt( tableStart );
+      final int keyIndexOffset = _buffer.getInt( tableStart + 4 );
+      final int recordOffset = _buffer.getInt( tableStart + 8 );
+      for ( int k = 0; k < keyCount; k++ ) {
+         final int keyStart = keyIndexOffset + k * KEY_SIZE;
+         final String key = getString( _buffer.getInt( keyStart ) );
+         final int firstRecord = _buffer.getInt( keyStart + 4 );
+         final int recordCount = _buffer.getInt( keyStart + 8 );
+         for ( int i = 0; i < recordCount; i++ ) {
+            final int recordStart = recordOffset + (firstRecord + i) * RECORD_SIZE;
+            handler.handle( key, _buffer.getLong( recordStart ),
+                  getString( _buffer.getInt( recordStart + 8 ) ),
+                  getString( _buffer.getInt( recordStart + 12 ) ),
+                  _buffer.getInt( recordStart + 16 ),
+                  _buffer.getInt( recordStart + 20 ) );
+         }
+      }
+   }
+
+   /**
+    * @param stringOffset offset of a stored string
+    * @param keyBytes     utf-8 bytes of a key
+    * @return negative, zero or positive as the stored string is before, equal to or after the key in byte order
+    */
+   private int compareString( final int stringOffset, final byte[] keyBytes ) {
+      final int length = _buffer.getInt( stringOffset );
+      final int start = stringOffset + 4;
+      final int commonLength = Math.min( length, keyBytes.length );
+      for ( int i = 0; i < commonLength; i++ ) {
+         final int compare = Byte.toUnsignedInt( _buffer.get( start + i ) ) - Byte.toUnsignedInt( keyBytes[ i ] );
+         if ( compare != 0 ) {
+            return compare;
+         }
+      }
+      return length - keyBytes.length;
+   }
+
+   /**
+    * @param stringOffset offset of a stored string
+    * @return the stored string
+    */
+   private String getString( final int stringOffset ) {
+      final int length = _buffer.getInt( stringOffset );
+      final byte[] bytes = new byte[ length ];
+      for ( int i = 0; i < length; i++ ) {
+         bytes[ i ] = _buffer.get( stringOffset + 4 + i );
+      }
+      return new String( bytes, StandardCharsets.UTF_8 );
+   }
+
+   /**
+    * Compares utf-8 byte arrays in the same order used for lookup.
+    *
+    * @param bytes1 -
+    * @param bytes2 -
+    * @return negative, zero or positive
+    */
+   static int compareBytes( final byte[] bytes1, final byte[] bytes2 ) {
+      final int commonLength = Math.min( bytes1.length, bytes2.length );
+      for ( int i = 0; i < commonLength; i++ ) {
+         final int compare = Byte.toUnsignedInt( bytes1[ i ] ) - Byte.toUnsignedInt( bytes2[ i ] );
+         if ( compare != 0 ) {
+            return compare;
+         }
+      }
+      return bytes1.length - bytes2.length;
+   }
+
+}
@@ -0,0 +1,166 @@
+package org.apache.ctakes.dictionary.cased.util.mapped;
+
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.ctakes.dictionary.cased.util.mapped.MappedTermFile.*;
+
+/**
+ * Collects term records and writes them as a {@link MappedTermFile}.
+ * Records are held in memory until {@link #write(File)}, so this is intended for offline dictionary compilation.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class MappedTermFileWriter {
+
+   static private final class Record {
+      private final long _cui;
+      private final String _textA;
+      private final String _textB;
+      private final int _valueA;
+      private final int _valueB;
+
+      private Record( final long cui, final String textA, final String textB, final int valueA, final int valueB ) {
+         _cui = cui;
+         _textA = textA == null ? "" : textA;
+         _textB = textB == null ? "" : textB;
+         _valueA = valueA;
+         _valueB = valueB;
+      }
+   }
+
+   private final List<Map<String, Collection<Record>>> _tables;
+
+   /**
+    * @param tableCount number of tables in the file
+    */
+   public MappedTermFileWriter( final int tableCount ) {
+      _tables = new ArrayList<>( tableCount );
+      for ( int i = 0; i < tableCount; i++ ) {
+         _tables.add( new HashMap<>() );
+      }
+   }
+
+   /**
+    * @param table  index of table
+    * @param key    key word, usually a rare word
+    * @param cui    cui of the term
+    * @param textA  first text of the term, may be null
+    * @param textB  second text of the term, may be null
+    * @param valueA first value of the term
+    * @param valueB second value of the term
+    */
+   public void addRecord( final int table, final String key, final long cui,
+                          final String textA, final String textB,
+                          final int valueA, final int valueB ) {
+      _tables.get( table )
+             .computeIfAbsent( key, k -> new ArrayList<>() )
+             .add( new Record( cui, textA, textB, valueA, valueB ) );
+   }
+
+   /**
+    * @param file file to write
+    * @throws IOException if the file could not be written or would be larger than 2GB
+    */
+   public void write( final File file ) throws IOException {
+      final File parent = file.getParentFile();
+      if ( parent != null && !parent.exists() && !parent.mkdirs() ) {
+         throw new IOException( "Could not create directory " + parent.getPath() );
+      }
+      // Build the string pool.  Each distinct string is stored once.
+      final Map<String, Long> stringOffsets = new LinkedHashMap<>();
+      final List<byte[]> stringBytes = new ArrayList<>();
+      final List<List<byte[]>> sortedKeys = new ArrayList<>( _tables.size() );
+      long offset = HEADER_SIZE + (long)_tables.size() * TABLE_SIZE;
+      for ( Map<String, Collection<Record>> table : _tables ) {
+         final List<byte[]> keys = new ArrayList<>( table.size() );
+         for ( Map.Entry<String, Collection<Record>> entry : table.entrySet() ) {
+            keys.add( entry.getKey().getBytes( StandardCharsets.UTF_8 ) );
+            offset = addString( entry.getKey(), offset, stringOffsets, stringBytes );
+            for ( Record record : entry.getValue() ) {
+               offset = addString( record._textA, offset, stringOffsets, stringBytes );
+               offset = addString( record._textB, offset, stringOffsets, stringBytes );
+            }
+         }
+         keys.sort( MappedTermFile::compareBytes );
+         sortedKeys.add( keys );
+      }
+      // Lay out the key index and records of each table.
+      final int[] keyIndexOffsets = new int[ _tables.size() ];
+      final int[] recordOffsets = new int[ _tables.size() ];
+      for ( int i = 0; i < _tables.size(); i++ ) {
+         final Map<String, Collection<Record>> table = _tables.get( i );
+         keyIndexOffsets[ i ] = checkSize( offset );
+         offset += (long)table.size() * KEY_SIZE;
+         recordOffsets[ i ] = checkSize( offset );
+         offset += (long)table.values().stream().mapToInt( Collection::size ).sum() * RECORD_SIZE;
+      }
+      checkSize( offset );
+      try ( DataOutputStream stream
+                  = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ), 65536 ) ) ) {
+         stream.writeInt( MAGIC );
+         stream.writeInt( VERSION );
+         stream.writeInt( _tables.size() );
+         for ( int i = 0; i < _tables.size(); i++ ) {
+            stream.writeInt( _tables.get( i ).size() );
+            stream.writeInt( keyIndexOffsets[ i ] );
+            stream.writeInt( recordOffsets[ i ] );
+         }
+         for ( byte[] bytes : stringBytes ) {
+            stream.writeInt( bytes.length );
+            stream.write( bytes );
+         }
+         for ( int i = 0; i < _tables.size(); i++ ) {
+            final Map<String, Collection<Record>> table = _tables.get( i );
+            final List<Record> records = new ArrayList<>();
+            for ( byte[] keyBytes : sortedKeys.get( i ) ) {
+               final String key = new String( keyBytes, StandardCharsets.UTF_8 );
+               final Collection<Record> keyRecords = table.get( key );
+               stream.writeInt( stringOffsets.get( key ).intValue() );
+               stream.writeInt( records.size() );
+               stream.writeInt( keyRecords.size() );
+               records.addAll( keyRecords );
+            }
+            for ( Record record : records ) {
+               stream.writeLong( record._cui );
+               stream.writeInt( stringOffsets.get( record._textA ).intValue() );
+               stream.writeInt( stringOffsets.get( record._textB ).intValue() );
+               stream.writeInt( record._valueA );
+               stream.writeInt( record._valueB );
+            }
+         }
+      }
+   }
+
+   static private long addString( final String text, final long offset,
+                                  final Map<String, Long> stringOffsets, final List<byte[]> stringBytes ) {
+      if ( stringOffsets.containsKey( text ) ) {
+         return offset;
+      }
+      final byte[] bytes = text.getBytes( StandardCharsets.UTF_8 );
+      stringOffsets.put( text, offset );
+      stringBytes.add( bytes );
+      return offset + 4 + bytes.length;
+   }
+
+   static private int checkSize( final long offset ) throws IOException {
+      if ( offset > Integer.MAX_VALUE ) {
+         throw new IOException( "Mapped dictionary file would be larger than 2GB" );
+      }
+      return (int)offset;
+   }
+
+}
@@ -20,11 +20,16 @@ package org.apache.ctakes.dictionary.lookup2.ae;
 
 import org.apache.ctakes.core.config.ConfigParameterConstants;
 import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.core.util.collection.CollectionCreatorFactory;
 import org.apache.ctakes.core.util.collection.CollectionMap;
+import org.apache.ctakes.core.util.collection.DefaultCollectionMap;
 import org.apache.ctakes.core.util.collection.HashSetMap;
+import org.apache.ctakes.core.util.collection.LongHashSet;
 import org.apache.ctakes.dictionary.lookup2.concept.Concept;
 import org.apache.ctakes.dictionary.lookup2.concept.ConceptFactory;
+import org.apache.ctakes.dictionary.lookup2.dictionary.BatchRareWordDictionary;
 import org.apache.ctakes.dictionary.lookup2.dictionary.DictionaryDescriptorParser;
+import org.apache.ctakes.dictionary.lookup2.dictionary.PrefetchedRareWordDictionary;
 import org.apache.ctakes.dictionary.lookup2.dictionary.RareWordDictionary;
 import org.apache.ctakes.dictionary.lookup2.textspan.TextSpan;
 import org.apache.ctakes.dictionary.lookup2.util.DictionarySpec;
@@ -44,6 +49,10 @@ import org.apache.uima.resource.ResourceInitializationException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Performs the basic initialization with uima context, including the parse of the dictionary specifications file.
@@ -91,6 +100,15 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
          description = "Minimum number of characters for a term" )
    protected int _minimumLookupSpan = DEFAULT_MINIMUM_SPAN;
 
+   // number of threads used to look up windows and dictionaries, 1 for serial lookup
+   @ConfigurationParameter( name = JCasTermAnnotator.PARAM_LOOKUP_THREADS_KEY, mandatory = false,
+         description = "Number of threads used for window and dictionary lookup.  1 for serial lookup.",
+         defaultValue = "1" )
+   private int _lookupThreads = 1;
+
+   // fork-join pool used for lookup when more than one lookup thread is requested
+   private ForkJoinPool _lookupPool;
+
    /**
     * {@inheritDoc}
     */
@@ -129,6 +147,10 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
          _minimumLookupSpan = parseInt( minimumSpan, PARAM_MIN_SPAN_KEY, _minimumLookupSpan );
       }
       LOGGER.info( "Using minimum term text span: " + _minimumLookupSpan );
+      if ( _lookupThreads > 1 ) {
+         LOGGER.info( "Using " + _lookupThreads + " lookup threads" );
+         _lookupPool = new ForkJoinPool( _lookupThreads );
+      }
       String descriptorFilePath = _descriptorFilePath;
       if ( _lookupXml != null && !_lookupXml.isEmpty() ) {
          descriptorFilePath = _lookupXml;
@@ -157,9 +179,13 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
       final Map<RareWordDictionary, CollectionMap<TextSpan, Long, ? extends Collection<Long>>> dictionaryTermsMap
             = new HashMap<>( getDictionaries().size() );
       for ( RareWordDictionary dictionary : getDictionaries() ) {
-         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> textSpanCuis = new HashSetMap<>();
+         // Cuis are held in primitive long sets
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> textSpanCuis
+               = new DefaultCollectionMap<>( new HashMap<>(), CollectionCreatorFactory.createLongSetCreator() );
          dictionaryTermsMap.put( dictionary, textSpanCuis );
       }
+      final List<List<FastLookupToken>> windowsAllTokens = new ArrayList<>( windowTokens.size() );
+      final List<List<Integer>> windowsLookupTokenIndices = new ArrayList<>( windowTokens.size() );
       try {
 //         for ( Object window : lookupWindows ) {
 //            if ( isWindowOk( (Annotation)window ) ) {
@@ -168,23 +194,36 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
 //         }
          for ( Map.Entry<Annotation, List<BaseToken>> entry : windowTokens.entrySet() ) {
 //            if ( isWindowOk( entry.getKey() ) ) {
-            processWindow( jcas, entry.getValue(), dictionaryTermsMap );
+            final List<FastLookupToken> allTokens = new ArrayList<>();
+            final List<Integer> lookupTokenIndices = new ArrayList<>();
+            getAnnotationsInWindow( jcas, entry.getValue(), allTokens, lookupTokenIndices );
+            windowsAllTokens.add( allTokens );
+            windowsLookupTokenIndices.add( lookupTokenIndices );
 //            }
          }
       } catch ( ArrayIndexOutOfBoundsException iobE ) {
          // JCasHashMap will throw this every once in a while.  Assume the windows are done and move on
          LOGGER.warn( iobE.getMessage() );
       }
+      if ( _lookupPool == null ) {
+         findTermsSerial( windowsAllTokens, windowsLookupTokenIndices, dictionaryTermsMap );
+      } else {
+         findTermsParallel( windowsAllTokens, windowsLookupTokenIndices, dictionaryTermsMap );
+      }
       // Let the consumer handle uniqueness and ordering - some may not care
-      final Collection<Long> allDictionaryCuis = new HashSet<>();
+      final LongHashSet allDictionaryCuis = new LongHashSet();
       final CollectionMap<Long, Concept, ? extends Collection<Concept>> allConceptsMap = new HashSetMap<>();
       for ( Map.Entry<RareWordDictionary, CollectionMap<TextSpan, Long, ? extends Collection<Long>>> dictionaryCuis : dictionaryTermsMap
             .entrySet() ) {
          allDictionaryCuis.clear();
          final RareWordDictionary dictionary = dictionaryCuis.getKey();
          final CollectionMap<TextSpan, Long, ? extends Collection<Long>> textSpanCuis = dictionaryCuis.getValue();
-         for ( Collection<Long> cuiCodes : textSpanCuis.getAllCollections() ) {
-            allDictionaryCuis.addAll( cuiCodes );
+         for ( Collection<Long> cuiCodes : textSpanCuis.values() ) {
+            if ( cuiCodes instanceof LongHashSet ) {
+               ((LongHashSet)cuiCodes).forEachLong( allDictionaryCuis::add );
+            } else {
+               allDictionaryCuis.addAll( cuiCodes );
+            }
          }
          final Collection<ConceptFactory> conceptFactories
                = _dictionarySpec.getPairedConceptFactories( dictionary.getName() );
@@ -199,6 +238,154 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
    }
 
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void destroy() {
+      if ( _lookupPool != null ) {
+         _lookupPool.shutdown();
+         _lookupPool = null;
+      }
+      if ( _dictionarySpec != null ) {
+         getDictionaries().forEach( RareWordDictionary::close );
+      }
+      super.destroy();
+   }
+
+
+   /**
+    * Looks up every window in every dictionary on the calling thread.
+    *
+    * @param windowsAllTokens          all tokens in each lookup window
+    * @param windowsLookupTokenIndices indices of lookup tokens in each lookup window
+    * @param dictionaryTermsMap        filled with discovered terms for each dictionary
+    */
+   private void findTermsSerial( final List<List<FastLookupToken>> windowsAllTokens,
+                                 final List<List<Integer>> windowsLookupTokenIndices,
+                                 final Map<RareWordDictionary, CollectionMap<TextSpan, Long, ? extends Collection<Long>>> dictionaryTermsMap ) {
+      for ( RareWordDictionary dictionary : getDictionaries() ) {
+         // Dictionaries that support batch lookup resolve all lookup tokens in the document in a few calls.
+         final RareWordDictionary lookupDictionary = createLookupDictionary( dictionary,
+               windowsAllTokens, windowsLookupTokenIndices );
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> termsFromDictionary
+               = dictionaryTermsMap.get( dictionary );
+         for ( int i = 0; i < windowsAllTokens.size(); i++ ) {
+            findTerms( lookupDictionary, windowsAllTokens.get( i ), windowsLookupTokenIndices.get( i ),
+                  termsFromDictionary );
+         }
+      }
+   }
+
+
+   /**
+    * Fans lookup out onto the fork-join pool.
+    * Dictionaries are prepared concurrently, then each dictionary is searched in chunks of windows.
+    * Every chunk fills its own terms map, and the chunk maps are merged in dictionary and window order
+    * so that the result does not depend upon thread scheduling.
+    * The CAS is never touched by the pool threads.
+    *
+    * @param windowsAllTokens          all tokens in each lookup window
+    * @param windowsLookupTokenIndices indices of lookup tokens in each lookup window
+    * @param dictionaryTermsMap        filled with discovered terms for each dictionary
+    * @throws AnalysisEngineProcessException if a lookup fails or is interrupted
+    */
+   private void findTermsParallel( final List<List<FastLookupToken>> windowsAllTokens,
+                                   final List<List<Integer>> windowsLookupTokenIndices,
+                                   final Map<RareWordDictionary, CollectionMap<TextSpan, Long, ? extends Collection<Long>>> dictionaryTermsMap )
+         throws AnalysisEngineProcessException {
+      final List<RareWordDictionary> dictionaries = new ArrayList<>( getDictionaries() );
+      final List<Callable<RareWordDictionary>> prepareTasks = new ArrayList<>( dictionaries.size() );
+      for ( RareWordDictionary dictionary : dictionaries ) {
+         prepareTasks.add( () -> createLookupDictionary( dictionary, windowsAllTokens, windowsLookupTokenIndices ) );
+      }
+      final List<RareWordDictionary> lookupDictionaries = new ArrayList<>( dictionaries.size() );
+      for ( Future<RareWordDictionary> future : _lookupPool.invokeAll( prepareTasks ) ) {
+         lookupDictionaries.add( getResult( future ) );
+      }
+      final int windowCount = windowsAllTokens.size();
+      // A few chunks per thread keeps the pool busy when window sizes vary.
+      final int chunkSize = Math.max( 1, windowCount / (_lookupThreads * 4) );
+      final List<Callable<CollectionMap<TextSpan, Long, ? extends Collection<Long>>>> lookupTasks
+            = new ArrayList<>();
+      for ( RareWordDictionary lookupDictionary : lookupDictionaries ) {
+         for ( int chunkBegin = 0; chunkBegin < windowCount; chunkBegin += chunkSize ) {
+            final int begin = chunkBegin;
+            final int end = Math.min( windowCount, chunkBegin + chunkSize );
+            lookupTasks.add( () -> {
+               final CollectionMap<TextSpan, Long, ? extends Collection<Long>> chunkTerms
+                     = new DefaultCollectionMap<>( new HashMap<>(), CollectionCreatorFactory.createLongSetCreator() );
+               for ( int i = begin; i < end; i++ ) {
+                  findTerms( lookupDictionary, windowsAllTokens.get( i ), windowsLookupTokenIndices.get( i ),
+                        chunkTerms );
+               }
+               return chunkTerms;
+            } );
+         }
+      }
+      final List<Future<CollectionMap<TextSpan, Long, ? extends Collection<Long>>>> futures
+            = _lookupPool.invokeAll( lookupTasks );
+      // Futures are in task order: dictionary order, then window order.
+      final int chunkCount = windowCount == 0 ? 0 : (windowCount + chunkSize - 1) / chunkSize;
+      for ( int d = 0; d < dictionaries.size(); d++ ) {
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> termsFromDictionary
+               = dictionaryTermsMap.get( dictionaries.get( d ) );
+         for ( int c = 0; c < chunkCount; c++ ) {
+            final CollectionMap<TextSpan, Long, ? extends Collection<Long>> chunkTerms
+                  = getResult( futures.get( d * chunkCount + c ) );
+            for ( Map.Entry<TextSpan, ? extends Collection<Long>> entry : chunkTerms.entrySet() ) {
+               termsFromDictionary.addAllValues( entry.getKey(), entry.getValue() );
+            }
+         }
+      }
+   }
+
+
+   /**
+    * @param future completed lookup future
+    * @param <T>    type of lookup result
+    * @return the result of the future
+    * @throws AnalysisEngineProcessException if the lookup failed or the thread was interrupted
+    */
+   static private <T> T getResult( final Future<T> future ) throws AnalysisEngineProcessException {
+      try {
+         return future.get();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new AnalysisEngineProcessException( intE );
+      } catch ( ExecutionException exE ) {
+         throw new AnalysisEngineProcessException( exE.getCause() );
+      }
+   }
+
+
+   /**
+    * @param dictionary                dictionary in which to find terms
+    * @param windowsAllTokens          all tokens in each lookup window
+    * @param windowsLookupTokenIndices indices of lookup tokens in each lookup window
+    * @return the given dictionary, or if it is a {@link BatchRareWordDictionary}
+    * a view of it with all hits for the lookup tokens already fetched
+    */
+   static private RareWordDictionary createLookupDictionary( final RareWordDictionary dictionary,
+                                                             final List<List<FastLookupToken>> windowsAllTokens,
+                                                             final List<List<Integer>> windowsLookupTokenIndices ) {
+      if ( !(dictionary instanceof BatchRareWordDictionary) ) {
+         return dictionary;
+      }
+      final Set<String> rareWordTexts = new HashSet<>();
+      for ( int i = 0; i < windowsAllTokens.size(); i++ ) {
+         final List<FastLookupToken> allTokens = windowsAllTokens.get( i );
+         for ( Integer lookupTokenIndex : windowsLookupTokenIndices.get( i ) ) {
+            final FastLookupToken lookupToken = allTokens.get( lookupTokenIndex );
+            rareWordTexts.add( lookupToken.getText() );
+            if ( lookupToken.getVariant() != null ) {
+               rareWordTexts.add( lookupToken.getVariant() );
+            }
+         }
+      }
+      return new PrefetchedRareWordDictionary( (BatchRareWordDictionary)dictionary, rareWordTexts );
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -1,8 +1,9 @@
 package org.apache.ctakes.dictionary.lookup2.concept;
 
 
+import org.apache.ctakes.core.util.collection.LongKeyMap;
+
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -32,11 +33,11 @@ abstract public class AbstractConceptFactory implements ConceptFactory {
     */
    @Override
    public Map<Long, Concept> createConcepts( final Collection<Long> cuiCodes ) {
-      final Map<Long, Concept> conceptMap = new HashMap<>( cuiCodes.size() );
+      final LongKeyMap<Concept> conceptMap = new LongKeyMap<>( cuiCodes.size() );
       for ( Long cuiCode : cuiCodes ) {
          final Concept concept = createConcept( cuiCode );
          if ( concept != null && !concept.isEmpty() ) {
-            conceptMap.put( cuiCode, concept );
+            conceptMap.put( cuiCode.longValue(), concept );
          }
       }
       return conceptMap;
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.concept;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread safe, least recently used cache of concepts keyed by cui code.
+ * <p>
+ * Common clinical cuis appear in nearly every note, so caching their concepts removes most concept database calls.
+ * Caches are shared by name, so every annotator instance (e.g. one per pipeline thread) that uses a concept factory
+ * with the same name and source uses the same cache.
+ * The cache is split into independently locked segments so that threads seldom wait on each other.
+ * Empty concepts are cached so that cuis without concept information are not repeatedly queried.
+ * </p>
+ * Author: SPF
+ * Affiliation: CHIP-NLP
+ * Date: 10/18/26
+ */
+final public class ConceptCache {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "ConceptCache" );
+
+   static private final int SEGMENT_COUNT = 16;
+
+   static private final Map<String, ConceptCache> SHARED_CACHES = new ConcurrentHashMap<>();
+
+   /**
+    * @param name    unique name for the cache, for instance the concept factory name and source url
+    * @param maxSize maximum number of concepts to hold.  Used only when the cache is first created.
+    * @return the shared cache for the name
+    */
+   static public ConceptCache getSharedCache( final String name, final int maxSize ) {
+      return SHARED_CACHES.computeIfAbsent( name, n -> new ConceptCache( n, maxSize ) );
+   }
+
+   static private final class Segment extends LinkedHashMap<Long, Concept> {
+      static private final long serialVersionUID = 5409157343316305412L;
+      private final int __maxSize;
+
+      private Segment( final int maxSize ) {
+         super( 16, 0.75f, true );
+         __maxSize = maxSize;
+      }
+
+      @Override
+      protected boolean removeEldestEntry( final Map.Entry<Long, Concept> eldest ) {
+         return size() > __maxSize;
+      }
+   }
+
+   private final String _name;
+   private final int _maxSize;
+   private final Segment[] _segments;
+   private final LongAdder _hits = new LongAdder();
+   private final LongAdder _misses = new LongAdder();
+
+   /**
+    * @param name    name of the cache
+    * @param maxSize maximum number of concepts to hold
+    */
+   public ConceptCache( final String name, final int maxSize ) {
+      _name = name;
+      _maxSize = Math.max( SEGMENT_COUNT, maxSize );
+      _segments = new Segment[ SEGMENT_COUNT ];
+      final int segmentSize = _maxSize / SEGMENT_COUNT;
+      for ( int i = 0; i < SEGMENT_COUNT; i++ ) {
+         _segments[ i ] = new Segment( segmentSize );
+      }
+      LOGGER.info( "Created concept cache " + name + " for " + _maxSize + " concepts" );
+   }
+
+   /**
+    * @param cuiCode       cui of the concept
+    * @param conceptLoader creates the concept if it is not cached.  Called without holding a lock.
+    * @return the cached or newly created concept
+    */
+   public Concept getConcept( final long cuiCode, final Function<Long, Concept> conceptLoader ) {
+      final Segment segment = getSegment( cuiCode );
+      Concept concept;
+      synchronized ( segment ) {
+         concept = segment.get( cuiCode );
+      }
+      if ( concept != null ) {
+         _hits.increment();
+         return concept;
+      }
+      _misses.increment();
+      concept = conceptLoader.apply( cuiCode );
+      if ( concept != null ) {
+         synchronized ( segment ) {
+            segment.put( cuiCode, concept );
+         }
+      }
+      return concept;
+   }
+
+   /**
+    * @return name of the cache
+    */
+   public String getName() {
+      return _name;
+   }
+
+   /**
+    * @return number of concepts in the cache
+    */
+   public int size() {
+      int size = 0;
+      for ( Segment segment : _segments ) {
+         synchronized ( segment ) {
+            size += segment.size();
+         }
+      }
+      return size;
+   }
+
+   /**
+    * @return number of requests answered from the cache
+    */
+   public long getHitCount() {
+      return _hits.sum();
+   }
+
+   /**
+    * @return number of requests that required the concept to be created
+    */
+   public long getMissCount() {
+      return _misses.sum();
+   }
+
+   /**
+    * Removes all concepts and resets the counters.
+    */
+   public void clear() {
+      for ( Segment segment : _segments ) {
+         synchronized ( segment ) {
+            segment.clear();
+         }
+      }
+      _hits.reset();
+      _misses.reset();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString() {
+      return "Concept Cache " + _name + " : " + size() + " of " + _maxSize + " concepts, "
+             + getHitCount() + " hits, " + getMissCount() + " misses";
+   }
+
+   private Segment getSegment( final long cuiCode ) {
+      return _segments[ getSegmentIndex( cuiCode ) ];
+   }
+
+   /**
+    * @param cuiCode cui of a concept
+    * @return index of the segment that holds the concept
+    */
+   static int getSegmentIndex( final long cuiCode ) {
+      long hash = cuiCode * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 32;
+      return (int)(hash & (SEGMENT_COUNT - 1));
+   }
+
+}
@@ -31,8 +31,15 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
    static private final String TUI_CLASS = Concept.TUI;
    static private final String PREFTERM_CLASS = Concept.PREFTERM;
 
+   /**
+    * Maximum number of concepts held in the shared concept cache.  0 disables the cache.
+    */
+   static public final String CONCEPT_CACHE_SIZE = "conceptCacheSize";
+   static private final int DEFAULT_CACHE_SIZE = 10000;
+
 
    private final Collection<ConceptTableInfo> _conceptTableInfos;
+   private final ConceptCache _conceptCache;
 
 
    static private class ConceptTableInfo {
@@ -90,6 +97,23 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
    }
 
 
+   /**
+    * @param properties properties that may or may not contain the concept cache size key
+    * @return maximum number of concepts to cache
+    */
+   static private int getCacheSize( final Properties properties ) {
+      final String cacheSize = properties.getProperty( CONCEPT_CACHE_SIZE );
+      if ( cacheSize == null || cacheSize.trim().isEmpty() ) {
+         return DEFAULT_CACHE_SIZE;
+      }
+      try {
+         return Integer.parseInt( cacheSize.trim() );
+      } catch ( NumberFormatException nfE ) {
+         LOGGER.warn( "Could not parse " + CONCEPT_CACHE_SIZE + " " + cacheSize + ", using " + DEFAULT_CACHE_SIZE );
+         return DEFAULT_CACHE_SIZE;
+      }
+   }
+
    /**
     * @param properties properties that may or may not contain "*Table" key
     * @return map of table names and table value types
@@ -113,7 +137,8 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
       this( name,
             properties.getProperty( JDBC_DRIVER ), properties.getProperty( JDBC_URL ),
             properties.getProperty( JDBC_USER ), properties.getProperty( JDBC_PASS ),
-            getConceptTables( properties ) );
+            getConceptTables( properties ),
+            getCacheSize( properties ) );
    }
 
    public JdbcConceptFactory( final String name,
@@ -121,7 +146,21 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
                               final String jdbcUser, final String jdbcPass,
                               final Map<String, String> conceptTables )
          throws SQLException {
+      this( name, jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, conceptTables, DEFAULT_CACHE_SIZE );
+   }
+
+   /**
+    * @param cacheSize maximum number of concepts held in a cache shared by factories with the same name and url.
+    *                  0 disables the cache.
+    */
+   public JdbcConceptFactory( final String name,
+                              final String jdbcDriver, final String jdbcUrl,
+                              final String jdbcUser, final String jdbcPass,
+                              final Map<String, String> conceptTables,
+                              final int cacheSize )
+         throws SQLException {
       super( name );
+      _conceptCache = cacheSize > 0 ? ConceptCache.getSharedCache( name + '|' + jdbcUrl, cacheSize ) : null;
       boolean connected = false;
       try {
          // DO NOT use try with resources here.
@@ -145,6 +184,31 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     */
    @Override
    public Concept createConcept( final Long cuiCode ) {
+      if ( _conceptCache == null ) {
+         return selectConcept( cuiCode );
+      }
+      return _conceptCache.getConcept( cuiCode, this::selectConcept );
+   }
+
+   /**
+    * @return the cache shared by concept factories with the same name and url, or null if caching is disabled
+    */
+   public ConceptCache getConceptCache() {
+      return _conceptCache;
+   }
+
+   /**
+    * @param cuiCode concept unique identifier
+    * @return concept created from the concept tables
+    */
+   private Concept selectConcept( final Long cuiCode ) {
+      // Prepared statements are shared by all callers of this factory
+      synchronized ( _conceptTableInfos ) {
+         return createTableConcept( cuiCode );
+      }
+   }
+
+   private Concept createTableConcept( final Long cuiCode ) {
       final CollectionMap<String, String, ? extends Collection<String>> codes = new HashSetMap<>();
       String prefTerm = null;
       for ( ConceptTableInfo conceptTableInfo : _conceptTableInfos ) {
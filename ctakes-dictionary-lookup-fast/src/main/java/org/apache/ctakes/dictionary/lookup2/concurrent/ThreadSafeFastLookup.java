@@ -1,6 +1,6 @@
 package org.apache.ctakes.dictionary.lookup2.concurrent;
 
-import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
+import org.apache.ctakes.core.concurrent.ThreadSafePool;
 import org.apache.ctakes.core.config.ConfigParameterConstants;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.dictionary.lookup2.ae.DefaultJCasTermAnnotator;
@@ -15,7 +15,9 @@ import org.apache.uima.resource.ResourceInitializationException;
 
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
- * Made a singleton mostly for dictionary memory.
+ * A static pool holds lookups, one per pipeline thread and configuration.
+ * Jdbc dictionaries share one connection per url and concepts are shared through the concept cache,
+ * so the lookups do not hold copies of the database.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -31,12 +33,18 @@ final public class ThreadSafeFastLookup extends DefaultJCasTermAnnotator {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadSafeFastLookup" );
 
+   static private final ThreadSafePool<DefaultJCasTermAnnotator> POOL
+         = new ThreadSafePool<>( DefaultJCasTermAnnotator::new );
+
+   // key of the delegate pool for the configuration of this annotator
+   private String _poolKey;
+
    /**
     * {@inheritDoc}
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      DlSingleton.getInstance().initialize( context );
+      _poolKey = POOL.addDelegate( context );
    }
 
    /**
@@ -44,7 +52,26 @@ final public class ThreadSafeFastLookup extends DefaultJCasTermAnnotator {
     */
    @Override
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-      DlSingleton.getInstance().process( jCas );
+      POOL.process( _poolKey, jCas );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      POOL.collectionProcessComplete( _poolKey );
+   }
+
+   /**
+    * Destroys the delegate added by this annotator.
+    */
+   @Override
+   public void destroy() {
+      if ( _poolKey != null ) {
+         POOL.removeDelegate( _poolKey );
+         _poolKey = null;
+      }
    }
 
    /**
@@ -66,41 +93,4 @@ final public class ThreadSafeFastLookup extends DefaultJCasTermAnnotator {
             ConfigParameterConstants.PARAM_LOOKUP_XML, descriptorPath );
    }
 
-   private enum DlSingleton implements ThreadSafeWrapper<DefaultJCasTermAnnotator> {
-      INSTANCE;
-
-      static public DlSingleton getInstance() {
-         return INSTANCE;
-      }
-
-      private final DefaultJCasTermAnnotator _delegate;
-      private boolean _initialized;
-
-      DlSingleton() {
-         _delegate = new DefaultJCasTermAnnotator();
-      }
-
-      final private Object LOCK = new Object();
-
-      @Override
-      public Object getLock() {
-         return LOCK;
-      }
-
-      @Override
-      public DefaultJCasTermAnnotator getDelegate() {
-         return _delegate;
-      }
-
-      @Override
-      public boolean isInitialized() {
-         return _initialized;
-      }
-
-      @Override
-      public void setInitialized( final boolean initialized ) {
-         _initialized = initialized;
-      }
-   }
-
 }
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Dictionary that can resolve many rare words in a few calls.
+ * Dictionaries backed by a database or other remote store should implement this so that all of the lookup tokens
+ * in a document can be resolved before term matching, instead of making one round trip per token.
+ * Author: SPF
+ * Affiliation: CHIP-NLP
+ * Date: 10/18/26
+ */
+public interface BatchRareWordDictionary extends RareWordDictionary {
+
+   /**
+    * Get all terms within the dictionary that contain any of the given rare words
+    *
+    * @param rareWordTexts texts of the rare words, which should be distinct
+    * @return map of lowercase rare word text to all terms within the dictionary that contain the rare word.
+    * Keys are lowercase so that hits do not depend upon the collation of the store.
+    * Rare words without terms may not be in the map.
+    */
+   public Map<String, Collection<RareWordTerm>> getRareWordHits( final Collection<String> rareWordTexts );
+
+   /**
+    * @param rareWordText text of a rare word
+    * @return the key for the rare word in the map returned by {@link #getRareWordHits(Collection)}
+    */
+   static public String getRareWordKey( final String rareWordText ) {
+      return rareWordText.toLowerCase();
+   }
+
+}
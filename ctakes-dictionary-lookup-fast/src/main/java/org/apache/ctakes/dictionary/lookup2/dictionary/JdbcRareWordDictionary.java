@@ -28,10 +28,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Properties;
+import java.util.*;
 
 import static org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory.*;
 
@@ -43,7 +40,7 @@ import static org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory.*;
  * Affiliation: CHIP-NLP
  * Date: 3/26/13
  */
-final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
+final public class JdbcRareWordDictionary extends AbstractRareWordDictionary implements BatchRareWordDictionary {
 
    /**
     * Column (field) indices in the database.  Notice that these are constant and not configurable.
@@ -64,8 +61,19 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
 
    static public final String RARE_WORD_TABLE = "rareWordTable";
 
+   /**
+    * Number of rare words resolved in a single batch select call.
+    */
+   static private final int BATCH_SIZE = 100;
 
-   private PreparedStatement _selectTermCall;
+   final private Connection _connection;
+   final private String _tableName;
+
+   // Statements are not thread safe, so each thread uses its own.
+   final private ThreadLocal<PreparedStatement> _selectTermCall;
+   final private ThreadLocal<PreparedStatement> _selectTermsCall;
+   // Every statement created for any thread, so that all can be closed.
+   final private Collection<PreparedStatement> _statements = new ArrayList<>();
 
 
    public JdbcRareWordDictionary( final String name, final UimaContext uimaContext, final Properties properties )
@@ -88,10 +96,15 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
       boolean connected = false;
       try {
          // DO NOT use try with resources here.  Try with resources uses a closable and closes it when exiting the try
-         final Connection connection = JdbcConnectionFactory.getInstance()
+         _connection = JdbcConnectionFactory.getInstance()
                .getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
-         connected = connection != null;
-         _selectTermCall = createSelectCall( connection, tableName );
+         connected = _connection != null;
+         _tableName = tableName;
+         _selectTermCall = ThreadLocal.withInitial( () -> createStatement( false ) );
+         _selectTermsCall = ThreadLocal.withInitial( () -> createStatement( true ) );
+         // Create the statements for this thread now so that any sql problem is reported at initialization.
+         _selectTermCall.set( createStatement( false ) );
+         _selectTermsCall.set( createStatement( true ) );
       } catch ( SQLException sqlE ) {
          if ( !connected ) {
             LOGGER.error( "Could not Connect to Dictionary " + name );
@@ -111,15 +124,10 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
    public Collection<RareWordTerm> getRareWordHits( final String rareWordText ) {
       final List<RareWordTerm> rareWordTerms = new ArrayList<>();
       try {
-         fillSelectCall( rareWordText );
-         final ResultSet resultSet = _selectTermCall.executeQuery();
+         final PreparedStatement selectTermCall = fillSelectCall( rareWordText );
+         final ResultSet resultSet = selectTermCall.executeQuery();
          while ( resultSet.next() ) {
-            final RareWordTerm rareWordTerm = new RareWordTerm( resultSet.getString( FIELD_INDEX.TEXT.__index ),
-                  resultSet.getLong( FIELD_INDEX.CUI.__index ),
-                  resultSet.getString( FIELD_INDEX.RWORD.__index ),
-                  resultSet.getInt( FIELD_INDEX.RINDEX.__index ),
-                  resultSet.getInt( FIELD_INDEX.TCOUNT.__index ) );
-            rareWordTerms.add( rareWordTerm );
+            rareWordTerms.add( createRareWordTerm( resultSet ) );
          }
          // Though the ResultSet interface documentation states that there are automatic closures,
          // it is up to the driver to implement this behavior ...  historically some drivers have not done so
@@ -130,6 +138,111 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
       return rareWordTerms;
    }
 
+   /**
+    * Resolves rare words with {@value #BATCH_SIZE} words per select call.
+    * If a batch select fails then every rare word is looked up with a single select call.
+    * {@inheritDoc}
+    */
+   @Override
+   public Map<String, Collection<RareWordTerm>> getRareWordHits( final Collection<String> rareWordTexts ) {
+      if ( rareWordTexts.isEmpty() ) {
+         return Collections.emptyMap();
+      }
+      try {
+         return getBatchRareWordHits( rareWordTexts );
+      } catch ( SQLException sqlE ) {
+         LOGGER.warn( "Batch term lookup failed, using single term lookup.  " + sqlE.getMessage() );
+      }
+      final Map<String, Collection<RareWordTerm>> rareWordHits = new HashMap<>( rareWordTexts.size() );
+      for ( String rareWordText : rareWordTexts ) {
+         final Collection<RareWordTerm> hits = getRareWordHits( rareWordText );
+         if ( !hits.isEmpty() ) {
+            rareWordHits.computeIfAbsent( BatchRareWordDictionary.getRareWordKey( rareWordText ),
+                  t -> new LinkedHashSet<>() ).addAll( hits );
+         }
+      }
+      return rareWordHits;
+   }
+
+   /**
+    * @param rareWordTexts texts of the rare words
+    * @return map of rare word key to all terms that contain the rare word
+    * @throws SQLException if any batch select call fails
+    */
+   private Map<String, Collection<RareWordTerm>> getBatchRareWordHits( final Collection<String> rareWordTexts )
+         throws SQLException {
+      final Map<String, Collection<RareWordTerm>> rareWordHits = new HashMap<>( rareWordTexts.size() );
+      final List<String> textList = new ArrayList<>( rareWordTexts );
+      for ( int i = 0; i < textList.size(); i += BATCH_SIZE ) {
+         final List<String> batch = textList.subList( i, Math.min( i + BATCH_SIZE, textList.size() ) );
+         final PreparedStatement selectTermsCall = fillBatchSelectCall( batch );
+         try ( ResultSet resultSet = selectTermsCall.executeQuery() ) {
+            while ( resultSet.next() ) {
+               final RareWordTerm rareWordTerm = createRareWordTerm( resultSet );
+               // The store may use a case insensitive collation, so the returned rare word may differ in case
+               // from the requested text, and texts that differ only by case may return the same term.
+               rareWordHits.computeIfAbsent( BatchRareWordDictionary.getRareWordKey( rareWordTerm.getRareWord() ),
+                     t -> new LinkedHashSet<>() ).add( rareWordTerm );
+            }
+         }
+      }
+      return rareWordHits;
+   }
+
+   /**
+    * @param resultSet result set positioned at a row
+    * @return a rare word term for the row
+    * @throws SQLException if the row could not be read
+    */
+   static private RareWordTerm createRareWordTerm( final ResultSet resultSet ) throws SQLException {
+      return new RareWordTerm( resultSet.getString( FIELD_INDEX.TEXT.__index ),
+            resultSet.getLong( FIELD_INDEX.CUI.__index ),
+            resultSet.getString( FIELD_INDEX.RWORD.__index ),
+            resultSet.getInt( FIELD_INDEX.RINDEX.__index ),
+            resultSet.getInt( FIELD_INDEX.TCOUNT.__index ) );
+   }
+
+   /**
+    * Closes the statements created for all threads.  The connection is shared, so it is not closed.
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() {
+      synchronized ( _statements ) {
+         for ( PreparedStatement statement : _statements ) {
+            try {
+               statement.close();
+            } catch ( SQLException sqlE ) {
+               LOGGER.warn( "Could not close Term Data Selection Call " + sqlE.getMessage() );
+            }
+         }
+         _statements.clear();
+      }
+      _selectTermCall.remove();
+      _selectTermsCall.remove();
+   }
+
+   /**
+    * ThreadLocal initializer.
+    *
+    * @param isBatch true for a batch select call
+    * @return a statement for the current thread
+    */
+   private PreparedStatement createStatement( final boolean isBatch ) {
+      final PreparedStatement statement;
+      try {
+         statement = isBatch ? createBatchSelectCall( _connection, _tableName )
+                             : createSelectCall( _connection, _tableName );
+      } catch ( SQLException sqlE ) {
+         LOGGER.error( "Could not create Term Data Selection Call", sqlE );
+         throw new IllegalStateException( sqlE );
+      }
+      synchronized ( _statements ) {
+         _statements.add( statement );
+      }
+      return statement;
+   }
+
    /**
     * @return an sql call to use for term lookup
     * @throws SQLException if the {@code PreparedStatement} could not be created or changed
@@ -140,15 +253,43 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
       return connection.prepareStatement( lookupSql );
    }
 
+   /**
+    * @return an sql call to use for lookup of {@value #BATCH_SIZE} terms
+    * @throws SQLException if the {@code PreparedStatement} could not be created or changed
+    */
+   static private PreparedStatement createBatchSelectCall( final Connection connection, final String tableName )
+         throws SQLException {
+      final String parameters = String.join( ",", Collections.nCopies( BATCH_SIZE, "?" ) );
+      final String lookupSql = "SELECT * FROM " + tableName + " WHERE RWORD IN (" + parameters + ")";
+      return connection.prepareStatement( lookupSql );
+   }
+
    /**
     * @param rareWordText text of the rare word to use for term lookup
     * @return an sql call to use for term lookup
     * @throws SQLException if the {@code PreparedStatement} could not be created or changed
     */
    private PreparedStatement fillSelectCall( final String rareWordText ) throws SQLException {
-      _selectTermCall.clearParameters();
-      _selectTermCall.setString( 1, rareWordText );
-      return _selectTermCall;
+      final PreparedStatement selectTermCall = _selectTermCall.get();
+      selectTermCall.clearParameters();
+      selectTermCall.setString( 1, rareWordText );
+      return selectTermCall;
+   }
+
+   /**
+    * @param rareWordTexts up to {@value #BATCH_SIZE} rare word texts to use for term lookup.
+    *                      Unused parameters are filled with the last text.
+    * @return an sql call to use for term lookup
+    * @throws SQLException if the {@code PreparedStatement} could not be created or changed
+    */
+   private PreparedStatement fillBatchSelectCall( final List<String> rareWordTexts ) throws SQLException {
+      final PreparedStatement selectTermsCall = _selectTermsCall.get();
+      selectTermsCall.clearParameters();
+      final String lastText = rareWordTexts.get( rareWordTexts.size() - 1 );
+      for ( int i = 0; i < BATCH_SIZE; i++ ) {
+         selectTermsCall.setString( i + 1, i < rareWordTexts.size() ? rareWordTexts.get( i ) : lastText );
+      }
+      return selectTermsCall;
    }
 
 
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.dictionary.cased.util.mapped.MappedTermFile;
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.apache.uima.UimaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A RareWordDictionary backed by a memory-mapped {@link MappedTermFile}, compiled from a bsv or jdbc dictionary by
+ * {@link org.apache.ctakes.dictionary.lookup2.util.tool.MappedDictionaryCompiler}.
+ * The dictionary is not loaded onto the heap, starts immediately and is safe for concurrent lookup.
+ * Terms are stored in table 0 with the term text, rare word index and token count.
+ * Author: SPF
+ * Affiliation: CHIP-NLP
+ * Date: 10/18/26
+ */
+final public class MappedRareWordDictionary extends AbstractRareWordDictionary {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "MappedRareWordDictionary" );
+
+   static private final String MAPPED_FILE_PATH = "mappedPath";
+
+   static public final int TERM_TABLE = 0;
+
+   private final MappedTermFile _termFile;
+
+
+   public MappedRareWordDictionary( final String name, final UimaContext uimaContext, final Properties properties )
+         throws IOException {
+      this( name, properties.getProperty( MAPPED_FILE_PATH ) );
+   }
+
+   /**
+    * @param name       simple name for the dictionary
+    * @param mappedPath path to the mapped dictionary file
+    * @throws IOException if the mapped file could not be read
+    */
+   public MappedRareWordDictionary( final String name, final String mappedPath ) throws IOException {
+      super( name );
+      final File file = FileLocator.getFile( mappedPath );
+      _termFile = new MappedTermFile( file );
+      LOGGER.info( "Mapped " + name + " dictionary file " + file.getPath() + " with "
+                   + _termFile.getKeyCount( TERM_TABLE ) + " rare words" );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Collection<RareWordTerm> getRareWordHits( final String rareWordText ) {
+      final List<RareWordTerm> terms = new ArrayList<>( 0 );
+      _termFile.findRecords( TERM_TABLE, rareWordText,
+            ( cui, text, unused, rareWordIndex, tokenCount )
+                  -> terms.add( new RareWordTerm( text, cui, rareWordText, rareWordIndex, tokenCount ) ) );
+      return terms.isEmpty() ? Collections.emptyList() : terms;
+   }
+
+}
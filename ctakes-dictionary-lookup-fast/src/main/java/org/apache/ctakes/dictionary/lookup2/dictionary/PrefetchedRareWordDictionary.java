@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-document view of a {@link BatchRareWordDictionary} that answers lookups from hits fetched in one batch.
+ * Rare words that were not prefetched are passed to the wrapped dictionary.
+ * Author: SPF
+ * Affiliation: CHIP-NLP
+ * Date: 10/18/26
+ */
+final public class PrefetchedRareWordDictionary extends AbstractRareWordDictionary {
+
+   final private RareWordDictionary _delegateDictionary;
+   final private Set<String> _prefetchedTexts;
+   final private Map<String, Collection<RareWordTerm>> _rareWordHits;
+
+   /**
+    * @param delegateDictionary dictionary used to fetch hits
+    * @param rareWordTexts      distinct rare word texts to prefetch
+    */
+   public PrefetchedRareWordDictionary( final BatchRareWordDictionary delegateDictionary,
+                                        final Set<String> rareWordTexts ) {
+      super( delegateDictionary.getName() );
+      _delegateDictionary = delegateDictionary;
+      _prefetchedTexts = rareWordTexts;
+      _rareWordHits = delegateDictionary.getRareWordHits( rareWordTexts );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Collection<RareWordTerm> getRareWordHits( final String rareWordText ) {
+      final Collection<RareWordTerm> hits = _rareWordHits.get( BatchRareWordDictionary.getRareWordKey( rareWordText ) );
+      if ( hits != null ) {
+         return hits;
+      }
+      if ( _prefetchedTexts.contains( rareWordText ) ) {
+         return Collections.emptyList();
+      }
+      return _delegateDictionary.getRareWordHits( rareWordText );
+   }
+
+}
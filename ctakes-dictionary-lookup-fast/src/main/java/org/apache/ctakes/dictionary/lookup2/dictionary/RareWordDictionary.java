@@ -56,4 +56,11 @@ public interface RareWordDictionary {
     */
    public Collection<RareWordTerm> getRareWordHits( final String rareWordText );
 
+   /**
+    * Release any resources held by the dictionary, such as database statements.
+    * Called when the annotator that created the dictionary is destroyed.
+    */
+   default public void close() {
+   }
+
 }
@@ -9,6 +9,7 @@ import org.apache.uima.UimaContext;
 
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -16,11 +17,11 @@ import java.util.Properties;
  * @version %I%
  * @since 9/23/2014
  */
-final public class UmlsJdbcRareWordDictionary implements RareWordDictionary {
+final public class UmlsJdbcRareWordDictionary implements BatchRareWordDictionary {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "UmlsJdbcRareWordDictionary" );
 
-   final private RareWordDictionary _delegateDictionary;
+   final private BatchRareWordDictionary _delegateDictionary;
 
 
    public UmlsJdbcRareWordDictionary( final String name, final UimaContext uimaContext, final Properties properties )
@@ -57,5 +58,21 @@ final public class UmlsJdbcRareWordDictionary implements RareWordDictionary {
       return _delegateDictionary.getRareWordHits( rareWordText );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Map<String, Collection<RareWordTerm>> getRareWordHits( final Collection<String> rareWordTexts ) {
+      return _delegateDictionary.getRareWordHits( rareWordTexts );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() {
+      _delegateDictionary.close();
+   }
+
 
 }
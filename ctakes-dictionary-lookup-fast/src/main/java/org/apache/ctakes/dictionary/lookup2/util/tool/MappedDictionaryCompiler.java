@@ -0,0 +1,194 @@
+package org.apache.ctakes.dictionary.lookup2.util.tool;
+
+import org.apache.ctakes.core.util.collection.CollectionMap;
+import org.apache.ctakes.dictionary.cased.dictionary.BsvDictionary;
+import org.apache.ctakes.dictionary.cased.dictionary.MappedDictionary;
+import org.apache.ctakes.dictionary.cased.lookup.CandidateTerm;
+import org.apache.ctakes.dictionary.cased.util.mapped.MappedTermFileWriter;
+import org.apache.ctakes.dictionary.cased.util.tokenize.TokenizedTerm;
+import org.apache.ctakes.dictionary.cased.util.tokenize.TokenizedTermMapper;
+import org.apache.ctakes.dictionary.lookup2.dictionary.BsvRareWordDictionary;
+import org.apache.ctakes.dictionary.lookup2.dictionary.MappedRareWordDictionary;
+import org.apache.ctakes.dictionary.lookup2.dictionary.RareWordTermMapCreator;
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.ctakes.dictionary.cased.table.column.Synonym.*;
+import static org.apache.ctakes.dictionary.cased.util.jdbc.JdbcUtil.*;
+
+/**
+ * Compiles a bsv or jdbc dictionary into a memory-mapped dictionary file
+ * for {@link MappedRareWordDictionary} or {@link MappedDictionary}.
+ * <p>
+ * Usage:
+ * <pre>
+ * RARE_BSV   bsvPath outputFile
+ * RARE_JDBC  jdbcDriver jdbcUrl jdbcUser jdbcPass rareWordTable outputFile
+ * CASED_BSV  bsvPath outputFile
+ * CASED_JDBC jdbcDriver jdbcUrl jdbcUser jdbcPass outputFile
+ * </pre>
+ * Cased jdbc dictionaries are read from the standard UPPER, MIXED and LOWER tables.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class MappedDictionaryCompiler {
+
+   private MappedDictionaryCompiler() {
+   }
+
+   /**
+    * dictionary format: RARE_BSV, RARE_JDBC, CASED_BSV or CASED_JDBC
+    * format arguments.  See class documentation.
+    * output file path.
+    *
+    * @param args from the command line
+    */
+   public static void main( String... args ) {
+      if ( args.length < 3 ) {
+         System.err.println( "Usage: RARE_BSV|RARE_JDBC|CASED_BSV|CASED_JDBC [arguments] outputFile" );
+         return;
+      }
+      final File outputFile = new File( args[ args.length - 1 ] );
+      try {
+         final MappedTermFileWriter writer;
+         switch ( args[ 0 ].toUpperCase() ) {
+            case "RARE_BSV":
+               writer = compileRareWordBsv( args[ 1 ] );
+               break;
+            case "RARE_JDBC":
+               writer = compileRareWordJdbc( args[ 1 ], args[ 2 ], args[ 3 ], args[ 4 ], args[ 5 ] );
+               break;
+            case "CASED_BSV":
+               writer = compileCasedBsv( args[ 1 ] );
+               break;
+            case "CASED_JDBC":
+               writer = compileCasedJdbc( args[ 1 ], args[ 2 ], args[ 3 ], args[ 4 ] );
+               break;
+            default:
+               System.err.println( "Unknown dictionary format " + args[ 0 ] );
+               return;
+         }
+         writer.write( outputFile );
+         System.out.println( "Wrote mapped dictionary " + outputFile.getPath() );
+      } catch ( IOException | SQLException | ArrayIndexOutOfBoundsException multE ) {
+         System.err.println( multE.getMessage() );
+      }
+   }
+
+   static public MappedTermFileWriter compileRareWordBsv( final String bsvPath ) {
+      final CollectionMap<String, RareWordTerm, List<RareWordTerm>> rareWordTermMap
+            = RareWordTermMapCreator.createRareWordTermMap( BsvRareWordDictionary.parseBsvFile( bsvPath ) );
+      final MappedTermFileWriter writer = new MappedTermFileWriter( 1 );
+      for ( Map.Entry<String, List<RareWordTerm>> entry : rareWordTermMap ) {
+         for ( RareWordTerm term : entry.getValue() ) {
+            addRareWordTerm( writer, term );
+         }
+      }
+      return writer;
+   }
+
+   static public MappedTermFileWriter compileRareWordJdbc( final String jdbcDriver,
+                                                           final String jdbcUrl,
+                                                           final String jdbcUser,
+                                                           final String jdbcPass,
+                                                           final String tableName ) throws SQLException {
+      // DO NOT use try with resources here.  Try with resources uses a closable and closes it when exiting the try
+      final Connection connection = JdbcConnectionFactory.getInstance()
+                                                         .getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
+      final MappedTermFileWriter writer = new MappedTermFileWriter( 1 );
+      final PreparedStatement statement = connection.prepareStatement( "SELECT * FROM " + tableName );
+      final ResultSet resultSet = statement.executeQuery();
+      while ( resultSet.next() ) {
+         // Columns are CUI, RINDEX, TCOUNT, TEXT, RWORD as in JdbcRareWordDictionary
+         addRareWordTerm( writer, new RareWordTerm( resultSet.getString( 4 ),
+               resultSet.getLong( 1 ),
+               resultSet.getString( 5 ),
+               resultSet.getInt( 2 ),
+               resultSet.getInt( 3 ) ) );
+      }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
+      statement.close();
+      return writer;
+   }
+
+   static public MappedTermFileWriter compileCasedBsv( final String bsvPath ) {
+      final Collection<TokenizedTerm> tokenizedTerms = BsvDictionary.parseBsvFile( bsvPath );
+      final Map<String, Collection<CandidateTerm>> upperWordTermMap = new HashMap<>();
+      final Map<String, Collection<CandidateTerm>> mixedWordTermMap = new HashMap<>();
+      final Map<String, Collection<CandidateTerm>> lowerWordTermMap = new HashMap<>();
+      TokenizedTermMapper.createTermMap( tokenizedTerms, upperWordTermMap, mixedWordTermMap, lowerWordTermMap );
+      final MappedTermFileWriter writer = new MappedTermFileWriter( 3 );
+      addCandidateTerms( writer, MappedDictionary.UPPER_TABLE, upperWordTermMap );
+      addCandidateTerms( writer, MappedDictionary.MIXED_TABLE, mixedWordTermMap );
+      addCandidateTerms( writer, MappedDictionary.LOWER_TABLE, lowerWordTermMap );
+      return writer;
+   }
+
+   static public MappedTermFileWriter compileCasedJdbc( final String jdbcDriver,
+                                                        final String jdbcUrl,
+                                                        final String jdbcUser,
+                                                        final String jdbcPass ) throws SQLException {
+      // DO NOT use try with resources here.  Try with resources uses a closable and closes it when exiting the try
+      final Connection connection = JdbcConnectionFactory.getInstance()
+                                                         .getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
+      final MappedTermFileWriter writer = new MappedTermFileWriter( 3 );
+      addSynonymRows( connection, UPPER_TABLE, MappedDictionary.UPPER_TABLE, writer );
+      addSynonymRows( connection, MIXED_TABLE, MappedDictionary.MIXED_TABLE, writer );
+      addSynonymRows( connection, LOWER_TABLE, MappedDictionary.LOWER_TABLE, writer );
+      return writer;
+   }
+
+   static private void addRareWordTerm( final MappedTermFileWriter writer, final RareWordTerm term ) {
+      writer.addRecord( MappedRareWordDictionary.TERM_TABLE, term.getRareWord(), term.getCuiCode(),
+            term.getText(), null, term.getRareWordIndex(), term.getTokenCount() );
+   }
+
+   static private void addCandidateTerms( final MappedTermFileWriter writer,
+                                          final int table,
+                                          final Map<String, Collection<CandidateTerm>> wordTermMap ) {
+      for ( Map.Entry<String, Collection<CandidateTerm>> entry : wordTermMap.entrySet() ) {
+         for ( CandidateTerm term : entry.getValue() ) {
+            writer.addRecord( table, entry.getKey(), term.getCuiCode(),
+                  String.join( " ", term.getPrefixes() ),
+                  String.join( " ", term.getSuffixes() ),
+                  term.getRank(),
+                  term.getInstances() );
+         }
+      }
+   }
+
+   static private void addSynonymRows( final Connection connection,
+                                       final String tableName,
+                                       final int table,
+                                       final MappedTermFileWriter writer ) throws SQLException {
+      final PreparedStatement statement = connection.prepareStatement( "SELECT * FROM " + tableName );
+      final ResultSet resultSet = statement.executeQuery();
+      while ( resultSet.next() ) {
+         writer.addRecord( table,
+               resultSet.getString( INDEX_WORD.getColumn() ),
+               resultSet.getLong( CUI.getColumn() ),
+               resultSet.getString( PREFIX.getColumn() ),
+               resultSet.getString( SUFFIX.getColumn() ),
+               resultSet.getInt( RANK.getColumn() ),
+               resultSet.getInt( INSTANCES.getColumn() ) );
+      }
+      resultSet.close();
+      statement.close();
+   }
+
+}
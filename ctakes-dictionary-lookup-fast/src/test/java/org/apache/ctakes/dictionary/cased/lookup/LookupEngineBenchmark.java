@@ -0,0 +1,151 @@
+package org.apache.ctakes.dictionary.cased.lookup;
+
+
+import org.apache.ctakes.dictionary.cased.dictionary.BsvDictionary;
+import org.apache.ctakes.dictionary.cased.dictionary.CasedDictionary;
+import org.apache.ctakes.dictionary.cased.dictionary.MappedDictionary;
+import org.apache.ctakes.dictionary.lookup2.util.tool.MappedDictionaryCompiler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link LookupEngine} and {@link TrieLookupEngine} on the same dictionary.
+ * <p>
+ * By default a synthetic dictionary is generated in which a few index words are shared by many terms,
+ * as common clinical words are.  Set bsvPath to benchmark a real bsv dictionary.
+ * </p>
+ * Run with:
+ * mvn test-compile
+ * java -cp target/test-classes:target/classes:[test classpath] org.apache.ctakes.dictionary.cased.lookup.LookupEngineBenchmark
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class LookupEngineBenchmark {
+
+   @Param( { "BSV", "MAPPED" } )
+   public String _dictionaryType;
+
+   @Param( { "" } )
+   public String _bsvPath;
+
+   @Param( { "50000" } )
+   public int _termCount;
+
+   private CasedDictionary _dictionary;
+   private List<List<LookupToken>> _sentences;
+   private final LookupEngine _standardEngine = new LookupEngine();
+   private final LookupEngine _trieEngine = new TrieLookupEngine();
+
+   @Setup
+   public void setup() throws Exception {
+      final Random random = new Random( 42 );
+      final String[] vocabulary = createVocabulary( 5000 );
+      File bsvFile = _bsvPath.isEmpty() ? null : new File( _bsvPath );
+      if ( bsvFile == null ) {
+         bsvFile = File.createTempFile( "LookupEngineBenchmark", ".bsv" );
+         bsvFile.deleteOnExit();
+         writeTerms( bsvFile, vocabulary, random );
+      }
+      if ( _dictionaryType.equals( "MAPPED" ) ) {
+         final File mappedFile = File.createTempFile( "LookupEngineBenchmark", ".map" );
+         mappedFile.deleteOnExit();
+         MappedDictionaryCompiler.compileCasedBsv( bsvFile.getPath() ).write( mappedFile );
+         _dictionary = new MappedDictionary( "Benchmark", mappedFile.getPath() );
+      } else {
+         _dictionary = new BsvDictionary( "Benchmark", bsvFile.getPath() );
+      }
+      _sentences = new ArrayList<>();
+      for ( int i = 0; i < 200; i++ ) {
+         final StringBuilder sb = new StringBuilder();
+         for ( int j = 0; j < 20; j++ ) {
+            sb.append( vocabulary[ zipf( random, vocabulary.length ) ] ).append( ' ' );
+         }
+         _sentences.add( TrieLookupEngineTests.createLookupTokens( sb.toString().trim() ) );
+      }
+      // Compile outside of measurement.
+      _trieEngine.findTerms( _dictionary, _sentences.get( 0 ), 0, 0 );
+   }
+
+   @Benchmark
+   public int standardEngine() {
+      return findTerms( _standardEngine );
+   }
+
+   @Benchmark
+   public int trieEngine() {
+      return findTerms( _trieEngine );
+   }
+
+   private int findTerms( final LookupEngine engine ) {
+      int count = 0;
+      for ( List<LookupToken> sentence : _sentences ) {
+         count += engine.findTerms( _dictionary, sentence, 0, 0 ).size();
+      }
+      return count;
+   }
+
+   private void writeTerms( final File bsvFile, final String[] vocabulary, final Random random )
+         throws IOException {
+      // Term texts are unique, as synonyms in a real dictionary are.
+      final Set<String> texts = new HashSet<>( _termCount );
+      try ( PrintWriter writer = new PrintWriter( bsvFile ) ) {
+         while ( texts.size() < _termCount ) {
+            final int tokenCount = 1 + random.nextInt( 5 );
+            final StringBuilder sb = new StringBuilder();
+            for ( int j = 0; j < tokenCount; j++ ) {
+               if ( j > 0 ) {
+                  sb.append( ' ' );
+               }
+               sb.append( vocabulary[ zipf( random, vocabulary.length ) ] );
+            }
+            if ( texts.add( sb.toString() ) ) {
+               writer.println( "C" + (1000000 + texts.size()) + "|" + sb );
+            }
+         }
+      }
+   }
+
+   static private String[] createVocabulary( final int size ) {
+      final String[] vocabulary = new String[ size ];
+      for ( int i = 0; i < size; i++ ) {
+         final String word = "w" + Integer.toString( i, 26 ).replace( '0', 'q' );
+         // A few uppercase words, such as abbreviations.
+         vocabulary[ i ] = i % 50 == 0 ? word.toUpperCase() : word;
+      }
+      return vocabulary;
+   }
+
+   /**
+    * @return an index with a skewed distribution so that a few words are very common.
+    */
+   static private int zipf( final Random random, final int size ) {
+      return (int)Math.min( size - 1, Math.floor( Math.pow( size, random.nextDouble() ) ) - 1 );
+   }
+
+   public static void main( final String... args ) throws RunnerException {
+      final Options options = new OptionsBuilder().include( LookupEngineBenchmark.class.getSimpleName() ).build();
+      new Runner( options ).run();
+   }
+
+}
@@ -0,0 +1,115 @@
+package org.apache.ctakes.dictionary.cased.lookup;
+
+
+import org.apache.ctakes.core.util.Pair;
+import org.apache.ctakes.dictionary.cased.dictionary.BsvDictionary;
+import org.apache.ctakes.dictionary.cased.dictionary.CasedDictionary;
+import org.apache.ctakes.dictionary.cased.dictionary.MappedDictionary;
+import org.apache.ctakes.dictionary.lookup2.util.tool.MappedDictionaryCompiler;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class TrieLookupEngineTests {
+
+   @ClassRule
+   static public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final String[] TERMS = {
+         "C0027051|heart attack",
+         "C0027051|MI",
+         "C0027051|myocardial infarction",
+         "C0027051|acute MI",
+         "C0018787|heart",
+         "C0018801|heart failure",
+         "C0018802|congestive heart failure",
+         "C0018802|CHF",
+         "C0010346|Crohn disease",
+         "C0010346|Crohn's disease",
+         "C0011849|Diabetes",
+         "C0011849|diabetes mellitus",
+         "C0004096|ASTHMA",
+         "C0004096|asthma" };
+
+   static private final String TEXT = "Patient with a heart attack , acute MI and CHF . History of congestive heart failure ."
+                                      + " Crohn disease and diabetes mellitus . DIABETES , ASTHMA and Asthma ."
+                                      + " heart failure , Heart Failure , HEART ATTACK , mi .";
+
+   static private List<LookupToken> _lookupTokens;
+   static private CasedDictionary _bsvDictionary;
+   static private CasedDictionary _mappedDictionary;
+
+   @BeforeClass
+   static public void setupDictionaries() throws Exception {
+      final File bsvFile = _folder.newFile( "terms.bsv" );
+      Files.write( bsvFile.toPath(), Arrays.asList( TERMS ), StandardCharsets.UTF_8 );
+      final File mappedFile = new File( _folder.getRoot(), "terms.map" );
+      MappedDictionaryCompiler.compileCasedBsv( bsvFile.getPath() ).write( mappedFile );
+      _bsvDictionary = new BsvDictionary( "BsvTerms", bsvFile.getPath() );
+      _mappedDictionary = new MappedDictionary( "MappedTerms", mappedFile.getPath() );
+      _lookupTokens = createLookupTokens( TEXT );
+   }
+
+   @Test
+   public void testFirstTableDictionary() {
+      assertSameTerms( _bsvDictionary );
+   }
+
+   @Test
+   public void testUnionDictionary() {
+      assertSameTerms( _mappedDictionary );
+   }
+
+   static private void assertSameTerms( final CasedDictionary dictionary ) {
+      final Map<Pair<Integer>, List<Long>> expected
+            = toCuis( new LookupEngine().findTerms( dictionary, _lookupTokens, 0, 0 ) );
+      final Map<Pair<Integer>, List<Long>> actual
+            = toCuis( new TrieLookupEngine().findTerms( dictionary, _lookupTokens, 0, 0 ) );
+      assertFalse( expected.isEmpty() );
+      assertEquals( expected, actual );
+   }
+
+   static private Map<Pair<Integer>, List<Long>> toCuis( final Map<Pair<Integer>, Collection<DiscoveredTerm>> terms ) {
+      final Map<Pair<Integer>, List<Long>> cuis = new HashMap<>();
+      for ( Map.Entry<Pair<Integer>, Collection<DiscoveredTerm>> entry : terms.entrySet() ) {
+         final List<Long> spanCuis = new ArrayList<>();
+         entry.getValue().forEach( t -> spanCuis.add( t.getCuiCode() ) );
+         Collections.sort( spanCuis );
+         cuis.put( entry.getKey(), spanCuis );
+      }
+      return cuis;
+   }
+
+   static List<LookupToken> createLookupTokens( final String text ) throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( text );
+      final List<LookupToken> lookupTokens = new ArrayList<>();
+      final Matcher matcher = Pattern.compile( "\\S+" ).matcher( text );
+      while ( matcher.find() ) {
+         final WordToken token = new WordToken( jCas, matcher.start(), matcher.end() );
+         token.addToIndexes();
+         lookupTokens.add( new LookupToken( token, Character.isLetter( matcher.group().charAt( 0 ) ) ) );
+      }
+      return lookupTokens;
+   }
+
+}
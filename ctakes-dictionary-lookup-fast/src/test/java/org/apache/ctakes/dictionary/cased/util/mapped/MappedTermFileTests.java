@@ -0,0 +1,55 @@
+package org.apache.ctakes.dictionary.cased.util.mapped;
+
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class MappedTermFileTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   @Test
+   public void testRoundTrip() throws IOException {
+      final MappedTermFileWriter writer = new MappedTermFileWriter( 2 );
+      writer.addRecord( 0, "heart", 27051L, "heart attack", null, 0, 2 );
+      writer.addRecord( 0, "heart", 18787L, "heart", null, 0, 1 );
+      writer.addRecord( 0, "naïve", 123L, "naïve patient", null, 0, 2 );
+      writer.addRecord( 1, "MI", 27051L, "acute", "", 3, 7 );
+      final File file = _folder.newFile( "terms.map" );
+      writer.write( file );
+
+      final MappedTermFile termFile = new MappedTermFile( file );
+      assertEquals( 2, termFile.getTableCount() );
+      assertEquals( 2, termFile.getKeyCount( 0 ) );
+      final List<String> found = new ArrayList<>();
+      assertEquals( 2, termFile.findRecords( 0, "heart",
+            ( cui, textA, textB, valueA, valueB ) -> found.add( cui + " " + textA + " " + valueB ) ) );
+      assertEquals( "27051 heart attack 2", found.get( 0 ) );
+      assertEquals( "18787 heart 1", found.get( 1 ) );
+      found.clear();
+      assertEquals( 1, termFile.findRecords( 0, "naïve",
+            ( cui, textA, textB, valueA, valueB ) -> found.add( textA ) ) );
+      assertEquals( "naïve patient", found.get( 0 ) );
+      assertEquals( 0, termFile.findRecords( 0, "MI", ( cui, textA, textB, valueA, valueB ) -> found.add( textA ) ) );
+      assertEquals( 0, termFile.findRecords( 0, "zzz", ( cui, textA, textB, valueA, valueB ) -> found.add( textA ) ) );
+      found.clear();
+      assertEquals( 1, termFile.findRecords( 1, "MI",
+            ( cui, textA, textB, valueA, valueB ) -> found.add( textA + "|" + textB + "|" + valueA ) ) );
+      assertEquals( "acute||3", found.get( 0 ) );
+   }
+
+}
@@ -0,0 +1,171 @@
+package org.apache.ctakes.dictionary.lookup2.ae;
+
+
+import org.apache.ctakes.core.config.ConfigParameterConstants;
+import org.apache.ctakes.typesystem.type.refsem.UmlsConcept;
+import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class ParallelLookupTests {
+
+   @ClassRule
+   static public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final String[] DISORDERS = {
+         "C0027051|heart attack",
+         "C0027051|myocardial infarction",
+         "C0018801|heart failure",
+         "C0018802|congestive heart failure",
+         "C0010346|crohn disease",
+         "C0011849|diabetes mellitus",
+         "C0004096|asthma" };
+
+   static private final String[] ANATOMY = {
+         "C0018787|heart",
+         "C0024109|lung",
+         "C0023884|liver",
+         "C0022646|kidney" };
+
+   static private final String[] SENTENCES = {
+         "Patient with a heart attack and congestive heart failure .",
+         "History of asthma , crohn disease and diabetes mellitus .",
+         "Liver and kidney are normal , lung shows asthma .",
+         "No myocardial infarction but heart failure noted ." };
+
+   static private String _lookupXml;
+
+   @BeforeClass
+   static public void setupDictionaries() throws Exception {
+      final File disorderFile = _folder.newFile( "disorders.bsv" );
+      Files.write( disorderFile.toPath(), Arrays.asList( DISORDERS ), StandardCharsets.UTF_8 );
+      final File anatomyFile = _folder.newFile( "anatomy.bsv" );
+      Files.write( anatomyFile.toPath(), Arrays.asList( ANATOMY ), StandardCharsets.UTF_8 );
+      final File lookupFile = _folder.newFile( "lookup.xml" );
+      final String xml = "<lookupSpecification>\n<dictionaries>\n"
+                         + createDictionaryXml( "Disorders", disorderFile )
+                         + createDictionaryXml( "Anatomy", anatomyFile )
+                         + "</dictionaries>\n<conceptFactories>\n"
+                         + createConceptFactoryXml( "Disorders", disorderFile )
+                         + createConceptFactoryXml( "Anatomy", anatomyFile )
+                         + "</conceptFactories>\n<dictionaryConceptPairs>\n"
+                         + createPairXml( "Disorders" )
+                         + createPairXml( "Anatomy" )
+                         + "</dictionaryConceptPairs>\n<rareWordConsumer>\n<name>Term Consumer</name>\n"
+                         + "<implementationName>org.apache.ctakes.dictionary.lookup2.consumer.DefaultTermConsumer"
+                         + "</implementationName>\n<properties>\n<property key=\"codingScheme\" value=\"custom\"/>\n"
+                         + "</properties>\n</rareWordConsumer>\n</lookupSpecification>\n";
+      Files.write( lookupFile.toPath(), xml.getBytes( StandardCharsets.UTF_8 ) );
+      _lookupXml = lookupFile.getPath();
+   }
+
+   @Test
+   public void testParallelMatchesSerial() throws Exception {
+      final List<String> serialTerms = findTerms( 1, 1 );
+      assertFalse( "No terms found", serialTerms.isEmpty() );
+      assertEquals( serialTerms, findTerms( 4, 1 ) );
+      // Many windows so that windows are split into several chunks per dictionary
+      assertEquals( findTerms( 1, 40 ), findTerms( 4, 40 ) );
+   }
+
+   static private List<String> findTerms( final int lookupThreads, final int repeats ) throws Exception {
+      final AnalysisEngine engine = AnalysisEngineFactory.createEngine( DefaultJCasTermAnnotator.class,
+            ConfigParameterConstants.PARAM_LOOKUP_XML, _lookupXml,
+            JCasTermAnnotator.PARAM_LOOKUP_THREADS_KEY, lookupThreads );
+      final JCas jcas = createTestJCas( repeats );
+      engine.process( jcas );
+      engine.destroy();
+      final List<String> terms = new ArrayList<>();
+      for ( IdentifiedAnnotation annotation : JCasUtil.select( jcas, IdentifiedAnnotation.class ) ) {
+         final StringBuilder sb = new StringBuilder();
+         sb.append( annotation.getBegin() ).append( ',' ).append( annotation.getEnd() )
+           .append( ',' ).append( annotation.getClass().getSimpleName() );
+         final FSArray concepts = annotation.getOntologyConceptArr();
+         final Set<String> cuis = new TreeSet<>();
+         for ( int i = 0; concepts != null && i < concepts.size(); i++ ) {
+            cuis.add( ((UmlsConcept)concepts.get( i )).getCui() );
+         }
+         sb.append( cuis );
+         terms.add( sb.toString() );
+      }
+      return terms;
+   }
+
+   static private JCas createTestJCas( final int repeats ) throws Exception {
+      final JCas jcas = JCasFactory.createJCas();
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < repeats; i++ ) {
+         for ( String sentence : SENTENCES ) {
+            sb.append( sentence ).append( ' ' );
+         }
+      }
+      final String text = sb.toString();
+      jcas.setDocumentText( text );
+      int sentenceBegin = 0;
+      int tokenBegin = 0;
+      for ( int i = 0; i <= text.length(); i++ ) {
+         if ( i < text.length() && text.charAt( i ) != ' ' ) {
+            continue;
+         }
+         if ( i > tokenBegin ) {
+            final String token = text.substring( tokenBegin, i );
+            if ( token.equals( "." ) || token.equals( "," ) ) {
+               new PunctuationToken( jcas, tokenBegin, i ).addToIndexes();
+            } else {
+               new WordToken( jcas, tokenBegin, i ).addToIndexes();
+            }
+            if ( token.equals( "." ) ) {
+               new Sentence( jcas, sentenceBegin, i ).addToIndexes();
+               sentenceBegin = i + 1;
+            }
+         }
+         tokenBegin = i + 1;
+      }
+      return jcas;
+   }
+
+   static private String createDictionaryXml( final String name, final File bsvFile ) {
+      return "<dictionary>\n<name>" + name + "Terms</name>\n"
+             + "<implementationName>org.apache.ctakes.dictionary.lookup2.dictionary.BsvRareWordDictionary"
+             + "</implementationName>\n<properties>\n<property key=\"bsvPath\" value=\"" + bsvFile.getPath()
+             + "\"/>\n</properties>\n</dictionary>\n";
+   }
+
+   static private String createConceptFactoryXml( final String name, final File bsvFile ) {
+      return "<conceptFactory>\n<name>" + name + "Concepts</name>\n"
+             + "<implementationName>org.apache.ctakes.dictionary.lookup2.concept.BsvConceptFactory"
+             + "</implementationName>\n<properties>\n<property key=\"bsvPath\" value=\"" + bsvFile.getPath()
+             + "\"/>\n</properties>\n</conceptFactory>\n";
+   }
+
+   static private String createPairXml( final String name ) {
+      return "<dictionaryConceptPair>\n<name>" + name + "Pair</name>\n<dictionaryName>" + name
+             + "Terms</dictionaryName>\n<conceptFactoryName>" + name
+             + "Concepts</conceptFactoryName>\n</dictionaryConceptPair>\n";
+   }
+
+}
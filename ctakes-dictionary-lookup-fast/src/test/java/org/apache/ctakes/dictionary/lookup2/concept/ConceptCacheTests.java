@@ -0,0 +1,131 @@
+package org.apache.ctakes.dictionary.lookup2.concept;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class ConceptCacheTests {
+
+   static private final String DRIVER = "org.hsqldb.jdbcDriver";
+   static private final String USER = "sa";
+   static private final String PASS = "";
+
+   @Test
+   public void testSegmentEviction() {
+      // 16 segments of 2 concepts.
+      final ConceptCache cache = new ConceptCache( "Eviction", 32 );
+      final List<Long> sameSegment = getSameSegmentCuis( 3 );
+      final long first = sameSegment.get( 0 );
+      final long second = sameSegment.get( 1 );
+      final long third = sameSegment.get( 2 );
+      final long other = getOtherSegmentCui( first );
+      final AtomicInteger loads = new AtomicInteger();
+      final Function<Long, Concept> loader = createLoader( loads );
+      cache.getConcept( first, loader );
+      cache.getConcept( second, loader );
+      // Using the first concept makes the second the least recently used.
+      cache.getConcept( first, loader );
+      cache.getConcept( third, loader );
+      cache.getConcept( other, loader );
+      assertEquals( 4, loads.get() );
+      assertEquals( 3, cache.size() );
+      cache.getConcept( first, loader );
+      cache.getConcept( third, loader );
+      cache.getConcept( other, loader );
+      assertEquals( 4, loads.get() );
+      cache.getConcept( second, loader );
+      assertEquals( 5, loads.get() );
+   }
+
+   @Test
+   public void testCounters() {
+      final ConceptCache cache = new ConceptCache( "Counters", 1000 );
+      final AtomicInteger loads = new AtomicInteger();
+      final Function<Long, Concept> loader = createLoader( loads );
+      for ( long cuiCode = 1; cuiCode <= 10; cuiCode++ ) {
+         final Concept concept = cache.getConcept( cuiCode, loader );
+         assertSame( concept, cache.getConcept( cuiCode, loader ) );
+         assertSame( concept, cache.getConcept( cuiCode, loader ) );
+      }
+      assertEquals( 10, loads.get() );
+      assertEquals( 10, cache.getMissCount() );
+      assertEquals( 20, cache.getHitCount() );
+      assertEquals( 10, cache.size() );
+      // Concepts that could not be created are not cached.
+      assertNull( cache.getConcept( 11L, cuiCode -> null ) );
+      assertEquals( 11, cache.getMissCount() );
+      assertEquals( 10, cache.size() );
+      cache.clear();
+      assertEquals( 0, cache.size() );
+      assertEquals( 0, cache.getHitCount() );
+      assertEquals( 0, cache.getMissCount() );
+   }
+
+   @Test
+   public void testSharedByNameAndUrl() throws Exception {
+      final String url = "jdbc:hsqldb:mem:conceptCacheShared";
+      final String otherUrl = "jdbc:hsqldb:mem:conceptCacheOther";
+      final ConceptCache cache = createFactory( "Shared", url, 100 ).getConceptCache();
+      assertNotNull( cache );
+      assertSame( cache, createFactory( "Shared", url, 100 ).getConceptCache() );
+      assertSame( cache, ConceptCache.getSharedCache( "Shared|" + url, 100 ) );
+      assertNotSame( cache, createFactory( "Shared", otherUrl, 100 ).getConceptCache() );
+      assertNotSame( cache, createFactory( "Unshared", url, 100 ).getConceptCache() );
+      assertNull( createFactory( "Shared", url, 0 ).getConceptCache() );
+   }
+
+   @Test
+   public void testEmptyConceptCached() throws Exception {
+      final JdbcConceptFactory factory = createFactory( "Empty", "jdbc:hsqldb:mem:conceptCacheEmpty", 100 );
+      final ConceptCache cache = factory.getConceptCache();
+      final Concept concept = factory.createConcept( 27051L );
+      assertTrue( concept.isEmpty() );
+      assertEquals( 1, cache.getMissCount() );
+      assertSame( concept, factory.createConcept( 27051L ) );
+      assertEquals( 1, cache.getMissCount() );
+      assertEquals( 1, cache.getHitCount() );
+   }
+
+   static private JdbcConceptFactory createFactory( final String name, final String url, final int cacheSize )
+         throws Exception {
+      return new JdbcConceptFactory( name, DRIVER, url, USER, PASS, Collections.emptyMap(), cacheSize );
+   }
+
+   static private Function<Long, Concept> createLoader( final AtomicInteger loads ) {
+      return cuiCode -> {
+         loads.incrementAndGet();
+         return new DefaultConcept( "C" + cuiCode, "Concept " + cuiCode );
+      };
+   }
+
+   static private List<Long> getSameSegmentCuis( final int count ) {
+      final List<Long> cuiCodes = new ArrayList<>( count );
+      final int segment = ConceptCache.getSegmentIndex( 1L );
+      for ( long cuiCode = 1; cuiCodes.size() < count; cuiCode++ ) {
+         if ( ConceptCache.getSegmentIndex( cuiCode ) == segment ) {
+            cuiCodes.add( cuiCode );
+         }
+      }
+      return cuiCodes;
+   }
+
+   static private long getOtherSegmentCui( final long cuiCode ) {
+      long other = cuiCode + 1;
+      while ( ConceptCache.getSegmentIndex( other ) == ConceptCache.getSegmentIndex( cuiCode ) ) {
+         other++;
+      }
+      return other;
+   }
+
+}
@@ -0,0 +1,132 @@
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class JdbcRareWordDictionaryTests {
+
+   static private final String DRIVER = "org.hsqldb.jdbcDriver";
+   static private final String USER = "sa";
+   static private final String PASS = "";
+
+   // More words than fit in one batch select call.
+   static private final int WORD_COUNT = 250;
+
+   @Test
+   public void testBatchMatchesSingle() throws Exception {
+      final String url = createDatabase( "rareWordParity", "VARCHAR(100)" );
+      final JdbcRareWordDictionary dictionary
+            = new JdbcRareWordDictionary( "Parity", DRIVER, url, USER, PASS, "CUI_TERMS" );
+      try {
+         final Collection<String> texts = createLookupTexts();
+         final Map<String, Collection<RareWordTerm>> batchHits = dictionary.getRareWordHits( texts );
+         final PrefetchedRareWordDictionary prefetched
+               = new PrefetchedRareWordDictionary( dictionary, new HashSet<>( texts ) );
+         for ( String text : texts ) {
+            final Collection<RareWordTerm> singleHits = dictionary.getRareWordHits( text );
+            assertEquals( text, new HashSet<>( singleHits ),
+                  new HashSet<>( batchHits.getOrDefault( text, Collections.emptyList() ) ) );
+            assertEquals( text, new HashSet<>( singleHits ), new HashSet<>( prefetched.getRareWordHits( text ) ) );
+         }
+         // Words that were not prefetched are passed to the dictionary.
+         assertEquals( new HashSet<>( dictionary.getRareWordHits( "word7" ) ),
+               new HashSet<>( new PrefetchedRareWordDictionary( dictionary, Collections.emptySet() )
+                     .getRareWordHits( "word7" ) ) );
+      } finally {
+         dictionary.close();
+      }
+   }
+
+   @Test
+   public void testCaseInsensitiveCollation() throws Exception {
+      final String url = createDatabase( "rareWordIgnoreCase", "VARCHAR_IGNORECASE(100)" );
+      final JdbcRareWordDictionary dictionary
+            = new JdbcRareWordDictionary( "IgnoreCase", DRIVER, url, USER, PASS, "CUI_TERMS" );
+      try {
+         // Stored rare words are lowercase, requested variants may be cased.
+         final Collection<String> texts = Arrays.asList( "Word1", "WORD2", "word3" );
+         final PrefetchedRareWordDictionary prefetched
+               = new PrefetchedRareWordDictionary( dictionary, new HashSet<>( texts ) );
+         for ( String text : texts ) {
+            final Collection<RareWordTerm> singleHits = dictionary.getRareWordHits( text );
+            assertTrue( text, !singleHits.isEmpty() );
+            assertEquals( text, new HashSet<>( singleHits ), new HashSet<>( prefetched.getRareWordHits( text ) ) );
+         }
+      } finally {
+         dictionary.close();
+      }
+   }
+
+   @Test
+   public void testCloseStatements() throws Exception {
+      final String url = createDatabase( "rareWordClose", "VARCHAR(100)" );
+      final JdbcRareWordDictionary dictionary
+            = new JdbcRareWordDictionary( "Close", DRIVER, url, USER, PASS, "CUI_TERMS" );
+      final Thread thread = new Thread( () -> dictionary.getRareWordHits( createLookupTexts() ) );
+      thread.start();
+      thread.join();
+      dictionary.close();
+      // Statements for the calling thread are created again after a close.
+      assertTrue( !dictionary.getRareWordHits( "word1" ).isEmpty() );
+      dictionary.close();
+   }
+
+   static private Collection<String> createLookupTexts() {
+      final Collection<String> texts = new ArrayList<>();
+      for ( int i = 0; i < WORD_COUNT; i++ ) {
+         texts.add( "word" + i );
+      }
+      texts.add( "missing" );
+      return texts;
+   }
+
+   /**
+    * Creates a table with one or two terms for every third word.
+    */
+   static private String createDatabase( final String name, final String rareWordType ) throws SQLException {
+      final String url = "jdbc:hsqldb:mem:" + name;
+      final Connection connection = DriverManager.getConnection( url, USER, PASS );
+      try ( Statement statement = connection.createStatement() ) {
+         statement.execute( "CREATE TABLE CUI_TERMS ( CUI BIGINT, RINDEX INTEGER, TCOUNT INTEGER, "
+                            + "TEXT VARCHAR(200), RWORD " + rareWordType + " )" );
+      }
+      try ( PreparedStatement insert = connection.prepareStatement( "INSERT INTO CUI_TERMS VALUES (?,?,?,?,?)" ) ) {
+         for ( int i = 0; i < WORD_COUNT; i += 3 ) {
+            addRow( insert, i, 0, 1, "word" + i, "word" + i );
+            if ( i % 2 == 0 ) {
+               addRow( insert, i + 100000, 1, 2, "other word" + i, "word" + i );
+            }
+         }
+         addRow( insert, 1, 0, 1, "word1", "word1" );
+         addRow( insert, 2, 0, 1, "word2", "word2" );
+      }
+      return url;
+   }
+
+   static private void addRow( final PreparedStatement insert, final long cui, final int rIndex, final int tCount,
+                               final String text, final String rareWord ) throws SQLException {
+      insert.setLong( 1, cui );
+      insert.setInt( 2, rIndex );
+      insert.setInt( 3, tCount );
+      insert.setString( 4, text );
+      insert.setString( 5, rareWord );
+      insert.executeUpdate();
+   }
+
+}
@@ -27,6 +27,8 @@ import org.apache.ctakes.core.util.JCasUtil;
 import org.apache.ctakes.core.util.ParamUtil;
 import org.apache.ctakes.drugner.DrugMention;
 import org.apache.ctakes.drugner.elements.DrugChangeStatusElement;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
+import org.apache.ctakes.drugner.fsm.automaton.TokenAutomaton;
 import org.apache.ctakes.drugner.fsm.machines.elements.*;
 import org.apache.ctakes.drugner.fsm.machines.util.SubSectionIndicatorFSM;
 import org.apache.ctakes.drugner.fsm.machines.util.SuffixStrengthFSM;
@@ -110,6 +112,8 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 	private StrengthUnitFSM iv_strengthUnitFSM;
 	private FrequencyUnitFSM iv_frequencyUnitFSM;
 	private FormFSM iv_formFSM;
+	// runs the fsms that only need the base tokens in one pass
+	private TokenAutomaton iv_elementAutomaton;
 	private static final int NERTypeIdentifier = 1;
 	private static boolean handledRanges;
 	private Set<String> iv_exclusionTagSet = null;
@@ -139,6 +143,8 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 		iv_frequencyUnitFSM = new FrequencyUnitFSM();
 		iv_formFSM = new FormFSM();
 		iv_subMedSectionFSM = new SubSectionIndicatorFSM();
+		iv_elementAutomaton = new TokenAutomaton(iv_fractionFSM, iv_decimalFSM, iv_statusFSM, iv_rangeFSM,
+				iv_formFSM, iv_routeFSM, iv_frequencyUnitFSM);
 		LOGGER.info("Finite state machines loaded.");
 		
 		try {
@@ -666,19 +672,22 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			{
 		try
 		{
-			Set fractionTokenSet = iv_fractionFSM.execute(baseTokenList);
+			// fsms that only need the base tokens, in one pass
+			Map<AutomatonFSM, Set<?>> elementTokenSets = iv_elementAutomaton.execute(baseTokenList);
+
+			Set fractionTokenSet = elementTokenSets.get(iv_fractionFSM);
 			addAnnotations(jcas, fractionTokenSet, FractionStrengthAnnotation.type);
 
-			Set decimalTokenSet = iv_decimalFSM.execute(baseTokenList);
+			Set decimalTokenSet = elementTokenSets.get(iv_decimalFSM);
 
 			addAnnotations(jcas, decimalTokenSet, FractionStrengthAnnotation.type);
 
-			Set statusTokenSet = iv_statusFSM.execute(baseTokenList);
+			Set statusTokenSet = elementTokenSets.get(iv_statusFSM);
 
 			addAnnotations(jcas, statusTokenSet, DrugChangeStatusAnnotation.type);    
 			//statusConfidence = true;
 
-			Set rangeTokenSet = iv_rangeFSM.execute(baseTokenList);
+			Set rangeTokenSet = elementTokenSets.get(iv_rangeFSM);
 
       addAnnotations(jcas, decimalTokenSet, RangeStrengthAnnotation.type);
       //Mayo SPM 2/20/2012 Changed due to separation of strength tokens
@@ -726,8 +735,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 //        }
 //      }
 
-			Set formTokenSet = iv_formFSM.execute(baseTokenList,
-					/* decimalTokenSet */new HashSet());
+			Set formTokenSet = elementTokenSets.get(iv_formFSM);
 			Iterator formTokenItr = formTokenSet.iterator();
 
 			while (formTokenItr.hasNext())
@@ -795,7 +803,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			// This needs to be handled differently. But since I'm not sure if this feature will be utilized
 			// I am going to leave 'as is' for now.
 
-			Set routeTokenSet = iv_routeFSM.execute(baseTokenList);
+			Set routeTokenSet = elementTokenSets.get(iv_routeFSM);
 			boolean foundRoute = false;
 			Iterator routeTokenItr = routeTokenSet.iterator();
 			int begSegRT = 0, endSegRT = 0;
@@ -810,7 +818,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 
 			}
 
-			Set frequencyUnitTokenSet = iv_frequencyUnitFSM.execute(baseTokenList);
+			Set frequencyUnitTokenSet = elementTokenSets.get(iv_frequencyUnitFSM);
 			boolean foundFrequencyUnit = false;
 			Iterator frequencyUnitTokenItr = frequencyUnitTokenSet.iterator();
 			int begSegFUT = 0, endSegFUT = 0;
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner.fsm.automaton;
+
+import net.openai.util.fsm.Machine;
+import net.openai.util.fsm.State;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A finite state machine set whose machines can be compiled into a {@link TokenAutomaton}.
+ * The automaton steps the machines and calls back for the output of each machine that reaches an end state.
+ * @author Mayo Clinic
+ */
+public interface AutomatonFSM {
+
+	/**
+	 * @return the machines, which must not change after the fsm is constructed.
+	 */
+	public Collection<Machine> getMachines();
+
+	/**
+	 * Adds the output token for a machine that has reached an end state.
+	 * @param fsm machine that reached the end state
+	 * @param tokens input tokens
+	 * @param tokenStart index of the last token that left the machine in its start state, or null if none has
+	 * @param tokenIndex index of the current token
+	 * @param token current token
+	 * @param endState end state of the machine
+	 * @param outputSet set of output tokens
+	 * @throws Exception
+	 */
+	public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+			State endState, Set outputSet) throws Exception;
+}
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner.fsm.automaton;
+
+import net.openai.util.fsm.Condition;
+import net.openai.util.fsm.Machine;
+import net.openai.util.fsm.State;
+import net.openai.util.fsm.UnhandledConditionException;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Runs the machines of several finite state machine sets over a token list in a single pass.
+ * <p>
+ * Each fsm set normally feeds every token to each of its machines in turn, and every
+ * {@link Machine#input(Object)} synchronizes, walks a Vector of conditions and fires state events.
+ * The machines are compiled here into flat state and transition tables with the same semantics:
+ * a machine follows the first condition of its current state that the token satisfies,
+ * and is reset to its start state after it reaches an end state.
+ * Conditions that are shared by machines, or that have no parameters, are evaluated once per token.
+ * </p>
+ * The tables are read-only, so an automaton can be shared.  Machines are not changed by a run.
+ * @author Mayo Clinic
+ */
+public class TokenAutomaton {
+
+	private final AutomatonFSM[] iv_fsms;
+
+	// per machine: the machine, index of its fsm and id of its start state
+	private final Machine[] iv_machines;
+	private final int[] iv_machineFsms;
+	private final int[] iv_machineStarts;
+
+	// per state; transitions of state s are at iv_transitionBegins[s] until iv_transitionBegins[s+1]
+	private final State[] iv_states;
+	private final boolean[] iv_startFlags;
+	private final boolean[] iv_endFlags;
+	private final int[] iv_transitionBegins;
+	private final int[] iv_transitionConditions;
+	// state id of the condition target, or -1 for a condition without a target
+	private final int[] iv_transitionTargets;
+
+	private final Condition[] iv_conditions;
+
+	/**
+	 * Compiles the machines of the given fsm sets.
+	 * @param fsms
+	 */
+	public TokenAutomaton(AutomatonFSM... fsms) {
+		iv_fsms = fsms.clone();
+		List<Machine> machines = new ArrayList<>();
+		List<Integer> machineFsms = new ArrayList<>();
+		for (int f = 0; f < fsms.length; f++) {
+			for (Machine machine : fsms[f].getMachines()) {
+				machines.add(machine);
+				machineFsms.add(f);
+			}
+		}
+		iv_machines = machines.toArray(new Machine[0]);
+		iv_machineFsms = new int[iv_machines.length];
+		iv_machineStarts = new int[iv_machines.length];
+
+		Map<State, Integer> stateIds = new IdentityHashMap<>();
+		List<State> states = new ArrayList<>();
+		for (int m = 0; m < iv_machines.length; m++) {
+			iv_machineFsms[m] = machineFsms.get(m);
+			iv_machineStarts[m] = addState(iv_machines[m].getStartState(), stateIds, states);
+		}
+		// states are numbered breadth first, so states added while walking are walked later in the loop
+		Map<Condition, Integer> conditionIds = new IdentityHashMap<>();
+		Map<Class<?>, Integer> constantConditionIds = new HashMap<>();
+		List<Condition> conditions = new ArrayList<>();
+		List<Integer> transitionBegins = new ArrayList<>();
+		List<Integer> transitionConditions = new ArrayList<>();
+		List<Integer> transitionTargets = new ArrayList<>();
+		for (int s = 0; s < states.size(); s++) {
+			transitionBegins.add(transitionConditions.size());
+			Vector<?> transitions = states.get(s).getTransitions();
+			if (transitions == null) {
+				continue;
+			}
+			for (Object o : transitions) {
+				Condition condition = (Condition) o;
+				transitionConditions.add(addCondition(condition, conditionIds, constantConditionIds, conditions));
+				State target = condition.getTargetState();
+				transitionTargets.add(target == null ? -1 : addState(target, stateIds, states));
+			}
+		}
+		transitionBegins.add(transitionConditions.size());
+
+		iv_states = states.toArray(new State[0]);
+		iv_startFlags = new boolean[iv_states.length];
+		iv_endFlags = new boolean[iv_states.length];
+		for (int s = 0; s < iv_states.length; s++) {
+			iv_startFlags[s] = iv_states[s].getStartStateFlag();
+			iv_endFlags[s] = iv_states[s].getEndStateFlag();
+		}
+		iv_transitionBegins = toArray(transitionBegins);
+		iv_transitionConditions = toArray(transitionConditions);
+		iv_transitionTargets = toArray(transitionTargets);
+		iv_conditions = conditions.toArray(new Condition[0]);
+	}
+
+	/**
+	 * Executes the machines of all fsm sets.
+	 * Gives the same output as the execute(List) method of each fsm set.
+	 * @param tokens
+	 * @return map of each fsm set to its Set of output tokens.
+	 * @throws Exception
+	 */
+	public Map<AutomatonFSM, Set<?>> execute(List<?> tokens) throws Exception {
+		Set<?>[] outputSets = new Set<?>[iv_fsms.length];
+		Map<AutomatonFSM, Set<?>> outputMap = new HashMap<>();
+		for (int f = 0; f < iv_fsms.length; f++) {
+			outputSets[f] = new HashSet<>();
+			outputMap.put(iv_fsms[f], outputSets[f]);
+		}
+		int[] currentStates = iv_machineStarts.clone();
+		// index of the last token that left the machine in its start state, or -1
+		int[] tokenStarts = new int[iv_machines.length];
+		Arrays.fill(tokenStarts, -1);
+		// condition values for the current token, valid when the condition token is the current token
+		boolean[] conditionValues = new boolean[iv_conditions.length];
+		int[] conditionTokens = new int[iv_conditions.length];
+		Arrays.fill(conditionTokens, -1);
+
+		for (int i = 0; i < tokens.size(); i++) {
+			BaseToken token = (BaseToken) tokens.get(i);
+			for (int m = 0; m < iv_machines.length; m++) {
+				int state = currentStates[m];
+				int next = -1;
+				boolean satisfied = false;
+				for (int t = iv_transitionBegins[state]; t < iv_transitionBegins[state + 1]; t++) {
+					int c = iv_transitionConditions[t];
+					if (conditionTokens[c] != i) {
+						conditionValues[c] = iv_conditions[c].satisfiedBy(token);
+						conditionTokens[c] = i;
+					}
+					if (conditionValues[c]) {
+						next = iv_transitionTargets[t];
+						satisfied = true;
+						break;
+					}
+				}
+				if (!satisfied || next < 0) {
+					throw new UnhandledConditionException(iv_states[state], token);
+				}
+				currentStates[m] = next;
+				if (iv_startFlags[next]) {
+					tokenStarts[m] = i;
+				}
+				if (iv_endFlags[next]) {
+					Integer tokenStart = tokenStarts[m] < 0 ? null : tokenStarts[m];
+					int f = iv_machineFsms[m];
+					iv_fsms[f].addMatch(iv_machines[m], tokens, tokenStart, i, token, iv_states[next], outputSets[f]);
+					currentStates[m] = iv_machineStarts[m];
+				}
+			}
+		}
+		return outputMap;
+	}
+
+	private static int addState(State state, Map<State, Integer> stateIds, List<State> states) {
+		Integer id = stateIds.get(state);
+		if (id == null) {
+			id = states.size();
+			stateIds.put(state, id);
+			states.add(state);
+		}
+		return id;
+	}
+
+	private static int addCondition(Condition condition, Map<Condition, Integer> conditionIds,
+			Map<Class<?>, Integer> constantConditionIds, List<Condition> conditions) {
+		Integer id = conditionIds.get(condition);
+		if (id != null) {
+			return id;
+		}
+		boolean constant = isConstant(condition.getClass());
+		if (constant) {
+			id = constantConditionIds.get(condition.getClass());
+		}
+		if (id == null) {
+			id = conditions.size();
+			conditions.add(condition);
+			if (constant) {
+				constantConditionIds.put(condition.getClass(), id);
+			}
+		}
+		conditionIds.put(condition, id);
+		return id;
+	}
+
+	/**
+	 * @return true if instances of the condition class have no fields of their own,
+	 * so that they all accept the same tokens
+	 */
+	private static boolean isConstant(Class<?> conditionClass) {
+		for (Class<?> c = conditionClass; c != Condition.class; c = c.getSuperclass()) {
+			if (c.isAnonymousClass() || c.isLocalClass() || c.isMemberClass() && !Modifier.isStatic(c.getModifiers())) {
+				return false;
+			}
+			for (Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static int[] toArray(List<Integer> values) {
+		int[] array = new int[values.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = values.get(i);
+		}
+		return array;
+	}
+}
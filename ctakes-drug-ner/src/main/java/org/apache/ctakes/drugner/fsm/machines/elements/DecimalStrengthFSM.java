@@ -26,6 +26,7 @@ import org.apache.ctakes.core.fsm.condition.NumberCondition;
 import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.output.util.DecimalStrengthToken;
 
 import java.util.*;
@@ -35,7 +36,7 @@ import java.util.*;
  * input of tokens.
  * @author Mayo Clinic
  */
-public class DecimalStrengthFSM
+public class DecimalStrengthFSM implements AutomatonFSM
 {
 	
     // contains the finite state machines
@@ -119,28 +120,7 @@ public class DecimalStrengthFSM
                 }
                 if (currentState.getEndStateFlag())
                 {
-                    Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null)
-					{
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					}
-					else
-					{
-						tokenStartIndex = ((Integer) o).intValue();
-						// skip ahead over single token we don't want
-						tokenStartIndex++;						
-					}
-                    BaseToken startToken =
-                        (BaseToken) tokens.get(tokenStartIndex);
-                    BaseToken endToken = token;
-                    DecimalStrengthToken fractionToken =
-                        new DecimalStrengthToken(
-                            startToken.getStartOffset(),
-                            endToken.getEndOffset());
-                    fractionSet.add(fractionToken);
+                    addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, fractionSet);
                     fsm.reset();
                 }
             }
@@ -159,4 +139,38 @@ public class DecimalStrengthFSM
 
         return fractionSet;
     }
+
+    public Collection<Machine> getMachines()
+    {
+        return Collections.unmodifiableSet(iv_machineSet);
+    }
+
+    /**
+     * Adds a DecimalStrengthToken for a machine that reached an end state.
+     */
+    public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+            State endState, Set outputSet)
+    {
+        int tokenStartIndex;
+        if (tokenStart == null)
+        {
+            // By default, all machines start with
+            // token zero.
+            tokenStartIndex = 0;
+        }
+        else
+        {
+            tokenStartIndex = tokenStart.intValue();
+            // skip ahead over single token we don't want
+            tokenStartIndex++;
+        }
+        BaseToken startToken =
+            (BaseToken) tokens.get(tokenStartIndex);
+        BaseToken endToken = token;
+        DecimalStrengthToken fractionToken =
+            new DecimalStrengthToken(
+                startToken.getStartOffset(),
+                endToken.getEndOffset());
+        outputSet.add(fractionToken);
+    }
 }
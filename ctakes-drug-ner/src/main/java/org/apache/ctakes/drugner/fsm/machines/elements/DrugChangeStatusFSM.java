@@ -25,6 +25,7 @@ import net.openai.util.fsm.State;
 import org.apache.ctakes.core.fsm.condition.*;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.elements.conditions.RangeStrengthCondition;
 import org.apache.ctakes.drugner.fsm.elements.conditions.StrengthCondition;
 import org.apache.ctakes.drugner.fsm.output.elements.DrugChangeStatusToken;
@@ -37,7 +38,7 @@ import java.util.*;
  * 
  * @author Mayo Clinic
  */
-public class DrugChangeStatusFSM {
+public class DrugChangeStatusFSM implements AutomatonFSM {
 
 	Set iv_singleStopWordSet = new HashSet();
 
@@ -782,57 +783,7 @@ public class DrugChangeStatusFSM {
 					tokenStartMap.put(fsm, Integer.valueOf(i));
 				}
 				if (currentState.getEndStateFlag()) {
-					Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = ((Integer) o).intValue();
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					DrugChangeStatusToken fractionToken = null;
-					if (fsm.equals(iv_startStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(),DrugChangeStatusToken.START);
-					} else if (fsm.equals(iv_stopStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.STOP);
-					} else if (fsm.equals(iv_increaseFromStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.INCREASEFROM);
-					} else if (fsm.equals(iv_decreaseFromStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.DECREASEFROM);
-					}  else if (fsm.equals(iv_increaseStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.INCREASE);
-					} else if (fsm.equals(iv_decreaseStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.DECREASE);
-					} else if (fsm.equals(iv_noChangeStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.NOCHANGE);
-						
-					} else if (fsm.equals(iv_changeStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.OTHER);
-					} else if (fsm.equals(iv_sumStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.SUM);
-						
-					} else if (fsm.equals(iv_maxStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.MAX);
-						
-					}
-
-					fractionSet.add(fractionToken);
+					addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, fractionSet);
 					fsm.reset();
 				}
 			}
@@ -850,4 +801,65 @@ public class DrugChangeStatusFSM {
 
 		return fractionSet;
 	}
+
+	public Collection<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Adds a DrugChangeStatusToken for a machine that reached an end state.
+	 */
+	public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+			State endState, Set outputSet) {
+		int tokenStartIndex;
+		if (tokenStart == null) {
+			// By default, all machines start with
+			// token zero.
+			tokenStartIndex = 0;
+		} else {
+			tokenStartIndex = tokenStart.intValue();
+			// skip ahead over single token we don't want
+			tokenStartIndex++;
+		}
+		BaseToken startToken = (BaseToken) tokens
+				.get(tokenStartIndex);
+		BaseToken endToken = token;
+		DrugChangeStatusToken fractionToken = null;
+		if (fsm.equals(iv_startStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(),DrugChangeStatusToken.START);
+		} else if (fsm.equals(iv_stopStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.STOP);
+		} else if (fsm.equals(iv_increaseFromStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.INCREASEFROM);
+		} else if (fsm.equals(iv_decreaseFromStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.DECREASEFROM);
+		}  else if (fsm.equals(iv_increaseStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.INCREASE);
+		} else if (fsm.equals(iv_decreaseStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.DECREASE);
+		} else if (fsm.equals(iv_noChangeStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.NOCHANGE);
+
+		} else if (fsm.equals(iv_changeStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.OTHER);
+		} else if (fsm.equals(iv_sumStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.SUM);
+
+		} else if (fsm.equals(iv_maxStatusMachine)) {
+			fractionToken = new DrugChangeStatusToken(startToken
+					.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.MAX);
+
+		}
+
+		outputSet.add(fractionToken);
+	}
 }
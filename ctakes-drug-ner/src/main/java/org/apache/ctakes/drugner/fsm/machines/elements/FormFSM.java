@@ -25,6 +25,7 @@ import net.openai.util.fsm.State;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.output.elements.FormToken;
 
 import java.util.*;
@@ -34,7 +35,7 @@ import java.util.*;
  * input of tokens.
  * @author Mayo Clinic
  */
-public class FormFSM {
+public class FormFSM implements AutomatonFSM {
 	// text fractions
 	Set iv_fullTextSet = new HashSet();
 
@@ -199,23 +200,7 @@ public class FormFSM {
 					tokenStartMap.put(fsm, Integer.valueOf(i));
 				}
 				if (currentState.getEndStateFlag()) {
-					Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = ((Integer) o).intValue();
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					FormToken measurementToken = new FormToken(startToken
-							.getStartOffset(), endToken.getEndOffset());
-					measurementSet.add(measurementToken);
+					addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, measurementSet);
 					fsm.reset();
 				}
 			}
@@ -290,5 +275,31 @@ public class FormFSM {
 		return tokens;
 	}
 	  
-}
 
+	public Collection<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Adds a FormToken for a machine that reached an end state.
+	 */
+	public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+			State endState, Set outputSet) {
+		int tokenStartIndex;
+		if (tokenStart == null) {
+			// By default, all machines start with
+			// token zero.
+			tokenStartIndex = 0;
+		} else {
+			tokenStartIndex = tokenStart.intValue();
+			// skip ahead over single token we don't want
+			tokenStartIndex++;
+		}
+		BaseToken startToken = (BaseToken) tokens
+				.get(tokenStartIndex);
+		BaseToken endToken = token;
+		FormToken measurementToken = new FormToken(startToken
+				.getStartOffset(), endToken.getEndOffset());
+		outputSet.add(measurementToken);
+	}
+}
@@ -28,6 +28,7 @@ import org.apache.ctakes.core.fsm.condition.PunctuationValueCondition;
 import org.apache.ctakes.core.fsm.condition.WordSetCondition;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.elements.conditions.ContainsSetTextValueCondition;
 import org.apache.ctakes.drugner.fsm.output.util.FractionStrengthToken;
 
@@ -39,7 +40,7 @@ import java.util.*;
  * 
  * @author Mayo clinic
  */
-public class FractionStrengthFSM
+public class FractionStrengthFSM implements AutomatonFSM
 {
     // text fractions
     Set<String> iv_textNumeratorSet = new HashSet<String>();
@@ -241,27 +242,7 @@ public class FractionStrengthFSM
             	}
             	if (currentState.getEndStateFlag())
             	{
-            		Object o = tokenStartMap.get(fsm);
-            		int tokenStartIndex;
-            		if (o == null)
-            		{
-            			// By default, all machines start with token zero.
-            			tokenStartIndex = 0;
-            		}
-            		else
-            		{
-            			tokenStartIndex = ((Integer) o).intValue();
-            			// skip ahead over single token we don't want
-            			tokenStartIndex++;						
-            		}
-            		BaseToken startToken =
-            			(BaseToken) tokens.get(tokenStartIndex);
-            		BaseToken endToken = token;
-            		FractionStrengthToken fractionToken =
-            			new FractionStrengthToken(
-            					startToken.getStartOffset(),
-            					endToken.getEndOffset());
-            		fractionSet.add(fractionToken);
+            		addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, fractionSet);
             		fsm.reset();
             	}
             }
@@ -280,4 +261,38 @@ public class FractionStrengthFSM
 
         return fractionSet;
     }
+
+    public Collection<Machine> getMachines()
+    {
+        return Collections.unmodifiableSet(iv_machineSet);
+    }
+
+    /**
+     * Adds a FractionStrengthToken for a machine that reached an end state.
+     */
+    @SuppressWarnings("unchecked")
+    public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+            State endState, Set outputSet)
+    {
+        int tokenStartIndex;
+        if (tokenStart == null)
+        {
+            // By default, all machines start with token zero.
+            tokenStartIndex = 0;
+        }
+        else
+        {
+            tokenStartIndex = tokenStart.intValue();
+            // skip ahead over single token we don't want
+            tokenStartIndex++;
+        }
+        BaseToken startToken =
+            (BaseToken) tokens.get(tokenStartIndex);
+        BaseToken endToken = token;
+        FractionStrengthToken fractionToken =
+            new FractionStrengthToken(
+                    startToken.getStartOffset(),
+                    endToken.getEndOffset());
+        outputSet.add(fractionToken);
+    }
 }
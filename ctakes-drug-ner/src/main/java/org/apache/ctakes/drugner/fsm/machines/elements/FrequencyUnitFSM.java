@@ -26,6 +26,7 @@ import org.apache.ctakes.core.fsm.condition.*;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.state.NonTerminalEndState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.elements.conditions.ContainsSetTextValueCondition;
 import org.apache.ctakes.drugner.fsm.elements.conditions.TimeCondition;
 import org.apache.ctakes.drugner.fsm.output.elements.FrequencyUnitToken;
@@ -39,7 +40,7 @@ import java.util.*;
  * 
  * @author Mayo Clinic
  */
-public class FrequencyUnitFSM {
+public class FrequencyUnitFSM implements AutomatonFSM {
 
 	Set iv_textSuffixSet = new HashSet();
 	
@@ -1368,7 +1369,6 @@ public class FrequencyUnitFSM {
 				Machine fsm = (Machine) machineItr.next();
 
 				fsm.input(token);
-				BaseToken startToken = null;
 			  
 				State currentState = fsm.getCurrentState();
 				
@@ -1377,95 +1377,7 @@ public class FrequencyUnitFSM {
 								
 				}
 				if (currentState.getEndStateFlag()) {
-					Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = ((Integer) o);
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					
-										
-					if (currentState instanceof IndentStartState) {
-                    	startToken = (BaseToken) tokens
-						.get(tokenStartIndex + 1);
-    					
-                    }
-                    else {
-                    	startToken = (BaseToken) tokens
-						.get(tokenStartIndex);
-				
-                    }
-					
-                    BaseToken endToken = null;
-                    if (currentState instanceof NonTerminalEndState)
-                    {
-                        endToken = (BaseToken) tokens.get(i - 1);
-                    }
-                    else
-                    {
-                        endToken = token;
-                    }
-                    
-					FrequencyUnitToken fractionToken = null;
-					 if (fsm.equals(iv_EveryOtherHourMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_24/2);
-					 else if (fsm.equals(iv_SixTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_SIX);
-					 else if (fsm.equals(iv_FiveTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_FIVE);
-					 else if (fsm.equals(iv_FourTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_FOUR);
-					 else if (fsm.equals(iv_ThreeTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_THREE);
-					else if (fsm.equals(iv_HourlyMachine) || fsm.equals(iv_HourlySuffixMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_24);
-					else if (fsm.equals(iv_TwiceADayMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_TWO);
-					else if (fsm.equals(iv_DailyMachine) || fsm.equals(iv_DailySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_ONE);
-					else if (fsm.equals(iv_EveryOtherDayMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_EVERY_OTHER_DAY);
-					else if (fsm.equals(iv_WeeklyMachine)|| fsm.equals(iv_WeeklySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_WEEKLY);
-					else if (fsm.equals(iv_MonthlySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_MONTHLY);
-					else if (fsm.equals(iv_YearlySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_YEARLY);
-					else 
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_PRN);
-					
-					rangeSet.add(fractionToken);
+					addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, rangeSet);
 					fsm.reset();
 				}
 			}
@@ -1508,99 +1420,13 @@ public class FrequencyUnitFSM {
 				fsm.input(token);
 
 				State currentState = fsm.getCurrentState();
-				BaseToken startToken = null;
 
 				if (currentState.getStartStateFlag()) {
 					tokenStartMap.put(fsm, i);
 								
 				}
 				if (currentState.getEndStateFlag()) {
-					Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = ((Integer) o);
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					
-	               if (currentState instanceof IndentStartState){
-	                    	startToken = (BaseToken) tokens
-							.get(tokenStartIndex + 1);
-	    					
-	                    }
-	               else {
-	                    	startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					
-	                    }
-                    BaseToken endToken = null;
-                    if (currentState instanceof NonTerminalEndState)
-                    {
-                        endToken = (BaseToken) tokens.get(i - 1);
-                    }
-                    else
-                    {
-                        endToken = token;
-                    }
-					FrequencyUnitToken fractionToken = null;
-					 if (fsm.equals(iv_EveryOtherHourMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_24/2);
-					 else if (fsm.equals(iv_SixTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_SIX);
-					 else if (fsm.equals(iv_FiveTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_FIVE);
-					 else if (fsm.equals(iv_FourTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_FOUR);
-					 else if (fsm.equals(iv_ThreeTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_THREE);
-					else if (fsm.equals(iv_HourlyMachine) || fsm.equals(iv_HourlySuffixMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_24);
-					else if (fsm.equals(iv_TwiceADayMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_TWO);
-					else if (fsm.equals(iv_DailyMachine) || fsm.equals(iv_DailySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_ONE);
-					else if (fsm.equals(iv_EveryOtherDayMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_EVERY_OTHER_DAY);
-					else if (fsm.equals(iv_WeeklyMachine)|| fsm.equals(iv_WeeklySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_WEEKLY);
-					else if (fsm.equals(iv_MonthlySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_MONTHLY);
-					else if (fsm.equals(iv_YearlySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_YEARLY);
-					else 
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_PRN);
-				
-					fractionSet.add(fractionToken);
+					addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, fractionSet);
 					fsm.reset();
 				}
 			}
@@ -1665,4 +1491,99 @@ public class FrequencyUnitFSM {
 	
 		
 	}
+
+	public Collection<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Adds a FrequencyUnitToken for a machine that reached an end state.
+	 */
+	public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+			State endState, Set outputSet) {
+		BaseToken startToken = null;
+		int tokenStartIndex;
+		if (tokenStart == null) {
+			// By default, all machines start with
+			// token zero.
+			tokenStartIndex = 0;
+		} else {
+			tokenStartIndex = tokenStart.intValue();
+			// skip ahead over single token we don't want
+			tokenStartIndex++;
+		}
+
+		if (endState instanceof IndentStartState) {
+			startToken = (BaseToken) tokens
+					.get(tokenStartIndex + 1);
+		}
+		else {
+			startToken = (BaseToken) tokens
+					.get(tokenStartIndex);
+		}
+		BaseToken endToken = null;
+		if (endState instanceof NonTerminalEndState)
+		{
+			endToken = (BaseToken) tokens.get(tokenIndex - 1);
+		}
+		else
+		{
+			endToken = token;
+		}
+		FrequencyUnitToken fractionToken = null;
+		 if (fsm.equals(iv_EveryOtherHourMachine))
+				fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_24/2);
+		 else if (fsm.equals(iv_SixTimesADayMachine))
+				fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_SIX);
+		 else if (fsm.equals(iv_FiveTimesADayMachine))
+				fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_FIVE);
+		 else if (fsm.equals(iv_FourTimesADayMachine))
+				fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_FOUR);
+		 else if (fsm.equals(iv_ThreeTimesADayMachine))
+				fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_THREE);
+		else if (fsm.equals(iv_HourlyMachine) || fsm.equals(iv_HourlySuffixMachine))
+				fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_24);
+		else if (fsm.equals(iv_TwiceADayMachine))
+			fractionToken = new FrequencyUnitToken(
+				startToken.getStartOffset(), endToken
+						.getEndOffset(), FrequencyUnitToken.QUANTITY_TWO);
+		else if (fsm.equals(iv_DailyMachine) || fsm.equals(iv_DailySuffixMachine))
+			fractionToken = new FrequencyUnitToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset(), FrequencyUnitToken.QUANTITY_ONE);
+		else if (fsm.equals(iv_EveryOtherDayMachine))
+			fractionToken = new FrequencyUnitToken(
+				startToken.getStartOffset(), endToken
+						.getEndOffset(), FrequencyUnitToken.QUANTITY_EVERY_OTHER_DAY);
+		else if (fsm.equals(iv_WeeklyMachine)|| fsm.equals(iv_WeeklySuffixMachine))
+			fractionToken = new FrequencyUnitToken(
+				startToken.getStartOffset(), endToken
+						.getEndOffset(), FrequencyUnitToken.QUANTITY_WEEKLY);
+		else if (fsm.equals(iv_MonthlySuffixMachine))
+			fractionToken = new FrequencyUnitToken(
+				startToken.getStartOffset(), endToken
+						.getEndOffset(), FrequencyUnitToken.QUANTITY_MONTHLY);
+		else if (fsm.equals(iv_YearlySuffixMachine))
+			fractionToken = new FrequencyUnitToken(
+				startToken.getStartOffset(), endToken
+						.getEndOffset(), FrequencyUnitToken.QUANTITY_YEARLY);
+		else 
+			fractionToken = new FrequencyUnitToken(
+				startToken.getStartOffset(), endToken
+						.getEndOffset(), FrequencyUnitToken.QUANTITY_PRN);
+
+		outputSet.add(fractionToken);
+	}
 }
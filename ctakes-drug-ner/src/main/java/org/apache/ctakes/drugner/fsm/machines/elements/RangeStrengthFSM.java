@@ -25,6 +25,7 @@ import net.openai.util.fsm.State;
 import org.apache.ctakes.core.fsm.condition.*;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.elements.conditions.FractionStrengthCondition;
 import org.apache.ctakes.drugner.fsm.output.util.RangeStrengthToken;
 
@@ -36,7 +37,7 @@ import java.util.*;
  * 
  * @author Mayo Clinic
  */
-public class RangeStrengthFSM 
+public class RangeStrengthFSM implements AutomatonFSM
 {
 	// text fractions
 	Set<String> iv_textNumberSet = new HashSet<>();
@@ -421,23 +422,7 @@ public class RangeStrengthFSM
 					tokenStartMap.put( fsm, i );
 				}
 				if ( currentState.getEndStateFlag() ) {
-					Integer o = tokenStartMap.get( fsm );
-					int tokenStartIndex;
-					if ( o == null ) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = o;
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					BaseToken startToken = tokens.get( tokenStartIndex );
-					RangeStrengthToken segmentToken =
-							new RangeStrengthToken(
-									startToken.getStartOffset(),
-									token.getEndOffset() );
-					rangeSet.add( segmentToken );
+					addMatch( fsm, tokens, tokenStartMap.get( fsm ), i, token, currentState, rangeSet );
 					fsm.reset();
 				}
 			}
@@ -478,23 +463,7 @@ public class RangeStrengthFSM
 					tokenStartMap.put( fsm, i );
 				}
 				if ( currentState.getEndStateFlag() ) {
-					Integer o = tokenStartMap.get( fsm );
-					int tokenStartIndex;
-					if ( o == null ) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = o;
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					BaseToken startToken = tokens
-							.get( tokenStartIndex );
-					RangeStrengthToken fractionToken = new RangeStrengthToken( startToken
-																										  .getStartOffset(),
-																								  token.getEndOffset() );
-					fractionSet.add( fractionToken );
+					addMatch( fsm, tokens, tokenStartMap.get( fsm ), i, token, currentState, fractionSet );
 					fsm.reset();
 				}
 			}
@@ -510,4 +479,29 @@ public class RangeStrengthFSM
 	
 		return fractionSet;
 	}
+
+	public Collection<Machine> getMachines() {
+		return Collections.unmodifiableSet( iv_machineSet );
+	}
+
+	/**
+	 * Adds a RangeStrengthToken for a machine that reached an end state.
+	 */
+	public void addMatch( Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+								 State endState, Set outputSet ) {
+		int tokenStartIndex;
+		if ( tokenStart == null ) {
+			// By default, all machines start with
+			// token zero.
+			tokenStartIndex = 0;
+		} else {
+			tokenStartIndex = tokenStart;
+			// skip ahead over single token we don't want
+			tokenStartIndex++;
+		}
+		BaseToken startToken = (BaseToken)tokens.get( tokenStartIndex );
+		RangeStrengthToken fractionToken = new RangeStrengthToken( startToken.getStartOffset(),
+																					  token.getEndOffset() );
+		outputSet.add( fractionToken );
+	}
 }
@@ -25,6 +25,7 @@ import net.openai.util.fsm.State;
 import org.apache.ctakes.core.fsm.condition.*;
 import org.apache.ctakes.core.fsm.state.NamedState;
 import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.automaton.AutomatonFSM;
 import org.apache.ctakes.drugner.fsm.elements.conditions.RangeStrengthCondition;
 import org.apache.ctakes.drugner.fsm.output.elements.RouteToken;
 
@@ -35,7 +36,7 @@ import java.util.*;
  * input of tokens.
  * @author Mayo Clinic
  */
-public class RouteFSM {
+public class RouteFSM implements AutomatonFSM {
 
 	Set iv_middleTermSet = new HashSet();
 
@@ -614,59 +615,7 @@ public class RouteFSM {
 					tokenStartMap.put(fsm, i);
 				}
 				if (currentState.getEndStateFlag()) {
-					Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = ((Integer) o);
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					RouteToken segmentToken = null;
-					
-					if (fsm.equals(iv_PatchesMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.TRANSDERMAL);
-					}
-					else if (fsm.equals(iv_GastricMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.GASTRIC);
-					}
-					else if (fsm.equals(iv_TopicalMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.TOPICAL);
-					}
-					else if (fsm.equals(iv_OralMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.ORAL);
-					}
-					else if (fsm.equals(iv_RectalMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.RECTAL);
-					}
-					else if (fsm.equals(iv_InjectMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.INTRAVENOUS);
-					}
-					rangeSet.add(segmentToken);
+					addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, rangeSet);
 					fsm.reset();
 				}
 			}
@@ -712,60 +661,7 @@ public class RouteFSM {
 					tokenStartMap.put(fsm, i);
 				}
 				if (currentState.getEndStateFlag()) {
-					Object o = tokenStartMap.get(fsm);
-					int tokenStartIndex;
-					if (o == null) {
-						// By default, all machines start with
-						// token zero.
-						tokenStartIndex = 0;
-					} else {
-						tokenStartIndex = ((Integer) o).intValue();
-						// skip ahead over single token we don't want
-						tokenStartIndex++;
-					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					RouteToken segmentToken = null;
-					
-					if (fsm.equals(iv_PatchesMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.TRANSDERMAL);
-					}
-					else if (fsm.equals(iv_GastricMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.GASTRIC);
-					}
-					else if (fsm.equals(iv_TopicalMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.TOPICAL);
-					}
-					else if (fsm.equals(iv_OralMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.ORAL);
-					}
-					else if (fsm.equals(iv_RectalMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.RECTAL);
-					}
-					else if (fsm.equals(iv_InjectMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.INTRAVENOUS);
-					}
-					
-					fractionSet.add(segmentToken);
+					addMatch(fsm, tokens, (Integer) tokenStartMap.get(fsm), i, token, currentState, fractionSet);
 					fsm.reset();
 				}
 			}
@@ -783,4 +679,68 @@ public class RouteFSM {
 
 		return fractionSet;
 	}
+
+	public Collection<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Adds a RouteToken for a machine that reached an end state.
+	 */
+	public void addMatch(Machine fsm, List tokens, Integer tokenStart, int tokenIndex, BaseToken token,
+			State endState, Set outputSet) {
+		int tokenStartIndex;
+		if (tokenStart == null) {
+			// By default, all machines start with
+			// token zero.
+			tokenStartIndex = 0;
+		} else {
+			tokenStartIndex = tokenStart.intValue();
+			// skip ahead over single token we don't want
+			tokenStartIndex++;
+		}
+		BaseToken startToken = (BaseToken) tokens
+				.get(tokenStartIndex);
+		BaseToken endToken = token;
+		RouteToken segmentToken = null;
+
+		if (fsm.equals(iv_PatchesMachine)){
+			segmentToken = new RouteToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.TRANSDERMAL);
+		}
+		else if (fsm.equals(iv_GastricMachine)){
+			segmentToken = new RouteToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.GASTRIC);
+		}
+		else if (fsm.equals(iv_TopicalMachine)){
+			segmentToken = new RouteToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.TOPICAL);
+		}
+		else if (fsm.equals(iv_OralMachine)){
+			segmentToken = new RouteToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.ORAL);
+		}
+		else if (fsm.equals(iv_RectalMachine)){
+			segmentToken = new RouteToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.RECTAL);
+		}
+		else if (fsm.equals(iv_InjectMachine)){
+			segmentToken = new RouteToken(
+					startToken.getStartOffset(), endToken
+							.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.INTRAVENOUS);
+		}
+
+		outputSet.add(segmentToken);
+	}
 }
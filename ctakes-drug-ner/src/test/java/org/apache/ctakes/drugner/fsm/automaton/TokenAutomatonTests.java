@@ -0,0 +1,231 @@
+package org.apache.ctakes.drugner.fsm.automaton;
+
+import org.apache.ctakes.core.ae.TokenizerAnnotator;
+import org.apache.ctakes.core.fsm.adapters.*;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.drugner.fsm.machines.elements.*;
+import org.apache.ctakes.drugner.fsm.output.elements.DrugChangeStatusToken;
+import org.apache.ctakes.drugner.fsm.output.elements.FrequencyUnitToken;
+import org.apache.ctakes.drugner.fsm.output.elements.RouteToken;
+import org.apache.ctakes.typesystem.type.syntax.*;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class TokenAutomatonTests {
+
+   static private final String[] DRUG_TEXT = {
+         "Lisinopril 10 mg tablet p.o. daily, increase to 20 mg b.i.d. in one week.",
+         "Metformin 500 mg by mouth twice a day with meals.\nStop glyburide.",
+         "Tylenol 1/2 tablet q.4-6 h. prn pain, maximum 4 doses per day.",
+         "Insulin 2.5 - 5 units subcutaneous injection every other day at bedtime.",
+         "Started prednisone 40 mg orally once daily then decreased to 10 mg qam.",
+         "Albuterol 2 puffs inhaled q6h as needed.  Nitroglycerin 0.4 mg sublingual x1.",
+         "Fentanyl 25 mcg transdermal patch every 72 hours, continue for 3 days.",
+         "Hydrocortisone cream topical three times weekly; eye drops 1-2 gtt hs." };
+
+   static private final String[] WORDS = { "po", "p", "o", "v", "r", "daily", "twice", "a", "day", "times", "every",
+                                           "other", "hours", "hour", "q", "h", "bid", "tid", "qid", "qd", "qhs", "mg",
+                                           "tablet", "tablets", "tab", "increase", "increased", "decrease", "from",
+                                           "to", "start", "started", "stop", "stopped", "half", "one", "two", "three",
+                                           "x", "prn", "as", "needed", "week", "weekly", "month", "year", "ml", "by",
+                                           "mouth", "orally", "iv", "injection", "topical", "drops", "cream", "cap",
+                                           "capsule", "the", "of", "in", "then", "hs", "am", "pm", "at", "bedtime",
+                                           "morning", "night", "qam", "qpm", "q4h", "q6h", "b.i.d.", "t.i.d.", "p.o.",
+                                           "each", "per", "once", "thrice", "four", "five", "six", "max", "maximum",
+                                           "change", "continue", "dose", "doses", "gastric", "transdermal", "tube",
+                                           "via", "an", "patch", "nightly", "hourly", "monthly", "yearly",
+                                           "alternate", "days", "hrs", "hr", "min", "minutes", "x1", "2x", "3x" };
+
+   static private final String[] PUNCTUATION = { ".", "-", "/", ",", "(", ")", ":" };
+
+   static private final Pattern TOKEN_PATTERN
+         = Pattern.compile( "(\\d+\\.\\d+)|(\\d+)|([A-Za-z]+)|(\\n)|([^\\sA-Za-z\\d])" );
+
+   static private final int WORD = 0;
+   static private final int INTEGER = 1;
+   static private final int DECIMAL = 2;
+   static private final int PUNCT = 3;
+   static private final int NEWLINE = 4;
+
+   @Test
+   public void testDrugTextMatchesMachines() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      int outputs = 0;
+      for ( String text : DRUG_TEXT ) {
+         outputs += assertSameOutput( text, tokenize( jCas, text ) );
+      }
+      assertTrue( "No machine output for the drug text", outputs > 0 );
+   }
+
+   @Test
+   public void testRandomTextMatchesMachines() throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      int outputs = 0;
+      for ( int i = 0; i < 50; i++ ) {
+         outputs += assertSameOutput( "Document " + i, createTokens( jCas, new Random( i ) ) );
+      }
+      assertTrue( "No machine output for the random text", outputs > 0 );
+   }
+
+   /**
+    * Runs the fused automaton and each of the fsm sets, new fsm sets every time so that machine state is not shared.
+    *
+    * @return number of output tokens
+    */
+   static private int assertSameOutput( final String name, final List<BaseToken> tokens ) throws Exception {
+      final FractionStrengthFSM fractionFsm = new FractionStrengthFSM();
+      final DecimalStrengthFSM decimalFsm = new DecimalStrengthFSM();
+      final DrugChangeStatusFSM statusFsm = new DrugChangeStatusFSM();
+      final RangeStrengthFSM rangeFsm = new RangeStrengthFSM();
+      final FormFSM formFsm = new FormFSM();
+      final RouteFSM routeFsm = new RouteFSM();
+      final FrequencyUnitFSM frequencyUnitFsm = new FrequencyUnitFSM();
+      final TokenAutomaton automaton = new TokenAutomaton( fractionFsm, decimalFsm, statusFsm, rangeFsm,
+            formFsm, routeFsm, frequencyUnitFsm );
+      final Map<AutomatonFSM, Set<?>> fused = automaton.execute( tokens );
+      assertEquals( name, describe( fractionFsm.execute( tokens ) ), describe( fused.get( fractionFsm ) ) );
+      assertEquals( name, describe( decimalFsm.execute( tokens ) ), describe( fused.get( decimalFsm ) ) );
+      assertEquals( name, describe( statusFsm.execute( tokens ) ), describe( fused.get( statusFsm ) ) );
+      assertEquals( name, describe( rangeFsm.execute( tokens ) ), describe( fused.get( rangeFsm ) ) );
+      assertEquals( name, describe( formFsm.execute( tokens, new HashSet<>() ) ), describe( fused.get( formFsm ) ) );
+      assertEquals( name, describe( routeFsm.execute( tokens ) ), describe( fused.get( routeFsm ) ) );
+      assertEquals( name, describe( frequencyUnitFsm.execute( tokens ) ), describe( fused.get( frequencyUnitFsm ) ) );
+      int outputs = 0;
+      for ( Set<?> output : fused.values() ) {
+         outputs += output.size();
+      }
+      // A second run of the same automaton gives the same output.
+      final Map<AutomatonFSM, Set<?>> again = automaton.execute( tokens );
+      for ( Map.Entry<AutomatonFSM, Set<?>> entry : fused.entrySet() ) {
+         assertEquals( name, describe( entry.getValue() ), describe( again.get( entry.getKey() ) ) );
+      }
+      return outputs;
+   }
+
+   /**
+    * @return sorted description of output tokens with their spans and values
+    */
+   static private List<String> describe( final Set<?> output ) {
+      final List<String> descriptions = new ArrayList<>();
+      for ( Object o : output ) {
+         final BaseToken token = (BaseToken)o;
+         String value = "";
+         if ( o instanceof RouteToken ) {
+            value = "" + ((RouteToken)o).getFormMethod();
+         } else if ( o instanceof FrequencyUnitToken ) {
+            value = "" + ((FrequencyUnitToken)o).getFrequencyUnitQuantity();
+         } else if ( o instanceof DrugChangeStatusToken ) {
+            value = ((DrugChangeStatusToken)o).getDrugChangeStatus();
+         }
+         descriptions.add( o.getClass().getSimpleName() + ' ' + token.getStartOffset() + '-' + token.getEndOffset()
+                           + ' ' + value );
+      }
+      Collections.sort( descriptions );
+      return descriptions;
+   }
+
+   static private List<BaseToken> tokenize( final JCas jCas, final String text ) {
+      jCas.reset();
+      jCas.setDocumentText( text );
+      final List<BaseToken> tokens = new ArrayList<>();
+      final Matcher matcher = TOKEN_PATTERN.matcher( text );
+      while ( matcher.find() ) {
+         int kind = WORD;
+         if ( matcher.group( 1 ) != null ) {
+            kind = DECIMAL;
+         } else if ( matcher.group( 2 ) != null ) {
+            kind = INTEGER;
+         } else if ( matcher.group( 4 ) != null ) {
+            kind = NEWLINE;
+         } else if ( matcher.group( 5 ) != null ) {
+            kind = PUNCT;
+         }
+         tokens.add( createToken( jCas, kind, matcher.start(), matcher.end() ) );
+      }
+      return tokens;
+   }
+
+   /**
+    * @return tokens for random sequences of frequency, route, strength and status words, numbers and punctuation
+    */
+   static private List<BaseToken> createTokens( final JCas jCas, final Random random ) {
+      jCas.reset();
+      final StringBuilder sb = new StringBuilder();
+      final List<int[]> spans = new ArrayList<>();
+      final int count = 50 + random.nextInt( 300 );
+      for ( int i = 0; i < count; i++ ) {
+         final int choice = random.nextInt( 10 );
+         final String text;
+         final int kind;
+         if ( choice < 6 ) {
+            text = WORDS[ random.nextInt( WORDS.length ) ];
+            kind = WORD;
+         } else if ( choice < 8 ) {
+            if ( random.nextBoolean() ) {
+               text = "" + random.nextInt( 30 );
+               kind = INTEGER;
+            } else {
+               text = random.nextInt( 10 ) + "." + random.nextInt( 100 );
+               kind = DECIMAL;
+            }
+         } else if ( random.nextInt( 12 ) > 0 ) {
+            text = PUNCTUATION[ random.nextInt( PUNCTUATION.length ) ];
+            kind = PUNCT;
+         } else {
+            text = "\n";
+            kind = NEWLINE;
+         }
+         if ( sb.length() > 0 && random.nextInt( 3 ) > 0 ) {
+            sb.append( ' ' );
+         }
+         spans.add( new int[]{ sb.length(), sb.length() + text.length(), kind } );
+         sb.append( text );
+      }
+      jCas.setDocumentText( sb.toString() );
+      final List<BaseToken> tokens = new ArrayList<>();
+      for ( int[] span : spans ) {
+         tokens.add( createToken( jCas, span[ 2 ], span[ 0 ], span[ 1 ] ) );
+      }
+      return tokens;
+   }
+
+   static private BaseToken createToken( final JCas jCas, final int kind, final int begin, final int end ) {
+      switch ( kind ) {
+         case WORD: {
+            final WordToken token = new WordToken( jCas, begin, end );
+            token.setCapitalization( 0 );
+            token.setNumPosition( 0 );
+            token.addToIndexes();
+            return new WordTokenAdapter( token );
+         }
+         case INTEGER: {
+            final NumToken token = new NumToken( jCas, begin, end );
+            token.setNumType( TokenizerAnnotator.TOKEN_NUM_TYPE_INTEGER );
+            return new IntegerTokenAdapter( token );
+         }
+         case DECIMAL: {
+            final NumToken token = new NumToken( jCas, begin, end );
+            token.setNumType( TokenizerAnnotator.TOKEN_NUM_TYPE_DECIMAL );
+            return new DecimalTokenAdapter( token );
+         }
+         case PUNCT:
+            return new PunctuationTokenAdapter( new PunctuationToken( jCas, begin, end ) );
+         default:
+            return new NewlineTokenAdapter( new NewlineToken( jCas, begin, end ) );
+      }
+   }
+
+}
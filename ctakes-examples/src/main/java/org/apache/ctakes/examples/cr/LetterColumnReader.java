@@ -53,6 +53,15 @@ public class LetterColumnReader extends AbstractFileTreeReader {
       return _letterTotal;
    }
 
+   /**
+    * Files are indexed by position in the full file list.
+    * {@inheritDoc}
+    */
+   @Override
+   protected boolean isStreamable() {
+      return false;
+   }
+
    /**
     * {@inheritDoc}
     */
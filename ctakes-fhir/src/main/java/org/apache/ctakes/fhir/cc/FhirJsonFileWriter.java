@@ -1,10 +1,13 @@
 package org.apache.ctakes.fhir.cc;
 
+import ca.uhn.fhir.parser.IParser;
 import org.apache.ctakes.core.cc.AbstractJCasFileWriter;
 import org.apache.ctakes.core.config.ConfigParameterConstants;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.fhir.util.FhirContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
@@ -38,17 +41,26 @@ public class FhirJsonFileWriter extends AbstractJCasFileWriter {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "FhirJsonFileWriter" );
 
+   private IParser _jsonParser;
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      _jsonParser = FhirContextUtil.createJsonParser( true );
+   }
+
    /**
     * {@inheritDoc}
     */
    @Override
    public void writeFile( final JCas jCas, final String outputDir,
                           final String documentId, final String fileName ) throws IOException {
-      final String json = FhirJsonWriter.createJson( jCas, _writeNlpFhir );
-
       final File file = new File( outputDir, fileName + ".json" );
       try ( Writer writer = new BufferedWriter( new FileWriter( file ) ) ) {
-         writer.write( json );
+         FhirJsonWriter.writeJson( jCas, _writeNlpFhir, _jsonParser, writer );
       }
    }
 
@@ -1,9 +1,9 @@
 package org.apache.ctakes.fhir.cc;
 
-import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.fhir.resource.PractitionerCtakes;
+import org.apache.ctakes.fhir.util.FhirContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.UimaContext;
@@ -14,6 +14,10 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.hl7.fhir.dstu3.model.Bundle;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
 /**
  * Prototype writer for fhir json.
  *
@@ -38,6 +42,8 @@ final public class FhirJsonWriter extends JCasAnnotator_ImplBase {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "FhirJsonWriter" );
 
+   private IParser _jsonParser;
+
    /**
     * {@inheritDoc}
     */
@@ -46,8 +52,7 @@ final public class FhirJsonWriter extends JCasAnnotator_ImplBase {
       // Always call the super first
       super.initialize( context );
 
-      // place AE initialization code here
-
+      _jsonParser = FhirContextUtil.createJsonParser( true );
    }
 
    /**
@@ -57,10 +62,17 @@ final public class FhirJsonWriter extends JCasAnnotator_ImplBase {
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
       LOGGER.info( "Processing ..." );
 
-      final String json = createJson( jCas, _writeNlpFhir );
-      System.out.println( json );
-      System.out.println();
-      System.out.println();
+      // Do not close the writer, which would close standard output.
+      final PrintWriter writer = new PrintWriter( System.out );
+      try {
+         writeJson( jCas, _writeNlpFhir, _jsonParser, writer );
+      } catch ( IOException ioE ) {
+         throw new AnalysisEngineProcessException( ioE );
+      }
+      writer.println();
+      writer.println();
+      writer.println();
+      writer.flush();
 
       LOGGER.info( "Finished." );
    }
@@ -71,10 +83,22 @@ final public class FhirJsonWriter extends JCasAnnotator_ImplBase {
 
    static public String createJson( final JCas jCas, final boolean writeNlp ) {
       final Bundle bundle = FhirDocComposer.composeDocFhir( jCas, PractitionerCtakes.getInstance(), writeNlp );
-      final FhirContext fhirContext = FhirContext.forDstu3();
-      final IParser jsonParser = fhirContext.newJsonParser();
-      jsonParser.setPrettyPrint( true );
-      return jsonParser.encodeResourceToString( bundle );
+      return FhirContextUtil.createJsonParser( true ).encodeResourceToString( bundle );
+   }
+
+   /**
+    * Writes the fhir bundle for the note directly to the writer instead of building the whole json string.
+    *
+    * @param jCas       ye olde ...
+    * @param writeNlp   write all nlp information (paragraph, sentence, base annotations) to fhir.
+    * @param jsonParser json parser to reuse, usually one per annotator.  Parsers are not thread safe.
+    * @param writer     destination for the json.  It is not closed.
+    * @throws IOException if the json could not be written.
+    */
+   static public void writeJson( final JCas jCas, final boolean writeNlp,
+                                 final IParser jsonParser, final Writer writer ) throws IOException {
+      final Bundle bundle = FhirDocComposer.composeDocFhir( jCas, PractitionerCtakes.getInstance(), writeNlp );
+      jsonParser.encodeResourceToWriter( bundle, writer );
    }
 
 }
@@ -0,0 +1,223 @@
+package org.apache.ctakes.fhir.cc;
+
+import ca.uhn.fhir.parser.IParser;
+import org.apache.ctakes.core.config.ConfigParameterConstants;
+import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.fhir.resource.PractitionerCtakes;
+import org.apache.ctakes.fhir.util.FhirContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Practitioner;
+import org.hl7.fhir.dstu3.model.Resource;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Writes fhir resources for all notes in the style of a FHIR Bulk Data export:
+ * newline delimited json with one resource per line and one set of files per resource type.
+ * Files are named [ResourceType].[number].ndjson, or .ndjson.gz when compressed,
+ * and a new file is started when the current file for a type holds the maximum number of resources.
+ * The practitioner is only written once.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+@PipeBitInfo(
+      name = "FHIR NDJSON File Writer",
+      description = "Writes newline delimited Json files with one file set per FHIR resource type for all documents.",
+      role = PipeBitInfo.Role.WRITER,
+      dependencies = { PipeBitInfo.TypeProduct.DOCUMENT_ID }
+)
+public class FhirNdjsonFileWriter extends JCasAnnotator_ImplBase {
+
+   @ConfigurationParameter(
+         name = ConfigParameterConstants.PARAM_OUTPUTDIR,
+         description = ConfigParameterConstants.DESC_OUTPUTDIR
+   )
+   private File _outputDir;
+
+   @ConfigurationParameter(
+         name = "WriteNlpFhir",
+         description = "Write all nlp information (paragraph, sentence, base annotations) to FHIR.",
+         mandatory = false,
+         defaultValue = "false"
+   )
+   private boolean _writeNlpFhir;
+
+   static public final String MAX_RESOURCES_PARAM = "MaxResourcesPerFile";
+   static public final String MAX_RESOURCES_DESC = "Maximum number of resources written to a single file.";
+   @ConfigurationParameter(
+         name = MAX_RESOURCES_PARAM,
+         description = MAX_RESOURCES_DESC,
+         mandatory = false,
+         defaultValue = "100000"
+   )
+   private int _maxResources;
+
+   static public final String COMPRESS_PARAM = "Compress";
+   static public final String COMPRESS_DESC = "Compress the files with gzip.";
+   @ConfigurationParameter(
+         name = COMPRESS_PARAM,
+         description = COMPRESS_DESC,
+         mandatory = false,
+         defaultValue = "true"
+   )
+   private boolean _compress;
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "FhirNdjsonFileWriter" );
+
+   private IParser _jsonParser;
+   private final Map<String, ResourceFile> _resourceFiles = new HashMap<>();
+   private final Set<String> _writtenPractitioners = new HashSet<>();
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      if ( _maxResources < 1 ) {
+         throw new ResourceInitializationException(
+               new IllegalArgumentException( MAX_RESOURCES_PARAM + " must be positive, not " + _maxResources ) );
+      }
+      if ( !_outputDir.isDirectory() && !_outputDir.mkdirs() ) {
+         throw new ResourceInitializationException(
+               new IOException( "Could not create output directory " + _outputDir.getAbsolutePath() ) );
+      }
+      _jsonParser = FhirContextUtil.createJsonParser( false );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      final Bundle bundle = FhirDocComposer.composeDocFhir( jCas, PractitionerCtakes.getInstance(), _writeNlpFhir );
+      try {
+         for ( Bundle.BundleEntryComponent entry : bundle.getEntry() ) {
+            final Resource resource = entry.getResource();
+            if ( resource instanceof Practitioner && !_writtenPractitioners.add( resource.getId() ) ) {
+               continue;
+            }
+            getResourceFile( resource.getResourceType().name() ).write( resource );
+         }
+      } catch ( IOException ioE ) {
+         throw new AnalysisEngineProcessException( ioE );
+      }
+   }
+
+   /**
+    * Close all files.
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      final IOException closeE = closeFiles();
+      if ( closeE != null ) {
+         throw new AnalysisEngineProcessException( closeE );
+      }
+   }
+
+   /**
+    * Close any files left open when the collection was not completed, e.g. after a processing error.
+    * {@inheritDoc}
+    */
+   @Override
+   public void destroy() {
+      closeFiles();
+      super.destroy();
+   }
+
+   /**
+    * @return the last exception thrown while closing a file, or null if all files were closed
+    */
+   private IOException closeFiles() {
+      IOException closeE = null;
+      for ( ResourceFile resourceFile : _resourceFiles.values() ) {
+         try {
+            resourceFile.close();
+         } catch ( IOException ioE ) {
+            LOGGER.error( ioE.getMessage() );
+            closeE = ioE;
+         }
+      }
+      _resourceFiles.clear();
+      return closeE;
+   }
+
+   private ResourceFile getResourceFile( final String resourceType ) {
+      return _resourceFiles.computeIfAbsent( resourceType, ResourceFile::new );
+   }
+
+   public static AnalysisEngine createEngine( final String outputDirectory ) throws ResourceInitializationException {
+      return AnalysisEngineFactory
+            .createEngine( FhirNdjsonFileWriter.class, ConfigParameterConstants.PARAM_OUTPUTDIR, outputDirectory );
+   }
+
+
+   /**
+    * Rolling files for one resource type.
+    */
+   private final class ResourceFile {
+      private final String _resourceType;
+      private int _fileNumber = 0;
+      private int _resourceCount = 0;
+      private Writer _writer;
+
+      private ResourceFile( final String resourceType ) {
+         _resourceType = resourceType;
+      }
+
+      private void write( final Resource resource ) throws IOException {
+         if ( _writer == null || _resourceCount >= _maxResources ) {
+            close();
+            _writer = openNextFile();
+         }
+         // Without pretty print the encoded resource is a single line.
+         _jsonParser.encodeResourceToWriter( resource, _writer );
+         _writer.write( '\n' );
+         _resourceCount++;
+      }
+
+      private Writer openNextFile() throws IOException {
+         _fileNumber++;
+         _resourceCount = 0;
+         final String fileName = _resourceType + "." + _fileNumber + (_compress ? ".ndjson.gz" : ".ndjson");
+         final File file = new File( _outputDir, fileName );
+         LOGGER.info( "Writing " + file.getPath() + " ..." );
+         OutputStream stream = new FileOutputStream( file );
+         if ( _compress ) {
+            stream = new GZIPOutputStream( stream, 65536 );
+         }
+         // Bulk Data ndjson is always utf-8.
+         return new BufferedWriter( new OutputStreamWriter( stream, StandardCharsets.UTF_8 ), 65536 );
+      }
+
+      private void close() throws IOException {
+         if ( _writer != null ) {
+            _writer.close();
+            _writer = null;
+         }
+      }
+   }
+
+
+}
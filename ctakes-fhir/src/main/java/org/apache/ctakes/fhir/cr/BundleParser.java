@@ -11,11 +11,10 @@ import org.hl7.fhir.dstu3.model.*;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.utilities.xhtml.XhtmlNode;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 
 import static org.apache.ctakes.fhir.element.FhirElementFactory.CTAKES_FHIR_URL;
 import static org.apache.ctakes.fhir.element.FhirElementFactory.RELATION_EXT_PREFIX;
@@ -76,6 +75,21 @@ final public class BundleParser {
       // TODO build Map<Integer,Collection<Annotation>> with coref chain index to annotations that belong from the Basic Extensions
    }
 
+   /**
+    * Same as {@link #parseBundle(JCas, Bundle)}, but reads the bundle json one entry resource at a time
+    * with {@link BundleReader#readJsonResources(File, Consumer)} instead of building the whole bundle.
+    * Relation targets are matched by resource id after all entries are read.
+    *
+    * @param jCas ye olde ...
+    * @param file json bundle file.
+    * @throws IOException if the file could not be read or is not a fhir bundle.
+    */
+   static public void parseJsonBundle( final JCas jCas, final File file ) throws IOException {
+      final ResourceStreamParser streamParser = new ResourceStreamParser( jCas );
+      BundleReader.readJsonResources( file, streamParser );
+      streamParser.createRelations();
+   }
+
 
    static private Map<IBaseResource, Annotation> parseResources( final JCas jCas,
                                                                  final List<Bundle.BundleEntryComponent> entries,
@@ -159,6 +173,67 @@ final public class BundleParser {
    }
 
 
+   /**
+    * Creates annotations for resources as they are read and keeps only what is needed to create relations:
+    * annotations by resource id and the relation extensions of each annotation.
+    */
+   static private final class ResourceStreamParser implements Consumer<IBaseResource> {
+      private final JCas _jCas;
+      private final CompositionParser _compositionParser = new CompositionParser();
+      private final SectionParser _sectionParser = new SectionParser();
+      private final ParagraphParser _paragraphParser = new ParagraphParser();
+      private final SentenceParser _sentenceParser = new SentenceParser();
+      private final BaseTokenParser _baseTokenParser = new BaseTokenParser();
+      private final AnnotationParser _annotationParser = new AnnotationParser();
+      private final IdentifiedAnnotationParser _iaParser = new IdentifiedAnnotationParser();
+      private final Map<String, Annotation> _idAnnotations = new HashMap<>();
+      private final Map<Annotation, List<Extension>> _relationExtensions = new LinkedHashMap<>();
+
+      private ResourceStreamParser( final JCas jCas ) {
+         _jCas = jCas;
+      }
+
+      @Override
+      public void accept( final IBaseResource resource ) {
+         final Annotation annotation = parseResource( _jCas, resource,
+               _compositionParser, _sectionParser, _paragraphParser, _sentenceParser, _baseTokenParser,
+               _annotationParser, _iaParser );
+         if ( annotation == null ) {
+            return;
+         }
+         _idAnnotations.put( getResourceId( resource ), annotation );
+         final List<Extension> relationExtensions = new ArrayList<>();
+         for ( Extension extension : ((Basic)resource).getExtension() ) {
+            if ( extension.getUrl().startsWith( CTAKES_FHIR_URL + RELATION_EXT_PREFIX )
+                 && extension.getValue() instanceof Reference ) {
+               relationExtensions.add( extension );
+            }
+         }
+         if ( !relationExtensions.isEmpty() ) {
+            _relationExtensions.put( annotation, relationExtensions );
+         }
+      }
+
+      private void createRelations() {
+         for ( Map.Entry<Annotation, List<Extension>> annotationExtensions : _relationExtensions.entrySet() ) {
+            for ( Extension extension : annotationExtensions.getValue() ) {
+               final Reference reference = (Reference)extension.getValue();
+               final Annotation target = _idAnnotations.get( reference.getReferenceElement()
+                                                                      .toUnqualifiedVersionless()
+                                                                      .getValue() );
+               if ( target != null ) {
+                  createRelation( _jCas, extension.getUrl(), annotationExtensions.getKey(), target );
+               }
+            }
+         }
+      }
+
+      static private String getResourceId( final IBaseResource resource ) {
+         return resource.getIdElement().toUnqualifiedVersionless().getValue();
+      }
+   }
+
+
    // TODO
    static private void createCoreference( final JCas jCas, Collection<Annotation> marked ) {
 
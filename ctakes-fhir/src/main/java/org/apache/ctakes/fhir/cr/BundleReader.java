@@ -1,13 +1,19 @@
 package org.apache.ctakes.fhir.cr;
 
 import ca.uhn.fhir.context.ConfigurationException;
-import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.ctakes.fhir.util.FhirContextUtil;
 import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.io.*;
+import java.util.function.Consumer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,16 +29,16 @@ final public class BundleReader {
 
    static private final Logger LOGGER = LoggerFactory.getLogger( "BundleReader" );
 
+   static private final JsonFactory JSON_FACTORY = new JsonFactory();
+
 
    static public Bundle readJsonBundle( final File file ) throws IOException {
-      final FhirContext fhirContext = FhirContext.forDstu3();
-      return readFileBundle( fhirContext.newJsonParser(), file );
+      return readFileBundle( FhirContextUtil.createJsonParser( false ), file );
    }
 
    static public Bundle readJsonBundle( final String text ) throws IOException {
       IBaseResource baseResource;
-      final FhirContext fhirContext = FhirContext.forDstu3();
-      final IParser jsonParser = fhirContext.newJsonParser();
+      final IParser jsonParser = FhirContextUtil.createJsonParser( false );
       try {
          baseResource = jsonParser.parseResource( text );
       } catch ( ConfigurationException | DataFormatException multE ) {
@@ -48,13 +54,73 @@ final public class BundleReader {
    }
 
    static public Bundle readXmlBundle( final File file ) throws IOException {
-      final FhirContext fhirContext = FhirContext.forDstu3();
-      return readFileBundle( fhirContext.newXmlParser(), file );
+      return readFileBundle( FhirContextUtil.createXmlParser(), file );
+   }
+
+   /**
+    * Reads the resources of a json bundle one entry at a time, in file order.
+    * Only one entry resource is held in memory at once, so neither the bundle nor its entry list is built.
+    * Unlike a parsed Bundle, references between entries are not linked to the resource objects;
+    * use the reference ids.
+    *
+    * @param file             json bundle file.
+    * @param resourceConsumer handles each entry resource.
+    * @throws IOException if the file could not be read or is not a fhir bundle.
+    */
+   static public void readJsonResources( final File file,
+                                         final Consumer<IBaseResource> resourceConsumer ) throws IOException {
+      final IParser jsonParser = FhirContextUtil.createJsonParser( false );
+      try ( Reader reader = new BufferedReader( new FileReader( file ) );
+            JsonParser parser = JSON_FACTORY.createParser( reader ) ) {
+         if ( parser.nextToken() != JsonToken.START_OBJECT ) {
+            throw new IOException( "Resource is not a Bundle for file " + file.getAbsolutePath() );
+         }
+         while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+            final String fieldName = parser.currentName();
+            final JsonToken valueToken = parser.nextToken();
+            if ( "resourceType".equals( fieldName ) ) {
+               if ( !"Bundle".equals( parser.getText() ) ) {
+                  throw new IOException( "Resource is not a Bundle for file " + file.getAbsolutePath() );
+               }
+            } else if ( "entry".equals( fieldName ) && valueToken == JsonToken.START_ARRAY ) {
+               while ( parser.nextToken() == JsonToken.START_OBJECT ) {
+                  readEntryResource( parser, jsonParser, resourceConsumer );
+               }
+            } else {
+               parser.skipChildren();
+            }
+         }
+      } catch ( ConfigurationException | DataFormatException multE ) {
+         throw new IOException( "Could not read fhir from " + file.getAbsolutePath(), multE );
+      }
+   }
+
+   /**
+    * Parses the resource of the bundle entry at the parser position and moves the parser to the end of the entry.
+    */
+   static private void readEntryResource( final JsonParser parser,
+                                          final IParser jsonParser,
+                                          final Consumer<IBaseResource> resourceConsumer ) throws IOException {
+      while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+         final String fieldName = parser.currentName();
+         final JsonToken valueToken = parser.nextToken();
+         if ( "resource".equals( fieldName ) && valueToken == JsonToken.START_OBJECT ) {
+            final StringWriter resourceJson = new StringWriter();
+            try ( JsonGenerator generator = JSON_FACTORY.createGenerator( resourceJson ) ) {
+               generator.copyCurrentStructure( parser );
+            }
+            final IBaseResource resource = jsonParser.parseResource( resourceJson.toString() );
+            if ( resource != null ) {
+               resourceConsumer.accept( resource );
+            }
+         } else {
+            parser.skipChildren();
+         }
+      }
    }
 
    static private Bundle readFileBundle( final IParser iParser, final File file ) throws IOException {
       IBaseResource baseResource;
-      final FhirContext fhirContext = FhirContext.forDstu3();
       try ( Reader reader = new BufferedReader( new FileReader( file ) ) ) {
          baseResource = iParser.parseResource( reader );
       } catch ( IOException | ConfigurationException | DataFormatException multE ) {
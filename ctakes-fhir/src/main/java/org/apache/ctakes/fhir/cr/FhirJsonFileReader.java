@@ -5,7 +5,6 @@ import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.jcas.JCas;
-import org.hl7.fhir.dstu3.model.Bundle;
 
 import java.io.File;
 import java.io.IOException;
@@ -33,9 +32,7 @@ public class FhirJsonFileReader extends AbstractFileTreeReader {
    protected void readFile( final JCas jCas, final File file ) throws IOException {
       jCas.reset();
 
-      final Bundle bundle = BundleReader.readJsonBundle( file );
-
-      BundleParser.parseBundle( jCas, bundle );
+      BundleParser.parseJsonBundle( jCas, file );
    }
 
 
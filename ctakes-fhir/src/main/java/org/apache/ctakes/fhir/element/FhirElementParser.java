@@ -46,9 +46,14 @@ final public class FhirElementParser {
       if ( reference == null ) {
          return "";
       }
+      // The id part does not depend upon whether the reference is linked to the subject resource,
+      // which it is not when bundle entries are read one at a time, or upon the bundle entry full url.
+      if ( reference.getResource() == null ) {
+         return reference.getReferenceElement().getIdPart();
+      }
       return reference.getResource()
             .getIdElement()
-            .getValue();
+            .getIdPart();
    }
 
    static public Pair<Integer> getTextSpan( final Collection<Extension> extensions ) {
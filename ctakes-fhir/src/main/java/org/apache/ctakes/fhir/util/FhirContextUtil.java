@@ -0,0 +1,50 @@
+package org.apache.ctakes.fhir.util;
+
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+
+/**
+ * Holds the single dstu3 fhir context used by ctakes.
+ * Creating a context scans all of the model classes, so it should only be done once.
+ * The context is thread safe.  Parsers are not, so each reader or writer should create its own and reuse it.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class FhirContextUtil {
+
+   private FhirContextUtil() {
+   }
+
+   static private final class ContextHolder {
+      static private final FhirContext DSTU3_CONTEXT = FhirContext.forDstu3();
+   }
+
+   /**
+    * @return the shared dstu3 fhir context.
+    */
+   static public FhirContext getFhirContext() {
+      return ContextHolder.DSTU3_CONTEXT;
+   }
+
+   /**
+    * @param prettyPrint true to indent the json.
+    * @return a new json parser from the shared context.
+    */
+   static public IParser createJsonParser( final boolean prettyPrint ) {
+      final IParser jsonParser = getFhirContext().newJsonParser();
+      jsonParser.setPrettyPrint( prettyPrint );
+      return jsonParser;
+   }
+
+   /**
+    * @return a new xml parser from the shared context.
+    */
+   static public IParser createXmlParser() {
+      return getFhirContext().newXmlParser();
+   }
+
+
+}
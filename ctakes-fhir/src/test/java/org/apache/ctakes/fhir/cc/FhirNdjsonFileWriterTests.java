@@ -0,0 +1,92 @@
+package org.apache.ctakes.fhir.cc;
+
+import org.apache.ctakes.core.config.ConfigParameterConstants;
+import org.apache.ctakes.fhir.util.FhirContextUtil;
+import org.apache.ctakes.typesystem.type.structured.DocumentID;
+import org.apache.ctakes.typesystem.type.textsem.DiseaseDisorderMention;
+import org.apache.ctakes.typesystem.type.textspan.Segment;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class FhirNdjsonFileWriterTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final int MAX_RESOURCES = 3;
+
+   @Test
+   public void testDestroyClosesFiles() throws Exception {
+      final File outputDir = _folder.newFolder();
+      final AnalysisEngine writer = AnalysisEngineFactory.createEngine( FhirNdjsonFileWriter.class,
+            ConfigParameterConstants.PARAM_OUTPUTDIR, outputDir.getPath(),
+            FhirNdjsonFileWriter.MAX_RESOURCES_PARAM, MAX_RESOURCES );
+      for ( int i = 0; i < 4; i++ ) {
+         writer.process( createCas( "doc" + i ) );
+      }
+      // No collectionProcessComplete, as when a pipeline stops early.
+      writer.destroy();
+      final File[] files = Objects.requireNonNull( outputDir.listFiles() );
+      assertTrue( files.length > 1 );
+      int practitioners = 0;
+      for ( File file : files ) {
+         final String resourceType = file.getName().substring( 0, file.getName().indexOf( '.' ) );
+         int resourceCount = 0;
+         // A gzip file that was not closed has no trailer and cannot be read to the end.
+         try ( BufferedReader reader = new BufferedReader( new InputStreamReader(
+               new GZIPInputStream( new FileInputStream( file ) ), StandardCharsets.UTF_8 ) ) ) {
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+               final IBaseResource resource = FhirContextUtil.createJsonParser( false ).parseResource( line );
+               assertEquals( resourceType, resource.getClass().getSimpleName() );
+               resourceCount++;
+            }
+         }
+         assertTrue( file.getName(), resourceCount > 0 && resourceCount <= MAX_RESOURCES );
+         if ( resourceType.equals( "Practitioner" ) ) {
+            practitioners += resourceCount;
+         }
+      }
+      assertEquals( "The practitioner should be written once", 1, practitioners );
+   }
+
+   static private JCas createCas( final String documentId ) throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      final String text = "The patient has a fever and a cough.";
+      jCas.setDocumentText( text );
+      final DocumentID docId = new DocumentID( jCas );
+      docId.setDocumentID( documentId );
+      docId.addToIndexes();
+      final Segment segment = new Segment( jCas, 0, text.length() );
+      segment.setId( "SIMPLE_SEGMENT" );
+      segment.setPreferredText( segment.getId() );
+      segment.setTagText( segment.getId() );
+      segment.addToIndexes();
+      new DiseaseDisorderMention( jCas, text.indexOf( "fever" ), text.indexOf( "fever" ) + 5 ).addToIndexes();
+      new DiseaseDisorderMention( jCas, text.indexOf( "cough" ), text.indexOf( "cough" ) + 5 ).addToIndexes();
+      return jCas;
+   }
+
+}
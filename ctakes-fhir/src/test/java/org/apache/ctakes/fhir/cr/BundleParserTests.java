@@ -0,0 +1,186 @@
+package org.apache.ctakes.fhir.cr;
+
+import org.apache.ctakes.core.util.RelationArgumentUtil;
+import org.apache.ctakes.fhir.cc.FhirJsonWriter;
+import org.apache.ctakes.typesystem.type.refsem.OntologyConcept;
+import org.apache.ctakes.typesystem.type.refsem.UmlsConcept;
+import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
+import org.apache.ctakes.typesystem.type.structured.DocumentID;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.AnatomicalSiteMention;
+import org.apache.ctakes.typesystem.type.textsem.DiseaseDisorderMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.SignSymptomMention;
+import org.apache.ctakes.typesystem.type.textspan.Paragraph;
+import org.apache.ctakes.typesystem.type.textspan.Segment;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class BundleParserTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final String[] WORDS = { "pain", "fever", "in", "the", "left", "arm", "severe", "cough", "no",
+                                           "chest", "patient", "has", "mild", "headache", "back" };
+   static private final String[] SUBJECTS = { "patient", "family_member", "donor_other" };
+   static private final String[] CATEGORIES = { "location_of", "degree_of", "hasBodySite" };
+   static private final int DOCUMENTS = 6;
+
+   @Test
+   public void testStreamingParseMatchesBundleParse() throws Exception {
+      for ( int i = 0; i < DOCUMENTS; i++ ) {
+         final JCas jCas = createCas( new Random( i ), "doc" + i );
+         final File file = writeJson( jCas, i % 2 == 0, "doc" + i );
+         final JCas bundleCas = JCasFactory.createJCas();
+         BundleParser.parseBundle( bundleCas, BundleReader.readJsonBundle( file ) );
+         final JCas streamedCas = JCasFactory.createJCas();
+         BundleParser.parseJsonBundle( streamedCas, file );
+         final String expected = describe( bundleCas );
+         assertTrue( "No relations in document " + i, expected.contains( "Relation " ) );
+         assertEquals( "Document " + i, expected, describe( streamedCas ) );
+      }
+   }
+
+   @Test
+   public void testReadJsonResourcesInEntryOrder() throws Exception {
+      final File file = writeJson( createCas( new Random( 1 ), "entries" ), true, "entries" );
+      final List<String> expected = new ArrayList<>();
+      for ( Bundle.BundleEntryComponent entry : BundleReader.readJsonBundle( file ).getEntry() ) {
+         expected.add( entry.getResource().getIdElement().getIdPart() );
+      }
+      final List<String> streamed = new ArrayList<>();
+      BundleReader.readJsonResources( file,
+            resource -> streamed.add( resource.getIdElement().getIdPart() ) );
+      assertTrue( expected.size() > 1 );
+      assertEquals( expected, streamed );
+   }
+
+   private File writeJson( final JCas jCas, final boolean writeNlp, final String name ) throws Exception {
+      final File file = _folder.newFile( name + ".json" );
+      Files.write( file.toPath(), FhirJsonWriter.createJson( jCas, writeNlp ).getBytes( StandardCharsets.UTF_8 ) );
+      return file;
+   }
+
+   /**
+    * @return sorted description of the annotations and relations parsed into the cas, with subjects and polarity
+    */
+   static private String describe( final JCas jCas ) {
+      final List<String> lines = new ArrayList<>();
+      for ( Annotation annotation : JCasUtil.select( jCas, Annotation.class ) ) {
+         final StringBuilder sb = new StringBuilder( annotation.getClass().getSimpleName() )
+               .append( ' ' ).append( annotation.getBegin() )
+               .append( '-' ).append( annotation.getEnd() );
+         if ( annotation instanceof IdentifiedAnnotation ) {
+            sb.append( ' ' ).append( ((IdentifiedAnnotation)annotation).getSubject() )
+              .append( ' ' ).append( ((IdentifiedAnnotation)annotation).getPolarity() );
+         }
+         lines.add( sb.toString() );
+      }
+      for ( BinaryTextRelation relation : JCasUtil.select( jCas, BinaryTextRelation.class ) ) {
+         final Annotation arg1 = relation.getArg1().getArgument();
+         final Annotation arg2 = relation.getArg2().getArgument();
+         lines.add( "Relation " + relation.getClass().getSimpleName() + ' ' + relation.getCategory()
+                    + ' ' + arg1.getBegin() + '-' + arg1.getEnd() + ' ' + arg2.getBegin() + '-' + arg2.getEnd() );
+      }
+      Collections.sort( lines );
+      return jCas.getDocumentText() + '\n' + String.join( "\n", lines );
+   }
+
+   /**
+    * @return cas with tokens, sentences, umls entities of several subjects, and relations between the entities
+    */
+   static private JCas createCas( final Random random, final String documentId ) throws Exception {
+      final JCas jCas = JCasFactory.createJCas();
+      final StringBuilder sb = new StringBuilder();
+      final List<int[]> words = new ArrayList<>();
+      final int wordCount = 30 + random.nextInt( 100 );
+      for ( int i = 0; i < wordCount; i++ ) {
+         if ( sb.length() > 0 ) {
+            sb.append( random.nextInt( 8 ) == 0 ? ".\n" : " " );
+         }
+         final String word = WORDS[ random.nextInt( WORDS.length ) ];
+         words.add( new int[]{ sb.length(), sb.length() + word.length() } );
+         sb.append( word );
+      }
+      jCas.setDocumentText( sb.toString() );
+      final DocumentID docId = new DocumentID( jCas );
+      docId.setDocumentID( documentId );
+      docId.addToIndexes();
+      final Segment segment = new Segment( jCas, 0, sb.length() );
+      segment.setId( random.nextBoolean() ? "Med" : "SIMPLE_SEGMENT" );
+      segment.setPreferredText( segment.getId() );
+      segment.setTagText( segment.getId() );
+      segment.addToIndexes();
+      new Paragraph( jCas, 0, sb.length() ).addToIndexes();
+      for ( int i = 0; i < words.size(); i += 10 ) {
+         new Sentence( jCas, words.get( i )[ 0 ], words.get( Math.min( words.size() - 1, i + 9 ) )[ 1 ] )
+               .addToIndexes();
+      }
+      final List<IdentifiedAnnotation> annotations = new ArrayList<>();
+      for ( int[] word : words ) {
+         final WordToken token = new WordToken( jCas, word[ 0 ], word[ 1 ] );
+         token.setPartOfSpeech( "NN" );
+         token.addToIndexes();
+         final IdentifiedAnnotation annotation;
+         switch ( random.nextInt( 6 ) ) {
+            case 0:
+               annotation = new DiseaseDisorderMention( jCas, word[ 0 ], word[ 1 ] );
+               break;
+            case 1:
+               annotation = new AnatomicalSiteMention( jCas, word[ 0 ], word[ 1 ] );
+               break;
+            case 2:
+               annotation = new SignSymptomMention( jCas, word[ 0 ], word[ 1 ] );
+               break;
+            default:
+               continue;
+         }
+         final UmlsConcept concept = new UmlsConcept( jCas );
+         concept.setCui( "C00" + random.nextInt( 1000 ) );
+         concept.setTui( "T047" );
+         concept.setCodingScheme( "SNOMED" );
+         concept.setCode( "" + random.nextInt( 99999 ) );
+         final FSArray<OntologyConcept> concepts = new FSArray<>( jCas, 1 );
+         concepts.set( 0, concept );
+         annotation.setOntologyConceptArr( concepts );
+         annotation.setPolarity( random.nextBoolean() ? 1 : -1 );
+         annotation.setSubject( SUBJECTS[ random.nextInt( SUBJECTS.length ) ] );
+         annotation.addToIndexes();
+         annotations.add( annotation );
+      }
+      for ( int i = 0; i + 1 < annotations.size(); i += 2 ) {
+         final BinaryTextRelation relation = RelationArgumentUtil.createRelation( jCas, annotations.get( i ),
+               annotations.get( i + 1 ), CATEGORIES[ random.nextInt( CATEGORIES.length ) ] );
+         if ( relation != null ) {
+            relation.addToIndexes();
+         }
+      }
+      return jCas;
+   }
+
+}
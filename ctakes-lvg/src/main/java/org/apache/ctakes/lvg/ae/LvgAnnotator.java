@@ -18,13 +18,12 @@
  */
 package org.apache.ctakes.lvg.ae;
 
-import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
-import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
-import gov.nih.nlm.nls.lvg.Lib.Category;
-import gov.nih.nlm.nls.lvg.Lib.LexItem;
 import org.apache.commons.io.FileUtils;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.ListFactory;
+import org.apache.ctakes.lvg.cache.CompiledLvgTable;
+import org.apache.ctakes.lvg.cache.LvgCache;
+import org.apache.ctakes.lvg.cache.LvgLemma;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResource;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResourceImpl;
 import org.apache.ctakes.typesystem.type.syntax.Lemma;
@@ -105,7 +104,7 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 	    name = PARAM_LEMMA_CACHE_FILE_LOCATION,
 	    mandatory = false,
 	    defaultValue = "org/apache/ctakes/lvg/2005_lemma.voc",
-	    description = "Path to lemma cache file -- if useLemmaCache and postLemmas are true"
+	    description = "Path to lemma cache file, text or compiled -- if useLemmaCache and postLemmas are true"
 	    )
   private String lemmaCacheFileLocation=null;
 	
@@ -164,7 +163,7 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 	    name = PARAM_CMD_CACHE_FILE,
 	    mandatory = false,
 	    defaultValue = "org/apache/ctakes/lvg/2005_norm.voc",
-	    description = "File with stored cache of canonical forms"
+	    description = "File with stored cache of canonical forms, text or compiled"
 	    )
   private String cmdCacheFileLocation;
 
@@ -196,15 +195,14 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
       )
   private LvgCmdApiResource lvgResource;
       
-	private LvgCmdApi lvgCmd;
+	// shared with all annotators using the same lvg resource
+	private LvgCache lvgCache;
 
-	private LvgLexItemApi lvgLexItem;
+	// precomputed canonical forms, null if not using the cmd cache
+	private CompiledLvgTable normTable;
 
-	// key = word, value = canonical word
-	private Map<String, String> normCacheMap;
-
-	// key = word, value = Set of Lemma objects
-	private Map<String, Set<LemmaLocalClass>> lemmaCacheMap;
+	// precomputed lemmas, null if not using the lemma cache
+	private CompiledLvgTable lemmaTable;
 
 
 	/**
@@ -219,21 +217,15 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 		configInit();
 		try {
-			lvgCmd = lvgResource.getLvg();
+			lvgCache = lvgResource.getCache();
+			lvgCache.addUser();
 
 			if (useCmdCache) {
-				LOGGER.info("Loading Cmd cache=" + cmdCacheFileLocation);
-				loadCmdCacheFile(cmdCacheFileLocation);
-				LOGGER.info("Loaded " + normCacheMap.size() + " entries");
+				normTable = lvgCache.getCompiledTable(cmdCacheFileLocation, cmdCacheFreqCutoff);
 			}
 
-			if (postLemmas) {
-				lvgLexItem = lvgResource.getLvgLex();
-				if (useLemmaCache) {
-					LOGGER.info("Loading Lemma cache=" + lemmaCacheFileLocation);
-					loadLemmaCacheFile(lemmaCacheFileLocation);
-					LOGGER.info("Loaded " + lemmaCacheMap.size() + " entries");
-				}
+			if (postLemmas && useLemmaCache) {
+				lemmaTable = lvgCache.getCompiledTable(lemmaCacheFileLocation, lemmaCacheFreqCutoff);
 			}
 		} catch (IOException e) {
 			throw new ResourceInitializationException(e);
@@ -302,6 +294,15 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 	}
 
+	/**
+	 * The shared lvg cache logs its hit rates after all of the annotators using it are complete.
+	 */
+	@Override
+	public void collectionProcessComplete() throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		lvgCache.userComplete();
+	}
+
 	/**
 	 * A utility method that annotates a given range.
 	 */
@@ -338,30 +339,12 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 	private void setCanonicalForm(WordToken wordAnnotation, String word)
 			throws AnalysisEngineProcessException {
-		// apply LVG processing to get canonical form
-		String canonicalForm = null;
-		if (useCmdCache) {
-			canonicalForm = normCacheMap.get(word);
-			if (canonicalForm == null) {
-				// LOGGER.info("["+ word+ "] was not found in LVG norm cache.");
-			}
-		}
-
-		// only apply LVG processing if not found in cache first
-		if (canonicalForm == null) {
-			try {
-				String out = lvgCmd.MutateToString(word);
-
-				String[] output = out.split("\\|");
-
-				if ((output != null) && (output.length >= 2)
-						&& (!output[1].matches("No Output"))) {
-					canonicalForm = output[1];
-				}
-			} catch (Exception e) {
-				throw new AnalysisEngineProcessException(e);
-			}
-
+		// apply LVG processing to get canonical form, lvg is only called if not cached
+		String canonicalForm;
+		try {
+			canonicalForm = lvgCache.getCanonicalForm(normTable, word);
+		} catch (Exception e) {
+			throw new AnalysisEngineProcessException(e);
 		}
 
 		if (canonicalForm != null) {
@@ -371,57 +354,13 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 
 	private void setLemma(WordToken wordAnnotation, String word, JCas jcas)
 			throws AnalysisEngineProcessException {
-		// apply LVG processing to get lemmas
+		// apply LVG processing to get lemmas, lvg is only called if not cached
 		// key = lemma string, value = Set of POS tags
-		Map<String, Set<String>> lemmaMap = null;
-
-		if (useLemmaCache) {
-			Set<?> lemmaSet = lemmaCacheMap.get(word);
-			if (lemmaSet == null) {
-				// LOGGER.info("["+ word+
-				// "] was not found in LVG lemma cache.");
-			} else {
-				lemmaMap = new HashMap<>();
-				Iterator<?> lemmaItr = lemmaSet.iterator();
-				while (lemmaItr.hasNext()) {
-					LemmaLocalClass l = (LemmaLocalClass) lemmaItr.next();
-					lemmaMap.put(l.word, l.posSet);
-				}
-			}
-		}
-
-		if (lemmaMap == null) {
-			lemmaMap = new HashMap<>();
-			try {
-				Vector<?> lexItems = lvgLexItem.MutateLexItem(word);
-				Iterator<?> lexItemItr = lexItems.iterator();
-				while (lexItemItr.hasNext()) {
-					LexItem li = (LexItem) lexItemItr.next();
-
-					Category c = li.GetTargetCategory();
-					String lemmaStr = li.GetTargetTerm();
-					long[] bitValues = Category.ToValuesArray(c.GetValue());
-					for (int i = 0; i < bitValues.length; i++) {
-						// note that POS is Xerox tagset
-						String lemmaPos = Category.ToName(bitValues[i]);
-						// convert Xerox tagset to PennTreebank tagset
-						String treebankTag = xeroxTreebankMap
-								.get(lemmaPos);
-						if (treebankTag != null) {
-							Set<String> posSet = null;
-							if (lemmaMap.containsKey(lemmaStr)) {
-								posSet = lemmaMap.get(lemmaStr);
-							} else {
-								posSet = new HashSet<>();
-							}
-							posSet.add(treebankTag);
-							lemmaMap.put(lemmaStr, posSet);
-						}
-					}
-				}
-			} catch (Exception e) {
-				throw new AnalysisEngineProcessException(e);
-			}
+		Map<String, Set<String>> lemmaMap;
+		try {
+			lemmaMap = LvgLemma.toTreebank(lvgCache.getLemmas(lemmaTable, word), xeroxTreebankMap);
+		} catch (Exception e) {
+			throw new AnalysisEngineProcessException(e);
 		}
 
 		// add lemma information to CAS
@@ -446,111 +385,6 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		wordAnnotation.setLemmaEntries(fsList);
 	}
 
-	/**
-	 * Helper method that loads a Norm cache file.
-	 * 
-	 * @param cpLocation -
-	 */
-	private void loadCmdCacheFile(String cpLocation)
-			throws FileNotFoundException, IOException {
-	  try(
-	    InputStream inStream = getClass().getResourceAsStream(cpLocation);
-	    BufferedReader br = new BufferedReader(new InputStreamReader(inStream));
-	  ){
-	    // initialize map
-	    normCacheMap = new HashMap<>();
-
-	    String line = br.readLine();
-	    while (line != null) {
-	      StringTokenizer st = new StringTokenizer(line, "|");
-	      if (st.countTokens() == 7) {
-	        int freq = Integer.parseInt(st.nextToken());
-	        if (freq > cmdCacheFreqCutoff) {
-	          String origWord = st.nextToken();
-	          String normWord = st.nextToken();
-	          if (!normCacheMap.containsKey(origWord)) {
-	            // if there are duplicates, then only have the first
-	            // occurrence in the map
-	            normCacheMap.put(origWord, normWord);
-	          }
-	        } else {
-				  LOGGER.debug("Discarding norm cache line due to frequency cutoff: "
-	              + line);
-	        }
-	      } else {
-				LOGGER.warn("Invalid LVG norm cache " + "line: " + line);
-	      }
-	      line = br.readLine();
-	    }
-	  }
-	}
-
-	/**
-	 * Helper method that loads a Lemma cache file.
-	 * 
-	 * @param cpLocation  -
-	 */
-	private void loadLemmaCacheFile(String cpLocation)
-			throws FileNotFoundException, IOException {
-		try(
-	    InputStream inStream = getClass().getResourceAsStream(cpLocation);
-	    BufferedReader br = new BufferedReader(new InputStreamReader(inStream)); 
-		){
-		  // initialize map
-		  lemmaCacheMap = new HashMap<>();
-
-		  String line = br.readLine();
-		  while (line != null) {
-		    StringTokenizer st = new StringTokenizer(line, "|");
-		    if (st.countTokens() == 4) // JZ: changed from 7 to 4 as used a new
-		      // dictionary
-		    {
-		      int freq = Integer.parseInt(st.nextToken());
-		      if (freq > lemmaCacheFreqCutoff) {
-		        String origWord = st.nextToken();
-		        String lemmaWord = st.nextToken();
-		        String combinedCategories = st.nextToken();
-
-		        // strip < and > chars
-		        combinedCategories = combinedCategories.substring(1,
-		            combinedCategories.length() - 1);
-
-		        // construct Lemma object
-		        LemmaLocalClass l = new LemmaLocalClass();
-		        l.word = lemmaWord;
-		        l.posSet = new HashSet<>();
-		        long bitVector = Category.ToValue(combinedCategories);
-		        long[] bitValues = Category.ToValuesArray(bitVector);
-		        for (int i = 0; i < bitValues.length; i++) {
-		          String pos = Category.ToName(bitValues[i]);
-		          // convert Xerox tag into Treebank
-		          String treebankTag = xeroxTreebankMap.get(pos);
-		          if (treebankTag != null) {
-		            l.posSet.add(treebankTag);
-		          }
-		        }
-
-		        // add Lemma to cache map
-		        Set<LemmaLocalClass> lemmaSet = null;
-		        if (!lemmaCacheMap.containsKey(origWord)) {
-		          lemmaSet = new HashSet<>();
-		        } else {
-		          lemmaSet = lemmaCacheMap.get(origWord);
-		        }
-		        lemmaSet.add(l);
-		        lemmaCacheMap.put(origWord, lemmaSet);
-		      } else {
-					LOGGER.debug("Discarding lemma cache line due to frequency cutoff: "
-		            + line);
-		      }
-		    } else {
-				 LOGGER.warn("Invalid LVG lemma cache " + "line: " + line);
-		    }
-		    line = br.readLine();
-		  }
-		}
-	}
-
 
   /**
    * Copy to under /tmp/ (or some other specified directory) the files needed for EventAnnotatorTest and anyone else 
@@ -655,16 +489,5 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 					 url,
 					 LvgCmdApiResourceImpl.class ) );
 	}
-	
-	/**
-	 * Basic class to group a lemma word with its various parts of speech.
-	 * 
-	 * @author Mayo Clinic
-	 */
-	class LemmaLocalClass {
-		public String word;
-
-		public Set<String> posSet;
-	}
 
 }
\ No newline at end of file
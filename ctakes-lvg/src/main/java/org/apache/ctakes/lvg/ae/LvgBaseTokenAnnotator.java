@@ -18,12 +18,11 @@
  */
 package org.apache.ctakes.lvg.ae;
 
-import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
-import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
-import gov.nih.nlm.nls.lvg.Lib.Category;
-import gov.nih.nlm.nls.lvg.Lib.LexItem;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.ListFactory;
+import org.apache.ctakes.lvg.cache.CompiledLvgTable;
+import org.apache.ctakes.lvg.cache.LvgCache;
+import org.apache.ctakes.lvg.cache.LvgLemma;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResource;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.Lemma;
@@ -85,9 +84,8 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 	// LOG4J logger based on class name
 	private final Logger LOGGER = LoggerFactory.getLogger( getClass().getName() );
 
-	private LvgCmdApi lvgCmd;
-
-	private LvgLexItemApi lvgLexItem;
+	// shared with all annotators using the same lvg resource
+	private LvgCache lvgCache;
 
 	private UimaContext context;
 
@@ -106,11 +104,11 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 	private String lemmaCacheFileLocation;
 	private int lemmaCacheFreqCutoff;
 
-	// key = word, value = canonical word
-	private Map<String,String> normCacheMap;
+	// precomputed canonical forms, null if not using the cmd cache
+	private CompiledLvgTable normTable;
 
-	// key = word, value = Set of Lemma objects
-	private Map<String,Collection<LemmaLocalClass>> lemmaCacheMap;
+	// precomputed lemmas, null if not using the lemma cache
+	private CompiledLvgTable lemmaTable;
 
 	private Set<String> exclusionSet;
 
@@ -137,21 +135,15 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 						"Unable to locate resource with key="
 						+ LVGCMDAPI_RESRC_KEY + "."));
 
-			lvgCmd = lvgResource.getLvg();
+			lvgCache = lvgResource.getCache();
+			lvgCache.addUser();
 
 			if (useCmdCache) {
-				LOGGER.info("Loading Cmd cache=" + cmdCacheFileLocation);
-				loadCmdCacheFile(cmdCacheFileLocation);
-				LOGGER.info("Loaded " + normCacheMap.size() + " entries");
+				normTable = lvgCache.getCompiledTable(cmdCacheFileLocation, cmdCacheFreqCutoff);
 			}
 
-			if (postLemmas) {
-				lvgLexItem = lvgResource.getLvgLex();
-				if (useLemmaCache) {
-					LOGGER.info("Loading Lemma cache=" + lemmaCacheFileLocation);
-					loadLemmaCacheFile(lemmaCacheFileLocation);
-					LOGGER.info("Loaded " + lemmaCacheMap.size() + " entries");
-				}
+			if (postLemmas && useLemmaCache) {
+				lemmaTable = lvgCache.getCompiledTable(lemmaCacheFileLocation, lemmaCacheFreqCutoff);
 			}
 
 		} catch (Exception e) {
@@ -247,6 +239,15 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 
 	}
 
+	/**
+	 * The shared lvg cache logs its hit rates after all of the annotators using it are complete.
+	 */
+	@Override
+	public void collectionProcessComplete() throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		lvgCache.userComplete();
+	}
+
 	/**
 	 * A utility method that annotates a given range.
 	 */
@@ -273,30 +274,12 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 
 	private void setNormalizedForm(BaseToken tokenAnnotation, String token)
 			throws AnalysisEngineProcessException {
-		// apply LVG processing to get canonical form
-		String normalizedForm = null;
-		if (useCmdCache) {
-			normalizedForm = normCacheMap.get(token);
-//			if (normalizedForm == null) {
-				// LOGGER.info("["+ word+ "] was not found in LVG norm cache.");
-//			}
-		}
-
-		// only apply LVG processing if not found in cache first
-		if (normalizedForm == null) {
-			try {
-				String out = lvgCmd.MutateToString(token);
-
-				String[] output = out.split("\\|");
-
-				if ((output != null) && (output.length >= 2)
-						&& (!output[1].matches("No Output"))) {
-					normalizedForm = output[1];
-				}
-			} catch (Exception e) {
-				throw new AnalysisEngineProcessException(e);
-			}
-
+		// apply LVG processing to get canonical form, lvg is only called if not cached
+		String normalizedForm;
+		try {
+			normalizedForm = lvgCache.getCanonicalForm(normTable, token);
+		} catch (Exception e) {
+			throw new AnalysisEngineProcessException(e);
 		}
 
 		if (normalizedForm != null) {
@@ -306,52 +289,13 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 
 	private void setLemma(BaseToken wordAnnotation, String word, JCas jcas)
 			throws AnalysisEngineProcessException {
-		// apply LVG processing to get lemmas
+		// apply LVG processing to get lemmas, lvg is only called if not cached
 		// key = lemma string, value = Set of POS tags
-		Map<String,Collection<String>> lemmaMap = null;
-
-		if (useLemmaCache) {
-			Collection<LemmaLocalClass> lemmaSet = lemmaCacheMap.get(word);
-			if (lemmaSet == null) {
-				// LOGGER.info("["+ word+
-				// "] was not found in LVG lemma cache.");
-			} else {
-				lemmaMap = new HashMap<>();
-				for ( final LemmaLocalClass l : lemmaSet ) {
-					lemmaMap.put( l.word, l.posSet );
-				}
-			}
-		}
-
-		if (lemmaMap == null) {
-			lemmaMap = new HashMap<>();
-			try {
-				Vector<LexItem> lexItems = lvgLexItem.MutateLexItem( word );
-				for ( final LexItem item : lexItems ) {
-					Category c = item.GetTargetCategory();
-					String lemmaStr = item.GetTargetTerm();
-					long[] bitValues = Category.ToValuesArray( c.GetValue() );
-					for ( final long value : bitValues ) {
-						// note that POS is Xerox tagset
-						String lemmaPos = Category.ToName( value );
-						// convert Xerox tagset to PennTreebank tagset
-						String treebankTag = xeroxTreebankMap
-								.get( lemmaPos );
-						if ( treebankTag != null ) {
-							Collection<String> posSet = null;
-							if ( lemmaMap.containsKey( lemmaStr ) ) {
-								posSet = lemmaMap.get( lemmaStr );
-							} else {
-								posSet = new HashSet<>();
-							}
-							posSet.add( treebankTag );
-							lemmaMap.put( lemmaStr, posSet );
-						}
-					}
-				}
-			} catch (Exception e) {
-				throw new AnalysisEngineProcessException(e);
-			}
+		Map<String,? extends Collection<String>> lemmaMap;
+		try {
+			lemmaMap = LvgLemma.toTreebank( lvgCache.getLemmas( lemmaTable, word ), xeroxTreebankMap );
+		} catch (Exception e) {
+			throw new AnalysisEngineProcessException(e);
 		}
 
 		// add lemma information to CAS
@@ -372,122 +316,4 @@ public class LvgBaseTokenAnnotator extends JCasAnnotator_ImplBase {
 		wordAnnotation.setLemmaEntries(fsList);
 	}
 
-	/**
-	 * Helper method that loads a Norm cache file.
-	 * 
-	 * @param cpLocation -
-	 */
-	private void loadCmdCacheFile(String cpLocation)
-			throws FileNotFoundException, IOException {
-		InputStream inStream = getClass().getResourceAsStream(cpLocation);
-		if (inStream == null) {
-			throw new FileNotFoundException("Unable to find: " + cpLocation);
-		}
-		BufferedReader br = new BufferedReader(new InputStreamReader(inStream));
-
-		// initialize map
-		normCacheMap = new HashMap<>();
-
-		String line = br.readLine();
-		while (line != null) {
-			StringTokenizer st = new StringTokenizer(line, "|");
-			if (st.countTokens() == 7) {
-				int freq = Integer.parseInt(st.nextToken());
-				if (freq > cmdCacheFreqCutoff) {
-					String origWord = st.nextToken();
-					String normWord = st.nextToken();
-					if (!normCacheMap.containsKey(origWord)) {
-						// if there are duplicates, then only have the first
-						// occurrence in the map
-						normCacheMap.put(origWord, normWord);
-					}
-				} else {
-					LOGGER.debug("Discarding norm cache line due to frequency cutoff: "
-							+ line);
-				}
-			} else {
-				LOGGER.warn("Invalid LVG norm cache " + "line: " + line);
-			}
-			line = br.readLine();
-		}
-	}
-
-	/**
-	 * Helper method that loads a Lemma cache file.
-	 * 
-	 * @param cpLocation -
-	 */
-	private void loadLemmaCacheFile(String cpLocation)
-			throws FileNotFoundException, IOException {
-		InputStream inStream = getClass().getResourceAsStream(cpLocation);
-		if (inStream == null) {
-			throw new FileNotFoundException("Unable to find: " + cpLocation);
-		}
-		BufferedReader br = new BufferedReader(new InputStreamReader(inStream));
-
-		// initialize map
-		lemmaCacheMap = new HashMap<>();
-
-		String line = br.readLine();
-		while (line != null) {
-			StringTokenizer st = new StringTokenizer(line, "|");
-			if (st.countTokens() == 4) // JZ: changed from 7 to 4 as used a new
-										// dictionary
-			{
-				int freq = Integer.parseInt(st.nextToken());
-				if (freq > lemmaCacheFreqCutoff) {
-					String origWord = st.nextToken();
-					String lemmaWord = st.nextToken();
-					String combinedCategories = st.nextToken();
-
-					// strip < and > chars
-					combinedCategories = combinedCategories.substring(1,
-							combinedCategories.length() - 1);
-
-					// construct Lemma object
-					LemmaLocalClass l = new LemmaLocalClass();
-					l.word = lemmaWord;
-					l.posSet = new HashSet<>();
-					long bitVector = Category.ToValue(combinedCategories);
-					long[] bitValues = Category.ToValuesArray(bitVector);
-					for ( final long value : bitValues ) {
-						String pos = Category.ToName( value );
-						// convert Xerox tag into Treebank
-						String treebankTag = xeroxTreebankMap.get( pos );
-						if ( treebankTag != null ) {
-							l.posSet.add( treebankTag );
-						}
-					}
-
-					// add Lemma to cache map
-					Collection<LemmaLocalClass> lemmaSet = null;
-					if (!lemmaCacheMap.containsKey(origWord)) {
-						lemmaSet = new HashSet<>();
-					} else {
-						lemmaSet = lemmaCacheMap.get(origWord);
-					}
-					lemmaSet.add(l);
-					lemmaCacheMap.put(origWord, lemmaSet);
-				} else {
-					LOGGER.debug("Discarding lemma cache line due to frequency cutoff: "
-							+ line);
-				}
-			} else {
-				LOGGER.warn("Invalid LVG lemma cache " + "line: " + line);
-			}
-			line = br.readLine();
-		}
-	}
-
-	/**
-	 * Basic class to group a lemma word with its various parts of speech.
-	 * 
-	 * @author Mayo Clinic
-	 */
-	static class LemmaLocalClass {
-		public String word;
-
-		public Collection<String> posSet;
-	}
-
-}
\ No newline at end of file
+}
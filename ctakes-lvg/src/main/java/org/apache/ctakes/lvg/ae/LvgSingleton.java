@@ -4,20 +4,15 @@ package org.apache.ctakes.lvg.ae;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResourceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.apache.uima.UimaContext;
-import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.factory.ExternalResourceFactory;
-import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ExternalResourceDescription;
-import org.apache.uima.resource.ResourceInitializationException;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 
 /**
- * Holds a single instance of the LvgAnnotator.
- * Use this singleton from an annotator instead of the LvgAnnotator directly to help prevent thread safety issues.
+ * Holds a single default LvgCmdApi shared resource description, so the lvg files are only located or copied once.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -35,33 +30,7 @@ enum LvgSingleton {
    private final Logger LOGGER = LoggerFactory.getLogger( "LvgSingleton" );
    private final Object LOCK = new Object();
 
-   private final LvgAnnotator _lvgAnnotator;
-
    private ExternalResourceDescription _lvgCmdApi;
-   private boolean _initialized;
-
-
-   LvgSingleton() {
-      _lvgAnnotator = new LvgAnnotator();
-   }
-
-   /**
-    * Calls initialize on the single LVG instance if and only if it has not already been initialized
-    */
-   public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      synchronized ( LOCK ) {
-         if ( !_initialized ) {
-            _initialized = true;
-            _lvgAnnotator.initialize( context );
-         }
-      }
-   }
-
-   public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-      synchronized ( LOCK ) {
-         _lvgAnnotator.process( jCas );
-      }
-   }
 
 
    public ExternalResourceDescription getDefaultLvgCmdApi() throws IOException {
@@ -1,5 +1,6 @@
 package org.apache.ctakes.lvg.ae;
 
+import org.apache.ctakes.core.concurrent.ThreadSafePool;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,7 +16,8 @@ import java.io.IOException;
 
 
 /**
- * Utilizes a singleton to access a single instance of the LvgAnnotator.  This should help prevent thread safety issues.
+ * Borrows an LvgAnnotator from a static pool for each document, so no two threads use one LvgAnnotator at once.
+ * The pooled annotators share the lvg cache and api through the LvgCmdApi shared resource.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -31,22 +33,46 @@ final public class ThreadSafeLvg extends JCasAnnotator_ImplBase {
    static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadSafeLvg" );
 
 
+   static private final ThreadSafePool<LvgAnnotator> POOL = new ThreadSafePool<>( LvgAnnotator::new );
+
+   // key of the delegate pool for the configuration of this annotator
+   private String _poolKey;
+
    /**
-    * Calls initialize on the LvgSingleton.
+    * Adds an LvgAnnotator for this configuration to the pool.
     * {@inheritDoc}
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      LvgSingleton.getInstance().initialize( context );
+      _poolKey = POOL.addDelegate( context );
    }
 
    /**
-    * Calls initialize on the LvgSingleton.
+    * Processes with an LvgAnnotator borrowed from the pool.
     * {@inheritDoc}
     */
    @Override
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-      LvgSingleton.getInstance().process( jCas );
+      POOL.process( _poolKey, jCas );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      POOL.collectionProcessComplete( _poolKey );
+   }
+
+   /**
+    * Destroys the LvgAnnotator added by this annotator.
+    */
+   @Override
+   public void destroy() {
+      if ( _poolKey != null ) {
+         POOL.removeDelegate( _poolKey );
+         _poolKey = null;
+      }
    }
 
 
@@ -0,0 +1,213 @@
+package org.apache.ctakes.lvg.cache;
+
+
+import gov.nih.nlm.nls.lvg.Lib.Category;
+import org.apache.ctakes.core.resource.FileLocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Read-only table of precomputed lvg norms or lemmas, loaded from a norm or lemma cache file.
+ * <p>
+ * Cache files are either the pipe-delimited text .voc files ( freq|word|norm|... with 7 fields, or freq|word|lemma|&lt;categories&gt; )
+ * or the compact binary form written by {@link #compile(String, File)}, which stores the same rows with the categories
+ * already parsed.  The format is detected from the first bytes of the file.
+ * Rows with a frequency not above the cutoff are discarded when the table is loaded, so one compiled file serves any cutoff.
+ * <p>
+ * Compile a text file with:  java org.apache.ctakes.lvg.cache.CompiledLvgTable input.voc output.lvgc
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class CompiledLvgTable {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "CompiledLvgTable" );
+
+   static private final int MAGIC = 0x4C564743;   // "LVGC"
+   static private final short VERSION = 1;
+   static private final byte NORM = 'N';
+   static private final byte LEMMA = 'L';
+
+   private final Map<String, String> _norms;
+   private final Map<String, LvgLemma[]> _lemmas;
+
+   private CompiledLvgTable( final Map<String, String> norms, final Map<String, LvgLemma[]> lemmas ) {
+      _norms = norms;
+      _lemmas = lemmas;
+   }
+
+   /**
+    * @param word -
+    * @return canonical form of the word, or null if the word is not in the table
+    */
+   public String getNorm( final String word ) {
+      return _norms.get( word );
+   }
+
+   /**
+    * @param word -
+    * @return lemmas of the word, or null if the word is not in the table
+    */
+   public LvgLemma[] getLemmas( final String word ) {
+      return _lemmas.get( word );
+   }
+
+   public int size() {
+      return _norms.size() + _lemmas.size();
+   }
+
+   /**
+    * @param location   path or classpath location of a text or compiled cache file
+    * @param freqCutoff only rows with a frequency above the cutoff are loaded
+    * @return table with the rows of the file
+    * @throws IOException if the file cannot be found or read
+    */
+   static public CompiledLvgTable load( final String location, final int freqCutoff ) throws IOException {
+      try ( BufferedInputStream stream = new BufferedInputStream( FileLocator.getAsStream( location ) ) ) {
+         stream.mark( 4 );
+         final DataInputStream data = new DataInputStream( stream );
+         final boolean compiled = data.readInt() == MAGIC;
+         stream.reset();
+         final Map<String, String> norms = new HashMap<>();
+         final Map<String, List<LvgLemma>> lemmaLists = new HashMap<>();
+         if ( compiled ) {
+            readCompiled( data, location, freqCutoff, norms, lemmaLists );
+         } else {
+            readText( stream, location, freqCutoff, norms, lemmaLists );
+         }
+         final Map<String, LvgLemma[]> lemmas = new HashMap<>( lemmaLists.size() );
+         for ( Map.Entry<String, List<LvgLemma>> entry : lemmaLists.entrySet() ) {
+            lemmas.put( entry.getKey(), entry.getValue().toArray( LvgLemma.NO_LEMMAS ) );
+         }
+         return new CompiledLvgTable( norms, lemmas );
+      }
+   }
+
+   static private void readText( final InputStream stream, final String location, final int freqCutoff,
+                                 final Map<String, String> norms,
+                                 final Map<String, List<LvgLemma>> lemmas ) throws IOException {
+      final BufferedReader reader = new BufferedReader( new InputStreamReader( stream, StandardCharsets.UTF_8 ) );
+      String line = reader.readLine();
+      while ( line != null ) {
+         final StringTokenizer st = new StringTokenizer( line, "|" );
+         final int count = st.countTokens();
+         if ( count == 7 || count == 4 ) {
+            final int freq = Integer.parseInt( st.nextToken() );
+            if ( freq > freqCutoff ) {
+               final String word = st.nextToken();
+               final String value = st.nextToken();
+               if ( count == 7 ) {
+                  // if there are duplicates, then only have the first occurrence
+                  norms.putIfAbsent( word, value );
+               } else {
+                  LvgLemma.merge( lemmas.computeIfAbsent( word, w -> new ArrayList<>( 2 ) ), value,
+                        parseCategories( st.nextToken() ) );
+               }
+            }
+         } else {
+            LOGGER.warn( "Invalid LVG cache line in " + location + ": " + line );
+         }
+         line = reader.readLine();
+      }
+   }
+
+   static private void readCompiled( final DataInputStream data, final String location, final int freqCutoff,
+                                     final Map<String, String> norms,
+                                     final Map<String, List<LvgLemma>> lemmas ) throws IOException {
+      data.readInt();
+      final short version = data.readShort();
+      if ( version != VERSION ) {
+         throw new IOException( "Unsupported compiled LVG cache version " + version + " in " + location );
+      }
+      final byte kind = data.readByte();
+      if ( kind != NORM && kind != LEMMA ) {
+         throw new IOException( "Unknown compiled LVG cache kind " + kind + " in " + location );
+      }
+      final int rows = data.readInt();
+      for ( int i = 0; i < rows; i++ ) {
+         final int freq = data.readInt();
+         final String word = data.readUTF();
+         final String value = data.readUTF();
+         if ( kind == NORM ) {
+            if ( freq > freqCutoff ) {
+               norms.putIfAbsent( word, value );
+            }
+         } else {
+            final long categories = data.readLong();
+            if ( freq > freqCutoff ) {
+               LvgLemma.merge( lemmas.computeIfAbsent( word, w -> new ArrayList<>( 2 ) ), value, categories );
+            }
+         }
+      }
+   }
+
+   /**
+    * @param categories Xerox category names in angle brackets, e.g. &lt;adj+noun&gt;
+    * @return lvg category bit vector
+    */
+   static private long parseCategories( final String categories ) {
+      return Category.ToValue( categories.substring( 1, categories.length() - 1 ) );
+   }
+
+   /**
+    * Writes the rows of a text cache file in the compiled binary form.
+    *
+    * @param location path or classpath location of a text norm or lemma cache file
+    * @param output   compiled file
+    * @throws IOException if the text file cannot be read or the compiled file cannot be written
+    */
+   static public void compile( final String location, final File output ) throws IOException {
+      final List<String[]> rows = new ArrayList<>();
+      byte kind = 0;
+      try ( BufferedReader reader = new BufferedReader(
+            new InputStreamReader( FileLocator.getAsStream( location ), StandardCharsets.UTF_8 ) ) ) {
+         String line = reader.readLine();
+         while ( line != null ) {
+            final StringTokenizer st = new StringTokenizer( line, "|" );
+            final int count = st.countTokens();
+            if ( count == 7 || count == 4 ) {
+               final byte rowKind = count == 7 ? NORM : LEMMA;
+               if ( kind != 0 && kind != rowKind ) {
+                  throw new IOException( location + " mixes norm and lemma rows: " + line );
+               }
+               kind = rowKind;
+               rows.add( new String[] { st.nextToken(), st.nextToken(), st.nextToken(),
+                                        count == 4 ? st.nextToken() : null } );
+            } else {
+               LOGGER.warn( "Invalid LVG cache line in " + location + ": " + line );
+            }
+            line = reader.readLine();
+         }
+      }
+      try ( DataOutputStream data = new DataOutputStream(
+            new BufferedOutputStream( new FileOutputStream( output ) ) ) ) {
+         data.writeInt( MAGIC );
+         data.writeShort( VERSION );
+         data.writeByte( kind == 0 ? NORM : kind );
+         data.writeInt( rows.size() );
+         for ( String[] row : rows ) {
+            data.writeInt( Integer.parseInt( row[ 0 ] ) );
+            data.writeUTF( row[ 1 ] );
+            data.writeUTF( row[ 2 ] );
+            if ( kind == LEMMA ) {
+               data.writeLong( parseCategories( row[ 3 ] ) );
+            }
+         }
+      }
+      LOGGER.info( "Compiled " + rows.size() + " rows of " + location + " to " + output.getPath() );
+   }
+
+   static public void main( final String... args ) throws IOException {
+      if ( args.length != 2 ) {
+         System.err.println( "Usage: CompiledLvgTable <norm or lemma .voc file> <compiled output file>" );
+         System.exit( 1 );
+      }
+      compile( args[ 0 ], new File( args[ 1 ] ) );
+   }
+
+}
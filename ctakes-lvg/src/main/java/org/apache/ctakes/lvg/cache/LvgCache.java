@@ -0,0 +1,237 @@
+package org.apache.ctakes.lvg.cache;
+
+
+import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
+import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
+import gov.nih.nlm.nls.lvg.Lib.LexItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared lvg normalization and lemma cache for all annotators using one lvg resource.
+ * <p>
+ * Lookups go through two tiers before lvg is called:
+ * a read-only {@link CompiledLvgTable} of precomputed values, shared by every annotator that loads the same file,
+ * and a bounded runtime tier holding the results of previous lvg calls for words not in the table.
+ * Neither tier takes a lock on a hit.  Only a miss calls lvg, which is not thread safe and is synchronized upon.
+ * <p>
+ * The runtime tier is a direct-mapped array of immutable entries: a word that hashes to an occupied slot replaces
+ * the previous word, so the tier never grows past its size and needs no eviction bookkeeping.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class LvgCache {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "LvgCache" );
+
+   static public final int DEFAULT_RUNTIME_SIZE = 1 << 16;
+
+   // Cached value for words that have no canonical form.
+   static private final String NO_NORM = "";
+
+   private final LvgCmdApi _lvgCmd;
+   private final LvgLexItemApi _lvgLexItem;
+   private final Map<String, CompiledLvgTable> _compiledTables = new ConcurrentHashMap<>();
+   private final RuntimeTier<String> _runtimeNorms;
+   private final RuntimeTier<LvgLemma[]> _runtimeLemmas;
+
+   private final LongAdder _normCompiledHits = new LongAdder();
+   private final LongAdder _normRuntimeHits = new LongAdder();
+   private final LongAdder _normMisses = new LongAdder();
+   private final LongAdder _lemmaCompiledHits = new LongAdder();
+   private final LongAdder _lemmaRuntimeHits = new LongAdder();
+   private final LongAdder _lemmaMisses = new LongAdder();
+   // annotators that use the cache and have not completed their collection
+   private final AtomicInteger _users = new AtomicInteger();
+
+   /**
+    * @param lvgCmd      lvg command api used to normalize words that are not cached
+    * @param lvgLexItem  lvg lex item api used to lemmatize words that are not cached
+    * @param runtimeSize number of slots in each runtime tier, rounded up to a power of 2
+    */
+   public LvgCache( final LvgCmdApi lvgCmd, final LvgLexItemApi lvgLexItem, final int runtimeSize ) {
+      _lvgCmd = lvgCmd;
+      _lvgLexItem = lvgLexItem;
+      _runtimeNorms = new RuntimeTier<>( runtimeSize );
+      _runtimeLemmas = new RuntimeTier<>( runtimeSize );
+   }
+
+   /**
+    * @param location   path or classpath location of a text or compiled cache file
+    * @param freqCutoff only rows with a frequency above the cutoff are loaded
+    * @return table for the file and cutoff, loaded once and shared by all callers
+    * @throws IOException if the file cannot be found or read
+    */
+   public CompiledLvgTable getCompiledTable( final String location, final int freqCutoff ) throws IOException {
+      try {
+         return _compiledTables.computeIfAbsent( location + '|' + freqCutoff, k -> {
+            try {
+               LOGGER.info( "Loading LVG cache " + location );
+               final CompiledLvgTable table = CompiledLvgTable.load( location, freqCutoff );
+               LOGGER.info( "Loaded " + table.size() + " entries" );
+               return table;
+            } catch ( IOException ioE ) {
+               throw new UncheckedIOException( ioE );
+            }
+         } );
+      } catch ( UncheckedIOException uioE ) {
+         throw uioE.getCause();
+      }
+   }
+
+   /**
+    * @param compiled precomputed norms, may be null
+    * @param word     -
+    * @return canonical form of the word, or null if lvg has none
+    * @throws Exception if lvg fails
+    */
+   public String getCanonicalForm( final CompiledLvgTable compiled, final String word ) throws Exception {
+      if ( compiled != null ) {
+         final String norm = compiled.getNorm( word );
+         if ( norm != null ) {
+            _normCompiledHits.increment();
+            return norm;
+         }
+      }
+      String norm = _runtimeNorms.get( word );
+      if ( norm != null ) {
+         _normRuntimeHits.increment();
+         return norm.isEmpty() ? null : norm;
+      }
+      _normMisses.increment();
+      final String out;
+      synchronized ( _lvgCmd ) {
+         out = _lvgCmd.MutateToString( word );
+      }
+      final String[] output = out.split( "\\|" );
+      norm = output.length >= 2 && !output[ 1 ].equals( "No Output" ) ? output[ 1 ] : NO_NORM;
+      _runtimeNorms.put( word, norm );
+      return norm.isEmpty() ? null : norm;
+   }
+
+   /**
+    * @param compiled precomputed lemmas, may be null
+    * @param word     -
+    * @return lemmas of the word, empty if lvg has none
+    * @throws Exception if lvg fails
+    */
+   public LvgLemma[] getLemmas( final CompiledLvgTable compiled, final String word ) throws Exception {
+      if ( compiled != null ) {
+         final LvgLemma[] lemmas = compiled.getLemmas( word );
+         if ( lemmas != null ) {
+            _lemmaCompiledHits.increment();
+            return lemmas;
+         }
+      }
+      LvgLemma[] lemmas = _runtimeLemmas.get( word );
+      if ( lemmas != null ) {
+         _lemmaRuntimeHits.increment();
+         return lemmas;
+      }
+      _lemmaMisses.increment();
+      final Vector<LexItem> lexItems;
+      synchronized ( _lvgLexItem ) {
+         lexItems = _lvgLexItem.MutateLexItem( word );
+      }
+      final List<LvgLemma> lemmaList = new ArrayList<>( lexItems.size() );
+      for ( LexItem item : lexItems ) {
+         LvgLemma.merge( lemmaList, item.GetTargetTerm(), item.GetTargetCategory().GetValue() );
+      }
+      lemmas = lemmaList.toArray( LvgLemma.NO_LEMMAS );
+      _runtimeLemmas.put( word, lemmas );
+      return lemmas;
+   }
+
+   /**
+    * Registers an annotator that uses the cache.  It must call {@link #userComplete()} when its collection is complete.
+    */
+   public void addUser() {
+      _users.incrementAndGet();
+   }
+
+   /**
+    * Logs the cache statistics once, after the last registered annotator has completed its collection.
+    *
+    * @return true if this was the last user and the statistics were logged
+    */
+   public boolean userComplete() {
+      if ( _users.decrementAndGet() != 0 ) {
+         return false;
+      }
+      LOGGER.info( getStats() );
+      return true;
+   }
+
+   /**
+    * @return hit counts and rates of both tiers for norms and lemmas
+    */
+   public String getStats() {
+      return "LVG cache norms: " + getStats( _normCompiledHits, _normRuntimeHits, _normMisses )
+             + " ; lemmas: " + getStats( _lemmaCompiledHits, _lemmaRuntimeHits, _lemmaMisses );
+   }
+
+   static private String getStats( final LongAdder compiledHits, final LongAdder runtimeHits,
+                                   final LongAdder misses ) {
+      final long compiled = compiledHits.sum();
+      final long runtime = runtimeHits.sum();
+      final long total = compiled + runtime + misses.sum();
+      if ( total == 0 ) {
+         return "no lookups";
+      }
+      return String.format( "%d lookups, compiled %.1f%% , runtime %.1f%% , hit rate %.1f%%",
+            total, 100d * compiled / total, 100d * runtime / total, 100d * (compiled + runtime) / total );
+   }
+
+
+   /**
+    * Bounded, lock-free map of word to value.  Racing puts to one slot simply leave one of the entries.
+    */
+   static private final class RuntimeTier<V> {
+      private final AtomicReferenceArray<Entry<V>> _entries;
+      private final int _mask;
+
+      private RuntimeTier( final int size ) {
+         final int slots = Integer.highestOneBit( Math.max( 2, size ) - 1 ) << 1;
+         _entries = new AtomicReferenceArray<>( slots );
+         _mask = slots - 1;
+      }
+
+      private V get( final String word ) {
+         final Entry<V> entry = _entries.get( slot( word ) );
+         return entry != null && entry._word.equals( word ) ? entry._value : null;
+      }
+
+      private void put( final String word, final V value ) {
+         _entries.lazySet( slot( word ), new Entry<>( word, value ) );
+      }
+
+      private int slot( final String word ) {
+         final int hash = word.hashCode();
+         return (hash ^ (hash >>> 16)) & _mask;
+      }
+   }
+
+   static private final class Entry<V> {
+      private final String _word;
+      private final V _value;
+
+      private Entry( final String word, final V value ) {
+         _word = word;
+         _value = value;
+      }
+   }
+
+}
@@ -0,0 +1,76 @@
+package org.apache.ctakes.lvg.cache;
+
+
+import gov.nih.nlm.nls.lvg.Lib.Category;
+
+import java.util.*;
+
+/**
+ * A lemma of a word with its lvg (Xerox) categories as a bit vector.
+ * Categories are kept raw so that cached lemmas do not depend upon an annotator's tagset map.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final public class LvgLemma {
+
+   static public final LvgLemma[] NO_LEMMAS = new LvgLemma[ 0 ];
+
+   private final String _lemma;
+   private final long _categories;
+
+   public LvgLemma( final String lemma, final long categories ) {
+      _lemma = lemma;
+      _categories = categories;
+   }
+
+   public String getLemma() {
+      return _lemma;
+   }
+
+   /**
+    * @return lvg category bit vector
+    */
+   public long getCategories() {
+      return _categories;
+   }
+
+   /**
+    * @param lemmas             lemmas of a word
+    * @param xeroxTreebankMap   map of Xerox category name to Treebank tag
+    * @return map of lemma to the Treebank tags of its categories, lemmas without mapped categories are dropped
+    */
+   static public Map<String, Set<String>> toTreebank( final LvgLemma[] lemmas,
+                                                      final Map<String, String> xeroxTreebankMap ) {
+      final Map<String, Set<String>> lemmaMap = new LinkedHashMap<>( lemmas.length );
+      for ( LvgLemma lemma : lemmas ) {
+         for ( long value : Category.ToValuesArray( lemma._categories ) ) {
+            final String treebankTag = xeroxTreebankMap.get( Category.ToName( value ) );
+            if ( treebankTag != null ) {
+               lemmaMap.computeIfAbsent( lemma._lemma, l -> new LinkedHashSet<>() ).add( treebankTag );
+            }
+         }
+      }
+      return lemmaMap;
+   }
+
+   /**
+    * Adds a lemma, or merges its categories into an existing lemma with the same text.
+    *
+    * @param lemmas     lemmas of a word
+    * @param lemma      lemma text
+    * @param categories lvg category bit vector
+    */
+   static void merge( final List<LvgLemma> lemmas, final String lemma, final long categories ) {
+      for ( int i = 0; i < lemmas.size(); i++ ) {
+         final LvgLemma existing = lemmas.get( i );
+         if ( existing._lemma.equals( lemma ) ) {
+            lemmas.set( i, new LvgLemma( lemma, existing._categories | categories ) );
+            return;
+         }
+      }
+      lemmas.add( new LvgLemma( lemma, categories ) );
+   }
+
+}
@@ -23,6 +23,7 @@ package org.apache.ctakes.lvg.resource;
 
 import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
 import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
+import org.apache.ctakes.lvg.cache.LvgCache;
 
 /**
  * @author Mayo Clinic
@@ -34,4 +35,9 @@ public interface LvgCmdApiResource {
     
     public LvgLexItemApi getLvgLex();
 
+    /**
+     * @return norm and lemma cache shared by all users of this resource
+     */
+    public LvgCache getCache();
+
 }
@@ -20,6 +20,7 @@ package org.apache.ctakes.lvg.resource;
 
 import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
 import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
+import org.apache.ctakes.lvg.cache.LvgCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.resource.DataResource;
@@ -51,6 +52,7 @@ public class LvgCmdApiResourceImpl
 
     private LvgCmdApi lvg;
     private LvgLexItemApi lvgLexItem;
+    private LvgCache cache;
     
     private static String CWD_PROPERTY = "user.dir"; // Name of property for current working directory
     
@@ -91,6 +93,7 @@ public class LvgCmdApiResourceImpl
 	        //     i = generate inflectional variants
 	        // -SC = Show category names (returns the categories as strings rather than bit vectors)
 	        lvgLexItem = new LvgLexItemApi("-f:i -SC", configFileName);
+	        cache = new LvgCache(lvg, lvgLexItem, LvgCache.DEFAULT_RUNTIME_SIZE);
 
     	}
     	finally {
@@ -176,4 +179,11 @@ public class LvgCmdApiResourceImpl
 		return lvgLexItem;
 	}
 
+	/**
+	 * Cache of norms and lemmas, shared by all annotators using this resource
+	 */
+	public LvgCache getCache() {
+		return cache;
+	}
+
 }
@@ -0,0 +1,233 @@
+package org.apache.ctakes.lvg.cache;
+
+import gov.nih.nlm.nls.lvg.Api.LvgCmdApi;
+import gov.nih.nlm.nls.lvg.Api.LvgLexItemApi;
+import gov.nih.nlm.nls.lvg.Lib.Category;
+import gov.nih.nlm.nls.lvg.Lib.LexItem;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class LvgCacheTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final String[] NORM_ROWS = {
+         "25|Fevers|fever|a|b|c|d",
+         "25|fevers|fever|a|b|c|d",
+         "8|coughing|cough|a|b|c|d",
+         "3|rarely|rare|a|b|c|d",
+         // duplicates keep the first occurrence
+         "25|Fevers|fevers|a|b|c|d",
+         "not a cache line" };
+
+   static private final String[] LEMMA_ROWS = {
+         "30|leaves|leaf|<noun>",
+         "30|leaves|leave|<verb>",
+         "20|left|left|<adj>",
+         "20|left|left|<noun>",
+         "12|left|leave|<verb>",
+         "2|lemmata|lemma|<noun>" };
+
+   @Test
+   public void testCompiledMatchesText() throws Exception {
+      for ( String[] rows : Arrays.asList( NORM_ROWS, LEMMA_ROWS ) ) {
+         final File text = writeText( rows );
+         final File compiled = new File( _folder.getRoot(), text.getName() + ".lvgc" );
+         CompiledLvgTable.compile( text.getPath(), compiled );
+         for ( int cutoff : new int[]{ 0, 5, 10, 25 } ) {
+            assertEquals( describe( CompiledLvgTable.load( text.getPath(), cutoff ) ),
+                  describe( CompiledLvgTable.load( compiled.getPath(), cutoff ) ) );
+         }
+      }
+   }
+
+   @Test
+   public void testFrequencyCutoff() throws Exception {
+      final File text = writeText( NORM_ROWS );
+      final File compiled = new File( _folder.getRoot(), "norms.lvgc" );
+      CompiledLvgTable.compile( text.getPath(), compiled );
+      for ( File file : Arrays.asList( text, compiled ) ) {
+         final CompiledLvgTable all = CompiledLvgTable.load( file.getPath(), 0 );
+         assertEquals( "fever", all.getNorm( "Fevers" ) );
+         assertEquals( "cough", all.getNorm( "coughing" ) );
+         assertEquals( "rare", all.getNorm( "rarely" ) );
+         assertEquals( 4, all.size() );
+         // Only rows with a frequency above the cutoff are loaded.
+         final CompiledLvgTable frequent = CompiledLvgTable.load( file.getPath(), 8 );
+         assertEquals( "fever", frequent.getNorm( "fevers" ) );
+         assertNull( frequent.getNorm( "coughing" ) );
+         assertNull( frequent.getNorm( "rarely" ) );
+         assertEquals( 2, frequent.size() );
+      }
+   }
+
+   @Test
+   public void testLemmaMerging() throws Exception {
+      final CompiledLvgTable table = CompiledLvgTable.load( writeText( LEMMA_ROWS ).getPath(), 0 );
+      final LvgLemma[] leaves = table.getLemmas( "leaves" );
+      assertEquals( 2, leaves.length );
+      assertEquals( "leaf", leaves[ 0 ].getLemma() );
+      assertEquals( Category.ToValue( "noun" ), leaves[ 0 ].getCategories() );
+      assertEquals( "leave", leaves[ 1 ].getLemma() );
+      final LvgLemma[] left = table.getLemmas( "left" );
+      assertEquals( 2, left.length );
+      // Rows with the same lemma merge their categories.
+      assertEquals( "left", left[ 0 ].getLemma() );
+      assertEquals( Category.ToValue( "adj+noun" ), left[ 0 ].getCategories() );
+      final Map<String, String> xeroxTreebankMap = new HashMap<>();
+      xeroxTreebankMap.put( "adj", "JJ" );
+      xeroxTreebankMap.put( "noun", "NN" );
+      final Map<String, Set<String>> treebank = LvgLemma.toTreebank( left, xeroxTreebankMap );
+      assertEquals( new HashSet<>( Arrays.asList( "JJ", "NN" ) ), treebank.get( "left" ) );
+      // verb is not mapped, so the lemma is dropped
+      assertFalse( treebank.containsKey( "leave" ) );
+   }
+
+   @Test
+   public void testRejectUnknownKind() throws Exception {
+      final File file = _folder.newFile( "unknown.lvgc" );
+      try ( DataOutputStream data = new DataOutputStream( new FileOutputStream( file ) ) ) {
+         // magic "LVGC", version, an unknown kind and one norm row
+         data.writeInt( 0x4C564743 );
+         data.writeShort( 1 );
+         data.writeByte( 'X' );
+         data.writeInt( 1 );
+         data.writeInt( 10 );
+         data.writeUTF( "fevers" );
+         data.writeUTF( "fever" );
+      }
+      try {
+         CompiledLvgTable.load( file.getPath(), 0 );
+         fail( "Loaded a cache of unknown kind" );
+      } catch ( IOException ioE ) {
+         assertTrue( ioE.getMessage(), ioE.getMessage().contains( "kind" ) );
+      }
+   }
+
+   @Test
+   public void testRuntimeTier() throws Exception {
+      final CountingLvgCmd lvgCmd = new CountingLvgCmd();
+      final CountingLvgLexItem lvgLexItem = new CountingLvgLexItem();
+      final LvgCache cache = new LvgCache( lvgCmd, lvgLexItem, 16 );
+      final CompiledLvgTable norms = CompiledLvgTable.load( writeText( NORM_ROWS ).getPath(), 0 );
+      assertEquals( "fever", cache.getCanonicalForm( norms, "fevers" ) );
+      assertEquals( 0, lvgCmd._calls );
+      for ( int i = 0; i < 3; i++ ) {
+         assertEquals( "walk", cache.getCanonicalForm( norms, "walking" ) );
+         assertNull( cache.getCanonicalForm( null, "zzz" ) );
+      }
+      // lvg is only called on the first lookup of a word, including words without a canonical form
+      assertEquals( 2, lvgCmd._calls );
+      for ( int i = 0; i < 3; i++ ) {
+         final LvgLemma[] lemmas = cache.getLemmas( null, "walked" );
+         assertEquals( 1, lemmas.length );
+         assertEquals( "walk", lemmas[ 0 ].getLemma() );
+         assertEquals( Category.ToValue( "noun+verb" ), lemmas[ 0 ].getCategories() );
+      }
+      assertEquals( 1, lvgLexItem._calls );
+      // A word that replaces another in its runtime slot is looked up again, the tier never grows past its size.
+      for ( int i = 0; i < 100; i++ ) {
+         cache.getCanonicalForm( null, "word" + i + "ing" );
+      }
+      assertEquals( 102, lvgCmd._calls );
+      for ( int i = 0; i < 100; i++ ) {
+         assertEquals( "word" + i, cache.getCanonicalForm( null, "word" + i + "ing" ) );
+      }
+      assertTrue( lvgCmd._calls > 102 );
+      assertTrue( cache.getStats(), cache.getStats().contains( "lookups" ) );
+   }
+
+   @Test
+   public void testStatisticsLoggedOnce() {
+      final LvgCache cache = new LvgCache( new CountingLvgCmd(), new CountingLvgLexItem(), 16 );
+      cache.addUser();
+      cache.addUser();
+      assertFalse( cache.userComplete() );
+      assertTrue( cache.userComplete() );
+   }
+
+   private File writeText( final String[] rows ) throws IOException {
+      final File file = _folder.newFile();
+      Files.write( file.toPath(), Arrays.asList( rows ), StandardCharsets.UTF_8 );
+      return file;
+   }
+
+   static private String describe( final CompiledLvgTable table ) {
+      final StringBuilder sb = new StringBuilder().append( table.size() );
+      for ( String row : NORM_ROWS ) {
+         final String[] fields = row.split( "\\|" );
+         if ( fields.length < 2 ) {
+            continue;
+         }
+         final String word = fields[ 1 ];
+         sb.append( ' ' ).append( word ).append( '=' ).append( table.getNorm( word ) );
+      }
+      for ( String row : LEMMA_ROWS ) {
+         final String word = row.split( "\\|" )[ 1 ];
+         sb.append( ' ' ).append( word ).append( '=' );
+         final LvgLemma[] lemmas = table.getLemmas( word );
+         if ( lemmas != null ) {
+            for ( LvgLemma lemma : lemmas ) {
+               sb.append( lemma.getLemma() ).append( ':' ).append( lemma.getCategories() ).append( ',' );
+            }
+         }
+      }
+      return sb.toString();
+   }
+
+   /**
+    * Strips "ing" from words that have it.
+    */
+   static private final class CountingLvgCmd extends LvgCmdApi {
+      private int _calls;
+
+      @Override
+      public String MutateToString( final String word ) {
+         _calls++;
+         return word.endsWith( "ing" ) ? word + "|" + word.substring( 0, word.length() - 3 ) + "|"
+                                       : word + "|No Output|";
+      }
+   }
+
+   /**
+    * Strips "ed" from words, returning the lemma as a noun and as a verb.
+    */
+   static private final class CountingLvgLexItem extends LvgLexItemApi {
+      private int _calls;
+
+      @Override
+      public Vector<LexItem> MutateLexItem( final String word ) {
+         _calls++;
+         final Vector<LexItem> items = new Vector<>();
+         final String lemma = word.substring( 0, word.length() - 2 );
+         items.add( createItem( lemma, Category.ToValue( "noun" ) ) );
+         items.add( createItem( lemma, Category.ToValue( "verb" ) ) );
+         return items;
+      }
+
+      static private LexItem createItem( final String lemma, final long category ) {
+         final LexItem item = new LexItem( lemma );
+         item.SetTargetTerm( lemma );
+         item.SetTargetCategory( category );
+         return item;
+      }
+   }
+
+}
@@ -18,7 +18,7 @@
  */
 package org.apache.ctakes.necontexts.concurrent;
 
-import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
+import org.apache.ctakes.core.concurrent.ThreadSafePool;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.necontexts.ContextAnnotator;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
@@ -42,12 +42,18 @@ import org.apache.uima.resource.ResourceInitializationException;
 final public class ThreadSafeContextAnnotator extends ContextAnnotator {
     static private final Logger LOGGER = LoggerFactory.getLogger( "ThreadSafeContextAnnotator" );
 
+    // Context analyzers and consumers keep per-document state, so each pipeline thread has its own delegate.
+    static private final ThreadSafePool<ContextAnnotator> POOL = new ThreadSafePool<>( ContextAnnotator::new );
+
+    // key of the delegate pool for the configuration of this annotator
+    private String _poolKey;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void initialize( final UimaContext context ) throws ResourceInitializationException {
-        ContextSingleton.getInstance().initialize( context );
+        _poolKey = POOL.addDelegate( context );
     }
 
     /**
@@ -55,7 +61,26 @@ final public class ThreadSafeContextAnnotator extends ContextAnnotator {
      */
     @Override
     public void process( final JCas jCas ) throws AnalysisEngineProcessException {
-        ContextSingleton.getInstance().process( jCas );
+        POOL.process( _poolKey, jCas );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void collectionProcessComplete() throws AnalysisEngineProcessException {
+        POOL.collectionProcessComplete( _poolKey );
+    }
+
+    /**
+     * Destroys the delegate added by this annotator.
+     */
+    @Override
+    public void destroy() {
+        if ( _poolKey != null ) {
+            POOL.removeDelegate( _poolKey );
+            _poolKey = null;
+        }
     }
 
     /**
@@ -69,41 +94,4 @@ final public class ThreadSafeContextAnnotator extends ContextAnnotator {
                 TypePrioritiesFactory.createTypePriorities( Sentence.class, BaseToken.class ) );
     }
 
-    private enum ContextSingleton implements ThreadSafeWrapper<ContextAnnotator> {
-        INSTANCE;
-
-        static public ContextSingleton getInstance() {
-            return INSTANCE;
-        }
-
-        private final ContextAnnotator _delegate;
-        private boolean _initialized;
-
-        ContextSingleton() {
-            _delegate = new ContextAnnotator();
-        }
-
-        final private Object LOCK = new Object();
-
-        @Override
-        public Object getLock() {
-            return LOCK;
-        }
-
-        @Override
-        public ContextAnnotator getDelegate() {
-            return _delegate;
-        }
-
-        @Override
-        public boolean isInitialized() {
-            return _initialized;
-        }
-
-        @Override
-        public void setInitialized( final boolean initialized ) {
-            _initialized = initialized;
-        }
-    }
-
 }
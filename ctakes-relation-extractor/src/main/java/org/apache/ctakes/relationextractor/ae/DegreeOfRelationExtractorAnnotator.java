@@ -19,6 +19,7 @@
 package org.apache.ctakes.relationextractor.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.DegreeOfTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -30,7 +31,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -75,9 +75,9 @@ public class DegreeOfRelationExtractorAnnotator extends RelationExtractorAnnotat
       Annotation sentence) {
 
     List<EventMention> events =
-        JCasUtil.selectCovered(identifiedAnnotationView, EventMention.class, sentence);
+        SpanIndexService.selectCovered(identifiedAnnotationView, EventMention.class, sentence);
     List<Modifier> modifiers =
-        JCasUtil.selectCovered(identifiedAnnotationView, Modifier.class, sentence);
+        SpanIndexService.selectCovered(identifiedAnnotationView, Modifier.class, sentence);
 
     List<IdentifiedAnnotationPair> pairs = new ArrayList<IdentifiedAnnotationPair>();
     for (EventMention event : events) {
@@ -19,6 +19,7 @@
 package org.apache.ctakes.relationextractor.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.relationextractor.eval.RelationExtractorEvaluation;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.LocationOfTextRelation;
@@ -31,7 +32,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -39,7 +39,6 @@ import org.apache.uima.resource.ResourceInitializationException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Identifies Location_Of relations between {@link EventMention}s and
@@ -80,15 +79,13 @@ public class LocationOfRelationExtractorAnnotator extends RelationExtractorAnnot
 			Annotation sentence) {
 		
 		List<EventMention> events =
-				JCasUtil.selectCovered(identifiedAnnotationView, EventMention.class, sentence);
+				SpanIndexService.selectCovered(identifiedAnnotationView, EventMention.class, sentence);
 		List<AnatomicalSiteMention> sites =
-				JCasUtil.selectCovered(identifiedAnnotationView, AnatomicalSiteMention.class, sentence);
+				SpanIndexService.selectCovered(identifiedAnnotationView, AnatomicalSiteMention.class, sentence);
 
 		List<IdentifiedAnnotationPair> pairs = new ArrayList<>();
 		
 		if(RelationExtractorEvaluation.expandEvent){//if expand
-			Map<EventMention, List<EventMention>> coveredMap =
-					JCasUtil.indexCovered(identifiedAnnotationView, EventMention.class, EventMention.class);
 //			Map<EventMention, Collection<EventMention>> coveringMap =
 //					JCasUtil.indexCovering(identifiedAnnotationView, EventMention.class, EventMention.class);
 //			Map<AnatomicalSiteMention, Collection<EventMention>> siteEventMap =
@@ -99,7 +96,7 @@ public class LocationOfRelationExtractorAnnotator extends RelationExtractorAnnot
 			final List<IdentifiedAnnotation> eventList = new ArrayList<>();
 			for (EventMention event : events) {
 //				eventList.addAll(coveringMap.get(event));
-				eventList.addAll(coveredMap.get(event));
+				eventList.addAll(SpanIndexService.selectCovered(identifiedAnnotationView, EventMention.class, event));
 				for(IdentifiedAnnotation covEvent : eventList){
 					for (AnatomicalSiteMention site : sites) {
 						if(!hasOverlap(covEvent,site)){
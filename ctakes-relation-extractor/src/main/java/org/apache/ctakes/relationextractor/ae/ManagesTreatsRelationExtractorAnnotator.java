@@ -19,12 +19,12 @@
 package org.apache.ctakes.relationextractor.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.ManagesTreatsTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.textsem.*;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 
@@ -58,19 +58,19 @@ public class ManagesTreatsRelationExtractorAnnotator extends RelationExtractorAn
 
     List<IdentifiedAnnotation> arg1s = new ArrayList<>();
     List<MedicationMention> medications = 
-        JCasUtil.selectCovered(identifiedAnnotationView, MedicationMention.class, sentence); 
+        SpanIndexService.selectCovered(identifiedAnnotationView, MedicationMention.class, sentence); 
     List<ProcedureMention> procedures = 
-        JCasUtil.selectCovered(identifiedAnnotationView, ProcedureMention.class, sentence);
+        SpanIndexService.selectCovered(identifiedAnnotationView, ProcedureMention.class, sentence);
     arg1s.addAll(medications);
     arg1s.addAll(procedures);
     
     List<IdentifiedAnnotation> arg2s = new ArrayList<>();
     List<DiseaseDisorderMention> diseaseDisorders = 
-        JCasUtil.selectCovered(identifiedAnnotationView, DiseaseDisorderMention.class, sentence);
+        SpanIndexService.selectCovered(identifiedAnnotationView, DiseaseDisorderMention.class, sentence);
     List<SignSymptomMention> signSymptoms = 
-        JCasUtil.selectCovered(identifiedAnnotationView, SignSymptomMention.class, sentence);
+        SpanIndexService.selectCovered(identifiedAnnotationView, SignSymptomMention.class, sentence);
     List<AnatomicalSiteMention> anatomicalSites =  
-        JCasUtil.selectCovered(identifiedAnnotationView, AnatomicalSiteMention.class, sentence);
+        SpanIndexService.selectCovered(identifiedAnnotationView, AnatomicalSiteMention.class, sentence);
     arg2s.addAll(diseaseDisorders);
     arg2s.addAll(signSymptoms);
     arg2s.addAll(anatomicalSites);
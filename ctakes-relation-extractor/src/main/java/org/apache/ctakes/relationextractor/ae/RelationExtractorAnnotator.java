@@ -19,6 +19,7 @@
 package org.apache.ctakes.relationextractor.ae;
 
 import com.google.common.collect.Lists;
+import org.apache.ctakes.core.cleartk.FeatureCache;
 import org.apache.ctakes.relationextractor.ae.features.*;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -67,7 +68,8 @@ private List<RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation
 
 	protected RelationExtractorAnnotator() {
 		try {
-			featureExtractors = getFeatureExtractors();
+			// extractors of the same pair by other relation annotators are shared through the feature cache
+			featureExtractors = CachingRelationFeaturesExtractor.wrapCacheable(getFeatureExtractors());
 		} catch ( ResourceInitializationException riE ) {
 			LoggerFactory.getLogger( "RelationExtractorAnnotator" ).error( riE.getMessage() );
 		}
@@ -132,6 +134,7 @@ private List<RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation
 	public void initialize(UimaContext context) throws ResourceInitializationException {
 		allowClassifierModelOnClasspath(context);
 		super.initialize(context);
+		FeatureCache.addUser();
 	}
 
 	/*
@@ -334,6 +337,7 @@ private List<RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation
 	// Object.finalize() was deprecated in jdk 9.  Given the manner of this code, this is a -reasonable- replacement.
 	public void collectionProcessComplete() throws AnalysisEngineProcessException {
 		super.collectionProcessComplete();
+		FeatureCache.userComplete();
 		if ( classifier instanceof AutoCloseable ) {
 			try {
 				((AutoCloseable)classifier).close();
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import org.apache.ctakes.core.cleartk.FeatureCache;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Feature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Relation feature extractor that answers from the per-cas {@link FeatureCache} and only runs its delegate on a miss.
+ * Relation annotators that consider the same pair of arguments then share one extraction.
+ */
+public class CachingRelationFeaturesExtractor<T1 extends Annotation,T2 extends Annotation>
+    implements RelationFeaturesExtractor<T1,T2> {
+
+  // Extractors without configuration whose features depend only upon tokens, chunks, parses and argument types
+  static private final Set<Class<?>> CACHEABLE = ConcurrentHashMap.newKeySet();
+  static {
+    CACHEABLE.addAll(Arrays.asList(
+        TokenFeaturesExtractor.class,
+        PartOfSpeechFeaturesExtractor.class,
+        PhraseChunkingExtractor.class,
+        NamedEntityFeaturesExtractor.class,
+        DependencyTreeFeaturesExtractor.class,
+        DependencyPathFeaturesExtractor.class));
+  }
+
+  private final String key;
+  private final RelationFeaturesExtractor<T1,T2> delegate;
+
+  /**
+   * @param key identifies the delegate and its configuration.
+   * @param delegate extractor run on a cache miss.
+   */
+  public CachingRelationFeaturesExtractor(String key, RelationFeaturesExtractor<T1,T2> delegate){
+    this.key = key;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public List<Feature> extract(JCas jCas, T1 arg1, T2 arg2) throws AnalysisEngineProcessException {
+    return FeatureCache.getFeatures(jCas, key, () -> delegate.extract(jCas, arg1, arg2), arg1, arg2);
+  }
+
+  /**
+   * Declare that instances of an extractor class have no configuration and produce features that
+   * no annotator in a pipeline changes, so they may be shared between annotators.
+   * Subclasses are not included.
+   */
+  public static void registerCacheable(Class<?> extractorClass){
+    CACHEABLE.add(extractorClass);
+  }
+
+  /**
+   * @return the extractors, with those of cacheable classes wrapped in caching extractors keyed by class name.
+   */
+  public static <T1 extends Annotation,T2 extends Annotation> List<RelationFeaturesExtractor<T1,T2>> wrapCacheable(
+      List<RelationFeaturesExtractor<T1,T2>> extractors){
+    if(extractors == null){
+      return null;
+    }
+    List<RelationFeaturesExtractor<T1,T2>> wrapped = new ArrayList<>(extractors.size());
+    for(RelationFeaturesExtractor<T1,T2> extractor : extractors){
+      if(extractor != null && CACHEABLE.contains(extractor.getClass())){
+        wrapped.add(new CachingRelationFeaturesExtractor<>(extractor.getClass().getName(), extractor));
+      }else{
+        wrapped.add(extractor);
+      }
+    }
+    return wrapped;
+  }
+}
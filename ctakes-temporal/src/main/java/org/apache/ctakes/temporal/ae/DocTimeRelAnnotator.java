@@ -20,6 +20,7 @@ package org.apache.ctakes.temporal.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.log.DotLogger;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.temporal.ae.feature.*;
 import org.apache.ctakes.temporal.utils.SoftMaxUtil;
 import org.apache.ctakes.typesystem.type.refsem.Event;
@@ -195,7 +196,7 @@ public class DocTimeRelAnnotator extends CleartkAnnotator<String> {
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
 		LOGGER.info( "Finding DocTimeRel ..." );
 		for (EventMention eventMention : JCasUtil.select(jCas, EventMention.class)) {
-			List<Sentence> sents = JCasUtil.selectCovering(jCas, Sentence.class, eventMention);
+			List<Sentence> sents = SpanIndexService.selectCovering(jCas, Sentence.class, eventMention);
 			List<Feature> features = new ArrayList<>();
 			if(sents!=null && sents.size()>0){
 				features.addAll(this.contextExtractor.extractWithin(jCas, eventMention, sents.get(0)));
@@ -21,6 +21,7 @@ package org.apache.ctakes.temporal.ae;
 import com.google.common.collect.Lists;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.log.DotLogger;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
@@ -208,7 +209,7 @@ public class EventEventRelationAnnotator extends TemporalRelationExtractorAnnota
 //				JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
 
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
-		List<EventMention> events = new ArrayList<>(JCasUtil.selectCovered(jCas, EventMention.class, sentence));
+		List<EventMention> events = new ArrayList<>(SpanIndexService.selectCovered(jCas, EventMention.class, sentence));
 		//filter events:
 		List<EventMention> realEvents = Lists.newArrayList();
 		for( EventMention event : events){
@@ -226,7 +227,7 @@ public class EventEventRelationAnnotator extends TemporalRelationExtractorAnnota
 				EventMention eventB = events.get(j);
 
 				boolean eventAMedical = false;
-				for( EventMention aEve : JCasUtil.selectCovering(jCas, EventMention.class, eventA)){
+				for( EventMention aEve : SpanIndexService.selectCovering(jCas, EventMention.class, eventA)){
 					if(!aEve.getClass().equals(EventMention.class)){//this event cover a UMLS semantic type
 						eventAMedical = true;
 						break;
@@ -234,7 +235,7 @@ public class EventEventRelationAnnotator extends TemporalRelationExtractorAnnota
 				}
 
 				boolean eventBMedical = false;
-				for( EventMention bEve : JCasUtil.selectCovering(jCas, EventMention.class, eventB)){
+				for( EventMention bEve : SpanIndexService.selectCovering(jCas, EventMention.class, eventB)){
 					if(!bEve.getClass().equals(EventMention.class)){//this event cover a UMLS semantic type
 						eventBMedical = true;
 						break;
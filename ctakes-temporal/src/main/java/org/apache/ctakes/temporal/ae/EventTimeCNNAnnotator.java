@@ -3,6 +3,7 @@ package org.apache.ctakes.temporal.ae;
 import com.google.common.collect.Lists;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.temporal.ae.TemporalRelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.ctakes.temporal.nn.ae.RelationCandidateBatch;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
 import org.apache.ctakes.typesystem.type.relation.TemporalTextRelation;
@@ -62,6 +63,10 @@ public class EventTimeCNNAnnotator extends CleartkAnnotator<String> {
 			}
 		}
 
+		// candidate pairs and their features, classified together after all pairs are found
+		RelationCandidateBatch candidateBatch =
+				new RelationCandidateBatch(NO_RELATION_CATEGORY, RelationCandidateBatch.ArgumentOrder.EVENT_TIME);
+
 		// go over sentences, extracting event-time relation instances
 		for(Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
 			// collect all relevant relation arguments from the sentence
@@ -104,33 +109,14 @@ public class EventTimeCNNAnnotator extends CleartkAnnotator<String> {
 
 				// during classification feed the features to the classifier and create annotations
 				else {
-					String predictedCategory = this.classifier.classify(feats);
-
-					// add a relation annotation if a true relation was predicted
-					if (predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
-
-						// if we predict an inverted relation, reverse the order of the arguments
-						if (predictedCategory.endsWith("-1")) {
-							predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
-							if(arg1 instanceof TimeMention){
-								IdentifiedAnnotation temp = arg1;
-								arg1 = arg2;
-								arg2 = temp;
-							}
-						}else{
-							if(arg1 instanceof EventMention){
-								IdentifiedAnnotation temp = arg1;
-								arg1 = arg2;
-								arg2 = temp;
-							}
-						}
-
-						createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
-					}
+					candidateBatch.add(arg1, arg2, feats);
 				}
 			}
 
 		}
+
+		// classify all of the candidate pairs in the document with one call to the classifier
+		candidateBatch.createRelations(jCas, this.classifier, this::createRelation);
 	}
 
 	/**
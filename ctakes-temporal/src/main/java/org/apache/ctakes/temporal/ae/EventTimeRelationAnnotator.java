@@ -21,6 +21,7 @@ package org.apache.ctakes.temporal.ae;
 import com.google.common.collect.Lists;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.log.DotLogger;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.PartOfSpeechFeaturesExtractor;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
@@ -181,7 +182,8 @@ public class EventTimeRelationAnnotator extends RelationExtractorAnnotator {
 			JCas jCas,
 			Annotation sentence) {
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
-		for (EventMention event : JCasUtil.selectCovered(jCas, EventMention.class, sentence)) {
+		List<TimeMention> times = SpanIndexService.selectCovered(jCas, TimeMention.class, sentence);
+		for (EventMention event : SpanIndexService.selectCovered(jCas, EventMention.class, sentence)) {
 			// ignore subclasses like Procedure and Disease/Disorder
 			if (event.getClass().equals(EventMention.class)) {
 //				boolean eventValid = false;
@@ -192,7 +194,7 @@ public class EventTimeRelationAnnotator extends RelationExtractorAnnotator {
 //					}
 //				}
 //				if(eventValid){
-					for (TimeMention time : JCasUtil.selectCovered(jCas, TimeMention.class, sentence)) {
+					for (TimeMention time : times) {
 						pairs.add(new IdentifiedAnnotationPair(event, time));
 					}
 //				}
@@ -20,6 +20,7 @@ package org.apache.ctakes.temporal.ae;
 
 import com.google.common.collect.Lists;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.relationextractor.ae.RelationExtractorAnnotator;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.temporal.ae.feature.*;
@@ -32,7 +33,6 @@ import org.apache.ctakes.typesystem.type.textsem.TimeMention;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -45,7 +45,6 @@ import org.cleartk.ml.jar.GenericJarClassifierFactory;
 
 import java.io.File;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -148,11 +147,9 @@ public class EventTimeSelfRelationAnnotator extends TemporalRelationExtractorAnn
 	public List<IdentifiedAnnotationPair> getCandidateRelationArgumentPairs(
 			JCas jCas,
 			Annotation sentence) {
-		Map<EventMention, List<EventMention>> coveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
-
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
-		for (EventMention event : JCasUtil.selectCovered(jCas, EventMention.class, sentence)) {
+		List<TimeMention> times = SpanIndexService.selectCovered(jCas, TimeMention.class, sentence);
+		for (EventMention event : SpanIndexService.selectCovered(jCas, EventMention.class, sentence)) {
 			boolean eventValid = false;
 			if (event.getClass().equals(EventMention.class)) {//event is a gold event
 //				for( EventMention aEve : JCasUtil.selectCovered(jCas, EventMention.class, event)){
@@ -166,16 +163,17 @@ public class EventTimeSelfRelationAnnotator extends TemporalRelationExtractorAnn
 			if(eventValid){
 				// ignore subclasses like Procedure and Disease/Disorder
 				if(this.isTraining()){//if training mode, train on both gold event and span-overlapping system events
-					for (TimeMention time : JCasUtil.selectCovered(jCas, TimeMention.class, sentence)) {
+					for (TimeMention time : times) {
 						
-						Collection<EventMention> eventList = coveringMap.get(event);
-						for(EventMention covEvent : eventList){
-							pairs.add(new IdentifiedAnnotationPair(covEvent, time));
+						for(EventMention covEvent : SpanIndexService.selectCovering(jCas, EventMention.class, event)){
+							if(covEvent != event){
+								pairs.add(new IdentifiedAnnotationPair(covEvent, time));
+							}
 						}
 						pairs.add(new IdentifiedAnnotationPair(event, time));
 					}
 				}else{//if testing mode, only test on system generated events
-					for (TimeMention time : JCasUtil.selectCovered(jCas, TimeMention.class, sentence)) {
+					for (TimeMention time : times) {
 						pairs.add(new IdentifiedAnnotationPair(event, time));
 					}
 				}
@@ -23,6 +23,7 @@ package org.apache.ctakes.temporal.ae;
 //import java.net.URI;//for normalization
 
 import com.google.common.collect.Lists;
+import org.apache.ctakes.core.cleartk.FeatureCache;
 import org.apache.ctakes.relationextractor.ae.features.*;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -64,6 +65,14 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 
 	public static final String MINMAX_EXTRACTOR_KEY = "MINMAXFeatures";
 
+	static {
+		// temporal extractors whose features only depend upon tokens and dependency parses
+		CachingRelationFeaturesExtractor.registerCacheable(
+				org.apache.ctakes.temporal.ae.feature.DependencyPathFeaturesExtractor.class);
+		CachingRelationFeaturesExtractor.registerCacheable(
+				org.apache.ctakes.temporal.ae.feature.TokenPropertyFeaturesExtractor.class);
+	}
+
 	@ConfigurationParameter(
 			name = PARAM_PROBABILITY_OF_KEEPING_A_NEGATIVE_EXAMPLE,
 			mandatory = false,
@@ -96,7 +105,8 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 
 	protected TemporalRelationExtractorAnnotator() {
 		try {
-			featureExtractors = getFeatureExtractors();
+			// extractors of the same pair by other relation annotators are shared through the feature cache
+			featureExtractors = CachingRelationFeaturesExtractor.wrapCacheable(getFeatureExtractors());
 		} catch ( ResourceInitializationException riE ) {
 			LoggerFactory.getLogger( "TemporalRelationExtractorAnnotator" ).error( riE.getMessage() );
 		}
@@ -162,6 +172,7 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 
       allowClassifierModelOnClasspath(context);
 		super.initialize(context);
+		FeatureCache.addUser();
 		//		minmaxExtractor = createMinMaxNormalizationExtractor();
 		/**for normalization
 		if (this.minmaxExtractorURI != null) {
@@ -415,6 +426,7 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 	// Object.finalize() was deprecated in jdk 9.  Given the manner of this code, this is a -reasonable- replacement.
 	public void collectionProcessComplete() throws AnalysisEngineProcessException {
 		super.collectionProcessComplete();
+		FeatureCache.userComplete();
 		if ( classifier instanceof AutoCloseable ) {
 			try {
 				((AutoCloseable)classifier).close();
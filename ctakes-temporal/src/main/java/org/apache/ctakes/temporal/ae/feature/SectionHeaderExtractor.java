@@ -18,9 +18,8 @@
  */
 package org.apache.ctakes.temporal.ae.feature;
 
-import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.core.util.textspan.SpanIndexService;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.cleartk.ml.Feature;
@@ -30,7 +29,6 @@ import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 public class SectionHeaderExtractor implements FeatureExtractor1 {
 
@@ -48,11 +46,8 @@ public class SectionHeaderExtractor implements FeatureExtractor1 {
 	public List<Feature> extract(JCas view, Annotation annotation) throws CleartkExtractorException {
 		List<Feature> features = new ArrayList<>();
 
-		//1 get covering sentence:
-		Map<EventMention, List<Segment>> coveringMap =
-				JCasUtil.indexCovering(view, EventMention.class, Segment.class);
-		EventMention targetTokenAnnotation = (EventMention)annotation;
-		Collection<Segment> segList = coveringMap.get(targetTokenAnnotation);
+		//1 get covering sections:
+		Collection<Segment> segList = SpanIndexService.selectCovering(view, Segment.class, annotation);
 
 		//2 get Verb Tense
 		if (segList != null && !segList.isEmpty()){
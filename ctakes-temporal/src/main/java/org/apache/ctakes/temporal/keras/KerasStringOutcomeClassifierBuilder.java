@@ -22,6 +22,8 @@ import java.util.jar.JarOutputStream;
 @Beta
 public class KerasStringOutcomeClassifierBuilder extends ScriptStringOutcomeClassifierBuilder<ScriptStringOutcomeClassifier> {
 
+  private ScriptStringOutcomeClassifier.Protocol protocol = ScriptStringOutcomeClassifier.Protocol.LINES;
+
   @Override
   public void packageClassifier(File dir, JarOutputStream modelStream) throws IOException {
     super.packageClassifier(dir, modelStream);
@@ -51,6 +53,7 @@ public class KerasStringOutcomeClassifierBuilder extends ScriptStringOutcomeClas
     
     // grab the script dir from the manifest:
     this.scriptDir = new File(modelStream.getManifest().getMainAttributes().getValue(SCRIPT_DIR_PARAM));
+    this.protocol = getClassifyProtocol(modelStream.getManifest().getMainAttributes());
     
     extractFileToDir(modelDir, modelStream, "outcome-lookup.txt");
 
@@ -73,7 +76,8 @@ public class KerasStringOutcomeClassifierBuilder extends ScriptStringOutcomeClas
   
   @Override
   protected KerasStringOutcomeClassifier newClassifier() {
-    return new KerasStringOutcomeClassifier(this.featuresEncoder, this.outcomeEncoder, this.modelDir, this.scriptDir);
+    return new KerasStringOutcomeClassifier(this.featuresEncoder, this.outcomeEncoder, this.modelDir, this.scriptDir,
+        this.protocol);
   }
 
   private static String getArchFilename(int num){
@@ -25,6 +25,11 @@ public abstract class ScriptStringFeatureDataWriter<T extends ScriptStringOutcom
   public static final String PARAM_SCRIPT_DIR = "DataWriterScriptDirectory";
   @ConfigurationParameter(name=PARAM_SCRIPT_DIR)
   public String dir;
+
+  public static final String PARAM_CLASSIFY_PROTOCOL = "DataWriterClassifyProtocol";
+  @ConfigurationParameter(name=PARAM_CLASSIFY_PROTOCOL, mandatory=false, defaultValue="FRAMED",
+      description="Protocol spoken by the classify script, FRAMED or LINES for older scripts.")
+  public String classifyProtocol;
   
   public ScriptStringFeatureDataWriter(File outputDirectory)
       throws FileNotFoundException {
@@ -60,5 +65,9 @@ public abstract class ScriptStringFeatureDataWriter<T extends ScriptStringOutcom
       throws ResourceInitializationException {
     this.dir = (String) context.getConfigParameterValue(PARAM_SCRIPT_DIR);
     this.classifierBuilder.setScriptDirectory(this.dir);
+    this.classifyProtocol = (String) context.getConfigParameterValue(PARAM_CLASSIFY_PROTOCOL);
+    this.classifierBuilder.setClassifyProtocol(this.classifyProtocol == null
+        ? ScriptStringOutcomeClassifier.Protocol.FRAMED
+        : ScriptStringOutcomeClassifier.Protocol.valueOf(this.classifyProtocol.trim().toUpperCase()));
   }
 }
@@ -4,6 +4,7 @@ import com.google.common.annotations.Beta;
 import org.apache.uima.UIMAFramework;
 import org.apache.uima.util.Level;
 import org.apache.uima.util.Logger;
+import org.cleartk.ml.Classifier;
 import org.cleartk.ml.CleartkProcessingException;
 import org.cleartk.ml.Feature;
 import org.cleartk.ml.encoder.features.FeaturesEncoder;
@@ -12,6 +13,9 @@ import org.cleartk.ml.jar.Classifier_ImplBase;
 import org.cleartk.ml.util.featurevector.FeatureVector;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -27,11 +31,39 @@ import java.util.Objects;
 @Beta
 public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<FeatureVector, String, Integer>
       implements AutoCloseable {
+
+  /**
+   * How instances and outcomes are exchanged with the classify script.
+   * The script is told which protocol to use by the environment variable {@link #PROTOCOL_ENV}.
+   * <p>
+   * FRAMED: each request is a big endian int32 instance count followed by, for each instance,
+   * an int32 byte length and the utf-8 bytes of its space separated feature values.
+   * Each response is an int32 outcome count followed by, for each outcome, an int32 byte length and utf-8 bytes.
+   * A request with an instance count of 0 ends the script.
+   * The classify scripts shipped with ctakes speak this protocol through cleartk_io.classify_stdin.
+   * </p>
+   * <p>
+   * LINES: one line of space separated feature values per instance on stdin, one outcome line per instance on stdout.
+   * An empty line ends the script.  This is the fallback for older scripts that do not read {@link #PROTOCOL_ENV},
+   * and is used for models packaged without a protocol.
+   * </p>
+   */
+  public enum Protocol { LINES, FRAMED }
+
+  public static final String PROTOCOL_ENV = "CTAKES_CLASSIFY_PROTOCOL";
+
+  // Instances written before reading their outcomes in LINES mode.
+  // Outcome lines are short, so a batch of them never fills the stdout pipe while stdin is being written.
+  private static final int LINE_BATCH_SIZE = 128;
+
   File modelDir = null;
   Process classifierProcess = null;
   PrintStream toClassifier = null;
   BufferedReader reader = null;
   BufferedReader errReader = null;
+  DataOutputStream frameOut = null;
+  DataInputStream frameIn = null;
+  final Protocol protocol;
   Logger logger = UIMAFramework.getLogger(ScriptStringOutcomeClassifier.class);
 
   public ScriptStringOutcomeClassifier(
@@ -39,8 +71,18 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
       OutcomeEncoder<String, Integer> outcomeEncoder,
       File modelDir,
       File scriptDir) {
+    this(featuresEncoder, outcomeEncoder, modelDir, scriptDir, Protocol.LINES);
+  }
+
+  public ScriptStringOutcomeClassifier(
+      FeaturesEncoder<FeatureVector> featuresEncoder,
+      OutcomeEncoder<String, Integer> outcomeEncoder,
+      File modelDir,
+      File scriptDir,
+      Protocol protocol) {
     super(featuresEncoder, outcomeEncoder);
     this.modelDir = modelDir;
+    this.protocol = protocol;
     
     File classifyScript = null;
     for(File file : Objects.requireNonNull( scriptDir.listFiles() ) ){
@@ -57,13 +99,20 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     }
     
     try {
-      this.classifierProcess = Runtime.getRuntime().exec(new String[]{
+      ProcessBuilder processBuilder = new ProcessBuilder(
           classifyScript.getAbsolutePath(),
-          modelDir.getAbsolutePath()});
+          modelDir.getAbsolutePath());
+      processBuilder.environment().put(PROTOCOL_ENV, protocol.name().toLowerCase());
+      this.classifierProcess = processBuilder.start();
       // start the classifier process running, give it a chance to read the model, and
       // set classifierProcess to the running classifier
-      toClassifier = new PrintStream(classifierProcess.getOutputStream());
-      reader = new BufferedReader(new InputStreamReader(classifierProcess.getInputStream()));
+      if(protocol == Protocol.FRAMED){
+        frameOut = new DataOutputStream(new BufferedOutputStream(classifierProcess.getOutputStream(), 65536));
+        frameIn = new DataInputStream(new BufferedInputStream(classifierProcess.getInputStream(), 65536));
+      }else{
+        toClassifier = new PrintStream(new BufferedOutputStream(classifierProcess.getOutputStream(), 65536));
+        reader = new BufferedReader(new InputStreamReader(classifierProcess.getInputStream()));
+      }
       errReader = new BufferedReader(new InputStreamReader(classifierProcess.getErrorStream()));
       errReader.readLine(); // read line about which backend it is using.
     } catch (IOException e) {
@@ -72,35 +121,27 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     }
   }
 
+  public Protocol getProtocol(){
+    return protocol;
+  }
+
   public String classify(List<Feature> features)
       throws CleartkProcessingException {
     // Encode the features and pass them to the standard input of the classifier process
     // and then read the standard output prediction, which will be in the string format expected by
     // the annotator.    
-
-    StringBuilder buf = new StringBuilder();
-    
-//    for (FeatureVector.Entry featureNode : this.featuresEncoder.encodeAll(features)) {
-//      buf.append(String.format(Locale.US, " %d:%.7f", featureNode.index, featureNode.value));  
-//    }
-    for (int i = 0; i < features.size(); i ++){
-    	buf.append(features.get(i).getValue());
-    	if( i < features.size()-1){
-    		buf.append(" ");
-    	}
+    if(protocol == Protocol.FRAMED){
+      return classifyAll(Collections.singletonList(features)).get(0);
     }
 
-    this.toClassifier.println(buf);
+    this.toClassifier.println(toInstanceString(features));
     this.toClassifier.flush();
     
     String line = "";
-    String eLine = "";
     try {
       line = reader.readLine();
       if(line == null){
-         while((eLine = errReader.readLine()) != null){
-           logger.log(Level.SEVERE, eLine);
-         }
+        logErrors();
       }
     } catch (IOException e) {
       throw new RuntimeException(e);
@@ -109,6 +150,123 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     return line;
   }
 
+  /**
+   * Classify many instances, e.g. all candidate pairs in a document, with one exchange with the classify script
+   * instead of one round trip per instance.
+   * @param instances features for each instance
+   * @return outcome for each instance, in the same order.  Outcomes are null if the script ended early.
+   * @throws CleartkProcessingException -
+   */
+  public List<String> classifyAll(List<List<Feature>> instances)
+      throws CleartkProcessingException {
+    if(instances.isEmpty()){
+      return new ArrayList<>();
+    }
+    try {
+      return protocol == Protocol.FRAMED ? classifyFramed(instances) : classifyLines(instances);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * @param classifier any classifier
+   * @param instances features for each instance
+   * @return outcome for each instance, classified in one batch if the classifier is a script classifier.
+   * @throws CleartkProcessingException -
+   */
+  public static List<String> classifyAll(Classifier<String> classifier, List<List<Feature>> instances)
+      throws CleartkProcessingException {
+    if(classifier instanceof ScriptStringOutcomeClassifier){
+      return ((ScriptStringOutcomeClassifier) classifier).classifyAll(instances);
+    }
+    List<String> outcomes = new ArrayList<>(instances.size());
+    for(List<Feature> features : instances){
+      outcomes.add(classifier.classify(features));
+    }
+    return outcomes;
+  }
+
+  private List<String> classifyLines(List<List<Feature>> instances) throws IOException {
+    List<String> outcomes = new ArrayList<>(instances.size());
+    for(int start = 0; start < instances.size(); start += LINE_BATCH_SIZE){
+      int end = Math.min(instances.size(), start + LINE_BATCH_SIZE);
+      for(int i = start; i < end; i++){
+        this.toClassifier.println(toInstanceString(instances.get(i)));
+      }
+      this.toClassifier.flush();
+      for(int i = start; i < end; i++){
+        String line = reader.readLine();
+        if(line == null){
+          logErrors();
+          return fillMissing(outcomes, instances.size());
+        }
+        outcomes.add(line);
+      }
+    }
+    return outcomes;
+  }
+
+  private List<String> classifyFramed(List<List<Feature>> instances) throws IOException {
+    frameOut.writeInt(instances.size());
+    for(List<Feature> features : instances){
+      writeFramedString(toInstanceString(features));
+    }
+    frameOut.flush();
+    List<String> outcomes = new ArrayList<>(instances.size());
+    int count;
+    try {
+      count = frameIn.readInt();
+    } catch (EOFException eofE) {
+      logErrors();
+      return fillMissing(outcomes, instances.size());
+    }
+    if(count != instances.size()){
+      throw new IOException("Classifier returned " + count + " outcomes for " + instances.size() + " instances");
+    }
+    for(int i = 0; i < count; i++){
+      byte[] bytes = new byte[frameIn.readInt()];
+      frameIn.readFully(bytes);
+      outcomes.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+    return outcomes;
+  }
+
+  private void writeFramedString(String text) throws IOException {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    frameOut.writeInt(bytes.length);
+    frameOut.write(bytes);
+  }
+
+  private static String toInstanceString(List<Feature> features){
+    StringBuilder buf = new StringBuilder();
+    
+//    for (FeatureVector.Entry featureNode : this.featuresEncoder.encodeAll(features)) {
+//      buf.append(String.format(Locale.US, " %d:%.7f", featureNode.index, featureNode.value));  
+//    }
+    for (int i = 0; i < features.size(); i ++){
+    	buf.append(features.get(i).getValue());
+    	if( i < features.size()-1){
+    		buf.append(" ");
+    	}
+    }
+    return buf.toString();
+  }
+
+  private static List<String> fillMissing(List<String> outcomes, int size){
+    while(outcomes.size() < size){
+      outcomes.add(null);
+    }
+    return outcomes;
+  }
+
+  private void logErrors() throws IOException {
+    String eLine;
+    while((eLine = errReader.readLine()) != null){
+      logger.log(Level.SEVERE, eLine);
+    }
+  }
+
 //  @Override
 //  protected void finalize() throws Throwable {
 //    super.finalize();
@@ -120,13 +278,24 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
 
   /**
    * Object.finalize() was deprecated in jdk 9.  This should do the same thing, but close() must be called.
+   * If the calling thread is interrupted while waiting for the classifier process to end, its interrupt is restored.
    * {@inheritDoc}
-   * @throws Exception if the classifier process could not properly end.
+   * @throws IOException if the end of input could not be sent to the classifier process.
    */
   @Override
-  public void close() throws Exception {
-    this.toClassifier.print('\n');
-    classifierProcess.waitFor();
+  public void close() throws IOException {
+    if(protocol == Protocol.FRAMED){
+      frameOut.writeInt(0);
+      frameOut.flush();
+    }else{
+      this.toClassifier.print('\n');
+      this.toClassifier.flush();
+    }
+    try {
+      classifierProcess.waitFor();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
 }
@@ -14,6 +14,7 @@ import java.util.jar.JarInputStream;
 
 public abstract class ScriptStringOutcomeClassifierBuilder<T extends ScriptStringOutcomeClassifier> extends ClassifierBuilder_ImplBase<T, FeatureVector, String, Integer> {
   public static final Attributes.Name SCRIPT_DIR_PARAM = new Attributes.Name("ScriptDirectory");
+  public static final Attributes.Name CLASSIFY_PROTOCOL_PARAM = new Attributes.Name("ClassifyProtocol");
   protected static final Logger logger = UIMAFramework.getLogger(ScriptStringOutcomeClassifierBuilder.class);
   
   protected File modelDir = null;
@@ -23,6 +24,27 @@ public abstract class ScriptStringOutcomeClassifierBuilder<T extends ScriptStrin
     Attributes atts = this.manifest.getMainAttributes();
     atts.put(SCRIPT_DIR_PARAM, scriptDir); 
   }
+
+  /**
+   * @param protocol protocol supported by the classify script of the packaged model.
+   *                 Models packaged without a protocol use {@link ScriptStringOutcomeClassifier.Protocol#LINES}.
+   */
+  public void setClassifyProtocol(ScriptStringOutcomeClassifier.Protocol protocol){
+    Attributes atts = this.manifest.getMainAttributes();
+    atts.put(CLASSIFY_PROTOCOL_PARAM, protocol.name());
+  }
+
+  /**
+   * @param manifestAttributes main attributes of a packaged model
+   * @return the protocol supported by the model's classify script
+   */
+  protected static ScriptStringOutcomeClassifier.Protocol getClassifyProtocol(Attributes manifestAttributes){
+    String protocol = manifestAttributes.getValue(CLASSIFY_PROTOCOL_PARAM);
+    if(protocol == null || protocol.trim().isEmpty()){
+      return ScriptStringOutcomeClassifier.Protocol.LINES;
+    }
+    return ScriptStringOutcomeClassifier.Protocol.valueOf(protocol.trim().toUpperCase());
+  }
   
   @Override
   public File getTrainingDataFile(File dir) {
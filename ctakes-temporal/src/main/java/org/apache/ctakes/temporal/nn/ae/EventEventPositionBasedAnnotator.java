@@ -58,6 +58,10 @@ public class EventEventPositionBasedAnnotator extends CleartkAnnotator<String> {
       }
     }
 
+    // candidate pairs and their features, classified together after all pairs are found
+    RelationCandidateBatch candidateBatch =
+        new RelationCandidateBatch(NO_RELATION_CATEGORY, RelationCandidateBatch.ArgumentOrder.EVENT_EVENT);
+
     for(Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
       // collect all relevant relation arguments from the sentence
       List<IdentifiedAnnotationPair> candidatePairs = getCandidateRelationArgumentPairs(jCas, sentence);
@@ -100,26 +104,14 @@ public class EventEventPositionBasedAnnotator extends CleartkAnnotator<String> {
           }
           this.dataWriter.write(new Instance<>(category, feats));
         } else {
-          String predictedCategory = this.classifier.classify(feats);
-
-          // add a relation annotation if a true relation was predicted
-          if (predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
-
-            // if we predict an inverted relation, reverse the order of the
-            // arguments
-            if (predictedCategory.endsWith("-1")) {
-              predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
-              IdentifiedAnnotation temp = arg1;
-              arg1 = arg2;
-              arg2 = temp;
-            }
-
-            createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
-          }
+          candidateBatch.add(arg1, arg2, feats);
         }
       }
 
     }
+
+    // classify all of the candidate pairs in the document with one call to the classifier
+    candidateBatch.createRelations(jCas, this.classifier, this::createRelation);
   }
 
   /**
@@ -0,0 +1,123 @@
+package org.apache.ctakes.temporal.nn.ae;
+
+import org.apache.ctakes.temporal.ae.TemporalRelationExtractorAnnotator.IdentifiedAnnotationPair;
+import org.apache.ctakes.temporal.keras.ScriptStringOutcomeClassifier;
+import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.TimeMention;
+import org.apache.uima.jcas.JCas;
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.CleartkProcessingException;
+import org.cleartk.ml.Feature;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Candidate relation argument pairs of a document and their features.
+ * All of the pairs are classified together after they have been found, so that a script classifier
+ * makes one exchange with its classify script per document instead of one round trip per pair.
+ */
+public class RelationCandidateBatch {
+
+	/**
+	 * How the arguments of a predicted relation are ordered.
+	 */
+	public enum ArgumentOrder {
+		/**
+		 * An inverted category ("-1") reverses the arguments.
+		 */
+		EVENT_EVENT,
+		/**
+		 * The time is the first argument, unless an inverted category ("-1") was predicted.
+		 */
+		EVENT_TIME,
+		/**
+		 * Pairs that have a time use {@link #EVENT_TIME}, other pairs use {@link #EVENT_EVENT}.
+		 */
+		JOINT
+	}
+
+	/**
+	 * Creates a relation annotation, e.g. CleartkAnnotator subclass createRelation methods.
+	 */
+	@FunctionalInterface
+	public interface RelationCreator {
+		void createRelation(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2, String category,
+				double confidence);
+	}
+
+	private final String noRelationCategory;
+	private final ArgumentOrder argumentOrder;
+	private final List<IdentifiedAnnotationPair> pairs = new ArrayList<>();
+	private final List<List<Feature>> features = new ArrayList<>();
+
+	/**
+	 * @param noRelationCategory category predicted for pairs without a relation
+	 * @param argumentOrder      how the arguments of predicted relations are ordered
+	 */
+	public RelationCandidateBatch(String noRelationCategory, ArgumentOrder argumentOrder) {
+		this.noRelationCategory = noRelationCategory;
+		this.argumentOrder = argumentOrder;
+	}
+
+	/**
+	 * @param arg1         first argument of a candidate pair
+	 * @param arg2         second argument of a candidate pair
+	 * @param pairFeatures features of the candidate pair
+	 */
+	public void add(IdentifiedAnnotation arg1, IdentifiedAnnotation arg2, List<Feature> pairFeatures) {
+		pairs.add(new IdentifiedAnnotationPair(arg1, arg2));
+		features.add(pairFeatures);
+	}
+
+	/**
+	 * Classify all of the candidate pairs with one call to the classifier and create a relation for each pair
+	 * with a predicted relation.
+	 *
+	 * @param jCas            ye olde ...
+	 * @param classifier      relation classifier
+	 * @param relationCreator creates the relation annotations
+	 * @throws CleartkProcessingException if the classifier fails
+	 */
+	public void createRelations(JCas jCas, Classifier<String> classifier, RelationCreator relationCreator)
+			throws CleartkProcessingException {
+		if (pairs.isEmpty()) {
+			return;
+		}
+		List<String> predictedCategories = ScriptStringOutcomeClassifier.classifyAll(classifier, features);
+		for (int i = 0; i < pairs.size(); i++) {
+			createPredictedRelation(jCas, pairs.get(i).getArg1(), pairs.get(i).getArg2(), predictedCategories.get(i),
+					relationCreator);
+		}
+	}
+
+	/**
+	 * Add a relation annotation if a true relation was predicted for the pair.
+	 */
+	private void createPredictedRelation(JCas jCas, IdentifiedAnnotation arg1, IdentifiedAnnotation arg2,
+			String predictedCategory, RelationCreator relationCreator) {
+		if (predictedCategory == null || predictedCategory.equals(noRelationCategory)) {
+			return;
+		}
+		boolean inverted = predictedCategory.endsWith("-1");
+		if (inverted) {
+			predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
+		}
+		boolean hasTime = arg1 instanceof TimeMention || arg2 instanceof TimeMention;
+		boolean swap;
+		if (argumentOrder == ArgumentOrder.EVENT_TIME || (argumentOrder == ArgumentOrder.JOINT && hasTime)) {
+			// if we predict an inverted relation the event is the first argument, otherwise the time is
+			swap = inverted ? arg1 instanceof TimeMention : arg1 instanceof EventMention;
+		} else {
+			// if we predict an inverted relation, reverse the order of the arguments
+			swap = inverted;
+		}
+		if (swap) {
+			relationCreator.createRelation(jCas, arg2, arg1, predictedCategory.toUpperCase(), 0.0);
+		} else {
+			relationCreator.createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
+		}
+	}
+
+}
@@ -138,6 +138,10 @@ public class WindowBasedAnnotator extends CleartkAnnotator<String> {
 			}
 		}
 
+		// candidate pairs and their features, classified together after all pairs are found
+		RelationCandidateBatch candidateBatch =
+				new RelationCandidateBatch(NO_RELATION_CATEGORY, RelationCandidateBatch.ArgumentOrder.EVENT_EVENT);
+
 		// walk through the pairs of annotations
 		for (IdentifiedAnnotationPair pair : candidatePairs) {
 			IdentifiedAnnotation arg1 = pair.getArg1();
@@ -169,21 +173,13 @@ public class WindowBasedAnnotator extends CleartkAnnotator<String> {
 				}
 				this.dataWriter.write(new Instance<>(category, feats));
 			} else {
-				String predictedCategory = this.classifier.classify(feats);
-
-				if (predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
-
-					if (predictedCategory.endsWith("-1")) {
-						predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
-						IdentifiedAnnotation temp = arg1;
-						arg1 = arg2;
-						arg2 = temp;
-					}
-					createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
-				}
+				candidateBatch.add(arg1, arg2, feats);
 			}
 		}
 
+		// classify all of the candidate pairs in the document with one call to the classifier
+		candidateBatch.createRelations(jCas, this.classifier, this::createRelation);
+
 
 		//
 		//		if(this.isTraining()){//in training time, output the token statistics for relations
@@ -349,7 +349,9 @@ EvaluationOfTemporalRelations_ImplBase{
 						DirectoryDataWriterFactory.PARAM_OUTPUT_DIRECTORY,
 						new File(directory,"event-time"),
 						ScriptStringFeatureDataWriter.PARAM_SCRIPT_DIR,
-						"scripts/nn-et/"
+						"scripts/nn-et/",
+						ScriptStringFeatureDataWriter.PARAM_CLASSIFY_PROTOCOL,
+						"LINES"
 						) );
 		if(!this.skipWrite){
 			SimplePipeline.runPipeline(collectionReader, aggregateBuilder.createAggregate());
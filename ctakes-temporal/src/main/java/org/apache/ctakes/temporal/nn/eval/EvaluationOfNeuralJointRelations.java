@@ -292,7 +292,9 @@ EvaluationOfTemporalRelations_ImplBase{
 							DirectoryDataWriterFactory.PARAM_OUTPUT_DIRECTORY,
 							new File(directory,"joint"),
 							ScriptStringFeatureDataWriter.PARAM_SCRIPT_DIR,
-							"scripts/nn-joint/"
+							"scripts/nn-joint/",
+							ScriptStringFeatureDataWriter.PARAM_CLASSIFY_PROTOCOL,
+							"LINES"
 							) );
 
 			SimplePipeline.runPipeline(collectionReader, aggregateBuilder.createAggregate());
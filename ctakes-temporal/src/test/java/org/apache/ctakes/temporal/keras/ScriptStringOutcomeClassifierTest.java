@@ -0,0 +1,111 @@
+package org.apache.ctakes.temporal.keras;
+
+import org.apache.ctakes.temporal.keras.ScriptStringOutcomeClassifier.Protocol;
+import org.cleartk.ml.Feature;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the classifier against a classify.sh that starts {@link EchoClassifier} in a new jvm.
+ */
+public class ScriptStringOutcomeClassifierTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testLines() throws Exception {
+    assertClassifications(Protocol.LINES);
+  }
+
+  @Test
+  public void testFramed() throws Exception {
+    assertClassifications(Protocol.FRAMED);
+  }
+
+  private void assertClassifications(Protocol protocol) throws Exception {
+    File scriptDir = createScriptDir();
+    try(ScriptStringOutcomeClassifier classifier =
+            new KerasStringOutcomeClassifier(null, null, folder.newFolder(), scriptDir, protocol)){
+      assertEquals(protocol, classifier.getProtocol());
+      assertEquals("first-2", classifier.classify(createFeatures("first", "second")));
+      List<List<Feature>> instances = new ArrayList<>();
+      List<String> expected = new ArrayList<>();
+      // more instances than are written in one LINES batch
+      for(int i = 0; i < 300; i++){
+        instances.add(createFeatures("token" + i, "e", "ü", "t"));
+        expected.add("token" + i + "-4");
+      }
+      assertEquals(expected, classifier.classifyAll(instances));
+      assertEquals("last-1", classifier.classify(createFeatures("last")));
+    }
+  }
+
+  private File createScriptDir() throws IOException {
+    File scriptDir = folder.newFolder("scripts");
+    File script = new File(scriptDir, "classify.sh");
+    String java = new File(System.getProperty("java.home"), "bin/java").getAbsolutePath();
+    Files.write(script.toPath(), ("#!/bin/sh\nexec \"" + java + "\" -cp \"" + System.getProperty("java.class.path")
+        + "\" '" + EchoClassifier.class.getName() + "' \"$@\"\n").getBytes(StandardCharsets.UTF_8));
+    script.setExecutable(true);
+    return scriptDir;
+  }
+
+  private static List<Feature> createFeatures(String... values){
+    List<Feature> features = new ArrayList<>();
+    for(String value : values){
+      features.add(new Feature(value));
+    }
+    return features;
+  }
+
+  /**
+   * Classifies each instance as its first feature value and the number of feature values.
+   */
+  public static final class EchoClassifier {
+    public static void main(String[] args) throws IOException {
+      System.err.println("Using echo backend");
+      if("framed".equals(System.getenv(ScriptStringOutcomeClassifier.PROTOCOL_ENV))){
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+        int count;
+        while((count = in.readInt()) > 0){
+          List<String> outcomes = new ArrayList<>();
+          for(int i = 0; i < count; i++){
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            outcomes.add(classify(new String(bytes, StandardCharsets.UTF_8)));
+          }
+          out.writeInt(outcomes.size());
+          for(String outcome : outcomes){
+            byte[] bytes = outcome.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+          }
+          out.flush();
+        }
+        return;
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+      String line;
+      while((line = reader.readLine()) != null && !line.isEmpty()){
+        System.out.println(classify(line));
+        System.out.flush();
+      }
+    }
+
+    private static String classify(String instance){
+      String[] values = instance.split(" ");
+      return values[0] + "-" + values.length;
+    }
+  }
+}
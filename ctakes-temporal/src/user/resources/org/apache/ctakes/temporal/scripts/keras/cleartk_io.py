@@ -3,7 +3,9 @@
 import numpy as np
 import os
 import os.path
+import struct
 import subprocess
+import sys
 
 
 def string_label_to_label_vector(label_string, outcome_maps):    
@@ -165,7 +167,69 @@ def feature_array_to_list( feats, length=-1 ):
         f[int(ind)] = val
     
     return f
-    
+
+PROTOCOL_ENV = 'CTAKES_CLASSIFY_PROTOCOL'
+
+def classify_stdin(classify_all):
+    """Answer classification requests from ScriptStringOutcomeClassifier on stdin and stdout.
+
+    classify_all takes a list of instance strings, each the space separated feature values of one instance,
+    and returns the outcome string for each.
+    The protocol is set by the CTAKES_CLASSIFY_PROTOCOL environment variable.
+    framed: each request is a big endian int32 instance count followed by the int32 byte length and utf-8 bytes
+    of each instance.  Each response is the outcome count followed by the length and bytes of each outcome.
+    A count of 0 ends the loop.
+    lines (the default): one instance per line and one outcome per line.  An empty line ends the loop."""
+    try:
+        if os.environ.get(PROTOCOL_ENV, 'lines').lower() == 'framed':
+            classify_framed(classify_all)
+        else:
+            classify_lines(classify_all)
+    except KeyboardInterrupt:
+        sys.stderr.write("Caught keyboard interrupt\n")
+
+def classify_framed(classify_all):
+    stdin = getattr(sys.stdin, 'buffer', sys.stdin)
+    stdout = getattr(sys.stdout, 'buffer', sys.stdout)
+    while True:
+        count = read_frame_int(stdin)
+        if not count:
+            break
+        instances = []
+        for i in range(count):
+            instances.append(read_exactly(stdin, read_frame_int(stdin)).decode('utf-8'))
+        outcomes = classify_all(instances)
+        stdout.write(struct.pack('>i', len(outcomes)))
+        for outcome in outcomes:
+            data = outcome.encode('utf-8')
+            stdout.write(struct.pack('>i', len(data)))
+            stdout.write(data)
+        stdout.flush()
+
+def classify_lines(classify_all):
+    while True:
+        line = sys.stdin.readline().rstrip()
+        if not line:
+            sys.stderr.write("Encountered empty string so exiting\n")
+            break
+        sys.stdout.write(classify_all([line])[0] + '\n')
+        sys.stdout.flush()
+
+def read_frame_int(stream):
+    data = read_exactly(stream, 4)
+    if data is None:
+        return None
+    return struct.unpack('>i', data)[0]
+
+def read_exactly(stream, size):
+    data = b''
+    while len(data) < size:
+        chunk = stream.read(size - len(data))
+        if not chunk:
+            return None
+        data += chunk
+    return data
+
 if __name__ == "__main__":
     (labels, feats) = read_multitask_liblinear('data_testing/multitask_assertion/train_and_test/')
     print("train[0][100] = %f" % feats[0][100])
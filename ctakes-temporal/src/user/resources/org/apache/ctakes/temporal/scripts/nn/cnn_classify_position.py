@@ -6,6 +6,8 @@
 from keras.models import model_from_json
 from keras.preprocessing.sequence import pad_sequences
 
+import cleartk_io as ctk_io
+
 
 def main(args):
     if len(args) < 1:
@@ -28,73 +30,59 @@ def main(args):
     for label, integer in label2int.items():
       int2label[integer] = label
 
-    while True:
-        try:
-            line = sys.stdin.readline().rstrip()
-            if not line:
-                break
-
-            text, tdist, edist = line.strip().split('|')
-
-            tokens = []
-            for token in text.rstrip().split():
-                if token in word2int:
-                    tokens.append(word2int[token])
-                else:
-                    tokens.append(word2int['oov_word'])
-
-            tdists = []
-            for dist in tdist.rstrip().split():
-                if dist in tdist2int:
-                    tdists.append(tdist2int[dist])
-                else:
-                    tdists.append(tdist2int['oov_word'])
-
-            edists = []
-            for dist in edist.rstrip().split():
-                if dist in edist2int:
-                    edists.append(edist2int[dist])
-                else:
-                    edists.append(edist2int['oov_word'])
-
-            if len(tokens) > maxlen:
-                tokens = tokens[0:maxlen]
-            if len(tdists) > maxlen:
-                tdists = tdists[0:maxlen]
-            if len(edists) > maxlen:
-                edists = edists[0:maxlen]
-
-            test_x1 = pad_sequences([tokens], maxlen=maxlen)
-            test_x2 = pad_sequences([tdists], maxlen=maxlen)
-            test_x3 = pad_sequences([edists], maxlen=maxlen)
-
-            test_xs = []
-            test_xs.append(test_x1)
-            test_xs.append(test_x2)
-            test_xs.append(test_x3)
-            test_xs.append(test_x1)
-            test_xs.append(test_x2)
-            test_xs.append(test_x3)
-            test_xs.append(test_x1)
-            test_xs.append(test_x2)
-            test_xs.append(test_x3)
-            test_xs.append(test_x1)
-            test_xs.append(test_x2)
-            test_xs.append(test_x3)
-
-            out = model.predict(test_xs, batch_size=50)[0]
-
-        except KeyboardInterrupt:
-            sys.stderr.write("Caught keyboard interrupt\n")
-            break
-
-        if line == '':
-            sys.stderr.write("Encountered empty string so exiting\n")
-            break
-
-        out_str = int2label[out.argmax()]
-        print out_str
-        sys.stdout.flush()
+    def classify(line):
+        text, tdist, edist = line.strip().split('|')
+
+        tokens = []
+        for token in text.rstrip().split():
+            if token in word2int:
+                tokens.append(word2int[token])
+            else:
+                tokens.append(word2int['oov_word'])
+
+        tdists = []
+        for dist in tdist.rstrip().split():
+            if dist in tdist2int:
+                tdists.append(tdist2int[dist])
+            else:
+                tdists.append(tdist2int['oov_word'])
+
+        edists = []
+        for dist in edist.rstrip().split():
+            if dist in edist2int:
+                edists.append(edist2int[dist])
+            else:
+                edists.append(edist2int['oov_word'])
+
+        if len(tokens) > maxlen:
+            tokens = tokens[0:maxlen]
+        if len(tdists) > maxlen:
+            tdists = tdists[0:maxlen]
+        if len(edists) > maxlen:
+            edists = edists[0:maxlen]
+
+        test_x1 = pad_sequences([tokens], maxlen=maxlen)
+        test_x2 = pad_sequences([tdists], maxlen=maxlen)
+        test_x3 = pad_sequences([edists], maxlen=maxlen)
+
+        test_xs = []
+        test_xs.append(test_x1)
+        test_xs.append(test_x2)
+        test_xs.append(test_x3)
+        test_xs.append(test_x1)
+        test_xs.append(test_x2)
+        test_xs.append(test_x3)
+        test_xs.append(test_x1)
+        test_xs.append(test_x2)
+        test_xs.append(test_x3)
+        test_xs.append(test_x1)
+        test_xs.append(test_x2)
+        test_xs.append(test_x3)
+
+        out = model.predict(test_xs, batch_size=50)[0]
+        return int2label[out.argmax()]
+
+    ctk_io.classify_stdin(lambda lines: [classify(line) for line in lines])
 
     sys.exit(0)
 
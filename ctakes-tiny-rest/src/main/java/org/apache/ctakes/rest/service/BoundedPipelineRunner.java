@@ -0,0 +1,107 @@
+package org.apache.ctakes.rest.service;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.ctakes.core.pipeline.PipelineEngine;
+import org.apache.ctakes.rest.service.response.ResponseFormatter;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admits requests to a pipeline engine while a pipeline is free or a place in the request queue is available.
+ * Other requests are rejected with a {@link PipelineSaturatedException}.
+ *
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+final class BoundedPipelineRunner {
+
+   static private final Logger LOGGER = LoggerFactory.getLogger( "RestPipelineRunner" );
+
+   private final PipelineEngine _engine;
+   private final int _queueSize;
+   private final Semaphore _admission;
+   private final AtomicLong _processed = new AtomicLong();
+   private final AtomicLong _failed = new AtomicLong();
+   private final AtomicLong _rejected = new AtomicLong();
+
+   /**
+    * @param engine    engine with one or more pipelines.
+    * @param queueSize number of requests that may wait for a free pipeline.
+    */
+   BoundedPipelineRunner( final PipelineEngine engine, final int queueSize ) {
+      _engine = engine;
+      _queueSize = Math.max( 0, queueSize );
+      _admission = new Semaphore( _engine.getSize() + _queueSize, true );
+      LOGGER.info( "Running {} pipelines with a queue of {} requests.", _engine.getSize(), _queueSize );
+   }
+
+   String process( final ResponseFormatter formatter, final String text )
+         throws AnalysisEngineProcessException {
+      if ( text == null || text.trim().isEmpty() ) {
+         return "";
+      }
+      if ( !_admission.tryAcquire() ) {
+         _rejected.incrementAndGet();
+         LOGGER.warn( "All {} pipelines are busy and {} requests are waiting.  Rejecting request.",
+               _engine.getSize(), getQueueDepth() );
+         throw new PipelineSaturatedException( "All pipelines are busy, please retry later." );
+      }
+      try {
+         final String result = _engine.process( text, formatter::getResultText );
+         _processed.incrementAndGet();
+         return result;
+      } catch ( AnalysisEngineProcessException | RuntimeException multE ) {
+         _failed.incrementAndGet();
+         LOGGER.error( "Error processing text." );
+         throw multE;
+      } finally {
+         _admission.release();
+      }
+   }
+
+   int getInFlight() {
+      return _engine.getSize() + _queueSize - _admission.availablePermits();
+   }
+
+   int getQueueDepth() {
+      return Math.max( 0, getInFlight() - _engine.getSize() );
+   }
+
+   Map<String, Number> getMetrics() {
+      final Map<String, Number> metrics = new LinkedHashMap<>();
+      metrics.put( "pipelines", _engine.getSize() );
+      metrics.put( "queueSize", _queueSize );
+      metrics.put( "inFlight", getInFlight() );
+      metrics.put( "queueDepth", getQueueDepth() );
+      metrics.put( "processed", _processed.get() );
+      metrics.put( "failed", _failed.get() );
+      metrics.put( "rejected", _rejected.get() );
+      return metrics;
+   }
+
+}
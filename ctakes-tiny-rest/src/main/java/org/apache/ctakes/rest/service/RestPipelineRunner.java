@@ -22,21 +22,24 @@ package org.apache.ctakes.rest.service;
 import org.apache.ctakes.core.pipeline.PipelineBuilder;
 import org.apache.ctakes.core.pipeline.PiperFileReader;
 import org.apache.ctakes.rest.service.response.ResponseFormatter;
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.uima.UIMAException;
-import org.apache.uima.UIMAFramework;
-import org.apache.uima.analysis_engine.AnalysisEngine;
-import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.cas.CASRuntimeException;
-import org.apache.uima.jcas.JCas;
 import org.apache.uima.util.CasCreationUtils;
-import org.apache.uima.util.JCasPool;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
+ * Runs the rest pipeline on multiple notes simultaneously.
+ * <p>
+ * The number of pipeline replicas is set with the system property or environment variable
+ * {@value #PIPELINE_COUNT_PROPERTY}.  If it is not set then the threads count of the piper file is used.
+ * The number of requests that may wait for a free pipeline is set with {@value #QUEUE_SIZE_PROPERTY}.
+ * When all pipelines are busy and the queue is full, requests are rejected
+ * with a {@link PipelineSaturatedException}, which is returned to the client as http status 429.
+ * </p>
+ *
  * @author SPF , chip-nlp
  * @version %I%
  * @since 11/5/2019
@@ -48,14 +51,15 @@ public enum RestPipelineRunner {
       return INSTANCE;
    }
 
-   static private final Logger LOGGER = LoggerFactory.getLogger( "RestPipelineRunner" );
-
    // Use a constant piper name.
    // This piper can wrap (load *) another piper that contains the actual desired pipeline.
    static private final String REST_PIPER_FILE_PATH = "TinyRestPipeline.piper";
 
-   private final AnalysisEngine _engine;
-   private final JCasPool _pool;
+   static public final String PIPELINE_COUNT_PROPERTY = "ctakes.rest.pipelines";
+   static public final String QUEUE_SIZE_PROPERTY = "ctakes.rest.queue";
+   static private final int DEFAULT_QUEUE_SIZE = 16;
+
+   private final BoundedPipelineRunner _runner;
 
    RestPipelineRunner() {
       try {
@@ -64,11 +68,14 @@ public enum RestPipelineRunner {
          CasCreationUtils.createCas();
          final PiperFileReader reader = new PiperFileReader( REST_PIPER_FILE_PATH );
          final PipelineBuilder builder = reader.getBuilder();
-
-         final AnalysisEngineDescription pipeline = builder.getAnalysisEngineDesc();
-         _engine = UIMAFramework.produceAnalysisEngine( pipeline );
-         _pool = new JCasPool( 2, _engine );
+         // Only override the piper threads count when the pipeline count has been explicitly set.
+         if ( getProperty( PIPELINE_COUNT_PROPERTY ) != null ) {
+            builder.threads( getIntProperty( PIPELINE_COUNT_PROPERTY, 1 ) );
+         }
+         _runner = new BoundedPipelineRunner( builder.createEngine(),
+               getIntProperty( QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE ) );
       } catch ( IOException | UIMAException multE ) {
+         // The enum instance is created before static fields such as a LOGGER are initialized.
          LoggerFactory.getLogger( "RestPipelineRunner" ).error( multE.getMessage() );
          throw new ExceptionInInitializerError( multE );
       }
@@ -76,27 +83,56 @@ public enum RestPipelineRunner {
 
    public String process( final ResponseFormatter formatter, final String text )
          throws AnalysisEngineProcessException {
-      if ( text == null || text.trim().isEmpty() ) {
-         return "";
+      return _runner.process( formatter, text );
+   }
+
+   /**
+    * @return number of requests that are being processed or are waiting for a pipeline.
+    */
+   public int getInFlight() {
+      return _runner.getInFlight();
+   }
+
+   /**
+    * @return number of requests that are waiting for a pipeline.
+    */
+   public int getQueueDepth() {
+      return _runner.getQueueDepth();
+   }
+
+   /**
+    * @return simple counts of pipeline use.
+    */
+   public Map<String, Number> getMetrics() {
+      return _runner.getMetrics();
+   }
+
+   /**
+    * @return the system property or environment variable with the given name, or null if neither is set.
+    */
+   static private String getProperty( final String name ) {
+      String value = System.getProperty( name );
+      if ( value == null ) {
+         value = System.getenv( name );
       }
-      synchronized ( REST_PIPER_FILE_PATH ) {
-         final JCas jcas = _pool.getJCas( -1 );
-         if ( jcas == null ) {
-            throw new AnalysisEngineProcessException( new Throwable( "Could not acquire JCas from pool." ) );
-         }
-         try {
-            jcas.reset();
-            jcas.setDocumentText( text );
-            _engine.process( jcas );
-            final String resultText = formatter.getResultText( jcas );
-            _pool.releaseJCas( jcas );
-            return resultText;
-         } catch ( CASRuntimeException | AnalysisEngineProcessException multE ) {
-            LOGGER.error( "Error processing text." );
-            throw new AnalysisEngineProcessException( multE );
-         }
+      if ( value == null || value.trim().isEmpty() ) {
+         return null;
       }
+      return value.trim();
    }
 
+   static private int getIntProperty( final String name, final int defaultValue ) {
+      final String value = getProperty( name );
+      if ( value == null ) {
+         return defaultValue;
+      }
+      try {
+         return Integer.parseInt( value );
+      } catch ( NumberFormatException nfE ) {
+         LoggerFactory.getLogger( "RestPipelineRunner" )
+                      .warn( "Invalid value {} for {}, using {}", value, name, defaultValue );
+         return defaultValue;
+      }
+   }
 
 }
@@ -19,6 +19,7 @@ package org.apache.ctakes.rest.service;
  * under the License.
  */
 
+import com.google.gson.Gson;
 import org.apache.ctakes.rest.service.response.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,5 +78,11 @@ public class TinyController {
       };
    }
 
+   @RequestMapping( value = "/metrics", method = RequestMethod.GET )
+   @ResponseBody
+   public String getMetrics() {
+      return new Gson().toJson( RestPipelineRunner.getInstance().getMetrics() );
+   }
+
 
 }
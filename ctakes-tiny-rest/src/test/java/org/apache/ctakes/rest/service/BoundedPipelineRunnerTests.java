@@ -0,0 +1,117 @@
+package org.apache.ctakes.rest.service;
+
+import org.apache.ctakes.core.pipeline.PipelineBuilder;
+import org.apache.ctakes.core.pipeline.PipelineEngine;
+import org.apache.ctakes.rest.service.response.ResponseFormatter;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class BoundedPipelineRunnerTests {
+
+   static private final ResponseFormatter TEXT_FORMATTER = new ResponseFormatter() {
+      @Override
+      public String getResultText( final JCas jCas ) {
+         return jCas.getDocumentText();
+      }
+   };
+
+   /**
+    * Waits until released before processing, and fails for the text "fail".
+    */
+   static public final class BlockingAnnotator extends JCasAnnotator_ImplBase {
+      static private volatile CountDownLatch _release = new CountDownLatch( 0 );
+
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         try {
+            _release.await();
+         } catch ( InterruptedException intE ) {
+            throw new AnalysisEngineProcessException( intE );
+         }
+         if ( jCas.getDocumentText().equals( "fail" ) ) {
+            throw new AnalysisEngineProcessException( new IllegalStateException( "failed" ) );
+         }
+      }
+   }
+
+   @Test
+   public void testConcurrentRequests() throws Exception {
+      final int queueSize = 2;
+      BlockingAnnotator._release = new CountDownLatch( 1 );
+      final ExecutorService executor = Executors.newCachedThreadPool();
+      try ( PipelineEngine engine = new PipelineBuilder().add( BlockingAnnotator.class ).createEngine() ) {
+         final BoundedPipelineRunner runner = new BoundedPipelineRunner( engine, queueSize );
+         final int admitted = engine.getSize() + queueSize;
+         final List<Future<String>> futures = new ArrayList<>();
+         for ( int i = 0; i < admitted; i++ ) {
+            final String text = "Note " + i;
+            futures.add( executor.submit( () -> runner.process( TEXT_FORMATTER, text ) ) );
+         }
+         waitForInFlight( runner, admitted );
+         assertEquals( queueSize, runner.getQueueDepth() );
+         try {
+            runner.process( TEXT_FORMATTER, "Rejected note" );
+            fail( "Admitted a request while the pipelines and queue were full" );
+         } catch ( PipelineSaturatedException psE ) {
+            // expected
+         }
+         BlockingAnnotator._release.countDown();
+         for ( int i = 0; i < admitted; i++ ) {
+            assertEquals( "Note " + i, futures.get( i ).get( 30, TimeUnit.SECONDS ) );
+         }
+         final Map<String, Number> metrics = runner.getMetrics();
+         assertEquals( 0, metrics.get( "inFlight" ) );
+         assertEquals( (long)admitted, metrics.get( "processed" ) );
+         assertEquals( 1L, metrics.get( "rejected" ) );
+         // Once the requests are complete new requests are admitted.
+         assertEquals( "Another note", runner.process( TEXT_FORMATTER, "Another note" ) );
+      } finally {
+         BlockingAnnotator._release.countDown();
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testFailuresAreNotProcessed() throws Exception {
+      BlockingAnnotator._release = new CountDownLatch( 0 );
+      try ( PipelineEngine engine = new PipelineBuilder().add( BlockingAnnotator.class ).createEngine() ) {
+         final BoundedPipelineRunner runner = new BoundedPipelineRunner( engine, 1 );
+         assertEquals( "Good note", runner.process( TEXT_FORMATTER, "Good note" ) );
+         try {
+            runner.process( TEXT_FORMATTER, "fail" );
+            fail( "Processing did not fail" );
+         } catch ( AnalysisEngineProcessException aeE ) {
+            // expected
+         }
+         assertEquals( "", runner.process( TEXT_FORMATTER, " " ) );
+         final Map<String, Number> metrics = runner.getMetrics();
+         assertEquals( 1L, metrics.get( "processed" ) );
+         assertEquals( 1L, metrics.get( "failed" ) );
+         assertEquals( 0, metrics.get( "inFlight" ) );
+      }
+   }
+
+   static private void waitForInFlight( final BoundedPipelineRunner runner, final int count )
+         throws InterruptedException {
+      final long end = System.currentTimeMillis() + 30000;
+      while ( runner.getInFlight() < count ) {
+         assertTrue( "Requests were not admitted", System.currentTimeMillis() < end );
+         Thread.sleep( 10 );
+      }
+   }
+
+}
@@ -0,0 +1,535 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Word vectors stored as unit length float32 vectors with a separate norm for each word.
+ * Vectors are held in one flat array, or memory mapped from a binary vector file so that they stay off the heap.
+ * <p>
+ * Binary vector file layout, little endian:
+ * magic, version, word count, dimensionality (4 ints),
+ * the norm of each vector (count floats),
+ * the unit vectors (count * dimensionality floats),
+ * then each word as an unsigned short byte length followed by its utf-8 bytes.
+ * </p>
+ */
+public final class FloatVectorStore {
+
+  static public final int MAGIC = 0x43545756;  // "CTWV"
+  static private final int VERSION = 1;
+  static private final int HEADER_BYTES = 16;
+  static private final int IO_BUFFER_BYTES = 1 << 20;
+
+  private final int dimensionality;
+  private final Map<String,Integer> wordIndex;
+  private String[] words;
+  private float[] norms;
+  private int count;
+  // heap vectors, null when mapped
+  private float[] heapVectors;
+  // mapped vectors, null when on the heap
+  private final FloatBuffer[] segments;
+  private final int vectorsPerSegment;
+
+  /**
+   * Create an empty store on the heap that can be filled with {@link #add(String, double[])}.
+   * @param dimensionality number of values in each vector
+   */
+  public FloatVectorStore(int dimensionality){
+    this(dimensionality, 1024);
+  }
+
+  private FloatVectorStore(int dimensionality, int capacity){
+    this.dimensionality = dimensionality;
+    this.wordIndex = new HashMap<>(capacity * 2);
+    this.words = new String[capacity];
+    this.norms = new float[capacity];
+    this.heapVectors = new float[capacity * dimensionality];
+    this.segments = null;
+    this.vectorsPerSegment = 0;
+  }
+
+  private FloatVectorStore(int dimensionality, String[] words, float[] norms, FloatBuffer[] segments,
+                           int vectorsPerSegment){
+    this.dimensionality = dimensionality;
+    this.count = words.length;
+    this.words = words;
+    this.norms = norms;
+    this.wordIndex = createIndex(words);
+    this.heapVectors = null;
+    this.segments = segments;
+    this.vectorsPerSegment = vectorsPerSegment;
+  }
+
+  public int getDimensionality(){
+    return dimensionality;
+  }
+
+  public int size(){
+    return count;
+  }
+
+  public boolean isMapped(){
+    return segments != null;
+  }
+
+  /**
+   * @param word -
+   * @return index of the word's vector, or -1 if the word has no vector
+   */
+  public int indexOf(String word){
+    Integer index = wordIndex.get(word);
+    return index == null ? -1 : index;
+  }
+
+  public String getWord(int index){
+    return words[index];
+  }
+
+  /**
+   * @param index -
+   * @return length of the vector before it was normalized
+   */
+  public float getNorm(int index){
+    return norms[index];
+  }
+
+  /**
+   * Add a vector to a heap store.  A vector already stored for the word is replaced.
+   * @param word -
+   * @param vector raw (not normalized) vector values
+   */
+  public void add(String word, double[] vector){
+    if(isMapped()){
+      throw new UnsupportedOperationException("Cannot add vectors to a memory mapped store");
+    }
+    if(vector.length != dimensionality){
+      throw new IllegalArgumentException("Vector for " + word + " has " + vector.length + " values, expected " + dimensionality);
+    }
+    Integer existing = wordIndex.get(word);
+    int index = existing == null ? count : existing;
+    if(existing == null){
+      ensureCapacity(count + 1);
+      words[index] = word;
+      wordIndex.put(word, index);
+      count++;
+    }
+    double sumSquares = 0;
+    for(double value : vector){
+      sumSquares += value * value;
+    }
+    double norm = Math.sqrt(sumSquares);
+    double scale = norm == 0 ? 0 : 1 / norm;
+    int offset = index * dimensionality;
+    for(int i = 0; i < dimensionality; i++){
+      heapVectors[offset + i] = (float)(vector[i] * scale);
+    }
+    norms[index] = (float)norm;
+  }
+
+  /**
+   * @param index -
+   * @param unitVector array filled with the unit length vector
+   */
+  public void getUnitVector(int index, float[] unitVector){
+    if(heapVectors != null){
+      System.arraycopy(heapVectors, index * dimensionality, unitVector, 0, dimensionality);
+      return;
+    }
+    FloatBuffer segment = segments[index / vectorsPerSegment];
+    segment.get((index % vectorsPerSegment) * dimensionality, unitVector, 0, dimensionality);
+  }
+
+  /**
+   * @param index -
+   * @return the raw (not normalized) vector
+   */
+  public double[] getVector(int index){
+    float[] unitVector = new float[dimensionality];
+    getUnitVector(index, unitVector);
+    double norm = norms[index];
+    double[] vector = new double[dimensionality];
+    for(int i = 0; i < dimensionality; i++){
+      vector[i] = unitVector[i] * norm;
+    }
+    return vector;
+  }
+
+  /**
+   * @param query unit length query vector
+   * @param index -
+   * @return cosine similarity of the query and the vector at the index
+   */
+  public float dot(float[] query, int index){
+    if(heapVectors != null){
+      return dot(query, heapVectors, index * dimensionality, dimensionality);
+    }
+    FloatBuffer segment = segments[index / vectorsPerSegment];
+    int offset = (index % vectorsPerSegment) * dimensionality;
+    float sum0 = 0;
+    float sum1 = 0;
+    int i = 0;
+    for(; i + 1 < dimensionality; i += 2){
+      sum0 += query[i] * segment.get(offset + i);
+      sum1 += query[i + 1] * segment.get(offset + i + 1);
+    }
+    for(; i < dimensionality; i++){
+      sum0 += query[i] * segment.get(offset + i);
+    }
+    return sum0 + sum1;
+  }
+
+  /**
+   * Independent accumulators let the jit pipeline (and vectorize) the multiply-adds.
+   */
+  static float dot(float[] query, float[] vectors, int offset, int dimensionality){
+    float sum0 = 0;
+    float sum1 = 0;
+    float sum2 = 0;
+    float sum3 = 0;
+    int i = 0;
+    for(; i + 3 < dimensionality; i += 4){
+      sum0 += query[i] * vectors[offset + i];
+      sum1 += query[i + 1] * vectors[offset + i + 1];
+      sum2 += query[i + 2] * vectors[offset + i + 2];
+      sum3 += query[i + 3] * vectors[offset + i + 3];
+    }
+    for(; i < dimensionality; i++){
+      sum0 += query[i] * vectors[offset + i];
+    }
+    return (sum0 + sum1) + (sum2 + sum3);
+  }
+
+  /**
+   * Top k search by cosine similarity over every stored vector.
+   * @param query unit length query vector
+   * @param k maximum number of neighbours
+   * @param excludeIndex index to skip, usually that of the query word, or -1
+   * @return indices of the most similar vectors, most similar first
+   */
+  public int[] findNearest(float[] query, int k, int excludeIndex){
+    TopK topK = new TopK(k);
+    for(int index = 0; index < count; index++){
+      if(index != excludeIndex){
+        topK.offer(index, dot(query, index));
+      }
+    }
+    return topK.getSortedIndices();
+  }
+
+  /**
+   * Write the store in the binary vector format.
+   * @param file -
+   * @throws IOException -
+   */
+  public void write(File file) throws IOException {
+    try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+      ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(dimensionality);
+      writeFloats(channel, buffer, norms, count);
+      float[] unitVector = new float[dimensionality];
+      for(int index = 0; index < count; index++){
+        getUnitVector(index, unitVector);
+        writeFloats(channel, buffer, unitVector, dimensionality);
+      }
+      for(int index = 0; index < count; index++){
+        byte[] bytes = words[index].getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > 0xFFFF){
+          throw new IOException("Word is too long: " + words[index].substring(0, 100));
+        }
+        if(buffer.remaining() < bytes.length + 2){
+          flush(channel, buffer);
+        }
+        buffer.putShort((short)bytes.length).put(bytes);
+      }
+      flush(channel, buffer);
+    }
+  }
+
+  /**
+   * Memory map a binary vector file.  Only the words and norms are read onto the heap.
+   * @param file -
+   * @return store backed by the file
+   * @throws IOException -
+   */
+  static public FloatVectorStore map(File file) throws IOException {
+    try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      readFully(channel, header);
+      header.flip();
+      int[] countAndDims = readHeader(header);
+      int count = countAndDims[0];
+      int dimensionality = countAndDims[1];
+      float[] norms = new float[count];
+      ByteBuffer normBuffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 4L * count)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      normBuffer.asFloatBuffer().get(norms);
+      long vectorStart = HEADER_BYTES + 4L * count;
+      long vectorBytes = 4L * dimensionality;
+      int vectorsPerSegment = (int)Math.max(1, Math.min(count, Integer.MAX_VALUE / Math.max(1, vectorBytes)));
+      int segmentCount = count == 0 ? 0 : (count + vectorsPerSegment - 1) / vectorsPerSegment;
+      FloatBuffer[] segments = new FloatBuffer[segmentCount];
+      for(int s = 0; s < segmentCount; s++){
+        int vectors = Math.min(vectorsPerSegment, count - s * vectorsPerSegment);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+            vectorStart + s * vectorsPerSegment * vectorBytes, vectors * vectorBytes);
+        segments[s] = mapped.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+      }
+      long wordStart = vectorStart + count * vectorBytes;
+      ByteBuffer wordBuffer = channel.map(FileChannel.MapMode.READ_ONLY, wordStart, channel.size() - wordStart)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      String[] words = readWords(wordBuffer, count);
+      return new FloatVectorStore(dimensionality, words, norms, segments, vectorsPerSegment);
+    }
+  }
+
+  /**
+   * Read a binary vector stream, e.g. a classpath resource, onto the heap.
+   * @param in stream positioned at the start of the binary vectors.  It is not closed.
+   * @return store on the heap
+   * @throws IOException -
+   */
+  static public FloatVectorStore read(InputStream in) throws IOException {
+    ReadableByteChannel channel = Channels.newChannel(in);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.limit(HEADER_BYTES);
+    readFully(channel, buffer);
+    buffer.flip();
+    int[] countAndDims = readHeader(buffer);
+    FloatVectorStore store = new FloatVectorStore(countAndDims[1], Math.max(1, countAndDims[0]));
+    store.count = countAndDims[0];
+    buffer.clear();
+    buffer.flip();
+    buffer = readFloats(channel, buffer, store.norms, store.count);
+    buffer = readFloats(channel, buffer, store.heapVectors, store.count * store.dimensionality);
+    // the words are small enough to read in one piece
+    ByteArrayOutputStream wordBytes = new ByteArrayOutputStream();
+    wordBytes.write(toArray(buffer));
+    byte[] chunk = new byte[IO_BUFFER_BYTES];
+    int read;
+    while((read = in.read(chunk)) >= 0){
+      wordBytes.write(chunk, 0, read);
+    }
+    String[] words = readWords(ByteBuffer.wrap(wordBytes.toByteArray()).order(ByteOrder.LITTLE_ENDIAN), store.count);
+    System.arraycopy(words, 0, store.words, 0, words.length);
+    for(int index = 0; index < words.length; index++){
+      store.wordIndex.put(words[index], index);
+    }
+    return store;
+  }
+
+  /**
+   * @param in -
+   * @return true if the stream starts with the binary vector magic number.  The stream must support mark.
+   * @throws IOException -
+   */
+  static public boolean isBinary(InputStream in) throws IOException {
+    in.mark(4);
+    byte[] magic = new byte[4];
+    int read = 0;
+    while(read < 4){
+      int r = in.read(magic, read, 4 - read);
+      if(r < 0){
+        break;
+      }
+      read += r;
+    }
+    in.reset();
+    return read == 4 && ByteBuffer.wrap(magic).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+  }
+
+  private void ensureCapacity(int capacity){
+    if(capacity <= words.length){
+      return;
+    }
+    int newCapacity = Math.max(capacity, words.length + (words.length >> 1));
+    words = Arrays.copyOf(words, newCapacity);
+    norms = Arrays.copyOf(norms, newCapacity);
+    heapVectors = Arrays.copyOf(heapVectors, newCapacity * dimensionality);
+  }
+
+  static private Map<String,Integer> createIndex(String[] words){
+    Map<String,Integer> wordIndex = new HashMap<>(words.length * 2);
+    for(int index = 0; index < words.length; index++){
+      wordIndex.put(words[index], index);
+    }
+    return wordIndex;
+  }
+
+  static private int[] readHeader(ByteBuffer header) throws IOException {
+    if(header.getInt() != MAGIC){
+      throw new IOException("Not a binary word vector file");
+    }
+    int version = header.getInt();
+    if(version != VERSION){
+      throw new IOException("Unsupported binary word vector version " + version);
+    }
+    return new int[]{ header.getInt(), header.getInt() };
+  }
+
+  static private String[] readWords(ByteBuffer buffer, int count){
+    String[] words = new String[count];
+    byte[] bytes = new byte[256];
+    for(int index = 0; index < count; index++){
+      int length = buffer.getShort() & 0xFFFF;
+      if(length > bytes.length){
+        bytes = new byte[length];
+      }
+      buffer.get(bytes, 0, length);
+      words[index] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+    return words;
+  }
+
+  static private void writeFloats(WritableByteChannel channel, ByteBuffer buffer, float[] values, int length)
+      throws IOException {
+    int written = 0;
+    while(written < length){
+      if(buffer.remaining() < 4){
+        flush(channel, buffer);
+      }
+      int n = Math.min(length - written, buffer.remaining() / 4);
+      buffer.asFloatBuffer().put(values, written, n);
+      buffer.position(buffer.position() + n * 4);
+      written += n;
+    }
+  }
+
+  /**
+   * @param buffer buffer in read mode holding any bytes already read from the channel
+   * @return the buffer in read mode holding any bytes read beyond the floats
+   */
+  static private ByteBuffer readFloats(ReadableByteChannel channel, ByteBuffer buffer, float[] values, int length)
+      throws IOException {
+    int read = 0;
+    while(read < length){
+      if(buffer.remaining() < 4){
+        buffer.compact();
+        if(channel.read(buffer) < 0){
+          throw new EOFException("Binary word vectors are truncated");
+        }
+        buffer.flip();
+        continue;
+      }
+      int n = Math.min(length - read, buffer.remaining() / 4);
+      buffer.asFloatBuffer().get(values, read, n);
+      buffer.position(buffer.position() + n * 4);
+      read += n;
+    }
+    return buffer;
+  }
+
+  static private void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+    while(buffer.hasRemaining()){
+      if(channel.read(buffer) < 0){
+        throw new EOFException("Binary word vectors are truncated");
+      }
+    }
+  }
+
+  static private void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while(buffer.hasRemaining()){
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  static private byte[] toArray(ByteBuffer buffer){
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Bounded min-heap of the best scoring indices.
+   */
+  static final class TopK {
+    private final int[] indices;
+    private final float[] scores;
+    private int size;
+
+    TopK(int k){
+      indices = new int[Math.max(0, k)];
+      scores = new float[Math.max(0, k)];
+    }
+
+    void offer(int index, float score){
+      if(size < indices.length){
+        indices[size] = index;
+        scores[size] = score;
+        siftUp(size++);
+      }else if(size > 0 && score > scores[0]){
+        indices[0] = index;
+        scores[0] = score;
+        siftDown(0);
+      }
+    }
+
+    int[] getSortedIndices(){
+      Integer[] order = new Integer[size];
+      for(int i = 0; i < size; i++){
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Float.compare(scores[b], scores[a])
+                                                          : Integer.compare(indices[a], indices[b]));
+      int[] sorted = new int[size];
+      for(int i = 0; i < size; i++){
+        sorted[i] = indices[order[i]];
+      }
+      return sorted;
+    }
+
+    private void siftUp(int i){
+      while(i > 0){
+        int parent = (i - 1) / 2;
+        if(!less(i, parent)){
+          return;
+        }
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i){
+      while(true){
+        int left = 2 * i + 1;
+        if(left >= size){
+          return;
+        }
+        int smallest = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+        if(!less(smallest, i)){
+          return;
+        }
+        swap(i, smallest);
+        i = smallest;
+      }
+    }
+
+    // lower score first, and for equal scores the later index is dropped first
+    private boolean less(int a, int b){
+      return scores[a] < scores[b] || (scores[a] == scores[b] && indices[a] > indices[b]);
+    }
+
+    private void swap(int a, int b){
+      int index = indices[a];
+      indices[a] = indices[b];
+      indices[b] = index;
+      float score = scores[a];
+      scores[a] = scores[b];
+      scores[b] = score;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Approximate nearest neighbour index for a {@link FloatVectorStore}.
+ * Each vector is hashed by the signs of its projections onto random hyperplanes,
+ * so vectors with a small angle between them tend to share a bucket.
+ * Several independent hash tables are kept.
+ * A search reads the query's bucket in each table, then the buckets one or two bits away,
+ * and ranks those candidates by exact cosine similarity.
+ */
+public final class RandomProjectionIndex {
+
+  static private final int MAX_PROBE_DISTANCE = 2;
+  // Buckets are probed until there are this many candidates for each wanted neighbour
+  static private final int CANDIDATES_PER_NEIGHBOR = 32;
+
+  private final FloatVectorStore store;
+  private final int bits;
+  // for each table, bits * dimensionality hyperplane normals
+  private final float[][] hyperplanes;
+  // in table t, bucket b holds bucketRows[t][bucketStarts[t][b]] to bucketRows[t][bucketStarts[t][b+1]-1]
+  private final int[][] bucketStarts;
+  private final int[][] bucketRows;
+
+  /**
+   * @param store vectors to index
+   * @param bits number of hyperplanes per table, 1 to 24.
+   *             More bits give smaller buckets and faster, less exact, searches.
+   * @param tables number of hash tables.  More tables give more exact, slower, searches.
+   * @param seed random seed for the hyperplanes
+   */
+  public RandomProjectionIndex(FloatVectorStore store, int bits, int tables, long seed){
+    if(bits < 1 || bits > 24){
+      throw new IllegalArgumentException("Hash bits must be between 1 and 24, not " + bits);
+    }
+    if(tables < 1){
+      throw new IllegalArgumentException("There must be at least one hash table");
+    }
+    this.store = store;
+    this.bits = bits;
+    int dimensionality = store.getDimensionality();
+    Random random = new Random(seed);
+    hyperplanes = new float[tables][bits * dimensionality];
+    for(float[] tablePlanes : hyperplanes){
+      for(int i = 0; i < tablePlanes.length; i++){
+        tablePlanes[i] = (float)random.nextGaussian();
+      }
+    }
+    int count = store.size();
+    int[][] signatures = new int[tables][count];
+    bucketStarts = new int[tables][(1 << bits) + 1];
+    float[] unitVector = new float[dimensionality];
+    for(int index = 0; index < count; index++){
+      store.getUnitVector(index, unitVector);
+      for(int t = 0; t < tables; t++){
+        signatures[t][index] = getSignature(t, unitVector);
+        bucketStarts[t][signatures[t][index] + 1]++;
+      }
+    }
+    bucketRows = new int[tables][count];
+    for(int t = 0; t < tables; t++){
+      int[] starts = bucketStarts[t];
+      for(int b = 1; b < starts.length; b++){
+        starts[b] += starts[b - 1];
+      }
+      int[] fill = Arrays.copyOf(starts, starts.length - 1);
+      for(int index = 0; index < count; index++){
+        bucketRows[t][fill[signatures[t][index]]++] = index;
+      }
+    }
+  }
+
+  /**
+   * @param query unit length query vector
+   * @param k maximum number of neighbours
+   * @param excludeIndex index to skip, usually that of the query word, or -1
+   * @return indices of similar vectors, most similar first.
+   * If the probed buckets hold fewer than k candidates every vector is searched.
+   */
+  public int[] findNearest(float[] query, int k, int excludeIndex){
+    int tables = hyperplanes.length;
+    int[] signatures = new int[tables];
+    for(int t = 0; t < tables; t++){
+      signatures[t] = getSignature(t, query);
+    }
+    // a vector may share buckets in several tables, but should only be offered once
+    BitSet offered = new BitSet(store.size());
+    if(excludeIndex >= 0){
+      offered.set(excludeIndex);
+    }
+    FloatVectorStore.TopK topK = new FloatVectorStore.TopK(k);
+    int wanted = k * CANDIDATES_PER_NEIGHBOR;
+    int candidates = 0;
+    for(int t = 0; t < tables; t++){
+      candidates += offerBucket(topK, t, signatures[t], query, offered);
+    }
+    for(int distance = 1; distance <= MAX_PROBE_DISTANCE && candidates < wanted; distance++){
+      for(int t = 0; t < tables; t++){
+        candidates += offerNeighbors(topK, t, signatures[t], query, offered, distance, 0);
+      }
+    }
+    if(candidates < k){
+      return store.findNearest(query, k, excludeIndex);
+    }
+    return topK.getSortedIndices();
+  }
+
+  /**
+   * Offer the buckets whose signatures differ from the signature at exactly distance bits, starting at a bit.
+   */
+  private int offerNeighbors(FloatVectorStore.TopK topK, int table, int signature, float[] query, BitSet offered,
+                             int distance, int startBit){
+    int candidates = 0;
+    for(int bit = startBit; bit < bits; bit++){
+      int flipped = signature ^ (1 << bit);
+      if(distance == 1){
+        candidates += offerBucket(topK, table, flipped, query, offered);
+      }else{
+        candidates += offerNeighbors(topK, table, flipped, query, offered, distance - 1, bit + 1);
+      }
+    }
+    return candidates;
+  }
+
+  private int offerBucket(FloatVectorStore.TopK topK, int table, int bucket, float[] query, BitSet offered){
+    int[] starts = bucketStarts[table];
+    int[] rows = bucketRows[table];
+    int candidates = 0;
+    for(int i = starts[bucket]; i < starts[bucket + 1]; i++){
+      int index = rows[i];
+      if(!offered.get(index)){
+        offered.set(index);
+        topK.offer(index, store.dot(query, index));
+        candidates++;
+      }
+    }
+    return candidates;
+  }
+
+  private int getSignature(int table, float[] vector){
+    int signature = 0;
+    int dimensionality = vector.length;
+    for(int bit = 0; bit < bits; bit++){
+      if(FloatVectorStore.dot(vector, hyperplanes[table], bit * dimensionality, dimensionality) >= 0){
+        signature |= 1 << bit;
+      }
+    }
+    return signature;
+  }
+}
@@ -4,61 +4,95 @@ import java.util.*;
 
 public class WordEmbeddings {
 
-  private Map<String,WordVector> vectors = null;
+  private final FloatVectorStore store;
   private int dimensionality = 0;
   private WordVector meanVector = null;
-  private WordVector rawMeanVector = null;
-  
+  private RandomProjectionIndex approximateIndex = null;
+
   public WordEmbeddings(int dim){
-    this.vectors = new HashMap<>();
-    this.dimensionality = dim;
-    this.meanVector = new WordVector("_mean_", new double[this.dimensionality]);
-    this.rawMeanVector = new WordVector("_mean_raw", new double[this.dimensionality]);
+    this(new FloatVectorStore(dim));
   }
-  
+
   public WordEmbeddings(Map<String,WordVector> vectors){
-    this.vectors = vectors;
+    this(new FloatVectorStore(getDimensionality(vectors)));
+    for(Map.Entry<String,WordVector> entry : vectors.entrySet()){
+      store.add(entry.getKey(), entry.getValue().vector);
+    }
+  }
+
+  private static int getDimensionality(Map<String,WordVector> vectors){
+    if(vectors.isEmpty()){
+      throw new IllegalArgumentException("Cannot determine the dimensionality of embeddings without vectors");
+    }
+    return vectors.values().iterator().next().size();
+  }
+
+  public WordEmbeddings(FloatVectorStore store){
+    this.store = store;
+    this.dimensionality = store.getDimensionality();
+  }
+
+  public FloatVectorStore getStore(){
+    return store;
   }
 
   public double getSimilarity(String word1, String word2){
-    WordVector vec1 = getVector(word1);
-    WordVector vec2 = getVector(word2);
-    
-    assert vec1.size() == vec2.size();
+    int index1 = store.indexOf(word1);
+    int index2 = store.indexOf(word2);
+    if(index1 < 0 || index2 < 0){
+      throw new NullPointerException("No vector for " + (index1 < 0 ? word1 : word2));
+    }
+    float[] vec1 = new float[dimensionality];
+    float[] vec2 = new float[dimensionality];
+    store.getUnitVector(index1, vec1);
+    store.getUnitVector(index2, vec2);
     double sim = 0.0;
-    for(int i = 0; i < vec1.size(); i++){
-      sim += (vec1.getValue(i) * vec2.getValue(i));
+    for(int i = 0; i < dimensionality; i++){
+      sim += (vec1[i] * (double)vec2[i]);
     }
-    
-    sim = sim / (vec1.getLength()*vec2.getLength());
     return sim;
   }
 
+  /**
+   * @param line a word followed by the values of its vector, separated by spaces
+   * @throws IllegalArgumentException if the line does not have one value for each dimension
+   */
   public void add(String line){
     int wordBreak = line.indexOf(' ');
-    String word = line.substring(0, wordBreak);
-    String[] dims = line.substring(wordBreak+1).split(" ");
-    
-    if(this.meanVector == null){
-      this.meanVector = new WordVector("_mean_", new double[dims.length]);
-      this.rawMeanVector = new WordVector("_mean_raw", new double[dims.length]);
+    String word = wordBreak < 0 ? line : line.substring(0, wordBreak);
+    double[] vector = new double[dimensionality];
+    int dim = 0;
+    int start = wordBreak < 0 ? line.length() : wordBreak + 1;
+    // parse in place instead of splitting each line into strings
+    while(start < line.length()){
+      int end = line.indexOf(' ', start);
+      if(end < 0){
+        end = line.length();
+      }
+      if(end > start){
+        if(dim < dimensionality){
+          vector[dim] = Double.parseDouble(line.substring(start, end));
+        }
+        dim++;
+      }
+      start = end + 1;
     }
-    
-    double[] vector = new double[dims.length];
-    for(int i = 0; i < dims.length; i++){
-      vector[i] = Double.valueOf(dims[i]);
-      meanVector.vector[i] += vector[i];
+    if(dim != dimensionality){
+      throw new IllegalArgumentException("Vector for " + word + " has " + dim + " values, expected " + dimensionality);
     }
-    vectors.put(word, new WordVector(word, vector));
+    store.add(word, vector);
+    meanVector = null;
+    approximateIndex = null;
   }
-  
+
   public boolean containsKey(String word){
-    return vectors.containsKey(word);
+    return store.indexOf(word) >= 0;
   }
-  
+
   public WordVector getVector(String word){
-    if(vectors != null){
-      return vectors.get(word);
+    int index = store.indexOf(word);
+    if(index >= 0){
+      return new WordVector(word, store.getVector(index));
     }
     return null;
   }
@@ -66,52 +100,47 @@ public class WordEmbeddings {
   public int getDimensionality(){
     return this.dimensionality;
   }
-  
+
+  /**
+   * Build an approximate index used by {@link #getSimilarWords(String, int)} in place of a search over every word.
+   * @param hashBits number of random hyperplanes per hash table, e.g. 12 for a vocabulary of a few hundred thousand words.
+   * @param hashTables number of hash tables, e.g. 4.
+   */
+  public void buildApproximateIndex(int hashBits, int hashTables){
+    approximateIndex = new RandomProjectionIndex(store, hashBits, hashTables, 1L);
+  }
+
   public List<String> getSimilarWords(String word, int maxWords) {
-    double[] sims = new double[maxWords];
-    List<String> words = new ArrayList<>(20);
-    Arrays.fill(sims, -1);
-    for(String comp : vectors.keySet()){
-      double sim = getSimilarity(word, comp);
-      if(word.equals(comp)){
-        continue;
-      }else if(words.size() == 0){
-        words.add(comp);
-        sims[0] = sim;
-        continue;
-      }else if(sim < sims[maxWords-1]){
-        // most words won't be greater than the minimum similarity -- quit right away
-        continue;
-      }
-      for(int i = Math.min(maxWords-1, words.size()); i >= 0; i--){
-        // compare the similarity.
-        // if we're here we know that sim > sims[i], just seeing if we can keep going backwards
-        if(i > 0 && sim > sims[i-1]){
-          // shift over the score and the word
-          sims[i] = sims[i-1];
-          if(words.size() <= i){
-            words.add(words.get(i-1));
-          }else{
-            words.set(i, words.get(i-1));
-          }
-        }else{
-          // found our position for our new word:
-          sims[i] = sim;
-          if(words.size() <= i){
-            words.add(comp);
-          }else{
-            words.set(i, comp);
-          }
-          break;
-        }
-      }
+    int index = store.indexOf(word);
+    if(index < 0){
+      return new ArrayList<>();
+    }
+    float[] query = new float[dimensionality];
+    store.getUnitVector(index, query);
+    RandomProjectionIndex approximate = approximateIndex;
+    int[] nearest = approximate != null ? approximate.findNearest(query, maxWords, index)
+                                        : store.findNearest(query, maxWords, index);
+    List<String> words = new ArrayList<>(nearest.length);
+    for(int near : nearest){
+      words.add(store.getWord(near));
     }
     return words;
   }
-  
+
+  /**
+   * @return the vector used for out of vocabulary words.
+   * Note that this has always been the sum of all vectors, which existing models were trained with.
+   */
   public WordVector getMeanVector(){
-    for(int i = 0; i < this.rawMeanVector.getLength(); i++){
-      this.meanVector.vector[i] = this.rawMeanVector.vector[i] / vectors.size();
+    if(meanVector == null){
+      double[] sum = new double[dimensionality];
+      for(int index = 0; index < store.size(); index++){
+        double[] vector = store.getVector(index);
+        for(int i = 0; i < dimensionality; i++){
+          sum[i] += vector[i];
+        }
+      }
+      meanVector = new WordVector("_mean_", sum);
     }
     return this.meanVector;
   }
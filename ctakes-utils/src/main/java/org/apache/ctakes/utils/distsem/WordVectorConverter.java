@@ -0,0 +1,25 @@
+package org.apache.ctakes.utils.distsem;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts a word2vec text vector file to the binary format read by {@link WordVectorReader}.
+ * Binary files load in a fraction of the time and can be memory mapped.
+ */
+public class WordVectorConverter {
+
+  public static void main(String[] args) throws IOException{
+    if(args.length != 2){
+      System.err.println("Usage: WordVectorConverter <text vector file> <binary vector file>");
+      System.exit(1);
+    }
+    long start = System.currentTimeMillis();
+    System.out.println("Reading embeddings from " + args[0] + " ...");
+    WordEmbeddings words = WordVectorReader.getEmbeddings(args[0]);
+    FloatVectorStore store = words.getStore();
+    System.out.println("Writing " + store.size() + " vectors of " + store.getDimensionality() + " values to " + args[1] + " ...");
+    store.write(new File(args[1]));
+    System.out.println("Finished in " + (System.currentTimeMillis() - start) / 1000 + " seconds.");
+  }
+}
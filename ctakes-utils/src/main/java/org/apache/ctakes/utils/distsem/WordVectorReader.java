@@ -1,15 +1,28 @@
 package org.apache.ctakes.utils.distsem;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
+/**
+ * Reads word vectors in the word2vec text format, or in the binary format written by {@link WordVectorConverter}.
+ */
 public class WordVectorReader {
   private WordEmbeddings embeddings = null;
   private int dimensionality = 0;
   private int numWords = 0;
   
   public WordVectorReader(InputStream in) throws IOException{
-    BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+    BufferedInputStream bufferedIn = new BufferedInputStream(in, 1 << 16);
+    if(FloatVectorStore.isBinary(bufferedIn)){
+      FloatVectorStore store = FloatVectorStore.read(bufferedIn);
+      bufferedIn.close();
+      numWords = store.size();
+      dimensionality = store.getDimensionality();
+      embeddings = new WordEmbeddings(store);
+      return;
+    }
+    BufferedReader reader = new BufferedReader(new InputStreamReader(bufferedIn, StandardCharsets.UTF_8), 1 << 16);
     String line = reader.readLine();
     Scanner scanner = new Scanner(line);
     numWords = scanner.nextInt();
@@ -18,7 +31,10 @@ public class WordVectorReader {
     embeddings = new WordEmbeddings(dimensionality);
     
     while((line = reader.readLine()) != null){
-      embeddings.add(line.trim());
+      line = line.trim();
+      if(!line.isEmpty()){
+        embeddings.add(line);
+      }
     }
     reader.close();
   }
@@ -27,8 +43,21 @@ public class WordVectorReader {
     return this.embeddings;
   }
   
+  /**
+   * @param fn path to a text or binary vector file.  Binary vector files are memory mapped.
+   * @return embeddings for the file
+   * @throws IOException -
+   */
   public static WordEmbeddings getEmbeddings(String fn) throws IOException{
-    WordVectorReader reader = new WordVectorReader(new FileInputStream(fn));
+    File file = new File(fn);
+    boolean binary;
+    try(InputStream in = new BufferedInputStream(new FileInputStream(file), 16)){
+      binary = FloatVectorStore.isBinary(in);
+    }
+    if(binary){
+      return new WordEmbeddings(FloatVectorStore.map(file));
+    }
+    WordVectorReader reader = new WordVectorReader(new FileInputStream(file));
     return reader.getEmbeddings();
   }
   
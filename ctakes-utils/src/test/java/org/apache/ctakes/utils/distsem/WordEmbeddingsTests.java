@@ -0,0 +1,182 @@
+package org.apache.ctakes.utils.distsem;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author SPF , chip-nlp
+ * @version %I%
+ * @since 10/18/2026
+ */
+public class WordEmbeddingsTests {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private final int DIMENSIONALITY = 24;
+
+   @Test
+   public void testBinaryRoundTrip() throws Exception {
+      final File textFile = writeTextVectors( createVectors( new Random( 1 ), 300 ) );
+      final File binaryFile = new File( _folder.getRoot(), "vectors.bin" );
+      WordVectorConverter.main( new String[]{ textFile.getPath(), binaryFile.getPath() } );
+      final WordEmbeddings text = WordVectorReader.getEmbeddings( textFile.getPath() );
+      final WordEmbeddings mapped = WordVectorReader.getEmbeddings( binaryFile.getPath() );
+      final WordEmbeddings streamed;
+      try ( InputStream in = new FileInputStream( binaryFile ) ) {
+         streamed = WordVectorReader.getEmbeddings( in );
+      }
+      assertFalse( text.getStore().isMapped() );
+      assertTrue( mapped.getStore().isMapped() );
+      assertFalse( streamed.getStore().isMapped() );
+      for ( WordEmbeddings binary : Arrays.asList( mapped, streamed ) ) {
+         final FloatVectorStore store = binary.getStore();
+         assertEquals( text.getStore().size(), store.size() );
+         assertEquals( DIMENSIONALITY, binary.getDimensionality() );
+         for ( int i = 0; i < store.size(); i++ ) {
+            final String word = text.getStore().getWord( i );
+            assertEquals( word, store.getWord( i ) );
+            assertArrayEquals( word, text.getVector( word ).vector, binary.getVector( word ).vector, 1e-6 );
+            assertEquals( text.getSimilarWords( word, 5 ), binary.getSimilarWords( word, 5 ) );
+         }
+      }
+   }
+
+   @Test
+   public void testFindNearestMatchesSortedSimilarities() {
+      final Map<String, WordVector> vectors = createVectors( new Random( 2 ), 500 );
+      final WordEmbeddings embeddings = new WordEmbeddings( vectors );
+      for ( String word : Arrays.asList( "word0", "word17", "word250", "word499" ) ) {
+         final List<String> others = new ArrayList<>( vectors.keySet() );
+         others.remove( word );
+         others.sort( Comparator.comparingDouble( other -> -cosine( vectors.get( word ), vectors.get( other ) ) ) );
+         assertEquals( word, others.subList( 0, 10 ), embeddings.getSimilarWords( word, 10 ) );
+         assertEquals( cosine( vectors.get( word ), vectors.get( others.get( 0 ) ) ),
+               embeddings.getSimilarity( word, others.get( 0 ) ), 1e-5 );
+      }
+   }
+
+   @Test
+   public void testTopK() {
+      final FloatVectorStore.TopK topK = new FloatVectorStore.TopK( 3 );
+      final float[] scores = { 0.1f, 0.9f, -0.5f, 0.7f, 0.3f, 0.8f };
+      for ( int i = 0; i < scores.length; i++ ) {
+         topK.offer( i, scores[ i ] );
+      }
+      assertArrayEquals( new int[]{ 1, 5, 3 }, topK.getSortedIndices() );
+      final FloatVectorStore.TopK fewer = new FloatVectorStore.TopK( 10 );
+      fewer.offer( 4, 0.2f );
+      fewer.offer( 2, 0.6f );
+      assertArrayEquals( new int[]{ 2, 4 }, fewer.getSortedIndices() );
+   }
+
+   @Test
+   public void testApproximateIndexRecall() {
+      // Words in clusters around random centers, so that each word has a clear set of near neighbours.
+      final Random random = new Random( 3 );
+      final Map<String, WordVector> vectors = new HashMap<>();
+      for ( int c = 0; c < 100; c++ ) {
+         final double[] center = randomVector( random );
+         for ( int w = 0; w < 20; w++ ) {
+            final double[] vector = new double[ DIMENSIONALITY ];
+            for ( int i = 0; i < DIMENSIONALITY; i++ ) {
+               vector[ i ] = center[ i ] + 0.2 * random.nextGaussian();
+            }
+            final String word = "word" + c + "_" + w;
+            vectors.put( word, new WordVector( word, vector ) );
+         }
+      }
+      final WordEmbeddings exact = new WordEmbeddings( vectors );
+      final WordEmbeddings approximate = new WordEmbeddings( vectors );
+      approximate.buildApproximateIndex( 8, 4 );
+      int found = 0;
+      int wanted = 0;
+      for ( int c = 0; c < 100; c += 5 ) {
+         final String word = "word" + c + "_0";
+         final Set<String> nearest = new HashSet<>( exact.getSimilarWords( word, 10 ) );
+         final List<String> similar = approximate.getSimilarWords( word, 10 );
+         assertEquals( 10, similar.size() );
+         similar.retainAll( nearest );
+         found += similar.size();
+         wanted += nearest.size();
+      }
+      assertTrue( "Recall " + found + " of " + wanted, found >= 0.9 * wanted );
+   }
+
+   @Test( expected = IllegalArgumentException.class )
+   public void testRejectEmptyMap() {
+      new WordEmbeddings( Collections.emptyMap() );
+   }
+
+   @Test
+   public void testRejectWrongValueCount() throws Exception {
+      final WordEmbeddings embeddings = new WordEmbeddings( 3 );
+      embeddings.add( "good 1.0 2.0 3.0" );
+      for ( String line : Arrays.asList( "short 1.0 2.0", "long 1.0 2.0 3.0 4.0", "none" ) ) {
+         try {
+            embeddings.add( line );
+            fail( "Accepted " + line );
+         } catch ( IllegalArgumentException iaE ) {
+            assertFalse( embeddings.containsKey( line.split( " " )[ 0 ] ) );
+         }
+      }
+      final String file = "2 3\ngood 1.0 2.0 3.0\nshort 1.0 2.0\n";
+      try {
+         WordVectorReader.getEmbeddings( new ByteArrayInputStream( file.getBytes( StandardCharsets.UTF_8 ) ) );
+         fail( "Read a short vector" );
+      } catch ( IllegalArgumentException iaE ) {
+         // expected
+      }
+   }
+
+   static private double[] randomVector( final Random random ) {
+      final double[] vector = new double[ DIMENSIONALITY ];
+      for ( int i = 0; i < DIMENSIONALITY; i++ ) {
+         vector[ i ] = random.nextGaussian();
+      }
+      return vector;
+   }
+
+   static private Map<String, WordVector> createVectors( final Random random, final int count ) {
+      final Map<String, WordVector> vectors = new LinkedHashMap<>();
+      for ( int i = 0; i < count; i++ ) {
+         vectors.put( "word" + i, new WordVector( "word" + i, randomVector( random ) ) );
+      }
+      return vectors;
+   }
+
+   private File writeTextVectors( final Map<String, WordVector> vectors ) throws Exception {
+      final File file = _folder.newFile( "vectors.txt" );
+      try ( PrintWriter writer = new PrintWriter( file, "UTF-8" ) ) {
+         writer.println( vectors.size() + " " + DIMENSIONALITY );
+         for ( WordVector vector : vectors.values() ) {
+            final StringBuilder sb = new StringBuilder( vector.word );
+            for ( double value : vector.vector ) {
+               sb.append( ' ' ).append( value );
+            }
+            writer.println( sb );
+         }
+      }
+      return file;
+   }
+
+   static private double cosine( final WordVector vector1, final WordVector vector2 ) {
+      double dot = 0;
+      for ( int i = 0; i < vector1.size(); i++ ) {
+         dot += vector1.getValue( i ) * vector2.getValue( i );
+      }
+      return dot / (vector1.getLength() * vector2.getLength());
+   }
+
+}
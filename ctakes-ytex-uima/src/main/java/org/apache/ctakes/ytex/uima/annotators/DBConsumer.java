@@ -23,18 +23,22 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.ytex.uima.ApplicationContextHolder;
 import org.apache.ctakes.ytex.uima.mapper.DocumentMapperService;
+import org.apache.ctakes.ytex.uima.mapper.DocumentRecord;
+import org.apache.ctakes.ytex.uima.mapper.DocumentWriteBehind;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_component.JCasAnnotator_ImplBase;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.impl.XmiCasSerializer;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.util.XMLSerializer;
 import org.xml.sax.SAXException;
 
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -57,6 +61,14 @@ import java.util.Set;
  * <li>typesToIngore - multivalued String - uima types not to be saved.
  * <li>insertAnnotationContainmentLinks - boolean - should we store containment
  * links? defaults to true
+ * <li>writeBehind - boolean - save documents asynchronously on dedicated
+ * writer threads? documents are written in the background, and are flushed
+ * when the collection is complete. defaults to false
+ * <li>writeBehindQueueSize - integer - max number of documents waiting to be
+ * saved; process() blocks when the queue is full. defaults to 64
+ * <li>writeBehindThreads - integer - number of writer threads. defaults to 1
+ * <li>writeBehindBatchSize - integer - max number of documents saved in one
+ * transaction. defaults to 16
  * </ul>
  * 
  * @author vijay
@@ -77,6 +89,7 @@ public class DBConsumer extends JCasAnnotator_ImplBase {
 	private boolean bStoreCAS;
 	private boolean bInsertAnnotationContainmentLinks;
 	private Set<String> setTypesToIgnore = new HashSet<String>();
+	private DocumentWriteBehind writeBehind;
 
 	/**
 	 * read config parameters
@@ -106,43 +119,130 @@ public class DBConsumer extends JCasAnnotator_ImplBase {
 				: boolInsertAnnotationContainmentLinks.booleanValue();
 		documentMapperService = (DocumentMapperService) ApplicationContextHolder
 				.getApplicationContext().getBean("documentMapperService");
+		Boolean boolWriteBehind = (Boolean) aContext
+				.getConfigParameterValue("writeBehind");
+		if (boolWriteBehind != null && boolWriteBehind.booleanValue()) {
+			writeBehind = new DocumentWriteBehind(documentMapperService,
+					getIntParameter(aContext, "writeBehindQueueSize", 64),
+					getIntParameter(aContext, "writeBehindThreads", 1),
+					getIntParameter(aContext, "writeBehindBatchSize", 16));
+		}
+	}
+
+	private static int getIntParameter(UimaContext aContext, String name,
+			int defaultValue) {
+		Integer value = (Integer) aContext.getConfigParameterValue(name);
+		return value == null ? defaultValue : value.intValue();
 	}
 
 	/**
 	 * call the documentMapperService to save the document. if the
 	 * xmiOutputDirectory is defined, write the document to an xmi file. use the
-	 * name corresponding to the documentID.
+	 * name corresponding to the documentID. with writeBehind, the document is
+	 * mapped here and saved by the writer threads, and the xmi file is written
+	 * once the document id is known.
 	 */
 	@Override
-	public void process(JCas jcas) {
-		Integer documentID = documentMapperService.saveDocument(jcas,
-				analysisBatch, bStoreDocText, bStoreCAS, bInsertAnnotationContainmentLinks, setTypesToIgnore);
-		if (documentID != null && xmiOutputDirectory != null
-				&& xmiOutputDirectory.length() > 0) {
+	public void process(JCas jcas) throws AnalysisEngineProcessException {
+		boolean bWriteXmi = xmiOutputDirectory != null
+				&& xmiOutputDirectory.length() > 0;
+		if (bWriteXmi) {
 			File dirOut = new File(xmiOutputDirectory);
 			if (!dirOut.exists() && !dirOut.isDirectory()) {
 				log.error(xmiOutputDirectory + " does not exist");
-			} else {
-				BufferedWriter writer = null;
+				bWriteXmi = false;
+			}
+		}
+		if (writeBehind != null) {
+			DocumentRecord record = documentMapperService.mapDocument(jcas,
+					analysisBatch, bStoreDocText, bStoreCAS,
+					bInsertAnnotationContainmentLinks, setTypesToIgnore);
+			// the cas is reset before the document is saved
+			final byte[] xmi = bWriteXmi ? serializeXmi(jcas) : null;
+			try {
+				if (xmi != null)
+					writeBehind.submit(record).thenAccept(
+							documentID -> writeXmi(documentID, xmi));
+				else
+					writeBehind.submit(record);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AnalysisEngineProcessException(e);
+			} catch (IllegalStateException e) {
+				throw new AnalysisEngineProcessException(e);
+			}
+		} else {
+			Integer documentID = documentMapperService.saveDocument(jcas,
+					analysisBatch, bStoreDocText, bStoreCAS,
+					bInsertAnnotationContainmentLinks, setTypesToIgnore);
+			if (documentID != null && bWriteXmi) {
+				byte[] xmi = serializeXmi(jcas);
+				if (xmi != null)
+					writeXmi(documentID, xmi);
+			}
+		}
+	}
+
+	/**
+	 * wait for the writer threads to save all documents
+	 */
+	@Override
+	public void collectionProcessComplete()
+			throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		if (writeBehind != null) {
+			try {
+				writeBehind.flush();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AnalysisEngineProcessException(e);
+			} catch (IllegalStateException e) {
+				throw new AnalysisEngineProcessException(e);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (writeBehind != null) {
+			try {
+				writeBehind.close();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IllegalStateException e) {
+				log.error("error saving documents", e);
+			}
+			writeBehind = null;
+		}
+		super.destroy();
+	}
+
+	private byte[] serializeXmi(JCas jcas) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			XmiCasSerializer ser = new XmiCasSerializer(jcas.getTypeSystem());
+			XMLSerializer xmlSer = new XMLSerializer(out, false);
+			ser.serialize(jcas.getCas(), xmlSer.getContentHandler());
+			return out.toByteArray();
+		} catch (SAXException e) {
+			log.error("error serializing xmi", e);
+			return null;
+		}
+	}
+
+	private void writeXmi(Integer documentID, byte[] xmi) {
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(xmiOutputDirectory + File.separatorChar
+					+ documentID.toString() + ".xmi");
+			out.write(xmi);
+		} catch (IOException e) {
+			log.error("error writing xmi, documentID=" + documentID, e);
+		} finally {
+			if (out != null) {
 				try {
-					writer = new BufferedWriter(new FileWriter(
-							xmiOutputDirectory + File.separatorChar
-									+ documentID.toString() + ".xmi"));
-					XmiCasSerializer ser = new XmiCasSerializer(
-							jcas.getTypeSystem());
-					XMLSerializer xmlSer = new XMLSerializer(writer, false);
-					ser.serialize(jcas.getCas(), xmlSer.getContentHandler());
+					out.close();
 				} catch (IOException e) {
-					log.error("error writing xmi, documentID=" + documentID, e);
-				} catch (SAXException e) {
-					log.error("error writing xmi, documentID=" + documentID, e);
-				} finally {
-					if (writer != null) {
-						try {
-							writer.close();
-						} catch (IOException e) {
-						}
-					}
 				}
 			}
 		}
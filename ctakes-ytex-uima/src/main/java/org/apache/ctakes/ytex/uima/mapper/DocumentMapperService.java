@@ -20,6 +20,7 @@ package org.apache.ctakes.ytex.uima.mapper;
 
 import org.apache.uima.jcas.JCas;
 
+import java.util.List;
 import java.util.Set;
 
 public interface DocumentMapperService {
@@ -36,4 +37,27 @@ public interface DocumentMapperService {
 			boolean bStoreDocText, boolean bStoreCAS,
 			boolean bInsertAnnotationContainmentLinks, Set<String> typesToIgnore);
 
+	/**
+	 * Map the Document and all mapped annotations without saving them. The
+	 * record does not reference the cas, and can be saved with
+	 * {@link #saveDocuments(List)} after the cas has been reset.
+	 * 
+	 * @param jcas
+	 * @param analysisBatch
+	 *            optional
+	 * @return document record
+	 */
+	public abstract DocumentRecord mapDocument(JCas jcas, String analysisBatch,
+			boolean bStoreDocText, boolean bStoreCAS,
+			boolean bInsertAnnotationContainmentLinks, Set<String> typesToIgnore);
+
+	/**
+	 * Save mapped documents in a single transaction.
+	 * 
+	 * @param records
+	 *            from {@link #mapDocument}
+	 * @return document ids, in the order of the records
+	 */
+	public abstract List<Integer> saveDocuments(List<DocumentRecord> records);
+
 }
\ No newline at end of file
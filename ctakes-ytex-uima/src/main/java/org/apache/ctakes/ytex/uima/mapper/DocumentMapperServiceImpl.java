@@ -29,6 +29,7 @@ import org.apache.ctakes.typesystem.type.textsem.DiseaseDisorderMention;
 import org.apache.ctakes.typesystem.type.textsem.ProcedureMention;
 import org.apache.ctakes.typesystem.type.textsem.SignSymptomMention;
 import org.apache.ctakes.ytex.dao.DBUtil;
+import org.apache.ctakes.ytex.uima.mapper.DocumentRecord.AnnoRef;
 import org.apache.ctakes.ytex.uima.model.Document;
 import org.apache.ctakes.ytex.uima.model.DocumentAnnotation;
 import org.apache.ctakes.ytex.uima.model.UimaType;
@@ -55,6 +56,9 @@ import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
@@ -188,6 +192,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	}
 	private Set<AnnoMappingInfo> annoMappingInfos;
 	private int batchSize = 100;
+	/**
+	 * max rows per jdbc batch when inserting the rows of one or more documents
+	 */
+	private int bulkBatchSize = 1000;
 	private DataSource dataSource;
 	private String dbSchema;
 	private String dbType;
@@ -387,12 +395,12 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return doc;
 	}
 
-	private void extractAndSaveDocKey(JCas jcas, Document doc) {
+	private void extractDocKey(JCas jcas, DocumentRecord record) {
 		AnnotationIndex<Annotation> idx = jcas
 				.getAnnotationIndex(DocKey.typeIndexID);
 		FSIterator<Annotation> annoIterator = idx.iterator();
 		if (annoIterator.hasNext())
-			this.saveDocKey(doc, (DocKey) annoIterator.next());
+			this.mapDocKey(record, (DocKey) annoIterator.next());
 	}
 
 	/**
@@ -445,6 +453,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return batchSize;
 	}
 
+	public int getBulkBatchSize() {
+		return bulkBatchSize;
+	}
+
 	public DataSource getDataSource() {
 		return jdbcTemplate.getDataSource();
 	}
@@ -832,74 +844,96 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return mapAnnoToId;
 	}
 
-	private BiMap<Annotation, Integer> saveAnnoBaseHib(JCas jcas,
-			Set<String> setTypesToIgnore, Document doc) {
-		if (log.isTraceEnabled())
-			log.trace("begin saveAnnoBaseHib");
+	/**
+	 * create the anno_base entities for the annotations we know how to map.
+	 * 
+	 * @return map of annotation to index in the record
+	 */
+	private BiMap<Annotation, Integer> mapAnnoBase(JCas jcas,
+			Set<String> setTypesToIgnore, DocumentRecord record) {
 		AnnotationIndex<Annotation> annoIdx = jcas
 				.getAnnotationIndex(Annotation.typeIndexID);
-		List<Annotation> listAnno = new ArrayList<Annotation>(annoIdx.size());
-		Map<Annotation, DocumentAnnotation> mapAnnoToHib = new HashMap<Annotation, DocumentAnnotation>();
+		BiMap<Annotation, Integer> mapAnnoToIdx = HashBiMap.create();
+		List<DocumentAnnotation> listHibAnno = record.getAnnotations();
 		FSIterator<Annotation> annoIterator = annoIdx.iterator();
-		int count = 0;
-		// iterate over annotations and save them
+		// iterate over annotations
 		while (annoIterator.hasNext()) {
 			Annotation anno = (Annotation) annoIterator.next();
 			String annoClass = anno.getClass().getName();
 			if (!setTypesToIgnore.contains(annoClass)
 					&& this.uimaTypeMap.containsKey(annoClass)) {
 				// should not ignore, and we know how to map this annotation
-				listAnno.add(anno);
 				DocumentAnnotation hibAnno = new DocumentAnnotation();
-				hibAnno.setDocument(doc);
+				hibAnno.setDocument(record.getDocument());
 				hibAnno.setBegin(anno.getBegin());
 				hibAnno.setEnd(anno.getEnd());
 				hibAnno.setUimaType(uimaTypeMap.get(annoClass));
-				sessionFactory.getCurrentSession().save(hibAnno);
-				if (++count % batchSize == 0)
-					sessionFactory.getCurrentSession().flush();
-				doc.getDocumentAnnotations().add(hibAnno);
-				mapAnnoToHib.put(anno, hibAnno);
+				mapAnnoToIdx.put(anno, listHibAnno.size());
+				listHibAnno.add(hibAnno);
 			}
 		}
+		return mapAnnoToIdx;
+	}
+
+	/**
+	 * save the anno_base entities of the record.
+	 * 
+	 * @return anno_base_id by annotation index
+	 */
+	private int[] saveAnnoBaseHib(DocumentRecord record) {
+		if (log.isTraceEnabled())
+			log.trace("begin saveAnnoBaseHib");
+		Document doc = record.getDocument();
+		List<DocumentAnnotation> listHibAnno = record.getAnnotations();
+		int[] annoIds = new int[listHibAnno.size()];
+		int count = 0;
+		for (DocumentAnnotation hibAnno : listHibAnno) {
+			sessionFactory.getCurrentSession().save(hibAnno);
+			if (++count % batchSize == 0)
+				sessionFactory.getCurrentSession().flush();
+			doc.getDocumentAnnotations().add(hibAnno);
+		}
 		sessionFactory.getCurrentSession().flush();
-		BiMap<Annotation, Integer> mapAnnoToId = HashBiMap.create();
-		for (Map.Entry<Annotation, DocumentAnnotation> e : mapAnnoToHib
-				.entrySet()) {
-			mapAnnoToId.put(e.getKey(), e.getValue().getDocumentAnnotationID());
+		for (int i = 0; i < annoIds.length; i++) {
+			annoIds[i] = listHibAnno.get(i).getDocumentAnnotationID();
 		}
 		if (log.isTraceEnabled())
 			log.trace("end saveAnnoBaseHib");
-		return mapAnnoToId;
+		return annoIds;
 	}
 
 	/**
-	 * bind the variables to the prepared statement
+	 * get the values to bind to the insert statement. references to other
+	 * annotations are resolved when the document is saved.
 	 * 
 	 * @param type
 	 * @param mapInfo
-	 * @param ps
-	 * @param annoId
+	 * @param annoIdx
+	 *            index of the annotation in the document record
 	 * @param anno
-	 * @throws SQLException
+	 * @param mapAnnoToIdx
+	 * @return row of values
 	 */
-	private void saveAnnoBindVariables(final Type type,
-			final AnnoMappingInfo mapInfo, PreparedStatement ps, int annoId,
-			FeatureStructure anno, final BiMap<Annotation, Integer> mapAnnoToId)
-			throws SQLException {
+	private Object[] annoValues(final Type type,
+			final AnnoMappingInfo mapInfo, int annoIdx, FeatureStructure anno,
+			final BiMap<Annotation, Integer> mapAnnoToIdx) {
+		Object[] row = new Object[1
+				+ (mapInfo.getCoveredTextColumn() != null ? 1 : 0)
+				+ (!Strings.isNullOrEmpty(mapInfo.getUimaTypeIdColumnName()) ? 1
+						: 0) + mapInfo.getMapField().size()];
 		// set anno_base_id
-		int argIdx = 1;
-		ps.setInt(argIdx++, annoId);
+		int argIdx = 0;
+		row[argIdx++] = new AnnoRef(annoIdx);
 		if (mapInfo.getCoveredTextColumn() != null) {
 			String trunc = null;
 			if (anno instanceof Annotation) {
 				trunc = truncateString(((Annotation) anno).getCoveredText(),
 						mapInfo.getCoveredTextColumn().getSize());
 			}
-			ps.setString(argIdx++, trunc);
+			row[argIdx++] = new SqlParameterValue(Types.VARCHAR, trunc);
 		}
 		if (!Strings.isNullOrEmpty(mapInfo.getUimaTypeIdColumnName())) {
-			ps.setInt(argIdx++, mapInfo.getUimaTypeId());
+			row[argIdx++] = mapInfo.getUimaTypeId();
 		}
 		// iterate over fields
 		for (Map.Entry<String, ColumnMappingInfo> fieldEntry : mapInfo
@@ -907,85 +941,91 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 			ColumnMappingInfo fieldMapInfo = fieldEntry.getValue();
 			String fieldName = fieldMapInfo.getAnnoFieldName();
 			Feature feat = type.getFeatureByBaseName(fieldName);
+			Object value = null;
+			int sqlType = fieldMapInfo.getSqlType();
 			if (fieldMapInfo.getConverter() != null) {
 				try {
 					String prop = anno.getFeatureValueAsString(feat);
-					ps.setObject(
-							argIdx,
-							fieldMapInfo.getConverter().convert(
-									fieldMapInfo.getTargetType(), prop));
+					value = fieldMapInfo.getConverter().convert(
+							fieldMapInfo.getTargetType(), prop);
 				} catch (Exception e) {
 					throw new RuntimeException(e);
 				}
 			} else if (!feat.getRange().isPrimitive()) {
 				// feature is a structure/annotation
 				FeatureStructure fs = anno.getFeatureValue(feat);
-				if (fs == null) {
-					// feature is null - set the column to null
-					ps.setNull(argIdx, fieldMapInfo.getSqlType());
-				} else {
+				if (fs != null) {
 					if (fieldMapInfo.getJxpath() != null) {
 						// jxpath to pull out feature attribute
 						Object o = this.extractFeature(
 								fieldMapInfo.getJxpath(), fs);
-						if (o == null) {
-							// extracted value null - set column to null
-							ps.setNull(argIdx, fieldMapInfo.getSqlType());
-						} else if (o instanceof String) {
+						if (o instanceof String) {
 							// string - truncate as needed
-							String trunc = truncateString((String) o,
+							value = truncateString((String) o,
 									fieldMapInfo.getSize());
-							ps.setString(argIdx, trunc);
 						} else {
-							// set value
-							ps.setObject(argIdx, o);
+							value = o;
 						}
 					} else {
 						// reference to another annotation - get the other
-						// anno's id
-						Integer refAnnoId = null;
+						// anno's index
+						sqlType = Types.INTEGER;
+						Integer refAnnoIdx = null;
 						if (fs instanceof Annotation) {
-							refAnnoId = mapAnnoToId.get(fs);
+							refAnnoIdx = mapAnnoToIdx.get(fs);
 						}
-						if (refAnnoId != null) {
-							ps.setInt(argIdx, refAnnoId);
-						} else {
-							ps.setNull(argIdx, Types.INTEGER);
+						if (refAnnoIdx != null) {
+							value = new AnnoRef(refAnnoIdx);
 						}
 					}
 				}
 			} else {
 				if ("uima.cas.Integer".equals(feat.getRange().getName())) {
-					ps.setInt(argIdx, anno.getIntValue(feat));
+					value = anno.getIntValue(feat);
 				} else if ("uima.cas.Short".equals(feat.getRange().getName())) {
-					ps.setShort(argIdx, anno.getShortValue(feat));
+					value = anno.getShortValue(feat);
 				} else if ("uima.cas.Long".equals(feat.getRange().getName())) {
-					ps.setLong(argIdx, anno.getLongValue(feat));
+					value = anno.getLongValue(feat);
 				} else if ("uima.cas.Float".equals(feat.getRange().getName())) {
-					ps.setFloat(argIdx, anno.getFloatValue(feat));
+					value = anno.getFloatValue(feat);
 				} else if ("uima.cas.Double".equals(feat.getRange().getName())) {
-					ps.setDouble(argIdx, anno.getDoubleValue(feat));
+					value = anno.getDoubleValue(feat);
 				} else if ("uima.cas.Byte".equals(feat.getRange().getName())) {
-					ps.setByte(argIdx, anno.getByteValue(feat));
+					value = anno.getByteValue(feat);
 				} else if ("uima.cas.Boolean".equals(feat.getRange().getName())) {
-					ps.setBoolean(argIdx, anno.getBooleanValue(feat));
+					value = anno.getBooleanValue(feat);
 				} else if ("uima.cas.String".equals(feat.getRange().getName())) {
-					String trunc = truncateString(anno.getStringValue(feat),
-							fieldMapInfo.getSize());
-					ps.setString(argIdx, trunc);
+					value = new SqlParameterValue(Types.VARCHAR,
+							truncateString(anno.getStringValue(feat),
+									fieldMapInfo.getSize()));
 				}
 			}
-			argIdx++;
+			// null values need the column type
+			row[argIdx++] = value == null ? new SqlParameterValue(sqlType,
+					null) : value;
+		}
+		return row;
+	}
+
+	/**
+	 * bind a resolved row to the prepared statement
+	 */
+	private static void bindRow(PreparedStatement ps, Object[] row)
+			throws SQLException {
+		for (int i = 0; i < row.length; i++) {
+			StatementCreatorUtils.setParameterValue(ps, i + 1,
+					SqlTypeValue.TYPE_UNKNOWN, row[i]);
 		}
 	}
 
 	/**
-	 * insert composite attributes.
+	 * map composite attributes.
 	 * 
 	 * @param listFSA
 	 */
-	private void saveAnnoFS(final List<AnnoFSAttribute> listFSA,
-			final BiMap<Annotation, Integer> mapAnnoToId) {
+	private void mapAnnoFS(final List<AnnoFSAttribute> listFSA,
+			final BiMap<Annotation, Integer> mapAnnoToIdx,
+			final DocumentRecord record) {
 		if (listFSA.size() == 0)
 			return;
 		FeatureStructure fs = listFSA.get(0).getFs();
@@ -994,44 +1034,11 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		// don't know how to map this feature
 		if (mapInfo == null)
 			return;
-		// int chunks = (int) Math.ceil((double) listFSA.size()
-		// / (double) this.batchSize);
-		// for (int i = 0; i < chunks; i++) {
-		// int start = i * this.batchSize;
-		// int end = (i + 1) * this.batchSize;
-		// if (end > listFSA.size())
-		// end = listFSA.size();
-		// final List<AnnoFSAttribute> chunkList = listFSA.subList(start, end);
-		// jdbcTemplate.batchUpdate(mapInfo.getSql(),
-		// new BatchPreparedStatementSetter() {
-		//
-		// @Override
-		// public int getBatchSize() {
-		// return chunkList.size();
-		// }
-		//
-		// @Override
-		// public void setValues(PreparedStatement ps, int idx)
-		// throws SQLException {
-		// AnnoFSAttribute fsa = chunkList.get(idx);
-		// // todo pass array index for storage
-		// saveAnnoBindVariables(type, mapInfo, ps,
-		// fsa.getAnnoBaseId(), fsa.getFs(),
-		// mapAnnoToId);
-		// }
-		// });
-		// }
-		chunkedBatchUpdate(mapInfo.getSql(), listFSA,
-				new ChunkPreparedStatementSetter<AnnoFSAttribute>() {
-
-					@Override
-					public void setValues(PreparedStatement ps, int idx,
-							AnnoFSAttribute fsa) throws SQLException {
-						// todo pass array index for storage
-						saveAnnoBindVariables(type, mapInfo, ps,
-								fsa.getAnnoBaseId(), fsa.getFs(), mapAnnoToId);
-					}
-				});
+		for (AnnoFSAttribute fsa : listFSA) {
+			// todo pass array index for storage
+			record.addAttributeRow(mapInfo.getSql(), annoValues(type, mapInfo,
+					fsa.getAnnoBaseId(), fsa.getFs(), mapAnnoToIdx));
+		}
 	}
 
 	/**
@@ -1046,10 +1053,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	}
 
 	/**
-	 * for the list l, perform l.size()/batchSize batch updates. Avoid mysql
+	 * for the list l, perform l.size()/bulkBatchSize batch updates. Avoid mysql
 	 * packet too large exceptions with large batch updates. Call spring
 	 * jdbcTemplate.batchUpdate internally with sublists of l with size
-	 * batchSize.
+	 * bulkBatchSize.
 	 * 
 	 * @param sql
 	 * @param l
@@ -1058,10 +1065,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	private <T> void chunkedBatchUpdate(String sql, List<T> l,
 			final ChunkPreparedStatementSetter<T> cpss) {
 		int chunks = (int) Math.ceil((double) l.size()
-				/ (double) this.batchSize);
+				/ (double) this.bulkBatchSize);
 		for (int i = 0; i < chunks; i++) {
-			int start = i * this.batchSize;
-			int end = (i + 1) * this.batchSize;
+			int start = i * this.bulkBatchSize;
+			int end = (i + 1) * this.bulkBatchSize;
 			if (end > l.size())
 				end = l.size();
 			final List<T> chunkList = l.subList(start, end);
@@ -1131,30 +1138,27 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	}
 
 	/**
-	 * save the annotation properties for a given type
+	 * map the annotation properties for a given type
 	 * 
-	 * @param mapAnnoToId
-	 *            map of all annoIDs to Annotation
-	 * @param annoIds
-	 *            annotation ids for a single type
-	 * @param listAnnoLinks
-	 *            annotation to annotation links to save
+	 * @param mapAnnoToIdx
+	 *            map of all Annotations to their index in the record
+	 * @param annoIdxs
+	 *            annotation indexes for a single type
+	 * @param record
+	 *            record to add rows and annotation to annotation links to
 	 */
-	private void saveAnnoPrimitive(
-			final BiMap<Annotation, Integer> mapAnnoToId,
-			final Set<Integer> annoIds, final List<AnnoLink> listAnnoLinks) {
+	private void mapAnnoPrimitive(
+			final BiMap<Annotation, Integer> mapAnnoToIdx,
+			final Set<Integer> annoIdxs, final DocumentRecord record) {
 		if (log.isTraceEnabled())
-			log.trace("begin saveAnnoPrimitive");
-		final BiMap<Integer, Annotation> mapIdToAnno = mapAnnoToId.inverse();
+			log.trace("begin mapAnnoPrimitive");
+		final BiMap<Integer, Annotation> mapIdxToAnno = mapAnnoToIdx.inverse();
 		// nothing to do
-		if (annoIds.size() == 0)
+		if (annoIdxs.size() == 0)
 			return;
-		// covert to array for spring batch update
-		// final Integer[] annoIdArray = annoIds.toArray(new Integer[] {});
-		final List<Integer> annoIdList = new ArrayList<Integer>(annoIds);
+		final List<AnnoLink> listAnnoLinks = record.getAnnoLinks();
 		// get mappinginfo
-		// final TOP t = mapIdToAnno.get(annoIdArray[0]);
-		final TOP t = mapIdToAnno.get(annoIdList.get(0));
+		final TOP t = mapIdxToAnno.get(annoIdxs.iterator().next());
 		final Type type = t.getType();
 		final AnnoMappingInfo mapInfo = this.getMapInfo(t);
 		// get non primitive fields, insert them after inserting the annotation
@@ -1165,109 +1169,72 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		// don't know how to map this annotation
 		if (mapInfo == null)
 			return;
-		// jdbcTemplate.batchUpdate(mapInfo.getSql(),
-		// new BatchPreparedStatementSetter() {
-		//
-		// @Override
-		// public int getBatchSize() {
-		// return annoIdArray.length;
-		// }
-		this.chunkedBatchUpdate(mapInfo.getSql(), annoIdList,
-				new ChunkPreparedStatementSetter<Integer>() {
-
-					@Override
-					public void setValues(PreparedStatement ps, int idx,
-							Integer annoId) throws SQLException {
-						// get the entry
-						// int annoId = annoIdArray[idx];
-						Annotation anno = mapIdToAnno.get(annoId);
-						saveAnnoBindVariables(type, mapInfo, ps, annoId, anno,
-								mapAnnoToId);
-
-						// Pull out bodyLocation relation (and severity relation?) for anno_link table
-   						  if(anno instanceof DiseaseDisorderMention ) {
-  						    LocationOfTextRelation blRel = ((DiseaseDisorderMention)anno).getBodyLocation();
-  						    //DegreeOfTextRelation dtRel = ((DiseaseDisorderMention)anno).getSeverity();
-    						if(blRel != null) {
-                              Annotation site = blRel.getArg2().getArgument(); // get AnatomicalSiteLocation
-                              Integer anatSiteAnnoId = mapAnnoToId.get(site);
-                              if (anatSiteAnnoId != null) {
-                                listAnnoLinks.add(new AnnoLink(annoId, anatSiteAnnoId, "bodyLocation"));
-                              }
-    						}
-  						  } else if (anno instanceof SignSymptomMention ){
-  						    LocationOfTextRelation blRel = ((SignSymptomMention)anno).getBodyLocation();
-  						    //DegreeOfTextRelation dtRel = ((SignSymptomMention)anno).getSeverity();
-  						    if(blRel != null) {
-                              Annotation site = blRel.getArg2().getArgument(); // get AnatomicalSiteLocation
-                              Integer anatSiteAnnoId = mapAnnoToId.get(site);
-                              if (anatSiteAnnoId != null) {
-                                listAnnoLinks.add(new AnnoLink(annoId, anatSiteAnnoId, "bodyLocation"));
-                              }
-                            }
-  						  } else if (anno instanceof ProcedureMention ){
-                            LocationOfTextRelation blRel = ((ProcedureMention)anno).getBodyLocation();
-                            if(blRel != null) {
-                              Annotation site = blRel.getArg2().getArgument(); // get AnatomicalSiteLocation
-                              Integer anatSiteAnnoId = mapAnnoToId.get(site);
-                              if (anatSiteAnnoId != null) {
-                                listAnnoLinks.add(new AnnoLink(annoId, anatSiteAnnoId, "bodyLocation"));
-                              }
-                            }
-                          }
-
-						// pull out the composite fields for storage
-						for (String fieldName : fsNames) {
-							Feature feat = type.getFeatureByBaseName(fieldName);
-							if (!feat.getRange().isPrimitive()) {
-								// handle arrays and lists
-								FeatureStructure fsCol = anno
-										.getFeatureValue(feat);
-								if (fsCol != null
-										&& (fsCol instanceof FSArray || fsCol instanceof FSList)) {
-									List<FeatureStructure> fsList = extractList(fsCol);
-									int i = 0;
-									for (FeatureStructure fs : fsList) {
-										if (fs instanceof Annotation) {
-											// annotations are linked via the
-											// anno_link table
-											Integer childAnnoId = mapAnnoToId
-													.get(fs);
-											if (childAnnoId != null) {
-												listAnnoLinks.add(new AnnoLink(
-														annoId, childAnnoId,
-														feat.getShortName()));
-											}
-										} else {
-											// featureStructs that are not
-											// annotations get stored in their
-											// own tables
-											// with a many to one relationship
-											// to the annotation
-											mapAnnoToFS.put(fs.getType()
-													.getName(),
-													new AnnoFSAttribute(annoId,
-															fs, i++));
-										}
-									}
+		for (Integer annoIdx : annoIdxs) {
+			Annotation anno = mapIdxToAnno.get(annoIdx);
+			record.addRow(mapInfo.getSql(),
+					annoValues(type, mapInfo, annoIdx, anno, mapAnnoToIdx));
+			// Pull out bodyLocation relation (and severity relation?) for
+			// anno_link table
+			LocationOfTextRelation blRel = null;
+			if (anno instanceof DiseaseDisorderMention) {
+				blRel = ((DiseaseDisorderMention) anno).getBodyLocation();
+			} else if (anno instanceof SignSymptomMention) {
+				blRel = ((SignSymptomMention) anno).getBodyLocation();
+			} else if (anno instanceof ProcedureMention) {
+				blRel = ((ProcedureMention) anno).getBodyLocation();
+			}
+			if (blRel != null) {
+				// get AnatomicalSiteLocation
+				Annotation site = blRel.getArg2().getArgument();
+				Integer anatSiteAnnoIdx = mapAnnoToIdx.get(site);
+				if (anatSiteAnnoIdx != null) {
+					listAnnoLinks.add(new AnnoLink(annoIdx, anatSiteAnnoIdx,
+							"bodyLocation"));
+				}
+			}
+			// pull out the composite fields for storage
+			for (String fieldName : fsNames) {
+				Feature feat = type.getFeatureByBaseName(fieldName);
+				if (!feat.getRange().isPrimitive()) {
+					// handle arrays and lists
+					FeatureStructure fsCol = anno.getFeatureValue(feat);
+					if (fsCol != null
+							&& (fsCol instanceof FSArray || fsCol instanceof FSList)) {
+						List<FeatureStructure> fsList = extractList(fsCol);
+						int i = 0;
+						for (FeatureStructure fs : fsList) {
+							if (fs instanceof Annotation) {
+								// annotations are linked via the
+								// anno_link table
+								Integer childAnnoIdx = mapAnnoToIdx.get(fs);
+								if (childAnnoIdx != null) {
+									listAnnoLinks.add(new AnnoLink(annoIdx,
+											childAnnoIdx, feat.getShortName()));
 								}
 							} else {
-								// handle primitive attributes
-								mapAnnoToFS.put(
-										feat.getRange().getName(),
-										new AnnoFSAttribute(annoId, anno
-												.getFeatureValue(feat), null));
+								// featureStructs that are not
+								// annotations get stored in their
+								// own tables
+								// with a many to one relationship
+								// to the annotation
+								mapAnnoToFS.put(fs.getType().getName(),
+										new AnnoFSAttribute(annoIdx, fs, i++));
 							}
 						}
 					}
+				} else {
+					// handle primitive attributes
+					mapAnnoToFS.put(feat.getRange().getName(),
+							new AnnoFSAttribute(annoIdx, anno
+									.getFeatureValue(feat), null));
 				}
-
-		);
+			}
+		}
 		for (String fsType : mapAnnoToFS.keySet()) {
-			this.saveAnnoFS(mapAnnoToFS.get(fsType), mapAnnoToId);
+			this.mapAnnoFS(mapAnnoToFS.get(fsType), mapAnnoToIdx, record);
 		}
 		if (log.isTraceEnabled())
-			log.trace("end saveAnnoPrimitive");
+			log.trace("end mapAnnoPrimitive");
 	}
 
 	// private void saveAnnotations(JCas jcas, Set<String> setTypesToIgnore,
@@ -1294,56 +1261,46 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	// saveAnnoLinks(listAnnoLinks);
 	// }
 
-	private void saveAnnotationsHib(JCas jcas,
-			boolean bInsertAnnotationContainmentLinks,
-			Set<String> setTypesToIgnore, Document doc) {
+	private void mapAnnotations(JCas jcas, Set<String> setTypesToIgnore,
+			DocumentRecord record) {
 		if (log.isTraceEnabled())
-			log.trace("begin saveAnnotationsHib");
-		BiMap<Annotation, Integer> mapAnnoToId = saveAnnoBaseHib(jcas,
-				setTypesToIgnore, doc);
-		if (bInsertAnnotationContainmentLinks)
-			insertAnnotationContainmentLinks(doc.getDocumentID());
+			log.trace("begin mapAnnotations");
+		BiMap<Annotation, Integer> mapAnnoToIdx = mapAnnoBase(jcas,
+				setTypesToIgnore, record);
 		// split the annotations up by type
-		// create a map of class name to anno id
-		SetMultimap<String, Integer> mapTypeToAnnoId = HashMultimap.create();
-		for (Map.Entry<Annotation, Integer> annoEntry : mapAnnoToId.entrySet()) {
-			mapTypeToAnnoId.put(annoEntry.getKey().getClass().getName(),
+		// create a map of class name to anno index
+		SetMultimap<String, Integer> mapTypeToAnnoIdx = HashMultimap.create();
+		for (Map.Entry<Annotation, Integer> annoEntry : mapAnnoToIdx
+				.entrySet()) {
+			mapTypeToAnnoIdx.put(annoEntry.getKey().getClass().getName(),
 					annoEntry.getValue());
 		}
-		// allocate a list to store annotation links
-		List<AnnoLink> listAnnoLinks = new ArrayList<AnnoLink>();
-		// save annotation properties
-		for (String annoClass : mapTypeToAnnoId.keySet()) {
-			saveAnnoPrimitive(mapAnnoToId, mapTypeToAnnoId.get(annoClass),
-					listAnnoLinks);
+		// map annotation properties
+		for (String annoClass : mapTypeToAnnoIdx.keySet()) {
+			mapAnnoPrimitive(mapAnnoToIdx, mapTypeToAnnoIdx.get(annoClass),
+					record);
 		}
-		addAnnoLinks(jcas, mapAnnoToId, listAnnoLinks);
+		addAnnoLinks(jcas, mapAnnoToIdx, record.getAnnoLinks());
 		// saveMarkablePairs(jcas, mapAnnoToId, listAnnoLinks);
 		// saveCoref(jcas, mapAnnoToId, listAnnoLinks);
-		saveAnnoLinks(listAnnoLinks);
 		if (log.isTraceEnabled())
-			log.trace("end saveAnnotationsHib");
+			log.trace("end mapAnnotations");
 	}
 
 	/**
-	 * update the document table - set key values from dockey for the give
-	 * document_id
+	 * set key values from dockey on the document, and collect the values of
+	 * other document table columns
 	 * 
-	 * @param document
-	 *            document
+	 * @param record
+	 *            document record
 	 * @param dk
 	 *            key
 	 */
-	private void saveDocKey(Document document, DocKey dk) {
-		int documentId = document.getDocumentID();
+	private void mapDocKey(DocumentRecord record, DocKey dk) {
+		Document document = record.getDocument();
 		FSArray fsa = dk.getKeyValuePairs();
 		if (fsa == null || fsa.size() == 0)
 			return;
-		// build query dynamically
-		StringBuilder queryBuilder = (new StringBuilder("update ")).append(
-				formattedTableName).append(" set ");
-		List<Object> args = new ArrayList<Object>();
-		boolean bFirstArg = true;
 		// iterate over key/value pairs
 		for (int i = 0; i < fsa.size(); i++) {
 			KeyValuePair kp = (KeyValuePair) fsa.get(i);
@@ -1356,47 +1313,60 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 				document.setInstanceKey(kp.getValueString());
 			} else if (this.docTableCols.containsKey(lowerKey)) {
 				// only attempt to map keys that correspond to valid columns
-				boolean badArg = false;
 				// verify that the value matches the datatype
 				// if valueString not null then assume integer
 				if (kp.getValueString() != null
 						&& stringTypes.contains(docTableCols.get(lowerKey))) {
-					args.add(kp.getValueString());
+					record.getDocKeyColumns().put(key, kp.getValueString());
 				} else if (numericTypes.contains(docTableCols.get(lowerKey))) {
-					args.add(kp.getValueLong());
+					record.getDocKeyColumns().put(key, kp.getValueLong());
 				} else {
 					// invalid type for argument
-					badArg = true;
-					log.warn("document_id: " + documentId
+					log.warn("instance_key: " + document.getInstanceKey()
 							+ ", bad type for key=" + key + ", value="
 							+ kp.getValueString() == null ? kp.getValueLong()
 							: kp.getValueString());
 				}
-				if (!badArg) {
-					// update
-					if (!bFirstArg) {
-						queryBuilder.append(", ");
-					}
-					queryBuilder.append(DBUtil.formatFieldName(key));
-					queryBuilder.append("=? ");
-					bFirstArg = false;
-				}
 			} else {
 				// don't know what to do with this key attribute
-				log.warn("document_id: " + documentId
+				log.warn("instance_key: " + document.getInstanceKey()
 						+ ", could not map key attribute " + kp.getKey());
 			}
 		}
-		if (args.size() > 0) {
-			// have something to update - add the where condition
-			queryBuilder.append(" where document_id = ?");
-			args.add(documentId);
-			String sql = queryBuilder.toString();
-			if (log.isDebugEnabled()) {
-				log.debug(sql);
+	}
+
+	/**
+	 * update the document table - set key values from dockey for the give
+	 * document_id
+	 * 
+	 * @param document
+	 *            saved document
+	 * @param docKeyColumns
+	 *            column name to value
+	 */
+	private void saveDocKey(Document document, Map<String, Object> docKeyColumns) {
+		if (docKeyColumns.isEmpty())
+			return;
+		// build query dynamically
+		StringBuilder queryBuilder = (new StringBuilder("update ")).append(
+				formattedTableName).append(" set ");
+		List<Object> args = new ArrayList<Object>();
+		for (Map.Entry<String, Object> col : docKeyColumns.entrySet()) {
+			if (!args.isEmpty()) {
+				queryBuilder.append(", ");
 			}
-			jdbcTemplate.update(sql, args.toArray());
+			queryBuilder.append(DBUtil.formatFieldName(col.getKey()));
+			queryBuilder.append("=? ");
+			args.add(col.getValue());
+		}
+		// add the where condition
+		queryBuilder.append(" where document_id = ?");
+		args.add(document.getDocumentID());
+		String sql = queryBuilder.toString();
+		if (log.isDebugEnabled()) {
+			log.debug(sql);
 		}
+		jdbcTemplate.update(sql, args.toArray());
 	}
 
 	/*
@@ -1412,33 +1382,102 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 			final Set<String> setTypesToIgnore) {
 		if (log.isTraceEnabled())
 			log.trace("begin saveDocument");
-		// communicate options to mappers using thread local variable
+		DocumentRecord record = mapDocument(jcas, analysisBatch,
+				bStoreDocText, bStoreCAS, bInsertAnnotationContainmentLinks,
+				setTypesToIgnore);
+		Integer documentId = saveDocuments(Collections.singletonList(record))
+				.get(0);
+		if (log.isTraceEnabled())
+			log.trace("end saveDocument");
+		return documentId;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.apache.ctakes.ytex.uima.mapper.DocumentMapperService#mapDocument(org
+	 * .apache.uima.jcas.JCas, java.lang.String, boolean, boolean, boolean,
+	 * java.util.Set)
+	 */
+	public DocumentRecord mapDocument(JCas jcas, String analysisBatch,
+			boolean bStoreDocText, boolean bStoreCAS,
+			boolean bInsertAnnotationContainmentLinks,
+			Set<String> setTypesToIgnore) {
+		Document doc = createDocument(jcas, analysisBatch, bStoreDocText,
+				bStoreCAS);
+		DocumentRecord record = new DocumentRecord(doc,
+				bInsertAnnotationContainmentLinks);
+		mapAnnotations(jcas, setTypesToIgnore, record);
+		extractDocKey(jcas, record);
+		return record;
+	}
+
+	/**
+	 * Save the documents in a single transaction. The rows of all documents
+	 * are grouped by table and inserted with batches of up to bulkBatchSize
+	 * rows.
+	 * 
+	 * @see org.apache.ctakes.ytex.uima.mapper.DocumentMapperService#saveDocuments(java.util.List)
+	 */
+	public List<Integer> saveDocuments(final List<DocumentRecord> records) {
+		if (log.isTraceEnabled())
+			log.trace("begin saveDocuments");
 		final DefaultTransactionDefinition txDef = new DefaultTransactionDefinition(
 				TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 		txDef.setIsolationLevel("orcl".equals(this.dbType) ? TransactionDefinition.ISOLATION_READ_COMMITTED
 				: TransactionDefinition.ISOLATION_READ_UNCOMMITTED);
 		final TransactionTemplate txTemplate = new TransactionTemplate(
 				this.getTransactionManager(), txDef);
-		final int documentId = txTemplate
-				.execute(new TransactionCallback<Integer>() {
+		List<Integer> documentIds = txTemplate
+				.execute(new TransactionCallback<List<Integer>>() {
 
 					@Override
-					public Integer doInTransaction(TransactionStatus arg0) {
-						Document doc = createDocument(jcas, analysisBatch,
-								bStoreDocText, bStoreCAS);
-						sessionFactory.getCurrentSession().save(doc);
-						// make sure the document has been saved
-						getSessionFactory().getCurrentSession().flush();
-						saveAnnotationsHib(jcas,
-								bInsertAnnotationContainmentLinks,
-								setTypesToIgnore, doc);
-						extractAndSaveDocKey(jcas, doc);
-						return doc.getDocumentID();
+					public List<Integer> doInTransaction(TransactionStatus arg0) {
+						List<Integer> documentIds = new ArrayList<Integer>(
+								records.size());
+						Map<String, List<Object[]>> rows = new LinkedHashMap<String, List<Object[]>>();
+						Map<String, List<Object[]>> attributeRows = new LinkedHashMap<String, List<Object[]>>();
+						List<AnnoLink> listAnnoLinks = new ArrayList<AnnoLink>();
+						for (DocumentRecord record : records) {
+							Document doc = record.getDocument();
+							sessionFactory.getCurrentSession().save(doc);
+							// make sure the document has been saved
+							getSessionFactory().getCurrentSession().flush();
+							int[] annoIds = saveAnnoBaseHib(record);
+							if (record.isInsertAnnotationContainmentLinks())
+								insertAnnotationContainmentLinks(doc
+										.getDocumentID());
+							record.resolve(annoIds, rows, attributeRows,
+									listAnnoLinks);
+							saveDocKey(doc, record.getDocKeyColumns());
+							documentIds.add(doc.getDocumentID());
+						}
+						// annotation rows first, attributes and links
+						// reference them
+						saveRows(rows);
+						saveRows(attributeRows);
+						saveAnnoLinks(listAnnoLinks);
+						return documentIds;
 					}
 				});
 		if (log.isTraceEnabled())
-			log.trace("end saveDocument");
-		return documentId;
+			log.trace("end saveDocuments");
+		return documentIds;
+	}
+
+	private void saveRows(Map<String, List<Object[]>> rows) {
+		for (Map.Entry<String, List<Object[]>> e : rows.entrySet()) {
+			chunkedBatchUpdate(e.getKey(), e.getValue(),
+					new ChunkPreparedStatementSetter<Object[]>() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int idx,
+								Object[] row) throws SQLException {
+							bindRow(ps, row);
+						}
+					});
+		}
 	}
 
 	/**
@@ -1457,6 +1496,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		this.batchSize = batchSize;
 	}
 
+	public void setBulkBatchSize(int bulkBatchSize) {
+		this.bulkBatchSize = bulkBatchSize;
+	}
+
 	public void setDataSource(DataSource dataSource) {
 		this.dataSource = dataSource;
 		jdbcTemplate = new JdbcTemplate(dataSource);
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import org.apache.ctakes.ytex.uima.mapper.DocumentMapperServiceImpl.AnnoLink;
+import org.apache.ctakes.ytex.uima.model.Document;
+import org.apache.ctakes.ytex.uima.model.DocumentAnnotation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A document mapped from the cas, ready to be saved. Holds no references to
+ * the cas, so that it can be saved after the cas has been reset, on another
+ * thread.
+ * <p>
+ * Annotation ids are assigned when the document is saved; until then rows and
+ * links refer to annotations by their index in {@link #getAnnotations()}.
+ *
+ * @author vijay
+ *
+ */
+public class DocumentRecord {
+	/**
+	 * placeholder for the anno_base_id of the annotation at the given index
+	 */
+	static final class AnnoRef {
+		private final int index;
+
+		AnnoRef(int index) {
+			this.index = index;
+		}
+
+		int getIndex() {
+			return index;
+		}
+	}
+
+	private final List<DocumentAnnotation> annotations = new ArrayList<DocumentAnnotation>();
+	/**
+	 * anno_link rows, parent and child are annotation indexes
+	 */
+	private final List<AnnoLink> annoLinks = new ArrayList<AnnoLink>();
+	/**
+	 * insert statement to rows for non-annotation feature structures; these
+	 * reference the annotation rows and are inserted after them
+	 */
+	private final Map<String, List<Object[]>> attributeRows = new LinkedHashMap<String, List<Object[]>>();
+	/**
+	 * document table columns set from the DocKey
+	 */
+	private final Map<String, Object> docKeyColumns = new LinkedHashMap<String, Object>();
+	private final Document document;
+	private final boolean insertAnnotationContainmentLinks;
+	/**
+	 * insert statement to rows for annotations
+	 */
+	private final Map<String, List<Object[]>> rows = new LinkedHashMap<String, List<Object[]>>();
+
+	DocumentRecord(Document document, boolean insertAnnotationContainmentLinks) {
+		this.document = document;
+		this.insertAnnotationContainmentLinks = insertAnnotationContainmentLinks;
+	}
+
+	void addAttributeRow(String sql, Object[] row) {
+		addRow(attributeRows, sql, row);
+	}
+
+	void addRow(String sql, Object[] row) {
+		addRow(rows, sql, row);
+	}
+
+	private static void addRow(Map<String, List<Object[]>> rows, String sql,
+			Object[] row) {
+		List<Object[]> l = rows.get(sql);
+		if (l == null) {
+			l = new ArrayList<Object[]>();
+			rows.put(sql, l);
+		}
+		l.add(row);
+	}
+
+	List<DocumentAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	List<AnnoLink> getAnnoLinks() {
+		return annoLinks;
+	}
+
+	Map<String, List<Object[]>> getAttributeRows() {
+		return attributeRows;
+	}
+
+	Map<String, Object> getDocKeyColumns() {
+		return docKeyColumns;
+	}
+
+	public Document getDocument() {
+		return document;
+	}
+
+	Map<String, List<Object[]>> getRows() {
+		return rows;
+	}
+
+	boolean isInsertAnnotationContainmentLinks() {
+		return insertAnnotationContainmentLinks;
+	}
+
+	/**
+	 * replace annotation indexes with the ids of the saved annotations, and
+	 * append the rows and links to the given collections.
+	 *
+	 * @param annoIds
+	 *            anno_base_id by annotation index
+	 */
+	void resolve(int[] annoIds, Map<String, List<Object[]>> allRows,
+			Map<String, List<Object[]>> allAttributeRows,
+			List<AnnoLink> allAnnoLinks) {
+		resolve(annoIds, rows, allRows);
+		resolve(annoIds, attributeRows, allAttributeRows);
+		for (AnnoLink link : annoLinks) {
+			allAnnoLinks.add(new AnnoLink(annoIds[link.getParentAnnoBaseId()],
+					annoIds[link.getChildAnnoBaseId()], link.getFeature()));
+		}
+	}
+
+	private static void resolve(int[] annoIds,
+			Map<String, List<Object[]>> rows,
+			Map<String, List<Object[]>> allRows) {
+		for (Map.Entry<String, List<Object[]>> e : rows.entrySet()) {
+			for (Object[] row : e.getValue()) {
+				Object[] resolved = row.clone();
+				for (int i = 0; i < resolved.length; i++) {
+					if (resolved[i] instanceof AnnoRef)
+						resolved[i] = annoIds[((AnnoRef) resolved[i]).getIndex()];
+				}
+				addRow(allRows, e.getKey(), resolved);
+			}
+		}
+	}
+}
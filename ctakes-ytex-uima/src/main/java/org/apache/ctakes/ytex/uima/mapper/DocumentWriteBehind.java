@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Write-behind persistence of mapped documents. Documents are queued by the
+ * pipeline thread and saved by dedicated writer threads; each writer takes up
+ * to documentsPerTransaction queued documents and saves them with
+ * {@link DocumentMapperService#saveDocuments(List)}, which groups the rows of
+ * all documents per table into large jdbc batches.
+ * <p>
+ * The queue is bounded: {@link #submit(DocumentRecord)} blocks while the
+ * writers are behind. Errors are reported by the next call to submit or
+ * {@link #flush()}. A writer that fails with an {@link Error} stops; once all
+ * writers have stopped, submit and flush fail immediately instead of waiting
+ * for documents that will never be saved.
+ *
+ * @author vijay
+ *
+ */
+public class DocumentWriteBehind {
+	private static final Log log = LogFactory.getLog(DocumentWriteBehind.class);
+	private static final AtomicInteger threadCount = new AtomicInteger();
+
+	private static class Entry {
+		private final CompletableFuture<Integer> future = new CompletableFuture<Integer>();
+		private final DocumentRecord record;
+
+		Entry(DocumentRecord record) {
+			this.record = record;
+		}
+	}
+
+	private final DocumentMapperService documentMapperService;
+	private final int documentsPerTransaction;
+	private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+	private final ExecutorService executor;
+	/**
+	 * documents submitted but not yet saved, guarded by this
+	 */
+	private int pending = 0;
+	/**
+	 * writer threads that are running, guarded by this
+	 */
+	private int liveWriters;
+	/**
+	 * cause of the last writer stopping, guarded by this
+	 */
+	private Throwable writerDeath;
+	private final BlockingQueue<Entry> queue;
+
+	/**
+	 *
+	 * @param documentMapperService
+	 * @param queueSize
+	 *            max number of documents waiting to be saved
+	 * @param writerThreads
+	 *            number of writer threads
+	 * @param documentsPerTransaction
+	 *            max number of documents saved in one transaction
+	 */
+	public DocumentWriteBehind(DocumentMapperService documentMapperService,
+			int queueSize, int writerThreads, int documentsPerTransaction) {
+		this.documentMapperService = documentMapperService;
+		this.documentsPerTransaction = documentsPerTransaction;
+		this.queue = new ArrayBlockingQueue<Entry>(queueSize);
+		this.liveWriters = writerThreads;
+		this.executor = Executors.newFixedThreadPool(writerThreads, r -> {
+			Thread t = new Thread(r, "ytex-write-behind-"
+					+ threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		for (int i = 0; i < writerThreads; i++) {
+			executor.execute(this::write);
+		}
+	}
+
+	/**
+	 * queue the document for saving, block while the queue is full.
+	 *
+	 * @return future completed with the document id when the document has
+	 *         been saved. dependent actions run on the writer thread before
+	 *         {@link #flush()} returns.
+	 * @throws InterruptedException
+	 * @throws IllegalStateException
+	 *             if a previously submitted document could not be saved, or
+	 *             if the writers have stopped
+	 */
+	public CompletableFuture<Integer> submit(DocumentRecord record)
+			throws InterruptedException {
+		checkError();
+		Entry entry = new Entry(record);
+		synchronized (this) {
+			checkWriters();
+			pending++;
+		}
+		try {
+			// do not block forever on a full queue if the writers stop
+			while (!queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+				synchronized (this) {
+					if (liveWriters == 0) {
+						done(1);
+						checkWriters();
+					}
+				}
+			}
+			// the last writer may have stopped after the check above
+			synchronized (this) {
+				if (liveWriters == 0 && queue.remove(entry)) {
+					done(1);
+					checkWriters();
+				}
+			}
+		} catch (InterruptedException e) {
+			done(1);
+			throw e;
+		}
+		return entry.future;
+	}
+
+	/**
+	 * wait until all submitted documents have been saved.
+	 *
+	 * @throws InterruptedException
+	 * @throws IllegalStateException
+	 *             if a document could not be saved, or if the writers have
+	 *             stopped
+	 */
+	public void flush() throws InterruptedException {
+		synchronized (this) {
+			while (pending > 0 && liveWriters > 0)
+				wait();
+			if (pending > 0)
+				checkWriters();
+		}
+		checkError();
+	}
+
+	/**
+	 * flush and stop the writer threads
+	 *
+	 * @throws InterruptedException
+	 */
+	public void close() throws InterruptedException {
+		try {
+			flush();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void checkError() {
+		Throwable t = error.getAndSet(null);
+		if (t != null)
+			throw new IllegalStateException("error saving documents", t);
+	}
+
+	private synchronized void checkWriters() {
+		if (liveWriters == 0)
+			throw new IllegalStateException("write-behind writers have stopped",
+					writerDeath);
+	}
+
+	private synchronized void done(int count) {
+		pending -= count;
+		notifyAll();
+	}
+
+	/**
+	 * writer loop: wait for a document, then save it together with the
+	 * documents queued behind it.
+	 */
+	private void write() {
+		List<Entry> batch = new ArrayList<Entry>(documentsPerTransaction);
+		List<DocumentRecord> records = new ArrayList<DocumentRecord>(
+				documentsPerTransaction);
+		Throwable death = null;
+		try {
+			while (true) {
+				batch.add(queue.take());
+				queue.drainTo(batch, documentsPerTransaction - 1);
+				try {
+					for (Entry entry : batch)
+						records.add(entry.record);
+					List<Integer> documentIds = documentMapperService
+							.saveDocuments(records);
+					for (int i = 0; i < batch.size(); i++)
+						batch.get(i).future.complete(documentIds.get(i));
+				} catch (Throwable e) {
+					log.error("error saving " + batch.size() + " documents", e);
+					error.compareAndSet(null, e);
+					for (Entry entry : batch)
+						entry.future.completeExceptionally(e);
+					// errors (e.g. out of memory) stop the writer
+					if (e instanceof Error)
+						throw (Error) e;
+				} finally {
+					done(batch.size());
+					batch.clear();
+					records.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			// shutdown
+		} catch (Throwable e) {
+			death = e;
+		} finally {
+			writerStopped(death);
+		}
+	}
+
+	/**
+	 * when the last writer stops, fail the documents that are still queued
+	 * and wake up threads waiting in flush.
+	 */
+	private void writerStopped(Throwable death) {
+		List<Entry> orphans = new ArrayList<Entry>();
+		synchronized (this) {
+			liveWriters--;
+			if (death != null)
+				writerDeath = death;
+			if (liveWriters > 0) {
+				notifyAll();
+				return;
+			}
+			queue.drainTo(orphans);
+		}
+		IllegalStateException stopped = new IllegalStateException(
+				"write-behind writers have stopped", death);
+		for (Entry entry : orphans)
+			entry.future.completeExceptionally(stopped);
+		done(orphans.size());
+	}
+}
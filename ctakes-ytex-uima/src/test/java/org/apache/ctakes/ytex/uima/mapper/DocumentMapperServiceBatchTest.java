@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import com.google.common.base.Strings;
+import org.apache.ctakes.ytex.uima.ApplicationContextHolder;
+import org.apache.ctakes.ytex.uima.TestUtils;
+import org.apache.ctakes.ytex.uima.types.DocKey;
+import org.apache.ctakes.ytex.uima.types.KeyValuePair;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.AggregateBuilder;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * saves the same documents one at a time and in multi-document batches with
+ * the real {@link DocumentMapperServiceImpl}, and verifies that the stored
+ * rows are the same.
+ */
+public class DocumentMapperServiceBatchTest {
+	private static final String[] TEXTS = {
+			"Title: US Abdomen\n\nDr. Doolitle asked patient\nto take a deep breath\nand exhale slowly.  Patient coughed.",
+			"Title: Chest\n\nNo acute distress.  Lungs are clear.",
+			"Prescribed acetominophen.  Follow up in two weeks.",
+			"Title: Knee\n\nPatient fell and twisted the left knee.  Mild swelling.  No fracture seen." };
+	private static final String[] TABLES = { "anno_base", "anno_segment",
+			"anno_sentence", "anno_token" };
+
+	static ApplicationContext ctx = null;
+	static AnalysisEngine engine = null;
+	static DocumentMapperService documentMapperService = null;
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		ctx = ApplicationContextHolder.getApplicationContext();
+		documentMapperService = (DocumentMapperService) ctx
+				.getBean("documentMapperService");
+		AggregateBuilder builder = new AggregateBuilder();
+		TestUtils.addDescriptor(builder,
+				"desc/analysis_engine/SegmentRegexAnnotator.xml");
+		TestUtils.addDescriptor(builder,
+				"desc/analysis_engine/SentenceDetectorAnnotator.xml");
+		TestUtils.addDescriptor(builder,
+				"../ctakes-core/desc/analysis_engine/TokenizerAnnotator.xml");
+		engine = builder.createAggregate();
+	}
+
+	@AfterClass
+	public static void cleanup() {
+		((ConfigurableApplicationContext) ctx).close();
+	}
+
+	@Test
+	public void testBatchMatchesSingleSave() throws Exception {
+		long key = System.currentTimeMillis() * 10;
+		String analysisBatch = "test-batch-" + key;
+		// one document per transaction
+		List<Long> singleKeys = new ArrayList<Long>();
+		for (String text : TEXTS) {
+			singleKeys.add(key);
+			documentMapperService.saveDocuments(Collections
+					.singletonList(mapDocument(text, key++, analysisBatch)));
+		}
+		// all documents in one transaction
+		List<Long> batchKeys = new ArrayList<Long>();
+		List<DocumentRecord> records = new ArrayList<DocumentRecord>();
+		for (String text : TEXTS) {
+			batchKeys.add(key);
+			records.add(mapDocument(text, key++, analysisBatch));
+		}
+		List<Integer> documentIds = documentMapperService
+				.saveDocuments(records);
+		Assert.assertEquals(TEXTS.length, documentIds.size());
+		Assert.assertEquals(TEXTS.length, documentIds.stream().distinct()
+				.count());
+		// write-behind, which saves the queued documents in batches of 2
+		List<Long> writeBehindKeys = new ArrayList<Long>();
+		List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>();
+		DocumentWriteBehind writeBehind = new DocumentWriteBehind(
+				documentMapperService, 8, 1, 2);
+		try {
+			for (String text : TEXTS) {
+				writeBehindKeys.add(key);
+				futures.add(writeBehind.submit(mapDocument(text, key++,
+						analysisBatch)));
+			}
+			writeBehind.flush();
+		} finally {
+			writeBehind.close();
+		}
+		for (CompletableFuture<Integer> future : futures)
+			Assert.assertNotNull(future.getNow(null));
+		for (int i = 0; i < TEXTS.length; i++) {
+			for (String table : TABLES) {
+				int single = countRows(table, singleKeys.get(i));
+				Assert.assertTrue(table, single > 0);
+				Assert.assertEquals(table, single,
+						countRows(table, batchKeys.get(i)));
+				Assert.assertEquals(table, single,
+						countRows(table, writeBehindKeys.get(i)));
+			}
+			int singleContainment = countContainment(singleKeys.get(i));
+			Assert.assertEquals(singleContainment, countContainment(batchKeys.get(i)));
+			Assert.assertEquals(singleContainment,
+					countContainment(writeBehindKeys.get(i)));
+		}
+	}
+
+	private static DocumentRecord mapDocument(String text, long key,
+			String analysisBatch) throws Exception {
+		JCas jCas = engine.newJCas();
+		jCas.setDocumentText(text);
+		DocKey docKey = new DocKey(jCas);
+		KeyValuePair kvp = new KeyValuePair(jCas);
+		kvp.setKey("instance_id");
+		kvp.setValueLong(key);
+		FSArray fsa = new FSArray(jCas, 1);
+		fsa.set(0, kvp);
+		docKey.setKeyValuePairs(fsa);
+		docKey.addToIndexes();
+		engine.process(jCas);
+		// the record must not depend upon the cas once it is mapped
+		DocumentRecord record = documentMapperService.mapDocument(jCas,
+				analysisBatch, false, false, true, null);
+		jCas.release();
+		return record;
+	}
+
+	private static String getSchemaPrefix() {
+		Properties ytexProperties = (Properties) ctx.getBean("ytexProperties");
+		String schema = ytexProperties.getProperty("db.schema");
+		return Strings.isNullOrEmpty(schema) ? "" : schema + ".";
+	}
+
+	private static int countRows(String table, long key) {
+		String prefix = getSchemaPrefix();
+		String query = "anno_base".equals(table) ? String.format(
+				"select count(*) from %sdocument d inner join %sanno_base ab on ab.document_id = d.document_id where d.instance_id=%s",
+				prefix, prefix, key) : String.format(
+				"select count(*) from %sdocument d inner join %sanno_base ab on ab.document_id = d.document_id inner join %s%s s on s.anno_base_id = ab.anno_base_id where d.instance_id=%s",
+				prefix, prefix, prefix, table, key);
+		return new JdbcTemplate(ctx.getBean(DataSource.class))
+				.queryForObject(query, Integer.class);
+	}
+
+	private static int countContainment(long key) {
+		String prefix = getSchemaPrefix();
+		String query = String.format(
+				"select count(*) from %sdocument d inner join %sanno_base ab on ab.document_id = d.document_id inner join %sanno_contain c on c.parent_anno_base_id = ab.anno_base_id where d.instance_id=%s",
+				prefix, prefix, prefix, key);
+		return new JdbcTemplate(ctx.getBean(DataSource.class))
+				.queryForObject(query, Integer.class);
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import org.apache.ctakes.ytex.uima.model.Document;
+import org.apache.uima.jcas.JCas;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+public class DocumentWriteBehindTest {
+
+	/**
+	 * assigns consecutive document ids, optionally fails or blocks
+	 */
+	private static class MockDocumentMapperService implements
+			DocumentMapperService {
+		private final List<Integer> batchSizes = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		private volatile CountDownLatch blocker;
+		private int nextId = 1;
+		private volatile boolean fail;
+		private volatile Error fatal;
+
+		@Override
+		public Integer saveDocument(JCas jcas, String analysisBatch,
+				boolean bStoreDocText, boolean bStoreCAS,
+				boolean bInsertAnnotationContainmentLinks,
+				Set<String> typesToIgnore) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public DocumentRecord mapDocument(JCas jcas, String analysisBatch,
+				boolean bStoreDocText, boolean bStoreCAS,
+				boolean bInsertAnnotationContainmentLinks,
+				Set<String> typesToIgnore) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public synchronized List<Integer> saveDocuments(
+				List<DocumentRecord> records) {
+			try {
+				if (blocker != null)
+					blocker.await();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			if (fatal != null)
+				throw fatal;
+			if (fail)
+				throw new IllegalArgumentException("save failed");
+			batchSizes.add(records.size());
+			List<Integer> ids = new ArrayList<Integer>();
+			for (DocumentRecord record : records) {
+				record.getDocument().setDocumentID(nextId);
+				ids.add(nextId++);
+			}
+			return ids;
+		}
+	}
+
+	private static DocumentRecord record() {
+		return new DocumentRecord(new Document(), false);
+	}
+
+	@Test
+	public void testFlushWaitsForQueuedDocuments() throws Exception {
+		MockDocumentMapperService svc = new MockDocumentMapperService();
+		svc.blocker = new CountDownLatch(1);
+		DocumentWriteBehind writeBehind = new DocumentWriteBehind(svc, 16, 1,
+				4);
+		try {
+			List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>();
+			for (int i = 0; i < 9; i++)
+				futures.add(writeBehind.submit(record()));
+			svc.blocker.countDown();
+			writeBehind.flush();
+			int total = 0;
+			for (int batchSize : svc.batchSizes) {
+				Assert.assertTrue(batchSize <= 4);
+				total += batchSize;
+			}
+			Assert.assertEquals(9, total);
+			// the writer was blocked on the first document, the rest are
+			// saved in batches
+			Assert.assertTrue(svc.batchSizes.size() < 9);
+			for (int i = 0; i < futures.size(); i++)
+				Assert.assertEquals(Integer.valueOf(i + 1), futures.get(i)
+						.getNow(null));
+		} finally {
+			writeBehind.close();
+		}
+	}
+
+	@Test
+	public void testErrorReportedOnFlush() throws Exception {
+		MockDocumentMapperService svc = new MockDocumentMapperService();
+		svc.fail = true;
+		DocumentWriteBehind writeBehind = new DocumentWriteBehind(svc, 4, 2,
+				4);
+		try {
+			CompletableFuture<Integer> future = writeBehind.submit(record());
+			try {
+				writeBehind.flush();
+				Assert.fail("expected IllegalStateException");
+			} catch (IllegalStateException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+			}
+			try {
+				future.get();
+				Assert.fail("expected ExecutionException");
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+			}
+			// the error is reported once, later documents are saved
+			svc.fail = false;
+			Assert.assertEquals(Integer.valueOf(1), writeBehind.submit(record())
+					.get());
+			writeBehind.flush();
+		} finally {
+			writeBehind.close();
+		}
+	}
+
+	@Test
+	public void testFailFastWhenWritersStop() throws Exception {
+		MockDocumentMapperService svc = new MockDocumentMapperService();
+		Error fatal = new OutOfMemoryError("save failed");
+		svc.fatal = fatal;
+		DocumentWriteBehind writeBehind = new DocumentWriteBehind(svc, 4, 1,
+				4);
+		try {
+			CompletableFuture<Integer> future = writeBehind.submit(record());
+			try {
+				future.get();
+				Assert.fail("expected ExecutionException");
+			} catch (ExecutionException e) {
+				Assert.assertSame(fatal, e.getCause());
+			}
+			try {
+				writeBehind.flush();
+				Assert.fail("expected IllegalStateException");
+			} catch (IllegalStateException e) {
+				Assert.assertSame(fatal, e.getCause());
+			}
+			// the only writer stops, after which nothing can be submitted
+			svc.fatal = null;
+			boolean stopped = false;
+			for (int i = 0; i < 100 && !stopped; i++) {
+				try {
+					writeBehind.submit(record());
+					Thread.sleep(50);
+				} catch (IllegalStateException e) {
+					stopped = true;
+				}
+			}
+			Assert.assertTrue(stopped);
+			try {
+				writeBehind.submit(record());
+				Assert.fail("expected IllegalStateException");
+			} catch (IllegalStateException e) {
+				Assert.assertSame(fatal, e.getCause());
+			}
+		} finally {
+			writeBehind.close();
+		}
+	}
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.ytex.kernel.dao;
 
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 
 import java.io.IOException;
@@ -54,9 +55,25 @@ public interface ConceptDao {
 	 */
 	public abstract ConceptGraph getConceptGraph(String name);
 
+	/**
+	 * retrieve the compact form of an existing concept graph. Looks for
+	 * [name].csr in the same places as {@link #getConceptGraph(String)}; a
+	 * file is memory mapped. If there is no compact graph, or it is older than
+	 * the concept graph file, it is built from the concept graph and written
+	 * next to the concept graph file.
+	 * 
+	 * @param name
+	 *            name of concept graph.
+	 * @param cg
+	 *            the concept graph if it has already been loaded, else null.
+	 * @return null if the concept graph does not exist
+	 */
+	public abstract CompactConceptGraph getCompactConceptGraph(String name,
+			ConceptGraph cg);
+
 	/**
 	 * create the concept graph with specified name using specified query. Will
-	 * create a file [name].gz under dir.
+	 * create a file [name].gz and its compact form [name].csr under dir.
 	 * 
 	 * @param dir
 	 *            directory of concept graph (optional). If null will use
@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableMap;
 import org.apache.commons.cli.*;
 import org.apache.ctakes.ytex.kernel.IntrinsicInfoContentEvaluator;
 import org.apache.ctakes.ytex.kernel.KernelContextHolder;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConcRel;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 import org.slf4j.LoggerFactory;
@@ -325,6 +326,9 @@ public class ConceptDaoImpl implements ConceptDao {
 						.evaluateIntrinsicInfoContent(name, outputDir, cg);
 			}
 			writeConceptGraph(outputDir, name, cg);
+			writeCompactConceptGraph(new File(outputDir + "/" + name + ".csr"),
+					CompactConceptGraph.fromConceptGraph(cg), new File(outputDir
+							+ "/" + name + ".gz"));
 		}
 	}
 
@@ -347,6 +351,99 @@ public class ConceptDaoImpl implements ConceptDao {
 		return cg;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.apache.ctakes.ytex.kernel.dao.ConceptDao#getCompactConceptGraph(java
+	 * .lang.String, org.apache.ctakes.ytex.kernel.model.ConceptGraph)
+	 */
+	public CompactConceptGraph getCompactConceptGraph(String name,
+			ConceptGraph cg) {
+		try {
+			// try loading from classpath
+			URL cgUrl = this.getClass().getClassLoader()
+					.getResource(CONCEPT_GRAPH_PATH + name + ".gz");
+			URL csrUrl = this.getClass().getClassLoader()
+					.getResource(CONCEPT_GRAPH_PATH + name + ".csr");
+			File cgFile = urlToFile(cgUrl);
+			File csrFile = urlToFile(csrUrl);
+			if (cgUrl == null) {
+				String cdir = this.getDefaultConceptGraphDir();
+				if (cdir != null) {
+					cgFile = new File(cdir + "/" + name + ".gz");
+					if (csrUrl == null)
+						csrFile = new File(cdir + "/" + name + ".csr");
+				}
+			} else if (cgFile != null && csrFile == null) {
+				csrFile = new File(cgFile.getParentFile(), name + ".csr");
+			}
+			if (csrFile != null && csrFile.exists()) {
+				if (cgFile == null || !cgFile.exists()
+						|| isCompactConceptGraphCurrent(csrFile, cgFile)) {
+					LOGGER.info("mapping compact concept graph "
+							+ csrFile.getAbsolutePath());
+					return CompactConceptGraph.map(csrFile);
+				}
+				LOGGER.info("compact concept graph " + csrFile.getAbsolutePath()
+						+ " was not built from " + cgFile.getAbsolutePath()
+						+ ", rebuilding");
+			} else if (csrFile == null && csrUrl != null
+					&& (cgUrl == null || cgFile == null)) {
+				// compact graph packaged in a jar
+				LOGGER.info("loading compact concept graph from " + csrUrl);
+				InputStream is = csrUrl.openStream();
+				try {
+					return CompactConceptGraph.read(is);
+				} finally {
+					is.close();
+				}
+			}
+			if (cg == null)
+				cg = this.getConceptGraph(name);
+			if (cg == null)
+				return null;
+			CompactConceptGraph ccg = CompactConceptGraph.fromConceptGraph(cg);
+			if (csrFile != null)
+				writeCompactConceptGraph(csrFile, ccg, cgFile);
+			return ccg;
+		} catch (IOException ioe) {
+			throw new RuntimeException(ioe);
+		}
+	}
+
+	/**
+	 * @return true if the compact graph file is at least as new as the concept
+	 *         graph file and was built from its current contents
+	 */
+	private boolean isCompactConceptGraphCurrent(File csrFile, File cgFile)
+			throws IOException {
+		return csrFile.lastModified() >= cgFile.lastModified()
+				&& CompactConceptGraph.readSourceChecksum(csrFile) == CompactConceptGraph
+						.checksum(cgFile);
+	}
+
+	/**
+	 * the compact graph is only a faster form of the concept graph, so failing
+	 * to write it is not an error
+	 * 
+	 * @param cgFile
+	 *            the concept graph file the compact graph was built from, if
+	 *            any
+	 */
+	private void writeCompactConceptGraph(File csrFile,
+			CompactConceptGraph ccg, File cgFile) {
+		try {
+			LOGGER.info("writing compact concept graph: "
+					+ csrFile.getAbsolutePath());
+			ccg.write(csrFile, cgFile != null && cgFile.exists() ? CompactConceptGraph
+					.checksum(cgFile) : 0L);
+		} catch (IOException ioe) {
+			LOGGER.warn("could not write compact concept graph "
+					+ csrFile.getAbsolutePath() + ": " + ioe.getMessage());
+		}
+	}
+
 	private File urlToFile(URL url) {
 		if (url != null && "file".equals(url.getProtocol())) {
 			File f;
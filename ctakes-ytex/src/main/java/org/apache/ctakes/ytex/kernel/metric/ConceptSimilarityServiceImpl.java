@@ -21,7 +21,6 @@ package org.apache.ctakes.ytex.kernel.metric;
 import com.google.common.collect.ImmutableMap;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
 import org.apache.commons.cli.*;
 import org.apache.ctakes.ytex.kernel.ImputedFeatureEvaluator;
 import org.apache.ctakes.ytex.kernel.InfoContentEvaluator;
@@ -29,6 +28,8 @@ import org.apache.ctakes.ytex.kernel.IntrinsicInfoContentEvaluator;
 import org.apache.ctakes.ytex.kernel.SimSvcContextHolder;
 import org.apache.ctakes.ytex.kernel.dao.ClassifierEvaluationDao;
 import org.apache.ctakes.ytex.kernel.dao.ConceptDao;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph.LeastCommonSubsumers;
 import org.apache.ctakes.ytex.kernel.model.ConcRel;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.FeatureRank;
@@ -51,6 +52,8 @@ import java.util.*;
  */
 public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	private static final Logger LOGGER = LoggerFactory.getLogger( "ConceptSimilarityServiceImpl" );
+	private static final int DEFAULT_LCS_CACHE_SIZE = 1 << 16;
+	private static final int MAX_LCS_CACHE_BITS = 24;
 
 	private static String formatPaths(List<LCSPath> lcsPaths) {
 		StringBuilder b = new StringBuilder();
@@ -233,10 +236,29 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		}
 	}
 
+	/**
+	 * entry of the direct mapped lcs cache. immutable, so that entries can be
+	 * replaced without locking.
+	 */
+	private static final class LcsCacheEntry {
+		private final long key;
+		private final LeastCommonSubsumers lcs;
+
+		private LcsCacheEntry(long key, LeastCommonSubsumers lcs) {
+			this.key = key;
+			this.lcs = lcs;
+		}
+	}
+
 	private CacheManager cacheManager;
 
 	private ConceptGraph cg = null;
 
+	/**
+	 * compact form of cg used for lcs and info content computations
+	 */
+	private CompactConceptGraph ccg = null;
+
 	private ClassifierEvaluationDao classifierEvaluationDao;
 
 	private ConceptDao conceptDao;
@@ -260,13 +282,21 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	 * cache to hold lcs's
 	 */
 	private Cache lcsCache;
+	/**
+	 * lcs's keyed by the node indexes of concept pairs, sized by lcsCache
+	 */
+	private LcsCacheEntry[] lcsCacheEntries;
+	private int lcsCacheShift;
 	private String lcsImputedType = ImputedFeatureEvaluator.MeasureType.INFOGAIN
 			.getName();
 
 	private PageRankService pageRankService;
 
 	private boolean preload = true;
-	private Map<String, Double> corpusICMap;
+	/**
+	 * corpus info content indexed by node index
+	 */
+	private double[] corpusIC;
 
 	private Map<SimilarityMetricEnum, SimilarityMetric> similarityMetricMap = null;
 	private PlatformTransactionManager transactionManager;
@@ -500,9 +530,9 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		// if (frMap.containsKey(concept))
 		// return frMap.get(concept).getRank();
 		// }
-		ConcRel cr = this.cg.getConceptMap().get(concept);
-		if (cr != null)
-			return cr.getDepth();
+		int node = getNodeIndex(concept);
+		if (node >= 0)
+			return ccg.getDepth(node);
 		return 0;
 	}
 
@@ -510,14 +540,16 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	public double getIC(String concept, boolean intrinsicICMap) {
 		double ic = 0d;
 		if (intrinsicICMap) {
-			ConcRel cr = this.cg.getConceptMap().get(concept);
-			if (cr != null)
-				ic = cr.getIntrinsicInfoContent();
+			int node = getNodeIndex(concept);
+			if (node >= 0)
+				ic = ccg.getIntrinsicInfoContent(node);
 		} else {
 			Double icC = null;
 			if (isPreload()) {
 				// we preloaded all ic - just look in the cache
-				icC = this.corpusICMap.get(concept);
+				int node = getNodeIndex(concept);
+				if (node >= 0 && this.corpusIC != null)
+					icC = this.corpusIC[node];
 			} else {
 				// we need to load the ic from the database on demand
 				Map<String, FeatureRank> frMap = getICOnDemand(
@@ -585,16 +617,28 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	// return 0;
 	// }
 
+	/**
+	 * @return node index of the concept in the compact concept graph, -1 if it
+	 *         is not in the graph
+	 */
+	private int getNodeIndex(String concept) {
+		if (cg != null && cg.getConceptMap() != null) {
+			ConcRel cr = cg.getConceptMap().get(concept);
+			return cr != null ? cr.getNodeIndex() : -1;
+		}
+		return ccg != null ? ccg.getNodeIndex(concept) : -1;
+	}
+
 	public int getLCS(String concept1, String concept2, Set<String> lcses,
 			List<LCSPath> lcsPaths) {
 		int lcsDist = 0;
-		ConcRel cr1 = getConceptGraph().getConceptMap().get(concept1);
-		ConcRel cr2 = getConceptGraph().getConceptMap().get(concept2);
-		if (cr1 != null && cr2 != null) {
+		int node1 = getNodeIndex(concept1);
+		int node2 = getNodeIndex(concept2);
+		if (node1 >= 0 && node2 >= 0) {
 			lcses.clear();
 			if (lcsPaths == null) {
 				// no need to get paths which we don't cache - look in the cache
-				lcsDist = getLCSFromCache(cr1, cr2, lcses);
+				lcsDist = getLCSFromCache(node1, node2, lcses);
 			} else {
 				lcsPaths.clear();
 				// need to get paths - compute the lcses and their paths
@@ -605,9 +649,9 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 			}
 		} else {
 			if ( LOGGER.isDebugEnabled()) {
-				if (cr1 == null)
+				if (node1 < 0)
 					LOGGER.debug("could not find concept:" + concept1);
-				if (cr2 == null)
+				if (node2 < 0)
 					LOGGER.debug("could not find concept:" + concept2);
 			}
 		}
@@ -618,45 +662,30 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		return lcsCache;
 	}
 
-	@SuppressWarnings("unchecked")
-	private int getLCSFromCache(ConcRel cr1, ConcRel cr2, Set<String> lcses) {
-		StringBuilder cacheKeyBuilder = new StringBuilder(this.conceptGraphName);
-		cacheKeyBuilder
-				.append(cr1.getConceptID().compareTo(cr2.getConceptID()) < 0 ? cr1
-						.getConceptID() : cr2.getConceptID());
-		cacheKeyBuilder
-				.append(cr1.getConceptID().compareTo(cr2.getConceptID()) >= 0 ? cr2
-						.getConceptID() : cr1.getConceptID());
-		String cacheKey = cacheKeyBuilder.toString();
-		Element e = this.lcsCache != null ? this.lcsCache.get(cacheKey) : null;
-		if (e != null) {
-			// hit the cache - unpack the lcs
-			if (e.getObjectValue() != null) {
-				Object[] val = (Object[]) e.getObjectValue();
-				lcses.addAll((Set<String>) val[1]);
-				return (Integer) val[0];
-			} else {
-				return -1;
-			}
-		} else {
+	private int getLCSFromCache(int node1, int node2, Set<String> lcses) {
+		LeastCommonSubsumers lcs = null;
+		LcsCacheEntry[] entries = this.lcsCacheEntries;
+		long key = 0;
+		int slot = 0;
+		if (entries != null) {
+			// the lcs is symmetric - key on the ordered pair
+			key = ((long) Math.min(node1, node2) << 32)
+					| Math.max(node1, node2);
+			slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> lcsCacheShift);
+			LcsCacheEntry e = entries[slot];
+			if (e != null && e.key == key)
+				lcs = e.lcs;
+		}
+		if (lcs == null) {
 			// missed the cache - save the lcs
-			Object[] val = null;
-			Set<ConcRel> lcsCRSet = new HashSet<ConcRel>(2);
-			int dist = ConcRel.getLeastCommonConcept(cr1, cr2, lcsCRSet, null);
-			if (dist >= 0) {
-				val = new Object[2];
-				val[0] = dist;
-				for (ConcRel cr : lcsCRSet) {
-					lcses.add(cr.getConceptID());
-				}
-				val[1] = lcses;
-			}
-			if (this.lcsCache != null) {
-				e = new Element(cacheKey, val);
-				this.lcsCache.put(e);
-			}
-			return dist;
+			lcs = ccg.getLeastCommonSubsumers(node1, node2, false);
+			if (entries != null)
+				entries[slot] = new LcsCacheEntry(key, lcs);
+		}
+		for (int i = 0; i < lcs.getConceptCount(); i++) {
+			lcses.add(ccg.getConceptId(lcs.getConcept(i)));
 		}
+		return lcs.getDistance();
 	}
 
 	public String getLcsImputedType() {
@@ -686,6 +715,9 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		if (cg == null) {
 			LOGGER.warn("concept graph null, name: " + conceptGraphName);
 		} else {
+			ccg = conceptDao.getCompactConceptGraph(conceptGraphName, cg);
+			if (ccg != null && pageRankService != null)
+				pageRankService.setCompactConceptGraph(cg, ccg);
 			initSimilarityMetricMap();
 			if (isPreload()) {
 				try {
@@ -796,14 +828,17 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		if (corpusICMap == null || corpusICMap.isEmpty()) {
 			LOGGER.warn("IC not found");
 		}
-		ImmutableMap.Builder<String, Double> mb = new ImmutableMap.Builder<String, Double>();
-		for (Map.Entry<String, Double> corpusICEntry : corpusICMap.entrySet()) {
-			ConcRel cr = cg.getConceptMap().get(corpusICEntry.getKey());
-			if (cr != null) {
-				mb.put(cr.getConceptID(), corpusICEntry.getValue());
+		double[] ic = new double[ccg.size()];
+		if (corpusICMap != null) {
+			for (Map.Entry<String, Double> corpusICEntry : corpusICMap
+					.entrySet()) {
+				int node = getNodeIndex(corpusICEntry.getKey());
+				if (node >= 0) {
+					ic[node] = corpusICEntry.getValue();
+				}
 			}
 		}
-		this.corpusICMap = mb.build();
+		this.corpusIC = ic;
 		// ConceptInfo ci = this.conceptInfoCache[cr.getNodeIndex()];
 		// if (ci == null) {
 		// // this shouldn't happen! there should be intrinsic ic for
@@ -861,19 +896,41 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		}
 	}
 
+	/**
+	 * size the direct mapped lcs cache like the configured lcsCache. Without
+	 * an lcsCache lcses are not cached.
+	 */
+	@SuppressWarnings("deprecation")
+	private void initLcsCache() {
+		if (this.lcsCache == null) {
+			this.lcsCacheEntries = null;
+			return;
+		}
+		int maxElements = this.lcsCache.getCacheConfiguration()
+				.getMaxElementsInMemory();
+		// 0 means unbounded
+		if (maxElements <= 0)
+			maxElements = DEFAULT_LCS_CACHE_SIZE;
+		int bits = 32 - Integer.numberOfLeadingZeros(Math.max(maxElements, 2) - 1);
+		bits = Math.min(bits, MAX_LCS_CACHE_BITS);
+		this.lcsCacheShift = 64 - bits;
+		this.lcsCacheEntries = new LcsCacheEntry[1 << bits];
+	}
+
 	public boolean isPreload() {
 		return preload;
 	}
 
 	public int lcs(String concept1, String concept2, List<LCSPath> lcsPaths) {
-		ConcRel cr1 = cg.getConceptMap().get(concept1);
-		ConcRel cr2 = cg.getConceptMap().get(concept2);
+		int node1 = getNodeIndex(concept1);
+		int node2 = getNodeIndex(concept2);
 		int dist = -1;
-		if (cr1 != null && cr2 != null) {
-			Set<ConcRel> crlcses = new HashSet<ConcRel>();
-			Map<ConcRel, LCSPath> crpaths = new HashMap<ConcRel, LCSPath>();
-			dist = ConcRel.getLeastCommonConcept(cr1, cr2, crlcses, crpaths);
-			lcsPaths.addAll(crpaths.values());
+		if (node1 >= 0 && node2 >= 0) {
+			LeastCommonSubsumers lcs = ccg.getLeastCommonSubsumers(node1,
+					node2, true);
+			dist = lcs.getDistance();
+			if (lcs.getPaths() != null)
+				lcsPaths.addAll(lcs.getPaths());
 		}
 		return dist;
 	}
@@ -970,6 +1027,7 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 
 	public void setLcsCache(Cache lcsCache) {
 		this.lcsCache = lcsCache;
+		initLcsCache();
 	}
 
 	public void setLcsImputedType(String lcsImputedType) {
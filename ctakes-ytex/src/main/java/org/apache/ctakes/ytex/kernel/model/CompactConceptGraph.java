@@ -0,0 +1,758 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.model;
+
+import org.apache.ctakes.ytex.kernel.metric.LCSPath;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only concept graph stored in compressed sparse row form.
+ * <p>
+ * Concepts are identified by their node index, which is the index of the
+ * corresponding {@link ConcRel} in {@link ConceptGraph#getConceptList()}. The
+ * parents and children of all concepts are kept in flat int arrays addressed
+ * by offset arrays, and depth and intrinsic information content in primitive
+ * arrays, so that there is no object per concept.
+ * <p>
+ * All arrays live in a single little endian buffer with the same layout as
+ * the file written by {@link #write(File)}. {@link #map(File)} memory maps
+ * that file, so a graph can be shared between processes and loaded without
+ * deserialization.
+ * <p>
+ * Least common subsumer searches run on reused scratch arrays and bitset
+ * frontiers, and allocate only the result. The graph may be searched by
+ * several threads at once.
+ *
+ * @author vijay
+ */
+public class CompactConceptGraph {
+	/**
+	 * first int of a compact concept graph file, "CTCG"
+	 */
+	public static final int MAGIC = 0x43544347;
+	public static final int VERSION = 2;
+
+	private static final int HEADER_BYTES = 48;
+	/**
+	 * header position of the checksum of the file the graph was built from
+	 */
+	private static final int SOURCE_CHECKSUM_POSITION = 40;
+	private static final int NO_NODE = -1;
+
+	/**
+	 * least common subsumers of a pair of concepts and the length of the path
+	 * between the concepts via the subsumers.
+	 */
+	public static final class LeastCommonSubsumers implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * result for concepts without a common subsumer
+		 */
+		public static final LeastCommonSubsumers NONE = new LeastCommonSubsumers(
+				-1, new int[0], null);
+
+		private final int distance;
+		private final int[] concepts;
+		private final List<LCSPath> paths;
+
+		private LeastCommonSubsumers(int distance, int[] concepts,
+				List<LCSPath> paths) {
+			this.distance = distance;
+			this.concepts = concepts;
+			this.paths = paths;
+		}
+
+		/**
+		 * @return path length, -1 if there is no lcs
+		 */
+		public int getDistance() {
+			return distance;
+		}
+
+		public int getConceptCount() {
+			return concepts.length;
+		}
+
+		/**
+		 * @return node index of the i'th lcs
+		 */
+		public int getConcept(int i) {
+			return concepts[i];
+		}
+
+		/**
+		 * @return paths between the concepts via each lcs, null if paths were
+		 *         not requested
+		 */
+		public List<LCSPath> getPaths() {
+			return paths;
+		}
+	}
+
+	/**
+	 * build the compact form of a concept graph
+	 *
+	 * @param cg
+	 *            concept graph, with or without object relations constructed
+	 * @return compact concept graph backed by a heap buffer
+	 */
+	public static CompactConceptGraph fromConceptGraph(ConceptGraph cg) {
+		List<ConcRel> concepts = cg.getConceptList();
+		int n = concepts.size();
+		int[][] parents = new int[n][];
+		int[][] children = new int[n][];
+		byte[][] ids = new byte[n][];
+		int parentEdges = 0;
+		int childEdges = 0;
+		int idBytes = 0;
+		int root = NO_NODE;
+		for (int i = 0; i < n; i++) {
+			ConcRel cr = concepts.get(i);
+			if (cr.getNodeIndex() != i) {
+				throw new IllegalArgumentException("concept " + cr.getConceptID()
+						+ " has node index " + cr.getNodeIndex() + " at position "
+						+ i);
+			}
+			parents[i] = cr.getParentsArray() != null ? cr.getParentsArray()
+					: toIndexes(cr.getParents());
+			children[i] = cr.getChildrenArray() != null ? cr.getChildrenArray()
+					: toIndexes(cr.getChildren());
+			ids[i] = cr.getConceptID().getBytes(StandardCharsets.UTF_8);
+			parentEdges += parents[i].length;
+			childEdges += children[i].length;
+			idBytes += ids[i].length;
+			if (cr.getConceptID().equals(cg.getRoot()))
+				root = i;
+		}
+		long size = HEADER_BYTES + 8L * n + 4L * (3 * (n + 1) + n)
+				+ 4L * (parentEdges + childEdges) + 2L * n + idBytes;
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"concept graph too large for compact form: " + size
+							+ " bytes");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(
+				ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(parentEdges)
+				.putInt(childEdges).putInt(cg.getDepthMax()).putInt(root)
+				.putInt(idBytes).putDouble(cg.getIntrinsicICMax()).putLong(0L);
+		for (ConcRel cr : concepts)
+			buffer.putDouble(cr.getIntrinsicInfoContent());
+		putAdjacency(buffer, parents);
+		putAdjacency(buffer, children);
+		int offset = 0;
+		for (byte[] id : ids) {
+			buffer.putInt(offset);
+			offset += id.length;
+		}
+		buffer.putInt(offset);
+		for (int i : sortById(ids))
+			buffer.putInt(i);
+		for (ConcRel cr : concepts)
+			buffer.putShort(cr.getDepth());
+		for (byte[] id : ids)
+			buffer.put(id);
+		buffer.flip();
+		return new CompactConceptGraph(buffer);
+	}
+
+	/**
+	 * memory map a compact concept graph file
+	 */
+	public static CompactConceptGraph map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("compact concept graph too large to map: "
+						+ file);
+			}
+			return new CompactConceptGraph(channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IllegalArgumentException e) {
+			throw new IOException(file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * read a compact concept graph onto the heap, e.g. from the classpath
+	 */
+	public static CompactConceptGraph read(InputStream is) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] chunk = new byte[1 << 16];
+		int read;
+		while ((read = is.read(chunk)) >= 0)
+			bytes.write(chunk, 0, read);
+		try {
+			return new CompactConceptGraph(ByteBuffer.wrap(bytes.toByteArray()));
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	private static void putAdjacency(ByteBuffer buffer, int[][] adjacency) {
+		int offset = 0;
+		for (int[] nodes : adjacency) {
+			buffer.putInt(offset);
+			offset += nodes.length;
+		}
+		buffer.putInt(offset);
+		for (int[] nodes : adjacency)
+			for (int node : nodes)
+				buffer.putInt(node);
+	}
+
+	private static int[] toIndexes(Set<ConcRel> crs) {
+		int[] indexes = new int[crs.size()];
+		int i = 0;
+		for (ConcRel cr : crs)
+			indexes[i++] = cr.getNodeIndex();
+		return indexes;
+	}
+
+	private static int[] sortById(final byte[][] ids) {
+		Integer[] order = new Integer[ids.length];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return compareBytes(ids[i1], 0, ids[i1].length, ids[i2]);
+			}
+		});
+		int[] sorted = new int[order.length];
+		for (int i = 0; i < order.length; i++)
+			sorted[i] = order[i];
+		return sorted;
+	}
+
+	/**
+	 * unsigned comparison, which for utf-8 is code point order
+	 */
+	private static int compareBytes(byte[] b1, int start, int end, byte[] b2) {
+		int len1 = end - start;
+		int len = Math.min(len1, b2.length);
+		for (int i = 0; i < len; i++) {
+			int c = (b1[start + i] & 0xff) - (b2[i] & 0xff);
+			if (c != 0)
+				return c;
+		}
+		return len1 - b2.length;
+	}
+
+	private final ByteBuffer buffer;
+	private final int size;
+	private final int depthMax;
+	private final int root;
+	private final double intrinsicICMax;
+	private final long sourceChecksum;
+	private final DoubleBuffer intrinsicIC;
+	private final IntBuffer parentOffsets;
+	private final IntBuffer parents;
+	private final IntBuffer childOffsets;
+	private final IntBuffer children;
+	private final IntBuffer idOffsets;
+	private final IntBuffer sortedIds;
+	private final ShortBuffer depths;
+	private final ByteBuffer idBytes;
+	// scratch space is pooled rather than thread local so that it is released
+	// with the graph
+	private final Queue<LcsSearch> lcsSearches = new ConcurrentLinkedQueue<LcsSearch>();
+
+	private CompactConceptGraph(ByteBuffer buffer) {
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt(0) != MAGIC)
+			throw new IllegalArgumentException("not a compact concept graph");
+		if (buffer.getInt(4) != VERSION)
+			throw new IllegalArgumentException(
+					"unsupported compact concept graph version: "
+							+ buffer.getInt(4));
+		size = buffer.getInt(8);
+		int parentEdges = buffer.getInt(12);
+		int childEdges = buffer.getInt(16);
+		depthMax = buffer.getInt(20);
+		root = buffer.getInt(24);
+		int idByteCount = buffer.getInt(28);
+		intrinsicICMax = buffer.getDouble(32);
+		sourceChecksum = buffer.getLong(SOURCE_CHECKSUM_POSITION);
+		int position = HEADER_BYTES;
+		intrinsicIC = section(position, 8 * size).asDoubleBuffer();
+		position += 8 * size;
+		parentOffsets = section(position, 4 * (size + 1)).asIntBuffer();
+		position += 4 * (size + 1);
+		parents = section(position, 4 * parentEdges).asIntBuffer();
+		position += 4 * parentEdges;
+		childOffsets = section(position, 4 * (size + 1)).asIntBuffer();
+		position += 4 * (size + 1);
+		children = section(position, 4 * childEdges).asIntBuffer();
+		position += 4 * childEdges;
+		idOffsets = section(position, 4 * (size + 1)).asIntBuffer();
+		position += 4 * (size + 1);
+		sortedIds = section(position, 4 * size).asIntBuffer();
+		position += 4 * size;
+		depths = section(position, 2 * size).asShortBuffer();
+		position += 2 * size;
+		idBytes = section(position, idByteCount);
+	}
+
+	private ByteBuffer section(int position, int length) {
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(position);
+		dup.limit(position + length);
+		return dup.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * write the graph; the file can be loaded with {@link #map(File)}
+	 */
+	public void write(File file) throws IOException {
+		write(file, sourceChecksum);
+	}
+
+	/**
+	 * write the graph, recording the file it was built from
+	 * 
+	 * @param sourceChecksum
+	 *            {@link #checksum(File)} of the file the graph was built from
+	 */
+	public void write(File file, long sourceChecksum) throws IOException {
+		if (file.getParentFile() != null && !file.getParentFile().exists())
+			file.getParentFile().mkdirs();
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+					ByteOrder.LITTLE_ENDIAN);
+			ByteBuffer dup = buffer.duplicate();
+			dup.clear();
+			dup.limit(HEADER_BYTES);
+			header.put(dup).putLong(SOURCE_CHECKSUM_POSITION, sourceChecksum);
+			header.flip();
+			while (header.hasRemaining())
+				channel.write(header);
+			dup.limit(dup.capacity());
+			while (dup.hasRemaining())
+				channel.write(dup);
+		}
+	}
+
+	/**
+	 * @return checksum of the file's contents, used to tell whether a compact
+	 *         graph file was built from the current concept graph file
+	 */
+	public static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] chunk = new byte[1 << 16];
+		try (InputStream is = new FileInputStream(file)) {
+			int read;
+			while ((read = is.read(chunk)) >= 0)
+				crc.update(chunk, 0, read);
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * @return the source checksum recorded in a compact graph file, or -1 if
+	 *         the file is not a compact graph of the current version
+	 */
+	public static long readSourceChecksum(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+					ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0)
+					break;
+			}
+			if (header.hasRemaining() || header.getInt(0) != MAGIC
+					|| header.getInt(4) != VERSION)
+				return -1;
+			return header.getLong(SOURCE_CHECKSUM_POSITION);
+		}
+	}
+
+	/**
+	 * @return checksum of the file the graph was built from, 0 if unknown
+	 */
+	public long getSourceChecksum() {
+		return sourceChecksum;
+	}
+
+	/**
+	 * @return number of concepts
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getDepthMax() {
+		return depthMax;
+	}
+
+	public double getIntrinsicICMax() {
+		return intrinsicICMax;
+	}
+
+	/**
+	 * @return node index of the root, -1 if the graph has no root
+	 */
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return node index of the concept, -1 if it is not in the graph
+	 */
+	public int getNodeIndex(String conceptId) {
+		byte[] id = conceptId.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int node = sortedIds.get(mid);
+			int c = compareId(node, id);
+			if (c < 0)
+				low = mid + 1;
+			else if (c > 0)
+				high = mid - 1;
+			else
+				return node;
+		}
+		return NO_NODE;
+	}
+
+	private int compareId(int node, byte[] id) {
+		int start = idOffsets.get(node);
+		int end = idOffsets.get(node + 1);
+		int len = Math.min(end - start, id.length);
+		for (int i = 0; i < len; i++) {
+			int c = (idBytes.get(start + i) & 0xff) - (id[i] & 0xff);
+			if (c != 0)
+				return c;
+		}
+		return end - start - id.length;
+	}
+
+	public String getConceptId(int node) {
+		int start = idOffsets.get(node);
+		byte[] id = new byte[idOffsets.get(node + 1) - start];
+		for (int i = 0; i < id.length; i++)
+			id[i] = idBytes.get(start + i);
+		return new String(id, StandardCharsets.UTF_8);
+	}
+
+	public int getDepth(int node) {
+		return depths.get(node);
+	}
+
+	public double getIntrinsicInfoContent(int node) {
+		return intrinsicIC.get(node);
+	}
+
+	public int getParentCount(int node) {
+		return parentOffsets.get(node + 1) - parentOffsets.get(node);
+	}
+
+	/**
+	 * @return node index of the i'th parent of the node
+	 */
+	public int getParent(int node, int i) {
+		return parents.get(parentOffsets.get(node) + i);
+	}
+
+	public int getChildCount(int node) {
+		return childOffsets.get(node + 1) - childOffsets.get(node);
+	}
+
+	/**
+	 * @return node index of the i'th child of the node
+	 */
+	public int getChild(int node, int i) {
+		return children.get(childOffsets.get(node) + i);
+	}
+
+	/**
+	 * Find the least common subsumers of two concepts. Same dual breadth first
+	 * search as
+	 * {@link ConcRel#getLeastCommonConcept(ConcRel, ConcRel, Set, Map)}, and
+	 * the same results.
+	 *
+	 * @param concept1
+	 *            node index of concept1
+	 * @param concept2
+	 *            node index of concept2
+	 * @param withPaths
+	 *            compute the paths between the concepts via the lcses
+	 * @return lcses and path length, {@link LeastCommonSubsumers#NONE} if there
+	 *         is no lcs
+	 */
+	public LeastCommonSubsumers getLeastCommonSubsumers(int concept1,
+			int concept2, boolean withPaths) {
+		LcsSearch s = lcsSearches.poll();
+		if (s == null)
+			s = new LcsSearch(size);
+		try {
+			return s.search(concept1, concept2, withPaths);
+		} finally {
+			s.reset();
+			lcsSearches.offer(s);
+		}
+	}
+
+	/**
+	 * growable list of node indexes with a bitset for membership
+	 */
+	private static final class Frontier {
+		private int[] nodes = new int[16];
+		private int count = 0;
+		private final BitSet members;
+
+		private Frontier(int size) {
+			members = new BitSet(size);
+		}
+
+		private void add(int node) {
+			if (!members.get(node)) {
+				members.set(node);
+				if (count == nodes.length)
+					nodes = Arrays.copyOf(nodes, count * 2);
+				nodes[count++] = node;
+			}
+		}
+
+		/**
+		 * drop nodes whose membership bit has been cleared
+		 */
+		private void compact() {
+			int kept = 0;
+			for (int i = 0; i < count; i++) {
+				if (members.get(nodes[i]))
+					nodes[kept++] = nodes[i];
+			}
+			count = kept;
+		}
+
+		private void clear() {
+			for (int i = 0; i < count; i++)
+				members.clear(nodes[i]);
+			count = 0;
+		}
+	}
+
+	/**
+	 * scratch space for one lcs search at a time. Distances are stored plus 1,
+	 * so 0 means not visited, and only touched entries are reset after a
+	 * search.
+	 */
+	private final class LcsSearch {
+		private final short[] dist1;
+		private final short[] dist2;
+		private int[] pred1;
+		private int[] pred2;
+		private final Frontier[] frontiers1;
+		private final Frontier[] frontiers2;
+		private final Frontier added1;
+		private final Frontier added2;
+		private final Frontier candidates;
+		private final Frontier lcses;
+		private final Frontier touched;
+
+		private LcsSearch(int size) {
+			dist1 = new short[size];
+			dist2 = new short[size];
+			frontiers1 = new Frontier[] { new Frontier(size), new Frontier(size) };
+			frontiers2 = new Frontier[] { new Frontier(size), new Frontier(size) };
+			added1 = new Frontier(size);
+			added2 = new Frontier(size);
+			candidates = new Frontier(size);
+			lcses = new Frontier(size);
+			touched = new Frontier(size);
+		}
+
+		private LeastCommonSubsumers search(int c1, int c2, boolean withPaths) {
+			if (withPaths && pred1 == null) {
+				pred1 = new int[dist1.length];
+				pred2 = new int[dist1.length];
+				Arrays.fill(pred1, NO_NODE);
+				Arrays.fill(pred2, NO_NODE);
+			}
+			Frontier front1 = frontiers1[0];
+			Frontier next1 = frontiers1[1];
+			Frontier front2 = frontiers2[0];
+			Frontier next2 = frontiers2[1];
+			front1.add(c1);
+			front2.add(c2);
+			int maxIter = -1;
+			int dist = 0;
+			int minDist = Integer.MAX_VALUE - 1;
+			while ((front1.count > 0 || front2.count > 0) && maxIter != 0) {
+				expand(dist1, withPaths ? pred1 : null, c1, front1, next1,
+						added1, dist);
+				expand(dist2, withPaths ? pred2 : null, c2, front2, next2,
+						added2, dist);
+				Frontier tmp = front1;
+				front1 = next1;
+				next1 = tmp;
+				tmp = front2;
+				front2 = next2;
+				next2 = tmp;
+				// concepts reached from both sides for the first time
+				int firstCandidate = candidates.count;
+				for (int i = 0; i < added1.count; i++) {
+					if (dist2[added1.nodes[i]] > 0)
+						candidates.add(added1.nodes[i]);
+				}
+				for (int i = 0; i < added2.count; i++) {
+					if (dist1[added2.nodes[i]] > 0)
+						candidates.add(added2.nodes[i]);
+				}
+				added1.clear();
+				added2.clear();
+				if (candidates.count > firstCandidate) {
+					for (int i = firstCandidate; i < candidates.count; i++) {
+						removeParents(candidates.nodes[i], front1);
+						removeParents(candidates.nodes[i], front2);
+					}
+					front1.compact();
+					front2.compact();
+					for (int i = firstCandidate; i < candidates.count; i++) {
+						int lcs = candidates.nodes[i];
+						int d1 = dist1[lcs] - 1;
+						int d2 = dist2[lcs] - 1;
+						int distTmp = d1 + d2 + 1;
+						if (distTmp <= minDist) {
+							if (distTmp < minDist)
+								lcses.clear();
+							minDist = distTmp;
+							lcses.add(lcs);
+						}
+						int minLcsToConceptLen = Math.min(d1, d2);
+						if (maxIter < 0 || maxIter > minLcsToConceptLen)
+							maxIter = minLcsToConceptLen;
+					}
+				}
+				maxIter--;
+				++dist;
+			}
+			front1.clear();
+			front2.clear();
+			if (lcses.count == 0)
+				return LeastCommonSubsumers.NONE;
+			int[] result = Arrays.copyOf(lcses.nodes, lcses.count);
+			List<LCSPath> paths = null;
+			if (withPaths) {
+				paths = new ArrayList<LCSPath>(result.length);
+				for (int lcs : result) {
+					LCSPath lcsPath = new LCSPath();
+					lcsPath.setLcs(getConceptId(lcs));
+					lcsPath.setConcept1Path(path(pred1, c1, lcs));
+					lcsPath.setConcept2Path(path(pred2, c2, lcs));
+					paths.add(lcsPath);
+				}
+			}
+			return new LeastCommonSubsumers(minDist, result, paths);
+		}
+
+		/**
+		 * one breadth first step: visit the frontier, collect the unvisited
+		 * parents in next
+		 */
+		private void expand(short[] dist, int[] pred, int source,
+				Frontier front, Frontier next, Frontier added, int d) {
+			for (int i = 0; i < front.count; i++) {
+				int node = front.nodes[i];
+				if (dist[node] != 0)
+					continue;
+				dist[node] = (short) (d + 1);
+				added.add(node);
+				touched.add(node);
+				int start = parentOffsets.get(node);
+				int end = parentOffsets.get(node + 1);
+				for (int p = start; p < end; p++) {
+					int parent = parents.get(p);
+					if (pred != null && pred[parent] == NO_NODE
+							&& parent != source) {
+						pred[parent] = node;
+						touched.add(parent);
+					}
+					next.add(parent);
+				}
+			}
+			front.clear();
+			for (int i = 0; i < next.count; i++) {
+				if (dist[next.nodes[i]] != 0)
+					next.members.clear(next.nodes[i]);
+			}
+			next.compact();
+		}
+
+		private void removeParents(int lcs, Frontier front) {
+			int start = parentOffsets.get(lcs);
+			int end = parentOffsets.get(lcs + 1);
+			for (int p = start; p < end; p++)
+				front.members.clear(parents.get(p));
+		}
+
+		/**
+		 * @return path from the source up to but excluding the lcs, null if
+		 *         the lcs is the source
+		 */
+		private List<String> path(int[] pred, int source, int lcs) {
+			if (lcs == source)
+				return null;
+			List<String> path = new ArrayList<String>();
+			for (int node = pred[lcs]; node != NO_NODE; node = pred[node]) {
+				path.add(getConceptId(node));
+				if (node == source)
+					break;
+			}
+			Collections.reverse(path);
+			return path;
+		}
+
+		private void reset() {
+			for (int i = 0; i < touched.count; i++) {
+				int node = touched.nodes[i];
+				dist1[node] = 0;
+				dist2[node] = 0;
+				if (pred1 != null) {
+					pred1[node] = NO_NODE;
+					pred2[node] = NO_NODE;
+				}
+			}
+			touched.clear();
+			candidates.clear();
+			lcses.clear();
+			added1.clear();
+			added2.clear();
+			frontiers1[0].clear();
+			frontiers1[1].clear();
+			frontiers2[0].clear();
+			frontiers2[1].clear();
+		}
+	}
+}
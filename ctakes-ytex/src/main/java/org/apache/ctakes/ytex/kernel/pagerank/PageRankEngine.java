@@ -0,0 +1,431 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.pagerank;
+
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PageRank over primitive arrays. Page = concept. in-links = parents.
+ * out-links = children.
+ * <p>
+ * Personalized pagerank starts with few non-zero nodes: the topic nodes and
+ * the descendants reached so far. While they are a small part of the graph,
+ * each iteration pushes rank from those nodes to their children. Once they
+ * are not, each iteration pulls rank from the parents of every node, so nodes
+ * can be updated independently; the node range is split into fork join tasks.
+ * <p>
+ * Several topic (personalized damping) vectors can be ranked in one sweep
+ * over the graph. Their scores are interleaved by node, so the inner loop
+ * over vectors reads contiguous memory and can be vectorized by the jit. A
+ * vector stops changing once it has converged, and the sweep ends when all
+ * vectors have converged.
+ *
+ * @author vijay
+ */
+public class PageRankEngine {
+	private static final Logger LOGGER = LoggerFactory.getLogger( "PageRankEngine" );
+
+	/**
+	 * nodes per fork join task
+	 */
+	private static final int DEFAULT_GRAIN = 8192;
+	/**
+	 * push from non-zero nodes while they are fewer than 1/16 of all nodes
+	 */
+	private static final int SPARSE_SHIFT = 4;
+
+	private final int size;
+	private final int[] parentOffsets;
+	private final int[] parents;
+	private final int[] childOffsets;
+	private final int[] children;
+	/**
+	 * 1 / number of children, 0 for leaves
+	 */
+	private final double[] invOutDegree;
+	private final ForkJoinPool pool;
+	private final int grain;
+
+	public PageRankEngine(CompactConceptGraph ccg) {
+		this(ccg, ForkJoinPool.commonPool());
+	}
+
+	public PageRankEngine(CompactConceptGraph ccg, ForkJoinPool pool) {
+		this(ccg, pool, DEFAULT_GRAIN);
+	}
+
+	PageRankEngine(CompactConceptGraph ccg, ForkJoinPool pool, int grain) {
+		this.size = ccg.size();
+		this.pool = pool;
+		this.grain = grain;
+		this.parentOffsets = new int[size + 1];
+		this.childOffsets = new int[size + 1];
+		this.invOutDegree = new double[size];
+		int parentEdges = 0;
+		int childEdges = 0;
+		for (int i = 0; i < size; i++) {
+			parentOffsets[i] = parentEdges;
+			childOffsets[i] = childEdges;
+			parentEdges += ccg.getParentCount(i);
+			int childCount = ccg.getChildCount(i);
+			childEdges += childCount;
+			invOutDegree[i] = childCount > 0 ? 1d / childCount : 0d;
+		}
+		parentOffsets[size] = parentEdges;
+		childOffsets[size] = childEdges;
+		this.parents = new int[parentEdges];
+		this.children = new int[childEdges];
+		for (int i = 0; i < size; i++) {
+			int offset = parentOffsets[i];
+			for (int p = 0; p < parentOffsets[i + 1] - offset; p++)
+				parents[offset + p] = ccg.getParent(i, p);
+			offset = childOffsets[i];
+			for (int c = 0; c < childOffsets[i + 1] - offset; c++)
+				children[offset + c] = ccg.getChild(i, c);
+		}
+	}
+
+	/**
+	 * @return number of nodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * rank a single topic vector, see
+	 * {@link #rank(int[][], double[][], int, double, double)}
+	 */
+	public double[] rank(int[] nodes, double[] weights, int iter,
+			double threshold, double dampingFactor) {
+		return rank(new int[][] { nodes }, new double[][] { weights }, iter,
+				threshold, dampingFactor)[0];
+	}
+
+	/**
+	 * rank several topic vectors in one sweep per iteration.
+	 *
+	 * @param nodes
+	 *            node indexes of each topic vector. null for normal pagerank
+	 *            with a damping vector where every value is 1/N
+	 * @param weights
+	 *            weights of the nodes of each topic vector
+	 * @param iter
+	 *            max number of iterations
+	 * @param threshold
+	 *            convergence threshold for the euclidean distance between
+	 *            successive scores
+	 * @param dampingFactor
+	 * @return pageRank vector for each topic vector, indexed by node
+	 */
+	public double[][] rank(int[][] nodes, double[][] weights, int iter,
+			double threshold, double dampingFactor) {
+		int k = nodes.length;
+		double[] current = new double[size * k];
+		double[] uniformJump = new double[k];
+		JumpVector jumps = new JumpVector(nodes, weights, 1 - dampingFactor);
+		// non-zero nodes, null once the iteration is dense
+		NodeSet nonZero = new NodeSet(size);
+		for (int j = 0; j < k; j++) {
+			if (nodes[j] == null) {
+				uniformJump[j] = (1 - dampingFactor) / size;
+				for (int i = 0; i < size; i++)
+					current[i * k + j] = 1d / size;
+				nonZero = null;
+			} else {
+				for (int e = 0; e < nodes[j].length; e++) {
+					current[nodes[j][e] * k + j] = weights[j][e];
+					if (nonZero != null)
+						nonZero.add(nodes[j][e]);
+				}
+			}
+		}
+		double[] next = new double[size * k];
+		boolean[] active = new boolean[k];
+		Arrays.fill(active, true);
+		int activeCount = k;
+		double[] diff = new double[k];
+		int i = 0;
+		for (; i < iter && activeCount > 0; i++) {
+			if (nonZero != null && nonZero.count > size >> SPARSE_SHIFT)
+				nonZero = null;
+			double[] squares;
+			if (nonZero != null) {
+				squares = push(current, next, k, active, jumps, dampingFactor,
+						nonZero);
+			} else {
+				Sweep sweep = new Sweep(current, next, k, active, uniformJump,
+						jumps, dampingFactor, 0, size);
+				squares = size > grain ? pool.invoke(sweep) : sweep.compute();
+			}
+			double[] tmp = current;
+			current = next;
+			next = tmp;
+			for (int j = 0; j < k; j++) {
+				if (active[j]) {
+					diff[j] = Math.sqrt(squares[j]);
+					if (diff[j] <= threshold) {
+						active[j] = false;
+						activeCount--;
+					}
+				}
+			}
+		}
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(k + " vectors, " + i + " iterations, " + activeCount
+					+ " did not converge, diff = " + Arrays.toString(diff));
+		}
+		if (k == 1)
+			return new double[][] { current };
+		double[][] scores = new double[k][size];
+		if (nonZero != null) {
+			for (int n = 0; n < nonZero.count; n++) {
+				int node = nonZero.nodes[n];
+				for (int j = 0; j < k; j++)
+					scores[j][node] = current[node * k + j];
+			}
+		} else {
+			for (int n = 0; n < size; n++) {
+				for (int j = 0; j < k; j++)
+					scores[j][n] = current[n * k + j];
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * one sparse iteration: push rank from the non-zero nodes to their
+	 * children. Nodes only ever become non-zero, because the topic nodes keep
+	 * their random jump, so next is only non-zero on the current non-zero
+	 * nodes.
+	 *
+	 * @return sum of squared differences for each vector
+	 */
+	private double[] push(double[] current, double[] next, int k,
+			boolean[] active, JumpVector jumps, double dampingFactor,
+			NodeSet nonZero) {
+		int count = nonZero.count;
+		for (int n = 0; n < count; n++)
+			Arrays.fill(next, nonZero.nodes[n] * k, nonZero.nodes[n] * k + k, 0d);
+		for (int n = 0; n < count; n++) {
+			int node = nonZero.nodes[n];
+			double w = invOutDegree[node] * dampingFactor;
+			if (w == 0d)
+				continue;
+			int base = node * k;
+			for (int c = childOffsets[node]; c < childOffsets[node + 1]; c++) {
+				int child = children[c];
+				nonZero.add(child);
+				int childBase = child * k;
+				for (int j = 0; j < k; j++)
+					next[childBase + j] += current[base + j] * w;
+			}
+		}
+		for (int e = 0; e < jumps.nodes.length; e++)
+			next[jumps.nodes[e] * k + jumps.vectors[e]] += jumps.values[e];
+		double[] squares = new double[k];
+		for (int n = 0; n < nonZero.count; n++) {
+			int base = nonZero.nodes[n] * k;
+			for (int j = 0; j < k; j++) {
+				if (active[j]) {
+					double d = next[base + j] - current[base + j];
+					squares[j] += d * d;
+				} else {
+					next[base + j] = current[base + j];
+				}
+			}
+		}
+		return squares;
+	}
+
+	/**
+	 * growable list of nodes with a bitset for membership
+	 */
+	private static final class NodeSet {
+		private final BitSet members;
+		private int[] nodes = new int[64];
+		private int count = 0;
+
+		private NodeSet(int size) {
+			members = new BitSet(size);
+		}
+
+		private void add(int node) {
+			if (!members.get(node)) {
+				members.set(node);
+				if (count == nodes.length)
+					nodes = Arrays.copyOf(nodes, count * 2);
+				nodes[count++] = node;
+			}
+		}
+	}
+
+	/**
+	 * non-zero random jump probabilities of topic vectors, sorted by node
+	 */
+	private static final class JumpVector {
+		private final int[] nodes;
+		private final int[] vectors;
+		private final double[] values;
+
+		private JumpVector(int[][] topicNodes, double[][] topicWeights,
+				double scale) {
+			int count = 0;
+			for (int[] tn : topicNodes)
+				count += tn != null ? tn.length : 0;
+			long[] order = new long[count];
+			int e = 0;
+			for (int j = 0; j < topicNodes.length; j++) {
+				if (topicNodes[j] != null) {
+					for (int t = 0; t < topicNodes[j].length; t++) {
+						// sort key: node, then position of the entry
+						order[e] = ((long) topicNodes[j][t] << 32) | e;
+						e++;
+					}
+				}
+			}
+			int[] entryNodes = new int[count];
+			int[] entryVectors = new int[count];
+			double[] entryValues = new double[count];
+			e = 0;
+			for (int j = 0; j < topicNodes.length; j++) {
+				if (topicNodes[j] != null) {
+					for (int t = 0; t < topicNodes[j].length; t++) {
+						entryNodes[e] = topicNodes[j][t];
+						entryVectors[e] = j;
+						entryValues[e] = topicWeights[j][t] * scale;
+						e++;
+					}
+				}
+			}
+			Arrays.sort(order);
+			nodes = new int[count];
+			vectors = new int[count];
+			values = new double[count];
+			for (e = 0; e < count; e++) {
+				int entry = (int) order[e];
+				nodes[e] = entryNodes[entry];
+				vectors[e] = entryVectors[entry];
+				values[e] = entryValues[entry];
+			}
+		}
+
+		/**
+		 * @return index of the first entry with a node &gt;= the given node
+		 */
+		private int first(int node) {
+			int low = 0;
+			int high = nodes.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (nodes[mid] < node)
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			return low;
+		}
+	}
+
+	/**
+	 * one iteration over a node range.
+	 *
+	 * @return sum of squared differences for each vector
+	 */
+	private final class Sweep extends RecursiveTask<double[]> {
+		private static final long serialVersionUID = 1L;
+		private final double[] current;
+		private final double[] next;
+		private final int k;
+		private final boolean[] active;
+		private final double[] uniformJump;
+		private final JumpVector jumps;
+		private final double dampingFactor;
+		private final int lo;
+		private final int hi;
+
+		private Sweep(double[] current, double[] next, int k,
+				boolean[] active, double[] uniformJump, JumpVector jumps,
+				double dampingFactor, int lo, int hi) {
+			this.current = current;
+			this.next = next;
+			this.k = k;
+			this.active = active;
+			this.uniformJump = uniformJump;
+			this.jumps = jumps;
+			this.dampingFactor = dampingFactor;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected double[] compute() {
+			if (hi - lo > grain) {
+				int mid = (lo + hi) >>> 1;
+				Sweep left = new Sweep(current, next, k, active, uniformJump,
+						jumps, dampingFactor, lo, mid);
+				Sweep right = new Sweep(current, next, k, active,
+						uniformJump, jumps, dampingFactor, mid, hi);
+				left.fork();
+				double[] squares = right.compute();
+				double[] leftSquares = left.join();
+				for (int j = 0; j < k; j++)
+					squares[j] += leftSquares[j];
+				return squares;
+			}
+			double[] acc = new double[k];
+			double[] squares = new double[k];
+			int e = jumps.first(lo);
+			for (int i = lo; i < hi; i++) {
+				Arrays.fill(acc, 0d);
+				// get nodes pointing at node i, add their pagerank divided by
+				// the number of nodes they point at
+				for (int p = parentOffsets[i]; p < parentOffsets[i + 1]; p++) {
+					int parent = parents[p];
+					double w = invOutDegree[parent];
+					int base = parent * k;
+					for (int j = 0; j < k; j++)
+						acc[j] += current[base + j] * w;
+				}
+				int base = i * k;
+				for (int j = 0; j < k; j++)
+					next[base + j] = acc[j] * dampingFactor + uniformJump[j];
+				for (; e < jumps.nodes.length && jumps.nodes[e] == i; e++)
+					next[base + jumps.vectors[e]] += jumps.values[e];
+				for (int j = 0; j < k; j++) {
+					if (active[j]) {
+						double d = next[base + j] - current[base + j];
+						squares[j] += d * d;
+					} else {
+						// converged - keep the scores
+						next[base + j] = current[base + j];
+					}
+				}
+			}
+			return squares;
+		}
+	}
+}
@@ -18,8 +18,10 @@
  */
 package org.apache.ctakes.ytex.kernel.pagerank;
 
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 
+import java.util.List;
 import java.util.Map;
 
 
@@ -45,8 +47,8 @@ public interface PageRankService {
 			ConceptGraph cg, int iter, double threshold, double dampingFactor);
 
 	/**
-	 * call rank() with default values for iter (30), threshold(1e-4),
-	 * dampingFactor(0.85)
+	 * call rank() with the configured values for iter (default 30),
+	 * threshold (default 1e-4) and dampingFactor (default 0.85)
 	 * 
 	 * @param dampingVector
 	 * @param cg
@@ -61,4 +63,28 @@ public interface PageRankService {
 	public abstract double[] rank2(Map<Integer, Double> dampingVector, ConceptGraph cg, int iter,
 			double threshold, double dampingFactor);
 
+	/**
+	 * PageRank for several damping vectors at once, in the same sweeps over the
+	 * concept graph.
+	 * 
+	 * @param dampingVectors
+	 *            topic vectors keyed by node index. A null vector gives normal
+	 *            pagerank
+	 * @return pageRank vector for each damping vector, indexed by node
+	 */
+	public abstract double[][] rank2(List<Map<Integer, Double>> dampingVectors,
+			ConceptGraph cg, int iter, double threshold, double dampingFactor);
+
+	/**
+	 * use an already loaded compact form of the concept graph, rather than
+	 * building another one from the concept graph
+	 * 
+	 * @param cg
+	 *            concept graph
+	 * @param ccg
+	 *            compact form of the concept graph, with the same node indexes
+	 */
+	public abstract void setCompactConceptGraph(ConceptGraph cg,
+			CompactConceptGraph ccg);
+
 }
\ No newline at end of file
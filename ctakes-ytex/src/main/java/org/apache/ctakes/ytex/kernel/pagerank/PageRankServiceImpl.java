@@ -21,6 +21,7 @@ package org.apache.ctakes.ytex.kernel.pagerank;
 import org.apache.commons.cli.*;
 import org.apache.ctakes.ytex.kernel.KernelContextHolder;
 import org.apache.ctakes.ytex.kernel.dao.ConceptDao;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConcRel;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 import org.slf4j.LoggerFactory;
@@ -32,70 +33,42 @@ import java.util.*;
 public class PageRankServiceImpl implements PageRankService {
 	private static final Logger LOGGER = LoggerFactory.getLogger( "PageRankServiceImpl" );
 
-	private double[] rankInternal(Map<Integer, Double> dampingVector,
-			ConceptGraph cg, int iter, double threshold, double dampingFactor) {
-		Map<Integer, Double> scoreMapCurrent = dampingVector;
-		double N = (double) cg.getConceptList().size();
-		double scoresCurrent[] = new double[cg.getConceptList().size()];
-		double diff = 1d;
-		for (int i = 0; i < iter; i++) {
-			double[] scoresOld = scoresCurrent;
-			long timeBegin = 0;
-			if ( LOGGER.isDebugEnabled()) {
-				timeBegin = System.currentTimeMillis();
-			}
-			scoresCurrent = pagerankIter(scoresOld, dampingVector, cg,
-					dampingFactor, N);
-			if ( LOGGER.isDebugEnabled()) {
-				LOGGER.debug("iter " + i + " "
-						+ Long.toString(System.currentTimeMillis() - timeBegin));
-			}
-			if ((diff = difference(scoresOld, scoresCurrent)) <= threshold)
-				break;
-		}
-		if ( LOGGER.isDebugEnabled() && diff > threshold) {
-			LOGGER.debug("did not converge, diff = " + diff + ", dampingVector = "
-					+ dampingVector);
-		}
-		return scoresCurrent;
-	}
-
 	/**
-	 * difference between 2 vectors
-	 * 
-	 * @param a
-	 * @param b
-	 * @return a-b
+	 * engines hold the concept graph in primitive arrays; released with the
+	 * graph
 	 */
-	private <T> double difference(Map<T, Double> a, Map<T, Double> b) {
-		double diff = 0d;
-		for (Map.Entry<T, Double> aiEntry : a.entrySet()) {
-			Double bi = b.get(aiEntry.getKey());
-			diff += Math.pow(
-					aiEntry.getValue() - (bi != null ? bi.doubleValue() : 0d),
-					2);
-		}
-		for (Map.Entry<T, Double> biEntry : b.entrySet()) {
-			if (!a.containsKey(biEntry.getKey())) {
-				diff += Math.pow(biEntry.getValue(), 2);
-			}
-		}
-		return diff;
-	}
-
+	private final Map<ConceptGraph, PageRankEngine> engines = new WeakHashMap<ConceptGraph, PageRankEngine>();
 	/**
-	 * 
-	 * @param u
-	 * @param v
-	 * @return norm(u-v)
+	 * compact forms of concept graphs that have already been loaded, used to
+	 * create engines
 	 */
-	private double difference(double[] u, double[] v) {
-		double diff = 0d;
-		for (int i = 0; i < u.length; i++) {
-			double d = (u[i] - v[i]);
-			diff += d * d;
-		}
-		return Math.sqrt(diff);
+	private final Map<ConceptGraph, CompactConceptGraph> compactGraphs = new WeakHashMap<ConceptGraph, CompactConceptGraph>();
+	private int iter = 30;
+	private double threshold = 1e-4;
+	private double dampingFactor = 0.85;
+
+	public int getIter() {
+		return iter;
+	}
+
+	public void setIter(int iter) {
+		this.iter = iter;
+	}
+
+	public double getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold(double threshold) {
+		this.threshold = threshold;
+	}
+
+	public double getDampingFactor() {
+		return dampingFactor;
+	}
+
+	public void setDampingFactor(double dampingFactor) {
+		this.dampingFactor = dampingFactor;
 	}
 
 	private double cosine(double[] u, double[] v) {
@@ -201,55 +174,65 @@ public class PageRankServiceImpl implements PageRankService {
 	@Override
 	public double[] rank2(Map<Integer, Double> dampingVector, ConceptGraph cg,
 			int iter, double threshold, double dampingFactor) {
-		double N = (double) cg.getConceptMap().size();
-		double scoresCurrent[] = new double[cg.getConceptMap().size()];
-		Map<Integer, Double> dampingVectorAdj = null;
-		// Set<Integer> activeNodes = null;
-		if (dampingVector != null) {
-			// for personalized page rank, put together a map of possibilities
-			// of randomly jumping to a specific node
-			dampingVectorAdj = new HashMap<Integer, Double>(
-					dampingVector.size());
-			// // initialize set of active nodes
-			// activeNodes = new HashSet<Integer>(dampingVector.keySet());
-			Arrays.fill(scoresCurrent, 0d);
-			for (Map.Entry<Integer, Double> dvEntry : dampingVector.entrySet()) {
-				// set the random jump for the node
-				dampingVectorAdj.put(dvEntry.getKey(), dvEntry.getValue()
-						* (1 - dampingFactor));
-				// set the initial weight for the node
-				scoresCurrent[dvEntry.getKey()] = dvEntry.getValue();
+		return rank2(Collections.singletonList(dampingVector), cg, iter,
+				threshold, dampingFactor)[0];
+	}
+
+	@Override
+	public double[][] rank2(List<Map<Integer, Double>> dampingVectors,
+			ConceptGraph cg, int iter, double threshold, double dampingFactor) {
+		int[][] nodes = new int[dampingVectors.size()][];
+		double[][] weights = new double[dampingVectors.size()][];
+		for (int j = 0; j < nodes.length; j++) {
+			Map<Integer, Double> dampingVector = dampingVectors.get(j);
+			if (dampingVector != null) {
+				nodes[j] = new int[dampingVector.size()];
+				weights[j] = new double[dampingVector.size()];
+				int e = 0;
+				for (Map.Entry<Integer, Double> dvEntry : dampingVector
+						.entrySet()) {
+					nodes[j][e] = dvEntry.getKey();
+					weights[j][e] = dvEntry.getValue();
+					e++;
+				}
 			}
-		} else {
-			// for static page rank, all nodes have same weight initially
-			Arrays.fill(scoresCurrent, 1d / N);
 		}
-		double diff = 1d;
-		for (int i = 0; i < iter; i++) {
-			double scoresOld[] = scoresCurrent;
-			long timeBegin = 0;
-			if ( LOGGER.isDebugEnabled()) {
-				timeBegin = System.currentTimeMillis();
-			}
-			// if (activeNodes == null) {
-			scoresCurrent = pagerankIter(scoresCurrent, dampingVectorAdj, cg,
-					dampingFactor, N);
-			// } else {
-			// scoresCurrent = pagerankIter(scoresCurrent, dampingVectorAdj,
-			// cg, dampingFactor, N, activeNodes);
-			// }
-			if ( LOGGER.isDebugEnabled()) {
-				LOGGER.debug("iter " + i + " time(ms) "
-						+ Long.toString(System.currentTimeMillis() - timeBegin));
+		long timeBegin = 0;
+		if ( LOGGER.isDebugEnabled()) {
+			timeBegin = System.currentTimeMillis();
+		}
+		double[][] scores = getEngine(cg).rank(nodes, weights, iter,
+				threshold, dampingFactor);
+		if ( LOGGER.isDebugEnabled()) {
+			LOGGER.debug("rank2 " + nodes.length + " vectors, time(ms) "
+					+ Long.toString(System.currentTimeMillis() - timeBegin));
+		}
+		return scores;
+	}
+
+	/**
+	 * @return engine for the concept graph, created on first use
+	 */
+	private PageRankEngine getEngine(ConceptGraph cg) {
+		synchronized (engines) {
+			PageRankEngine engine = engines.get(cg);
+			if (engine == null) {
+				CompactConceptGraph ccg = compactGraphs.get(cg);
+				if (ccg == null)
+					ccg = CompactConceptGraph.fromConceptGraph(cg);
+				engine = new PageRankEngine(ccg);
+				engines.put(cg, engine);
 			}
-			if ((diff = difference(scoresCurrent, scoresOld)) <= threshold)
-				break;
+			return engine;
 		}
-		if ( LOGGER.isDebugEnabled() && diff > threshold) {
-			LOGGER.debug("did not converge, diff = " + diff + ", dampingVector = "
-					+ dampingVector);
+	}
+
+	@Override
+	public void setCompactConceptGraph(ConceptGraph cg, CompactConceptGraph ccg) {
+		synchronized (engines) {
+			compactGraphs.put(cg, ccg);
+			engines.remove(cg);
 		}
-		return scoresCurrent;
 	}
 
 	/**
@@ -419,43 +402,16 @@ public class PageRankServiceImpl implements PageRankService {
 		if (c1 == null || c2 == null)
 			return 0d;
 		c1dv.put(c1.getNodeIndex(), 1d);
-		double[] c1pr = this.rank2(c1dv, cg, iter, threshold, dampingFactor);
 		Map<Integer, Double> c2dv = new HashMap<Integer, Double>(1);
 		c2dv.put(c2.getNodeIndex(), 1d);
-		double[] c2pr = this.rank2(c2dv, cg, iter, threshold, dampingFactor);
-		return cosine(c1pr, c2pr);
-	}
-
-	/**
-	 * cosine of two vectors
-	 * 
-	 * @param u
-	 * @param v
-	 * @return
-	 */
-	private <T> double cosine(Map<T, Double> u, Map<T, Double> v) {
-		double uu = 0d;
-		double uv = 0d;
-		double vv = 0d;
-		if (u.isEmpty() || v.isEmpty())
-			return 0d;
-		// in this loop compute u*u, and u*v
-		for (Map.Entry<T, Double> uEntry : u.entrySet()) {
-			double ui = uEntry.getValue();
-			T uC = uEntry.getKey();
-			uu += ui * ui;
-			Double vi = v.get(uC);
-			if (vi != null)
-				uv += ui * vi.doubleValue();
-		}
-		if (uv == 0)
-			return 0d;
-		// in this loop, compute v*v
-		for (double vi : v.values()) {
-			vv += vi * vi;
-		}
-		// u*v/sqrt(v*v)*sqrt(u*u)
-		return uv / Math.sqrt(vv * uu);
+		// rank both concepts in the same sweeps
+		List<Map<Integer, Double>> dampingVectors = new ArrayList<Map<Integer, Double>>(
+				2);
+		dampingVectors.add(c1dv);
+		dampingVectors.add(c2dv);
+		double[][] pr = this.rank2(dampingVectors, cg, iter, threshold,
+				dampingFactor);
+		return cosine(pr[0], pr[1]);
 	}
 
 	public static void main(String args[]) {
@@ -518,13 +474,21 @@ public class PageRankServiceImpl implements PageRankService {
 	@Override
 	public double[] rank(Map<String, Double> dampingVector, ConceptGraph cg,
 			int iter, double threshold, double dampingFactor) {
-		// TODO Auto-generated method stub
-		return null;
+		Map<Integer, Double> indexDampingVector = null;
+		if (dampingVector != null) {
+			indexDampingVector = new HashMap<Integer, Double>(
+					dampingVector.size());
+			for (Map.Entry<String, Double> dvEntry : dampingVector.entrySet()) {
+				ConcRel cr = cg.getConceptMap().get(dvEntry.getKey());
+				if (cr != null)
+					indexDampingVector.put(cr.getNodeIndex(), dvEntry.getValue());
+			}
+		}
+		return rank2(indexDampingVector, cg, iter, threshold, dampingFactor);
 	}
 
 	@Override
 	public double[] rank(Map<String, Double> dampingVector, ConceptGraph cg) {
-		// TODO Auto-generated method stub
-		return null;
+		return rank(dampingVector, cg, iter, threshold, dampingFactor);
 	}
 }
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.dao;
+
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
+import org.apache.ctakes.ytex.kernel.model.ConcRel;
+import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class ConceptDaoImplTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * chain of concepts, each the child of the one before it
+	 */
+	private static ConceptGraph chainGraph(int size) {
+		ConceptGraph cg = new ConceptGraph();
+		ConcRel parent = cg.addConcept("C0000000");
+		for (int i = 1; i < size; i++) {
+			ConcRel child = cg.addConcept(String.format("C%07d", i));
+			child.getParents().add(parent);
+			parent.getChildren().add(child);
+			parent = child;
+		}
+		cg.setRoot("C0000000");
+		return cg;
+	}
+
+	@Test
+	public void testStaleCompactConceptGraphIsRebuilt() throws Exception {
+		File dir = folder.newFolder("conceptGraph");
+		Properties ytexProperties = new Properties();
+		ytexProperties.setProperty("org.apache.ctakes.ytex.conceptGraphDir",
+				dir.getAbsolutePath());
+		ConceptDaoImpl conceptDao = new ConceptDaoImpl();
+		conceptDao.setYtexProperties(ytexProperties);
+		String name = "stale_csr_test";
+		File cgFile = new File(dir, name + ".gz");
+		File csrFile = new File(dir, name + ".csr");
+		Files.write(cgFile.toPath(), "first graph".getBytes(StandardCharsets.UTF_8));
+
+		// no compact graph yet, so it is built from the concept graph and written
+		assertEquals(10, conceptDao.getCompactConceptGraph(name, chainGraph(10))
+				.size());
+		assertTrue(csrFile.exists());
+		// the compact graph is current, so it is mapped rather than rebuilt
+		assertEquals(10, conceptDao.getCompactConceptGraph(name, chainGraph(20))
+				.size());
+
+		// a concept graph file replaced with an older timestamp is still
+		// detected by its checksum
+		Files.write(cgFile.toPath(), "second graph".getBytes(StandardCharsets.UTF_8));
+		assertTrue(cgFile.setLastModified(csrFile.lastModified() - 60000));
+		assertEquals(20, conceptDao.getCompactConceptGraph(name, chainGraph(20))
+				.size());
+		assertEquals(CompactConceptGraph.checksum(cgFile),
+				CompactConceptGraph.readSourceChecksum(csrFile));
+		assertEquals(20, CompactConceptGraph.map(csrFile).size());
+
+		// a newer concept graph file is stale by its timestamp
+		assertTrue(cgFile.setLastModified(csrFile.lastModified() + 60000));
+		assertEquals(30, conceptDao.getCompactConceptGraph(name, chainGraph(30))
+				.size());
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.model;
+
+import org.apache.ctakes.ytex.kernel.metric.LCSPath;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph.LeastCommonSubsumers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CompactConceptGraphTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * random dag where each concept has 1-3 parents among the concepts before
+	 * it, so that there are many alternative paths
+	 */
+	private static ConceptGraph randomGraph(int size, long seed) {
+		Random random = new Random(seed);
+		ConceptGraph cg = new ConceptGraph();
+		cg.addConcept("C0000000");
+		for (int i = 1; i < size; i++) {
+			ConcRel child = cg.addConcept(String.format("C%07d", i));
+			int parents = 1 + random.nextInt(3);
+			for (int p = 0; p < parents; p++) {
+				ConcRel parent = cg.getConceptList().get(random.nextInt(i));
+				child.getParents().add(parent);
+				parent.getChildren().add(child);
+			}
+			child.setDepth((short) (child.getParents().iterator().next()
+					.getDepth() + 1));
+			child.setIntrinsicInfoContent(i / (double) size);
+		}
+		cg.setRoot("C0000000");
+		cg.setDepthMax((short) 10);
+		cg.setIntrinsicICMax(1d);
+		return cg;
+	}
+
+	@Test
+	public void testLeastCommonSubsumers() {
+		ConceptGraph cg = randomGraph(500, 17);
+		CompactConceptGraph ccg = CompactConceptGraph.fromConceptGraph(cg);
+		Random random = new Random(3);
+		for (int i = 0; i < 2000; i++) {
+			ConcRel cr1 = cg.getConceptList().get(random.nextInt(500));
+			ConcRel cr2 = cg.getConceptList().get(random.nextInt(500));
+			Set<ConcRel> lcses = new HashSet<ConcRel>();
+			int dist = ConcRel.getLeastCommonConcept(cr1, cr2, lcses, null);
+			LeastCommonSubsumers lcs = ccg.getLeastCommonSubsumers(
+					cr1.getNodeIndex(), cr2.getNodeIndex(), i % 2 == 0);
+			assertEquals(dist, lcs.getDistance());
+			Set<ConcRel> compactLcses = new HashSet<ConcRel>();
+			for (int j = 0; j < lcs.getConceptCount(); j++)
+				compactLcses.add(cg.getConceptList().get(lcs.getConcept(j)));
+			assertEquals(lcses, compactLcses);
+			if (lcs.getPaths() != null) {
+				for (LCSPath path : lcs.getPaths())
+					assertPath(cg, cr1, path.getConcept1Path(), path.getLcs(),
+							dist);
+			}
+		}
+	}
+
+	/**
+	 * the path must start at the concept and step from child to parent up to
+	 * the lcs
+	 */
+	private static void assertPath(ConceptGraph cg, ConcRel concept,
+			List<String> path, String lcs, int dist) {
+		if (concept.getConceptID().equals(lcs)) {
+			assertNull(path);
+			return;
+		}
+		assertEquals(concept.getConceptID(), path.get(0));
+		assertTrue(path.size() < dist);
+		List<String> steps = new ArrayList<String>(path);
+		steps.add(lcs);
+		for (int i = 1; i < steps.size(); i++) {
+			ConcRel child = cg.getConceptMap().get(steps.get(i - 1));
+			ConcRel parent = cg.getConceptMap().get(steps.get(i));
+			assertTrue(child.getParents().contains(parent));
+		}
+	}
+
+	@Test
+	public void testWriteAndMap() throws Exception {
+		ConceptGraph cg = randomGraph(200, 5);
+		CompactConceptGraph ccg = CompactConceptGraph.fromConceptGraph(cg);
+		File file = folder.newFile("test.csr");
+		ccg.write(file);
+		CompactConceptGraph mapped = CompactConceptGraph.map(file);
+		assertEquals(cg.getConceptList().size(), mapped.size());
+		assertEquals(0, mapped.getRoot());
+		assertEquals(10, mapped.getDepthMax());
+		assertEquals(1d, mapped.getIntrinsicICMax(), 0d);
+		assertEquals(-1, mapped.getNodeIndex("C9999999"));
+		for (ConcRel cr : cg.getConceptList()) {
+			int node = mapped.getNodeIndex(cr.getConceptID());
+			assertEquals(cr.getNodeIndex(), node);
+			assertEquals(cr.getConceptID(), mapped.getConceptId(node));
+			assertEquals(cr.getDepth(), mapped.getDepth(node));
+			assertEquals(cr.getIntrinsicInfoContent(),
+					mapped.getIntrinsicInfoContent(node), 0d);
+			Set<ConcRel> parents = new HashSet<ConcRel>();
+			for (int i = 0; i < mapped.getParentCount(node); i++)
+				parents.add(cg.getConceptList().get(mapped.getParent(node, i)));
+			assertEquals(cr.getParents(), parents);
+			Set<ConcRel> children = new HashSet<ConcRel>();
+			for (int i = 0; i < mapped.getChildCount(node); i++)
+				children.add(cg.getConceptList().get(mapped.getChild(node, i)));
+			assertEquals(cr.getChildren(), children);
+		}
+	}
+
+	@Test
+	public void testSourceChecksum() throws Exception {
+		CompactConceptGraph ccg = CompactConceptGraph.fromConceptGraph(randomGraph(
+				50, 7));
+		assertEquals(0L, ccg.getSourceChecksum());
+		File file = folder.newFile("source.csr");
+		ccg.write(file, 12345L);
+		assertEquals(12345L, CompactConceptGraph.readSourceChecksum(file));
+		CompactConceptGraph mapped = CompactConceptGraph.map(file);
+		assertEquals(12345L, mapped.getSourceChecksum());
+		assertEquals(50, mapped.size());
+		File notCompact = folder.newFile("empty.csr");
+		assertEquals(-1L, CompactConceptGraph.readSourceChecksum(notCompact));
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.pagerank;
+
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
+import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Personalized pagerank on a synthetic concept graph the size of a umls
+ * subset such as snomed. Compares the previous array and boxed map iterations
+ * over concept objects with the engine run sequentially, in parallel, and with
+ * a batch of topic vectors (e.g. the context concepts of a sentence for wsd)
+ * ranked in one sweep.
+ * <p>
+ * Run with: mvn test-compile, then java -cp
+ * target/test-classes:target/classes:[test classpath]
+ * org.apache.ctakes.ytex.kernel.pagerank.PageRankEngineBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class PageRankEngineBenchmark {
+
+	@Param({ "300000" })
+	public int conceptCount;
+
+	@Param({ "8" })
+	public int batchSize;
+
+	/**
+	 * SPECIFIC topics are random concepts, most of which have few
+	 * descendants. GENERAL topics are near the root, so that rank spreads over
+	 * most of the graph.
+	 */
+	@Param({ "SPECIFIC", "GENERAL" })
+	public String topics;
+
+	private static final int ITERATIONS = 10;
+	private static final double DAMPING = 0.85;
+
+	private ConceptGraph cg;
+	/**
+	 * deserialized copy of cg, with parent and child arrays
+	 */
+	private ConceptGraph serializedCg;
+	private PageRankEngine sequentialEngine;
+	private PageRankEngine parallelEngine;
+	private ForkJoinPool sequentialPool;
+	private int[][] topicNodes;
+	private double[][] topicWeights;
+
+	@Setup
+	public void setup() throws Exception {
+		cg = PageRankEngineTest.randomGraph(conceptCount, 42);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream os = new ObjectOutputStream(bytes);
+		os.writeObject(cg);
+		os.close();
+		serializedCg = (ConceptGraph) new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		CompactConceptGraph ccg = CompactConceptGraph.fromConceptGraph(cg);
+		sequentialPool = new ForkJoinPool(1);
+		sequentialEngine = new PageRankEngine(ccg, sequentialPool);
+		parallelEngine = new PageRankEngine(ccg);
+		Random random = new Random(7);
+		topicNodes = new int[batchSize][];
+		topicWeights = new double[batchSize][];
+		for (int j = 0; j < batchSize; j++) {
+			topicNodes[j] = new int[] { random.nextInt("GENERAL"
+					.equals(topics) ? 100 : conceptCount) };
+			topicWeights[j] = new double[] { 1d };
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		sequentialPool.shutdown();
+	}
+
+	/**
+	 * the previous rank2 iteration over concept objects, one topic vector at a
+	 * time
+	 */
+	@Benchmark
+	public double conceptArrays() {
+		PageRankServiceImpl impl = new PageRankServiceImpl();
+		double sum = 0d;
+		for (int j = 0; j < batchSize; j++) {
+			Map<Integer, Double> dampingVector = new HashMap<Integer, Double>();
+			dampingVector.put(topicNodes[j][0], 1d - DAMPING);
+			double[] scores = new double[conceptCount];
+			scores[topicNodes[j][0]] = 1d;
+			for (int i = 0; i < ITERATIONS; i++)
+				scores = impl.pagerankIter(scores, dampingVector,
+						serializedCg, DAMPING, conceptCount);
+			sum += scores[0];
+		}
+		return sum;
+	}
+
+	/**
+	 * the previous personalized iteration over boxed maps and concept objects,
+	 * one topic vector at a time
+	 */
+	@Benchmark
+	public int boxedMaps() {
+		PageRankServiceImpl impl = new PageRankServiceImpl();
+		int nonZero = 0;
+		for (int j = 0; j < batchSize; j++) {
+			Map<Integer, Double> dampingVector = new HashMap<Integer, Double>();
+			dampingVector.put(topicNodes[j][0], 1d);
+			Map<Integer, Double> scores = dampingVector;
+			for (int i = 0; i < ITERATIONS; i++)
+				scores = impl.pagerankIter(scores, dampingVector, cg, DAMPING,
+						conceptCount);
+			nonZero += scores.size();
+		}
+		return nonZero;
+	}
+
+	@Benchmark
+	public double sequential() {
+		return rankEach(sequentialEngine);
+	}
+
+	@Benchmark
+	public double parallel() {
+		return rankEach(parallelEngine);
+	}
+
+	@Benchmark
+	public double parallelBatch() {
+		double[][] scores = parallelEngine.rank(topicNodes, topicWeights,
+				ITERATIONS, 0d, DAMPING);
+		return scores[0][0];
+	}
+
+	private double rankEach(PageRankEngine engine) {
+		double sum = 0d;
+		for (int j = 0; j < batchSize; j++)
+			sum += engine.rank(topicNodes[j], topicWeights[j], ITERATIONS, 0d,
+					DAMPING)[0];
+		return sum;
+	}
+
+	public static void main(String... args) throws RunnerException {
+		Options options = new OptionsBuilder().include(
+				PageRankEngineBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+}
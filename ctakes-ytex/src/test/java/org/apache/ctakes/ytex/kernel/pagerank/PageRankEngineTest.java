@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.pagerank;
+
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
+import org.apache.ctakes.ytex.kernel.model.ConcRel;
+import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class PageRankEngineTest {
+
+	static ConceptGraph randomGraph(int size, long seed) {
+		Random random = new Random(seed);
+		ConceptGraph cg = new ConceptGraph();
+		cg.addConcept("C0000000");
+		for (int i = 1; i < size; i++) {
+			ConcRel child = cg.addConcept(String.format("C%07d", i));
+			int parents = 1 + random.nextInt(3);
+			for (int p = 0; p < parents; p++) {
+				ConcRel parent = cg.getConceptList().get(random.nextInt(i));
+				child.getParents().add(parent);
+				parent.getChildren().add(child);
+			}
+		}
+		cg.setRoot("C0000000");
+		return cg;
+	}
+
+	/**
+	 * straightforward pagerank over the concept objects
+	 */
+	private static double[] reference(ConceptGraph cg,
+			Map<Integer, Double> dampingVector, int iter, double threshold,
+			double d) {
+		int n = cg.getConceptList().size();
+		double[] current = new double[n];
+		if (dampingVector == null)
+			Arrays.fill(current, 1d / n);
+		else
+			for (Map.Entry<Integer, Double> e : dampingVector.entrySet())
+				current[e.getKey()] = e.getValue();
+		for (int i = 0; i < iter; i++) {
+			double[] next = new double[n];
+			double diff = 0d;
+			for (ConcRel c : cg.getConceptList()) {
+				double score = 0d;
+				for (ConcRel p : c.getParents())
+					score += current[p.getNodeIndex()] / p.getChildren().size();
+				double jump = 0d;
+				if (dampingVector == null)
+					jump = (1 - d) / n;
+				else if (dampingVector.containsKey(c.getNodeIndex()))
+					jump = dampingVector.get(c.getNodeIndex()) * (1 - d);
+				next[c.getNodeIndex()] = score * d + jump;
+				double delta = next[c.getNodeIndex()] - current[c.getNodeIndex()];
+				diff += delta * delta;
+			}
+			current = next;
+			if (Math.sqrt(diff) <= threshold)
+				break;
+		}
+		return current;
+	}
+
+	@Test
+	public void testParallelBatchMatchesReference() {
+		ConceptGraph cg = randomGraph(3000, 11);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PageRankEngine engine = new PageRankEngine(
+					CompactConceptGraph.fromConceptGraph(cg), pool, 64);
+			Map<Integer, Double> topic1 = new HashMap<Integer, Double>();
+			topic1.put(5, 1d);
+			Map<Integer, Double> topic2 = new HashMap<Integer, Double>();
+			topic2.put(17, 0.5d);
+			topic2.put(2000, 0.5d);
+			List<Map<Integer, Double>> topics = Arrays.asList(topic1, null,
+					topic2);
+			int[][] nodes = new int[topics.size()][];
+			double[][] weights = new double[topics.size()][];
+			for (int j = 0; j < topics.size(); j++) {
+				if (topics.get(j) != null) {
+					nodes[j] = new int[topics.get(j).size()];
+					weights[j] = new double[topics.get(j).size()];
+					int e = 0;
+					for (Map.Entry<Integer, Double> entry : topics.get(j)
+							.entrySet()) {
+						nodes[j][e] = entry.getKey();
+						weights[j][e++] = entry.getValue();
+					}
+				}
+			}
+			double[][] batch = engine.rank(nodes, weights, 30, 1e-4, 0.85);
+			for (int j = 0; j < topics.size(); j++) {
+				double[] expected = reference(cg, topics.get(j), 30, 1e-4, 0.85);
+				assertArrayEquals(expected, batch[j], 1e-12);
+				double[] single = engine.rank(nodes[j], weights[j], 30, 1e-4,
+						0.85);
+				assertArrayEquals(single, batch[j], 1e-12);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testService() {
+		ConceptGraph cg = randomGraph(500, 3);
+		Map<String, ConcRel> conceptMap = new HashMap<String, ConcRel>();
+		for (ConcRel cr : cg.getConceptList())
+			conceptMap.put(cr.getConceptID(), cr);
+		cg.setConceptMap(conceptMap);
+		PageRankService pageRankService = new PageRankServiceImpl();
+		double sim12 = pageRankService.sim("C0000010", "C0000020", cg, 30,
+				1e-4, 0.85);
+		double sim21 = pageRankService.sim("C0000020", "C0000010", cg, 30,
+				1e-4, 0.85);
+		assertEquals(sim12, sim21, 1e-12);
+		assertEquals(1d, pageRankService.sim("C0000010", "C0000010", cg, 30,
+				1e-4, 0.85), 1e-12);
+		Map<String, Double> ppv = new HashMap<String, Double>();
+		ppv.put("C0000010", 1d);
+		Map<Integer, Double> indexPpv = new HashMap<Integer, Double>();
+		indexPpv.put(10, 1d);
+		assertArrayEquals(reference(cg, indexPpv, 30, 1e-4, 0.85),
+				pageRankService.rank(ppv, cg), 1e-12);
+	}
+
+	@Test
+	public void testServiceDefaults() {
+		ConceptGraph cg = randomGraph(500, 5);
+		Map<String, ConcRel> conceptMap = new HashMap<String, ConcRel>();
+		for (ConcRel cr : cg.getConceptList())
+			conceptMap.put(cr.getConceptID(), cr);
+		cg.setConceptMap(conceptMap);
+		PageRankServiceImpl pageRankService = new PageRankServiceImpl();
+		pageRankService.setIter(5);
+		pageRankService.setThreshold(1e-6);
+		pageRankService.setDampingFactor(0.5);
+		Map<String, Double> ppv = new HashMap<String, Double>();
+		ppv.put("C0000010", 1d);
+		Map<Integer, Double> indexPpv = new HashMap<Integer, Double>();
+		indexPpv.put(10, 1d);
+		assertArrayEquals(reference(cg, indexPpv, 5, 1e-6, 0.5),
+				pageRankService.rank(ppv, cg), 1e-12);
+	}
+
+	@Test
+	public void testServiceUsesCompactGraph() {
+		ConceptGraph cg = randomGraph(500, 3);
+		ConceptGraph other = randomGraph(500, 4);
+		Map<Integer, Double> indexPpv = new HashMap<Integer, Double>();
+		indexPpv.put(10, 1d);
+		PageRankService pageRankService = new PageRankServiceImpl();
+		assertArrayEquals(reference(cg, indexPpv, 30, 1e-4, 0.85),
+				pageRankService.rank2(indexPpv, cg, 30, 1e-4, 0.85), 1e-12);
+		// the registered compact graph replaces the one built from the concept
+		// graph, so ranks follow the edges of the registered graph
+		pageRankService.setCompactConceptGraph(cg,
+				CompactConceptGraph.fromConceptGraph(other));
+		assertArrayEquals(reference(other, indexPpv, 30, 1e-4, 0.85),
+				pageRankService.rank2(indexPpv, cg, 30, 1e-4, 0.85), 1e-12);
+	}
+}